@@ -174,6 +174,19 @@ public class Config {
                     "io.undertow", "org.xnio", "org.jboss", "com.zaxxer", "org.redisson", "com.alibaba",
                     "com.netflix", "com.mysql", "rx.internal", "io.shardingjdbc", "org.drools", "org.elasticsearch",
                     "ch.qos.logback", "net.sf.ehcache");
+
+            public static class Metrics {
+
+                /**
+                 * One of every sample interval tasks is timed into the latency histograms, 1 means every task is timed.
+                 */
+                public static int SAMPLE_INTERVAL = 16;
+
+                /**
+                 * Max count of executors whose task metrics are recorded.
+                 */
+                public static int MAX_EXECUTORS = 256;
+            }
         }
 
         public static class Apollo {
@@ -0,0 +1,97 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.hippo4j.agent.plugin.thread.pool.define;
+
+import cn.hippo4j.agent.core.plugin.interceptor.ConstructorInterceptPoint;
+import cn.hippo4j.agent.core.plugin.interceptor.InstanceMethodsInterceptPoint;
+import cn.hippo4j.agent.core.plugin.interceptor.enhance.ClassInstanceMethodsEnhancePluginDefine;
+import cn.hippo4j.agent.core.plugin.match.ClassMatch;
+import cn.hippo4j.agent.core.plugin.match.NameMatch;
+import net.bytebuddy.description.method.MethodDescription;
+import net.bytebuddy.matcher.ElementMatcher;
+
+import static net.bytebuddy.matcher.ElementMatchers.named;
+import static net.bytebuddy.matcher.ElementMatchers.takesArguments;
+
+/**
+ * <p>Thread pool executor metrics instrumentation, record the task metrics of any thread pool executor,
+ * including the executors owned by libraries which can't be replaced by dynamic thread pools.
+ *
+ * <p>The hooks of {@code beforeExecute} and {@code afterExecute} are skipped by subclasses which override them without calling super.
+ * Exclude {@code thread-pool-metrics-plugin} by {@code plugin.exclude_plugins} to disable the metrics.
+ */
+public class ThreadPoolExecutorMetricsInstrumentation extends ClassInstanceMethodsEnhancePluginDefine {
+
+    private static final String ENHANCE_CLASS = "java.util.concurrent.ThreadPoolExecutor";
+
+    private static final String EXECUTE_INTERCEPT_CLASS = "cn.hippo4j.agent.plugin.thread.pool.interceptor.ThreadPoolExecutorExecuteMethodInterceptor";
+
+    private static final String BEFORE_EXECUTE_INTERCEPT_CLASS = "cn.hippo4j.agent.plugin.thread.pool.interceptor.ThreadPoolExecutorBeforeExecuteMethodInterceptor";
+
+    private static final String AFTER_EXECUTE_INTERCEPT_CLASS = "cn.hippo4j.agent.plugin.thread.pool.interceptor.ThreadPoolExecutorAfterExecuteMethodInterceptor";
+
+    private static final String REJECT_INTERCEPT_CLASS = "cn.hippo4j.agent.plugin.thread.pool.interceptor.ThreadPoolExecutorRejectMethodInterceptor";
+
+    private static final String TERMINATED_INTERCEPT_CLASS = "cn.hippo4j.agent.plugin.thread.pool.interceptor.ThreadPoolExecutorTerminatedMethodInterceptor";
+
+    @Override
+    protected ClassMatch enhanceClass() {
+        return NameMatch.byName(ENHANCE_CLASS);
+    }
+
+    @Override
+    public boolean isBootstrapInstrumentation() {
+        return true;
+    }
+
+    @Override
+    public ConstructorInterceptPoint[] getConstructorsInterceptPoints() {
+        return new ConstructorInterceptPoint[0];
+    }
+
+    @Override
+    public InstanceMethodsInterceptPoint[] getInstanceMethodsInterceptPoints() {
+        return new InstanceMethodsInterceptPoint[]{
+                interceptPoint(named("execute").and(takesArguments(1)), EXECUTE_INTERCEPT_CLASS),
+                interceptPoint(named("beforeExecute").and(takesArguments(2)), BEFORE_EXECUTE_INTERCEPT_CLASS),
+                interceptPoint(named("afterExecute").and(takesArguments(2)), AFTER_EXECUTE_INTERCEPT_CLASS),
+                interceptPoint(named("reject").and(takesArguments(1)), REJECT_INTERCEPT_CLASS),
+                interceptPoint(named("terminated").and(takesArguments(0)), TERMINATED_INTERCEPT_CLASS)
+        };
+    }
+
+    private InstanceMethodsInterceptPoint interceptPoint(ElementMatcher<MethodDescription> matcher, String interceptor) {
+        return new InstanceMethodsInterceptPoint() {
+
+            @Override
+            public ElementMatcher<MethodDescription> getMethodsMatcher() {
+                return matcher;
+            }
+
+            @Override
+            public String getMethodsInterceptor() {
+                return interceptor;
+            }
+
+            @Override
+            public boolean isOverrideArgs() {
+                return false;
+            }
+        };
+    }
+}
@@ -0,0 +1,53 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.hippo4j.agent.plugin.thread.pool.support;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Call site which constructs a thread-pool executor, the first frame which is neither a JDK nor an agent class.
+ */
+@Getter
+@AllArgsConstructor
+public class ThreadPoolCallSite {
+
+    /**
+     * Name of the class which constructs the executor
+     */
+    private final String className;
+
+    /**
+     * Name of the method which constructs the executor
+     */
+    private final String methodName;
+
+    /**
+     * Class which constructs the executor, null if it belongs to the excluded packages or can't be loaded
+     */
+    private final Class<?> callerClass;
+
+    /**
+     * Get the id of call site.
+     *
+     * @return className#methodName
+     */
+    public String getId() {
+        return className + "#" + methodName;
+    }
+}
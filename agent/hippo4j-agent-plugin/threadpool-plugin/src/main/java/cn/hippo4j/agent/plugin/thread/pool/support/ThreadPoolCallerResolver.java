@@ -0,0 +1,301 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.hippo4j.agent.plugin.thread.pool.support;
+
+import cn.hippo4j.agent.core.conf.Config;
+import cn.hippo4j.agent.core.logging.api.ILog;
+import cn.hippo4j.agent.core.logging.api.LogManager;
+import cn.hippo4j.agent.core.util.StringUtil;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * <p>Resolve the call site which constructs a thread-pool executor, that is the first frame which is neither a JDK nor an agent class.
+ * The caller class of the call site is null if it belongs to {@link Config.Plugin.ThreadPool#EXCLUDE_PACKAGE_PREFIX}.
+ *
+ * <p>On JDK 9+ the frames are walked lazily by {@code StackWalker} with class references retained,
+ * so the walk stops at the call site, and no stack trace element or class loading is needed.
+ * On JDK 8 the frames of a throwable are read one by one through {@code JavaLangAccess} if possible. <br />
+ * At most {@link #MAX_FRAMES} frames are walked, and the type of each frame class is cached.
+ */
+public final class ThreadPoolCallerResolver {
+
+    private static final ILog LOGGER = LogManager.getLogger(ThreadPoolCallerResolver.class);
+
+    /**
+     * Max frames walked to find the business frame
+     */
+    static final int MAX_FRAMES = 32;
+
+    private static final List<String> NON_BUSINESS_CLASS_PREFIX = Arrays.asList("java", "cn.hippo4j.agent");
+
+    /**
+     * Max count of cached class names on JDK 8
+     */
+    private static final int MAX_CACHED_CLASS_NAMES = 4096;
+
+    private static final Resolver RESOLVER = createResolver();
+
+    private ThreadPoolCallerResolver() {
+    }
+
+    /**
+     * Resolve the call site which constructs a thread-pool executor.
+     *
+     * @return call site, or null if it's not found
+     */
+    public static ThreadPoolCallSite resolveCallSite() {
+        try {
+            return RESOLVER.resolve();
+        } catch (Throwable ex) {
+            LOGGER.warn(ex, "Failed to resolve the call site of thread-pool executor.");
+            return null;
+        }
+    }
+
+    /**
+     * Resolve the business class which constructs a thread-pool executor.
+     *
+     * @return business class, or null if it's not found or excluded
+     */
+    public static Class<?> resolveCallerClass() {
+        ThreadPoolCallSite callSite = resolveCallSite();
+        return callSite == null ? null : callSite.getCallerClass();
+    }
+
+    private static Resolver createResolver() {
+        try {
+            return new StackWalkerResolver();
+        } catch (Throwable ignored) {
+            // StackWalker is not available before JDK 9
+        }
+        return new StackTraceResolver();
+    }
+
+    private static FrameType classify(String className) {
+        if (StringUtil.isBlank(className)) {
+            return FrameType.EXCLUDED;
+        }
+        for (String prefix : NON_BUSINESS_CLASS_PREFIX) {
+            if (className.startsWith(prefix)) {
+                return FrameType.NON_BUSINESS;
+            }
+        }
+        for (String prefix : Config.Plugin.ThreadPool.EXCLUDE_PACKAGE_PREFIX) {
+            if (className.startsWith(prefix)) {
+                return FrameType.EXCLUDED;
+            }
+        }
+        return FrameType.BUSINESS;
+    }
+
+    /**
+     * Type of frame.
+     */
+    private enum FrameType {
+
+        /**
+         * JDK or agent frame, which is skipped
+         */
+        NON_BUSINESS,
+
+        /**
+         * Business frame, which is the call site
+         */
+        BUSINESS,
+
+        /**
+         * Frame of excluded package, which is the call site, but the caller class is ignored
+         */
+        EXCLUDED
+    }
+
+    /**
+     * Caller resolver.
+     */
+    private interface Resolver {
+
+        /**
+         * Resolve the call site.
+         *
+         * @return call site, or null if it's not found
+         * @throws Throwable if failed to resolve
+         */
+        ThreadPoolCallSite resolve() throws Throwable;
+    }
+
+    /**
+     * Resolver based on {@code StackWalker} of JDK 9+, which is accessed by method handles,
+     * so that the agent is still compiled for JDK 8.
+     */
+    private static final class StackWalkerResolver implements Resolver {
+
+        private static final ClassValue<FrameType> FRAME_TYPES = new ClassValue<FrameType>() {
+
+            @Override
+            protected FrameType computeValue(Class<?> type) {
+                return classify(type.getName());
+            }
+        };
+
+        private final MethodHandle walk;
+
+        private final MethodHandle getDeclaringClass;
+
+        private final MethodHandle getMethodName;
+
+        private final Function<Stream<Object>, ThreadPoolCallSite> findCallSite = this::findCallSite;
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        StackWalkerResolver() throws Throwable {
+            // StackWalker#walk is caller sensitive, which can't be found by a public lookup
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            Class<?> stackWalkerClass = Class.forName("java.lang.StackWalker");
+            Class<? extends Enum> optionClass = (Class<? extends Enum>) Class.forName("java.lang.StackWalker$Option");
+            Class<?> stackFrameClass = Class.forName("java.lang.StackWalker$StackFrame");
+            Set<?> options = Collections.singleton(Enum.valueOf(optionClass, "RETAIN_CLASS_REFERENCE"));
+            Object stackWalker = lookup.findStatic(stackWalkerClass, "getInstance", MethodType.methodType(stackWalkerClass, Set.class, int.class))
+                    .invoke(options, MAX_FRAMES);
+            this.walk = lookup.findVirtual(stackWalkerClass, "walk", MethodType.methodType(Object.class, Function.class))
+                    .bindTo(stackWalker);
+            this.getDeclaringClass = lookup.findVirtual(stackFrameClass, "getDeclaringClass", MethodType.methodType(Class.class))
+                    .asType(MethodType.methodType(Class.class, Object.class));
+            this.getMethodName = lookup.findVirtual(stackFrameClass, "getMethodName", MethodType.methodType(String.class))
+                    .asType(MethodType.methodType(String.class, Object.class));
+        }
+
+        @Override
+        public ThreadPoolCallSite resolve() throws Throwable {
+            return (ThreadPoolCallSite) walk.invoke(findCallSite);
+        }
+
+        private ThreadPoolCallSite findCallSite(Stream<Object> frames) {
+            Iterator<Object> iterator = frames.limit(MAX_FRAMES).iterator();
+            try {
+                while (iterator.hasNext()) {
+                    Object frame = iterator.next();
+                    Class<?> declaringClass = (Class<?>) getDeclaringClass.invokeExact(frame);
+                    FrameType frameType = FRAME_TYPES.get(declaringClass);
+                    if (frameType != FrameType.NON_BUSINESS) {
+                        String methodName = (String) getMethodName.invokeExact(frame);
+                        return new ThreadPoolCallSite(declaringClass.getName(), methodName, frameType == FrameType.BUSINESS ? declaringClass : null);
+                    }
+                }
+            } catch (RuntimeException | Error ex) {
+                throw ex;
+            } catch (Throwable ex) {
+                throw new IllegalStateException(ex);
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Resolver based on the stack trace of a throwable on JDK 8,
+     * the frames are read one by one through {@code JavaLangAccess} if it's accessible,
+     * and the caller class is loaded by the context class loader if it's not excluded.
+     */
+    private static final class StackTraceResolver implements Resolver {
+
+        private final Map<String, FrameType> frameTypes = new ConcurrentHashMap<>();
+
+        private final MethodHandle getStackTraceDepth;
+
+        private final MethodHandle getStackTraceElement;
+
+        StackTraceResolver() {
+            MethodHandle depth = null;
+            MethodHandle element = null;
+            try {
+                Object javaLangAccess = Class.forName("sun.misc.SharedSecrets").getMethod("getJavaLangAccess").invoke(null);
+                Class<?> javaLangAccessClass = Class.forName("sun.misc.JavaLangAccess");
+                MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+                depth = lookup.findVirtual(javaLangAccessClass, "getStackTraceDepth", MethodType.methodType(int.class, Throwable.class))
+                        .bindTo(javaLangAccess);
+                element = lookup.findVirtual(javaLangAccessClass, "getStackTraceElement", MethodType.methodType(StackTraceElement.class, Throwable.class, int.class))
+                        .bindTo(javaLangAccess);
+            } catch (Throwable ignored) {
+                // JavaLangAccess is not accessible, the whole stack trace is read
+            }
+            this.getStackTraceDepth = depth;
+            this.getStackTraceElement = element;
+        }
+
+        @Override
+        public ThreadPoolCallSite resolve() throws Throwable {
+            Throwable throwable = new Throwable();
+            if (getStackTraceElement == null) {
+                StackTraceElement[] elements = throwable.getStackTrace();
+                for (int i = 0; i < elements.length && i < MAX_FRAMES; i++) {
+                    ThreadPoolCallSite callSite = resolve(elements[i]);
+                    if (callSite != null) {
+                        return callSite;
+                    }
+                }
+                return null;
+            }
+            int depth = Math.min((int) getStackTraceDepth.invokeExact(throwable), MAX_FRAMES);
+            for (int i = 0; i < depth; i++) {
+                ThreadPoolCallSite callSite = resolve((StackTraceElement) getStackTraceElement.invokeExact(throwable, i));
+                if (callSite != null) {
+                    return callSite;
+                }
+            }
+            return null;
+        }
+
+        private ThreadPoolCallSite resolve(StackTraceElement element) {
+            String className = element.getClassName();
+            FrameType frameType = frameType(className);
+            if (frameType == FrameType.NON_BUSINESS) {
+                return null;
+            }
+            Class<?> callerClass = null;
+            if (frameType == FrameType.BUSINESS) {
+                try {
+                    callerClass = Thread.currentThread().getContextClassLoader().loadClass(className);
+                } catch (ClassNotFoundException ex) {
+                    LOGGER.warn(ex, "Failed to load the caller class of thread-pool executor.");
+                }
+            }
+            return new ThreadPoolCallSite(className, element.getMethodName(), callerClass);
+        }
+
+        private FrameType frameType(String className) {
+            FrameType frameType = frameTypes.get(className);
+            if (frameType == null) {
+                frameType = classify(className);
+                if (frameTypes.size() < MAX_CACHED_CLASS_NAMES) {
+                    frameTypes.put(className, frameType);
+                }
+            }
+            return frameType;
+        }
+    }
+}
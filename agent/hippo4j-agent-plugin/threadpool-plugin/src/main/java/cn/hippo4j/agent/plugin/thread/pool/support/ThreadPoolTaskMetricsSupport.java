@@ -0,0 +1,90 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.hippo4j.agent.plugin.thread.pool.support;
+
+import cn.hippo4j.agent.core.conf.Config;
+import cn.hippo4j.agent.core.plugin.interceptor.enhance.EnhancedInstance;
+import cn.hippo4j.common.executor.ThreadPoolTaskMetricsRegistry;
+import cn.hippo4j.common.support.PoolMetricsSupport;
+import cn.hippo4j.common.support.ThreadPoolTaskMetrics;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * <p>Hold the {@link ThreadPoolTaskMetrics} of an enhanced executor in its dynamic field,
+ * so that the hooks of each task read a field instead of looking up a map.
+ *
+ * <p>The dynamic field holds the {@link ThreadPoolCallSite} set by the constructor interceptor at first,
+ * and is replaced by the metrics registered when the executor is used for the first time, keyed by the call site. <br />
+ * Executors which record their own metrics, such as dynamic thread-pools, are not tracked.
+ */
+public final class ThreadPoolTaskMetricsSupport {
+
+    /**
+     * Marker of executors whose metrics are not recorded
+     */
+    private static final Object UNTRACKED = new Object();
+
+    private ThreadPoolTaskMetricsSupport() {
+    }
+
+    /**
+     * Get the task metrics of executor, which are registered if the executor is used for the first time.
+     *
+     * @param objInst enhanced executor
+     * @return task metrics, or null if not tracked
+     */
+    public static ThreadPoolTaskMetrics getOrRegister(EnhancedInstance objInst) {
+        Object field = objInst.getHippo4jDynamicField();
+        if (field instanceof ThreadPoolTaskMetrics) {
+            return (ThreadPoolTaskMetrics) field;
+        }
+        return field == UNTRACKED ? null : register(objInst);
+    }
+
+    /**
+     * Get the task metrics of executor.
+     *
+     * @param objInst enhanced executor
+     * @return task metrics, or null if not registered
+     */
+    public static ThreadPoolTaskMetrics get(EnhancedInstance objInst) {
+        Object field = objInst.getHippo4jDynamicField();
+        return field instanceof ThreadPoolTaskMetrics ? (ThreadPoolTaskMetrics) field : null;
+    }
+
+    private static ThreadPoolTaskMetrics register(EnhancedInstance objInst) {
+        synchronized (objInst) {
+            Object field = objInst.getHippo4jDynamicField();
+            if (field instanceof ThreadPoolTaskMetrics) {
+                return (ThreadPoolTaskMetrics) field;
+            }
+            if (field == UNTRACKED) {
+                return null;
+            }
+            ThreadPoolTaskMetrics metrics = null;
+            if (!(objInst instanceof PoolMetricsSupport)) {
+                String callSite = field instanceof ThreadPoolCallSite ? ((ThreadPoolCallSite) field).getId() : objInst.getClass().getName();
+                metrics = ThreadPoolTaskMetricsRegistry.register((ThreadPoolExecutor) objInst, callSite,
+                        Config.Plugin.ThreadPool.Metrics.SAMPLE_INTERVAL, Config.Plugin.ThreadPool.Metrics.MAX_EXECUTORS);
+            }
+            objInst.setHippo4jDynamicField(metrics == null ? UNTRACKED : metrics);
+            return metrics;
+        }
+    }
+}
@@ -0,0 +1,205 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.hippo4j.agent.plugin.thread.pool.interceptor;
+
+import cn.hippo4j.agent.core.conf.Config;
+import cn.hippo4j.agent.core.plugin.interceptor.enhance.EnhancedInstance;
+import cn.hippo4j.agent.core.plugin.interceptor.enhance.InstanceMethodsAroundInterceptor;
+import cn.hippo4j.agent.core.plugin.interceptor.enhance.MethodInterceptResult;
+import cn.hippo4j.agent.plugin.thread.pool.support.ThreadPoolTaskMetricsSupport;
+import cn.hippo4j.common.executor.ThreadPoolTaskMetricsRegistry;
+import cn.hippo4j.common.support.ThreadPoolTaskMetrics;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.Callable;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * benchmark test for the task metrics interceptors of {@link ThreadPoolExecutor},
+ * measure the overhead of each task, that is the hooks of {@code execute}, {@code beforeExecute} and {@code afterExecute}.
+ * The hooks are dispatched like the bootstrap instance method template of the agent, which is copied for each interceptor,
+ * so each hook has its own call site of interceptor. {@link #interceptors} with the noop interceptors shows the cost of the agent itself,
+ * with the metrics interceptors it adds the cost of metrics, and {@link #metricsHooks} shows the cost of metrics only.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+@Fork(1)
+public class ThreadPoolTaskMetricsBenchmarkTest {
+
+    private static final InstanceMethodsAroundInterceptor NOOP_INTERCEPTOR = new InstanceMethodsAroundInterceptor() {
+
+        @Override
+        public void beforeMethod(EnhancedInstance objInst, Method method, Object[] allArguments, Class<?>[] argumentsTypes, MethodInterceptResult result) {
+        }
+
+        @Override
+        public Object afterMethod(EnhancedInstance objInst, Method method, Object[] allArguments, Class<?>[] argumentsTypes, Object ret) {
+            return ret;
+        }
+
+        @Override
+        public void handleMethodException(EnhancedInstance objInst, Method method, Object[] allArguments, Class<?>[] argumentsTypes, Throwable t) {
+        }
+    };
+
+    @Param({"1", "16"})
+    private int sampleInterval;
+
+    @Param({"noop", "metrics"})
+    private String interceptorType;
+
+    private InstanceMethodsAroundInterceptor executeInterceptor;
+
+    private InstanceMethodsAroundInterceptor beforeExecuteInterceptor;
+
+    private InstanceMethodsAroundInterceptor afterExecuteInterceptor;
+
+    private final Runnable task = () -> {
+    };
+
+    private final Callable<Object> zuper = () -> null;
+
+    private EnhancedThreadPoolExecutor executor;
+
+    private Method execute;
+
+    private Method beforeExecute;
+
+    private Method afterExecute;
+
+    @Setup
+    public void setup() throws NoSuchMethodException {
+        Config.Plugin.ThreadPool.Metrics.SAMPLE_INTERVAL = sampleInterval;
+        executor = new EnhancedThreadPoolExecutor();
+        execute = ThreadPoolExecutor.class.getDeclaredMethod("execute", Runnable.class);
+        beforeExecute = ThreadPoolExecutor.class.getDeclaredMethod("beforeExecute", Thread.class, Runnable.class);
+        afterExecute = ThreadPoolExecutor.class.getDeclaredMethod("afterExecute", Runnable.class, Throwable.class);
+        boolean metricsInterceptor = "metrics".equals(interceptorType);
+        executeInterceptor = metricsInterceptor ? new ThreadPoolExecutorExecuteMethodInterceptor() : NOOP_INTERCEPTOR;
+        beforeExecuteInterceptor = metricsInterceptor ? new ThreadPoolExecutorBeforeExecuteMethodInterceptor() : NOOP_INTERCEPTOR;
+        afterExecuteInterceptor = metricsInterceptor ? new ThreadPoolExecutorAfterExecuteMethodInterceptor() : NOOP_INTERCEPTOR;
+    }
+
+    @TearDown
+    public void tearDown() {
+        ThreadPoolTaskMetricsRegistry.remove(executor);
+        executor.shutdownNow();
+    }
+
+    @Benchmark
+    public void interceptors(Blackhole blackhole) throws Throwable {
+        blackhole.consume(interceptExecute(new Object[]{task}));
+        blackhole.consume(interceptBeforeExecute(new Object[]{Thread.currentThread(), task}));
+        task.run();
+        blackhole.consume(interceptAfterExecute(new Object[]{task, null}));
+    }
+
+    @Benchmark
+    public void metricsHooks() {
+        ThreadPoolTaskMetrics metrics = ThreadPoolTaskMetricsSupport.getOrRegister(executor);
+        metrics.onExecute(task);
+        metrics.beforeExecute(task);
+        task.run();
+        metrics.afterExecute(null);
+    }
+
+    /**
+     * Dispatch like the bootstrap instance method template copied for the interceptor of {@code execute}.
+     */
+    private Object interceptExecute(Object[] allArguments) throws Throwable {
+        Class<?>[] argumentsTypes = execute.getParameterTypes();
+        MethodInterceptResult result = new MethodInterceptResult();
+        executeInterceptor.beforeMethod(executor, execute, allArguments, argumentsTypes, result);
+        Object ret = zuper.call();
+        return executeInterceptor.afterMethod(executor, execute, allArguments, argumentsTypes, ret);
+    }
+
+    /**
+     * Dispatch like the bootstrap instance method template copied for the interceptor of {@code beforeExecute}.
+     */
+    private Object interceptBeforeExecute(Object[] allArguments) throws Throwable {
+        Class<?>[] argumentsTypes = beforeExecute.getParameterTypes();
+        MethodInterceptResult result = new MethodInterceptResult();
+        beforeExecuteInterceptor.beforeMethod(executor, beforeExecute, allArguments, argumentsTypes, result);
+        Object ret = zuper.call();
+        return beforeExecuteInterceptor.afterMethod(executor, beforeExecute, allArguments, argumentsTypes, ret);
+    }
+
+    /**
+     * Dispatch like the bootstrap instance method template copied for the interceptor of {@code afterExecute}.
+     */
+    private Object interceptAfterExecute(Object[] allArguments) throws Throwable {
+        Class<?>[] argumentsTypes = afterExecute.getParameterTypes();
+        MethodInterceptResult result = new MethodInterceptResult();
+        afterExecuteInterceptor.beforeMethod(executor, afterExecute, allArguments, argumentsTypes, result);
+        Object ret = zuper.call();
+        return afterExecuteInterceptor.afterMethod(executor, afterExecute, allArguments, argumentsTypes, ret);
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options opts = new OptionsBuilder()
+                .include(ThreadPoolTaskMetricsBenchmarkTest.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(opts).run();
+    }
+
+    /**
+     * Executor enhanced like the agent does.
+     */
+    private static class EnhancedThreadPoolExecutor extends ThreadPoolExecutor implements EnhancedInstance {
+
+        private Object dynamicField;
+
+        EnhancedThreadPoolExecutor() {
+            super(1, 1, 0L, TimeUnit.MILLISECONDS, new SynchronousQueue<>());
+        }
+
+        @Override
+        public Object getHippo4jDynamicField() {
+            return dynamicField;
+        }
+
+        @Override
+        public void setHippo4jDynamicField(Object value) {
+            dynamicField = value;
+        }
+    }
+}
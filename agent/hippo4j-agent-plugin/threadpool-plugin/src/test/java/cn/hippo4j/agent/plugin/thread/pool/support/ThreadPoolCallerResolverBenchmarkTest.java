@@ -0,0 +1,105 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.hippo4j.agent.plugin.thread.pool.support;
+
+import cn.hippo4j.agent.core.conf.Config;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * benchmark test for {@link ThreadPoolCallerResolver}, compare the cost of constructing an executor
+ * with the caller attribution of the agent, resolved from the whole stack trace and stored in a strong map,
+ * with resolved by {@link ThreadPoolCallerResolver} and stored in a weak map.
+ * Run it on JDK 8 and JDK 9+ to compare the stack trace and the stack walker resolvers.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+@Fork(1)
+public class ThreadPoolCallerResolverBenchmarkTest {
+
+    private final Map<ThreadPoolExecutor, Class<?>> strongReferencedClassMap = new ConcurrentHashMap<>();
+
+    private final Map<ThreadPoolExecutor, Class<?>> weakReferencedClassMap = new WeakHashMap<>();
+
+    @Benchmark
+    public void withoutAttribution(Blackhole blackhole) {
+        blackhole.consume(newExecutor());
+    }
+
+    @Benchmark
+    public void stackTraceAttribution(Blackhole blackhole) throws ClassNotFoundException {
+        ThreadPoolExecutor executor = newExecutor();
+        for (StackTraceElement each : Thread.currentThread().getStackTrace()) {
+            String className = each.getClassName();
+            if (className.startsWith("java") || className.startsWith("cn.hippo4j.agent")) {
+                continue;
+            }
+            if (Config.Plugin.ThreadPool.EXCLUDE_PACKAGE_PREFIX.stream().noneMatch(className::startsWith)) {
+                strongReferencedClassMap.put(executor, Thread.currentThread().getContextClassLoader().loadClass(className));
+            }
+            break;
+        }
+        // the strong map leaks every executor, clear it to keep the benchmark stable
+        strongReferencedClassMap.clear();
+        blackhole.consume(executor);
+    }
+
+    @Benchmark
+    public void callerResolverAttribution(Blackhole blackhole) {
+        ThreadPoolExecutor executor = newExecutor();
+        Class<?> declaredClass = ThreadPoolCallerResolver.resolveCallerClass();
+        if (declaredClass != null) {
+            weakReferencedClassMap.put(executor, declaredClass);
+        }
+        blackhole.consume(executor);
+    }
+
+    private ThreadPoolExecutor newExecutor() {
+        return new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new SynchronousQueue<>());
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options opts = new OptionsBuilder()
+                .include(ThreadPoolCallerResolverBenchmarkTest.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(opts).run();
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.hippo4j.example.core;
+
+import cn.hippo4j.common.executor.support.BlockingQueueTypeEnum;
+import cn.hippo4j.common.executor.support.EagerGrowthBlockingQueue;
+import cn.hippo4j.common.toolkit.ThreadUtil;
+import cn.hippo4j.core.executor.DynamicThreadPoolExecutor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * benchmark test for {@link EagerGrowthBlockingQueue},
+ * compare with {@link cn.hippo4j.common.executor.support.ResizableCapacityLinkedBlockingQueue} by executing bursts of IO-bound tasks,
+ * the time of a burst is the latency of its last task, so the sampled percentiles show the tail latency of tasks in bursts.
+ * The pool is idle for a while before each burst, so the non-core threads are timed out like a real bursty load.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+@Fork(1)
+public class EagerGrowthBlockingQueueBenchmarkTest {
+
+    private static final int BURST_SIZE = 128;
+
+    private static final long IO_NANOS = TimeUnit.MILLISECONDS.toNanos(2L);
+
+    private static final long KEEP_ALIVE_MILLIS = 10L;
+
+    @Param({"ResizableCapacityLinkedBlockingQueue", "EagerGrowthBlockingQueue"})
+    private String queueType;
+
+    private ThreadPoolExecutor executor;
+
+    @Setup
+    public void setup() {
+        executor = new DynamicThreadPoolExecutor(
+                4, 64, KEEP_ALIVE_MILLIS, TimeUnit.MILLISECONDS, 0L, false, 0L,
+                BlockingQueueTypeEnum.createBlockingQueue(queueType, 1024), "bursty-io", Thread::new, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @Setup(Level.Invocation)
+    public void idle() {
+        ThreadUtil.sleep(KEEP_ALIVE_MILLIS * 2);
+    }
+
+    @TearDown
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Benchmark
+    public void burst() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(BURST_SIZE);
+        for (int i = 0; i < BURST_SIZE; i++) {
+            executor.execute(() -> {
+                LockSupport.parkNanos(IO_NANOS);
+                latch.countDown();
+            });
+        }
+        latch.await();
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options opts = new OptionsBuilder()
+                .include(EagerGrowthBlockingQueueBenchmarkTest.class.getSimpleName())
+                .resultFormat(ResultFormatType.JSON)
+                .result("eager-growth-blocking-queue.json")
+                .build();
+        new Runner(opts).run();
+    }
+}
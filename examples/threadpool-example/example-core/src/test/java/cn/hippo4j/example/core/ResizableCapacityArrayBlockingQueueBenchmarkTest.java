@@ -0,0 +1,105 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.hippo4j.example.core;
+
+import cn.hippo4j.common.executor.support.ResizableCapacityArrayBlockingQueue;
+import cn.hippo4j.common.executor.support.ResizableCapacityLinkedBlockingQueue;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * benchmark test for {@link ResizableCapacityArrayBlockingQueue},
+ * compare the lock-free ring with {@link ResizableCapacityLinkedBlockingQueue} and {@link ArrayBlockingQueue}
+ * by 4 producers and 4 consumers, the gc profiler shows the allocation rate of each element.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Group)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+@Fork(1)
+public class ResizableCapacityArrayBlockingQueueBenchmarkTest {
+
+    private static final Runnable TASK = () -> {
+    };
+
+    @Param({"ResizableCapacityArrayBlockingQueue", "ResizableCapacityLinkedBlockingQueue", "ArrayBlockingQueue"})
+    private String queueType;
+
+    private BlockingQueue<Runnable> queue;
+
+    @Setup(Level.Iteration)
+    public void setup() {
+        switch (queueType) {
+            case "ResizableCapacityArrayBlockingQueue":
+                queue = new ResizableCapacityArrayBlockingQueue<>(1024);
+                break;
+            case "ResizableCapacityLinkedBlockingQueue":
+                queue = new ResizableCapacityLinkedBlockingQueue<>(1024);
+                break;
+            default:
+                queue = new ArrayBlockingQueue<>(1024);
+        }
+    }
+
+    @Benchmark
+    @Group("queue")
+    @GroupThreads(4)
+    public boolean offer() {
+        return queue.offer(TASK);
+    }
+
+    @Benchmark
+    @Group("queue")
+    @GroupThreads(4)
+    public Runnable poll() {
+        return queue.poll();
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options opts = new OptionsBuilder()
+                .include(ResizableCapacityArrayBlockingQueueBenchmarkTest.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .resultFormat(ResultFormatType.JSON)
+                .result("resizable-capacity-array-blocking-queue.json")
+                .build();
+        new Runner(opts).run();
+    }
+
+}
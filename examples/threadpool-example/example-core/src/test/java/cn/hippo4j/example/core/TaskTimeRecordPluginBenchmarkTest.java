@@ -17,10 +17,7 @@
 
 package cn.hippo4j.example.core;
 
-import cn.hippo4j.core.executor.ExtensibleThreadPoolExecutor;
 import cn.hippo4j.core.executor.plugin.impl.TaskTimeRecordPlugin;
-import cn.hippo4j.core.executor.plugin.manager.DefaultThreadPoolPluginManager;
-import lombok.SneakyThrows;
 import org.openjdk.jmh.annotations.Benchmark;
 import org.openjdk.jmh.annotations.BenchmarkMode;
 import org.openjdk.jmh.annotations.Fork;
@@ -28,156 +25,125 @@ import org.openjdk.jmh.annotations.Measurement;
 import org.openjdk.jmh.annotations.Mode;
 import org.openjdk.jmh.annotations.OutputTimeUnit;
 import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
 import org.openjdk.jmh.annotations.State;
-import org.openjdk.jmh.annotations.Threads;
 import org.openjdk.jmh.annotations.Warmup;
-import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
 import org.openjdk.jmh.results.format.ResultFormatType;
 import org.openjdk.jmh.runner.Runner;
 import org.openjdk.jmh.runner.options.Options;
 import org.openjdk.jmh.runner.options.OptionsBuilder;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.concurrent.ArrayBlockingQueue;
-import java.util.concurrent.ThreadPoolExecutor;
+import java.util.Optional;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 /**
- * benchmark test for {@link TaskTimeRecordPlugin}
+ * benchmark test for {@link TaskTimeRecordPlugin},
+ * compare the lock-free timer with the previous lock based timer at 1/8/32/64 worker threads,
+ * the gc profiler shows the allocation rate of each record.
  */
-@BenchmarkMode(Mode.All)
-@OutputTimeUnit(TimeUnit.MILLISECONDS)
-@State(Scope.Thread)
-@Warmup(iterations = 1)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 2)
 @Measurement(iterations = 3)
 @Fork(1)
-@Threads(6)
 public class TaskTimeRecordPluginBenchmarkTest {
 
-    @SneakyThrows
-    @Benchmark
-    public void origin_200(Blackhole blackhole) {
-        int threadCount = 200;
-        ThreadPoolExecutor executor = new ThreadPoolExecutor(
-                threadCount, threadCount, 1000L, TimeUnit.MILLISECONDS,
-                new ArrayBlockingQueue<>(threadCount), Thread::new, new ThreadPoolExecutor.DiscardPolicy());
-        executor.prestartAllCoreThreads();
-
-        List<Runnable> tasks = getTask(threadCount, blackhole);
-        tasks.forEach(executor::execute);
-
-        executor.shutdown();
-        while (!executor.isTerminated()) {
-        }
-    }
+    private static final int[] WORKER_THREADS = {1, 8, 32, 64};
 
-    @SneakyThrows
-    @Benchmark
-    public void origin_50(Blackhole blackhole) {
-        int threadCount = 50;
-        ThreadPoolExecutor executor = new ThreadPoolExecutor(
-                threadCount, threadCount, 1000L, TimeUnit.MILLISECONDS,
-                new ArrayBlockingQueue<>(threadCount), Thread::new, new ThreadPoolExecutor.DiscardPolicy());
-        executor.prestartAllCoreThreads();
-
-        List<Runnable> tasks = getTask(threadCount, blackhole);
-        tasks.forEach(executor::execute);
-
-        executor.shutdown();
-        while (!executor.isTerminated()) {
-        }
+    private static final Runnable TASK = () -> {
+    };
+
+    private TaskTimeRecordPlugin plugin;
+
+    private LockedTaskTimeRecordPlugin lockedPlugin;
+
+    @Setup
+    public void setup() {
+        plugin = new TaskTimeRecordPlugin();
+        lockedPlugin = new LockedTaskTimeRecordPlugin();
     }
 
-    @SneakyThrows
     @Benchmark
-    public void not_plugin_50(Blackhole blackhole) {
-        int threadCount = 50;
-        ExtensibleThreadPoolExecutor executor = new ExtensibleThreadPoolExecutor(
-                "test", new DefaultThreadPoolPluginManager(),
-                threadCount, threadCount, 1000L, TimeUnit.MILLISECONDS,
-                new ArrayBlockingQueue<>(threadCount), Thread::new, new ThreadPoolExecutor.DiscardPolicy());
-        executor.prestartAllCoreThreads();
-
-        List<Runnable> tasks = getTask(threadCount, blackhole);
-        tasks.forEach(executor::execute);
-
-        executor.shutdown();
-        while (!executor.isTerminated()) {
-        }
+    public void lockFree() {
+        Thread thread = Thread.currentThread();
+        plugin.beforeExecute(thread, TASK);
+        plugin.afterExecute(TASK, null);
     }
 
-    @SneakyThrows
     @Benchmark
-    public void not_plugin_200(Blackhole blackhole) {
-        int threadCount = 200;
-        ExtensibleThreadPoolExecutor executor = new ExtensibleThreadPoolExecutor(
-                "test", new DefaultThreadPoolPluginManager(),
-                threadCount, threadCount, 1000L, TimeUnit.MILLISECONDS,
-                new ArrayBlockingQueue<>(threadCount), Thread::new, new ThreadPoolExecutor.DiscardPolicy());
-        executor.prestartAllCoreThreads();
-
-        List<Runnable> tasks = getTask(threadCount, blackhole);
-        tasks.forEach(executor::execute);
-
-        executor.shutdown();
-        while (!executor.isTerminated()) {
-        }
+    public void locked() {
+        Thread thread = Thread.currentThread();
+        lockedPlugin.beforeExecute(thread, TASK);
+        lockedPlugin.afterExecute(TASK, null);
     }
 
-    @SneakyThrows
-    @Benchmark
-    public void plugin_50(Blackhole blackhole) {
-        int threadCount = 50;
-        ExtensibleThreadPoolExecutor executor = new ExtensibleThreadPoolExecutor(
-                "test", new DefaultThreadPoolPluginManager(),
-                threadCount, threadCount, 1000L, TimeUnit.MILLISECONDS,
-                new ArrayBlockingQueue<>(threadCount), Thread::new, new ThreadPoolExecutor.DiscardPolicy());
-        executor.prestartAllCoreThreads();
-        executor.register(new TaskTimeRecordPlugin());
-
-        List<Runnable> tasks = getTask(threadCount, blackhole);
-        tasks.forEach(executor::execute);
-
-        executor.shutdown();
-        while (!executor.isTerminated()) {
+    /**
+     * Previous implementation of {@link TaskTimeRecordPlugin},
+     * the start time is boxed into a {@link ThreadLocal} and each record takes a write lock.
+     */
+    private static class LockedTaskTimeRecordPlugin {
+
+        private final ThreadLocal<Long> startTimes = new ThreadLocal<>();
+
+        private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+        private long totalTaskTime;
+
+        private long maxTaskTime = -1L;
+
+        private long minTaskTime = -1L;
+
+        private long taskCount;
+
+        public void beforeExecute(Thread thread, Runnable runnable) {
+            startTimes.set(System.nanoTime());
         }
-    }
 
-    @SneakyThrows
-    @Benchmark
-    public void plugin_200(Blackhole blackhole) {
-        int threadCount = 200;
-        ExtensibleThreadPoolExecutor executor = new ExtensibleThreadPoolExecutor(
-                "test", new DefaultThreadPoolPluginManager(),
-                threadCount, threadCount, 1000L, TimeUnit.MILLISECONDS,
-                new ArrayBlockingQueue<>(threadCount), Thread::new, new ThreadPoolExecutor.DiscardPolicy());
-        executor.prestartAllCoreThreads();
-        executor.register(new TaskTimeRecordPlugin());
-
-        List<Runnable> tasks = getTask(threadCount, blackhole);
-        tasks.forEach(executor::execute);
-
-        executor.shutdown();
-        while (!executor.isTerminated()) {
+        public void afterExecute(Runnable runnable, Throwable throwable) {
+            try {
+                Optional.ofNullable(startTimes.get())
+                        .map(startTime -> System.nanoTime() - startTime)
+                        .ifPresent(this::recordTaskTime);
+            } finally {
+                startTimes.remove();
+            }
         }
-    }
 
-    private List<Runnable> getTask(int count, Blackhole blackhole) {
-        List<Runnable> tasks = new ArrayList<>(count);
-        for (int i = 1; i < count * 2; i++) {
-            int index = i;
-            tasks.add(() -> blackhole.consume(index));
+        private void recordTaskTime(long taskExecuteTime) {
+            Lock writeLock = lock.writeLock();
+            writeLock.lock();
+            try {
+                if (taskCount > 0) {
+                    maxTaskTime = Math.max(taskExecuteTime, maxTaskTime);
+                    minTaskTime = Math.min(taskExecuteTime, minTaskTime);
+                } else {
+                    maxTaskTime = taskExecuteTime;
+                    minTaskTime = taskExecuteTime;
+                }
+                taskCount = taskCount + 1;
+                totalTaskTime += taskExecuteTime;
+            } finally {
+                writeLock.unlock();
+            }
         }
-        return tasks;
     }
 
     public static void main(String[] args) throws Exception {
-        Options opts = new OptionsBuilder()
-                .include(TaskTimeRecordPluginBenchmarkTest.class.getSimpleName())
-                .resultFormat(ResultFormatType.JSON)
-                .build();
-        new Runner(opts).run();
+        for (int threads : WORKER_THREADS) {
+            Options opts = new OptionsBuilder()
+                    .include(TaskTimeRecordPluginBenchmarkTest.class.getSimpleName())
+                    .threads(threads)
+                    .addProfiler(GCProfiler.class)
+                    .resultFormat(ResultFormatType.JSON)
+                    .result("task-time-record-plugin-" + threads + ".json")
+                    .build();
+            new Runner(opts).run();
+        }
     }
 
 }
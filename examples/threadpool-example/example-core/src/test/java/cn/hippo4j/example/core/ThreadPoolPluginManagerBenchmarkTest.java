@@ -0,0 +1,151 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.hippo4j.example.core;
+
+import cn.hippo4j.core.executor.plugin.ExecuteAwarePlugin;
+import cn.hippo4j.core.executor.plugin.TaskAwarePlugin;
+import cn.hippo4j.core.executor.plugin.manager.DefaultThreadPoolPluginManager;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * benchmark test for obtaining plugins from {@link DefaultThreadPoolPluginManager} on the hot path,
+ * compare the immutable snapshot with the previous read-lock and {@link CopyOnWriteArrayList} based index.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+@Fork(1)
+@Threads(64)
+public class ThreadPoolPluginManagerBenchmarkTest {
+
+    private static final int PLUGIN_COUNT = 4;
+
+    private DefaultThreadPoolPluginManager manager;
+
+    private LockedIndex lockedIndex;
+
+    @Setup
+    public void setup() {
+        manager = new DefaultThreadPoolPluginManager();
+        lockedIndex = new LockedIndex(new ReentrantReadWriteLock());
+        for (int i = 0; i < PLUGIN_COUNT; i++) {
+            TestPlugin plugin = new TestPlugin("plugin-" + i);
+            manager.register(plugin);
+            lockedIndex.taskAwarePlugins.add(plugin);
+            lockedIndex.executeAwarePlugins.add(plugin);
+        }
+    }
+
+    @Benchmark
+    public void snapshot(Blackhole blackhole) {
+        // execute -> beforeExecute -> afterExecute
+        consume(manager.getTaskAwarePluginList(), blackhole);
+        consume(manager.getExecuteAwarePluginList(), blackhole);
+        consume(manager.getExecuteAwarePluginList(), blackhole);
+    }
+
+    @Benchmark
+    public void readLock(Blackhole blackhole) {
+        // execute -> beforeExecute -> afterExecute
+        consume(lockedIndex.getTaskAwarePluginList(), blackhole);
+        consume(lockedIndex.getExecuteAwarePluginList(), blackhole);
+        consume(lockedIndex.getExecuteAwarePluginList(), blackhole);
+    }
+
+    private static void consume(Collection<?> plugins, Blackhole blackhole) {
+        for (Object plugin : plugins) {
+            blackhole.consume(plugin);
+        }
+    }
+
+    /**
+     * Plugin index guarded by a read-write lock, same as the previous implementation of manager.
+     */
+    @RequiredArgsConstructor
+    private static class LockedIndex {
+
+        private final ReadWriteLock lock;
+
+        private final List<TaskAwarePlugin> taskAwarePlugins = new CopyOnWriteArrayList<>();
+
+        private final List<ExecuteAwarePlugin> executeAwarePlugins = new CopyOnWriteArrayList<>();
+
+        public Collection<TaskAwarePlugin> getTaskAwarePluginList() {
+            Lock readLock = lock.readLock();
+            readLock.lock();
+            try {
+                return taskAwarePlugins;
+            } finally {
+                readLock.unlock();
+            }
+        }
+
+        public Collection<ExecuteAwarePlugin> getExecuteAwarePluginList() {
+            Lock readLock = lock.readLock();
+            readLock.lock();
+            try {
+                return executeAwarePlugins;
+            } finally {
+                readLock.unlock();
+            }
+        }
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    private static class TestPlugin implements TaskAwarePlugin, ExecuteAwarePlugin {
+
+        private final String id;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options opts = new OptionsBuilder()
+                .include(ThreadPoolPluginManagerBenchmarkTest.class.getSimpleName())
+                .resultFormat(ResultFormatType.JSON)
+                .build();
+        new Runner(opts).run();
+    }
+
+}
@@ -0,0 +1,115 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.hippo4j.example.core;
+
+import cn.hippo4j.core.executor.DynamicThreadPoolExecutor;
+import cn.hippo4j.core.executor.WorkStealingDynamicThreadPoolExecutor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * benchmark test for {@link WorkStealingDynamicThreadPoolExecutor},
+ * compare with {@link DynamicThreadPoolExecutor} by executing a batch of fine-grained tasks
+ * with the parallelism of 1/4/8/16.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+@Fork(1)
+public class WorkStealingDynamicThreadPoolExecutorBenchmarkTest {
+
+    private static final int BATCH_SIZE = 10000;
+
+    @Param({"1", "4", "8", "16"})
+    private int parallelism;
+
+    private ThreadPoolExecutor dynamicThreadPoolExecutor;
+
+    private ThreadPoolExecutor workStealingThreadPoolExecutor;
+
+    @Setup
+    public void setup() {
+        dynamicThreadPoolExecutor = new DynamicThreadPoolExecutor(
+                parallelism, parallelism, 60L, TimeUnit.SECONDS, 0L, false, 0L,
+                new LinkedBlockingQueue<>(), "dynamic", Thread::new, new ThreadPoolExecutor.CallerRunsPolicy());
+        workStealingThreadPoolExecutor = new WorkStealingDynamicThreadPoolExecutor(
+                parallelism, parallelism, 0L, false, 0L, Integer.MAX_VALUE,
+                "work-stealing", Thread::new, new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    @TearDown
+    public void tearDown() {
+        dynamicThreadPoolExecutor.shutdownNow();
+        workStealingThreadPoolExecutor.shutdownNow();
+    }
+
+    @Benchmark
+    public void dynamic() throws InterruptedException {
+        executeBatch(dynamicThreadPoolExecutor);
+    }
+
+    @Benchmark
+    public void workStealing() throws InterruptedException {
+        executeBatch(workStealingThreadPoolExecutor);
+    }
+
+    /**
+     * Each task splits into two subtasks submitted from the worker, which is typical for fine-grained CPU-bound work.
+     */
+    private static void executeBatch(ThreadPoolExecutor executor) throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(BATCH_SIZE * 2);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            executor.execute(() -> {
+                executor.execute(latch::countDown);
+                latch.countDown();
+            });
+        }
+        latch.await();
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options opts = new OptionsBuilder()
+                .include(WorkStealingDynamicThreadPoolExecutorBenchmarkTest.class.getSimpleName())
+                .resultFormat(ResultFormatType.JSON)
+                .result("work-stealing-dynamic-thread-pool-executor.json")
+                .build();
+        new Runner(opts).run();
+    }
+
+}
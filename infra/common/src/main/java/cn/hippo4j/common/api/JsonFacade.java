@@ -19,6 +19,7 @@ package cn.hippo4j.common.api;
 
 import com.fasterxml.jackson.core.type.TypeReference;
 
+import java.io.OutputStream;
 import java.util.List;
 
 /**
@@ -34,6 +35,14 @@ public interface JsonFacade {
      */
     String toJSONString(Object object);
 
+    /**
+     * Write JSON to the output stream, the output stream is not closed.
+     *
+     * @param object
+     * @param outputStream
+     */
+    void writeJSON(Object object, OutputStream outputStream);
+
     /**
      * Parse object.
      *
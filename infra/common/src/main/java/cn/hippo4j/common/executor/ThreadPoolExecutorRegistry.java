@@ -20,40 +20,114 @@ package cn.hippo4j.common.executor;
 import cn.hippo4j.common.model.executor.ExecutorProperties;
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.WeakHashMap;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ThreadPoolExecutor;
 
+@Slf4j
 @NoArgsConstructor(access = AccessLevel.PRIVATE)
 public class ThreadPoolExecutorRegistry {
 
     private static final Map<String, ThreadPoolExecutorHolder> HOLDER_MAP = new ConcurrentHashMap<>();
 
-    public static final Map<ThreadPoolExecutor, Class<?>> REFERENCED_CLASS_MAP = new ConcurrentHashMap<>();
+    private static final List<ThreadPoolExecutorRegistryListener> LISTENERS = new CopyOnWriteArrayList<>();
+
+    /**
+     * Class which constructs the executor, the executor is weakly referenced so that it can be collected after discarded
+     */
+    private static final Map<ThreadPoolExecutor, Class<?>> REFERENCED_CLASS_MAP = Collections.synchronizedMap(new WeakHashMap<>());
 
     public static Map<String, ThreadPoolExecutorHolder> getHolderMap() {
         return HOLDER_MAP;
     }
 
     public static void putHolder(String executorName, ThreadPoolExecutor executor, ExecutorProperties executorProperties) {
-        ThreadPoolExecutorHolder executorHolder = new ThreadPoolExecutorHolder(executorName, executor, executorProperties);
-        HOLDER_MAP.put(executorHolder.getThreadPoolId(), executorHolder);
+        putHolder(new ThreadPoolExecutorHolder(executorName, executor, executorProperties));
     }
 
     public static void putHolder(ThreadPoolExecutorHolder executorHolder) {
         HOLDER_MAP.put(executorHolder.getThreadPoolId(), executorHolder);
+        for (ThreadPoolExecutorRegistryListener each : LISTENERS) {
+            notifyListener(each, executorHolder, true);
+        }
+    }
+
+    /**
+     * Remove the holder of thread-pool, only if it still holds the given executor.
+     *
+     * @param threadPoolId thread-pool id
+     * @param executor     executor
+     * @return true if the holder is removed
+     */
+    public static boolean removeHolder(String threadPoolId, ThreadPoolExecutor executor) {
+        ThreadPoolExecutorHolder executorHolder = HOLDER_MAP.get(threadPoolId);
+        if (executorHolder == null || executorHolder.getExecutor() != executor || !HOLDER_MAP.remove(threadPoolId, executorHolder)) {
+            return false;
+        }
+        for (ThreadPoolExecutorRegistryListener each : LISTENERS) {
+            notifyListener(each, executorHolder, false);
+        }
+        return true;
+    }
+
+    /**
+     * Add a listener, which is notified of the thread-pools already registered at once.
+     *
+     * @param listener listener
+     */
+    public static void addListener(ThreadPoolExecutorRegistryListener listener) {
+        LISTENERS.add(listener);
+        HOLDER_MAP.values().forEach(each -> notifyListener(listener, each, true));
+    }
+
+    public static void removeListener(ThreadPoolExecutorRegistryListener listener) {
+        LISTENERS.remove(listener);
+    }
+
+    private static void notifyListener(ThreadPoolExecutorRegistryListener listener, ThreadPoolExecutorHolder executorHolder, boolean register) {
+        try {
+            if (register) {
+                listener.onRegister(executorHolder);
+            } else {
+                listener.onRemove(executorHolder);
+            }
+        } catch (Exception ex) {
+            log.error("Failed to notify thread-pool registry listener. key: [{}]", executorHolder.getThreadPoolId(), ex);
+        }
     }
 
     public static ThreadPoolExecutorHolder getHolder(String executorName) {
         return Optional.ofNullable(HOLDER_MAP.get(executorName)).orElse(ThreadPoolExecutorHolder.EMPTY);
     }
 
+    /**
+     * Put the class which constructs the executor.
+     *
+     * @param executor      executor
+     * @param declaredClass class which constructs the executor
+     */
+    public static void putReferencedClass(ThreadPoolExecutor executor, Class<?> declaredClass) {
+        REFERENCED_CLASS_MAP.put(executor, declaredClass);
+    }
+
+    /**
+     * Get a snapshot of the executors which are still alive and the classes which construct them.
+     *
+     * @return key: executor, val: class which constructs the executor
+     */
     public static Map<ThreadPoolExecutor, Class<?>> getReferencedClassMap() {
-        return REFERENCED_CLASS_MAP;
+        synchronized (REFERENCED_CLASS_MAP) {
+            return new IdentityHashMap<>(REFERENCED_CLASS_MAP);
+        }
     }
 
     public static List<String> listThreadPoolExecutorId() {
@@ -0,0 +1,170 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.hippo4j.common.executor;
+
+import cn.hippo4j.common.support.ThreadPoolTaskMetrics;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * <p>Registry of the {@link ThreadPoolTaskMetrics} of executors which are not dynamic thread-pools,
+ * such as the executors owned by libraries and observed by the agent.
+ * The executors are weakly referenced, so that the registry doesn't prevent them from being collected.
+ *
+ * <p>The thread-pool id of an executor is the call site which constructs it, suffixed with a sequence
+ * if the call site constructs more than one executor. Executors which are also registered in
+ * {@link ThreadPoolExecutorRegistry} are reported by their dynamic thread-pool id, and skipped by {@link #listHolders}.
+ */
+@Slf4j
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public class ThreadPoolTaskMetricsRegistry {
+
+    /**
+     * key: executor, val: task metrics
+     */
+    private static final Map<ThreadPoolExecutor, ThreadPoolTaskMetrics> METRICS_MAP = Collections.synchronizedMap(new WeakHashMap<>());
+
+    /**
+     * key: call site, val: count of executors constructed by the call site
+     */
+    private static final Map<String, AtomicInteger> CALL_SITE_SEQUENCES = new ConcurrentHashMap<>();
+
+    private static final List<ThreadPoolExecutorRegistryListener> LISTENERS = new CopyOnWriteArrayList<>();
+
+    /**
+     * Register the task metrics of executor.
+     *
+     * @param executor       executor
+     * @param callSite       call site which constructs the executor
+     * @param sampleInterval one of every sample interval tasks is timed
+     * @param maxExecutors   max count of executors whose metrics are recorded
+     * @return task metrics, or null if there are already max executors registered
+     */
+    public static ThreadPoolTaskMetrics register(ThreadPoolExecutor executor, String callSite, int sampleInterval, int maxExecutors) {
+        ThreadPoolTaskMetrics metrics;
+        synchronized (METRICS_MAP) {
+            if (METRICS_MAP.size() >= maxExecutors) {
+                return null;
+            }
+            int sequence = CALL_SITE_SEQUENCES.computeIfAbsent(callSite, key -> new AtomicInteger()).incrementAndGet();
+            metrics = new ThreadPoolTaskMetrics(sequence == 1 ? callSite : callSite + "-" + sequence, sampleInterval);
+            METRICS_MAP.put(executor, metrics);
+        }
+        ThreadPoolExecutorHolder executorHolder = new ThreadPoolExecutorHolder(metrics.getThreadPoolId(), executor, null);
+        for (ThreadPoolExecutorRegistryListener each : LISTENERS) {
+            notifyListener(each, executorHolder, true);
+        }
+        return metrics;
+    }
+
+    /**
+     * Remove the task metrics of executor, such as the executor is terminated.
+     *
+     * @param executor executor
+     */
+    public static void remove(ThreadPoolExecutor executor) {
+        ThreadPoolTaskMetrics metrics = METRICS_MAP.remove(executor);
+        if (metrics == null) {
+            return;
+        }
+        ThreadPoolExecutorHolder executorHolder = new ThreadPoolExecutorHolder(metrics.getThreadPoolId(), executor, null);
+        for (ThreadPoolExecutorRegistryListener each : LISTENERS) {
+            notifyListener(each, executorHolder, false);
+        }
+    }
+
+    /**
+     * Get the task metrics of executor.
+     *
+     * @param executor executor
+     * @return task metrics, or null if not registered
+     */
+    public static ThreadPoolTaskMetrics getMetrics(Executor executor) {
+        return executor instanceof ThreadPoolExecutor ? METRICS_MAP.get(executor) : null;
+    }
+
+    /**
+     * List the task metrics of all executors which are still alive.
+     *
+     * @return task metrics
+     */
+    public static List<ThreadPoolTaskMetrics> listMetrics() {
+        synchronized (METRICS_MAP) {
+            return new ArrayList<>(METRICS_MAP.values());
+        }
+    }
+
+    /**
+     * List the holders of executors which are still alive and not registered as dynamic thread-pools.
+     *
+     * @return executor holders
+     */
+    public static List<ThreadPoolExecutorHolder> listHolders() {
+        Set<ThreadPoolExecutor> dynamicExecutors = Collections.newSetFromMap(new IdentityHashMap<>());
+        ThreadPoolExecutorRegistry.getHolderMap().values().forEach(each -> dynamicExecutors.add(each.getExecutor()));
+        List<ThreadPoolExecutorHolder> executorHolders = new ArrayList<>();
+        synchronized (METRICS_MAP) {
+            METRICS_MAP.forEach((executor, metrics) -> {
+                if (!dynamicExecutors.contains(executor)) {
+                    executorHolders.add(new ThreadPoolExecutorHolder(metrics.getThreadPoolId(), executor, null));
+                }
+            });
+        }
+        return executorHolders;
+    }
+
+    /**
+     * Add a listener, which is notified of the executors already registered at once.
+     *
+     * @param listener listener
+     */
+    public static void addListener(ThreadPoolExecutorRegistryListener listener) {
+        LISTENERS.add(listener);
+        listHolders().forEach(each -> notifyListener(listener, each, true));
+    }
+
+    public static void removeListener(ThreadPoolExecutorRegistryListener listener) {
+        LISTENERS.remove(listener);
+    }
+
+    private static void notifyListener(ThreadPoolExecutorRegistryListener listener, ThreadPoolExecutorHolder executorHolder, boolean register) {
+        try {
+            if (register) {
+                listener.onRegister(executorHolder);
+            } else {
+                listener.onRemove(executorHolder);
+            }
+        } catch (Exception ex) {
+            log.error("Failed to notify thread-pool task metrics registry listener. key: [{}]", executorHolder.getThreadPoolId(), ex);
+        }
+    }
+}
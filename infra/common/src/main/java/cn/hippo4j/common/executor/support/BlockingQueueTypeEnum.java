@@ -149,6 +149,38 @@ public enum BlockingQueueTypeEnum {
         <T> BlockingQueue<T> of() {
             return new ResizableCapacityLinkedBlockingQueue<>();
         }
+    },
+
+    /**
+     * {@link ResizableCapacityArrayBlockingQueue}
+     */
+    RESIZABLE_ARRAY_BLOCKING_QUEUE(10, "ResizableCapacityArrayBlockingQueue") {
+
+        @Override
+        <T> BlockingQueue<T> of(Integer capacity) {
+            return new ResizableCapacityArrayBlockingQueue<>(capacity);
+        }
+
+        @Override
+        <T> BlockingQueue<T> of() {
+            return new ResizableCapacityArrayBlockingQueue<>(DEFAULT_CAPACITY);
+        }
+    },
+
+    /**
+     * {@link EagerGrowthBlockingQueue}
+     */
+    EAGER_GROWTH_BLOCKING_QUEUE(11, "EagerGrowthBlockingQueue") {
+
+        @Override
+        <T> BlockingQueue<T> of(Integer capacity) {
+            return new EagerGrowthBlockingQueue<>(capacity);
+        }
+
+        @Override
+        <T> BlockingQueue<T> of() {
+            return new EagerGrowthBlockingQueue<>();
+        }
     };
 
     @Getter
@@ -304,6 +336,19 @@ public enum BlockingQueueTypeEnum {
                 .orElse("");
     }
 
+    /**
+     * Whether the capacity of the queue with the given {@link BlockingQueueTypeEnum#type BlockingQueueTypeEnum.type}
+     * can be changed while it is in use.
+     *
+     * @param type {@link BlockingQueueTypeEnum#type BlockingQueueTypeEnum.type}
+     * @return true if the queue is a {@link ResizableCapacityBlockingQueue}
+     */
+    public static boolean isResizableCapacityQueue(Integer type) {
+        return Objects.equals(RESIZABLE_LINKED_BLOCKING_QUEUE.getType(), type)
+                || Objects.equals(RESIZABLE_ARRAY_BLOCKING_QUEUE.getType(), type)
+                || Objects.equals(EAGER_GROWTH_BLOCKING_QUEUE.getType(), type);
+    }
+
     /**
      * find {@link BlockingQueueTypeEnum} by {@link BlockingQueueTypeEnum#name BlockingQueueTypeEnum.name }
      * or {@link BlockingQueueTypeEnum#LINKED_BLOCKING_QUEUE} if can't mapping.
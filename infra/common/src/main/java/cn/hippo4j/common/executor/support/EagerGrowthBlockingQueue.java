@@ -0,0 +1,142 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.hippo4j.common.executor.support;
+
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * <p>A {@link ResizableCapacityLinkedBlockingQueue} which makes the bound {@link ThreadPoolExecutor}
+ * grow to {@link ThreadPoolExecutor#getMaximumPoolSize()} threads before queueing tasks, like the {@code TaskQueue} of Tomcat.
+ *
+ * <p>{@link ThreadPoolExecutor} only creates non-core threads when {@link #offer(Object)} fails,
+ * so this queue refuses a task while the pool size is less than the maximum pool size
+ * and there are not enough idle workers waiting in {@link #take()} or {@link #poll(long, TimeUnit)} for the queued tasks. <br />
+ * When the pool reaches the maximum pool size concurrently, the executor rejects the task although the queue may have room,
+ * so the rejection should be retried by {@link #retryOffer}, which queues the task if the executor is still running.
+ *
+ * <p>The queue behaves as a {@link ResizableCapacityLinkedBlockingQueue} until an executor is bound by {@link #setExecutor},
+ * and only {@link #offer(Object)} is affected by the pool size, {@link #put} always waits for the capacity of the queue.
+ *
+ * @param <E> the type of elements held in this queue
+ * @see BlockingQueueTypeEnum#EAGER_GROWTH_BLOCKING_QUEUE
+ */
+public class EagerGrowthBlockingQueue<E> extends ResizableCapacityLinkedBlockingQueue<E> {
+
+    private static final long serialVersionUID = -2635853580887179627L;
+
+    /**
+     * Count of workers waiting for tasks in {@link #take()} or {@link #poll(long, TimeUnit)}
+     */
+    private final AtomicInteger idleWorkerCount = new AtomicInteger();
+
+    /**
+     * Executor whose workers take tasks from this queue
+     */
+    private transient volatile ThreadPoolExecutor executor;
+
+    /**
+     * Creates an {@code EagerGrowthBlockingQueue} with a capacity of {@link Integer#MAX_VALUE}.
+     */
+    public EagerGrowthBlockingQueue() {
+        super();
+    }
+
+    /**
+     * Creates an {@code EagerGrowthBlockingQueue} with the given capacity.
+     *
+     * @param capacity the capacity of this queue
+     * @throws IllegalArgumentException if {@code capacity} is not greater than zero
+     */
+    public EagerGrowthBlockingQueue(int capacity) {
+        super(capacity);
+    }
+
+    /**
+     * Bind the executor whose workers take tasks from this queue.
+     *
+     * @param executor executor
+     */
+    public void setExecutor(ThreadPoolExecutor executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * Inserts the task at the tail of this queue if there are enough idle workers to run it,
+     * or the pool size has reached the maximum pool size,
+     * otherwise returns false so that the executor creates a new thread for it.
+     *
+     * @param o the element to add
+     * @return true if the element was added to this queue
+     */
+    @Override
+    public boolean offer(E o) {
+        ThreadPoolExecutor executor = this.executor;
+        if (executor == null || idleWorkerCount.get() > size()) {
+            return super.offer(o);
+        }
+        if (executor.getPoolSize() < executor.getMaximumPoolSize()) {
+            return false;
+        }
+        return super.offer(o);
+    }
+
+    /**
+     * Inserts the task rejected by the executor at the tail of this queue, if the executor is still running.
+     *
+     * @param o the element to add
+     * @return true if the element was added to this queue
+     */
+    public boolean retryOffer(E o) {
+        ThreadPoolExecutor executor = this.executor;
+        if (executor == null || executor.isShutdown() || !super.offer(o)) {
+            return false;
+        }
+        // the task may be never executed if the executor has been shutdown concurrently
+        return !executor.isShutdown() || !remove(o);
+    }
+
+    @Override
+    public E take() throws InterruptedException {
+        E e = super.poll();
+        if (e != null) {
+            return e;
+        }
+        idleWorkerCount.incrementAndGet();
+        try {
+            return super.take();
+        } finally {
+            idleWorkerCount.decrementAndGet();
+        }
+    }
+
+    @Override
+    public E poll(long timeout, TimeUnit unit) throws InterruptedException {
+        E e = super.poll();
+        if (e != null) {
+            return e;
+        }
+        idleWorkerCount.incrementAndGet();
+        try {
+            return super.poll(timeout, unit);
+        } finally {
+            idleWorkerCount.decrementAndGet();
+        }
+    }
+}
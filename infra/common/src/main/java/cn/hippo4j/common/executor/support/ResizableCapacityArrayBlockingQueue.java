@@ -0,0 +1,679 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.hippo4j.common.executor.support;
+
+import java.util.AbstractQueue;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * <p>A bounded, lock-free, multi-producer multi-consumer blocking queue backed by a ring buffer,
+ * with a {@link #setCapacity(int)} method allowing us to change the capacity of the queue while it is in use.
+ * This queue orders elements FIFO (first-in-first-out).
+ *
+ * <p>The non-blocking operations ({@link #offer}, {@link #poll}) claim a slot of the ring by a single CAS
+ * on the producer or consumer index, and hand the element over through the sequence of the slot,
+ * so neither locks nor per-element nodes are involved. <br />
+ * Only threads which have to wait in {@link #put}, {@link #take} or their timed variants park on a condition,
+ * and the opposite side signals them only if there is a waiter.
+ *
+ * <p>The ring spans the power of two not less than {@link #maxCapacity}, its slots are allocated lazily
+ * in segments when the producers reach them. The producer index wraps around the whole ring whatever the logical capacity is,
+ * so a queue which is not empty only for a while may allocate few segments, but the ring is fully allocated
+ * once as many elements as its physical capacity have passed through the queue, and the segments are never released.
+ * The memory of a long-running queue is bounded by the max capacity rather than the capacity in use.
+ * The logical capacity can be changed to any value not greater than {@link #maxCapacity}.
+ * Decreasing the capacity below the current size does not discard any element,
+ * producers are blocked until the queue is drained below the new capacity.
+ *
+ * <p>{@link #remove(Object)} marks the slot of the element as removed instead of moving the subsequent elements,
+ * the slot is released when a consumer reaches it, so {@link #size()} includes removed elements until then,
+ * and the waiting producers are signalled at that time.
+ * Iterators are weakly consistent and traverse a snapshot of the queue.
+ *
+ * @param <E> the type of elements held in this queue
+ * @see ResizableCapacityLinkedBlockingQueue
+ */
+public class ResizableCapacityArrayBlockingQueue<E> extends AbstractQueue<E> implements ResizableCapacityBlockingQueue<E> {
+
+    /**
+     * The maximum physical capacity of the ring
+     */
+    private static final int MAXIMUM_CAPACITY = 1 << 30;
+
+    /**
+     * Multiplier of the initial capacity when the max capacity is not specified
+     */
+    private static final int DEFAULT_MAX_CAPACITY_MULTIPLIER = 2;
+
+    /**
+     * The minimum number of slots of a segment
+     */
+    private static final int MIN_SEGMENT_SIZE = 1024;
+
+    /**
+     * The maximum number of segments of the ring
+     */
+    private static final int MAX_SEGMENTS = 1024;
+
+    /**
+     * Marker of the slot whose element is removed by {@link #remove(Object)}
+     */
+    private static final Object REMOVED = new Object();
+
+    /**
+     * Segments of the ring, allocated when the producers reach them
+     */
+    private final AtomicReferenceArray<Segment> segments;
+
+    /**
+     * Shift from the index of slot to the index of its segment
+     */
+    private final int segmentShift;
+
+    /**
+     * Mask from the index of slot to its offset in the segment
+     */
+    private final int segmentMask;
+
+    /**
+     * Mask of the physical capacity
+     */
+    private final int mask;
+
+    /**
+     * Index of the next slot to be written
+     */
+    private final AtomicLong producerIndex = new AtomicLong();
+
+    /**
+     * Index of the next slot to be read
+     */
+    private final AtomicLong consumerIndex = new AtomicLong();
+
+    /**
+     * The max logical capacity
+     */
+    private final int maxCapacity;
+
+    /**
+     * The logical capacity
+     */
+    private volatile int capacity;
+
+    /**
+     * Lock held by waiting threads only
+     */
+    private final ReentrantLock lock = new ReentrantLock();
+
+    /**
+     * Wait queue for waiting takes
+     */
+    private final Condition notEmpty = lock.newCondition();
+
+    /**
+     * Wait queue for waiting puts
+     */
+    private final Condition notFull = lock.newCondition();
+
+    /**
+     * Count of threads waiting on {@link #notEmpty}, only changed while holding the lock
+     */
+    private volatile int takeWaiters;
+
+    /**
+     * Count of threads waiting on {@link #notFull}, only changed while holding the lock
+     */
+    private volatile int putWaiters;
+
+    /**
+     * Creates a {@link ResizableCapacityArrayBlockingQueue} with the given capacity,
+     * the capacity can be increased up to twice of the initial capacity.
+     *
+     * @param capacity the capacity of this queue
+     * @throws IllegalArgumentException if {@code capacity} is not greater than zero or greater than {@code 2^30}
+     */
+    public ResizableCapacityArrayBlockingQueue(int capacity) {
+        this(capacity, (int) Math.min((long) capacity * DEFAULT_MAX_CAPACITY_MULTIPLIER, Math.max(capacity, MAXIMUM_CAPACITY)));
+    }
+
+    /**
+     * Creates a {@link ResizableCapacityArrayBlockingQueue} with the given capacity and max capacity.
+     *
+     * @param capacity    the capacity of this queue
+     * @param maxCapacity the max capacity which can be set by {@link #setCapacity(int)}
+     * @throws IllegalArgumentException if {@code capacity} is not greater than zero,
+     *                                  or {@code maxCapacity} is less than {@code capacity} or greater than {@code 2^30}
+     */
+    public ResizableCapacityArrayBlockingQueue(int capacity, int maxCapacity) {
+        if (capacity <= 0 || maxCapacity < capacity || maxCapacity > MAXIMUM_CAPACITY) {
+            throw new IllegalArgumentException();
+        }
+        int physicalCapacity = tableSizeFor(maxCapacity);
+        int segmentSize = Math.min(physicalCapacity, Math.max(MIN_SEGMENT_SIZE, physicalCapacity / MAX_SEGMENTS));
+        this.segments = new AtomicReferenceArray<>(physicalCapacity / segmentSize);
+        this.segmentShift = Integer.numberOfTrailingZeros(segmentSize);
+        this.segmentMask = segmentSize - 1;
+        this.mask = physicalCapacity - 1;
+        this.maxCapacity = maxCapacity;
+        this.capacity = capacity;
+    }
+
+    private static int tableSizeFor(int capacity) {
+        int n = Integer.highestOneBit(capacity);
+        return n == capacity ? n : n << 1;
+    }
+
+    /**
+     * Set a new capacity for the queue. Increasing the capacity can
+     * cause any waiting {@link #put(Object)} invocations to succeed if the new
+     * capacity is larger than the queue.
+     *
+     * @param capacity the new capacity for the queue
+     * @throws IllegalArgumentException if {@code capacity} is not greater than zero or greater than {@link #getMaxCapacity()}
+     */
+    @Override
+    public void setCapacity(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException();
+        }
+        if (capacity > maxCapacity) {
+            throw new IllegalArgumentException(String.format("The capacity %d exceeds the max capacity %d of queue.", capacity, maxCapacity));
+        }
+        final int oldCapacity = this.capacity;
+        this.capacity = capacity;
+        if (capacity > oldCapacity && putWaiters > 0) {
+            signalAll(notFull);
+        }
+    }
+
+    /**
+     * Get the logical capacity of the queue.
+     *
+     * @return the logical capacity
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Get the max capacity which can be set by {@link #setCapacity(int)}.
+     *
+     * @return the max capacity
+     */
+    @Override
+    public int getMaxCapacity() {
+        return maxCapacity;
+    }
+
+    @Override
+    public int size() {
+        for (;;) {
+            long head = consumerIndex.get();
+            long tail = producerIndex.get();
+            if (head == consumerIndex.get()) {
+                return (int) Math.max(0L, tail - head);
+            }
+        }
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    @Override
+    public int remainingCapacity() {
+        return Math.max(0, capacity - size());
+    }
+
+    @Override
+    public boolean offer(E e) {
+        if (e == null) {
+            throw new NullPointerException();
+        }
+        if (!enqueue(e)) {
+            return false;
+        }
+        signalIfWaiting(takeWaiters, notEmpty);
+        return true;
+    }
+
+    @Override
+    public void put(E e) throws InterruptedException {
+        if (e == null) {
+            throw new NullPointerException();
+        }
+        if (!enqueue(e)) {
+            lock.lockInterruptibly();
+            try {
+                putWaiters++;
+                try {
+                    while (!enqueue(e)) {
+                        notFull.await();
+                    }
+                } catch (InterruptedException ie) {
+                    // propagate to a non-interrupted thread
+                    notFull.signal();
+                    throw ie;
+                } finally {
+                    putWaiters--;
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+        signalIfWaiting(takeWaiters, notEmpty);
+    }
+
+    @Override
+    public boolean offer(E e, long timeout, TimeUnit unit) throws InterruptedException {
+        if (e == null) {
+            throw new NullPointerException();
+        }
+        if (!enqueue(e)) {
+            long nanos = unit.toNanos(timeout);
+            lock.lockInterruptibly();
+            try {
+                putWaiters++;
+                try {
+                    while (!enqueue(e)) {
+                        if (nanos <= 0) {
+                            return false;
+                        }
+                        nanos = notFull.awaitNanos(nanos);
+                    }
+                } catch (InterruptedException ie) {
+                    // propagate to a non-interrupted thread
+                    notFull.signal();
+                    throw ie;
+                } finally {
+                    putWaiters--;
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+        signalIfWaiting(takeWaiters, notEmpty);
+        return true;
+    }
+
+    @Override
+    public E poll() {
+        E e = dequeue();
+        if (e != null) {
+            signalIfWaiting(putWaiters, notFull);
+        }
+        return e;
+    }
+
+    @Override
+    public E take() throws InterruptedException {
+        E e = dequeue();
+        if (e == null) {
+            lock.lockInterruptibly();
+            try {
+                takeWaiters++;
+                try {
+                    while ((e = dequeue()) == null) {
+                        notEmpty.await();
+                    }
+                } catch (InterruptedException ie) {
+                    // propagate to a non-interrupted thread
+                    notEmpty.signal();
+                    throw ie;
+                } finally {
+                    takeWaiters--;
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+        signalIfWaiting(putWaiters, notFull);
+        return e;
+    }
+
+    @Override
+    public E poll(long timeout, TimeUnit unit) throws InterruptedException {
+        E e = dequeue();
+        if (e == null) {
+            long nanos = unit.toNanos(timeout);
+            lock.lockInterruptibly();
+            try {
+                takeWaiters++;
+                try {
+                    while ((e = dequeue()) == null) {
+                        if (nanos <= 0) {
+                            return null;
+                        }
+                        nanos = notEmpty.awaitNanos(nanos);
+                    }
+                } catch (InterruptedException ie) {
+                    // propagate to a non-interrupted thread
+                    notEmpty.signal();
+                    throw ie;
+                } finally {
+                    takeWaiters--;
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+        signalIfWaiting(putWaiters, notFull);
+        return e;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E peek() {
+        long tail = producerIndex.get();
+        for (long pos = consumerIndex.get(); pos < tail; pos++) {
+            Object item = readableItem(pos);
+            if (item != null) {
+                return (E) item;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Removes a single instance of the specified element from this queue,
+     * the slot of the element is marked as removed and released when a consumer reaches it.
+     *
+     * @param o element to be removed from this queue, if present
+     * @return {@code true} if this queue changed as a result of the call
+     */
+    @Override
+    public boolean remove(Object o) {
+        return o != null && remove(o, false);
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        if (o == null) {
+            return false;
+        }
+        long tail = producerIndex.get();
+        for (long pos = consumerIndex.get(); pos < tail; pos++) {
+            if (o.equals(readableItem(pos))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public int drainTo(Collection<? super E> c) {
+        return drainTo(c, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public int drainTo(Collection<? super E> c, int maxElements) {
+        if (c == null) {
+            throw new NullPointerException();
+        }
+        if (c == this) {
+            throw new IllegalArgumentException();
+        }
+        int n = 0;
+        E e;
+        while (n < maxElements && (e = dequeue()) != null) {
+            c.add(e);
+            n++;
+        }
+        if (n > 0 && putWaiters > 0) {
+            signalAll(notFull);
+        }
+        return n;
+    }
+
+    @Override
+    public Object[] toArray() {
+        return snapshot().toArray();
+    }
+
+    @Override
+    public <T> T[] toArray(T[] a) {
+        return snapshot().toArray(a);
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        return new Itr(snapshot());
+    }
+
+    @Override
+    public String toString() {
+        return snapshot().toString();
+    }
+
+    private boolean enqueue(E e) {
+        for (;;) {
+            long pos = producerIndex.get();
+            if (pos - consumerIndex.get() >= capacity) {
+                return false;
+            }
+            int index = (int) pos & mask;
+            Segment segment = segmentForWrite(index);
+            int offset = index & segmentMask;
+            long dif = segment.sequences.get(offset) - pos;
+            if (dif == 0) {
+                if (producerIndex.compareAndSet(pos, pos + 1)) {
+                    segment.items.lazySet(offset, e);
+                    segment.sequences.set(offset, pos + 1);
+                    return true;
+                }
+            } else if (dif < 0) {
+                return false;
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private E dequeue() {
+        for (;;) {
+            long pos = consumerIndex.get();
+            int index = (int) pos & mask;
+            Segment segment = segments.get(index >>> segmentShift);
+            if (segment == null) {
+                // never written
+                return null;
+            }
+            int offset = index & segmentMask;
+            long dif = segment.sequences.get(offset) - (pos + 1);
+            if (dif == 0) {
+                if (consumerIndex.compareAndSet(pos, pos + 1)) {
+                    Object item = segment.items.getAndSet(offset, null);
+                    segment.sequences.set(offset, pos + mask + 1);
+                    if (item != REMOVED) {
+                        return (E) item;
+                    }
+                    // the slot of a removed element is released
+                    signalIfWaiting(putWaiters, notFull);
+                }
+            } else if (dif < 0) {
+                return null;
+            }
+        }
+    }
+
+    /**
+     * Get the segment of the slot, allocate it if the slot is reached for the first time.
+     *
+     * @param index index of slot
+     * @return segment
+     */
+    private Segment segmentForWrite(int index) {
+        int segmentIndex = index >>> segmentShift;
+        Segment segment = segments.get(segmentIndex);
+        if (segment == null) {
+            segment = new Segment(segmentIndex << segmentShift, segmentMask + 1);
+            if (!segments.compareAndSet(segmentIndex, null, segment)) {
+                segment = segments.get(segmentIndex);
+            }
+        }
+        return segment;
+    }
+
+    /**
+     * Get the element at the given position if it has been published and not taken or removed yet.
+     *
+     * @param pos position
+     * @return element or null
+     */
+    private Object readableItem(long pos) {
+        int index = (int) pos & mask;
+        Segment segment = segments.get(index >>> segmentShift);
+        int offset = index & segmentMask;
+        if (segment == null || segment.sequences.get(offset) != pos + 1) {
+            return null;
+        }
+        Object item = segment.items.get(offset);
+        return item == REMOVED ? null : item;
+    }
+
+    private boolean remove(Object o, boolean identity) {
+        long tail = producerIndex.get();
+        for (long pos = consumerIndex.get(); pos < tail; pos++) {
+            Object item = readableItem(pos);
+            int index = (int) pos & mask;
+            if (item != null && (identity ? item == o : o.equals(item))
+                    && segments.get(index >>> segmentShift).items.compareAndSet(index & segmentMask, item, REMOVED)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private List<E> snapshot() {
+        List<E> elements = new ArrayList<>();
+        long tail = producerIndex.get();
+        for (long pos = consumerIndex.get(); pos < tail; pos++) {
+            Object item = readableItem(pos);
+            if (item != null) {
+                elements.add(castItem(item));
+            }
+        }
+        return elements;
+    }
+
+    @SuppressWarnings("unchecked")
+    private E castItem(Object item) {
+        return (E) item;
+    }
+
+    /**
+     * Signal a waiting thread, the volatile read of the waiters after publishing the change of slot
+     * pairs with the check of the queue after increasing the waiters, so no signal will be lost.
+     *
+     * @param waiters   count of waiters
+     * @param condition condition
+     */
+    private void signalIfWaiting(int waiters, Condition condition) {
+        if (waiters > 0) {
+            lock.lock();
+            try {
+                condition.signal();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private void signalAll(Condition condition) {
+        lock.lock();
+        try {
+            condition.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Slots of a segment of the ring.
+     */
+    private static final class Segment {
+
+        /**
+         * Elements of the slots
+         */
+        private final AtomicReferenceArray<Object> items;
+
+        /**
+         * Sequences of the slots, a slot at position {@code pos} is writable when its sequence is {@code pos},
+         * and readable when its sequence is {@code pos + 1}
+         */
+        private final AtomicLongArray sequences;
+
+        Segment(int firstIndex, int size) {
+            this.items = new AtomicReferenceArray<>(size);
+            this.sequences = new AtomicLongArray(size);
+            for (int i = 0; i < size; i++) {
+                sequences.lazySet(i, firstIndex + i);
+            }
+        }
+    }
+
+    /**
+     * Iterator over a snapshot of the queue.
+     */
+    private class Itr implements Iterator<E> {
+
+        private final List<E> elements;
+
+        private int cursor;
+
+        private E lastRet;
+
+        Itr(List<E> elements) {
+            this.elements = elements;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return cursor < elements.size();
+        }
+
+        @Override
+        public E next() {
+            if (cursor >= elements.size()) {
+                throw new NoSuchElementException();
+            }
+            lastRet = elements.get(cursor++);
+            return lastRet;
+        }
+
+        @Override
+        public void remove() {
+            if (lastRet == null) {
+                throw new IllegalStateException();
+            }
+            ResizableCapacityArrayBlockingQueue.this.remove(lastRet, true);
+            lastRet = null;
+        }
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.hippo4j.common.executor.support;
+
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * A {@link BlockingQueue} whose capacity can be changed while it is in use,
+ * the dynamic refresh of queue capacity is only applied to this kind of queue.
+ *
+ * @param <E> the type of elements held in this queue
+ * @see ResizableCapacityLinkedBlockingQueue
+ * @see ResizableCapacityArrayBlockingQueue
+ */
+public interface ResizableCapacityBlockingQueue<E> extends BlockingQueue<E> {
+
+    /**
+     * Set a new capacity for the queue. Increasing the capacity can
+     * cause any waiting {@link #put(Object)} invocations to succeed.
+     *
+     * @param capacity the new capacity for the queue
+     */
+    void setCapacity(int capacity);
+
+    /**
+     * Get the max capacity which can be set by {@link #setCapacity(int)}.
+     *
+     * @return the max capacity
+     */
+    default int getMaxCapacity() {
+        return Integer.MAX_VALUE;
+    }
+
+    /**
+     * Set a new capacity for the queue, the capacity greater than {@link #getMaxCapacity()} is clamped to it
+     * instead of being rejected, so a refresh is not aborted by the capacity after other parameters are applied.
+     *
+     * @param capacity the new capacity for the queue
+     * @return the capacity applied
+     */
+    default int setCapacityWithinMax(int capacity) {
+        int applied = Math.min(capacity, getMaxCapacity());
+        setCapacity(applied);
+        return applied;
+    }
+}
@@ -65,7 +65,7 @@ import java.util.concurrent.locks.ReentrantLock;
  **/
 public class ResizableCapacityLinkedBlockingQueue<E> extends AbstractQueue<E>
         implements
-            BlockingQueue<E>,
+            ResizableCapacityBlockingQueue<E>,
             java.io.Serializable {
 
     private static final long serialVersionUID = -6903933977591709194L;
@@ -258,6 +258,7 @@ public class ResizableCapacityLinkedBlockingQueue<E> extends AbstractQueue<E>
      *
      * @param capacity the new capacity for the queue
      */
+    @Override
     public void setCapacity(int capacity) {
         final int oldCapacity = this.capacity;
         this.capacity = capacity;
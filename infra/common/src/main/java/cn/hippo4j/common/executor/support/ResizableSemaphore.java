@@ -0,0 +1,87 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.hippo4j.common.executor.support;
+
+import java.util.concurrent.Semaphore;
+
+/**
+ * <p>A {@link Semaphore} whose total number of permits can be changed at runtime. <br />
+ * Increasing the permits releases the difference immediately, decreasing the permits reduces the available permits,
+ * which may become negative until enough acquired permits are released, and the acquired permits are never revoked.
+ */
+public class ResizableSemaphore extends Semaphore {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Total number of permits
+     */
+    private volatile int permits;
+
+    /**
+     * Creates a {@code ResizableSemaphore} with the given number of permits and nonfair fairness setting.
+     *
+     * @param permits the initial number of permits
+     * @throws IllegalArgumentException if {@code permits < 0}
+     */
+    public ResizableSemaphore(int permits) {
+        super(permits);
+        if (permits < 0) {
+            throw new IllegalArgumentException();
+        }
+        this.permits = permits;
+    }
+
+    /**
+     * Set the total number of permits.
+     *
+     * @param permits the new number of permits
+     * @throws IllegalArgumentException if {@code permits < 0}
+     */
+    public synchronized void setPermits(int permits) {
+        if (permits < 0) {
+            throw new IllegalArgumentException();
+        }
+        int delta = permits - this.permits;
+        if (delta > 0) {
+            release(delta);
+        } else if (delta < 0) {
+            reducePermits(-delta);
+        }
+        this.permits = permits;
+    }
+
+    /**
+     * Get the total number of permits.
+     *
+     * @return the total number of permits
+     */
+    public int getPermits() {
+        return permits;
+    }
+
+    /**
+     * Get the number of acquired permits, which may exceed the total number of permits
+     * for a while after the permits are decreased.
+     *
+     * @return the number of acquired permits
+     */
+    public int getAcquiredPermits() {
+        return Math.max(0, permits - availablePermits());
+    }
+}
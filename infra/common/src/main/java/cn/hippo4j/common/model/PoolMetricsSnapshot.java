@@ -0,0 +1,184 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.hippo4j.common.model;
+
+import cn.hippo4j.common.support.LatencyHistogram;
+import cn.hippo4j.common.toolkit.CalculateUtil;
+import lombok.Getter;
+import lombok.Setter;
+
+import static cn.hippo4j.common.constant.Constants.NO_REJECT_COUNT_NUM;
+
+/**
+ * <p>Metrics snapshot of a thread-pool with primitive fields, filled directly from the executor and its plugins. <br />
+ * A snapshot is mutable and can be reused across collect cycles by a single collector,
+ * the loads are calculated on read, and the percentiles are only valid if the histogram is recorded.
+ *
+ * @see cn.hippo4j.common.support.AbstractThreadPoolRuntime#getPoolMetricsSnapshot
+ */
+@Getter
+@Setter
+public class PoolMetricsSnapshot {
+
+    /**
+     * Thread-pool id
+     */
+    private String tpId;
+
+    /**
+     * Timestamp of the snapshot
+     */
+    private long timestamp;
+
+    /**
+     * Core pool size
+     */
+    private int coreSize;
+
+    /**
+     * Maximum pool size
+     */
+    private int maximumSize;
+
+    /**
+     * Pool size
+     */
+    private int poolSize;
+
+    /**
+     * Active count
+     */
+    private int activeCount;
+
+    /**
+     * The maximum number of threads that enter the thread pool at the same time
+     */
+    private int largestPoolSize;
+
+    /**
+     * Queue type
+     */
+    private String queueType;
+
+    /**
+     * Queue capacity
+     */
+    private int queueCapacity;
+
+    /**
+     * Queue size
+     */
+    private int queueSize;
+
+    /**
+     * Queue remaining capacity
+     */
+    private int queueRemainingCapacity;
+
+    /**
+     * Completed task count
+     */
+    private long completedTaskCount;
+
+    /**
+     * Reject count, {@link cn.hippo4j.common.constant.Constants#NO_REJECT_COUNT_NUM} if not recorded
+     */
+    private long rejectCount = NO_REJECT_COUNT_NUM;
+
+    /**
+     * Whether the task execution time is recorded in the last collect interval
+     */
+    private boolean taskTimeRecorded;
+
+    /**
+     * p50 of task execution time in the last collect interval, in nanoseconds
+     */
+    private long taskTimeP50;
+
+    /**
+     * p99 of task execution time in the last collect interval, in nanoseconds
+     */
+    private long taskTimeP99;
+
+    /**
+     * p999 of task execution time in the last collect interval, in nanoseconds
+     */
+    private long taskTimeP999;
+
+    /**
+     * Whether the task queue time is recorded in the last collect interval
+     */
+    private boolean queueTimeRecorded;
+
+    /**
+     * p50 of task queue time in the last collect interval, in nanoseconds
+     */
+    private long queueTimeP50;
+
+    /**
+     * p99 of task queue time in the last collect interval, in nanoseconds
+     */
+    private long queueTimeP99;
+
+    /**
+     * p999 of task queue time in the last collect interval, in nanoseconds
+     */
+    private long queueTimeP999;
+
+    /**
+     * Get current load, the percentage of active threads to the maximum pool size.
+     *
+     * @return current load
+     */
+    public int getCurrentLoad() {
+        return CalculateUtil.divide(activeCount, maximumSize);
+    }
+
+    /**
+     * Get peak load, the percentage of largest pool size to the maximum pool size.
+     *
+     * @return peak load
+     */
+    public int getPeakLoad() {
+        return CalculateUtil.divide(largestPoolSize, maximumSize);
+    }
+
+    /**
+     * Set the percentiles of task execution time.
+     *
+     * @param histogram histogram snapshot of task execution time
+     */
+    public void setTaskTime(LatencyHistogram.Snapshot histogram) {
+        this.taskTimeRecorded = true;
+        this.taskTimeP50 = histogram.getP50();
+        this.taskTimeP99 = histogram.getP99();
+        this.taskTimeP999 = histogram.getP999();
+    }
+
+    /**
+     * Set the percentiles of task queue time.
+     *
+     * @param histogram histogram snapshot of task queue time
+     */
+    public void setQueueTime(LatencyHistogram.Snapshot histogram) {
+        this.queueTimeRecorded = true;
+        this.queueTimeP50 = histogram.getP50();
+        this.queueTimeP99 = histogram.getP99();
+        this.queueTimeP999 = histogram.getP999();
+    }
+}
@@ -116,6 +116,36 @@ public class ThreadPoolRunStateInfo extends ThreadPoolBaseInfo implements Serial
      */
     private Long timestamp;
 
+    /**
+     * p50 of task execution time in the last collect interval, in nanoseconds
+     */
+    private Long taskTimeP50;
+
+    /**
+     * p99 of task execution time in the last collect interval, in nanoseconds
+     */
+    private Long taskTimeP99;
+
+    /**
+     * p999 of task execution time in the last collect interval, in nanoseconds
+     */
+    private Long taskTimeP999;
+
+    /**
+     * p50 of task queue time in the last collect interval, in nanoseconds
+     */
+    private Long queueTimeP50;
+
+    /**
+     * p99 of task queue time in the last collect interval, in nanoseconds
+     */
+    private Long queueTimeP99;
+
+    /**
+     * p999 of task queue time in the last collect interval, in nanoseconds
+     */
+    private Long queueTimeP999;
+
     public Integer getSimpleCurrentLoad() {
         if (Objects.nonNull(getCurrentLoad())) {
             return Integer.parseInt(getCurrentLoad().replace("%", ""));
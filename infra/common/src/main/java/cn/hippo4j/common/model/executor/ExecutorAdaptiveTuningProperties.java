@@ -0,0 +1,77 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.hippo4j.common.model.executor;
+
+import lombok.Data;
+
+/**
+ * Dynamic thread-pool adaptive tuning properties, the unset properties keep their defaults.
+ */
+@Data
+public class ExecutorAdaptiveTuningProperties {
+
+    /**
+     * Whether to enable adaptive tuning
+     */
+    private Boolean enable;
+
+    /**
+     * Min core pool size
+     */
+    private Integer minPoolSize;
+
+    /**
+     * Max core and maximum pool size
+     */
+    private Integer maxPoolSize;
+
+    /**
+     * Min queue capacity
+     */
+    private Integer minQueueCapacity;
+
+    /**
+     * Max queue capacity
+     */
+    private Integer maxQueueCapacity;
+
+    /**
+     * Interval of sampling the metrics of thread-pool, unit: ms
+     */
+    private Long sampleIntervalMillis;
+
+    /**
+     * Min interval between two adjustments, unit: ms
+     */
+    private Long minAdjustIntervalMillis;
+
+    /**
+     * Max count of threads added by a single adjustment
+     */
+    private Integer maxIncreaseStep;
+
+    /**
+     * Ratio of idle threads kept on top of the estimated concurrency
+     */
+    private Double headroom;
+
+    /**
+     * Factor applied to the core pool size by a single decrease
+     */
+    private Double decreaseFactor;
+}
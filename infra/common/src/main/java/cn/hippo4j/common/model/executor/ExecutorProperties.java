@@ -74,6 +74,11 @@ public class ExecutorProperties implements IExecutorProperties {
      */
     private Long executeTimeOut;
 
+    /**
+     * Queue timeout, alarm when the time of tasks waiting in the queue exceeds it
+     */
+    private Long queueTimeOut;
+
     /**
      * Allow core thread timeout
      */
@@ -84,6 +89,11 @@ public class ExecutorProperties implements IExecutorProperties {
      */
     private String threadNamePrefix;
 
+    /**
+     * Whether to run each task on a virtual thread, only applied at application startup
+     */
+    private Boolean virtualThread;
+
     /**
      * Whether to enable thread pool running alarm
      */
@@ -104,6 +114,11 @@ public class ExecutorProperties implements IExecutorProperties {
      */
     private ExecutorNotifyProperties notify;
 
+    /**
+     * Adaptive tuning
+     */
+    private ExecutorAdaptiveTuningProperties adaptiveTuning;
+
     /**
      * Nodes, application startup is not affect, change properties is effect
      */
@@ -81,4 +81,34 @@ public class RuntimeMessage extends AbstractMessage {
      * timestamp
      */
     private Long timestamp;
+
+    /**
+     * p50 of task execution time in the last collect interval, in nanoseconds
+     */
+    private Long taskTimeP50;
+
+    /**
+     * p99 of task execution time in the last collect interval, in nanoseconds
+     */
+    private Long taskTimeP99;
+
+    /**
+     * p999 of task execution time in the last collect interval, in nanoseconds
+     */
+    private Long taskTimeP999;
+
+    /**
+     * p50 of task queue time in the last collect interval, in nanoseconds
+     */
+    private Long queueTimeP50;
+
+    /**
+     * p99 of task queue time in the last collect interval, in nanoseconds
+     */
+    private Long queueTimeP99;
+
+    /**
+     * p999 of task queue time in the last collect interval, in nanoseconds
+     */
+    private Long queueTimeP999;
 }
@@ -0,0 +1,60 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.hippo4j.common.monitor;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Acknowledgement of a {@link RuntimeMessageBatch}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RuntimeMessageAck {
+
+    /**
+     * The batch is accepted
+     */
+    public static final byte STATUS_OK = 0;
+
+    /**
+     * The batch is dropped because the server is busy, the client should back off and resend it
+     */
+    public static final byte STATUS_BUSY = 1;
+
+    /**
+     * Sequence of the acknowledged batch
+     */
+    private long sequence;
+
+    /**
+     * Status of the batch
+     */
+    private byte status;
+
+    /**
+     * Whether the batch is accepted.
+     *
+     * @return true if the batch is accepted
+     */
+    public boolean isAccepted() {
+        return status == STATUS_OK;
+    }
+}
@@ -0,0 +1,455 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.hippo4j.common.monitor;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * <p>Compact binary codec of the frames exchanged by the monitor transport,
+ * the length prefix of each frame is added by the transport. <br />
+ * A frame starts with a header of {@link #MAGIC}, {@link #VERSION}, frame type and flags, followed by the body:
+ * <ul>
+ *     <li>{@link #TYPE_BATCH}: sequence, count of messages and the messages of a {@link RuntimeMessageBatch},
+ *     the body is deflated if its length exceeds the compress threshold, which is marked by {@link #FLAG_COMPRESSED};</li>
+ *     <li>{@link #TYPE_ACK}: sequence and status of a {@link RuntimeMessageAck}.</li>
+ * </ul>
+ *
+ * <p>Each message starts with a bitmap of the non-null fields, numbers are written as zigzag varints,
+ * the timestamp is written as the delta from the previous message of the batch,
+ * and a group key already written in the batch is replaced by its index.
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class RuntimeMessageCodec {
+
+    /**
+     * Magic number of frames
+     */
+    public static final byte MAGIC = (byte) 0xA7;
+
+    /**
+     * Version of the codec
+     */
+    public static final byte VERSION = 1;
+
+    /**
+     * Frame of {@link RuntimeMessageBatch}
+     */
+    public static final byte TYPE_BATCH = 1;
+
+    /**
+     * Frame of {@link RuntimeMessageAck}
+     */
+    public static final byte TYPE_ACK = 2;
+
+    /**
+     * The body is deflated
+     */
+    public static final byte FLAG_COMPRESSED = 1;
+
+    /**
+     * Max length of a frame, also the max length of a decompressed body
+     */
+    public static final int MAX_FRAME_LENGTH = 16 * 1024 * 1024;
+
+    /**
+     * Length of the frame header
+     */
+    private static final int HEADER_LENGTH = 4;
+
+    private static final int GROUP_KEY = 0;
+    private static final int MESSAGE_TYPE = 1;
+    private static final int CURRENT_LOAD = 2;
+    private static final int PEAK_LOAD = 3;
+    private static final int POOL_SIZE = 4;
+    private static final int LARGEST_POOL_SIZE = 5;
+    private static final int ACTIVE_SIZE = 6;
+    private static final int QUEUE_CAPACITY = 7;
+    private static final int QUEUE_SIZE = 8;
+    private static final int QUEUE_REMAINING_CAPACITY = 9;
+    private static final int COMPLETED_TASK_COUNT = 10;
+    private static final int REJECT_COUNT = 11;
+    private static final int TIMESTAMP = 12;
+    private static final int TASK_TIME_P50 = 13;
+    private static final int TASK_TIME_P99 = 14;
+    private static final int TASK_TIME_P999 = 15;
+    private static final int QUEUE_TIME_P50 = 16;
+    private static final int QUEUE_TIME_P99 = 17;
+    private static final int QUEUE_TIME_P999 = 18;
+
+    private static final MessageTypeEnum[] MESSAGE_TYPES = MessageTypeEnum.values();
+
+    /**
+     * Encode a batch frame.
+     *
+     * @param batch             batch
+     * @param compressThreshold min length of the body to be deflated, a negative value disables the compression
+     * @return frame
+     */
+    public static byte[] encodeBatch(RuntimeMessageBatch batch, int compressThreshold) {
+        Writer body = new Writer(256);
+        List<RuntimeMessage> messages = batch.getMessages() == null ? new ArrayList<>() : batch.getMessages();
+        body.writeVarLong(batch.getSequence());
+        body.writeVarLong(messages.size());
+        Map<String, Integer> groupKeys = new HashMap<>();
+        long previousTimestamp = 0L;
+        for (RuntimeMessage each : messages) {
+            previousTimestamp = writeMessage(body, each, groupKeys, previousTimestamp);
+        }
+        byte flags = 0;
+        byte[] bodyBytes = body.toByteArray();
+        if (compressThreshold >= 0 && bodyBytes.length >= compressThreshold) {
+            byte[] deflated = deflate(bodyBytes);
+            if (deflated.length < bodyBytes.length) {
+                bodyBytes = deflated;
+                flags |= FLAG_COMPRESSED;
+            }
+        }
+        Writer frame = new Writer(HEADER_LENGTH + bodyBytes.length);
+        writeHeader(frame, TYPE_BATCH, flags);
+        frame.write(bodyBytes, 0, bodyBytes.length);
+        return frame.toByteArray();
+    }
+
+    /**
+     * Encode an ack frame.
+     *
+     * @param ack ack
+     * @return frame
+     */
+    public static byte[] encodeAck(RuntimeMessageAck ack) {
+        Writer frame = new Writer(16);
+        writeHeader(frame, TYPE_ACK, (byte) 0);
+        frame.writeVarLong(ack.getSequence());
+        frame.write(ack.getStatus());
+        return frame.toByteArray();
+    }
+
+    /**
+     * Get the type of the frame.
+     *
+     * @param frame frame
+     * @return {@link #TYPE_BATCH} or {@link #TYPE_ACK}
+     * @throws IllegalArgumentException if the frame header is malformed
+     */
+    public static byte frameType(byte[] frame) {
+        if (frame.length < HEADER_LENGTH || frame[0] != MAGIC) {
+            throw new IllegalArgumentException("Malformed monitor frame header.");
+        }
+        if (frame[1] != VERSION) {
+            throw new IllegalArgumentException("Unsupported monitor frame version: " + frame[1]);
+        }
+        return frame[2];
+    }
+
+    /**
+     * Decode a batch frame.
+     *
+     * @param frame frame
+     * @return batch
+     * @throws IllegalArgumentException if the frame is malformed
+     */
+    public static RuntimeMessageBatch decodeBatch(byte[] frame) {
+        checkType(frame, TYPE_BATCH);
+        byte[] bodyBytes = frame;
+        int offset = HEADER_LENGTH;
+        if ((frame[3] & FLAG_COMPRESSED) != 0) {
+            bodyBytes = inflate(frame, HEADER_LENGTH);
+            offset = 0;
+        }
+        ByteBuffer body = ByteBuffer.wrap(bodyBytes, offset, bodyBytes.length - offset);
+        try {
+            long sequence = readVarLong(body);
+            int count = checkLength(readVarLong(body), body.remaining());
+            List<RuntimeMessage> messages = new ArrayList<>(count);
+            List<String> groupKeys = new ArrayList<>();
+            long previousTimestamp = 0L;
+            for (int i = 0; i < count; i++) {
+                RuntimeMessage message = readMessage(body, groupKeys, previousTimestamp);
+                if (message.getTimestamp() != null) {
+                    previousTimestamp = message.getTimestamp();
+                }
+                messages.add(message);
+            }
+            return new RuntimeMessageBatch(sequence, messages);
+        } catch (BufferUnderflowException | IndexOutOfBoundsException ex) {
+            throw new IllegalArgumentException("Malformed monitor batch frame.", ex);
+        }
+    }
+
+    /**
+     * Decode an ack frame.
+     *
+     * @param frame frame
+     * @return ack
+     * @throws IllegalArgumentException if the frame is malformed
+     */
+    public static RuntimeMessageAck decodeAck(byte[] frame) {
+        checkType(frame, TYPE_ACK);
+        ByteBuffer body = ByteBuffer.wrap(frame, HEADER_LENGTH, frame.length - HEADER_LENGTH);
+        try {
+            return new RuntimeMessageAck(readVarLong(body), body.get());
+        } catch (BufferUnderflowException ex) {
+            throw new IllegalArgumentException("Malformed monitor ack frame.", ex);
+        }
+    }
+
+    private static void checkType(byte[] frame, byte type) {
+        byte actual = frameType(frame);
+        if (actual != type) {
+            throw new IllegalArgumentException("Unexpected monitor frame type: " + actual);
+        }
+    }
+
+    private static void writeHeader(Writer frame, byte type, byte flags) {
+        frame.write(MAGIC);
+        frame.write(VERSION);
+        frame.write(type);
+        frame.write(flags);
+    }
+
+    private static long writeMessage(Writer out, RuntimeMessage message, Map<String, Integer> groupKeys, long previousTimestamp) {
+        long bitmap = 0L;
+        bitmap |= bit(GROUP_KEY, message.getGroupKey());
+        bitmap |= bit(MESSAGE_TYPE, message.getMessageType());
+        bitmap |= bit(CURRENT_LOAD, message.getCurrentLoad());
+        bitmap |= bit(PEAK_LOAD, message.getPeakLoad());
+        bitmap |= bit(POOL_SIZE, message.getPoolSize());
+        bitmap |= bit(LARGEST_POOL_SIZE, message.getLargestPoolSize());
+        bitmap |= bit(ACTIVE_SIZE, message.getActiveSize());
+        bitmap |= bit(QUEUE_CAPACITY, message.getQueueCapacity());
+        bitmap |= bit(QUEUE_SIZE, message.getQueueSize());
+        bitmap |= bit(QUEUE_REMAINING_CAPACITY, message.getQueueRemainingCapacity());
+        bitmap |= bit(COMPLETED_TASK_COUNT, message.getCompletedTaskCount());
+        bitmap |= bit(REJECT_COUNT, message.getRejectCount());
+        bitmap |= bit(TIMESTAMP, message.getTimestamp());
+        bitmap |= bit(TASK_TIME_P50, message.getTaskTimeP50());
+        bitmap |= bit(TASK_TIME_P99, message.getTaskTimeP99());
+        bitmap |= bit(TASK_TIME_P999, message.getTaskTimeP999());
+        bitmap |= bit(QUEUE_TIME_P50, message.getQueueTimeP50());
+        bitmap |= bit(QUEUE_TIME_P99, message.getQueueTimeP99());
+        bitmap |= bit(QUEUE_TIME_P999, message.getQueueTimeP999());
+        out.writeVarLong(bitmap);
+        if (message.getGroupKey() != null) {
+            Integer index = groupKeys.get(message.getGroupKey());
+            if (index != null) {
+                out.writeVarLong(index + 1L);
+            } else {
+                out.writeVarLong(0L);
+                out.writeOptionalString(message.getGroupKey());
+                groupKeys.put(message.getGroupKey(), groupKeys.size());
+            }
+        }
+        if (message.getMessageType() != null) {
+            out.writeVarLong(message.getMessageType().ordinal());
+        }
+        out.writeOptionalString(message.getCurrentLoad());
+        out.writeOptionalString(message.getPeakLoad());
+        out.writeOptionalZigZag(message.getPoolSize());
+        out.writeOptionalZigZag(message.getLargestPoolSize());
+        out.writeOptionalString(message.getActiveSize());
+        out.writeOptionalZigZag(message.getQueueCapacity());
+        out.writeOptionalZigZag(message.getQueueSize());
+        out.writeOptionalString(message.getQueueRemainingCapacity());
+        out.writeOptionalZigZag(message.getCompletedTaskCount());
+        out.writeOptionalZigZag(message.getRejectCount());
+        long timestamp = previousTimestamp;
+        if (message.getTimestamp() != null) {
+            timestamp = message.getTimestamp();
+            out.writeZigZag(timestamp - previousTimestamp);
+        }
+        out.writeOptionalZigZag(message.getTaskTimeP50());
+        out.writeOptionalZigZag(message.getTaskTimeP99());
+        out.writeOptionalZigZag(message.getTaskTimeP999());
+        out.writeOptionalZigZag(message.getQueueTimeP50());
+        out.writeOptionalZigZag(message.getQueueTimeP99());
+        out.writeOptionalZigZag(message.getQueueTimeP999());
+        return timestamp;
+    }
+
+    private static RuntimeMessage readMessage(ByteBuffer in, List<String> groupKeys, long previousTimestamp) {
+        long bitmap = readVarLong(in);
+        RuntimeMessage message = new RuntimeMessage();
+        if (has(bitmap, GROUP_KEY)) {
+            int index = (int) readVarLong(in);
+            if (index == 0) {
+                String groupKey = readString(in);
+                groupKeys.add(groupKey);
+                message.setGroupKey(groupKey);
+            } else {
+                message.setGroupKey(groupKeys.get(index - 1));
+            }
+        }
+        if (has(bitmap, MESSAGE_TYPE)) {
+            message.setMessageType(MESSAGE_TYPES[(int) readVarLong(in)]);
+        }
+        message.setCurrentLoad(has(bitmap, CURRENT_LOAD) ? readString(in) : null);
+        message.setPeakLoad(has(bitmap, PEAK_LOAD) ? readString(in) : null);
+        message.setPoolSize(has(bitmap, POOL_SIZE) ? (int) readZigZag(in) : null);
+        message.setLargestPoolSize(has(bitmap, LARGEST_POOL_SIZE) ? (int) readZigZag(in) : null);
+        message.setActiveSize(has(bitmap, ACTIVE_SIZE) ? readString(in) : null);
+        message.setQueueCapacity(has(bitmap, QUEUE_CAPACITY) ? (int) readZigZag(in) : null);
+        message.setQueueSize(has(bitmap, QUEUE_SIZE) ? (int) readZigZag(in) : null);
+        message.setQueueRemainingCapacity(has(bitmap, QUEUE_REMAINING_CAPACITY) ? readString(in) : null);
+        message.setCompletedTaskCount(has(bitmap, COMPLETED_TASK_COUNT) ? readZigZag(in) : null);
+        message.setRejectCount(has(bitmap, REJECT_COUNT) ? (int) readZigZag(in) : null);
+        message.setTimestamp(has(bitmap, TIMESTAMP) ? previousTimestamp + readZigZag(in) : null);
+        message.setTaskTimeP50(has(bitmap, TASK_TIME_P50) ? readZigZag(in) : null);
+        message.setTaskTimeP99(has(bitmap, TASK_TIME_P99) ? readZigZag(in) : null);
+        message.setTaskTimeP999(has(bitmap, TASK_TIME_P999) ? readZigZag(in) : null);
+        message.setQueueTimeP50(has(bitmap, QUEUE_TIME_P50) ? readZigZag(in) : null);
+        message.setQueueTimeP99(has(bitmap, QUEUE_TIME_P99) ? readZigZag(in) : null);
+        message.setQueueTimeP999(has(bitmap, QUEUE_TIME_P999) ? readZigZag(in) : null);
+        return message;
+    }
+
+    private static long bit(int index, Object value) {
+        return value == null ? 0L : 1L << index;
+    }
+
+    private static boolean has(long bitmap, int index) {
+        return (bitmap & (1L << index)) != 0L;
+    }
+
+    private static long readVarLong(ByteBuffer in) {
+        long value = 0L;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Malformed varint.");
+    }
+
+    private static long readZigZag(ByteBuffer in) {
+        long value = readVarLong(in);
+        return (value >>> 1) ^ -(value & 1L);
+    }
+
+    private static String readString(ByteBuffer in) {
+        int length = checkLength(readVarLong(in), in.remaining());
+        String value = new String(in.array(), in.arrayOffset() + in.position(), length, StandardCharsets.UTF_8);
+        in.position(in.position() + length);
+        return value;
+    }
+
+    private static int checkLength(long length, int remaining) {
+        if (length < 0L || length > remaining) {
+            throw new IllegalArgumentException("Malformed monitor frame length: " + length);
+        }
+        return (int) length;
+    }
+
+    private static byte[] deflate(byte[] bytes) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(bytes);
+            deflater.finish();
+            Writer out = new Writer(bytes.length / 2 + 16);
+            out.writeVarLong(bytes.length);
+            byte[] buffer = new byte[4096];
+            while (!deflater.finished()) {
+                int length = deflater.deflate(buffer);
+                out.write(buffer, 0, length);
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(byte[] frame, int offset) {
+        ByteBuffer in = ByteBuffer.wrap(frame, offset, frame.length - offset);
+        Inflater inflater = new Inflater();
+        try {
+            long length = readVarLong(in);
+            if (length < 0L || length > MAX_FRAME_LENGTH) {
+                throw new IllegalArgumentException("Malformed monitor frame length: " + length);
+            }
+            inflater.setInput(frame, in.position(), in.remaining());
+            byte[] bytes = new byte[(int) length];
+            int inflated = 0;
+            while (inflated < bytes.length) {
+                int count = inflater.inflate(bytes, inflated, bytes.length - inflated);
+                if (count == 0 && (inflater.finished() || inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                inflated += count;
+            }
+            if (inflated != bytes.length) {
+                throw new IllegalArgumentException("Malformed monitor frame, the compressed body is truncated.");
+            }
+            return bytes;
+        } catch (DataFormatException | BufferUnderflowException ex) {
+            throw new IllegalArgumentException("Malformed monitor frame, failed to inflate the body.", ex);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    /**
+     * Growable byte array with varint support.
+     */
+    private static final class Writer extends ByteArrayOutputStream {
+
+        Writer(int size) {
+            super(size);
+        }
+
+        void writeVarLong(long value) {
+            while ((value & ~0x7FL) != 0L) {
+                write((int) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            write((int) value);
+        }
+
+        void writeOptionalZigZag(Number value) {
+            if (value != null) {
+                long longValue = value.longValue();
+                writeVarLong((longValue << 1) ^ (longValue >> 63));
+            }
+        }
+
+        void writeZigZag(long value) {
+            writeVarLong((value << 1) ^ (value >> 63));
+        }
+
+        void writeOptionalString(String value) {
+            if (value != null) {
+                byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                writeVarLong(bytes.length);
+                write(bytes, 0, bytes.length);
+            }
+        }
+    }
+}
@@ -19,13 +19,12 @@ package cn.hippo4j.common.support;
 
 import cn.hippo4j.common.executor.ThreadPoolExecutorHolder;
 import cn.hippo4j.common.executor.ThreadPoolExecutorRegistry;
+import cn.hippo4j.common.executor.ThreadPoolTaskMetricsRegistry;
+import cn.hippo4j.common.model.PoolMetricsSnapshot;
 import cn.hippo4j.common.model.ThreadPoolRunStateInfo;
-import cn.hippo4j.common.toolkit.CalculateUtil;
-import cn.hippo4j.common.toolkit.ReflectUtil;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
-import java.util.Objects;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.Executor;
 import java.util.concurrent.ThreadPoolExecutor;
@@ -37,6 +36,19 @@ import static cn.hippo4j.common.constant.Constants.NO_REJECT_COUNT_NUM;
  */
 public abstract class AbstractThreadPoolRuntime {
 
+    private static final DateTimeFormatter CLIENT_LAST_REFRESH_TIME_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    /**
+     * Simple names of queue types, {@link Class#getSimpleName} is not cached before JDK 11
+     */
+    private static final ClassValue<String> QUEUE_TYPE_NAMES = new ClassValue<String>() {
+
+        @Override
+        protected String computeValue(Class<?> type) {
+            return type.getSimpleName();
+        }
+    };
+
     /**
      * Supplemental thread pool runtime information.
      *
@@ -65,35 +77,87 @@ public abstract class AbstractThreadPoolRuntime {
      * @return thread-pool run state info
      */
     public ThreadPoolRunStateInfo getPoolRunState(String threadPoolId, Executor executor) {
+        PoolMetricsSnapshot snapshot = getPoolMetricsSnapshot(threadPoolId, executor, new PoolMetricsSnapshot());
+        return supplement(convert(snapshot));
+    }
+
+    /**
+     * Fill the metrics snapshot of thread-pool, without reflection or formatting.
+     *
+     * @param threadPoolId thread-pool id
+     * @param executor     executor
+     * @param snapshot     snapshot to fill, which can be reused across collect cycles
+     * @return the filled snapshot
+     */
+    public PoolMetricsSnapshot getPoolMetricsSnapshot(String threadPoolId, Executor executor, PoolMetricsSnapshot snapshot) {
         ThreadPoolExecutor actualExecutor = (ThreadPoolExecutor) executor;
-        int activeCount = actualExecutor.getActiveCount();
-        int largestPoolSize = actualExecutor.getLargestPoolSize();
         BlockingQueue<Runnable> blockingQueue = actualExecutor.getQueue();
-        long rejectCount = NO_REJECT_COUNT_NUM;
-        if (Objects.equals(actualExecutor.getClass().getName(), "cn.hippo4j.core.executor.DynamicThreadPoolExecutor")) {
-            Object actualRejectCountNum = ReflectUtil.invoke(actualExecutor, "getRejectCountNum");
-            if (actualRejectCountNum != null) {
-                rejectCount = (long) actualRejectCountNum;
+        int queueSize = blockingQueue.size();
+        int queueRemainingCapacity = blockingQueue.remainingCapacity();
+        snapshot.setTpId(threadPoolId);
+        snapshot.setTimestamp(System.currentTimeMillis());
+        snapshot.setCoreSize(actualExecutor.getCorePoolSize());
+        snapshot.setMaximumSize(actualExecutor.getMaximumPoolSize());
+        snapshot.setPoolSize(actualExecutor.getPoolSize());
+        snapshot.setActiveCount(actualExecutor.getActiveCount());
+        snapshot.setLargestPoolSize(actualExecutor.getLargestPoolSize());
+        snapshot.setQueueType(QUEUE_TYPE_NAMES.get(blockingQueue.getClass()));
+        snapshot.setQueueSize(queueSize);
+        snapshot.setQueueRemainingCapacity(queueRemainingCapacity);
+        snapshot.setQueueCapacity(queueSize + queueRemainingCapacity);
+        snapshot.setCompletedTaskCount(actualExecutor.getCompletedTaskCount());
+        snapshot.setRejectCount(NO_REJECT_COUNT_NUM);
+        snapshot.setTaskTimeRecorded(false);
+        snapshot.setQueueTimeRecorded(false);
+        if (actualExecutor instanceof PoolMetricsSupport) {
+            ((PoolMetricsSupport) actualExecutor).supplementMetrics(snapshot);
+        } else if (actualExecutor instanceof TaskLatencyHistogramSupport) {
+            ((TaskLatencyHistogramSupport) actualExecutor).getTaskTimeHistogram().ifPresent(snapshot::setTaskTime);
+            ((TaskLatencyHistogramSupport) actualExecutor).getQueueTimeHistogram().ifPresent(snapshot::setQueueTime);
+        } else {
+            ThreadPoolTaskMetrics taskMetrics = ThreadPoolTaskMetricsRegistry.getMetrics(actualExecutor);
+            if (taskMetrics != null) {
+                taskMetrics.supplementMetrics(snapshot);
             }
         }
+        return snapshot;
+    }
+
+    /**
+     * {@link PoolMetricsSnapshot} to {@link ThreadPoolRunStateInfo}.
+     *
+     * @param snapshot metrics snapshot
+     * @return thread-pool run state info
+     */
+    protected ThreadPoolRunStateInfo convert(PoolMetricsSnapshot snapshot) {
         ThreadPoolRunStateInfo stateInfo = ThreadPoolRunStateInfo.builder()
-                .tpId(threadPoolId)
-                .activeSize(activeCount)
-                .poolSize(actualExecutor.getPoolSize())
-                .completedTaskCount(actualExecutor.getCompletedTaskCount())
-                .largestPoolSize(largestPoolSize)
-                .currentLoad(CalculateUtil.divide(activeCount, actualExecutor.getMaximumPoolSize()) + "")
-                .clientLastRefreshTime(LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")))
-                .peakLoad(CalculateUtil.divide(largestPoolSize, actualExecutor.getMaximumPoolSize()) + "")
-                .queueSize(blockingQueue.size())
-                .queueRemainingCapacity(blockingQueue.remainingCapacity())
-                .rejectCount(rejectCount)
-                .timestamp(System.currentTimeMillis())
+                .tpId(snapshot.getTpId())
+                .activeSize(snapshot.getActiveCount())
+                .poolSize(snapshot.getPoolSize())
+                .completedTaskCount(snapshot.getCompletedTaskCount())
+                .largestPoolSize(snapshot.getLargestPoolSize())
+                .currentLoad(String.valueOf(snapshot.getCurrentLoad()))
+                .clientLastRefreshTime(LocalDateTime.now().format(CLIENT_LAST_REFRESH_TIME_FORMATTER))
+                .peakLoad(String.valueOf(snapshot.getPeakLoad()))
+                .queueSize(snapshot.getQueueSize())
+                .queueRemainingCapacity(snapshot.getQueueRemainingCapacity())
+                .rejectCount(snapshot.getRejectCount())
+                .timestamp(snapshot.getTimestamp())
                 .build();
-        stateInfo.setCoreSize(actualExecutor.getCorePoolSize());
-        stateInfo.setMaximumSize(actualExecutor.getMaximumPoolSize());
-        stateInfo.setQueueType(blockingQueue.getClass().getSimpleName());
-        stateInfo.setQueueCapacity(blockingQueue.size() + blockingQueue.remainingCapacity());
-        return supplement(stateInfo);
+        stateInfo.setCoreSize(snapshot.getCoreSize());
+        stateInfo.setMaximumSize(snapshot.getMaximumSize());
+        stateInfo.setQueueType(snapshot.getQueueType());
+        stateInfo.setQueueCapacity(snapshot.getQueueCapacity());
+        if (snapshot.isTaskTimeRecorded()) {
+            stateInfo.setTaskTimeP50(snapshot.getTaskTimeP50());
+            stateInfo.setTaskTimeP99(snapshot.getTaskTimeP99());
+            stateInfo.setTaskTimeP999(snapshot.getTaskTimeP999());
+        }
+        if (snapshot.isQueueTimeRecorded()) {
+            stateInfo.setQueueTimeP50(snapshot.getQueueTimeP50());
+            stateInfo.setQueueTimeP99(snapshot.getQueueTimeP99());
+            stateInfo.setQueueTimeP999(snapshot.getQueueTimeP999());
+        }
+        return stateInfo;
     }
 }
@@ -0,0 +1,115 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.hippo4j.common.support;
+
+import lombok.Getter;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * <p>A {@link LatencyHistogram} which is reset every time {@link #publishSnapshot} publishes a new snapshot,
+ * so that each collect interval yields its own percentiles. <br />
+ * The monitor tick is the only owner of the interval and calls {@link #publishSnapshot} through {@link LatencyHistogramPublisher},
+ * other readers such as the console and the meter gauges get {@link #getLastSnapshot} and never reset the histogram. <br />
+ * Until the owner publishes for the first time, e.g. when the monitor is disabled,
+ * {@link #getLastSnapshot} publishes the snapshot itself, so that the percentiles do not stay empty without a monitor.
+ * Publications within {@link #minSnapshotIntervalMillis} of the last one are ignored,
+ * which protects the interval from being shortened by an unexpected second tick.
+ */
+public class IntervalLatencyHistogram {
+
+    /**
+     * Histogram of the current interval
+     */
+    private final LatencyHistogram histogram;
+
+    /**
+     * Min interval between two snapshots
+     */
+    @Getter
+    private final long minSnapshotIntervalMillis;
+
+    /**
+     * Nano time of the last publication
+     */
+    private final AtomicLong lastSnapshotTime;
+
+    /**
+     * The last published snapshot
+     */
+    private volatile LatencyHistogram.Snapshot lastSnapshot;
+
+    /**
+     * Whether the owner of the interval has published a snapshot
+     */
+    private volatile boolean ownerPublished;
+
+    /**
+     * Create a {@link IntervalLatencyHistogram}.
+     *
+     * @param stripeCount               count of histogram stripes
+     * @param minSnapshotIntervalMillis min interval between two snapshots
+     */
+    public IntervalLatencyHistogram(int stripeCount, long minSnapshotIntervalMillis) {
+        this.histogram = new LatencyHistogram(stripeCount);
+        this.minSnapshotIntervalMillis = minSnapshotIntervalMillis;
+        this.lastSnapshot = histogram.snapshot();
+        this.lastSnapshotTime = new AtomicLong(System.nanoTime());
+    }
+
+    /**
+     * Record a value into the histogram of the current interval.
+     *
+     * @param value value
+     */
+    public void record(long value) {
+        histogram.record(value);
+    }
+
+    /**
+     * Get the last published snapshot, only publishing a new one when the owner of the interval has never published.
+     *
+     * @return the last published snapshot
+     */
+    public LatencyHistogram.Snapshot getLastSnapshot() {
+        return ownerPublished ? lastSnapshot : doPublishSnapshot();
+    }
+
+    /**
+     * Publish the snapshot of the interval since the last publication and reset the histogram,
+     * if at least {@link #minSnapshotIntervalMillis} has passed since the last publication.
+     * Should only be called by the owner of the collect interval, see {@link LatencyHistogramPublisher}.
+     *
+     * @return the last published snapshot
+     */
+    public LatencyHistogram.Snapshot publishSnapshot() {
+        ownerPublished = true;
+        return doPublishSnapshot();
+    }
+
+    private LatencyHistogram.Snapshot doPublishSnapshot() {
+        long now = System.nanoTime();
+        long last = lastSnapshotTime.get();
+        if (now - last >= TimeUnit.MILLISECONDS.toNanos(minSnapshotIntervalMillis)
+                && lastSnapshotTime.compareAndSet(last, now)) {
+            lastSnapshot = histogram.snapshotAndReset();
+        }
+        return lastSnapshot;
+    }
+}
@@ -0,0 +1,320 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.hippo4j.common.support;
+
+import cn.hippo4j.common.toolkit.Assert;
+import lombok.Getter;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * <p>Lock-free, fixed-memory and log-bucketed histogram for recording latencies. <br />
+ * Values less than {@link #SUB_BUCKET_COUNT} are recorded exactly,
+ * larger values are recorded into one of {@link #SUB_BUCKET_COUNT} linear sub-buckets of their power of two,
+ * so the relative error of a recorded value is less than {@code 1 / SUB_BUCKET_COUNT}.
+ * Values greater than {@link #MAX_TRACKABLE_VALUE} are recorded into the last bucket.
+ *
+ * <p>The buckets are striped by the id of the recording thread to reduce the competition of worker threads,
+ * and {@link #snapshotAndReset} can be used to obtain the data of each collect interval.
+ * Recording a value never takes a lock and never allocates any object.
+ */
+public class LatencyHistogram {
+
+    /**
+     * Bits of sub-bucket index
+     */
+    private static final int SUB_BUCKET_BITS = 4;
+
+    /**
+     * Count of sub-buckets in each power of two
+     */
+    public static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+
+    /**
+     * Max exponent of trackable value, about 2.4 hours in nanoseconds
+     */
+    private static final int MAX_EXPONENT = 42;
+
+    /**
+     * Max trackable value
+     */
+    public static final long MAX_TRACKABLE_VALUE = (1L << (MAX_EXPONENT + 1)) - 1;
+
+    /**
+     * Count of buckets
+     */
+    public static final int BUCKET_COUNT = (MAX_EXPONENT - SUB_BUCKET_BITS + 2) * SUB_BUCKET_COUNT;
+
+    /**
+     * Default count of stripes
+     */
+    private static final int DEFAULT_STRIPE_COUNT = 4;
+
+    /**
+     * Modulo of stripes
+     */
+    private final int modulo;
+
+    /**
+     * Stripes
+     */
+    private final Stripe[] stripes;
+
+    /**
+     * Create a {@link LatencyHistogram}.
+     *
+     * @param stripeCount count of stripes, it will be rounded up to a power of two
+     */
+    public LatencyHistogram(int stripeCount) {
+        Assert.isTrue(stripeCount >= 1, "stripe count must great then 0");
+        int size = stripeCount == 1 ? 1 : Integer.highestOneBit(stripeCount - 1) << 1;
+        stripes = new Stripe[size];
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new Stripe();
+        }
+        modulo = size - 1;
+    }
+
+    /**
+     * Create a {@link LatencyHistogram}.
+     */
+    public LatencyHistogram() {
+        this(DEFAULT_STRIPE_COUNT);
+    }
+
+    /**
+     * Record a value, negative values are recorded as zero.
+     *
+     * @param value value
+     */
+    public void record(long value) {
+        value = Math.max(value, 0L);
+        Stripe stripe = stripes[(int) (Thread.currentThread().getId() & modulo)];
+        stripe.buckets.incrementAndGet(bucketIndex(value));
+        stripe.total.add(value);
+        stripe.max.accumulate(value);
+    }
+
+    /**
+     * Get the snapshot of all values recorded since the last reset.
+     *
+     * @return snapshot
+     */
+    public Snapshot snapshot() {
+        return collect(false);
+    }
+
+    /**
+     * Get the snapshot of all values recorded since the last reset, then reset the histogram.
+     * Values recorded concurrently are counted into either this or the next snapshot, and will never be lost.
+     *
+     * @return snapshot
+     */
+    public Snapshot snapshotAndReset() {
+        return collect(true);
+    }
+
+    private Snapshot collect(boolean reset) {
+        long[] counts = new long[BUCKET_COUNT];
+        long total = 0L;
+        long max = 0L;
+        for (Stripe stripe : stripes) {
+            for (int i = 0; i < BUCKET_COUNT; i++) {
+                counts[i] += reset ? stripe.buckets.getAndSet(i, 0L) : stripe.buckets.get(i);
+            }
+            total += reset ? stripe.total.sumThenReset() : stripe.total.sum();
+            max = Math.max(max, reset ? stripe.max.getThenReset() : stripe.max.get());
+        }
+        return new Snapshot(counts, total, max);
+    }
+
+    /**
+     * Get the bucket index of value.
+     *
+     * @param value non-negative value
+     * @return bucket index
+     */
+    static int bucketIndex(long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+        if (value > MAX_TRACKABLE_VALUE) {
+            return BUCKET_COUNT - 1;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKET_COUNT - 1);
+        return ((exponent - SUB_BUCKET_BITS + 1) << SUB_BUCKET_BITS) + subBucket;
+    }
+
+    /**
+     * Get the highest value that will be recorded into the bucket.
+     *
+     * @param index bucket index
+     * @return highest value of bucket
+     */
+    static long highestValueOfBucket(int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+        int exponent = (index >>> SUB_BUCKET_BITS) + SUB_BUCKET_BITS - 1;
+        int subBucket = index & (SUB_BUCKET_COUNT - 1);
+        int shift = exponent - SUB_BUCKET_BITS;
+        return ((long) (SUB_BUCKET_COUNT + subBucket + 1) << shift) - 1;
+    }
+
+    /**
+     * Independent recording unit of histogram.
+     */
+    private static class Stripe {
+
+        /**
+         * Counts of buckets
+         */
+        private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+
+        /**
+         * Total of recorded values
+         */
+        private final LongAdder total = new LongAdder();
+
+        /**
+         * Max of recorded values
+         */
+        private final LongAccumulator max = new LongAccumulator(Math::max, 0L);
+    }
+
+    /**
+     * Immutable snapshot of {@link LatencyHistogram}.
+     */
+    public static class Snapshot {
+
+        /**
+         * Counts of buckets
+         */
+        private final long[] counts;
+
+        /**
+         * Count of recorded values
+         */
+        @Getter
+        private final long count;
+
+        /**
+         * Total of recorded values
+         */
+        @Getter
+        private final long total;
+
+        /**
+         * Max of recorded values
+         */
+        @Getter
+        private final long max;
+
+        private Snapshot(long[] counts, long total, long max) {
+            long count = 0L;
+            for (long each : counts) {
+                count += each;
+            }
+            this.counts = counts;
+            this.count = count;
+            this.total = total;
+            this.max = max;
+        }
+
+        /**
+         * Get the mean of recorded values.
+         *
+         * @return mean, 0 if no value has been recorded
+         */
+        public long getMean() {
+            return count > 0L ? total / count : 0L;
+        }
+
+        /**
+         * Get the value at the given percentile.
+         *
+         * @param percentile percentile, between 0 and 100
+         * @return value at percentile, 0 if no value has been recorded
+         */
+        public long getValueAtPercentile(double percentile) {
+            if (count == 0L) {
+                return 0L;
+            }
+            double ratio = Math.min(Math.max(percentile, 0D), 100D) / 100D;
+            long rank = Math.max(1L, (long) Math.ceil(ratio * count));
+            long accumulated = 0L;
+            for (int i = 0; i < counts.length; i++) {
+                accumulated += counts[i];
+                if (accumulated >= rank) {
+                    return Math.min(highestValueOfBucket(i), max);
+                }
+            }
+            return max;
+        }
+
+        /**
+         * Get the count of values recorded into the bucket.
+         *
+         * @param index bucket index
+         * @return count of bucket
+         */
+        public long getCountOfBucket(int index) {
+            return counts[index];
+        }
+
+        /**
+         * Get the highest value that will be recorded into the bucket.
+         *
+         * @param index bucket index
+         * @return highest value of bucket
+         */
+        public long getHighestValueOfBucket(int index) {
+            return highestValueOfBucket(index);
+        }
+
+        /**
+         * Get the 50th percentile.
+         *
+         * @return p50
+         */
+        public long getP50() {
+            return getValueAtPercentile(50D);
+        }
+
+        /**
+         * Get the 99th percentile.
+         *
+         * @return p99
+         */
+        public long getP99() {
+            return getValueAtPercentile(99D);
+        }
+
+        /**
+         * Get the 99.9th percentile.
+         *
+         * @return p999
+         */
+        public long getP999() {
+            return getValueAtPercentile(99.9D);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.hippo4j.common.support;
+
+import cn.hippo4j.common.executor.ThreadPoolExecutorHolder;
+import cn.hippo4j.common.executor.ThreadPoolExecutorRegistry;
+import cn.hippo4j.common.executor.ThreadPoolTaskMetricsRegistry;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.Executor;
+
+/**
+ * <p>Publish the latency histograms of all registered thread-pools, which closes the current collect interval. <br />
+ * The monitor tick is the only owner of the interval and calls {@link #publish} once per cycle before collecting,
+ * so that the console, the monitors and the meter gauges all read the same published snapshot,
+ * instead of consuming the interval of each other.
+ *
+ * @see IntervalLatencyHistogram
+ */
+@Slf4j
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public class LatencyHistogramPublisher {
+
+    /**
+     * Publish the latency histograms of dynamic thread-pools and the executors observed by the agent.
+     */
+    public static void publish() {
+        for (ThreadPoolExecutorHolder each : ThreadPoolExecutorRegistry.getHolderMap().values()) {
+            Executor executor = each.getExecutor();
+            if (executor instanceof TaskLatencyHistogramSupport) {
+                publish(each.getThreadPoolId(), (TaskLatencyHistogramSupport) executor);
+            }
+        }
+        for (ThreadPoolTaskMetrics each : ThreadPoolTaskMetricsRegistry.listMetrics()) {
+            publish(each.getThreadPoolId(), each);
+        }
+    }
+
+    private static void publish(String threadPoolId, TaskLatencyHistogramSupport histogramSupport) {
+        try {
+            histogramSupport.publishLatencyHistograms();
+        } catch (Exception ex) {
+            log.error("Failed to publish latency histograms of thread-pool. key: [{}]", threadPoolId, ex);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.hippo4j.common.support;
+
+import cn.hippo4j.common.model.PoolMetricsSnapshot;
+
+/**
+ * Executor that is able to supplement the metrics recorded by its plugins into a {@link PoolMetricsSnapshot},
+ * used by {@link AbstractThreadPoolRuntime} instead of reflection.
+ */
+public interface PoolMetricsSupport {
+
+    /**
+     * Get the count of rejected tasks.
+     *
+     * @return count of rejected tasks, {@link cn.hippo4j.common.constant.Constants#NO_REJECT_COUNT_NUM} if not recorded
+     */
+    long getRejectedTaskCount();
+
+    /**
+     * Supplement the metrics recorded by plugins, such as reject count and latency percentiles.
+     *
+     * @param snapshot snapshot to fill
+     */
+    void supplementMetrics(PoolMetricsSnapshot snapshot);
+}
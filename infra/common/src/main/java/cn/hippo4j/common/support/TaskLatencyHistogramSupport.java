@@ -0,0 +1,54 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.hippo4j.common.support;
+
+import java.util.Optional;
+
+/**
+ * Executor that is able to provide the latency histogram of its tasks,
+ * used by {@link AbstractThreadPoolRuntime} to supplement the percentiles of run state.
+ */
+public interface TaskLatencyHistogramSupport {
+
+    /**
+     * Get the last published histogram snapshot of task execution time in nanoseconds,
+     * the snapshot only contains the tasks completed in the last collect interval.
+     * Reading the snapshot never resets the histogram once the monitor tick has published one.
+     *
+     * @return histogram snapshot, empty if task execution time is not recorded
+     */
+    Optional<LatencyHistogram.Snapshot> getTaskTimeHistogram();
+
+    /**
+     * Get the last published histogram snapshot of the time tasks waited in the queue in nanoseconds,
+     * the snapshot only contains the tasks started in the last collect interval.
+     * Reading the snapshot never resets the histogram once the monitor tick has published one.
+     *
+     * @return histogram snapshot, empty if task queue time is not recorded
+     */
+    default Optional<LatencyHistogram.Snapshot> getQueueTimeHistogram() {
+        return Optional.empty();
+    }
+
+    /**
+     * Publish the histogram snapshots of the interval since the last publication and reset the histograms.
+     * Only called by {@link LatencyHistogramPublisher} on the monitor tick.
+     */
+    default void publishLatencyHistograms() {
+    }
+}
@@ -0,0 +1,294 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.hippo4j.common.support;
+
+import cn.hippo4j.common.model.PoolMetricsSnapshot;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * <p>Task metrics of a {@link ThreadPoolExecutor} which is not a dynamic thread-pool, such as the executors owned by libraries,
+ * recorded by hooks around {@code execute}, {@code beforeExecute}, {@code afterExecute} and {@code reject} of the executor.
+ *
+ * <p>Counters are recorded for every task, while only one of every {@link #sampleInterval} tasks on average
+ * is timed into the latency histograms, so that the overhead of each task stays small. <br />
+ * The execution time is stamped on the worker thread, since a worker runs one task at a time.
+ * The queue time of a sampled task is stamped in {@code execute} into a slot indexed by the identity of the task,
+ * a newer sampled task takes over the slot of an older one, so the slots bound the memory without stopping the sampling.
+ * Tasks which never run, such as the tasks drained by {@code shutdownNow}, are released after {@link #PENDING_TASK_EXPIRE_NANOS}.
+ */
+public class ThreadPoolTaskMetrics implements PoolMetricsSupport, TaskLatencyHistogramSupport {
+
+    /**
+     * Default min interval between two snapshots
+     */
+    private static final long DEFAULT_MIN_SNAPSHOT_INTERVAL_MILLIS = 1000L;
+
+    /**
+     * Default count of histogram stripes, limited to bound the memory of each thread-pool
+     */
+    private static final int DEFAULT_STRIPE_COUNT = Math.min(Runtime.getRuntime().availableProcessors(), 8);
+
+    /**
+     * Count of slots of sampled tasks waiting in the queue, must be a power of 2
+     */
+    private static final int PENDING_TASK_SLOTS = 1024;
+
+    /**
+     * Sampled tasks waiting longer than it are released when the histograms are published
+     */
+    private static final long PENDING_TASK_EXPIRE_NANOS = TimeUnit.MINUTES.toNanos(10L);
+
+    /**
+     * Start nano time of the sampled task running on the current worker thread, 0 if the task is not sampled
+     */
+    private static final ThreadLocal<long[]> TASK_START_TIME = ThreadLocal.withInitial(() -> new long[1]);
+
+    /**
+     * Thread-pool id
+     */
+    @Getter
+    private final String threadPoolId;
+
+    /**
+     * One of every sample interval tasks is timed, 1 means every task is timed
+     */
+    @Getter
+    private final int sampleInterval;
+
+    /**
+     * Count of rejected tasks
+     */
+    private final LongAdder rejectCount = new LongAdder();
+
+    /**
+     * Count of tasks which throw an exception out of the executor
+     */
+    private final LongAdder failedCount = new LongAdder();
+
+    /**
+     * Histogram of sampled task execution time
+     */
+    private final IntervalLatencyHistogram taskTimeHistogram;
+
+    /**
+     * Histogram of sampled task queue time
+     */
+    private final IntervalLatencyHistogram queueTimeHistogram;
+
+    /**
+     * Sampled tasks waiting in the queue, indexed by the identity hash code of the task
+     */
+    private final AtomicReferenceArray<PendingTask> pendingTasks = new AtomicReferenceArray<>(PENDING_TASK_SLOTS);
+
+    /**
+     * Count of occupied slots of {@link #pendingTasks}, the lookup of a task is skipped if it's 0
+     */
+    private final AtomicInteger pendingTaskCount = new AtomicInteger();
+
+    /**
+     * Create a {@link ThreadPoolTaskMetrics}.
+     *
+     * @param threadPoolId              thread-pool id
+     * @param sampleInterval            one of every sample interval tasks is timed
+     * @param minSnapshotIntervalMillis min interval between two histogram snapshots
+     */
+    public ThreadPoolTaskMetrics(String threadPoolId, int sampleInterval, long minSnapshotIntervalMillis) {
+        this.threadPoolId = threadPoolId;
+        this.sampleInterval = Math.max(1, sampleInterval);
+        this.taskTimeHistogram = new IntervalLatencyHistogram(DEFAULT_STRIPE_COUNT, minSnapshotIntervalMillis);
+        this.queueTimeHistogram = new IntervalLatencyHistogram(DEFAULT_STRIPE_COUNT, minSnapshotIntervalMillis);
+    }
+
+    /**
+     * Create a {@link ThreadPoolTaskMetrics}.
+     *
+     * @param threadPoolId   thread-pool id
+     * @param sampleInterval one of every sample interval tasks is timed
+     */
+    public ThreadPoolTaskMetrics(String threadPoolId, int sampleInterval) {
+        this(threadPoolId, sampleInterval, DEFAULT_MIN_SNAPSHOT_INTERVAL_MILLIS);
+    }
+
+    /**
+     * Called when a task is submitted by {@code execute}, stamp the enqueue time if the task is sampled.
+     *
+     * @param task task
+     */
+    public void onExecute(Runnable task) {
+        if (task == null || !sample()) {
+            return;
+        }
+        PendingTask previous = pendingTasks.getAndSet(slot(task), new PendingTask(task, System.nanoTime()));
+        if (previous == null) {
+            pendingTaskCount.incrementAndGet();
+        }
+    }
+
+    /**
+     * Called by the worker thread before running a task,
+     * record the queue time if the task is sampled, and stamp the start time if the execution is sampled.
+     *
+     * @param task task
+     */
+    public void beforeExecute(Runnable task) {
+        long now = 0L;
+        PendingTask pendingTask = removePendingTask(task);
+        if (pendingTask != null) {
+            now = System.nanoTime();
+            queueTimeHistogram.record(Math.max(0L, now - pendingTask.enqueueTime));
+        }
+        if (sample()) {
+            TASK_START_TIME.get()[0] = now == 0L ? System.nanoTime() : now;
+        }
+    }
+
+    /**
+     * Called by the worker thread after running a task, record the execution time if it's sampled.
+     *
+     * @param throwable exception thrown out of the task, or null
+     */
+    public void afterExecute(Throwable throwable) {
+        if (throwable != null) {
+            failedCount.increment();
+        }
+        long[] startTime = TASK_START_TIME.get();
+        if (startTime[0] != 0L) {
+            taskTimeHistogram.record(Math.max(0L, System.nanoTime() - startTime[0]));
+            startTime[0] = 0L;
+        }
+    }
+
+    /**
+     * Called when a task is rejected.
+     *
+     * @param task task
+     */
+    public void onReject(Runnable task) {
+        rejectCount.increment();
+        removePendingTask(task);
+    }
+
+    /**
+     * Get the count of tasks which throw an exception out of the executor.
+     *
+     * @return count of failed tasks
+     */
+    public long getFailedTaskCount() {
+        return failedCount.sum();
+    }
+
+    @Override
+    public long getRejectedTaskCount() {
+        return rejectCount.sum();
+    }
+
+    @Override
+    public void supplementMetrics(PoolMetricsSnapshot snapshot) {
+        snapshot.setRejectCount(getRejectedTaskCount());
+        snapshot.setTaskTime(taskTimeHistogram.getLastSnapshot());
+        snapshot.setQueueTime(queueTimeHistogram.getLastSnapshot());
+    }
+
+    @Override
+    public Optional<LatencyHistogram.Snapshot> getTaskTimeHistogram() {
+        return Optional.of(taskTimeHistogram.getLastSnapshot());
+    }
+
+    @Override
+    public Optional<LatencyHistogram.Snapshot> getQueueTimeHistogram() {
+        return Optional.of(queueTimeHistogram.getLastSnapshot());
+    }
+
+    @Override
+    public void publishLatencyHistograms() {
+        taskTimeHistogram.publishSnapshot();
+        queueTimeHistogram.publishSnapshot();
+        expirePendingTasks(System.nanoTime());
+    }
+
+    /**
+     * Release the sampled tasks which have been waiting longer than {@link #PENDING_TASK_EXPIRE_NANOS}.
+     *
+     * @param now current nano time
+     */
+    void expirePendingTasks(long now) {
+        for (int i = 0; i < PENDING_TASK_SLOTS && pendingTaskCount.get() != 0; i++) {
+            PendingTask pendingTask = pendingTasks.get(i);
+            if (pendingTask != null && now - pendingTask.enqueueTime > PENDING_TASK_EXPIRE_NANOS
+                    && pendingTasks.compareAndSet(i, pendingTask, null)) {
+                pendingTaskCount.decrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Get the count of sampled tasks waiting in the queue.
+     *
+     * @return count of pending tasks
+     */
+    int getPendingTaskCount() {
+        return pendingTaskCount.get();
+    }
+
+    private PendingTask removePendingTask(Runnable task) {
+        if (task == null || pendingTaskCount.get() == 0) {
+            return null;
+        }
+        int slot = slot(task);
+        PendingTask pendingTask = pendingTasks.get(slot);
+        if (pendingTask == null || pendingTask.task != task || !pendingTasks.compareAndSet(slot, pendingTask, null)) {
+            return null;
+        }
+        pendingTaskCount.decrementAndGet();
+        return pendingTask;
+    }
+
+    private static int slot(Runnable task) {
+        return System.identityHashCode(task) & (PENDING_TASK_SLOTS - 1);
+    }
+
+    private boolean sample() {
+        return sampleInterval == 1 || ThreadLocalRandom.current().nextInt(sampleInterval) == 0;
+    }
+
+    /**
+     * Sampled task waiting in the queue.
+     */
+    @RequiredArgsConstructor
+    private static class PendingTask {
+
+        /**
+         * Task, compared by identity
+         */
+        private final Runnable task;
+
+        /**
+         * Enqueue nano time
+         */
+        private final long enqueueTime;
+    }
+}
@@ -25,6 +25,6 @@ public class CalculateUtil {
     private static final int PERCENTAGE = 100;
 
     public static int divide(int num1, int num2) {
-        return ((int) (Double.parseDouble(num1 + "") / Double.parseDouble(num2 + "") * PERCENTAGE));
+        return (int) ((double) num1 / num2 * PERCENTAGE);
     }
 }
@@ -0,0 +1,117 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.hippo4j.common.toolkit;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToLongFunction;
+
+/**
+ * Downsample util.
+ */
+public class DownsampleUtil {
+
+    /**
+     * <p>Downsample the points with the Largest-Triangle-Three-Buckets algorithm,
+     * which keeps the visual shape of a chart, including its peaks and valleys. <br />
+     * The first and last points are always kept, each bucket between them contributes the point forming
+     * the largest triangle with the previously selected point and the average of the next bucket.
+     * Multiple y values are supported, the triangle areas of each y are normalized by its range and summed up.
+     *
+     * @param points    points ordered by x
+     * @param threshold max count of points to return
+     * @param x         x of point
+     * @param ys        y values of point
+     * @param <T>       type of point
+     * @return points not exceeding the threshold, in the original order
+     */
+    public static <T> List<T> largestTriangleThreeBuckets(List<T> points, int threshold, ToLongFunction<T> x, List<ToDoubleFunction<T>> ys) {
+        int size = points.size();
+        if (threshold <= 0 || size <= threshold) {
+            return points;
+        }
+        List<T> sampled = new ArrayList<>(threshold);
+        if (threshold < 3) {
+            sampled.add(points.get(0));
+            if (threshold == 2) {
+                sampled.add(points.get(size - 1));
+            }
+            return sampled;
+        }
+        long origin = x.applyAsLong(points.get(0));
+        double[] xs = new double[size];
+        double[][] values = new double[ys.size()][size];
+        double[] ranges = new double[ys.size()];
+        for (int i = 0; i < size; i++) {
+            xs[i] = x.applyAsLong(points.get(i)) - origin;
+        }
+        for (int k = 0; k < ys.size(); k++) {
+            double min = Double.MAX_VALUE;
+            double max = -Double.MAX_VALUE;
+            for (int i = 0; i < size; i++) {
+                values[k][i] = ys.get(k).applyAsDouble(points.get(i));
+                min = Math.min(min, values[k][i]);
+                max = Math.max(max, values[k][i]);
+            }
+            ranges[k] = max - min;
+        }
+        double every = (double) (size - 2) / (threshold - 2);
+        int selected = 0;
+        sampled.add(points.get(0));
+        for (int i = 0; i < threshold - 2; i++) {
+            int averageStart = (int) Math.floor((i + 1) * every) + 1;
+            int averageEnd = Math.min((int) Math.floor((i + 2) * every) + 1, size);
+            double averageX = 0D;
+            double[] averageY = new double[ys.size()];
+            for (int j = averageStart; j < averageEnd; j++) {
+                averageX += xs[j];
+                for (int k = 0; k < ys.size(); k++) {
+                    averageY[k] += values[k][j];
+                }
+            }
+            int averageLength = averageEnd - averageStart;
+            averageX /= averageLength;
+            for (int k = 0; k < ys.size(); k++) {
+                averageY[k] /= averageLength;
+            }
+            int rangeStart = (int) Math.floor(i * every) + 1;
+            int rangeEnd = (int) Math.floor((i + 1) * every) + 1;
+            double maxArea = -1D;
+            int next = rangeStart;
+            for (int j = rangeStart; j < rangeEnd; j++) {
+                double area = 0D;
+                for (int k = 0; k < ys.size(); k++) {
+                    if (ranges[k] == 0D) {
+                        continue;
+                    }
+                    area += Math.abs((xs[selected] - averageX) * (values[k][j] - values[k][selected])
+                            - (xs[selected] - xs[j]) * (averageY[k] - values[k][selected])) / ranges[k];
+                }
+                if (area > maxArea) {
+                    maxArea = area;
+                    next = j;
+                }
+            }
+            sampled.add(points.get(next));
+            selected = next;
+        }
+        sampled.add(points.get(size - 1));
+        return sampled;
+    }
+}
@@ -20,6 +20,7 @@ package cn.hippo4j.common.toolkit;
 import cn.hippo4j.common.api.JsonFacade;
 import com.fasterxml.jackson.core.type.TypeReference;
 
+import java.io.OutputStream;
 import java.util.Collections;
 import java.util.List;
 
@@ -37,6 +38,13 @@ public class JSONUtil {
         return JSON_FACADE.toJSONString(object);
     }
 
+    public static void writeJSON(Object object, OutputStream outputStream) {
+        if (object == null) {
+            return;
+        }
+        JSON_FACADE.writeJSON(object, outputStream);
+    }
+
     public static <T> T parseObject(String text, Class<T> clazz) {
         if (StringUtil.isBlank(text)) {
             return null;
@@ -25,10 +25,12 @@ import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.JavaType;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.databind.type.CollectionType;
 import lombok.SneakyThrows;
 
+import java.io.OutputStream;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.List;
@@ -40,6 +42,8 @@ public class JacksonHandler implements JsonFacade {
 
     private static ObjectMapper MAPPER = new ObjectMapper();
 
+    private static ObjectWriter STREAM_WRITER;
+
     static {
         MAPPER.enable(JsonGenerator.Feature.IGNORE_UNKNOWN);
         String dateTimeFormat = "yyyy-MM-dd HH:mm:ss";
@@ -48,6 +52,7 @@ public class JacksonHandler implements JsonFacade {
         MAPPER.setSerializationInclusion(JsonInclude.Include.NON_NULL);
         MAPPER.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
         MAPPER.disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        STREAM_WRITER = MAPPER.writer().without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
     }
 
     @Override
@@ -56,6 +61,12 @@ public class JacksonHandler implements JsonFacade {
         return MAPPER.writeValueAsString(object);
     }
 
+    @Override
+    @SneakyThrows
+    public void writeJSON(Object object, OutputStream outputStream) {
+        STREAM_WRITER.writeValue(outputStream, object);
+    }
+
     @Override
     @SneakyThrows
     public <T> T parseObject(String text, Class<T> clazz) {
@@ -0,0 +1,146 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.hippo4j.common.toolkit;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * <p>Virtual thread util. <br />
+ * Virtual threads are only available since JDK 21, the API is accessed by reflection
+ * so that the project can still be compiled and run on JDK 8.
+ */
+@Slf4j
+public class VirtualThreadUtil {
+
+    /**
+     * {@code Thread.ofVirtual()}
+     */
+    private static final Method OF_VIRTUAL;
+
+    /**
+     * {@code Thread.Builder#name(String, long)}
+     */
+    private static final Method BUILDER_NAME;
+
+    /**
+     * {@code Thread.Builder#factory()}
+     */
+    private static final Method BUILDER_FACTORY;
+
+    /**
+     * {@code Thread#isVirtual()}
+     */
+    private static final Method IS_VIRTUAL;
+
+    /**
+     * Whether virtual threads are supported by the current runtime
+     */
+    private static final boolean SUPPORTED;
+
+    static {
+        Method ofVirtual = null;
+        Method builderName = null;
+        Method builderFactory = null;
+        Method isVirtual = null;
+        boolean supported = false;
+        try {
+            ofVirtual = Thread.class.getMethod("ofVirtual");
+            Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            builderName = builderClass.getMethod("name", String.class, long.class);
+            builderFactory = builderClass.getMethod("factory");
+            isVirtual = Thread.class.getMethod("isVirtual");
+            // virtual threads are a preview feature before JDK 21, which throws an exception if not enabled
+            ofVirtual.invoke(null);
+            supported = true;
+        } catch (ReflectiveOperationException | LinkageError ignored) {
+            // virtual threads are not supported by the current runtime
+        }
+        OF_VIRTUAL = ofVirtual;
+        BUILDER_NAME = builderName;
+        BUILDER_FACTORY = builderFactory;
+        IS_VIRTUAL = isVirtual;
+        SUPPORTED = supported;
+    }
+
+    /**
+     * Whether virtual threads are supported by the current runtime.
+     *
+     * @return true if virtual threads are supported
+     */
+    public static boolean isSupported() {
+        return SUPPORTED;
+    }
+
+    /**
+     * Whether the thread is a virtual thread.
+     *
+     * @param thread thread
+     * @return true if the thread is a virtual thread
+     */
+    public static boolean isVirtual(Thread thread) {
+        if (!SUPPORTED) {
+            return false;
+        }
+        try {
+            return (Boolean) IS_VIRTUAL.invoke(thread);
+        } catch (IllegalAccessException | InvocationTargetException ex) {
+            return false;
+        }
+    }
+
+    /**
+     * Create a factory of virtual threads, the threads are named as {@code threadNamePrefix} followed by a counter.
+     *
+     * @param threadNamePrefix thread name prefix
+     * @return factory of virtual threads
+     * @throws UnsupportedOperationException if virtual threads are not supported by the current runtime
+     */
+    public static ThreadFactory newThreadFactory(String threadNamePrefix) {
+        Assert.notNull(threadNamePrefix, "The thread name prefix cannot be null.");
+        if (!SUPPORTED) {
+            throw new UnsupportedOperationException("Virtual threads are not supported by the current runtime, JDK 21 or later is required.");
+        }
+        try {
+            Object builder = OF_VIRTUAL.invoke(null);
+            builder = BUILDER_NAME.invoke(builder, threadNamePrefix, 0L);
+            return (ThreadFactory) BUILDER_FACTORY.invoke(builder);
+        } catch (IllegalAccessException | InvocationTargetException ex) {
+            throw new IllegalStateException("Failed to create the factory of virtual threads.", ex);
+        }
+    }
+
+    /**
+     * Create a factory of virtual threads if they are supported by the current runtime,
+     * otherwise return the fallback factory.
+     *
+     * @param threadNamePrefix thread name prefix
+     * @param fallback         factory used when virtual threads are not supported
+     * @return factory of virtual threads, or the fallback factory
+     */
+    public static ThreadFactory newThreadFactoryOrElse(String threadNamePrefix, ThreadFactory fallback) {
+        if (SUPPORTED) {
+            return newThreadFactory(threadNamePrefix);
+        }
+        log.warn("Virtual threads are not supported by the current runtime, platform threads are used for [{}].", threadNamePrefix);
+        return fallback;
+    }
+}
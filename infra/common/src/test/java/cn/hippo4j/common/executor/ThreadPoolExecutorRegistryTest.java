@@ -0,0 +1,86 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.hippo4j.common.executor;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+public class ThreadPoolExecutorRegistryTest {
+
+    @Test
+    public void assertListenerNotified() {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>());
+        ThreadPoolExecutorRegistry.putHolder("registry-test-registered", executor, null);
+        List<String> events = new ArrayList<>();
+        ThreadPoolExecutorRegistryListener listener = new ThreadPoolExecutorRegistryListener() {
+
+            @Override
+            public void onRegister(ThreadPoolExecutorHolder executorHolder) {
+                events.add("register:" + executorHolder.getThreadPoolId());
+            }
+
+            @Override
+            public void onRemove(ThreadPoolExecutorHolder executorHolder) {
+                events.add("remove:" + executorHolder.getThreadPoolId());
+            }
+        };
+        try {
+            ThreadPoolExecutorRegistry.addListener(listener);
+            Assert.assertTrue(events.contains("register:registry-test-registered"));
+
+            events.clear();
+            ThreadPoolExecutorRegistry.putHolder("registry-test", executor, null);
+            Assert.assertEquals("register:registry-test", events.get(0));
+
+            // only the registered executor is allowed to remove the holder
+            Assert.assertFalse(ThreadPoolExecutorRegistry.removeHolder("registry-test",
+                    new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>())));
+            Assert.assertTrue(ThreadPoolExecutorRegistry.removeHolder("registry-test", executor));
+            Assert.assertEquals("remove:registry-test", events.get(1));
+            Assert.assertTrue(ThreadPoolExecutorRegistry.getHolder("registry-test").isEmpty());
+        } finally {
+            ThreadPoolExecutorRegistry.removeListener(listener);
+            ThreadPoolExecutorRegistry.removeHolder("registry-test-registered", executor);
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void assertReferencedClassCollected() throws InterruptedException {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>());
+        ThreadPoolExecutorRegistry.putReferencedClass(executor, ThreadPoolExecutorRegistryTest.class);
+        Assert.assertEquals(ThreadPoolExecutorRegistryTest.class, ThreadPoolExecutorRegistry.getReferencedClassMap().get(executor));
+
+        // the discarded executor is not retained by the registry
+        WeakReference<ThreadPoolExecutor> reference = new WeakReference<>(executor);
+        executor = null;
+        for (int i = 0; i < 50 && reference.get() != null; i++) {
+            System.gc();
+            Thread.sleep(10L);
+        }
+        Assert.assertNull(reference.get());
+        Assert.assertFalse(ThreadPoolExecutorRegistry.getReferencedClassMap().containsValue(ThreadPoolExecutorRegistryTest.class));
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.hippo4j.common.executor;
+
+import cn.hippo4j.common.support.ThreadPoolTaskMetrics;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+public class ThreadPoolTaskMetricsRegistryTest {
+
+    @Test
+    public void assertRegister() {
+        ThreadPoolExecutor first = newExecutor();
+        ThreadPoolExecutor second = newExecutor();
+        ThreadPoolExecutor dynamic = newExecutor();
+        List<String> events = new ArrayList<>();
+        ThreadPoolExecutorRegistryListener listener = new ThreadPoolExecutorRegistryListener() {
+
+            @Override
+            public void onRegister(ThreadPoolExecutorHolder executorHolder) {
+                events.add("register:" + executorHolder.getThreadPoolId());
+            }
+
+            @Override
+            public void onRemove(ThreadPoolExecutorHolder executorHolder) {
+                events.add("remove:" + executorHolder.getThreadPoolId());
+            }
+        };
+        try {
+            ThreadPoolTaskMetrics metrics = ThreadPoolTaskMetricsRegistry.register(first, "com.example.Lib#init", 1, Integer.MAX_VALUE);
+            Assert.assertEquals("com.example.Lib#init", metrics.getThreadPoolId());
+            Assert.assertSame(metrics, ThreadPoolTaskMetricsRegistry.getMetrics(first));
+
+            ThreadPoolTaskMetricsRegistry.addListener(listener);
+            Assert.assertEquals("register:com.example.Lib#init", events.get(0));
+            Assert.assertEquals("com.example.Lib#init-2",
+                    ThreadPoolTaskMetricsRegistry.register(second, "com.example.Lib#init", 1, Integer.MAX_VALUE).getThreadPoolId());
+            Assert.assertEquals("register:com.example.Lib#init-2", events.get(1));
+            Assert.assertNull(ThreadPoolTaskMetricsRegistry.register(newExecutor(), "com.example.Lib#init", 1, 1));
+
+            // the executor registered as dynamic thread-pool is not listed
+            ThreadPoolTaskMetricsRegistry.register(dynamic, "com.example.Dynamic#init", 1, Integer.MAX_VALUE);
+            ThreadPoolExecutorRegistry.putHolder("metrics-registry-test", dynamic, null);
+            List<String> threadPoolIds = ThreadPoolTaskMetricsRegistry.listHolders().stream()
+                    .map(ThreadPoolExecutorHolder::getThreadPoolId)
+                    .collect(Collectors.toList());
+            Assert.assertTrue(threadPoolIds.contains("com.example.Lib#init-2"));
+            Assert.assertFalse(threadPoolIds.contains("com.example.Dynamic#init"));
+
+            ThreadPoolTaskMetricsRegistry.remove(second);
+            Assert.assertEquals("remove:com.example.Lib#init-2", events.get(events.size() - 1));
+            Assert.assertNull(ThreadPoolTaskMetricsRegistry.getMetrics(second));
+        } finally {
+            ThreadPoolTaskMetricsRegistry.removeListener(listener);
+            ThreadPoolExecutorRegistry.removeHolder("metrics-registry-test", dynamic);
+            ThreadPoolTaskMetricsRegistry.remove(first);
+            ThreadPoolTaskMetricsRegistry.remove(second);
+            ThreadPoolTaskMetricsRegistry.remove(dynamic);
+        }
+    }
+
+    private ThreadPoolExecutor newExecutor() {
+        return new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>());
+    }
+}
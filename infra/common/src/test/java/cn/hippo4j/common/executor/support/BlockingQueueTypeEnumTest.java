@@ -78,6 +78,9 @@ public final class BlockingQueueTypeEnumTest {
 
         final String resizableLinkedBlockingQueueName = BlockingQueueTypeEnum.RESIZABLE_LINKED_BLOCKING_QUEUE.getName();
         Assert.assertThrows(IllegalArgumentException.class, () -> BlockingQueueTypeEnum.createBlockingQueue(resizableLinkedBlockingQueueName, -100));
+
+        final String resizableArrayBlockingQueueName = BlockingQueueTypeEnum.RESIZABLE_ARRAY_BLOCKING_QUEUE.getName();
+        Assert.assertThrows(IllegalArgumentException.class, () -> BlockingQueueTypeEnum.createBlockingQueue(resizableArrayBlockingQueueName, -100));
     }
 
     @Test
@@ -96,6 +99,8 @@ public final class BlockingQueueTypeEnumTest {
         Assert.assertNotNull(BlockingQueueTypeEnum.createBlockingQueue(5, null));
         Assert.assertNotNull(BlockingQueueTypeEnum.createBlockingQueue(6, null));
         Assert.assertNotNull(BlockingQueueTypeEnum.createBlockingQueue(9, null));
+        Assert.assertNotNull(BlockingQueueTypeEnum.createBlockingQueue(10, null));
+        Assert.assertTrue(BlockingQueueTypeEnum.createBlockingQueue(11, null) instanceof EagerGrowthBlockingQueue);
         Assert.assertNotNull(BlockingQueueTypeEnum.createBlockingQueue(100, null));
         Assert.assertNotNull(BlockingQueueTypeEnum.createBlockingQueue(-1, null));
         Assert.assertNotNull(BlockingQueueTypeEnum.createBlockingQueue(0, null));
@@ -111,6 +116,8 @@ public final class BlockingQueueTypeEnumTest {
         Assert.assertEquals("LinkedTransferQueue", BlockingQueueTypeEnum.getBlockingQueueNameByType(5));
         Assert.assertEquals("PriorityBlockingQueue", BlockingQueueTypeEnum.getBlockingQueueNameByType(6));
         Assert.assertEquals("ResizableCapacityLinkedBlockingQueue", BlockingQueueTypeEnum.getBlockingQueueNameByType(9));
+        Assert.assertEquals("ResizableCapacityArrayBlockingQueue", BlockingQueueTypeEnum.getBlockingQueueNameByType(10));
+        Assert.assertEquals("EagerGrowthBlockingQueue", BlockingQueueTypeEnum.getBlockingQueueNameByType(11));
         // check illegal range of type
         Assert.assertEquals("", BlockingQueueTypeEnum.getBlockingQueueNameByType(0));
         Assert.assertEquals("", BlockingQueueTypeEnum.getBlockingQueueNameByType(-1));
@@ -127,6 +134,7 @@ public final class BlockingQueueTypeEnumTest {
         Assert.assertEquals(BlockingQueueTypeEnum.LINKED_TRANSFER_QUEUE, BlockingQueueTypeEnum.getBlockingQueueTypeEnumByName("LinkedTransferQueue"));
         Assert.assertEquals(BlockingQueueTypeEnum.PRIORITY_BLOCKING_QUEUE, BlockingQueueTypeEnum.getBlockingQueueTypeEnumByName("PriorityBlockingQueue"));
         Assert.assertEquals(BlockingQueueTypeEnum.RESIZABLE_LINKED_BLOCKING_QUEUE, BlockingQueueTypeEnum.getBlockingQueueTypeEnumByName("ResizableCapacityLinkedBlockingQueue"));
+        Assert.assertEquals(BlockingQueueTypeEnum.RESIZABLE_ARRAY_BLOCKING_QUEUE, BlockingQueueTypeEnum.getBlockingQueueTypeEnumByName("ResizableCapacityArrayBlockingQueue"));
         // check illegal range of name
         Assert.assertEquals(BlockingQueueTypeEnum.LINKED_BLOCKING_QUEUE, BlockingQueueTypeEnum.getBlockingQueueTypeEnumByName("Hello"));
         Assert.assertEquals(BlockingQueueTypeEnum.LINKED_BLOCKING_QUEUE, BlockingQueueTypeEnum.getBlockingQueueTypeEnumByName(null));
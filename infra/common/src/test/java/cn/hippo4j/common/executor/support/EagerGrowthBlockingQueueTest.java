@@ -0,0 +1,112 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.hippo4j.common.executor.support;
+
+import cn.hippo4j.common.toolkit.ThreadUtil;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * test for {@link EagerGrowthBlockingQueue}
+ */
+public class EagerGrowthBlockingQueueTest {
+
+    @Test
+    public void testOfferWithoutExecutor() {
+        EagerGrowthBlockingQueue<Runnable> queue = new EagerGrowthBlockingQueue<>(1);
+        Assert.assertTrue(queue.offer(() -> {
+        }));
+        Assert.assertFalse(queue.offer(() -> {
+        }));
+        Assert.assertFalse(queue.retryOffer(() -> {
+        }));
+    }
+
+    @Test
+    public void testGrowBeforeQueue() {
+        EagerGrowthBlockingQueue<Runnable> queue = new EagerGrowthBlockingQueue<>(2);
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 3, 1000L, TimeUnit.MILLISECONDS, queue);
+        queue.setExecutor(executor);
+        CountDownLatch blocked = new CountDownLatch(1);
+        try {
+            for (int i = 0; i < 3; i++) {
+                executor.execute(() -> await(blocked));
+            }
+            // threads are created for tasks until the pool reaches the maximum pool size
+            Assert.assertEquals(3, executor.getPoolSize());
+            Assert.assertEquals(0, queue.size());
+            executor.execute(() -> await(blocked));
+            Assert.assertEquals(3, executor.getPoolSize());
+            Assert.assertEquals(1, queue.size());
+            // the capacity of queue is changed
+            queue.setCapacity(1);
+            Assert.assertFalse(queue.offer(() -> {
+            }));
+            Assert.assertFalse(queue.retryOffer(() -> {
+            }));
+            queue.setCapacity(2);
+            Assert.assertTrue(queue.retryOffer(() -> {
+            }));
+        } finally {
+            blocked.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testQueueWhenWorkersIdle() {
+        EagerGrowthBlockingQueue<Runnable> queue = new EagerGrowthBlockingQueue<>(2);
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(2, 4, 1000L, TimeUnit.MILLISECONDS, queue);
+        queue.setExecutor(executor);
+        try {
+            Assert.assertEquals(2, executor.prestartAllCoreThreads());
+            // wait for the core threads to take tasks from the queue
+            ThreadUtil.sleep(100L);
+            executor.execute(() -> {
+            });
+            executor.execute(() -> {
+            });
+            Assert.assertEquals(2, executor.getPoolSize());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testRetryOfferAfterShutdown() {
+        EagerGrowthBlockingQueue<Runnable> queue = new EagerGrowthBlockingQueue<>(2);
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 1000L, TimeUnit.MILLISECONDS, queue);
+        queue.setExecutor(executor);
+        executor.shutdown();
+        Assert.assertFalse(queue.retryOffer(() -> {
+        }));
+        Assert.assertEquals(0, queue.size());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
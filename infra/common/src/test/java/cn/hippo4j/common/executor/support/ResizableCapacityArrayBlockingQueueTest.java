@@ -0,0 +1,233 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.hippo4j.common.executor.support;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class ResizableCapacityArrayBlockingQueueTest {
+
+    @Test
+    public void testOfferAndPollInOrder() {
+        ResizableCapacityArrayBlockingQueue<Integer> queue = new ResizableCapacityArrayBlockingQueue<>(3);
+        Assert.assertTrue(queue.offer(1));
+        Assert.assertTrue(queue.offer(2));
+        Assert.assertTrue(queue.offer(3));
+        Assert.assertFalse(queue.offer(4));
+        Assert.assertEquals(3, queue.size());
+        Assert.assertEquals(0, queue.remainingCapacity());
+        Assert.assertEquals(Integer.valueOf(1), queue.peek());
+        Assert.assertEquals(Integer.valueOf(1), queue.poll());
+        Assert.assertEquals(Integer.valueOf(2), queue.poll());
+        Assert.assertEquals(Integer.valueOf(3), queue.poll());
+        Assert.assertNull(queue.poll());
+        Assert.assertTrue(queue.isEmpty());
+    }
+
+    @Test
+    public void testWrapAround() {
+        ResizableCapacityArrayBlockingQueue<Integer> queue = new ResizableCapacityArrayBlockingQueue<>(4, 4);
+        for (int i = 0; i < 100; i++) {
+            Assert.assertTrue(queue.offer(i));
+            Assert.assertTrue(queue.offer(i + 1));
+            Assert.assertEquals(Integer.valueOf(i), queue.poll());
+            Assert.assertEquals(Integer.valueOf(i + 1), queue.poll());
+        }
+        Assert.assertTrue(queue.isEmpty());
+    }
+
+    @Test
+    public void testSetCapacity() {
+        ResizableCapacityArrayBlockingQueue<Integer> queue = new ResizableCapacityArrayBlockingQueue<>(2);
+        Assert.assertEquals(4, queue.getMaxCapacity());
+        queue.offer(1);
+        queue.offer(2);
+        Assert.assertFalse(queue.offer(3));
+        queue.setCapacity(3);
+        Assert.assertEquals(1, queue.remainingCapacity());
+        Assert.assertTrue(queue.offer(3));
+        queue.setCapacity(1);
+        Assert.assertFalse(queue.offer(4));
+        Assert.assertEquals(3, queue.size());
+        Assert.assertEquals(0, queue.remainingCapacity());
+        Assert.assertThrows(IllegalArgumentException.class, () -> queue.setCapacity(100));
+        Assert.assertEquals(1, queue.getCapacity());
+        Assert.assertThrows(IllegalArgumentException.class, () -> queue.setCapacity(0));
+        // the refresh clamps the capacity to the max capacity instead of failing
+        Assert.assertEquals(4, queue.setCapacityWithinMax(100));
+        Assert.assertEquals(4, queue.getCapacity());
+    }
+
+    @Test
+    public void testLargeMaxCapacity() {
+        // the slots are allocated when they are reached, not up to the max capacity
+        ResizableCapacityArrayBlockingQueue<Integer> queue = new ResizableCapacityArrayBlockingQueue<>(16, 1 << 30);
+        for (int round = 0; round < 3; round++) {
+            for (int i = 0; i < 16; i++) {
+                Assert.assertTrue(queue.offer(i));
+            }
+            Assert.assertFalse(queue.offer(16));
+            for (int i = 0; i < 16; i++) {
+                Assert.assertEquals(Integer.valueOf(i), queue.poll());
+            }
+        }
+        queue.setCapacity(4096);
+        for (int i = 0; i < 4096; i++) {
+            Assert.assertTrue(queue.offer(i));
+        }
+        Assert.assertEquals(4096, queue.size());
+        Assert.assertEquals(Integer.valueOf(0), queue.peek());
+    }
+
+    @Test
+    public void testReleaseRemovedSlotSignalsBlockedPut() throws InterruptedException {
+        ResizableCapacityArrayBlockingQueue<Integer> queue = new ResizableCapacityArrayBlockingQueue<>(1);
+        queue.put(1);
+        Assert.assertTrue(queue.remove(1));
+        CountDownLatch putDone = new CountDownLatch(1);
+        Thread producer = new Thread(() -> {
+            try {
+                queue.put(2);
+                putDone.countDown();
+            } catch (InterruptedException ignored) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        producer.start();
+        // the removed element still occupies its slot
+        Assert.assertFalse(putDone.await(100, TimeUnit.MILLISECONDS));
+        // the slot is released by the consumer, which may take the element of the signalled producer
+        Integer polled = queue.poll();
+        Assert.assertTrue(putDone.await(5, TimeUnit.SECONDS));
+        Assert.assertEquals(Integer.valueOf(2), polled != null ? polled : queue.poll());
+    }
+
+    @Test
+    public void testIncreaseCapacityReleasesBlockedPut() throws InterruptedException {
+        ResizableCapacityArrayBlockingQueue<Integer> queue = new ResizableCapacityArrayBlockingQueue<>(1);
+        queue.put(1);
+        CountDownLatch putDone = new CountDownLatch(1);
+        Thread producer = new Thread(() -> {
+            try {
+                queue.put(2);
+                putDone.countDown();
+            } catch (InterruptedException ignored) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        producer.start();
+        Assert.assertFalse(putDone.await(100, TimeUnit.MILLISECONDS));
+        queue.setCapacity(2);
+        Assert.assertTrue(putDone.await(5, TimeUnit.SECONDS));
+        Assert.assertEquals(2, queue.size());
+    }
+
+    @Test
+    public void testTimedOperations() throws InterruptedException {
+        ResizableCapacityArrayBlockingQueue<Integer> queue = new ResizableCapacityArrayBlockingQueue<>(1);
+        Assert.assertNull(queue.poll(10, TimeUnit.MILLISECONDS));
+        Assert.assertTrue(queue.offer(1, 10, TimeUnit.MILLISECONDS));
+        Assert.assertFalse(queue.offer(2, 10, TimeUnit.MILLISECONDS));
+        Assert.assertEquals(Integer.valueOf(1), queue.poll(10, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void testRemoveAndIterator() {
+        ResizableCapacityArrayBlockingQueue<Integer> queue = new ResizableCapacityArrayBlockingQueue<>(8);
+        for (int i = 0; i < 5; i++) {
+            queue.offer(i);
+        }
+        Assert.assertTrue(queue.remove(2));
+        Assert.assertFalse(queue.remove(2));
+        Assert.assertFalse(queue.contains(2));
+        Iterator<Integer> iterator = queue.iterator();
+        Assert.assertEquals(Integer.valueOf(0), iterator.next());
+        iterator.remove();
+        Assert.assertArrayEquals(new Object[]{1, 3, 4}, queue.toArray());
+        List<Integer> drained = new ArrayList<>();
+        Assert.assertEquals(3, queue.drainTo(drained));
+        Assert.assertEquals(3, drained.size());
+        Assert.assertNull(queue.poll());
+        Assert.assertEquals(0, queue.size());
+    }
+
+    @Test
+    public void testConcurrentProducersAndConsumers() throws InterruptedException {
+        int producers = 4;
+        int consumers = 4;
+        int countPerProducer = 20000;
+        ResizableCapacityArrayBlockingQueue<Long> queue = new ResizableCapacityArrayBlockingQueue<>(16);
+        ExecutorService executorService = Executors.newFixedThreadPool(producers + consumers);
+        AtomicLong sum = new AtomicLong();
+        CountDownLatch latch = new CountDownLatch(producers + consumers);
+        for (int p = 0; p < producers; p++) {
+            executorService.execute(() -> {
+                try {
+                    for (long i = 1; i <= countPerProducer; i++) {
+                        queue.put(i);
+                    }
+                } catch (InterruptedException ignored) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    latch.countDown();
+                }
+            });
+        }
+        for (int c = 0; c < consumers; c++) {
+            executorService.execute(() -> {
+                try {
+                    for (int i = 0; i < countPerProducer; i++) {
+                        sum.addAndGet(queue.take());
+                    }
+                } catch (InterruptedException ignored) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    latch.countDown();
+                }
+            });
+        }
+        Assert.assertTrue(latch.await(30, TimeUnit.SECONDS));
+        executorService.shutdown();
+        long expected = (long) producers * countPerProducer * (countPerProducer + 1) / 2;
+        Assert.assertEquals(expected, sum.get());
+        Assert.assertTrue(queue.isEmpty());
+    }
+
+    @Test
+    public void testAsWorkQueueOfThreadPool() throws InterruptedException {
+        ResizableCapacityArrayBlockingQueue<Runnable> queue = new ResizableCapacityArrayBlockingQueue<>(100);
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(2, 2, 60, TimeUnit.SECONDS, queue);
+        CountDownLatch latch = new CountDownLatch(100);
+        for (int i = 0; i < 100; i++) {
+            executor.execute(latch::countDown);
+        }
+        Assert.assertTrue(latch.await(5, TimeUnit.SECONDS));
+        executor.shutdown();
+        Assert.assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+    }
+}
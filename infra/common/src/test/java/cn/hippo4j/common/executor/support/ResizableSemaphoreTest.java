@@ -0,0 +1,63 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.hippo4j.common.executor.support;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * test for {@link ResizableSemaphore}
+ */
+public class ResizableSemaphoreTest {
+
+    @Test
+    public void testIncreasePermits() {
+        ResizableSemaphore semaphore = new ResizableSemaphore(1);
+        Assert.assertTrue(semaphore.tryAcquire());
+        Assert.assertFalse(semaphore.tryAcquire());
+        semaphore.setPermits(3);
+        Assert.assertEquals(3, semaphore.getPermits());
+        Assert.assertEquals(2, semaphore.availablePermits());
+        Assert.assertEquals(1, semaphore.getAcquiredPermits());
+        Assert.assertTrue(semaphore.tryAcquire(2));
+        Assert.assertEquals(3, semaphore.getAcquiredPermits());
+    }
+
+    @Test
+    public void testDecreasePermits() {
+        ResizableSemaphore semaphore = new ResizableSemaphore(3);
+        Assert.assertTrue(semaphore.tryAcquire(3));
+        semaphore.setPermits(1);
+        Assert.assertEquals(1, semaphore.getPermits());
+        Assert.assertEquals(-2, semaphore.availablePermits());
+        Assert.assertEquals(3, semaphore.getAcquiredPermits());
+        semaphore.release(2);
+        Assert.assertFalse(semaphore.tryAcquire());
+        semaphore.release();
+        Assert.assertTrue(semaphore.tryAcquire());
+        Assert.assertFalse(semaphore.tryAcquire());
+    }
+
+    @Test
+    public void testIllegalPermits() {
+        Assert.assertThrows(IllegalArgumentException.class, () -> new ResizableSemaphore(-1));
+        ResizableSemaphore semaphore = new ResizableSemaphore(1);
+        Assert.assertThrows(IllegalArgumentException.class, () -> semaphore.setPermits(-1));
+        Assert.assertEquals(1, semaphore.getPermits());
+    }
+}
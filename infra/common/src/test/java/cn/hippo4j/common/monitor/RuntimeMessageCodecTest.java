@@ -0,0 +1,115 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.hippo4j.common.monitor;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * test for {@link RuntimeMessageCodec}
+ */
+public class RuntimeMessageCodecTest {
+
+    private static RuntimeMessage newMessage(String groupKey, long timestamp) {
+        RuntimeMessage message = new RuntimeMessage();
+        message.setGroupKey(groupKey);
+        message.setMessageType(MessageTypeEnum.RUNTIME);
+        message.setCurrentLoad("12");
+        message.setPeakLoad("80");
+        message.setPoolSize(8);
+        message.setLargestPoolSize(16);
+        message.setActiveSize("3");
+        message.setQueueCapacity(1024);
+        message.setQueueSize(7);
+        message.setQueueRemainingCapacity("1017");
+        message.setCompletedTaskCount(Long.MAX_VALUE);
+        message.setRejectCount(-1);
+        message.setTimestamp(timestamp);
+        message.setTaskTimeP50(1500L);
+        message.setTaskTimeP99(250000L);
+        message.setTaskTimeP999(1L << 40);
+        message.setQueueTimeP50(0L);
+        message.setQueueTimeP99(Long.MIN_VALUE);
+        return message;
+    }
+
+    @Test
+    public void testEncodeAndDecodeBatch() {
+        long now = System.currentTimeMillis();
+        List<RuntimeMessage> messages = Arrays.asList(
+                newMessage("pool-a+item+tenant+127.0.0.1:8080_a", now),
+                newMessage("pool-b+item+tenant+127.0.0.1:8080_a", now - 5),
+                newMessage("pool-a+item+tenant+127.0.0.1:8080_a", now + 3000),
+                new RuntimeMessage());
+        byte[] frame = RuntimeMessageCodec.encodeBatch(new RuntimeMessageBatch(42L, messages), -1);
+        Assert.assertEquals(RuntimeMessageCodec.TYPE_BATCH, RuntimeMessageCodec.frameType(frame));
+        Assert.assertEquals(0, frame[3] & RuntimeMessageCodec.FLAG_COMPRESSED);
+
+        RuntimeMessageBatch decoded = RuntimeMessageCodec.decodeBatch(frame);
+        Assert.assertEquals(42L, decoded.getSequence());
+        Assert.assertEquals(messages, decoded.getMessages());
+        for (int i = 0; i < messages.size(); i++) {
+            Assert.assertEquals(messages.get(i).getGroupKey(), decoded.getMessages().get(i).getGroupKey());
+            Assert.assertEquals(messages.get(i).getMessageType(), decoded.getMessages().get(i).getMessageType());
+        }
+    }
+
+    @Test
+    public void testCompressedBatch() {
+        long now = System.currentTimeMillis();
+        List<RuntimeMessage> messages = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            messages.add(newMessage("pool-" + i + "+item+tenant+127.0.0.1:8080_a", now + i));
+        }
+        byte[] plain = RuntimeMessageCodec.encodeBatch(new RuntimeMessageBatch(1L, messages), -1);
+        byte[] compressed = RuntimeMessageCodec.encodeBatch(new RuntimeMessageBatch(1L, messages), 1024);
+        Assert.assertNotEquals(0, compressed[3] & RuntimeMessageCodec.FLAG_COMPRESSED);
+        Assert.assertTrue(compressed.length < plain.length);
+        Assert.assertEquals(messages, RuntimeMessageCodec.decodeBatch(compressed).getMessages());
+
+        // small bodies are not compressed
+        byte[] small = RuntimeMessageCodec.encodeBatch(new RuntimeMessageBatch(1L, messages.subList(0, 1)), 1024);
+        Assert.assertEquals(0, small[3] & RuntimeMessageCodec.FLAG_COMPRESSED);
+    }
+
+    @Test
+    public void testEncodeAndDecodeAck() {
+        byte[] frame = RuntimeMessageCodec.encodeAck(new RuntimeMessageAck(300L, RuntimeMessageAck.STATUS_BUSY));
+        Assert.assertEquals(RuntimeMessageCodec.TYPE_ACK, RuntimeMessageCodec.frameType(frame));
+        RuntimeMessageAck ack = RuntimeMessageCodec.decodeAck(frame);
+        Assert.assertEquals(300L, ack.getSequence());
+        Assert.assertFalse(ack.isAccepted());
+    }
+
+    @Test
+    public void testMalformedFrame() {
+        Assert.assertThrows(IllegalArgumentException.class, () -> RuntimeMessageCodec.frameType(new byte[]{1, 2}));
+        byte[] ack = RuntimeMessageCodec.encodeAck(new RuntimeMessageAck(1L, RuntimeMessageAck.STATUS_OK));
+        Assert.assertThrows(IllegalArgumentException.class, () -> RuntimeMessageCodec.decodeBatch(ack));
+
+        byte[] frame = RuntimeMessageCodec.encodeBatch(new RuntimeMessageBatch(1L,
+                Collections.singletonList(newMessage("pool", 1L))), -1);
+        byte[] truncated = Arrays.copyOf(frame, frame.length - 3);
+        Assert.assertThrows(IllegalArgumentException.class, () -> RuntimeMessageCodec.decodeBatch(truncated));
+    }
+}
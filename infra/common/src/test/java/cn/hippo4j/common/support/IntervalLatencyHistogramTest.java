@@ -0,0 +1,58 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.hippo4j.common.support;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * test for {@link IntervalLatencyHistogram}
+ */
+public class IntervalLatencyHistogramTest {
+
+    @Test
+    public void testPublishOnReadWithoutOwner() throws InterruptedException {
+        IntervalLatencyHistogram histogram = new IntervalLatencyHistogram(1, 10L);
+        histogram.record(100L);
+        Thread.sleep(20L);
+        // no owner has published, so the reader publishes the interval
+        Assert.assertEquals(1L, histogram.getLastSnapshot().getCount());
+        Assert.assertEquals(100L, histogram.getLastSnapshot().getMax());
+    }
+
+    @Test
+    public void testReadWithOwner() throws InterruptedException {
+        IntervalLatencyHistogram histogram = new IntervalLatencyHistogram(1, 10L);
+        Thread.sleep(20L);
+        Assert.assertEquals(0L, histogram.publishSnapshot().getCount());
+        histogram.record(100L);
+        Thread.sleep(20L);
+        // the owner publishes the interval, readers never reset the histogram
+        Assert.assertEquals(0L, histogram.getLastSnapshot().getCount());
+        Assert.assertEquals(1L, histogram.publishSnapshot().getCount());
+        Assert.assertEquals(1L, histogram.getLastSnapshot().getCount());
+    }
+
+    @Test
+    public void testMinSnapshotInterval() {
+        IntervalLatencyHistogram histogram = new IntervalLatencyHistogram(1, 60000L);
+        histogram.record(100L);
+        Assert.assertEquals(0L, histogram.getLastSnapshot().getCount());
+        Assert.assertEquals(0L, histogram.publishSnapshot().getCount());
+    }
+}
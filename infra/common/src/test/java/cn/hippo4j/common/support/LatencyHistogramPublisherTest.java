@@ -0,0 +1,70 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.hippo4j.common.support;
+
+import cn.hippo4j.common.executor.ThreadPoolExecutorRegistry;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Optional;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * test for {@link LatencyHistogramPublisher}
+ */
+public class LatencyHistogramPublisherTest {
+
+    @Test
+    public void testPublish() {
+        HistogramThreadPoolExecutor executor = new HistogramThreadPoolExecutor();
+        ThreadPoolExecutorRegistry.putHolder("publisher-test", executor, null);
+        try {
+            // readers never publish the interval
+            executor.getTaskTimeHistogram();
+            executor.getQueueTimeHistogram();
+            Assert.assertEquals(0, executor.publishCount.get());
+            LatencyHistogramPublisher.publish();
+            Assert.assertEquals(1, executor.publishCount.get());
+        } finally {
+            ThreadPoolExecutorRegistry.removeHolder("publisher-test", executor);
+            executor.shutdown();
+        }
+    }
+
+    private static class HistogramThreadPoolExecutor extends ThreadPoolExecutor implements TaskLatencyHistogramSupport {
+
+        private final AtomicInteger publishCount = new AtomicInteger();
+
+        HistogramThreadPoolExecutor() {
+            super(1, 1, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>());
+        }
+
+        @Override
+        public Optional<LatencyHistogram.Snapshot> getTaskTimeHistogram() {
+            return Optional.empty();
+        }
+
+        @Override
+        public void publishLatencyHistograms() {
+            publishCount.incrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.hippo4j.common.support;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * test for {@link LatencyHistogram}
+ */
+public class LatencyHistogramTest {
+
+    @Test
+    public void testBucketIndex() {
+        Assert.assertEquals(0, LatencyHistogram.bucketIndex(0L));
+        Assert.assertEquals(15, LatencyHistogram.bucketIndex(15L));
+        Assert.assertEquals(16, LatencyHistogram.bucketIndex(16L));
+        Assert.assertEquals(32, LatencyHistogram.bucketIndex(32L));
+        Assert.assertEquals(32, LatencyHistogram.bucketIndex(33L));
+        Assert.assertEquals(LatencyHistogram.BUCKET_COUNT - 1, LatencyHistogram.bucketIndex(LatencyHistogram.MAX_TRACKABLE_VALUE));
+        Assert.assertEquals(LatencyHistogram.BUCKET_COUNT - 1, LatencyHistogram.bucketIndex(Long.MAX_VALUE));
+    }
+
+    @Test
+    public void testBucketBounds() {
+        for (int i = 1; i < LatencyHistogram.BUCKET_COUNT; i++) {
+            long lowest = LatencyHistogram.highestValueOfBucket(i - 1) + 1;
+            long highest = LatencyHistogram.highestValueOfBucket(i);
+            Assert.assertEquals(i, LatencyHistogram.bucketIndex(lowest));
+            Assert.assertEquals(i, LatencyHistogram.bucketIndex(highest));
+        }
+    }
+
+    @Test
+    public void testPercentile() {
+        LatencyHistogram histogram = new LatencyHistogram(2);
+        for (long i = 1; i <= 10000; i++) {
+            histogram.record(i * 1000L);
+        }
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        Assert.assertEquals(10000L, snapshot.getCount());
+        Assert.assertEquals(10000000L, snapshot.getMax());
+        Assert.assertEquals(5000500L, snapshot.getMean());
+        assertInRelativeError(5000000L, snapshot.getP50());
+        assertInRelativeError(9900000L, snapshot.getP99());
+        assertInRelativeError(9990000L, snapshot.getP999());
+        Assert.assertEquals(snapshot.getMax(), snapshot.getValueAtPercentile(100D));
+    }
+
+    @Test
+    public void testSnapshotAndReset() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(100L);
+        histogram.record(-1L);
+        LatencyHistogram.Snapshot snapshot = histogram.snapshotAndReset();
+        Assert.assertEquals(2L, snapshot.getCount());
+        Assert.assertEquals(100L, snapshot.getMax());
+
+        LatencyHistogram.Snapshot empty = histogram.snapshot();
+        Assert.assertEquals(0L, empty.getCount());
+        Assert.assertEquals(0L, empty.getMax());
+        Assert.assertEquals(0L, empty.getP99());
+        Assert.assertEquals(0L, empty.getMean());
+    }
+
+    @Test
+    public void testConcurrentRecord() throws InterruptedException {
+        LatencyHistogram histogram = new LatencyHistogram(4);
+        int threadCount = 8;
+        int recordCount = 10000;
+        CountDownLatch latch = new CountDownLatch(threadCount);
+        for (int i = 0; i < threadCount; i++) {
+            new Thread(() -> {
+                for (int j = 0; j < recordCount; j++) {
+                    histogram.record(ThreadLocalRandom.current().nextLong(1000000L));
+                }
+                latch.countDown();
+            }).start();
+        }
+        long count = 0L;
+        while (latch.getCount() > 0) {
+            count += histogram.snapshotAndReset().getCount();
+        }
+        latch.await();
+        count += histogram.snapshotAndReset().getCount();
+        Assert.assertEquals((long) threadCount * recordCount, count);
+    }
+
+    private static void assertInRelativeError(long expected, long actual) {
+        Assert.assertTrue(actual + " is not close to " + expected,
+                Math.abs(actual - expected) <= expected / LatencyHistogram.SUB_BUCKET_COUNT);
+    }
+}
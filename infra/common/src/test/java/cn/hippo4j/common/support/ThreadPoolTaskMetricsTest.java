@@ -0,0 +1,193 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.hippo4j.common.support;
+
+import cn.hippo4j.common.model.PoolMetricsSnapshot;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+public class ThreadPoolTaskMetricsTest {
+
+    @Test
+    public void assertRecordTasks() throws InterruptedException {
+        ThreadPoolTaskMetrics metrics = new ThreadPoolTaskMetrics("metrics-test", 1, 0L);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch blocked = new CountDownLatch(1);
+        MetricsThreadPoolExecutor executor = new MetricsThreadPoolExecutor(metrics, (task, pool) -> metrics.onReject(task));
+        try {
+            executor.execute(() -> {
+                started.countDown();
+                try {
+                    blocked.await();
+                } catch (InterruptedException ignored) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            executor.execute(() -> {
+                throw new IllegalStateException("failed task");
+            });
+            // the worker is blocked and the queue is full
+            executor.execute(() -> {
+            });
+            Assert.assertTrue(started.await(1, TimeUnit.SECONDS));
+            Thread.sleep(20L);
+            blocked.countDown();
+            executor.shutdown();
+            Assert.assertTrue(executor.awaitTermination(1, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+        Assert.assertEquals(1L, metrics.getRejectedTaskCount());
+        Assert.assertEquals(1L, metrics.getFailedTaskCount());
+
+        metrics.publishLatencyHistograms();
+        PoolMetricsSnapshot snapshot = new PoolMetricsSnapshot();
+        metrics.supplementMetrics(snapshot);
+        Assert.assertEquals(1L, snapshot.getRejectCount());
+        Assert.assertTrue(snapshot.isTaskTimeRecorded());
+        Assert.assertTrue(snapshot.getTaskTimeP99() >= TimeUnit.MILLISECONDS.toNanos(10L));
+        Assert.assertTrue(snapshot.isQueueTimeRecorded());
+        Assert.assertTrue(snapshot.getQueueTimeP99() >= TimeUnit.MILLISECONDS.toNanos(10L));
+        // readers share the published snapshot until the next tick
+        Assert.assertSame(metrics.getTaskTimeHistogram().get(), metrics.getTaskTimeHistogram().get());
+        Assert.assertEquals(2L, metrics.getTaskTimeHistogram().get().getCount());
+    }
+
+    @Test
+    public void assertReadWithoutMonitor() {
+        ThreadPoolTaskMetrics metrics = new ThreadPoolTaskMetrics("metrics-reader-test", 1, 0L);
+        Runnable task = () -> {
+        };
+        metrics.onExecute(task);
+        metrics.beforeExecute(task);
+        metrics.afterExecute(null);
+        // without a monitor tick the reader publishes the interval
+        Assert.assertEquals(1L, metrics.getTaskTimeHistogram().get().getCount());
+        Assert.assertEquals(1L, metrics.getQueueTimeHistogram().get().getCount());
+    }
+
+    @Test
+    public void assertSampleTasks() {
+        ThreadPoolTaskMetrics metrics = new ThreadPoolTaskMetrics("metrics-sample-test", 16, 0L);
+        Runnable task = () -> {
+        };
+        for (int i = 0; i < 16_000; i++) {
+            metrics.onExecute(task);
+            metrics.beforeExecute(task);
+            metrics.afterExecute(null);
+        }
+        metrics.publishLatencyHistograms();
+        // only about one of every 16 tasks is timed
+        long count = metrics.getTaskTimeHistogram().get().getCount();
+        Assert.assertTrue(count > 500L && count < 2000L);
+        Assert.assertEquals(16, metrics.getSampleInterval());
+    }
+
+    @Test
+    public void assertPendingTasksKeyedByIdentity() {
+        ThreadPoolTaskMetrics metrics = new ThreadPoolTaskMetrics("metrics-identity-test", 1, 0L);
+        EqualTask first = new EqualTask();
+        EqualTask second = new EqualTask();
+        metrics.onExecute(first);
+        metrics.beforeExecute(second);
+        metrics.afterExecute(null);
+        metrics.publishLatencyHistograms();
+        // an equal task is not the pending task
+        Assert.assertEquals(0L, metrics.getQueueTimeHistogram().get().getCount());
+        Assert.assertEquals(1, metrics.getPendingTaskCount());
+        metrics.onReject(first);
+        Assert.assertEquals(0, metrics.getPendingTaskCount());
+    }
+
+    @Test
+    public void assertPendingTasksBounded() {
+        ThreadPoolTaskMetrics metrics = new ThreadPoolTaskMetrics("metrics-bounded-test", 1, 0L);
+        // tasks which never run, such as the tasks drained by shutdownNow
+        for (int i = 0; i < 10_000; i++) {
+            metrics.onExecute(() -> {
+            });
+        }
+        Assert.assertTrue(metrics.getPendingTaskCount() <= 1024);
+        // sampling goes on after the slots are occupied
+        Runnable task = () -> {
+        };
+        metrics.onExecute(task);
+        metrics.beforeExecute(task);
+        metrics.afterExecute(null);
+        metrics.publishLatencyHistograms();
+        Assert.assertEquals(1L, metrics.getQueueTimeHistogram().get().getCount());
+        Assert.assertTrue(metrics.getPendingTaskCount() > 0);
+        metrics.expirePendingTasks(System.nanoTime() + TimeUnit.MINUTES.toNanos(11L));
+        Assert.assertEquals(0, metrics.getPendingTaskCount());
+    }
+
+    /**
+     * Tasks which are all equal to each other.
+     */
+    private static class EqualTask implements Runnable {
+
+        @Override
+        public void run() {
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof EqualTask;
+        }
+
+        @Override
+        public int hashCode() {
+            return 1;
+        }
+    }
+
+    /**
+     * Executor which calls the hooks of metrics like the agent does.
+     */
+    private static class MetricsThreadPoolExecutor extends ThreadPoolExecutor {
+
+        private final ThreadPoolTaskMetrics metrics;
+
+        MetricsThreadPoolExecutor(ThreadPoolTaskMetrics metrics, RejectedExecutionHandler handler) {
+            super(1, 1, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(1), handler);
+            this.metrics = metrics;
+        }
+
+        @Override
+        public void execute(Runnable command) {
+            metrics.onExecute(command);
+            super.execute(command);
+        }
+
+        @Override
+        protected void beforeExecute(Thread thread, Runnable runnable) {
+            metrics.beforeExecute(runnable);
+        }
+
+        @Override
+        protected void afterExecute(Runnable runnable, Throwable throwable) {
+            metrics.afterExecute(throwable);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.hippo4j.common.toolkit;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.ToDoubleFunction;
+
+public class DownsampleUtilTest {
+
+    private static final List<ToDoubleFunction<long[]>> Y = Collections.singletonList(each -> each[1]);
+
+    @Test
+    public void assertLargestTriangleThreeBucketsUnderThreshold() {
+        List<long[]> points = points(10);
+        Assert.isTrue(points == DownsampleUtil.largestTriangleThreeBuckets(points, 10, each -> each[0], Y));
+        Assert.isTrue(points == DownsampleUtil.largestTriangleThreeBuckets(points, 0, each -> each[0], Y));
+    }
+
+    @Test
+    public void assertLargestTriangleThreeBucketsKeepsPeak() {
+        List<long[]> points = points(1000);
+        points.get(500)[1] = 100000L;
+        List<long[]> sampled = DownsampleUtil.largestTriangleThreeBuckets(points, 50, each -> each[0], Y);
+        Assert.isTrue(sampled.size() == 50);
+        Assert.isTrue(sampled.get(0) == points.get(0));
+        Assert.isTrue(sampled.get(49) == points.get(999));
+        Assert.isTrue(sampled.contains(points.get(500)));
+        for (int i = 1; i < sampled.size(); i++) {
+            Assert.isTrue(sampled.get(i)[0] > sampled.get(i - 1)[0]);
+        }
+    }
+
+    @Test
+    public void assertLargestTriangleThreeBucketsSmallThreshold() {
+        List<long[]> points = points(100);
+        Assert.isTrue(DownsampleUtil.largestTriangleThreeBuckets(points, 1, each -> each[0], Y).size() == 1);
+        List<long[]> sampled = DownsampleUtil.largestTriangleThreeBuckets(points, 2, each -> each[0], Y);
+        Assert.isTrue(sampled.get(0) == points.get(0) && sampled.get(1) == points.get(99));
+    }
+
+    private static List<long[]> points(int count) {
+        List<long[]> points = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            points.add(new long[]{1700000000000L + i * 5000L, i % 10});
+        }
+        return points;
+    }
+}
@@ -27,6 +27,7 @@ import org.junit.Test;
 import org.json.JSONException;
 import org.skyscreamer.jsonassert.JSONAssert;
 
+import java.io.ByteArrayOutputStream;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
@@ -51,6 +52,15 @@ public class JSONUtilTest {
         }
     }
 
+    @Test
+    public void assertWriteJSON() throws Exception {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        JSONUtil.writeJSON(null, outputStream);
+        Assert.assertEquals(0, outputStream.size());
+        JSONUtil.writeJSON(EXPECTED_FOO, outputStream);
+        JSONAssert.assertEquals(EXPECTED_FOO_JSON, outputStream.toString("UTF-8"), false);
+    }
+
     @Test
     public void assertParseObject() {
         Assert.assertNull(JSONUtil.parseObject(null, Foo.class));
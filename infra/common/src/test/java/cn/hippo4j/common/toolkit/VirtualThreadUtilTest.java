@@ -0,0 +1,55 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.hippo4j.common.toolkit;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * test for {@link VirtualThreadUtil}
+ */
+public class VirtualThreadUtilTest {
+
+    private static boolean isJava21OrLater() {
+        String version = System.getProperty("java.specification.version");
+        return !version.startsWith("1.") && Integer.parseInt(version) >= 21;
+    }
+
+    @Test
+    public void testIsSupported() {
+        Assert.assertEquals(isJava21OrLater(), VirtualThreadUtil.isSupported());
+        Assert.assertFalse(VirtualThreadUtil.isVirtual(Thread.currentThread()));
+    }
+
+    @Test
+    public void testNewThreadFactory() {
+        ThreadFactory fallback = r -> new Thread(r, "platform");
+        ThreadFactory threadFactory = VirtualThreadUtil.newThreadFactoryOrElse("test_", fallback);
+        if (!VirtualThreadUtil.isSupported()) {
+            Assert.assertSame(fallback, threadFactory);
+            Assert.assertThrows(UnsupportedOperationException.class, () -> VirtualThreadUtil.newThreadFactory("test_"));
+            return;
+        }
+        Thread thread = threadFactory.newThread(() -> {
+        });
+        Assert.assertTrue(VirtualThreadUtil.isVirtual(thread));
+        Assert.assertEquals("test_0", thread.getName());
+    }
+}
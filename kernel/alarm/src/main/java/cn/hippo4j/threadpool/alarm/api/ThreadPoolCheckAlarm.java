@@ -80,6 +80,16 @@ public interface ThreadPoolCheckAlarm {
      */
     void asyncSendExecuteTimeOutAlarm(String threadPoolId, long executeTime, long executeTimeOut, ThreadPoolExecutor threadPoolExecutor);
 
+    /**
+     * Async send queue time-out alarm.
+     *
+     * @param threadPoolId       thread-pool id
+     * @param queueTime          time of task waiting in the queue
+     * @param queueTimeOut       queue time-out
+     * @param threadPoolExecutor thread-pool executor
+     */
+    void asyncSendQueueTimeOutAlarm(String threadPoolId, long queueTime, long queueTimeOut, ThreadPoolExecutor threadPoolExecutor);
+
     /**
      * None implementation of {@link ThreadPoolCheckAlarm}.
      *
@@ -138,5 +148,18 @@ public interface ThreadPoolCheckAlarm {
         public void asyncSendExecuteTimeOutAlarm(String threadPoolId, long executeTime, long executeTimeOut, ThreadPoolExecutor threadPoolExecutor) {
             log.debug("Ignore async send execute time out alarm for ExecuteService '{}'", threadPoolId);
         }
+
+        /**
+         * Async send queue time-out alarm.
+         *
+         * @param threadPoolId       thread-pool id
+         * @param queueTime          time of task waiting in the queue
+         * @param queueTimeOut       queue time-out
+         * @param threadPoolExecutor thread-pool executor
+         */
+        @Override
+        public void asyncSendQueueTimeOutAlarm(String threadPoolId, long queueTime, long queueTimeOut, ThreadPoolExecutor threadPoolExecutor) {
+            log.debug("Ignore async send queue time out alarm for ExecuteService '{}'", threadPoolId);
+        }
     }
 }
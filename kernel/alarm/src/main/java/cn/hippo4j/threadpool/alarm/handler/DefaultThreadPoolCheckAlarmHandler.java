@@ -19,8 +19,9 @@ package cn.hippo4j.threadpool.alarm.handler;
 
 import cn.hippo4j.common.executor.ThreadPoolExecutorHolder;
 import cn.hippo4j.common.executor.ThreadPoolExecutorRegistry;
+import cn.hippo4j.common.executor.ThreadPoolExecutorRegistryListener;
+import cn.hippo4j.common.support.PoolMetricsSupport;
 import cn.hippo4j.common.toolkit.CalculateUtil;
-import cn.hippo4j.common.toolkit.ReflectUtil;
 import cn.hippo4j.common.toolkit.StringUtil;
 import cn.hippo4j.threadpool.alarm.api.ThreadPoolCheckAlarm;
 import cn.hippo4j.threadpool.alarm.toolkit.ExecutorTraceContextUtil;
@@ -35,15 +36,12 @@ import lombok.extern.slf4j.Slf4j;
 import java.util.List;
 import java.util.Objects;
 import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.RejectedExecutionHandler;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledThreadPoolExecutor;
-import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import static cn.hippo4j.common.propertie.EnvironmentProperties.active;
 import static cn.hippo4j.common.propertie.EnvironmentProperties.applicationName;
@@ -58,34 +56,42 @@ import static cn.hippo4j.common.propertie.IdentifyProperties.IDENTIFY;
 @RequiredArgsConstructor
 public class DefaultThreadPoolCheckAlarmHandler implements Runnable, ThreadPoolCheckAlarm {
 
+    /**
+     * Interval of flushing the aggregated alarms
+     */
+    private static final long ALARM_FLUSH_INTERVAL_MILLIS = 1000L;
+
+    private static final String DYNAMIC_THREAD_POOL_EXECUTOR_CLASS_NAME = "cn.hippo4j.core.executor.DynamicThreadPoolExecutor";
+
     private final ThreadPoolSendMessageService threadPoolSendMessageService;
 
     private final ScheduledExecutorService alarmNotifyExecutor = new ScheduledThreadPoolExecutor(
             1,
             r -> new Thread(r, "client.alarm.notify"));
 
-    private final ExecutorService asyncAlarmNotifyExecutor = new ThreadPoolExecutor(
-            2,
-            4,
-            60L,
-            TimeUnit.SECONDS,
-            new LinkedBlockingQueue<>(4096),
-            new ThreadFactory() {
-
-                private final AtomicInteger count = new AtomicInteger();
-
-                @Override
-                public Thread newThread(Runnable runnable) {
-                    Thread thread = new Thread(runnable, "client.execute.timeout.alarm_" + count.incrementAndGet());
-                    thread.setDaemon(true);
-                    return thread;
-                }
-            },
-            new ThreadPoolExecutor.AbortPolicy());
+    private final ThreadPoolAlarmAggregator alarmAggregator = new ThreadPoolAlarmAggregator();
+
+    private final AtomicBoolean alarmFlusherStarted = new AtomicBoolean();
+
+    /**
+     * Remove the alarm counters of the destroyed thread-pools
+     */
+    private final ThreadPoolExecutorRegistryListener alarmCountersCleaner = new ThreadPoolExecutorRegistryListener() {
+
+        @Override
+        public void onRegister(ThreadPoolExecutorHolder executorHolder) {
+        }
+
+        @Override
+        public void onRemove(ThreadPoolExecutorHolder executorHolder) {
+            alarmAggregator.remove(executorHolder.getThreadPoolId());
+        }
+    };
 
     @Override
     public void scheduleExecute() {
         alarmNotifyExecutor.scheduleWithFixedDelay(this, 0, checkStateInterval, TimeUnit.SECONDS);
+        startAlarmFlusher();
     }
 
     @Override
@@ -93,8 +99,8 @@ public class DefaultThreadPoolCheckAlarmHandler implements Runnable, ThreadPoolC
         List<String> listThreadPoolId = ThreadPoolExecutorRegistry.listThreadPoolExecutorId();
         listThreadPoolId.forEach(threadPoolId -> {
             ThreadPoolNotifyAlarm threadPoolNotifyAlarm = GlobalNotifyAlarmManage.get(threadPoolId);
-            if (threadPoolNotifyAlarm != null && threadPoolNotifyAlarm.getAlarm()) {
-                ThreadPoolExecutorHolder executorHolder = ThreadPoolExecutorRegistry.getHolder(threadPoolId);
+            ThreadPoolExecutorHolder executorHolder = ThreadPoolExecutorRegistry.getHolder(threadPoolId);
+            if (threadPoolNotifyAlarm != null && threadPoolNotifyAlarm.getAlarm() && !executorHolder.isEmpty()) {
                 ThreadPoolExecutor executor = executorHolder.getExecutor();
                 checkPoolCapacityAlarm(threadPoolId, executor);
                 checkPoolActivityAlarm(threadPoolId, executor);
@@ -150,25 +156,15 @@ public class DefaultThreadPoolCheckAlarmHandler implements Runnable, ThreadPoolC
     }
 
     /**
-     * Async send rejected alarm.
+     * Async send rejected alarm, the rejection is only counted here,
+     * and the rejections of an interval are sent as one alarm by the flusher.
      *
      * @param threadPoolId thread-pool id
      */
     @Override
     public void asyncSendRejectedAlarm(String threadPoolId) {
-        Runnable checkPoolRejectedAlarmTask = () -> {
-            ThreadPoolNotifyAlarm alarmConfig = GlobalNotifyAlarmManage.get(threadPoolId);
-            if (Objects.isNull(alarmConfig) || !alarmConfig.getAlarm()) {
-                return;
-            }
-            ThreadPoolExecutor threadPoolExecutor = ThreadPoolExecutorRegistry.getHolder(threadPoolId).getExecutor();
-            if (Objects.equals(threadPoolExecutor.getClass().getName(), "cn.hippo4j.core.executor.DynamicThreadPoolExecutor")) {
-                AlarmNotifyRequest alarmNotifyRequest = buildAlarmNotifyRequest(threadPoolExecutor);
-                alarmNotifyRequest.setThreadPoolId(threadPoolId);
-                threadPoolSendMessageService.sendAlarmMessage(NotifyTypeEnum.REJECT, alarmNotifyRequest);
-            }
-        };
-        asyncAlarmNotifyExecutor.execute(checkPoolRejectedAlarmTask);
+        ensureAlarmFlusherStarted();
+        alarmAggregator.recordRejected(threadPoolId);
     }
 
     /**
@@ -186,21 +182,113 @@ public class DefaultThreadPoolCheckAlarmHandler implements Runnable, ThreadPoolC
             return;
         }
         try {
-            AlarmNotifyRequest alarmNotifyRequest = buildAlarmNotifyRequest(threadPoolExecutor);
-            alarmNotifyRequest.setThreadPoolId(threadPoolId);
-            alarmNotifyRequest.setExecuteTime(executeTime);
-            alarmNotifyRequest.setExecuteTimeOut(executeTimeOut);
+            // The trace is bound to the executing thread, so it must be taken before the alarm is aggregated.
             String executeTimeoutTrace = ExecutorTraceContextUtil.getAndRemoveTimeoutTrace();
-            if (StringUtil.isNotBlank(executeTimeoutTrace)) {
-                alarmNotifyRequest.setExecuteTimeoutTrace(executeTimeoutTrace);
-            }
-            Runnable task = () -> threadPoolSendMessageService.sendAlarmMessage(NotifyTypeEnum.TIMEOUT, alarmNotifyRequest);
-            asyncAlarmNotifyExecutor.execute(task);
+            ensureAlarmFlusherStarted();
+            alarmAggregator.recordTimeout(threadPoolId, NotifyTypeEnum.TIMEOUT, executeTime, executeTimeOut,
+                    StringUtil.isNotBlank(executeTimeoutTrace) ? executeTimeoutTrace : null);
         } catch (Throwable ex) {
             log.error("Send thread pool execution timeout alarm error.", ex);
         }
     }
 
+    /**
+     * Async send queue time out alarm.
+     *
+     * @param threadPoolId       thread-pool id
+     * @param queueTime          time of task waiting in the queue
+     * @param queueTimeOut       queue time-out
+     * @param threadPoolExecutor thread-pool executor
+     */
+    @Override
+    public void asyncSendQueueTimeOutAlarm(String threadPoolId, long queueTime, long queueTimeOut, ThreadPoolExecutor threadPoolExecutor) {
+        ThreadPoolNotifyAlarm alarmConfig = GlobalNotifyAlarmManage.get(threadPoolId);
+        if (Objects.isNull(alarmConfig) || !alarmConfig.getAlarm()) {
+            return;
+        }
+        ensureAlarmFlusherStarted();
+        alarmAggregator.recordTimeout(threadPoolId, NotifyTypeEnum.QUEUE_TIMEOUT, queueTime, queueTimeOut, null);
+    }
+
+    /**
+     * Flush the aggregated alarms of each thread-pool, each alarm type is sent at most once per flush,
+     * carrying the count and rate of the alarms since the last notification.
+     * The counters of the thread-pools which are not registered are discarded.
+     */
+    void flushAlarms() {
+        long now = System.nanoTime();
+        alarmAggregator.forEach((threadPoolId, counters) -> {
+            if (ThreadPoolExecutorRegistry.getHolder(threadPoolId).isEmpty()) {
+                alarmAggregator.remove(threadPoolId, counters);
+                return;
+            }
+            try {
+                flushAlarm(threadPoolId, NotifyTypeEnum.REJECT, counters.getRejected(), now);
+                flushAlarm(threadPoolId, NotifyTypeEnum.TIMEOUT, counters.getExecuteTimeout(), now);
+                flushAlarm(threadPoolId, NotifyTypeEnum.QUEUE_TIMEOUT, counters.getQueueTimeout(), now);
+            } catch (Throwable ex) {
+                log.error("Flush thread pool alarm error. key: [{}]", threadPoolId, ex);
+            }
+        });
+    }
+
+    private void flushAlarm(String threadPoolId, NotifyTypeEnum typeEnum, ThreadPoolAlarmAggregator.AlarmCounter counter, long now) {
+        long total = counter.total();
+        long pending = counter.pending(total);
+        if (pending <= 0) {
+            return;
+        }
+        ThreadPoolNotifyAlarm alarmConfig = GlobalNotifyAlarmManage.get(threadPoolId);
+        ThreadPoolExecutorHolder executorHolder = ThreadPoolExecutorRegistry.getHolder(threadPoolId);
+        if (Objects.isNull(alarmConfig) || !alarmConfig.getAlarm() || executorHolder == null || executorHolder.getExecutor() == null
+                || (typeEnum == NotifyTypeEnum.REJECT && !isDynamicThreadPoolExecutor(executorHolder.getExecutor()))) {
+            counter.takeMaxTime();
+            counter.takeTrace();
+            counter.flush(total, now);
+            return;
+        }
+        // Silenced alarms keep accumulating, and are carried by the next alarm which is allowed to be sent.
+        if (threadPoolSendMessageService.isAlarmSilenced(threadPoolId, typeEnum)) {
+            return;
+        }
+        AlarmNotifyRequest alarmNotifyRequest = buildAlarmNotifyRequest(executorHolder.getExecutor());
+        alarmNotifyRequest.setThreadPoolId(threadPoolId);
+        alarmNotifyRequest.setAlarmCount(pending);
+        alarmNotifyRequest.setAlarmRate(calculateRate(pending, now - counter.getLastFlushTime()));
+        if (typeEnum == NotifyTypeEnum.TIMEOUT) {
+            alarmNotifyRequest.setExecuteTime(counter.takeMaxTime());
+            alarmNotifyRequest.setExecuteTimeOut(counter.getTimeOut());
+            alarmNotifyRequest.setExecuteTimeoutTrace(counter.takeTrace());
+        } else if (typeEnum == NotifyTypeEnum.QUEUE_TIMEOUT) {
+            alarmNotifyRequest.setQueueTime(counter.takeMaxTime());
+            alarmNotifyRequest.setQueueTimeOut(counter.getTimeOut());
+        }
+        counter.flush(total, now);
+        threadPoolSendMessageService.sendAlarmMessage(typeEnum, alarmNotifyRequest);
+    }
+
+    private static double calculateRate(long count, long elapsedNanos) {
+        double elapsedSeconds = Math.max(elapsedNanos, TimeUnit.MILLISECONDS.toNanos(ALARM_FLUSH_INTERVAL_MILLIS)) / (double) TimeUnit.SECONDS.toNanos(1L);
+        return Math.round(count / elapsedSeconds * 100) / 100.0;
+    }
+
+    private void ensureAlarmFlusherStarted() {
+        if (!alarmFlusherStarted.get()) {
+            startAlarmFlusher();
+        }
+    }
+
+    private void startAlarmFlusher() {
+        if (alarmFlusherStarted.compareAndSet(false, true)) {
+            ThreadPoolExecutorRegistry.addListener(alarmCountersCleaner);
+            alarmNotifyExecutor.scheduleWithFixedDelay(this::flushAlarms, ALARM_FLUSH_INTERVAL_MILLIS, ALARM_FLUSH_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private boolean isDynamicThreadPoolExecutor(ThreadPoolExecutor threadPoolExecutor) {
+        return Objects.equals(threadPoolExecutor.getClass().getName(), DYNAMIC_THREAD_POOL_EXECUTOR_CLASS_NAME);
+    }
+
     /**
      * Build alarm notify request.
      *
@@ -211,11 +299,8 @@ public class DefaultThreadPoolCheckAlarmHandler implements Runnable, ThreadPoolC
         BlockingQueue<Runnable> blockingQueue = threadPoolExecutor.getQueue();
         RejectedExecutionHandler rejectedExecutionHandler = threadPoolExecutor.getRejectedExecutionHandler();
         long rejectCount = -1L;
-        if (Objects.equals(threadPoolExecutor.getClass().getName(), "cn.hippo4j.core.executor.DynamicThreadPoolExecutor")) {
-            Object actualRejectCountNum = ReflectUtil.invoke(threadPoolExecutor, "getRejectCountNum");
-            if (actualRejectCountNum != null) {
-                rejectCount = (long) actualRejectCountNum;
-            }
+        if (threadPoolExecutor instanceof PoolMetricsSupport) {
+            rejectCount = ((PoolMetricsSupport) threadPoolExecutor).getRejectedTaskCount();
         }
         return AlarmNotifyRequest.builder()
                 .appName(StringUtil.isBlank(itemId) ? applicationName : itemId)
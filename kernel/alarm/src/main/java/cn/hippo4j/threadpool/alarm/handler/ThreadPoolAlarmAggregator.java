@@ -0,0 +1,248 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.hippo4j.threadpool.alarm.handler;
+
+import cn.hippo4j.threadpool.message.api.NotifyTypeEnum;
+import lombok.Getter;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+
+/**
+ * <p>Aggregate the alarms which may burst on the hot path of thread-pools, such as rejections and timeouts,
+ * into lock-free counters per thread-pool and per alarm type. <br />
+ * Recording an alarm is O(1) and does not allocate once the counters of a thread-pool are created,
+ * the counters are drained by a single flusher which coalesces the alarms of an interval into one notification.
+ */
+final class ThreadPoolAlarmAggregator {
+
+    /**
+     * key: thread-pool id, val: alarm counters of the thread-pool
+     */
+    private final Map<String, PoolAlarmCounters> poolAlarmCounters = new ConcurrentHashMap<>();
+
+    /**
+     * Record a rejected task.
+     *
+     * @param threadPoolId thread-pool id
+     */
+    void recordRejected(String threadPoolId) {
+        getCounters(threadPoolId).rejected.record();
+    }
+
+    /**
+     * Record a task whose time exceeds the time-out.
+     *
+     * @param threadPoolId thread-pool id
+     * @param typeEnum     {@link NotifyTypeEnum#TIMEOUT} or {@link NotifyTypeEnum#QUEUE_TIMEOUT}
+     * @param time         time of the task
+     * @param timeOut      time-out
+     * @param trace        trace of the task, may be null
+     */
+    void recordTimeout(String threadPoolId, NotifyTypeEnum typeEnum, long time, long timeOut, String trace) {
+        PoolAlarmCounters counters = getCounters(threadPoolId);
+        AlarmCounter counter = typeEnum == NotifyTypeEnum.QUEUE_TIMEOUT ? counters.queueTimeout : counters.executeTimeout;
+        counter.record(time, timeOut, trace);
+    }
+
+    /**
+     * Visit the counters of each thread-pool, only called by the flusher.
+     *
+     * @param consumer consumer of thread-pool id and counters
+     */
+    void forEach(BiConsumer<String, PoolAlarmCounters> consumer) {
+        poolAlarmCounters.forEach(consumer);
+    }
+
+    /**
+     * Remove the counters of a thread-pool, such as the thread-pool is destroyed.
+     *
+     * @param threadPoolId thread-pool id
+     */
+    void remove(String threadPoolId) {
+        poolAlarmCounters.remove(threadPoolId);
+    }
+
+    /**
+     * Remove the counters of a thread-pool, only if they are still the given counters.
+     *
+     * @param threadPoolId thread-pool id
+     * @param counters     counters
+     */
+    void remove(String threadPoolId, PoolAlarmCounters counters) {
+        poolAlarmCounters.remove(threadPoolId, counters);
+    }
+
+    /**
+     * Get the counters of a thread-pool.
+     *
+     * @param threadPoolId thread-pool id
+     * @return counters, null if no alarm of the thread-pool has been recorded
+     */
+    PoolAlarmCounters get(String threadPoolId) {
+        return poolAlarmCounters.get(threadPoolId);
+    }
+
+    private PoolAlarmCounters getCounters(String threadPoolId) {
+        PoolAlarmCounters counters = poolAlarmCounters.get(threadPoolId);
+        return counters != null ? counters : poolAlarmCounters.computeIfAbsent(threadPoolId, PoolAlarmCounters::new);
+    }
+
+    /**
+     * Alarm counters of a thread-pool.
+     */
+    @Getter
+    static final class PoolAlarmCounters {
+
+        /**
+         * Thread-pool id
+         */
+        private final String threadPoolId;
+
+        /**
+         * Counter of rejected tasks
+         */
+        private final AlarmCounter rejected = new AlarmCounter();
+
+        /**
+         * Counter of tasks whose execute time exceeds the time-out
+         */
+        private final AlarmCounter executeTimeout = new AlarmCounter();
+
+        /**
+         * Counter of tasks whose queue time exceeds the time-out
+         */
+        private final AlarmCounter queueTimeout = new AlarmCounter();
+
+        PoolAlarmCounters(String threadPoolId) {
+            this.threadPoolId = threadPoolId;
+        }
+    }
+
+    /**
+     * <p>Counter of an alarm type. <br />
+     * The count is never reset, the flusher remembers how many alarms have been sent,
+     * so that alarms recorded concurrently with a flush are carried by the next notification instead of being lost.
+     */
+    static final class AlarmCounter {
+
+        /**
+         * Count of the recorded alarms
+         */
+        private final LongAdder count = new LongAdder();
+
+        /**
+         * Max time of the recorded tasks since the last flush
+         */
+        private final AtomicLong maxTime = new AtomicLong();
+
+        /**
+         * Time-out of the last recorded task
+         */
+        private volatile long timeOut;
+
+        /**
+         * Trace of the last recorded task
+         */
+        private volatile String trace;
+
+        /**
+         * Count of the alarms which have been flushed, only accessed by the flusher
+         */
+        private long flushed;
+
+        /**
+         * Nano time of the last flush, only accessed by the flusher
+         */
+        @Getter
+        private long lastFlushTime = System.nanoTime();
+
+        void record() {
+            count.increment();
+        }
+
+        void record(long time, long timeOut, String trace) {
+            long max;
+            while (time > (max = maxTime.get()) && !maxTime.compareAndSet(max, time)) {
+                // retry until the max time is updated by this or a longer task
+            }
+            this.timeOut = timeOut;
+            if (trace != null) {
+                this.trace = trace;
+            }
+            count.increment();
+        }
+
+        /**
+         * Get the total count of the recorded alarms.
+         *
+         * @return total count
+         */
+        long total() {
+            return count.sum();
+        }
+
+        /**
+         * Get the count of the alarms which have not been flushed.
+         *
+         * @param total total count
+         * @return pending count
+         */
+        long pending(long total) {
+            return total - flushed;
+        }
+
+        long getTimeOut() {
+            return timeOut;
+        }
+
+        /**
+         * Take the max time of the tasks since the last flush.
+         *
+         * @return max time
+         */
+        long takeMaxTime() {
+            return maxTime.getAndSet(0L);
+        }
+
+        /**
+         * Take the trace of the last recorded task since the last flush.
+         *
+         * @return trace, may be null
+         */
+        String takeTrace() {
+            String result = trace;
+            trace = null;
+            return result;
+        }
+
+        /**
+         * Mark the alarms up to total as flushed.
+         *
+         * @param total total count
+         * @param now   nano time of the flush
+         */
+        void flush(long total, long now) {
+            flushed = total;
+            lastFlushTime = now;
+        }
+    }
+}
@@ -0,0 +1,150 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.hippo4j.threadpool.alarm.handler;
+
+import cn.hippo4j.common.executor.ThreadPoolExecutorRegistry;
+import cn.hippo4j.threadpool.message.api.NotifyTypeEnum;
+import cn.hippo4j.threadpool.message.core.request.AlarmNotifyRequest;
+import cn.hippo4j.threadpool.message.core.request.ChangeParameterNotifyRequest;
+import cn.hippo4j.threadpool.message.core.request.WebChangeParameterNotifyRequest;
+import cn.hippo4j.threadpool.message.core.service.GlobalNotifyAlarmManage;
+import cn.hippo4j.threadpool.message.core.service.ThreadPoolNotifyAlarm;
+import cn.hippo4j.threadpool.message.core.service.ThreadPoolSendMessageService;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+public final class DefaultThreadPoolCheckAlarmHandlerTest {
+
+    private static final String THREAD_POOL_ID = "alarm-handler-test";
+
+    private final List<AlarmNotifyRequest> sentAlarms = new CopyOnWriteArrayList<>();
+
+    private volatile boolean silenced;
+
+    private final ThreadPoolSendMessageService sendMessageService = new ThreadPoolSendMessageService() {
+
+        @Override
+        public void sendAlarmMessage(NotifyTypeEnum typeEnum, AlarmNotifyRequest alarmNotifyRequest) {
+            alarmNotifyRequest.setNotifyTypeEnum(typeEnum);
+            sentAlarms.add(alarmNotifyRequest);
+        }
+
+        @Override
+        public boolean isAlarmSilenced(String threadPoolId, NotifyTypeEnum typeEnum) {
+            return silenced;
+        }
+
+        @Override
+        public void sendChangeMessage(ChangeParameterNotifyRequest changeParameterNotifyRequest) {
+        }
+
+        @Override
+        public void sendChangeMessage(WebChangeParameterNotifyRequest webChangeParameterNotifyRequest) {
+        }
+    };
+
+    private final DefaultThreadPoolCheckAlarmHandler alarmHandler = new DefaultThreadPoolCheckAlarmHandler(sendMessageService);
+
+    private ThreadPoolExecutor executor;
+
+    @Before
+    public void setUp() {
+        executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>());
+        ThreadPoolExecutorRegistry.putHolder(THREAD_POOL_ID, executor, null);
+        GlobalNotifyAlarmManage.put(THREAD_POOL_ID, new ThreadPoolNotifyAlarm(true, 80, 80));
+    }
+
+    @After
+    public void tearDown() {
+        ThreadPoolExecutorRegistry.removeHolder(THREAD_POOL_ID, executor);
+        executor.shutdown();
+    }
+
+    @Test
+    public void testFlushCoalescedAlarms() throws InterruptedException {
+        alarmHandler.asyncSendQueueTimeOutAlarm(THREAD_POOL_ID, 10L, 5L, executor);
+        alarmHandler.asyncSendQueueTimeOutAlarm(THREAD_POOL_ID, 30L, 5L, executor);
+        alarmHandler.asyncSendQueueTimeOutAlarm(THREAD_POOL_ID, 20L, 5L, executor);
+        awaitSentAlarms(1);
+        AlarmNotifyRequest alarm = sentAlarms.get(0);
+        Assert.assertEquals(NotifyTypeEnum.QUEUE_TIMEOUT, alarm.getNotifyTypeEnum());
+        Assert.assertEquals(THREAD_POOL_ID, alarm.getThreadPoolId());
+        Assert.assertEquals(Long.valueOf(3L), alarm.getAlarmCount());
+        Assert.assertTrue(alarm.getAlarmRate() > 0D);
+        Assert.assertEquals(Long.valueOf(30L), alarm.getQueueTime());
+        Assert.assertEquals(Long.valueOf(5L), alarm.getQueueTimeOut());
+        // nothing is sent if no alarm is recorded since the last flush
+        alarmHandler.flushAlarms();
+        Assert.assertEquals(1, sentAlarms.size());
+    }
+
+    @Test
+    public void testFlushSilencedAlarms() throws InterruptedException {
+        silenced = true;
+        alarmHandler.asyncSendExecuteTimeOutAlarm(THREAD_POOL_ID, 10L, 5L, executor);
+        alarmHandler.asyncSendExecuteTimeOutAlarm(THREAD_POOL_ID, 20L, 5L, executor);
+        alarmHandler.flushAlarms();
+        Assert.assertTrue(sentAlarms.isEmpty());
+        // the silenced alarms are carried by the next alarm which is allowed to be sent
+        silenced = false;
+        alarmHandler.asyncSendExecuteTimeOutAlarm(THREAD_POOL_ID, 15L, 5L, executor);
+        awaitSentAlarms(1);
+        AlarmNotifyRequest alarm = sentAlarms.get(0);
+        Assert.assertEquals(NotifyTypeEnum.TIMEOUT, alarm.getNotifyTypeEnum());
+        Assert.assertEquals(Long.valueOf(3L), alarm.getAlarmCount());
+        Assert.assertEquals(Long.valueOf(20L), alarm.getExecuteTime());
+    }
+
+    @Test
+    public void testRemoveAlarmsOfDestroyedPool() throws InterruptedException {
+        silenced = true;
+        alarmHandler.asyncSendQueueTimeOutAlarm(THREAD_POOL_ID, 10L, 5L, executor);
+        alarmHandler.asyncSendQueueTimeOutAlarm(THREAD_POOL_ID, 10L, 5L, executor);
+        ThreadPoolExecutorRegistry.removeHolder(THREAD_POOL_ID, executor);
+        // the alarms recorded before the thread-pool is destroyed are discarded
+        ThreadPoolExecutorRegistry.putHolder(THREAD_POOL_ID, executor, null);
+        silenced = false;
+        alarmHandler.asyncSendQueueTimeOutAlarm(THREAD_POOL_ID, 10L, 5L, executor);
+        awaitSentAlarms(1);
+        Assert.assertEquals(Long.valueOf(1L), sentAlarms.get(0).getAlarmCount());
+    }
+
+    @Test
+    public void testDiscardAlarmsOfUnregisteredPool() {
+        GlobalNotifyAlarmManage.put("alarm-handler-unregistered", new ThreadPoolNotifyAlarm(true, 80, 80));
+        alarmHandler.asyncSendQueueTimeOutAlarm("alarm-handler-unregistered", 10L, 5L, executor);
+        alarmHandler.flushAlarms();
+        Assert.assertTrue(sentAlarms.isEmpty());
+    }
+
+    private void awaitSentAlarms(int count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000L;
+        while (sentAlarms.size() < count && System.currentTimeMillis() < deadline) {
+            TimeUnit.MILLISECONDS.sleep(10L);
+        }
+        Assert.assertEquals(count, sentAlarms.size());
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.hippo4j.threadpool.alarm.handler;
+
+import cn.hippo4j.threadpool.message.api.NotifyTypeEnum;
+import org.junit.Assert;
+import org.junit.Test;
+
+public final class ThreadPoolAlarmAggregatorTest {
+
+    @Test
+    public void testRecordRejected() {
+        ThreadPoolAlarmAggregator aggregator = new ThreadPoolAlarmAggregator();
+        aggregator.recordRejected("pool");
+        aggregator.recordRejected("pool");
+        ThreadPoolAlarmAggregator.AlarmCounter counter = aggregator.get("pool").getRejected();
+        long total = counter.total();
+        Assert.assertEquals(2L, total);
+        Assert.assertEquals(2L, counter.pending(total));
+        counter.flush(total, System.nanoTime());
+        Assert.assertEquals(0L, counter.pending(counter.total()));
+        // the alarms recorded after the flush are carried by the next flush
+        aggregator.recordRejected("pool");
+        Assert.assertEquals(1L, counter.pending(counter.total()));
+    }
+
+    @Test
+    public void testRecordTimeout() {
+        ThreadPoolAlarmAggregator aggregator = new ThreadPoolAlarmAggregator();
+        aggregator.recordTimeout("pool", NotifyTypeEnum.TIMEOUT, 10L, 5L, "trace-1");
+        aggregator.recordTimeout("pool", NotifyTypeEnum.TIMEOUT, 30L, 6L, null);
+        aggregator.recordTimeout("pool", NotifyTypeEnum.TIMEOUT, 20L, 7L, null);
+        aggregator.recordTimeout("pool", NotifyTypeEnum.QUEUE_TIMEOUT, 40L, 8L, null);
+        ThreadPoolAlarmAggregator.PoolAlarmCounters counters = aggregator.get("pool");
+        ThreadPoolAlarmAggregator.AlarmCounter executeTimeout = counters.getExecuteTimeout();
+        Assert.assertEquals(3L, executeTimeout.total());
+        Assert.assertEquals(7L, executeTimeout.getTimeOut());
+        Assert.assertEquals(30L, executeTimeout.takeMaxTime());
+        Assert.assertEquals(0L, executeTimeout.takeMaxTime());
+        Assert.assertEquals("trace-1", executeTimeout.takeTrace());
+        Assert.assertNull(executeTimeout.takeTrace());
+        Assert.assertEquals(1L, counters.getQueueTimeout().total());
+        Assert.assertEquals(40L, counters.getQueueTimeout().takeMaxTime());
+        Assert.assertEquals(0L, counters.getRejected().total());
+    }
+
+    @Test
+    public void testRemove() {
+        ThreadPoolAlarmAggregator aggregator = new ThreadPoolAlarmAggregator();
+        aggregator.recordRejected("pool");
+        ThreadPoolAlarmAggregator.PoolAlarmCounters counters = aggregator.get("pool");
+        aggregator.remove("pool", new ThreadPoolAlarmAggregator.PoolAlarmCounters("pool"));
+        Assert.assertSame(counters, aggregator.get("pool"));
+        aggregator.remove("pool", counters);
+        Assert.assertNull(aggregator.get("pool"));
+        aggregator.recordRejected("pool");
+        aggregator.remove("pool");
+        Assert.assertNull(aggregator.get("pool"));
+    }
+}
@@ -19,12 +19,14 @@ package cn.hippo4j.threadpool.dynamic.mode.config.refresher;
 
 import cn.hippo4j.common.extension.design.AbstractSubjectCenter;
 import cn.hippo4j.common.toolkit.CollectionUtil;
+import cn.hippo4j.common.toolkit.Md5Util;
 import cn.hippo4j.threadpool.dynamic.api.BootstrapPropertiesInterface;
 import cn.hippo4j.threadpool.dynamic.api.ThreadPoolDynamicRefresh;
 import cn.hippo4j.threadpool.dynamic.mode.config.parser.ConfigParserHandler;
 import lombok.extern.slf4j.Slf4j;
 
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 
 /**
@@ -33,20 +35,38 @@ import java.util.Optional;
 @Slf4j
 public abstract class AbstractConfigThreadPoolDynamicRefresh implements ThreadPoolDynamicRefresh {
 
+    /**
+     * Md5 of the last refreshed config content
+     */
+    private String lastConfigContentMd5;
+
+    /**
+     * The last refreshed config
+     */
+    private Map<Object, Object> lastConfigInfo;
+
     @Override
     public void dynamicRefresh(String configFileType, String configContent) {
         dynamicRefresh(configFileType, configContent, null);
     }
 
     @Override
-    public void dynamicRefresh(String configFileType, String configContent, Map<String, Object> newValueChangeMap) {
+    public synchronized void dynamicRefresh(String configFileType, String configContent, Map<String, Object> newValueChangeMap) {
         try {
+            String configContentMd5 = Md5Util.md5Hex(String.valueOf(configContent), "UTF-8");
+            if (CollectionUtil.isEmpty(newValueChangeMap) && Objects.equals(configContentMd5, lastConfigContentMd5)) {
+                return;
+            }
             Map<Object, Object> configInfo = ConfigParserHandler.getInstance().parseConfig(configContent, configFileType);
             if (CollectionUtil.isNotEmpty(newValueChangeMap)) {
                 Optional.ofNullable(configInfo).ifPresent(each -> each.putAll(newValueChangeMap));
             }
-            BootstrapPropertiesInterface bootstrapProperties = buildBootstrapProperties(configInfo);
-            AbstractSubjectCenter.notify(AbstractSubjectCenter.SubjectType.THREAD_POOL_DYNAMIC_REFRESH, () -> bootstrapProperties);
+            if (ThreadPoolConfigDiff.diff(lastConfigInfo, configInfo).isChanged()) {
+                BootstrapPropertiesInterface bootstrapProperties = buildBootstrapProperties(configInfo);
+                AbstractSubjectCenter.notify(AbstractSubjectCenter.SubjectType.THREAD_POOL_DYNAMIC_REFRESH, () -> bootstrapProperties);
+            }
+            lastConfigContentMd5 = configContentMd5;
+            lastConfigInfo = configInfo;
         } catch (Exception ex) {
             log.error("Hippo4j config mode dynamic refresh failed.", ex);
         }
@@ -17,6 +17,7 @@
 
 package cn.hippo4j.threadpool.dynamic.mode.config.refresher;
 
+import cn.hippo4j.common.model.executor.ExecutorProperties;
 import cn.hippo4j.threadpool.dynamic.api.BootstrapPropertiesInterface;
 
 import java.util.Map;
@@ -34,4 +35,15 @@ public interface BootstrapConfigPropertiesBinderAdapter {
      * @return
      */
     BootstrapPropertiesInterface bootstrapCorePropertiesBinder(Map<Object, Object> configInfo, BootstrapPropertiesInterface bootstrapConfigProperties);
+
+    /**
+     * Executor properties binder, which binds a single changed executor instead of the whole bootstrap properties.
+     *
+     * @param configInfo config of the executor
+     * @param prefix     prefix of the executor, such as spring.dynamic.thread-pool.executors[0]
+     * @return executor properties, or null if not supported, then the whole bootstrap properties are bound
+     */
+    default ExecutorProperties executorPropertiesBinder(Map<Object, Object> configInfo, String prefix) {
+        return null;
+    }
 }
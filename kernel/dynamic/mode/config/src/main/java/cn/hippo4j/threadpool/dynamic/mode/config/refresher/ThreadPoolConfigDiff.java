@@ -0,0 +1,218 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.hippo4j.threadpool.dynamic.mode.config.refresher;
+
+import cn.hippo4j.threadpool.dynamic.mode.config.properties.BootstrapConfigProperties;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * <p>Structural diff of two parsed thread-pool configs, so that a config push only touches the changed executors. <br />
+ * Keys are compared in their relaxed form, so {@code thread-pool}, {@code threadPool} and {@code thread_pool} are the same.
+ * Changes outside {@link BootstrapConfigProperties#PREFIX} are ignored.
+ *
+ * <p>If only the keys of existing executors are changed, the changed executors are returned with their own keys,
+ * otherwise, such as executors are added or removed, or the global properties are changed, all executors should be refreshed.
+ */
+@Getter
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+public final class ThreadPoolConfigDiff {
+
+    private static final String EXECUTORS_PREFIX = BootstrapConfigProperties.PREFIX + ".executors[";
+
+    private static final String RELAXED_PREFIX = relaxed(BootstrapConfigProperties.PREFIX) + ".";
+
+    private static final String RELAXED_EXECUTORS_PREFIX = RELAXED_PREFIX + "executors[";
+
+    /**
+     * Length of {@code spring.}, which is the same in relaxed form
+     */
+    private static final int SPRING_PREFIX_LENGTH = "spring.".length();
+
+    private static final int NON_EXECUTOR_KEY = -1;
+
+    private static final int NON_THREAD_POOL_KEY = -2;
+
+    private static final int GLOBAL_KEY = -3;
+
+    private static final ThreadPoolConfigDiff UNCHANGED = new ThreadPoolConfigDiff(false, Collections.emptyMap());
+
+    private static final ThreadPoolConfigDiff FULL_CHANGED = new ThreadPoolConfigDiff(true, null);
+
+    /**
+     * Whether the thread-pool config is changed
+     */
+    private final boolean changed;
+
+    /**
+     * key: index of the changed executor, val: config of the changed executor,
+     * null if all executors should be refreshed
+     */
+    private final Map<Integer, Map<Object, Object>> changedExecutors;
+
+    /**
+     * Whether all executors should be refreshed.
+     *
+     * @return true if all executors should be refreshed
+     */
+    public boolean isFullChanged() {
+        return changed && changedExecutors == null;
+    }
+
+    /**
+     * Diff the thread-pool config.
+     *
+     * @param before config before changed, all executors are changed if null
+     * @param after  config after changed
+     * @return diff
+     */
+    public static ThreadPoolConfigDiff diff(Map<Object, Object> before, Map<Object, Object> after) {
+        if (before == null || after == null) {
+            return FULL_CHANGED;
+        }
+        Set<Integer> changedIndexes = new HashSet<>();
+        boolean structureChanged = false;
+        for (Map.Entry<Object, Object> entry : after.entrySet()) {
+            Object beforeValue = before.get(entry.getKey());
+            if (Objects.equals(beforeValue, entry.getValue())) {
+                continue;
+            }
+            int index = changedExecutorIndex(entry.getKey());
+            if (index == NON_THREAD_POOL_KEY) {
+                continue;
+            }
+            if (index == GLOBAL_KEY) {
+                return FULL_CHANGED;
+            }
+            changedIndexes.add(index);
+            structureChanged |= beforeValue == null;
+        }
+        for (Object key : before.keySet()) {
+            if (after.containsKey(key)) {
+                continue;
+            }
+            int index = changedExecutorIndex(key);
+            if (index == NON_THREAD_POOL_KEY) {
+                continue;
+            }
+            if (index == GLOBAL_KEY) {
+                return FULL_CHANGED;
+            }
+            changedIndexes.add(index);
+            structureChanged = true;
+        }
+        if (changedIndexes.isEmpty()) {
+            return UNCHANGED;
+        }
+        if (structureChanged && !Objects.equals(executorIndexes(before), executorIndexes(after))) {
+            return FULL_CHANGED;
+        }
+        return new ThreadPoolConfigDiff(true, groupExecutorConfig(after, changedIndexes));
+    }
+
+    /**
+     * Get the index of the executor which the key belongs to.
+     *
+     * @param key config key
+     * @return index of the executor, {@link #NON_THREAD_POOL_KEY} if the key is not a thread-pool key,
+     * {@link #GLOBAL_KEY} if the key is a thread-pool key but not a key of executors
+     */
+    private static int changedExecutorIndex(Object key) {
+        int index = executorIndex(key);
+        if (index >= 0) {
+            return index;
+        }
+        return relaxed(String.valueOf(key)).startsWith(RELAXED_PREFIX) ? GLOBAL_KEY : NON_THREAD_POOL_KEY;
+    }
+
+    /**
+     * Get the index of the executor which the key belongs to,
+     * the canonical keys are parsed directly, and the others are parsed in relaxed form.
+     *
+     * @param key config key
+     * @return index of the executor, or {@link #NON_EXECUTOR_KEY} if the key is not a key of executors
+     */
+    private static int executorIndex(Object key) {
+        String stringKey = String.valueOf(key);
+        if (!stringKey.regionMatches(true, 0, RELAXED_PREFIX, 0, SPRING_PREFIX_LENGTH)) {
+            return NON_EXECUTOR_KEY;
+        }
+        if (stringKey.startsWith(EXECUTORS_PREFIX)) {
+            return parseIndex(stringKey, EXECUTORS_PREFIX.length());
+        }
+        String relaxedKey = relaxed(stringKey);
+        if (relaxedKey.startsWith(RELAXED_EXECUTORS_PREFIX)) {
+            return parseIndex(relaxedKey, RELAXED_EXECUTORS_PREFIX.length());
+        }
+        return NON_EXECUTOR_KEY;
+    }
+
+    private static int parseIndex(String key, int start) {
+        int end = key.indexOf(']', start);
+        if (end < 0) {
+            return NON_EXECUTOR_KEY;
+        }
+        try {
+            return Integer.parseInt(key.substring(start, end));
+        } catch (NumberFormatException ex) {
+            return NON_EXECUTOR_KEY;
+        }
+    }
+
+    private static Set<Integer> executorIndexes(Map<Object, Object> config) {
+        Set<Integer> indexes = new HashSet<>();
+        for (Object key : config.keySet()) {
+            int index = executorIndex(key);
+            if (index >= 0) {
+                indexes.add(index);
+            }
+        }
+        return indexes;
+    }
+
+    private static Map<Integer, Map<Object, Object>> groupExecutorConfig(Map<Object, Object> config, Set<Integer> indexes) {
+        Map<Integer, Map<Object, Object>> result = new TreeMap<>();
+        for (Map.Entry<Object, Object> entry : config.entrySet()) {
+            int index = executorIndex(entry.getKey());
+            if (index >= 0 && indexes.contains(index)) {
+                result.computeIfAbsent(index, each -> new HashMap<>()).put(entry.getKey(), entry.getValue());
+            }
+        }
+        return result;
+    }
+
+    private static String relaxed(String key) {
+        StringBuilder builder = new StringBuilder(key.length());
+        for (int i = 0; i < key.length(); i++) {
+            char ch = key.charAt(i);
+            if (ch != '-' && ch != '_') {
+                builder.append(Character.toLowerCase(ch));
+            }
+        }
+        return builder.toString();
+    }
+}
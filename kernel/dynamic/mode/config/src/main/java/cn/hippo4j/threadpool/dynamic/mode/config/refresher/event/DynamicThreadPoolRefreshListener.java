@@ -19,9 +19,8 @@ package cn.hippo4j.threadpool.dynamic.mode.config.refresher.event;
 
 import cn.hippo4j.common.executor.ThreadPoolExecutorHolder;
 import cn.hippo4j.common.executor.ThreadPoolExecutorRegistry;
-import cn.hippo4j.common.executor.support.BlockingQueueTypeEnum;
 import cn.hippo4j.common.executor.support.RejectedPolicyTypeEnum;
-import cn.hippo4j.common.executor.support.ResizableCapacityLinkedBlockingQueue;
+import cn.hippo4j.common.executor.support.ResizableCapacityBlockingQueue;
 import cn.hippo4j.common.extension.design.Observer;
 import cn.hippo4j.common.extension.design.ObserverMessage;
 import cn.hippo4j.common.model.executor.ExecutorProperties;
@@ -82,7 +81,7 @@ public class DynamicThreadPoolRefreshListener implements Observer<BootstrapConfi
                 || (properties.getRejectedHandler() != null && !Objects.equals(beforeProperties.getRejectedHandler(), properties.getRejectedHandler()))
                 ||
                 ((properties.getQueueCapacity() != null && !Objects.equals(beforeProperties.getQueueCapacity(), properties.getQueueCapacity())
-                        && Objects.equals(BlockingQueueTypeEnum.RESIZABLE_LINKED_BLOCKING_QUEUE.getName(), executor.getQueue().getClass().getSimpleName())));
+                        && executor.getQueue() instanceof ResizableCapacityBlockingQueue));
         return result;
     }
 
@@ -122,12 +121,11 @@ public class DynamicThreadPoolRefreshListener implements Observer<BootstrapConfi
             executor.setKeepAliveTime(properties.getKeepAliveTime(), TimeUnit.SECONDS);
         }
         if (properties.getQueueCapacity() != null && !Objects.equals(beforeProperties.getQueueCapacity(), properties.getQueueCapacity())
-                && Objects.equals(BlockingQueueTypeEnum.RESIZABLE_LINKED_BLOCKING_QUEUE.getName(), executor.getQueue().getClass().getSimpleName())) {
-            if (executor.getQueue() instanceof ResizableCapacityLinkedBlockingQueue) {
-                ResizableCapacityLinkedBlockingQueue<?> queue = (ResizableCapacityLinkedBlockingQueue<?>) executor.getQueue();
-                queue.setCapacity(properties.getQueueCapacity());
-            } else {
-                LOGGER.warn("The queue length cannot be modified. Queue type mismatch. Current queue type: {}", executor.getQueue().getClass().getSimpleName());
+                && executor.getQueue() instanceof ResizableCapacityBlockingQueue) {
+            ResizableCapacityBlockingQueue<?> queue = (ResizableCapacityBlockingQueue<?>) executor.getQueue();
+            int capacity = queue.setCapacityWithinMax(properties.getQueueCapacity());
+            if (capacity != properties.getQueueCapacity()) {
+                LOGGER.warn("The queue capacity {} exceeds the max capacity of queue, the capacity is set to {}.", properties.getQueueCapacity(), capacity);
             }
         }
     }
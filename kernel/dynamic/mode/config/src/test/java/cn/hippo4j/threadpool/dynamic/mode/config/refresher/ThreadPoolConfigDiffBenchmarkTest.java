@@ -0,0 +1,142 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.hippo4j.threadpool.dynamic.mode.config.refresher;
+
+import cn.hippo4j.common.model.executor.ExecutorProperties;
+import cn.hippo4j.common.toolkit.Md5Util;
+import cn.hippo4j.threadpool.dynamic.mode.config.parser.ConfigFileTypeEnum;
+import cn.hippo4j.threadpool.dynamic.mode.config.parser.ConfigParserHandler;
+import cn.hippo4j.threadpool.dynamic.mode.config.properties.BootstrapConfigProperties;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.MapConfigurationPropertySource;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * benchmark test for {@link ThreadPoolConfigDiff},
+ * apply a config push which changes 1 thread-pool of a 500 thread-pools yaml document,
+ * compare binding the whole {@link BootstrapConfigProperties} with binding only the changed executor,
+ * and the push of unchanged content which is skipped by the md5 of the content.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+@Fork(1)
+public class ThreadPoolConfigDiffBenchmarkTest {
+
+    private static final int POOL_COUNT = 500;
+
+    private static final int CHANGED_POOL_INDEX = 250;
+
+    private final BootstrapConfigProperties bootstrapConfigProperties = new BootstrapConfigProperties();
+
+    private String lastContentMd5;
+
+    private Map<Object, Object> lastConfigInfo;
+
+    private String content;
+
+    @Setup
+    public void setup() throws Exception {
+        String lastContent = buildContent(-1);
+        lastContentMd5 = Md5Util.md5Hex(lastContent, "UTF-8");
+        lastConfigInfo = ConfigParserHandler.getInstance().parseConfig(lastContent, ConfigFileTypeEnum.YML);
+        content = buildContent(CHANGED_POOL_INDEX);
+    }
+
+    @Benchmark
+    public void fullRefresh(Blackhole blackhole) throws Exception {
+        Map<Object, Object> configInfo = ConfigParserHandler.getInstance().parseConfig(content, ConfigFileTypeEnum.YML);
+        Binder binder = new Binder(new MapConfigurationPropertySource(configInfo));
+        BootstrapConfigProperties properties = binder.bind(BootstrapConfigProperties.PREFIX, Bindable.ofInstance(bootstrapConfigProperties)).get();
+        blackhole.consume(properties.getExecutors().get(CHANGED_POOL_INDEX));
+    }
+
+    @Benchmark
+    public void diffRefresh(Blackhole blackhole) throws Exception {
+        Map<Object, Object> configInfo = ConfigParserHandler.getInstance().parseConfig(content, ConfigFileTypeEnum.YML);
+        ThreadPoolConfigDiff diff = ThreadPoolConfigDiff.diff(lastConfigInfo, configInfo);
+        for (Map.Entry<Integer, Map<Object, Object>> entry : diff.getChangedExecutors().entrySet()) {
+            Binder binder = new Binder(new MapConfigurationPropertySource(entry.getValue()));
+            String prefix = BootstrapConfigProperties.PREFIX + ".executors[" + entry.getKey() + "]";
+            blackhole.consume(binder.bind(prefix, Bindable.of(ExecutorProperties.class)).get());
+        }
+    }
+
+    @Benchmark
+    public void unchangedPush(Blackhole blackhole) {
+        blackhole.consume(Md5Util.md5Hex(content, "UTF-8").equals(lastContentMd5));
+    }
+
+    private String buildContent(int changedPoolIndex) {
+        StringBuilder builder = new StringBuilder()
+                .append("spring:\n")
+                .append("  application:\n")
+                .append("    name: benchmark\n")
+                .append("  dynamic:\n")
+                .append("    thread-pool:\n")
+                .append("      enable: true\n")
+                .append("      config-file-type: yml\n")
+                .append("      executors:\n");
+        for (int i = 0; i < POOL_COUNT; i++) {
+            builder.append("        - thread-pool-id: benchmark-pool-").append(i).append('\n')
+                    .append("          core-pool-size: ").append(i == changedPoolIndex ? 4 : 2).append('\n')
+                    .append("          maximum-pool-size: 8\n")
+                    .append("          queue-capacity: 1024\n")
+                    .append("          blocking-queue: ResizableCapacityLinkedBlockingQueue\n")
+                    .append("          rejected-handler: AbortPolicy\n")
+                    .append("          keep-alive-time: 60\n")
+                    .append("          execute-time-out: 1000\n")
+                    .append("          allow-core-thread-time-out: false\n")
+                    .append("          alarm: true\n")
+                    .append("          active-alarm: 80\n")
+                    .append("          capacity-alarm: 80\n")
+                    .append("          notify:\n")
+                    .append("            receives: someone\n")
+                    .append("            interval: 5\n");
+        }
+        return builder.toString();
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options opts = new OptionsBuilder()
+                .include(ThreadPoolConfigDiffBenchmarkTest.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(opts).run();
+    }
+}
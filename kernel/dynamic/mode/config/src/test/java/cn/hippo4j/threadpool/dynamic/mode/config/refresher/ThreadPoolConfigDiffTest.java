@@ -0,0 +1,105 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.hippo4j.threadpool.dynamic.mode.config.refresher;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * test for {@link ThreadPoolConfigDiff}
+ */
+public class ThreadPoolConfigDiffTest {
+
+    @Test
+    public void testFullChangedWithoutBefore() {
+        ThreadPoolConfigDiff diff = ThreadPoolConfigDiff.diff(null, config(2));
+        Assert.assertTrue(diff.isChanged());
+        Assert.assertTrue(diff.isFullChanged());
+    }
+
+    @Test
+    public void testUnrelatedChange() {
+        Map<Object, Object> after = config(2);
+        after.put("spring.application.name", "changed");
+        after.put("server.port", "8081");
+        ThreadPoolConfigDiff diff = ThreadPoolConfigDiff.diff(config(2), after);
+        Assert.assertFalse(diff.isChanged());
+        Assert.assertFalse(diff.isFullChanged());
+    }
+
+    @Test
+    public void testExecutorChanged() {
+        Map<Object, Object> after = config(3);
+        after.put("spring.dynamic.thread-pool.executors[1].core-pool-size", "5");
+        ThreadPoolConfigDiff diff = ThreadPoolConfigDiff.diff(config(3), after);
+        Assert.assertTrue(diff.isChanged());
+        Assert.assertFalse(diff.isFullChanged());
+        Assert.assertEquals(1, diff.getChangedExecutors().size());
+        Map<Object, Object> executorConfig = diff.getChangedExecutors().get(1);
+        Assert.assertEquals(3, executorConfig.size());
+        Assert.assertEquals("5", executorConfig.get("spring.dynamic.thread-pool.executors[1].core-pool-size"));
+    }
+
+    @Test
+    public void testRelaxedExecutorKeyChanged() {
+        Map<Object, Object> before = config(2);
+        before.put("spring.dynamic.threadPool.executors[0].executeTimeOut", "100");
+        Map<Object, Object> after = config(2);
+        after.put("spring.dynamic.threadPool.executors[0].executeTimeOut", "200");
+        ThreadPoolConfigDiff diff = ThreadPoolConfigDiff.diff(before, after);
+        Assert.assertFalse(diff.isFullChanged());
+        Assert.assertEquals(4, diff.getChangedExecutors().get(0).size());
+    }
+
+    @Test
+    public void testExecutorPropertyAdded() {
+        Map<Object, Object> after = config(2);
+        after.put("spring.dynamic.thread-pool.executors[0].keep-alive-time", "60");
+        ThreadPoolConfigDiff diff = ThreadPoolConfigDiff.diff(config(2), after);
+        Assert.assertFalse(diff.isFullChanged());
+        Assert.assertEquals(1, diff.getChangedExecutors().size());
+    }
+
+    @Test
+    public void testExecutorAddedOrRemoved() {
+        Assert.assertTrue(ThreadPoolConfigDiff.diff(config(2), config(3)).isFullChanged());
+        Assert.assertTrue(ThreadPoolConfigDiff.diff(config(3), config(2)).isFullChanged());
+    }
+
+    @Test
+    public void testGlobalChanged() {
+        Map<Object, Object> after = config(2);
+        after.put("spring.dynamic.thread-pool.check-state-interval", "10");
+        Assert.assertTrue(ThreadPoolConfigDiff.diff(config(2), after).isFullChanged());
+    }
+
+    private Map<Object, Object> config(int executorCount) {
+        Map<Object, Object> config = new HashMap<>();
+        config.put("spring.application.name", "example");
+        config.put("spring.dynamic.thread-pool.enable", "true");
+        for (int i = 0; i < executorCount; i++) {
+            config.put("spring.dynamic.thread-pool.executors[" + i + "].thread-pool-id", "pool-" + i);
+            config.put("spring.dynamic.thread-pool.executors[" + i + "].core-pool-size", "1");
+            config.put("spring.dynamic.thread-pool.executors[" + i + "].maximum-pool-size", "10");
+        }
+        return config;
+    }
+}
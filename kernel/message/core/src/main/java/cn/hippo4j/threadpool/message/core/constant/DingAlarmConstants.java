@@ -50,4 +50,20 @@ public class DingAlarmConstants {
                     + "<font color=#708090 size=2>超时时间：%d / ms</font> \n\n "
                     + DING_ALARM_TIMEOUT_TRACE_REPLACE_TXT
                     + " --- \n\n ";
+
+    /**
+     * Replace alarm count template
+     */
+    public static final String DING_ALARM_COUNT_REPLACE_TXT =
+            "<font color=#708090 size=2>告警次数：</font><font color=#FF0000 size=2>%s</font> \n\n "
+                    + "<font color=#708090 size=2>告警频率：%s / s</font> \n\n "
+                    + " --- \n\n ";
+
+    /**
+     * Replace task queue timeout template
+     */
+    public static final String DING_ALARM_QUEUE_TIMEOUT_REPLACE_TXT =
+            "<font color=#708090 size=2>任务排队时间：%d / ms </font> \n\n "
+                    + "<font color=#708090 size=2>排队超时时间：%d / ms</font> \n\n "
+                    + " --- \n\n ";
 }
@@ -39,4 +39,18 @@ public class WeChatAlarmConstants {
             "\n> 任务执行时间：%s / ms \n"
                     + "> 超时时间：%s / ms "
                     + WE_CHAT_ALARM_TIMOUT_TRACE_REPLACE_TXT;
+
+    /**
+     * Replace alarm count template
+     */
+    public static final String WE_CHAT_ALARM_COUNT_REPLACE_TXT =
+            "\n> 告警次数：<font color='#FF0000'>%s</font> \n"
+                    + "> 告警频率：%s / s ";
+
+    /**
+     * Replace task queue timeout template
+     */
+    public static final String WE_CHAT_ALARM_QUEUE_TIMOUT_REPLACE_TXT =
+            "\n> 任务排队时间：%s / ms \n"
+                    + "> 排队超时时间：%s / ms ";
 }
@@ -61,6 +61,8 @@ public class DingSendMessageHandler extends AbstractRobotSendMessageHandler {
                 .changeSeparator(" -> ")
                 .replaceTxt(DingAlarmConstants.DING_ALARM_TIMEOUT_REPLACE_TXT)
                 .traceReplaceTxt(DingAlarmConstants.DING_ALARM_TIMEOUT_TRACE_REPLACE_TXT)
+                .alarmCountReplaceTxt(DingAlarmConstants.DING_ALARM_COUNT_REPLACE_TXT)
+                .queueTimeoutReplaceTxt(DingAlarmConstants.DING_ALARM_QUEUE_TIMEOUT_REPLACE_TXT)
                 .alarmMessageContent(Singleton.get(dingAlarmTxtKey, () -> readUtf8String(dingAlarmTxtKey)))
                 .configMessageContent(Singleton.get(dingConfigTxtKey, () -> readUtf8String(dingConfigTxtKey)))
                 .build();
@@ -79,10 +79,21 @@ public class LarkSendMessageHandler implements SendMessageHandler {
             }
             larkAlarmTimeoutReplaceTxt = String.format(larkAlarmTimeoutReplaceTxt, alarmNotifyRequest.getExecuteTime(), alarmNotifyRequest.getExecuteTimeOut());
             larkAlarmTxt = StringUtil.replace(larkAlarmTxt, larkAlarmTimeoutReplaceJson, larkAlarmTimeoutReplaceTxt);
+        } else if (Objects.equals(alarmNotifyRequest.getNotifyTypeEnum(), NotifyTypeEnum.QUEUE_TIMEOUT)) {
+            String larkAlarmQueueTimeoutReplaceJsonKey = "message/robot/dynamic-thread-pool/lark-alarm-queue-timeout-replace.json";
+            String larkAlarmQueueTimeoutReplaceJson = Singleton.get(larkAlarmQueueTimeoutReplaceJsonKey, () -> readUtf8String(larkAlarmQueueTimeoutReplaceJsonKey));
+            larkAlarmTimeoutReplaceTxt = String.format(larkAlarmQueueTimeoutReplaceJson, alarmNotifyRequest.getQueueTime(), alarmNotifyRequest.getQueueTimeOut());
+            larkAlarmTxt = StringUtil.replace(larkAlarmTxt, larkAlarmTimeoutReplaceJson, larkAlarmTimeoutReplaceTxt);
         } else {
             larkAlarmTxt = StringUtil.replace(larkAlarmTxt, larkAlarmTimeoutReplaceJson, "");
         }
 
+        String larkAlarmCountReplaceJsonKey = "message/robot/dynamic-thread-pool/lark-alarm-count-replace.json";
+        String larkAlarmCountReplaceJson = Singleton.get(larkAlarmCountReplaceJsonKey, () -> readUtf8String(larkAlarmCountReplaceJsonKey));
+        String larkAlarmCountReplaceTxt = alarmNotifyRequest.getAlarmCount() == null ? ""
+                : String.format(larkAlarmCountReplaceJson, alarmNotifyRequest.getAlarmCount(), alarmNotifyRequest.getAlarmRate());
+        larkAlarmTxt = StringUtil.replace(larkAlarmTxt, larkAlarmCountReplaceJson, larkAlarmCountReplaceTxt);
+
         String timestamp = String.valueOf(System.currentTimeMillis()).substring(0, 10);
         String sign = "";
         if (notifyConfig.getSecret() != null) {
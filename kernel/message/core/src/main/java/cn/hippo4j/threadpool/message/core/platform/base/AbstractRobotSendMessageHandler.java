@@ -69,10 +69,17 @@ public abstract class AbstractRobotSendMessageHandler implements SendMessageHand
                 alarmTimoutReplaceTxt = StringUtil.replace(replaceTxt, traceReplaceTxt, "");
             }
             replaceTxt = String.format(alarmTimoutReplaceTxt, alarmNotifyRequest.getExecuteTime(), alarmNotifyRequest.getExecuteTimeOut());
+        } else if (Objects.equals(alarmNotifyRequest.getNotifyTypeEnum(), NotifyTypeEnum.QUEUE_TIMEOUT)) {
+            replaceTxt = String.format(robotMessageActualContent.getQueueTimeoutReplaceTxt(), alarmNotifyRequest.getQueueTime(), alarmNotifyRequest.getQueueTimeOut());
         } else {
             replaceTxt = "";
         }
         alarmContentTxt = StringUtil.replace(alarmContentTxt, "${timeout-content}", replaceTxt);
+        String alarmCountReplaceTxt = "";
+        if (alarmNotifyRequest.getAlarmCount() != null && robotMessageActualContent.getAlarmCountReplaceTxt() != null) {
+            alarmCountReplaceTxt = String.format(robotMessageActualContent.getAlarmCountReplaceTxt(), alarmNotifyRequest.getAlarmCount(), alarmNotifyRequest.getAlarmRate());
+        }
+        alarmContentTxt = StringUtil.replace(alarmContentTxt, "${alarm-count-content}", alarmCountReplaceTxt);
         String text = String.format(
                 alarmContentTxt,
                 alarmNotifyRequest.getActive(),
@@ -46,6 +46,16 @@ public class RobotMessageActualContent {
      */
     private String replaceTxt;
 
+    /**
+     * Queue timeout replace txt
+     */
+    private String queueTimeoutReplaceTxt;
+
+    /**
+     * Alarm count replace txt
+     */
+    private String alarmCountReplaceTxt;
+
     /**
      * Trace replace txt
      */
@@ -134,4 +134,24 @@ public class AlarmNotifyRequest extends BaseNotifyRequest {
      * Execute timeout trace
      */
     private String executeTimeoutTrace;
+
+    /**
+     * Queue time
+     */
+    private Long queueTime;
+
+    /**
+     * Queue timeout
+     */
+    private Long queueTimeOut;
+
+    /**
+     * Count of the alarms coalesced into this notification
+     */
+    private Long alarmCount;
+
+    /**
+     * Rate of the alarms coalesced into this notification, per second
+     */
+    private Double alarmRate;
 }
@@ -18,24 +18,19 @@
 package cn.hippo4j.threadpool.message.core.service;
 
 import cn.hippo4j.common.constant.Constants;
-import cn.hippo4j.common.toolkit.StringUtil;
 import cn.hippo4j.threadpool.message.api.AlarmControlDTO;
 import com.github.benmanes.caffeine.cache.Cache;
 import com.github.benmanes.caffeine.cache.Caffeine;
 
-import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * Alarm control assembly.
  */
 public class AlarmControlHandler {
 
-    private final Map<String, ReentrantLock> threadPoolLock = new HashMap<>();
-
     private final Map<String, Cache<String, String>> threadPoolAlarmCache = new ConcurrentHashMap<>();
 
     /**
@@ -45,26 +40,23 @@ public class AlarmControlHandler {
      * @return is it possible to send
      */
     public boolean isSendAlarm(AlarmControlDTO alarmControl) {
-        String threadPoolKey = alarmControl.buildPk();
-        Cache<String, String> cache = threadPoolAlarmCache.get(threadPoolKey);
+        Cache<String, String> cache = threadPoolAlarmCache.get(alarmControl.buildPk());
         if (cache == null) {
             return false;
         }
-        String pkId = cache.getIfPresent(alarmControl.getTypeEnum().name());
-        if (StringUtil.isBlank(pkId)) {
-            ReentrantLock lock = threadPoolLock.get(threadPoolKey);
-            lock.lock();
-            try {
-                pkId = cache.getIfPresent(alarmControl.getTypeEnum().name());
-                if (StringUtil.isBlank(pkId)) {
-                    cache.put(alarmControl.getTypeEnum().name(), "-");
-                    return true;
-                }
-            } finally {
-                lock.unlock();
-            }
-        }
-        return false;
+        // Only the caller which puts the mark first in the interval is allowed to send.
+        return cache.asMap().putIfAbsent(alarmControl.getTypeEnum().name(), "-") == null;
+    }
+
+    /**
+     * Check whether the alarm is silenced in the current interval, without marking it as sent.
+     *
+     * @param alarmControl alarm control
+     * @return true if the alarm is not allowed to be sent now
+     */
+    public boolean isAlarmSilenced(AlarmControlDTO alarmControl) {
+        Cache<String, String> cache = threadPoolAlarmCache.get(alarmControl.buildPk());
+        return cache == null || cache.getIfPresent(alarmControl.getTypeEnum().name()) != null;
     }
 
     /**
@@ -80,8 +72,5 @@ public class AlarmControlHandler {
                 .expireAfterWrite(interval, TimeUnit.MINUTES)
                 .build();
         threadPoolAlarmCache.put(threadPoolKey, cache);
-        // Set the lock to prevent false sending of alarm information.
-        ReentrantLock reentrantLock = new ReentrantLock();
-        threadPoolLock.put(threadPoolKey, reentrantLock);
     }
 }
@@ -72,6 +72,25 @@ public class ThreadPoolBaseSendMessageService implements ThreadPoolSendMessageSe
         });
     }
 
+    @Override
+    public boolean isAlarmSilenced(String threadPoolId, NotifyTypeEnum typeEnum) {
+        List<NotifyConfigDTO> notifyList = notifyConfigs.get(generateAlarmKey(threadPoolId));
+        if (CollectionUtil.isEmpty(notifyList)) {
+            return true;
+        }
+        for (NotifyConfigDTO each : notifyList) {
+            AlarmControlDTO alarmControl = AlarmControlDTO.builder()
+                    .threadPool(each.getTpId())
+                    .platform(each.getPlatform())
+                    .typeEnum(typeEnum)
+                    .build();
+            if (sendMessageHandlers.containsKey(each.getPlatform()) && !alarmControlHandler.isAlarmSilenced(alarmControl)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     @Override
     public void sendChangeMessage(ChangeParameterNotifyRequest changeParameterNotifyRequest) {
         String threadPoolId = changeParameterNotifyRequest.getThreadPoolId();
@@ -35,6 +35,18 @@ public interface ThreadPoolSendMessageService {
      */
     void sendAlarmMessage(NotifyTypeEnum typeEnum, AlarmNotifyRequest alarmNotifyRequest);
 
+    /**
+     * Check whether the alarm of thread pool is silenced in the current interval,
+     * the alarms which are silenced can be accumulated and carried by the next alarm.
+     *
+     * @param threadPoolId thread-pool id
+     * @param typeEnum     type enum
+     * @return true if no platform of the thread pool is allowed to send the alarm now
+     */
+    default boolean isAlarmSilenced(String threadPoolId, NotifyTypeEnum typeEnum) {
+        return false;
+    }
+
     /**
      * Send dynamic thread pool parameter change notification.
      *
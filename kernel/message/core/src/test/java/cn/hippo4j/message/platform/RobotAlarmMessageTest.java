@@ -0,0 +1,110 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.hippo4j.message.platform;
+
+import cn.hippo4j.threadpool.message.api.NotifyConfigDTO;
+import cn.hippo4j.threadpool.message.api.NotifyTypeEnum;
+import cn.hippo4j.threadpool.message.core.platform.DingSendMessageHandler;
+import cn.hippo4j.threadpool.message.core.platform.WeChatSendMessageHandler;
+import cn.hippo4j.threadpool.message.core.platform.base.AbstractRobotSendMessageHandler;
+import cn.hippo4j.threadpool.message.core.platform.base.RobotMessageExecuteDTO;
+import cn.hippo4j.threadpool.message.core.request.AlarmNotifyRequest;
+import cn.hippo4j.threadpool.message.core.service.SendMessageHandler;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+public final class RobotAlarmMessageTest {
+
+    @Test
+    public void assertDingAlarmCount() {
+        AtomicReference<String> text = new AtomicReference<>();
+        AbstractRobotSendMessageHandler handler = new DingSendMessageHandler() {
+
+            @Override
+            protected void execute(RobotMessageExecuteDTO robotMessageExecuteDTO) {
+                text.set(robotMessageExecuteDTO.getText());
+            }
+        };
+        handler.sendAlarmMessage(notifyConfig(), alarmNotifyRequest(12L, 2.4D));
+        Assert.assertTrue(text.get().contains("告警次数：</font><font color=#FF0000 size=2>12</font>"));
+        Assert.assertTrue(text.get().contains("告警频率：2.4 / s"));
+        Assert.assertFalse(text.get().contains("${alarm-count-content}"));
+        handler.sendAlarmMessage(notifyConfig(), alarmNotifyRequest(null, null));
+        Assert.assertFalse(text.get().contains("告警次数"));
+        Assert.assertFalse(text.get().contains("${alarm-count-content}"));
+    }
+
+    @Test
+    public void assertWeChatAlarmCount() {
+        AtomicReference<String> text = new AtomicReference<>();
+        AbstractRobotSendMessageHandler handler = new WeChatSendMessageHandler() {
+
+            @Override
+            protected void execute(RobotMessageExecuteDTO robotMessageExecuteDTO) {
+                text.set(robotMessageExecuteDTO.getText());
+            }
+        };
+        handler.sendAlarmMessage(notifyConfig(), alarmNotifyRequest(12L, 2.4D));
+        Assert.assertTrue(text.get().contains("> 告警次数：<font color='#FF0000'>12</font>"));
+        Assert.assertTrue(text.get().contains("> 告警频率：2.4 / s"));
+        handler.sendAlarmMessage(notifyConfig(), alarmNotifyRequest(null, null));
+        Assert.assertFalse(text.get().contains("告警次数"));
+        Assert.assertFalse(text.get().contains("${alarm-count-content}"));
+    }
+
+    @Test
+    public void assertLarkAlarmCountTemplate() {
+        SendMessageHandler reader = new DingSendMessageHandler();
+        String larkAlarm = reader.readUtf8String("message/robot/dynamic-thread-pool/lark-alarm.json");
+        String larkAlarmCount = reader.readUtf8String("message/robot/dynamic-thread-pool/lark-alarm-count-replace.json");
+        // the count block is replaced as a whole, so it must be contained in the template verbatim
+        Assert.assertTrue(larkAlarm.contains(larkAlarmCount));
+        Assert.assertTrue(String.format(larkAlarmCount, 12L, 2.4D).contains("** 告警频率：** 2.4 / s"));
+    }
+
+    private static NotifyConfigDTO notifyConfig() {
+        return new NotifyConfigDTO().setType("ALARM").setReceives("hippo4j").setInterval(5);
+    }
+
+    private static AlarmNotifyRequest alarmNotifyRequest(Long alarmCount, Double alarmRate) {
+        AlarmNotifyRequest request = AlarmNotifyRequest.builder()
+                .active("TEST")
+                .appName("hippo4j")
+                .identify("127.0.0.1:8080")
+                .corePoolSize(1)
+                .maximumPoolSize(2)
+                .poolSize(1)
+                .activeCount(1)
+                .largestPoolSize(1)
+                .completedTaskCount(1L)
+                .queueName("LinkedBlockingQueue")
+                .capacity(10)
+                .queueSize(1)
+                .remainingCapacity(9)
+                .rejectedExecutionHandlerName("AbortPolicy")
+                .rejectCountNum(12L)
+                .alarmCount(alarmCount)
+                .alarmRate(alarmRate)
+                .build();
+        request.setThreadPoolId("message-produce");
+        request.setNotifyTypeEnum(NotifyTypeEnum.REJECT);
+        return request;
+    }
+}
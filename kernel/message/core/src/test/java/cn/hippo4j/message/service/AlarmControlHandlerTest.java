@@ -39,4 +39,26 @@ public final class AlarmControlHandlerTest {
         alarmControlHandler.initCacheAndLock("1", "Wechat", 1);
         Assert.assertTrue(alarmControlHandler.isSendAlarm(alarmControlDTO));
     }
+
+    @Test
+    public void assertIsSendAlarmOnlyOnceInInterval() {
+        AlarmControlHandler alarmControlHandler = new AlarmControlHandler();
+        AlarmControlDTO alarmControlDTO = new AlarmControlDTO("1", "Wechat", NotifyTypeEnum.REJECT);
+        alarmControlHandler.initCacheAndLock("1", "Wechat", 1);
+        Assert.assertTrue(alarmControlHandler.isSendAlarm(alarmControlDTO));
+        Assert.assertFalse(alarmControlHandler.isSendAlarm(alarmControlDTO));
+        Assert.assertTrue(alarmControlHandler.isSendAlarm(new AlarmControlDTO("1", "Wechat", NotifyTypeEnum.TIMEOUT)));
+    }
+
+    @Test
+    public void assertIsAlarmSilenced() {
+        AlarmControlHandler alarmControlHandler = new AlarmControlHandler();
+        AlarmControlDTO alarmControlDTO = new AlarmControlDTO("1", "Wechat", NotifyTypeEnum.REJECT);
+        Assert.assertTrue(alarmControlHandler.isAlarmSilenced(alarmControlDTO));
+        alarmControlHandler.initCacheAndLock("1", "Wechat", 1);
+        Assert.assertFalse(alarmControlHandler.isAlarmSilenced(alarmControlDTO));
+        Assert.assertFalse(alarmControlHandler.isAlarmSilenced(alarmControlDTO));
+        Assert.assertTrue(alarmControlHandler.isSendAlarm(alarmControlDTO));
+        Assert.assertTrue(alarmControlHandler.isAlarmSilenced(alarmControlDTO));
+    }
 }
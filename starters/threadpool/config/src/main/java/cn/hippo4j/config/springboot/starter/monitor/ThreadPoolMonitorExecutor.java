@@ -20,6 +20,7 @@ package cn.hippo4j.config.springboot.starter.monitor;
 import cn.hippo4j.common.executor.ThreadFactoryBuilder;
 import cn.hippo4j.common.executor.ThreadPoolExecutorRegistry;
 import cn.hippo4j.common.extension.spi.ServiceLoaderRegistry;
+import cn.hippo4j.common.support.LatencyHistogramPublisher;
 import cn.hippo4j.common.toolkit.StringUtil;
 import cn.hippo4j.core.config.ApplicationContextHolder;
 import cn.hippo4j.threadpool.dynamic.mode.config.properties.BootstrapConfigProperties;
@@ -88,6 +89,8 @@ public class ThreadPoolMonitorExecutor implements ApplicationRunner, DisposableB
     }
 
     private void scheduleRunnable() {
+        // The monitor tick is the only owner of the collect interval of latency histograms.
+        LatencyHistogramPublisher.publish();
         for (ThreadPoolMonitor each : threadPoolMonitors) {
             try {
                 each.collect();
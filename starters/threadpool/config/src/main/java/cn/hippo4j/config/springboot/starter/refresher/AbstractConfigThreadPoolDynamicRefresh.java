@@ -17,7 +17,10 @@
 
 package cn.hippo4j.config.springboot.starter.refresher;
 
+import cn.hippo4j.common.model.executor.ExecutorProperties;
 import cn.hippo4j.common.toolkit.CollectionUtil;
+import cn.hippo4j.common.toolkit.Md5Util;
+import cn.hippo4j.config.springboot.starter.refresher.event.DynamicThreadPoolRefreshListener;
 import cn.hippo4j.config.springboot.starter.refresher.event.ThreadPoolConfigDynamicRefreshEvent;
 import cn.hippo4j.core.config.ApplicationContextHolder;
 import cn.hippo4j.core.executor.support.ThreadPoolBuilder;
@@ -26,13 +29,18 @@ import cn.hippo4j.threadpool.dynamic.api.ThreadPoolDynamicRefresh;
 import cn.hippo4j.threadpool.dynamic.mode.config.parser.ConfigParserHandler;
 import cn.hippo4j.threadpool.dynamic.mode.config.properties.BootstrapConfigProperties;
 import cn.hippo4j.threadpool.dynamic.mode.config.refresher.BootstrapConfigPropertiesBinderAdapter;
+import cn.hippo4j.threadpool.dynamic.mode.config.refresher.ThreadPoolConfigDiff;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.InitializingBean;
 import org.springframework.boot.ApplicationArguments;
 import org.springframework.boot.ApplicationRunner;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.concurrent.ExecutorService;
 
@@ -47,6 +55,16 @@ public abstract class AbstractConfigThreadPoolDynamicRefresh implements ThreadPo
 
     protected final ExecutorService dynamicRefreshExecutorService = ThreadPoolBuilder.builder().singlePool("client.dynamic.refresh").build();
 
+    /**
+     * Md5 of the last refreshed config content
+     */
+    private String lastConfigContentMd5;
+
+    /**
+     * The last refreshed config
+     */
+    private Map<Object, Object> lastConfigInfo;
+
     public AbstractConfigThreadPoolDynamicRefresh() {
         bootstrapConfigProperties = ApplicationContextHolder.getBean(BootstrapPropertiesInterface.class);
         bootstrapConfigPropertiesBinderAdapter = ApplicationContextHolder.getBean(BootstrapConfigPropertiesBinderAdapter.class);
@@ -57,23 +75,98 @@ public abstract class AbstractConfigThreadPoolDynamicRefresh implements ThreadPo
         dynamicRefresh(configContent, new HashMap<>());
     }
 
+    /**
+     * Refresh the dynamic thread-pools with the pushed config.
+     * The push is skipped if the content is the same as the last one, or the thread-pool config is unchanged,
+     * otherwise only the changed executors are bound and refreshed if possible.
+     * A push with invalid pool sizes is rejected before it is bound, so it is not taken as the last config and can be corrected by the next push.
+     * Pushes are refreshed one by one, so that all changes of a push are applied as one batch.
+     *
+     * @param configContent     config content
+     * @param newValueChangeMap changed values
+     */
     @Override
-    public void dynamicRefresh(String configContent, Map<String, Object> newValueChangeMap) {
+    public synchronized void dynamicRefresh(String configContent, Map<String, Object> newValueChangeMap) {
         try {
+            String configContentMd5 = Md5Util.md5Hex(String.valueOf(configContent), "UTF-8");
+            if (CollectionUtil.isEmpty(newValueChangeMap) && Objects.equals(configContentMd5, lastConfigContentMd5)) {
+                return;
+            }
             BootstrapConfigProperties actualBootstrapConfigProperties = (BootstrapConfigProperties) bootstrapConfigProperties;
             Map<Object, Object> configInfo = ConfigParserHandler.getInstance().parseConfig(configContent, actualBootstrapConfigProperties.getConfigFileType());
             if (CollectionUtil.isNotEmpty(newValueChangeMap)) {
                 Optional.ofNullable(configInfo).ifPresent(each -> each.putAll(newValueChangeMap));
             }
-            BootstrapPropertiesInterface binderCoreProperties = bootstrapConfigPropertiesBinderAdapter.bootstrapCorePropertiesBinder(configInfo, bootstrapConfigProperties);
-            publishDynamicThreadPoolEvent((BootstrapConfigProperties) binderCoreProperties);
+            ThreadPoolConfigDiff configDiff = ThreadPoolConfigDiff.diff(lastConfigInfo, configInfo);
+            if (configDiff.isChanged()) {
+                List<ExecutorProperties> changedExecutors = bindChangedExecutors(configDiff, actualBootstrapConfigProperties);
+                // the push is validated before it is bound, a rejected push leaves the properties and the last config untouched
+                List<ExecutorProperties> pushedExecutors = changedExecutors != null
+                        ? changedExecutors
+                        : ((BootstrapConfigProperties) bootstrapConfigPropertiesBinderAdapter.bootstrapCorePropertiesBinder(configInfo, new BootstrapConfigProperties())).getExecutors();
+                if (!DynamicThreadPoolRefreshListener.checkPoolSize(Optional.ofNullable(pushedExecutors).orElse(Collections.emptyList()))) {
+                    return;
+                }
+                if (changedExecutors == null) {
+                    BootstrapPropertiesInterface binderCoreProperties = bootstrapConfigPropertiesBinderAdapter.bootstrapCorePropertiesBinder(configInfo, bootstrapConfigProperties);
+                    publishDynamicThreadPoolEvent((BootstrapConfigProperties) binderCoreProperties, null);
+                } else {
+                    replaceChangedExecutors(configDiff, actualBootstrapConfigProperties, changedExecutors);
+                    publishDynamicThreadPoolEvent(actualBootstrapConfigProperties, changedExecutors);
+                }
+            }
+            lastConfigContentMd5 = configContentMd5;
+            lastConfigInfo = configInfo;
         } catch (Exception ex) {
             log.error("Hippo4j config mode dynamic refresh failed.", ex);
         }
     }
 
-    private void publishDynamicThreadPoolEvent(BootstrapConfigProperties configProperties) {
-        ApplicationContextHolder.getInstance().publishEvent(new ThreadPoolConfigDynamicRefreshEvent(this, configProperties));
+    /**
+     * Bind the changed executors without replacing them in the bootstrap config properties.
+     *
+     * @param configDiff       config diff
+     * @param configProperties bootstrap config properties
+     * @return the changed executors, or null if the whole bootstrap config properties should be bound
+     */
+    private List<ExecutorProperties> bindChangedExecutors(ThreadPoolConfigDiff configDiff, BootstrapConfigProperties configProperties) {
+        List<ExecutorProperties> executors = configProperties.getExecutors();
+        if (configDiff.isFullChanged() || executors == null) {
+            return null;
+        }
+        Map<Integer, Map<Object, Object>> changedExecutorConfigs = configDiff.getChangedExecutors();
+        List<ExecutorProperties> changedExecutors = new ArrayList<>(changedExecutorConfigs.size());
+        for (Map.Entry<Integer, Map<Object, Object>> entry : changedExecutorConfigs.entrySet()) {
+            if (entry.getKey() >= executors.size()) {
+                return null;
+            }
+            String prefix = BootstrapConfigProperties.PREFIX + ".executors[" + entry.getKey() + "]";
+            ExecutorProperties executorProperties = bootstrapConfigPropertiesBinderAdapter.executorPropertiesBinder(entry.getValue(), prefix);
+            if (executorProperties == null) {
+                return null;
+            }
+            changedExecutors.add(executorProperties);
+        }
+        return changedExecutors;
+    }
+
+    /**
+     * Replace the changed executors in the bootstrap config properties.
+     *
+     * @param configDiff       config diff
+     * @param configProperties bootstrap config properties
+     * @param changedExecutors the changed executors bound by {@link #bindChangedExecutors}
+     */
+    private void replaceChangedExecutors(ThreadPoolConfigDiff configDiff, BootstrapConfigProperties configProperties, List<ExecutorProperties> changedExecutors) {
+        List<ExecutorProperties> executors = configProperties.getExecutors();
+        int i = 0;
+        for (Integer each : configDiff.getChangedExecutors().keySet()) {
+            executors.set(each, changedExecutors.get(i++));
+        }
+    }
+
+    private void publishDynamicThreadPoolEvent(BootstrapConfigProperties configProperties, List<ExecutorProperties> changedExecutors) {
+        ApplicationContextHolder.getInstance().publishEvent(new ThreadPoolConfigDynamicRefreshEvent(this, configProperties, changedExecutors));
     }
 
     @Override
@@ -88,7 +181,7 @@ public abstract class AbstractConfigThreadPoolDynamicRefresh implements ThreadPo
     @Override
     public void run(ApplicationArguments args) {
         try {
-            publishDynamicThreadPoolEvent((BootstrapConfigProperties) bootstrapConfigProperties);
+            publishDynamicThreadPoolEvent((BootstrapConfigProperties) bootstrapConfigProperties, null);
         } catch (Exception ex) {
             log.error("Hippo4j failed to initialize update configuration.", ex);
         }
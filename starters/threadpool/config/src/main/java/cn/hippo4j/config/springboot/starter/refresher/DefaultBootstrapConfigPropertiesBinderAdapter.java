@@ -17,6 +17,7 @@
 
 package cn.hippo4j.config.springboot.starter.refresher;
 
+import cn.hippo4j.common.model.executor.ExecutorProperties;
 import cn.hippo4j.threadpool.dynamic.mode.config.properties.BootstrapConfigProperties;
 import cn.hippo4j.threadpool.dynamic.api.BootstrapPropertiesInterface;
 import cn.hippo4j.threadpool.dynamic.mode.config.refresher.BootstrapConfigPropertiesBinderAdapter;
@@ -45,4 +46,11 @@ public class DefaultBootstrapConfigPropertiesBinderAdapter implements BootstrapC
         Binder binder = new Binder(sources);
         return binder.bind(BootstrapConfigProperties.PREFIX, Bindable.ofInstance(bootstrapConfigProperties)).get();
     }
+
+    @Override
+    public ExecutorProperties executorPropertiesBinder(Map<Object, Object> configInfo, String prefix) {
+        ConfigurationPropertySource sources = new MapConfigurationPropertySource(configInfo);
+        Binder binder = new Binder(sources);
+        return binder.bind(prefix, Bindable.of(ExecutorProperties.class)).orElse(null);
+    }
 }
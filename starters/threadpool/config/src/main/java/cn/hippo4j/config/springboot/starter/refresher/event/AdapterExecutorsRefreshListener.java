@@ -53,6 +53,9 @@ public class AdapterExecutorsRefreshListener extends AbstractRefreshListener<Ada
 
     @Override
     public void onApplicationEvent(ThreadPoolConfigDynamicRefreshEvent event) {
+        if (event.isExecutorsChangedOnly()) {
+            return;
+        }
         List<AdapterExecutorProperties> adapterExecutors = event.getBootstrapConfigProperties().getAdapterExecutors();
         Map<String, ThreadPoolAdapter> threadPoolAdapterMap = ApplicationContextHolder.getBeansOfType(ThreadPoolAdapter.class);
         if (CollectionUtil.isEmpty(adapterExecutors) || CollectionUtil.isEmpty(threadPoolAdapterMap)) {
@@ -20,15 +20,15 @@ package cn.hippo4j.config.springboot.starter.refresher.event;
 import cn.hippo4j.common.api.ThreadPoolConfigChange;
 import cn.hippo4j.common.executor.ThreadPoolExecutorHolder;
 import cn.hippo4j.common.executor.ThreadPoolExecutorRegistry;
-import cn.hippo4j.common.executor.support.BlockingQueueTypeEnum;
 import cn.hippo4j.common.executor.support.RejectedPolicyTypeEnum;
-import cn.hippo4j.common.executor.support.ResizableCapacityLinkedBlockingQueue;
+import cn.hippo4j.common.executor.support.ResizableCapacityBlockingQueue;
 import cn.hippo4j.common.model.executor.ExecutorProperties;
 import cn.hippo4j.common.toolkit.CollectionUtil;
 import cn.hippo4j.common.toolkit.ThreadPoolExecutorUtil;
 import cn.hippo4j.config.springboot.starter.notify.ConfigModeNotifyConfigBuilder;
 import cn.hippo4j.core.executor.DynamicThreadPoolExecutor;
-import cn.hippo4j.threadpool.dynamic.mode.config.properties.BootstrapConfigProperties;
+import cn.hippo4j.core.executor.plugin.manager.AdaptiveTuningPluginRegistrar;
+import cn.hippo4j.core.executor.plugin.manager.ThreadPoolPluginSupport;
 import cn.hippo4j.threadpool.message.api.NotifyConfigDTO;
 import cn.hippo4j.threadpool.message.core.request.ChangeParameterNotifyRequest;
 import cn.hippo4j.threadpool.message.core.service.GlobalNotifyAlarmManage;
@@ -72,13 +72,17 @@ public class DynamicThreadPoolRefreshListener extends AbstractRefreshListener<Ex
 
     @Override
     public void onApplicationEvent(ThreadPoolConfigDynamicRefreshEvent event) {
-        BootstrapConfigProperties bindableConfigProperties = event.getBootstrapConfigProperties();
-        List<ExecutorProperties> executors = bindableConfigProperties.getExecutors();
+        List<ExecutorProperties> executors = new ArrayList<>();
+        for (ExecutorProperties properties : event.getChangedExecutors()) {
+            if (match(properties)) {
+                executors.add(properties);
+            }
+        }
+        if (!checkPoolSize(executors)) {
+            return;
+        }
         for (ExecutorProperties properties : executors) {
             String threadPoolId = properties.getThreadPoolId();
-            if (!match(properties)) {
-                continue;
-            }
             /*
              * Check whether the notification configuration is consistent, this operation will not trigger the notification.
              */
@@ -108,6 +112,30 @@ public class DynamicThreadPoolRefreshListener extends AbstractRefreshListener<Ex
         }
     }
 
+    /**
+     * Check the pool size of all changed executors before any of them is refreshed,
+     * so that the changes of a config push are applied as a whole or not at all.
+     *
+     * @param executors changed executors
+     * @return true if the pool size of all changed executors is valid
+     */
+    public static boolean checkPoolSize(List<ExecutorProperties> executors) {
+        for (ExecutorProperties properties : executors) {
+            ExecutorProperties beforeProperties = ThreadPoolExecutorRegistry.getHolder(properties.getThreadPoolId()).getExecutorProperties();
+            if (beforeProperties == null) {
+                continue;
+            }
+            Integer corePoolSize = Optional.ofNullable(properties.getCorePoolSize()).orElse(beforeProperties.getCorePoolSize());
+            Integer maximumPoolSize = Optional.ofNullable(properties.getMaximumPoolSize()).orElse(beforeProperties.getMaximumPoolSize());
+            if (corePoolSize != null && maximumPoolSize != null && corePoolSize > maximumPoolSize) {
+                log.error("[{}] Dynamic thread pool refresh is rejected, corePoolSize: {} is greater than maximumPoolSize: {}, none of the {} changed thread pools is refreshed.",
+                        properties.getThreadPoolId(), corePoolSize, maximumPoolSize, executors.size());
+                return false;
+            }
+        }
+        return true;
+    }
+
     /**
      * Fail default executor properties.
      *
@@ -123,6 +151,8 @@ public class DynamicThreadPoolRefreshListener extends AbstractRefreshListener<Ex
                 .queueCapacity(Optional.ofNullable(properties.getQueueCapacity()).orElse(beforeProperties.getQueueCapacity()))
                 .keepAliveTime(Optional.ofNullable(properties.getKeepAliveTime()).orElse(beforeProperties.getKeepAliveTime()))
                 .executeTimeOut(Optional.ofNullable(properties.getExecuteTimeOut()).orElse(beforeProperties.getExecuteTimeOut()))
+                .queueTimeOut(Optional.ofNullable(properties.getQueueTimeOut()).orElse(beforeProperties.getQueueTimeOut()))
+                .adaptiveTuning(Optional.ofNullable(properties.getAdaptiveTuning()).orElse(beforeProperties.getAdaptiveTuning()))
                 .rejectedHandler(Optional.ofNullable(properties.getRejectedHandler()).orElse(beforeProperties.getRejectedHandler()))
                 .allowCoreThreadTimeOut(Optional.ofNullable(properties.getAllowCoreThreadTimeOut()).orElse(beforeProperties.getAllowCoreThreadTimeOut()))
                 .threadPoolId(beforeProperties.getThreadPoolId())
@@ -223,11 +253,13 @@ public class DynamicThreadPoolRefreshListener extends AbstractRefreshListener<Ex
                 || (properties.getMaximumPoolSize() != null && !Objects.equals(beforeProperties.getMaximumPoolSize(), properties.getMaximumPoolSize()))
                 || (properties.getAllowCoreThreadTimeOut() != null && !Objects.equals(beforeProperties.getAllowCoreThreadTimeOut(), properties.getAllowCoreThreadTimeOut()))
                 || (properties.getExecuteTimeOut() != null && !Objects.equals(beforeProperties.getExecuteTimeOut(), properties.getExecuteTimeOut()))
+                || (properties.getQueueTimeOut() != null && !Objects.equals(beforeProperties.getQueueTimeOut(), properties.getQueueTimeOut()))
+                || (properties.getAdaptiveTuning() != null && !Objects.equals(beforeProperties.getAdaptiveTuning(), properties.getAdaptiveTuning()))
                 || (properties.getKeepAliveTime() != null && !Objects.equals(beforeProperties.getKeepAliveTime(), properties.getKeepAliveTime()))
                 || (properties.getRejectedHandler() != null && !Objects.equals(beforeProperties.getRejectedHandler(), properties.getRejectedHandler()))
                 ||
                 ((properties.getQueueCapacity() != null && !Objects.equals(beforeProperties.getQueueCapacity(), properties.getQueueCapacity())
-                        && Objects.equals(BlockingQueueTypeEnum.RESIZABLE_LINKED_BLOCKING_QUEUE.getName(), executor.getQueue().getClass().getSimpleName())));
+                        && executor.getQueue() instanceof ResizableCapacityBlockingQueue));
         return result;
     }
 
@@ -258,6 +290,11 @@ public class DynamicThreadPoolRefreshListener extends AbstractRefreshListener<Ex
                 ((DynamicThreadPoolExecutor) executor).setExecuteTimeOut(properties.getExecuteTimeOut());
             }
         }
+        if (properties.getQueueTimeOut() != null && !Objects.equals(beforeProperties.getQueueTimeOut(), properties.getQueueTimeOut())) {
+            if (executor instanceof DynamicThreadPoolExecutor) {
+                ((DynamicThreadPoolExecutor) executor).setQueueTimeOut(properties.getQueueTimeOut());
+            }
+        }
         if (properties.getRejectedHandler() != null && !Objects.equals(beforeProperties.getRejectedHandler(), properties.getRejectedHandler())) {
             RejectedExecutionHandler rejectedExecutionHandler = RejectedPolicyTypeEnum.createPolicy(properties.getRejectedHandler());
             executor.setRejectedExecutionHandler(rejectedExecutionHandler);
@@ -266,13 +303,17 @@ public class DynamicThreadPoolRefreshListener extends AbstractRefreshListener<Ex
             executor.setKeepAliveTime(properties.getKeepAliveTime(), TimeUnit.SECONDS);
         }
         if (properties.getQueueCapacity() != null && !Objects.equals(beforeProperties.getQueueCapacity(), properties.getQueueCapacity())
-                && Objects.equals(BlockingQueueTypeEnum.RESIZABLE_LINKED_BLOCKING_QUEUE.getName(), executor.getQueue().getClass().getSimpleName())) {
-            if (executor.getQueue() instanceof ResizableCapacityLinkedBlockingQueue) {
-                ResizableCapacityLinkedBlockingQueue<?> queue = (ResizableCapacityLinkedBlockingQueue<?>) executor.getQueue();
-                queue.setCapacity(properties.getQueueCapacity());
-            } else {
-                log.warn("The queue length cannot be modified. Queue type mismatch. Current queue type: {}", executor.getQueue().getClass().getSimpleName());
+                && executor.getQueue() instanceof ResizableCapacityBlockingQueue) {
+            ResizableCapacityBlockingQueue<?> queue = (ResizableCapacityBlockingQueue<?>) executor.getQueue();
+            int capacity = queue.setCapacityWithinMax(properties.getQueueCapacity());
+            if (capacity != properties.getQueueCapacity()) {
+                log.warn("The queue capacity {} exceeds the max capacity of queue, the capacity is set to {}.", properties.getQueueCapacity(), capacity);
             }
         }
+        // The pushed parameters take precedence over the adaptive tuning, which restarts from scratch.
+        if (executor instanceof ThreadPoolPluginSupport) {
+            AdaptiveTuningPluginRegistrar.configure((ThreadPoolPluginSupport) executor,
+                    Optional.ofNullable(properties.getAdaptiveTuning()).orElse(beforeProperties.getAdaptiveTuning()));
+        }
     }
 }
@@ -23,7 +23,6 @@ import cn.hippo4j.common.model.executor.ExecutorProperties;
 import cn.hippo4j.common.toolkit.CollectionUtil;
 import cn.hippo4j.config.springboot.starter.notify.ConfigModeNotifyConfigBuilder;
 import cn.hippo4j.core.config.ApplicationContextHolder;
-import cn.hippo4j.threadpool.dynamic.mode.config.properties.BootstrapConfigProperties;
 import cn.hippo4j.threadpool.message.api.NotifyConfigDTO;
 import cn.hippo4j.threadpool.message.core.service.ThreadPoolBaseSendMessageService;
 import org.springframework.core.annotation.Order;
@@ -41,12 +40,11 @@ public class PlatformsRefreshListener extends AbstractRefreshListener<ExecutorPr
 
     @Override
     public void onApplicationEvent(ThreadPoolConfigDynamicRefreshEvent threadPoolDynamicRefreshEvent) {
-        BootstrapConfigProperties bindableConfigProperties = threadPoolDynamicRefreshEvent.getBootstrapConfigProperties();
-        List<ExecutorProperties> executors = bindableConfigProperties.getExecutors();
+        List<ExecutorProperties> executors = threadPoolDynamicRefreshEvent.getChangedExecutors();
+        ThreadPoolBaseSendMessageService sendMessageService = ApplicationContextHolder.getBean(ThreadPoolBaseSendMessageService.class);
         for (ExecutorProperties executorProperties : executors) {
             String threadPoolId = executorProperties.getThreadPoolId();
             ThreadPoolExecutorHolder executorHolder = ThreadPoolExecutorRegistry.getHolder(threadPoolId);
-            ThreadPoolBaseSendMessageService sendMessageService = ApplicationContextHolder.getBean(ThreadPoolBaseSendMessageService.class);
             /**
              * TODO The logic here should be:
              *
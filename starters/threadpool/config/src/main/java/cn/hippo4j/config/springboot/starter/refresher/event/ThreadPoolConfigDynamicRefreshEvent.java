@@ -17,11 +17,14 @@
 
 package cn.hippo4j.config.springboot.starter.refresher.event;
 
+import cn.hippo4j.common.model.executor.ExecutorProperties;
 import cn.hippo4j.threadpool.dynamic.mode.config.properties.BootstrapConfigProperties;
 import lombok.Getter;
 import lombok.Setter;
 import org.springframework.context.ApplicationEvent;
 
+import java.util.List;
+
 /**
  * Hippo-4j config dynamic refresh event.
  */
@@ -31,8 +34,36 @@ public class ThreadPoolConfigDynamicRefreshEvent extends ApplicationEvent {
     @Setter
     private BootstrapConfigProperties bootstrapConfigProperties;
 
+    /**
+     * Executors changed by a config push, null if all executors are refreshed
+     */
+    private final List<ExecutorProperties> changedExecutors;
+
     public ThreadPoolConfigDynamicRefreshEvent(Object source, BootstrapConfigProperties bootstrapConfigProperties) {
+        this(source, bootstrapConfigProperties, null);
+    }
+
+    public ThreadPoolConfigDynamicRefreshEvent(Object source, BootstrapConfigProperties bootstrapConfigProperties, List<ExecutorProperties> changedExecutors) {
         super(source);
         this.bootstrapConfigProperties = bootstrapConfigProperties;
+        this.changedExecutors = changedExecutors;
+    }
+
+    /**
+     * Get the executors to be refreshed.
+     *
+     * @return the changed executors, or all executors if they are all refreshed
+     */
+    public List<ExecutorProperties> getChangedExecutors() {
+        return changedExecutors == null ? bootstrapConfigProperties.getExecutors() : changedExecutors;
+    }
+
+    /**
+     * Whether only some executors are changed, and the other properties are unchanged.
+     *
+     * @return true if only some executors are changed
+     */
+    public boolean isExecutorsChangedOnly() {
+        return changedExecutors != null;
     }
 }
@@ -55,7 +55,7 @@ public class WebExecutorRefreshListener extends AbstractRefreshListener<WebExecu
     @Override
     public void onApplicationEvent(ThreadPoolConfigDynamicRefreshEvent threadPoolDynamicRefreshEvent) {
         BootstrapConfigProperties bindableCoreProperties = threadPoolDynamicRefreshEvent.getBootstrapConfigProperties();
-        if (bindableCoreProperties.getWeb() == null) {
+        if (threadPoolDynamicRefreshEvent.isExecutorsChangedOnly() || bindableCoreProperties.getWeb() == null) {
             return;
         }
         try {
@@ -29,6 +29,11 @@ import cn.hippo4j.common.toolkit.ThreadPoolExecutorUtil;
 import cn.hippo4j.core.config.ApplicationContextHolder;
 import cn.hippo4j.core.executor.DynamicThreadPool;
 import cn.hippo4j.core.executor.DynamicThreadPoolExecutor;
+import cn.hippo4j.core.executor.ExtensibleThreadPoolExecutor;
+import cn.hippo4j.core.executor.VirtualThreadDynamicThreadPoolExecutor;
+import cn.hippo4j.core.executor.WorkStealingDynamicThreadPoolExecutor;
+import cn.hippo4j.core.executor.plugin.manager.AdaptiveTuningPluginRegistrar;
+import cn.hippo4j.core.executor.plugin.manager.ThreadPoolPluginSupport;
 import cn.hippo4j.core.executor.support.adpter.DynamicThreadPoolAdapterChoose;
 import cn.hippo4j.core.toolkit.DynamicThreadPoolAnnotationUtil;
 import cn.hippo4j.threadpool.dynamic.mode.config.properties.BootstrapConfigProperties;
@@ -88,6 +93,7 @@ public final class DynamicThreadPoolPostProcessor implements BeanPostProcessor {
             if (dynamicThreadPoolExecutor == null) {
                 dynamicThreadPoolExecutor = (DynamicThreadPoolExecutor) bean;
             }
+            dynamicThreadPoolExecutor = virtualThreadPoolReplace((DynamicThreadPoolExecutor) dynamicThreadPoolExecutor, dynamicThreadPool.virtualThread());
             ThreadPoolExecutor remoteThreadPoolExecutor = fillPoolAndRegister(((DynamicThreadPoolExecutor) dynamicThreadPoolExecutor).getThreadPoolId(), dynamicThreadPoolExecutor);
             DynamicThreadPoolAdapterChoose.replace(bean, remoteThreadPoolExecutor);
             return DynamicThreadPoolAdapterChoose.match(bean) ? bean : remoteThreadPoolExecutor;
@@ -95,6 +101,33 @@ public final class DynamicThreadPoolPostProcessor implements BeanPostProcessor {
         return bean;
     }
 
+    /**
+     * Replace the executor with a {@link VirtualThreadDynamicThreadPoolExecutor} if the virtual thread switch
+     * is turned on by the annotation or the executor properties.
+     *
+     * @param executor      dynamic thread-pool executor
+     * @param virtualThread whether the virtual thread switch is turned on by the annotation
+     * @return the executor to register
+     */
+    protected DynamicThreadPoolExecutor virtualThreadPoolReplace(DynamicThreadPoolExecutor executor, boolean virtualThread) {
+        String threadPoolId = executor.getThreadPoolId();
+        Optional<ExecutorProperties> executorProperties = Optional.ofNullable(configProperties.getExecutors())
+                .flatMap(executors -> executors.stream().filter(each -> Objects.equals(threadPoolId, each.getThreadPoolId())).findFirst());
+        boolean actualVirtualThread = virtualThread || executorProperties
+                .map(each -> Optional.ofNullable(each.getVirtualThread())
+                        .orElseGet(() -> Optional.ofNullable(configProperties.getDefaultExecutor()).map(ExecutorProperties::getVirtualThread).orElse(false)))
+                .orElse(false);
+        if (!actualVirtualThread || executor instanceof VirtualThreadDynamicThreadPoolExecutor) {
+            return executor;
+        }
+        if (executor instanceof WorkStealingDynamicThreadPoolExecutor) {
+            log.warn("The work-stealing thread-pool [{}] cannot run tasks on virtual threads.", threadPoolId);
+            return executor;
+        }
+        String threadNamePrefix = executorProperties.map(ExecutorProperties::getThreadNamePrefix).filter(StringUtil::isNotBlank).orElse(threadPoolId);
+        return VirtualThreadDynamicThreadPoolExecutor.replace(executor, threadNamePrefix);
+    }
+
     /**
      * Fill the thread pool and register.
      *
@@ -175,7 +208,12 @@ public final class DynamicThreadPoolPostProcessor implements BeanPostProcessor {
      */
     private void threadPoolParamReplace(ThreadPoolExecutor executor, ExecutorProperties executorProperties) {
         BlockingQueue workQueue = BlockingQueueTypeEnum.createBlockingQueue(executorProperties.getBlockingQueue(), executorProperties.getQueueCapacity());
-        ReflectUtil.setFieldValue(executor, "workQueue", workQueue);
+        if (executor instanceof ExtensibleThreadPoolExecutor) {
+            // bind the queue to the executor, such as the eager growth queue
+            ((ExtensibleThreadPoolExecutor) executor).setWorkQueue(workQueue);
+        } else {
+            ReflectUtil.setFieldValue(executor, "workQueue", workQueue);
+        }
         // fix https://github.com/opengoofy/hippo4j/issues/1063
         ThreadPoolExecutorUtil.safeSetPoolSize(executor, executorProperties.getCorePoolSize(), executorProperties.getMaximumPoolSize());
         executor.setKeepAliveTime(executorProperties.getKeepAliveTime(), TimeUnit.SECONDS);
@@ -184,6 +222,11 @@ public final class DynamicThreadPoolPostProcessor implements BeanPostProcessor {
         if (executor instanceof DynamicThreadPoolExecutor) {
             Optional.ofNullable(executorProperties.getExecuteTimeOut())
                     .ifPresent(executeTimeOut -> ((DynamicThreadPoolExecutor) executor).setExecuteTimeOut(executeTimeOut));
+            Optional.ofNullable(executorProperties.getQueueTimeOut())
+                    .ifPresent(queueTimeOut -> ((DynamicThreadPoolExecutor) executor).setQueueTimeOut(queueTimeOut));
+        }
+        if (executor instanceof ThreadPoolPluginSupport) {
+            AdaptiveTuningPluginRegistrar.configure((ThreadPoolPluginSupport) executor, executorProperties.getAdaptiveTuning());
         }
     }
 
@@ -207,11 +250,17 @@ public final class DynamicThreadPoolPostProcessor implements BeanPostProcessor {
                         .orElseGet(() -> Optional.ofNullable(configProperties.getDefaultExecutor()).map(ExecutorProperties::getBlockingQueue).get()))
                 .executeTimeOut(Optional.ofNullable(executorProperties.getExecuteTimeOut())
                         .orElseGet(() -> Optional.ofNullable(configProperties.getDefaultExecutor()).map(ExecutorProperties::getExecuteTimeOut).orElse(0L)))
+                .queueTimeOut(Optional.ofNullable(executorProperties.getQueueTimeOut())
+                        .orElseGet(() -> Optional.ofNullable(configProperties.getDefaultExecutor()).map(ExecutorProperties::getQueueTimeOut).orElse(null)))
+                .adaptiveTuning(Optional.ofNullable(executorProperties.getAdaptiveTuning())
+                        .orElseGet(() -> Optional.ofNullable(configProperties.getDefaultExecutor()).map(ExecutorProperties::getAdaptiveTuning).orElse(null)))
                 .queueCapacity(Optional.ofNullable(executorProperties.getQueueCapacity())
                         .orElseGet(() -> Optional.ofNullable(configProperties.getDefaultExecutor()).map(ExecutorProperties::getQueueCapacity).get()))
                 .rejectedHandler(Optional.ofNullable(executorProperties.getRejectedHandler())
                         .orElseGet(() -> Optional.ofNullable(configProperties.getDefaultExecutor()).map(ExecutorProperties::getRejectedHandler).get()))
                 .threadNamePrefix(StringUtil.isBlank(executorProperties.getThreadNamePrefix()) ? executorProperties.getThreadPoolId() : executorProperties.getThreadNamePrefix())
+                .virtualThread(Optional.ofNullable(executorProperties.getVirtualThread())
+                        .orElseGet(() -> Optional.ofNullable(configProperties.getDefaultExecutor()).map(ExecutorProperties::getVirtualThread).orElse(null)))
                 .threadPoolId(executorProperties.getThreadPoolId())
                 .alarm(Optional.ofNullable(executorProperties.getAlarm())
                         .orElseGet(() -> Optional.ofNullable(configProperties.getDefaultExecutor()).map(ExecutorProperties::getAlarm).orElse(null)))
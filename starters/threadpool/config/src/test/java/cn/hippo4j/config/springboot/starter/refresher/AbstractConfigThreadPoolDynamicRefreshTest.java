@@ -0,0 +1,91 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.hippo4j.config.springboot.starter.refresher;
+
+import cn.hippo4j.common.executor.ThreadPoolExecutorRegistry;
+import cn.hippo4j.common.model.executor.ExecutorProperties;
+import cn.hippo4j.config.springboot.starter.refresher.event.ThreadPoolConfigDynamicRefreshEvent;
+import cn.hippo4j.core.config.ApplicationContextHolder;
+import cn.hippo4j.threadpool.dynamic.mode.config.parser.ConfigFileTypeEnum;
+import cn.hippo4j.threadpool.dynamic.mode.config.properties.BootstrapConfigProperties;
+import org.junit.Assert;
+import org.junit.Test;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.support.GenericApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * test for {@link AbstractConfigThreadPoolDynamicRefresh}
+ */
+public class AbstractConfigThreadPoolDynamicRefreshTest {
+
+    private static final String THREAD_POOL_ID = "config-refresh-test";
+
+    @Test
+    public void testRejectedPushIsNotBound() {
+        BootstrapConfigProperties configProperties = new BootstrapConfigProperties();
+        configProperties.setConfigFileType(ConfigFileTypeEnum.PROPERTIES);
+        List<ThreadPoolConfigDynamicRefreshEvent> events = new ArrayList<>();
+        GenericApplicationContext context = new GenericApplicationContext();
+        context.registerBean(BootstrapConfigProperties.class, () -> configProperties);
+        context.registerBean(DefaultBootstrapConfigPropertiesBinderAdapter.class);
+        context.registerBean("refreshEventListener", ApplicationListener.class,
+                () -> (ApplicationListener<ThreadPoolConfigDynamicRefreshEvent>) events::add);
+        context.refresh();
+        new ApplicationContextHolder().setApplicationContext(context);
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 2, 60L, TimeUnit.SECONDS, new LinkedBlockingQueue<>());
+        ThreadPoolExecutorRegistry.putHolder(THREAD_POOL_ID, executor,
+                ExecutorProperties.builder().threadPoolId(THREAD_POOL_ID).corePoolSize(1).maximumPoolSize(2).build());
+        AbstractConfigThreadPoolDynamicRefresh refresh = new AbstractConfigThreadPoolDynamicRefresh() {
+        };
+        try {
+            refresh.dynamicRefresh(configContent(1, 2));
+            Assert.assertEquals(1, events.size());
+            Assert.assertEquals(Integer.valueOf(1), configProperties.getExecutors().get(0).getCorePoolSize());
+
+            // the core pool size is greater than the maximum pool size
+            refresh.dynamicRefresh(configContent(4, 2));
+            Assert.assertEquals(1, events.size());
+            Assert.assertEquals(Integer.valueOf(1), configProperties.getExecutors().get(0).getCorePoolSize());
+
+            // the rejected push is not taken as the last config, so pushing it again after correcting is refreshed
+            refresh.dynamicRefresh(configContent(4, 4));
+            Assert.assertEquals(2, events.size());
+            Assert.assertEquals(Integer.valueOf(4), configProperties.getExecutors().get(0).getCorePoolSize());
+            Assert.assertEquals(Integer.valueOf(4), events.get(1).getChangedExecutors().get(0).getCorePoolSize());
+        } finally {
+            ThreadPoolExecutorRegistry.removeHolder(THREAD_POOL_ID, executor);
+            executor.shutdownNow();
+            refresh.dynamicRefreshExecutorService.shutdownNow();
+            new ApplicationContextHolder().setApplicationContext(null);
+            context.close();
+        }
+    }
+
+    private String configContent(int corePoolSize, int maximumPoolSize) {
+        String prefix = BootstrapConfigProperties.PREFIX + ".executors[0].";
+        return prefix + "thread-pool-id=" + THREAD_POOL_ID + "\n"
+                + prefix + "core-pool-size=" + corePoolSize + "\n"
+                + prefix + "maximum-pool-size=" + maximumPoolSize + "\n";
+    }
+}
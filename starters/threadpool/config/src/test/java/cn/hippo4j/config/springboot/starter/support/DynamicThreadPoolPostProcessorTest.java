@@ -0,0 +1,107 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.hippo4j.config.springboot.starter.support;
+
+import cn.hippo4j.common.executor.ThreadPoolExecutorRegistry;
+import cn.hippo4j.common.executor.support.EagerGrowthBlockingQueue;
+import cn.hippo4j.common.model.executor.ExecutorProperties;
+import cn.hippo4j.common.toolkit.ThreadUtil;
+import cn.hippo4j.core.executor.DynamicThreadPoolExecutor;
+import cn.hippo4j.core.executor.VirtualThreadDynamicThreadPoolExecutor;
+import cn.hippo4j.threadpool.dynamic.mode.config.properties.BootstrapConfigProperties;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * test for {@link DynamicThreadPoolPostProcessor}
+ */
+public class DynamicThreadPoolPostProcessorTest {
+
+    @Test
+    public void testEagerGrowthBlockingQueue() {
+        String threadPoolId = "post-processor-eager-test";
+        ExecutorProperties properties = newExecutorProperties(threadPoolId);
+        properties.setBlockingQueue("EagerGrowthBlockingQueue");
+        BootstrapConfigProperties configProperties = new BootstrapConfigProperties();
+        configProperties.setExecutors(Collections.singletonList(properties));
+        DynamicThreadPoolExecutor executor = new DynamicThreadPoolExecutor(
+                1, 1, 1000L, TimeUnit.MILLISECONDS, 0L, false, 0L,
+                new LinkedBlockingQueue<>(), threadPoolId, Executors.defaultThreadFactory(), new ThreadPoolExecutor.AbortPolicy());
+        try {
+            ThreadPoolExecutor registered = new DynamicThreadPoolPostProcessor(configProperties).fillPoolAndRegister(threadPoolId, executor);
+            Assert.assertTrue(registered.getQueue() instanceof EagerGrowthBlockingQueue);
+            // the pool grows to the maximum pool size configured before queueing tasks
+            for (int i = 0; i < 3; i++) {
+                registered.execute(() -> ThreadUtil.sleep(500L));
+            }
+            Assert.assertEquals(3, registered.getPoolSize());
+            Assert.assertEquals(0, registered.getQueue().size());
+        } finally {
+            executor.shutdownNow();
+            ThreadPoolExecutorRegistry.removeHolder(threadPoolId, executor);
+        }
+    }
+
+    @Test
+    public void testVirtualThreadPoolReplace() {
+        String threadPoolId = "post-processor-virtual-test";
+        ExecutorProperties properties = newExecutorProperties(threadPoolId);
+        properties.setBlockingQueue("LinkedBlockingQueue");
+        BootstrapConfigProperties configProperties = new BootstrapConfigProperties();
+        configProperties.setExecutors(Collections.singletonList(properties));
+        DynamicThreadPoolPostProcessor postProcessor = new DynamicThreadPoolPostProcessor(configProperties);
+        DynamicThreadPoolExecutor executor = new DynamicThreadPoolExecutor(
+                1, 1, 1000L, TimeUnit.MILLISECONDS, 0L, false, 0L,
+                new LinkedBlockingQueue<>(), threadPoolId, Executors.defaultThreadFactory(), new ThreadPoolExecutor.AbortPolicy());
+        try {
+            Assert.assertSame(executor, postProcessor.virtualThreadPoolReplace(executor, false));
+            // the switch is turned on by the executor properties
+            properties.setVirtualThread(true);
+            DynamicThreadPoolExecutor replacement = postProcessor.virtualThreadPoolReplace(executor, false);
+            Assert.assertTrue(replacement instanceof VirtualThreadDynamicThreadPoolExecutor);
+            ThreadPoolExecutor registered = postProcessor.fillPoolAndRegister(threadPoolId, replacement);
+            Assert.assertSame(replacement, registered);
+            Assert.assertEquals(3, registered.getMaximumPoolSize());
+            Assert.assertSame(replacement, ThreadPoolExecutorRegistry.getHolder(threadPoolId).getExecutor());
+            // destroying the bean destroys the replacement
+            executor.destroy();
+            Assert.assertFalse(replacement.isActive());
+        } finally {
+            executor.shutdownNow();
+            ThreadPoolExecutorRegistry.removeHolder(threadPoolId, executor);
+        }
+    }
+
+    private ExecutorProperties newExecutorProperties(String threadPoolId) {
+        ExecutorProperties properties = new ExecutorProperties();
+        properties.setThreadPoolId(threadPoolId);
+        properties.setCorePoolSize(1);
+        properties.setMaximumPoolSize(3);
+        properties.setQueueCapacity(10);
+        properties.setKeepAliveTime(60L);
+        properties.setAllowCoreThreadTimeOut(false);
+        properties.setRejectedHandler("AbortPolicy");
+        return properties;
+    }
+}
@@ -21,7 +21,7 @@ import cn.hippo4j.common.api.ThreadPoolConfigChange;
 import cn.hippo4j.common.executor.ThreadPoolExecutorRegistry;
 import cn.hippo4j.common.executor.support.BlockingQueueTypeEnum;
 import cn.hippo4j.common.executor.support.RejectedPolicyTypeEnum;
-import cn.hippo4j.common.executor.support.ResizableCapacityLinkedBlockingQueue;
+import cn.hippo4j.common.executor.support.ResizableCapacityBlockingQueue;
 import cn.hippo4j.common.extension.enums.EnableEnum;
 import cn.hippo4j.common.model.ThreadPoolParameter;
 import cn.hippo4j.common.model.ThreadPoolParameterInfo;
@@ -120,10 +120,13 @@ public class ServerThreadPoolDynamicRefresh implements ThreadPoolDynamicRefresh
             }
         }
         if (parameter.getCapacity() != null
-                && Objects.equals(BlockingQueueTypeEnum.RESIZABLE_LINKED_BLOCKING_QUEUE.getType(), parameter.getQueueType())) {
-            if (executor.getQueue() instanceof ResizableCapacityLinkedBlockingQueue) {
-                ResizableCapacityLinkedBlockingQueue queue = (ResizableCapacityLinkedBlockingQueue) executor.getQueue();
-                queue.setCapacity(parameter.getCapacity());
+                && BlockingQueueTypeEnum.isResizableCapacityQueue(parameter.getQueueType())) {
+            if (executor.getQueue() instanceof ResizableCapacityBlockingQueue) {
+                ResizableCapacityBlockingQueue<?> queue = (ResizableCapacityBlockingQueue<?>) executor.getQueue();
+                int capacity = queue.setCapacityWithinMax(parameter.getCapacity());
+                if (capacity != parameter.getCapacity()) {
+                    log.warn("The queue capacity {} exceeds the max capacity of queue, the capacity is set to {}.", parameter.getCapacity(), capacity);
+                }
             } else {
                 log.warn("The queue length cannot be modified. Queue type mismatch. Current queue type: {}", executor.getQueue().getClass().getSimpleName());
             }
@@ -21,6 +21,7 @@ import cn.hippo4j.common.executor.ThreadFactoryBuilder;
 import cn.hippo4j.common.executor.ThreadPoolExecutorRegistry;
 import cn.hippo4j.common.extension.spi.ServiceLoaderRegistry;
 import cn.hippo4j.common.monitor.Message;
+import cn.hippo4j.common.support.LatencyHistogramPublisher;
 import cn.hippo4j.common.toolkit.CollectionUtil;
 import cn.hippo4j.common.toolkit.StringUtil;
 import cn.hippo4j.common.toolkit.ThreadUtil;
@@ -125,18 +126,9 @@ public class ReportingEventExecutor implements Runnable, CommandLineRunner, Disp
         if (customerDynamicThreadPoolMonitorFlag) {
             threadPoolMonitorMap.forEach((beanName, bean) -> threadPoolMonitors.add(bean));
             dynamicThreadPoolMonitors.forEach(each -> threadPoolMonitors.add(each));
-            collectVesselExecutor.scheduleWithFixedDelay(
-                    () -> dynamicThreadPoolMonitor(),
-                    properties.getInitialDelay(),
-                    properties.getCollectInterval(),
-                    TimeUnit.MILLISECONDS);
         }
-        if (collectType.contains(MonitorTypeEnum.SERVER.name().toLowerCase())) {
-            collectVesselExecutor.scheduleWithFixedDelay(
-                    () -> runTimeGatherTask(),
-                    properties.getInitialDelay(),
-                    properties.getCollectInterval(),
-                    TimeUnit.MILLISECONDS);
+        boolean serverCollectFlag = collectType.contains(MonitorTypeEnum.SERVER.name().toLowerCase());
+        if (serverCollectFlag) {
             Integer bufferSize = properties.getTaskBufferSize();
             messageCollectVessel = new LinkedBlockingQueue(bufferSize);
             // Get all data collection components, currently only historical operation data collection.
@@ -144,6 +136,14 @@ public class ReportingEventExecutor implements Runnable, CommandLineRunner, Disp
             // Start reporting monitoring data thread.
             ThreadUtil.newThread(this, "client.thread.reporting.task", Boolean.TRUE).start();
         }
+        if (customerDynamicThreadPoolMonitorFlag || serverCollectFlag) {
+            // A single tick owns the collect interval, so that the monitors and the server report share the same latency histograms.
+            collectVesselExecutor.scheduleWithFixedDelay(
+                    () -> collectTick(),
+                    properties.getInitialDelay(),
+                    properties.getCollectInterval(),
+                    TimeUnit.MILLISECONDS);
+        }
         if (ThreadPoolExecutorRegistry.getThreadPoolExecutorSize() > 0) {
             log.info("Dynamic thread pool: [{}]. The dynamic thread pool starts data collection and reporting.", ThreadPoolExecutorRegistry.getThreadPoolExecutorSize());
         }
@@ -154,6 +154,27 @@ public class ReportingEventExecutor implements Runnable, CommandLineRunner, Disp
         Optional.ofNullable(collectVesselExecutor).ifPresent((each) -> each.shutdown());
     }
 
+    /**
+     * Publish the latency histograms of the last interval, then run the monitors and gather the server report.
+     */
+    private void collectTick() {
+        LatencyHistogramPublisher.publish();
+        if (CollectionUtil.isNotEmpty(threadPoolMonitors)) {
+            try {
+                dynamicThreadPoolMonitor();
+            } catch (Exception ex) {
+                log.error("Error monitoring the running status of dynamic thread pool.", ex);
+            }
+        }
+        if (messageCollectVessel != null) {
+            try {
+                runTimeGatherTask();
+            } catch (Exception ex) {
+                log.error("Error collecting the running status of dynamic thread pool.", ex);
+            }
+        }
+    }
+
     /**
      * Running dynamic thread pool monitoring.
      */
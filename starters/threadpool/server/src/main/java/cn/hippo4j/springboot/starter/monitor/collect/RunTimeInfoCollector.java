@@ -18,18 +18,19 @@
 package cn.hippo4j.springboot.starter.monitor.collect;
 
 import cn.hippo4j.common.executor.ThreadPoolExecutorRegistry;
+import cn.hippo4j.common.model.PoolMetricsSnapshot;
 import cn.hippo4j.common.model.ThreadPoolRunStateInfo;
 import cn.hippo4j.common.monitor.AbstractMessage;
 import cn.hippo4j.common.monitor.Message;
 import cn.hippo4j.common.monitor.MessageTypeEnum;
 import cn.hippo4j.common.monitor.RuntimeMessage;
-import cn.hippo4j.common.toolkit.BeanUtil;
 import cn.hippo4j.common.support.AbstractThreadPoolRuntime;
 import cn.hippo4j.springboot.starter.config.BootstrapProperties;
 import lombok.AllArgsConstructor;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ThreadPoolExecutor;
 
 import static cn.hippo4j.core.toolkit.IdentifyUtil.getThreadPoolIdentify;
 
@@ -41,14 +42,22 @@ public class RunTimeInfoCollector extends AbstractThreadPoolRuntime implements C
 
     private final BootstrapProperties properties;
 
+    /**
+     * Snapshot reused across pools and collect cycles, the collector is only called by the reporting thread
+     */
+    private final PoolMetricsSnapshot snapshot = new PoolMetricsSnapshot();
+
     @Override
     public Message collectMessage() {
         AbstractMessage message = new RuntimeMessage();
-        List<Message> runtimeMessages = new ArrayList<>();
         List<String> listThreadPoolId = ThreadPoolExecutorRegistry.listThreadPoolExecutorId();
+        List<Message> runtimeMessages = new ArrayList<>(listThreadPoolId.size());
         for (String each : listThreadPoolId) {
-            ThreadPoolRunStateInfo poolRunState = getPoolRunState(each);
-            RuntimeMessage runtimeMessage = BeanUtil.convert(poolRunState, RuntimeMessage.class);
+            ThreadPoolExecutor executor = ThreadPoolExecutorRegistry.getHolder(each).getExecutor();
+            if (executor == null) {
+                continue;
+            }
+            RuntimeMessage runtimeMessage = buildRuntimeMessage(getPoolMetricsSnapshot(each, executor, snapshot));
             runtimeMessage.setGroupKey(getThreadPoolIdentify(each, properties.getItemId(), properties.getNamespace()));
             runtimeMessages.add(runtimeMessage);
         }
@@ -61,4 +70,30 @@ public class RunTimeInfoCollector extends AbstractThreadPoolRuntime implements C
     public ThreadPoolRunStateInfo supplement(ThreadPoolRunStateInfo threadPoolRunStateInfo) {
         return threadPoolRunStateInfo;
     }
+
+    private RuntimeMessage buildRuntimeMessage(PoolMetricsSnapshot poolMetricsSnapshot) {
+        RuntimeMessage runtimeMessage = new RuntimeMessage();
+        runtimeMessage.setCurrentLoad(String.valueOf(poolMetricsSnapshot.getCurrentLoad()));
+        runtimeMessage.setPeakLoad(String.valueOf(poolMetricsSnapshot.getPeakLoad()));
+        runtimeMessage.setPoolSize(poolMetricsSnapshot.getPoolSize());
+        runtimeMessage.setLargestPoolSize(poolMetricsSnapshot.getLargestPoolSize());
+        runtimeMessage.setActiveSize(String.valueOf(poolMetricsSnapshot.getActiveCount()));
+        runtimeMessage.setQueueCapacity(poolMetricsSnapshot.getQueueCapacity());
+        runtimeMessage.setQueueSize(poolMetricsSnapshot.getQueueSize());
+        runtimeMessage.setQueueRemainingCapacity(String.valueOf(poolMetricsSnapshot.getQueueRemainingCapacity()));
+        runtimeMessage.setCompletedTaskCount(poolMetricsSnapshot.getCompletedTaskCount());
+        runtimeMessage.setRejectCount((int) poolMetricsSnapshot.getRejectCount());
+        runtimeMessage.setTimestamp(poolMetricsSnapshot.getTimestamp());
+        if (poolMetricsSnapshot.isTaskTimeRecorded()) {
+            runtimeMessage.setTaskTimeP50(poolMetricsSnapshot.getTaskTimeP50());
+            runtimeMessage.setTaskTimeP99(poolMetricsSnapshot.getTaskTimeP99());
+            runtimeMessage.setTaskTimeP999(poolMetricsSnapshot.getTaskTimeP999());
+        }
+        if (poolMetricsSnapshot.isQueueTimeRecorded()) {
+            runtimeMessage.setQueueTimeP50(poolMetricsSnapshot.getQueueTimeP50());
+            runtimeMessage.setQueueTimeP99(poolMetricsSnapshot.getQueueTimeP99());
+            runtimeMessage.setQueueTimeP999(poolMetricsSnapshot.getQueueTimeP999());
+        }
+        return runtimeMessage;
+    }
 }
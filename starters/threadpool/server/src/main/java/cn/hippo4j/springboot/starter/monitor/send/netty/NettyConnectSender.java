@@ -18,53 +18,277 @@
 package cn.hippo4j.springboot.starter.monitor.send.netty;
 
 import cn.hippo4j.common.monitor.Message;
-import cn.hippo4j.common.monitor.MessageWrapper;
-import cn.hippo4j.common.toolkit.MessageConvert;
+import cn.hippo4j.common.monitor.RuntimeMessage;
+import cn.hippo4j.common.monitor.RuntimeMessageAck;
+import cn.hippo4j.common.monitor.RuntimeMessageBatch;
+import cn.hippo4j.common.monitor.RuntimeMessageCodec;
 import cn.hippo4j.springboot.starter.monitor.send.MessageSender;
 import cn.hippo4j.springboot.starter.remote.ServerNettyAgent;
 import io.netty.bootstrap.Bootstrap;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelFutureListener;
 import io.netty.channel.ChannelInitializer;
+import io.netty.channel.ChannelOption;
 import io.netty.channel.ChannelPipeline;
-import io.netty.channel.EventLoopGroup;
+import io.netty.channel.EventLoop;
 import io.netty.channel.socket.SocketChannel;
 import io.netty.channel.socket.nio.NioSocketChannel;
-import io.netty.handler.codec.serialization.ClassResolvers;
-import io.netty.handler.codec.serialization.ObjectDecoder;
-import io.netty.handler.codec.serialization.ObjectEncoder;
-import lombok.AllArgsConstructor;
+import io.netty.handler.codec.LengthFieldBasedFrameDecoder;
+import io.netty.handler.codec.LengthFieldPrepender;
+import io.netty.handler.timeout.IdleStateHandler;
 import lombok.extern.slf4j.Slf4j;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
 /**
- * Netty connect sender.
+ * <p>Netty connect sender. <br />
+ * Messages are reported through a persistent connection which is reconnected with backoff after it is closed.
+ * The runtime messages waiting to be sent are batched into frames of {@link RuntimeMessageCodec},
+ * and at most {@link #maxInFlight} batches are sent before they are acked by the server,
+ * so the messages reported while waiting for the acks are sent together in the next batch.
+ *
+ * <p>The batches not acked when the connection is closed and the batches rejected by the busy server are resent,
+ * and the oldest messages are dropped if the pending messages exceed {@link #maxPending}.
+ * The state of the sender is only accessed in the event loop of the connection, so no lock is required.
  */
 @Slf4j
-@AllArgsConstructor
 public class NettyConnectSender implements MessageSender {
 
-    private ServerNettyAgent serverNettyAgent;
+    private static final int DEFAULT_MAX_BATCH_SIZE = 256;
+
+    private static final int DEFAULT_MAX_IN_FLIGHT = 4;
+
+    private static final int DEFAULT_MAX_PENDING = 4096;
+
+    private static final int DEFAULT_COMPRESS_THRESHOLD = 1024;
+
+    private static final long MIN_RECONNECT_DELAY_MILLIS = 1000L;
+
+    private static final long MAX_RECONNECT_DELAY_MILLIS = 30000L;
+
+    private static final long BUSY_BACKOFF_MILLIS = 1000L;
+
+    private static final long ACK_TIMEOUT_SECONDS = 30L;
+
+    private final ServerNettyAgent serverNettyAgent;
+
+    /**
+     * Max number of messages in a batch
+     */
+    private final int maxBatchSize;
+
+    /**
+     * Max number of batches sent and not acked
+     */
+    private final int maxInFlight;
+
+    /**
+     * Max number of messages waiting to be sent
+     */
+    private final int maxPending;
+
+    /**
+     * Event loop of the connection
+     */
+    private final EventLoop eventLoop;
+
+    private final Bootstrap bootstrap;
+
+    private final Deque<RuntimeMessage> pending = new ArrayDeque<>();
+
+    private final Map<Long, RuntimeMessageBatch> inFlight = new LinkedHashMap<>();
+
+    private Channel channel;
+
+    private boolean connecting;
+
+    private boolean reconnectScheduled;
+
+    private boolean paused;
+
+    private long nextSequence;
+
+    private long reconnectDelayMillis = MIN_RECONNECT_DELAY_MILLIS;
+
+    public NettyConnectSender(ServerNettyAgent serverNettyAgent) {
+        this(serverNettyAgent, DEFAULT_MAX_BATCH_SIZE, DEFAULT_MAX_IN_FLIGHT, DEFAULT_MAX_PENDING, DEFAULT_COMPRESS_THRESHOLD);
+    }
+
+    public NettyConnectSender(ServerNettyAgent serverNettyAgent, int maxBatchSize, int maxInFlight, int maxPending, int compressThreshold) {
+        if (maxBatchSize <= 0 || maxInFlight <= 0 || maxPending <= 0) {
+            throw new IllegalArgumentException();
+        }
+        this.serverNettyAgent = serverNettyAgent;
+        this.maxBatchSize = maxBatchSize;
+        this.maxInFlight = maxInFlight;
+        this.maxPending = maxPending;
+        this.eventLoop = serverNettyAgent.getEventLoopGroup().next();
+        this.bootstrap = new Bootstrap()
+                .group(eventLoop)
+                .channel(NioSocketChannel.class)
+                .option(ChannelOption.SO_KEEPALIVE, true)
+                .option(ChannelOption.TCP_NODELAY, true)
+                .handler(new ChannelInitializer<SocketChannel>() {
+
+                    @Override
+                    protected void initChannel(SocketChannel ch) {
+                        ChannelPipeline pipeline = ch.pipeline();
+                        pipeline.addLast(new IdleStateHandler(ACK_TIMEOUT_SECONDS, 0L, 0L, TimeUnit.SECONDS));
+                        pipeline.addLast(new LengthFieldBasedFrameDecoder(RuntimeMessageCodec.MAX_FRAME_LENGTH, 0, 4, 0, 4));
+                        pipeline.addLast(new LengthFieldPrepender(4));
+                        pipeline.addLast(new MonitorClientCodec(compressThreshold));
+                        pipeline.addLast(new SenderHandler(NettyConnectSender.this));
+                    }
+                });
+    }
 
     @Override
     public void send(Message message) {
-        MessageWrapper messageWrapper = MessageConvert.convert(message);
-        EventLoopGroup eventLoopGroup = serverNettyAgent.getEventLoopGroup();
+        List<RuntimeMessage> messages = new ArrayList<>();
+        for (Object each : message.getMessages()) {
+            if (each instanceof RuntimeMessage) {
+                messages.add((RuntimeMessage) each);
+            }
+        }
+        if (messages.isEmpty()) {
+            return;
+        }
+        eventLoop.execute(() -> {
+            pending.addAll(messages);
+            trimPending();
+            connect();
+            flush();
+        });
+    }
+
+    /**
+     * Send the pending messages in batches while the in-flight batches do not exceed {@link #maxInFlight}.
+     */
+    void flush() {
+        if (!eventLoop.inEventLoop()) {
+            eventLoop.execute(this::flush);
+            return;
+        }
+        if (channel == null || !channel.isActive() || paused) {
+            return;
+        }
+        boolean written = false;
+        while (!pending.isEmpty() && inFlight.size() < maxInFlight && channel.isWritable()) {
+            int size = Math.min(maxBatchSize, pending.size());
+            List<RuntimeMessage> messages = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                messages.add(pending.pollFirst());
+            }
+            RuntimeMessageBatch batch = new RuntimeMessageBatch(nextSequence++, messages);
+            inFlight.put(batch.getSequence(), batch);
+            channel.write(batch).addListener(ChannelFutureListener.CLOSE_ON_FAILURE);
+            written = true;
+        }
+        if (written) {
+            channel.flush();
+        }
+    }
+
+    void onAck(RuntimeMessageAck ack) {
+        RuntimeMessageBatch batch = inFlight.remove(ack.getSequence());
+        if (batch == null) {
+            return;
+        }
+        if (!ack.isAccepted()) {
+            requeue(batch);
+            if (!paused) {
+                log.warn("The server is busy, pause reporting runtime messages for {} ms.", BUSY_BACKOFF_MILLIS);
+                paused = true;
+                eventLoop.schedule(() -> {
+                    paused = false;
+                    flush();
+                }, BUSY_BACKOFF_MILLIS, TimeUnit.MILLISECONDS);
+            }
+            return;
+        }
+        flush();
+    }
+
+    void onInactive(Channel inactive) {
+        if (inactive != channel) {
+            return;
+        }
+        channel = null;
+        List<RuntimeMessageBatch> batches = new ArrayList<>(inFlight.values());
+        inFlight.clear();
+        for (int i = batches.size() - 1; i >= 0; i--) {
+            requeue(batches.get(i));
+        }
+        scheduleReconnect();
+    }
+
+    boolean hasInFlight() {
+        return !inFlight.isEmpty();
+    }
+
+    private void connect() {
+        if (connecting || (channel != null && channel.isActive())) {
+            return;
+        }
+        connecting = true;
+        ChannelFuture future;
         try {
-            Bootstrap bootstrap = new Bootstrap();
-            bootstrap.group(eventLoopGroup)
-                    .channel(NioSocketChannel.class)
-                    .handler(new ChannelInitializer<SocketChannel>() {
-
-                        @Override
-                        protected void initChannel(SocketChannel ch) {
-                            ChannelPipeline pipeline = ch.pipeline();
-                            pipeline.addLast(new ObjectEncoder());
-                            pipeline.addLast(new ObjectDecoder(Integer.MAX_VALUE,
-                                    ClassResolvers.cacheDisabled(null)));
-                            pipeline.addLast(new SenderHandler(messageWrapper));
-                        }
-                    });
-            bootstrap.connect(serverNettyAgent.getNettyServerAddress(), serverNettyAgent.getNettyServerPort()).sync();
-        } catch (Exception e) {
-            log.error("Netty send error.", e);
+            future = bootstrap.connect(serverNettyAgent.getNettyServerAddress(), serverNettyAgent.getNettyServerPort());
+        } catch (Exception ex) {
+            connecting = false;
+            log.warn("Failed to connect to the monitor server.", ex);
+            scheduleReconnect();
+            return;
+        }
+        future.addListener((ChannelFutureListener) connected -> {
+            connecting = false;
+            if (connected.isSuccess()) {
+                channel = connected.channel();
+                reconnectDelayMillis = MIN_RECONNECT_DELAY_MILLIS;
+                flush();
+                return;
+            }
+            log.warn("Failed to connect to the monitor server, retry after {} ms. error message: {}",
+                    reconnectDelayMillis, connected.cause().getMessage());
+            scheduleReconnect();
+        });
+    }
+
+    private void scheduleReconnect() {
+        if (reconnectScheduled) {
+            return;
+        }
+        reconnectScheduled = true;
+        eventLoop.schedule(() -> {
+            reconnectScheduled = false;
+            connect();
+        }, reconnectDelayMillis, TimeUnit.MILLISECONDS);
+        reconnectDelayMillis = Math.min(reconnectDelayMillis << 1, MAX_RECONNECT_DELAY_MILLIS);
+    }
+
+    private void requeue(RuntimeMessageBatch batch) {
+        List<RuntimeMessage> messages = batch.getMessages();
+        for (int i = messages.size() - 1; i >= 0; i--) {
+            pending.addFirst(messages.get(i));
+        }
+        trimPending();
+    }
+
+    private void trimPending() {
+        int dropped = 0;
+        while (pending.size() > maxPending) {
+            pending.pollFirst();
+            dropped++;
+        }
+        if (dropped > 0) {
+            log.warn("Pending runtime messages exceed {}, the oldest {} messages are dropped.", maxPending, dropped);
         }
     }
 }
@@ -17,27 +17,55 @@
 
 package cn.hippo4j.springboot.starter.monitor.send.netty;
 
-import cn.hippo4j.common.monitor.MessageWrapper;
+import cn.hippo4j.common.monitor.RuntimeMessageAck;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.SimpleChannelInboundHandler;
+import io.netty.handler.timeout.IdleState;
+import io.netty.handler.timeout.IdleStateEvent;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
 /**
- * Sender handler.
+ * Sender handler, passes the acks and the state of the channel to {@link NettyConnectSender}.
  */
 @Slf4j
 @AllArgsConstructor
-public class SenderHandler extends SimpleChannelInboundHandler<MessageWrapper> {
+public class SenderHandler extends SimpleChannelInboundHandler<RuntimeMessageAck> {
 
-    private MessageWrapper messageWrapper;
+    private NettyConnectSender sender;
 
     @Override
-    protected void channelRead0(ChannelHandlerContext ctx, MessageWrapper msg) throws Exception {
+    protected void channelRead0(ChannelHandlerContext ctx, RuntimeMessageAck ack) throws Exception {
+        sender.onAck(ack);
     }
 
     @Override
-    public void channelActive(ChannelHandlerContext ctx) throws Exception {
-        ctx.channel().writeAndFlush(messageWrapper);
+    public void channelInactive(ChannelHandlerContext ctx) throws Exception {
+        sender.onInactive(ctx.channel());
+        super.channelInactive(ctx);
+    }
+
+    @Override
+    public void channelWritabilityChanged(ChannelHandlerContext ctx) throws Exception {
+        if (ctx.channel().isWritable()) {
+            sender.flush();
+        }
+        super.channelWritabilityChanged(ctx);
+    }
+
+    @Override
+    public void userEventTriggered(ChannelHandlerContext ctx, Object evt) throws Exception {
+        if (evt instanceof IdleStateEvent && ((IdleStateEvent) evt).state() == IdleState.READER_IDLE && sender.hasInFlight()) {
+            log.warn("Monitor channel {} is closed because the acks of the server timed out.", ctx.channel().remoteAddress());
+            ctx.close();
+            return;
+        }
+        super.userEventTriggered(ctx, evt);
+    }
+
+    @Override
+    public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) {
+        log.warn("Monitor channel {} is closed because of exception.", ctx.channel().remoteAddress(), cause);
+        ctx.close();
     }
 }
@@ -34,6 +34,9 @@ import cn.hippo4j.common.toolkit.ThreadPoolExecutorUtil;
 import cn.hippo4j.core.config.ApplicationContextHolder;
 import cn.hippo4j.core.executor.DynamicThreadPool;
 import cn.hippo4j.core.executor.DynamicThreadPoolExecutor;
+import cn.hippo4j.core.executor.ExtensibleThreadPoolExecutor;
+import cn.hippo4j.core.executor.VirtualThreadDynamicThreadPoolExecutor;
+import cn.hippo4j.core.executor.WorkStealingDynamicThreadPoolExecutor;
 import cn.hippo4j.core.executor.manage.GlobalThreadPoolManage;
 import cn.hippo4j.core.executor.support.adpter.DynamicThreadPoolAdapterChoose;
 import cn.hippo4j.core.toolkit.DynamicThreadPoolAnnotationUtil;
@@ -101,6 +104,7 @@ public final class DynamicThreadPoolPostProcessor implements BeanPostProcessor {
             if ((dynamicThreadPoolExecutor) == null) {
                 dynamicThreadPoolExecutor = (DynamicThreadPoolExecutor) bean;
             }
+            dynamicThreadPoolExecutor = virtualThreadPoolReplace((DynamicThreadPoolExecutor) dynamicThreadPoolExecutor, dynamicThreadPool.virtualThread());
             ThreadPoolExecutor remoteThreadPoolExecutor = fillPoolAndRegister(((DynamicThreadPoolExecutor) dynamicThreadPoolExecutor).getThreadPoolId(), dynamicThreadPoolExecutor);
             DynamicThreadPoolAdapterChoose.replace(bean, remoteThreadPoolExecutor);
             subscribeConfig(((DynamicThreadPoolExecutor) dynamicThreadPoolExecutor).getThreadPoolId());
@@ -109,6 +113,25 @@ public final class DynamicThreadPoolPostProcessor implements BeanPostProcessor {
         return bean;
     }
 
+    /**
+     * Replace the executor with a {@link VirtualThreadDynamicThreadPoolExecutor} if the virtual thread switch
+     * is turned on by the annotation.
+     *
+     * @param executor      dynamic thread-pool executor
+     * @param virtualThread whether the virtual thread switch is turned on by the annotation
+     * @return the executor to register
+     */
+    protected DynamicThreadPoolExecutor virtualThreadPoolReplace(DynamicThreadPoolExecutor executor, boolean virtualThread) {
+        if (!virtualThread || executor instanceof VirtualThreadDynamicThreadPoolExecutor) {
+            return executor;
+        }
+        if (executor instanceof WorkStealingDynamicThreadPoolExecutor) {
+            log.warn("The work-stealing thread-pool [{}] cannot run tasks on virtual threads.", executor.getThreadPoolId());
+            return executor;
+        }
+        return VirtualThreadDynamicThreadPoolExecutor.replace(executor, executor.getThreadPoolId());
+    }
+
     /**
      * Register and subscribe.
      *
@@ -180,7 +203,12 @@ public final class DynamicThreadPoolPostProcessor implements BeanPostProcessor {
      */
     private void threadPoolParamReplace(ThreadPoolExecutor executor, ThreadPoolParameterInfo threadPoolParameterInfo) {
         BlockingQueue workQueue = BlockingQueueTypeEnum.createBlockingQueue(threadPoolParameterInfo.getQueueType(), threadPoolParameterInfo.getCapacity());
-        ReflectUtil.setFieldValue(executor, "workQueue", workQueue);
+        if (executor instanceof ExtensibleThreadPoolExecutor) {
+            // bind the queue to the executor, such as the eager growth queue
+            ((ExtensibleThreadPoolExecutor) executor).setWorkQueue(workQueue);
+        } else {
+            ReflectUtil.setFieldValue(executor, "workQueue", workQueue);
+        }
         // fix https://github.com/opengoofy/hippo4j/issues/1063
         ThreadPoolExecutorUtil.safeSetPoolSize(executor, threadPoolParameterInfo.corePoolSizeAdapt(), threadPoolParameterInfo.maximumPoolSizeAdapt());
         executor.setKeepAliveTime(threadPoolParameterInfo.getKeepAliveTime(), TimeUnit.SECONDS);
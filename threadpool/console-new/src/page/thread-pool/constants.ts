@@ -6,6 +6,8 @@ export const QUEUE_TYPE_MAP: { [key: string]: string } = {
   '5': 'LinkedTransferQueue',
   '6': 'PriorityBlockingQueue',
   '9': 'ResizableLinkedBlockingQueue',
+  '10': 'ResizableArrayBlockingQueue',
+  '11': 'EagerGrowthBlockingQueue',
 };
 
 export const REJECT_TYPE_MAP: { [key: string]: string } = {
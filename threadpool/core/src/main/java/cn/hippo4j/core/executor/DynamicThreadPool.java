@@ -52,4 +52,13 @@ import java.lang.annotation.Target;
 @Retention(RetentionPolicy.RUNTIME)
 @Documented
 public @interface DynamicThreadPool {
+
+    /**
+     * Whether to run each task of the thread-pool on a virtual thread, see {@link VirtualThreadDynamicThreadPoolExecutor}.
+     * The annotated {@link DynamicThreadPoolExecutor} is replaced with a {@link VirtualThreadDynamicThreadPoolExecutor}
+     * with the same parameters, platform threads are started instead on the runtimes that do not support virtual threads.
+     *
+     * @return true if the tasks run on virtual threads
+     */
+    boolean virtualThread() default false;
 }
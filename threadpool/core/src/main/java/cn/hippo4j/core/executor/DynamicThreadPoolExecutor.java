@@ -17,9 +17,17 @@
 
 package cn.hippo4j.core.executor;
 
+import cn.hippo4j.common.executor.ThreadPoolExecutorRegistry;
+import cn.hippo4j.common.model.PoolMetricsSnapshot;
+import cn.hippo4j.common.support.LatencyHistogram;
+import cn.hippo4j.common.support.PoolMetricsSupport;
+import cn.hippo4j.common.support.TaskLatencyHistogramSupport;
 import cn.hippo4j.common.toolkit.CollectionUtil;
 import cn.hippo4j.core.executor.plugin.impl.TaskDecoratorPlugin;
+import cn.hippo4j.core.executor.plugin.impl.TaskQueueTimeHistogramPlugin;
+import cn.hippo4j.core.executor.plugin.impl.TaskQueueTimeoutNotifyAlarmPlugin;
 import cn.hippo4j.core.executor.plugin.impl.TaskRejectCountRecordPlugin;
+import cn.hippo4j.core.executor.plugin.impl.TaskTimeHistogramPlugin;
 import cn.hippo4j.core.executor.plugin.impl.TaskTimeoutNotifyAlarmPlugin;
 import cn.hippo4j.core.executor.plugin.impl.ThreadPoolExecutorShutdownPlugin;
 import cn.hippo4j.core.executor.plugin.manager.DefaultThreadPoolPluginManager;
@@ -34,6 +42,7 @@ import org.springframework.core.annotation.AnnotationAwareOrderComparator;
 import org.springframework.core.task.TaskDecorator;
 
 import java.util.Objects;
+import java.util.Optional;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.RejectedExecutionHandler;
 import java.util.concurrent.ThreadFactory;
@@ -49,7 +58,7 @@ import static cn.hippo4j.common.constant.Constants.NO_REJECT_COUNT_NUM;
  * @see DefaultThreadPoolCheckAlarmHandler#buildAlarmNotifyRequest
  */
 @Slf4j
-public class DynamicThreadPoolExecutor extends ExtensibleThreadPoolExecutor implements DisposableBean {
+public class DynamicThreadPoolExecutor extends ExtensibleThreadPoolExecutor implements DisposableBean, TaskLatencyHistogramSupport, PoolMetricsSupport {
 
     /**
      * A flag used to indicate whether destroy() method has been called,
@@ -148,6 +157,7 @@ public class DynamicThreadPoolExecutor extends ExtensibleThreadPoolExecutor impl
             super.shutdownNow();
         }
         getThreadPoolPluginManager().clear();
+        ThreadPoolExecutorRegistry.removeHolder(getThreadPoolId(), this);
         log.info("ExecutorService '{}' has been destroyed", getThreadPoolId());
 
         // modify the flag to false avoid the method being called repeatedly
@@ -208,6 +218,63 @@ public class DynamicThreadPoolExecutor extends ExtensibleThreadPoolExecutor impl
                 .orElse(new AtomicLong(0));
     }
 
+    /**
+     * Get the count of rejected tasks.
+     *
+     * @return count of rejected tasks, {@link cn.hippo4j.common.constant.Constants#NO_REJECT_COUNT_NUM} if {@link TaskRejectCountRecordPlugin} is not registered
+     */
+    @Override
+    public long getRejectedTaskCount() {
+        return getPluginOfType(TaskRejectCountRecordPlugin.PLUGIN_NAME, TaskRejectCountRecordPlugin.class)
+                .map(TaskRejectCountRecordPlugin::getRejectCountNum)
+                .orElse(NO_REJECT_COUNT_NUM);
+    }
+
+    /**
+     * Supplement the reject count and the latency percentiles recorded by plugins.
+     *
+     * @param snapshot snapshot to fill
+     */
+    @Override
+    public void supplementMetrics(PoolMetricsSnapshot snapshot) {
+        snapshot.setRejectCount(getRejectedTaskCount());
+        getTaskTimeHistogram().ifPresent(snapshot::setTaskTime);
+        getQueueTimeHistogram().ifPresent(snapshot::setQueueTime);
+    }
+
+    /**
+     * Get the last published histogram snapshot of task execution time, without resetting the histogram.
+     *
+     * @return histogram snapshot, empty if {@link TaskTimeHistogramPlugin} is not registered
+     */
+    @Override
+    public Optional<LatencyHistogram.Snapshot> getTaskTimeHistogram() {
+        return getPluginOfType(TaskTimeHistogramPlugin.PLUGIN_NAME, TaskTimeHistogramPlugin.class)
+                .map(TaskTimeHistogramPlugin::getLastSnapshot);
+    }
+
+    /**
+     * Get the last published histogram snapshot of task queue time, without resetting the histogram.
+     *
+     * @return histogram snapshot, empty if {@link TaskQueueTimeHistogramPlugin} is not registered
+     */
+    @Override
+    public Optional<LatencyHistogram.Snapshot> getQueueTimeHistogram() {
+        return getPluginOfType(TaskQueueTimeHistogramPlugin.PLUGIN_NAME, TaskQueueTimeHistogramPlugin.class)
+                .map(TaskQueueTimeHistogramPlugin::getLastSnapshot);
+    }
+
+    /**
+     * Publish the histogram snapshots of the plugins and reset the histograms.
+     */
+    @Override
+    public void publishLatencyHistograms() {
+        getPluginOfType(TaskTimeHistogramPlugin.PLUGIN_NAME, TaskTimeHistogramPlugin.class)
+                .ifPresent(TaskTimeHistogramPlugin::publishSnapshot);
+        getPluginOfType(TaskQueueTimeHistogramPlugin.PLUGIN_NAME, TaskQueueTimeHistogramPlugin.class)
+                .ifPresent(TaskQueueTimeHistogramPlugin::publishSnapshot);
+    }
+
     /**
      * Get execute time out.
      *
@@ -232,6 +299,27 @@ public class DynamicThreadPoolExecutor extends ExtensibleThreadPoolExecutor impl
                 .ifPresent(processor -> processor.setExecuteTimeOut(executeTimeOut));
     }
 
+    /**
+     * Get queue time out.
+     *
+     * @return queue time out, {@link #DEFAULT_EXECUTE_TIMEOUT} if {@link TaskQueueTimeoutNotifyAlarmPlugin} is not registered
+     */
+    public Long getQueueTimeOut() {
+        return getPluginOfType(TaskQueueTimeoutNotifyAlarmPlugin.PLUGIN_NAME, TaskQueueTimeoutNotifyAlarmPlugin.class)
+                .map(TaskQueueTimeoutNotifyAlarmPlugin::getQueueTimeOut)
+                .orElse(DEFAULT_EXECUTE_TIMEOUT);
+    }
+
+    /**
+     * Set queue time out, non-positive means the queue time is not alarmed.
+     *
+     * @param queueTimeOut queue time out
+     */
+    public void setQueueTimeOut(Long queueTimeOut) {
+        getPluginOfType(TaskQueueTimeoutNotifyAlarmPlugin.PLUGIN_NAME, TaskQueueTimeoutNotifyAlarmPlugin.class)
+                .ifPresent(processor -> processor.setQueueTimeOut(queueTimeOut));
+    }
+
     /**
      * Get {@link TaskDecorator}.
      *
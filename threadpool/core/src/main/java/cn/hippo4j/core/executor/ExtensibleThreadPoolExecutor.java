@@ -17,6 +17,8 @@
 
 package cn.hippo4j.core.executor;
 
+import cn.hippo4j.common.executor.support.EagerGrowthBlockingQueue;
+import cn.hippo4j.common.toolkit.ReflectUtil;
 import cn.hippo4j.core.executor.plugin.ExecuteAwarePlugin;
 import cn.hippo4j.core.executor.plugin.RejectedAwarePlugin;
 import cn.hippo4j.core.executor.plugin.ShutdownAwarePlugin;
@@ -35,6 +37,7 @@ import java.util.List;
 import java.util.Objects;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.Callable;
+import java.util.concurrent.FutureTask;
 import java.util.concurrent.RejectedExecutionHandler;
 import java.util.concurrent.RunnableFuture;
 import java.util.concurrent.ThreadFactory;
@@ -48,6 +51,11 @@ import java.util.concurrent.TimeUnit;
  * users can customize plug-ins and implement one or more {@link ThreadPoolPlugin} interface
  * to enable plugins to sense thread pool behavior and provide extended functions.
  *
+ * <p>If the work queue is an {@link EagerGrowthBlockingQueue}, it is bound to the executor,
+ * so the pool grows to the maximum pool size before queueing tasks,
+ * and the tasks rejected because the pool reached the maximum pool size concurrently are retried into the queue
+ * before the {@link RejectedAwarePlugin} and the {@link RejectedExecutionHandler} are called.
+ *
  * @see ThreadPoolPluginManager
  * @see ThreadPoolPlugin
  */
@@ -113,6 +121,25 @@ public class ExtensibleThreadPoolExecutor extends ThreadPoolExecutor implements
         // proxy handler to support callback, repeated packaging of the same rejection policy should be avoided here.
         this.handlerWrapper = new RejectedAwareHandlerWrapper(threadPoolPluginManager, handler);
         super.setRejectedExecutionHandler(handlerWrapper);
+        bindWorkQueue(workQueue);
+    }
+
+    /**
+     * Replace the work queue of the executor, such as applying the queue type configured for a dynamic thread-pool when it is initialized.
+     * It should be called before any task is submitted, the tasks in the previous queue are not moved to the new one. <br />
+     * An {@link EagerGrowthBlockingQueue} is bound to the executor like the one passed to the constructor.
+     *
+     * @param workQueue the queue to use for holding tasks before they are executed
+     */
+    public void setWorkQueue(@NonNull BlockingQueue<Runnable> workQueue) {
+        ReflectUtil.setFieldValue(this, "workQueue", workQueue);
+        bindWorkQueue(workQueue);
+    }
+
+    private void bindWorkQueue(BlockingQueue<Runnable> workQueue) {
+        if (workQueue instanceof EagerGrowthBlockingQueue) {
+            ((EagerGrowthBlockingQueue<Runnable>) workQueue).setExecutor(this);
+        }
     }
 
     /**
@@ -126,7 +153,9 @@ public class ExtensibleThreadPoolExecutor extends ThreadPoolExecutor implements
     @Override
     protected void beforeExecute(Thread thread, Runnable runnable) {
         Collection<ExecuteAwarePlugin> executeAwarePluginList = threadPoolPluginManager.getExecuteAwarePluginList();
-        executeAwarePluginList.forEach(aware -> aware.beforeExecute(thread, runnable));
+        for (ExecuteAwarePlugin executeAwarePlugin : executeAwarePluginList) {
+            executeAwarePlugin.beforeExecute(thread, runnable);
+        }
     }
 
     /**
@@ -147,6 +176,16 @@ public class ExtensibleThreadPoolExecutor extends ThreadPoolExecutor implements
                 return;
             }
         }
+        doExecute(runnable);
+    }
+
+    /**
+     * Hand over the task processed by {@link TaskAwarePlugin#beforeTaskExecute} to the workers.
+     * By default, the task is executed by the superclass {@link ThreadPoolExecutor}.
+     *
+     * @param runnable the task to execute
+     */
+    protected void doExecute(Runnable runnable) {
         super.execute(runnable);
     }
 
@@ -162,7 +201,9 @@ public class ExtensibleThreadPoolExecutor extends ThreadPoolExecutor implements
     @Override
     protected void afterExecute(Runnable runnable, Throwable throwable) {
         Collection<ExecuteAwarePlugin> executeAwarePluginList = threadPoolPluginManager.getExecuteAwarePluginList();
-        executeAwarePluginList.forEach(aware -> aware.afterExecute(runnable, throwable));
+        for (ExecuteAwarePlugin executeAwarePlugin : executeAwarePluginList) {
+            executeAwarePlugin.afterExecute(runnable, throwable);
+        }
     }
 
     /**
@@ -178,10 +219,18 @@ public class ExtensibleThreadPoolExecutor extends ThreadPoolExecutor implements
     public void shutdown() {
         Collection<ShutdownAwarePlugin> shutdownAwarePluginList = threadPoolPluginManager.getShutdownAwarePluginList();
         shutdownAwarePluginList.forEach(aware -> aware.beforeShutdown(this));
-        super.shutdown();
+        doShutdown();
         shutdownAwarePluginList.forEach(aware -> aware.afterShutdown(this, Collections.emptyList()));
     }
 
+    /**
+     * Initiate an orderly shutdown of the workers.
+     * By default, the superclass {@link ThreadPoolExecutor} is shutdown.
+     */
+    protected void doShutdown() {
+        super.shutdown();
+    }
+
     /**
      * {@inheritDoc}
      *
@@ -195,11 +244,21 @@ public class ExtensibleThreadPoolExecutor extends ThreadPoolExecutor implements
     public List<Runnable> shutdownNow() {
         Collection<ShutdownAwarePlugin> shutdownAwarePluginList = threadPoolPluginManager.getShutdownAwarePluginList();
         shutdownAwarePluginList.forEach(aware -> aware.beforeShutdown(this));
-        List<Runnable> tasks = super.shutdownNow();
+        List<Runnable> tasks = doShutdownNow();
         shutdownAwarePluginList.forEach(aware -> aware.afterShutdown(this, tasks));
         return tasks;
     }
 
+    /**
+     * Stop the workers and drain the tasks that never commenced execution.
+     * By default, the superclass {@link ThreadPoolExecutor} is shutdown.
+     *
+     * @return list of tasks that never commenced execution
+     */
+    protected List<Runnable> doShutdownNow() {
+        return super.shutdownNow();
+    }
+
     /**
      * {@inheritDoc}
      *
@@ -215,7 +274,8 @@ public class ExtensibleThreadPoolExecutor extends ThreadPoolExecutor implements
     /**
      * {@inheritDoc}
      *
-     * <p><b>Before calling the superclass method, {@link TaskAwarePlugin#beforeTaskCreate} will be called first.
+     * <p><b>Before creating the task, {@link TaskAwarePlugin#beforeTaskCreate} will be called first.
+     * The created task implements {@link EnqueueTimeAware}, so plugins can stamp it without wrapping it again.
      *
      * @param runnable the runnable task being wrapped
      * @param value    the default value for the returned future
@@ -231,13 +291,14 @@ public class ExtensibleThreadPoolExecutor extends ThreadPoolExecutor implements
         for (TaskAwarePlugin taskAwarePlugin : taskAwarePluginList) {
             runnable = taskAwarePlugin.beforeTaskCreate(this, runnable, value);
         }
-        return super.newTaskFor(runnable, value);
+        return new EnqueueTimeAwareFutureTask<>(runnable, value);
     }
 
     /**
      * {@inheritDoc}
      *
-     * <p><b>Before calling the superclass method, {@link TaskAwarePlugin#beforeTaskCreate} will be called first.
+     * <p><b>Before creating the task, {@link TaskAwarePlugin#beforeTaskCreate} will be called first.
+     * The created task implements {@link EnqueueTimeAware}, so plugins can stamp it without wrapping it again.
      *
      * @param callable the callable task being wrapped
      * @return a {@code RunnableFuture} which, when run, will call the
@@ -252,7 +313,7 @@ public class ExtensibleThreadPoolExecutor extends ThreadPoolExecutor implements
         for (TaskAwarePlugin taskAwarePlugin : taskAwarePluginList) {
             callable = taskAwarePlugin.beforeTaskCreate(this, callable);
         }
-        return super.newTaskFor(callable);
+        return new EnqueueTimeAwareFutureTask<>(callable);
     }
 
     /**
@@ -278,6 +339,15 @@ public class ExtensibleThreadPoolExecutor extends ThreadPoolExecutor implements
         return handlerWrapper.getHandler();
     }
 
+    /**
+     * Reject the task, {@link RejectedAwarePlugin#beforeRejectedExecution} will be called first.
+     *
+     * @param runnable the task requested to be executed
+     */
+    protected void rejectedExecution(Runnable runnable) {
+        handlerWrapper.rejectedExecution(runnable, this);
+    }
+
     /**
      * Get thread-pool executor.
      *
@@ -310,16 +380,73 @@ public class ExtensibleThreadPoolExecutor extends ThreadPoolExecutor implements
         private RejectedExecutionHandler handler;
 
         /**
-         * Call {@link RejectedAwarePlugin#beforeRejectedExecution}, then reject the task.
+         * Call {@link RejectedAwarePlugin#beforeRejectedExecution}, then reject the task,
+         * unless the task is queued by {@link EagerGrowthBlockingQueue#retryOffer}.
          *
          * @param r        the runnable task requested to be executed
          * @param executor the executor attempting to execute this task
          */
         @Override
         public void rejectedExecution(Runnable r, ThreadPoolExecutor executor) {
+            BlockingQueue<Runnable> workQueue = executor.getQueue();
+            if (workQueue instanceof EagerGrowthBlockingQueue && ((EagerGrowthBlockingQueue<Runnable>) workQueue).retryOffer(r)) {
+                return;
+            }
             Collection<RejectedAwarePlugin> rejectedAwarePluginList = registry.getRejectedAwarePluginList();
-            rejectedAwarePluginList.forEach(aware -> aware.beforeRejectedExecution(r, executor));
+            for (RejectedAwarePlugin rejectedAwarePlugin : rejectedAwarePluginList) {
+                rejectedAwarePlugin.beforeRejectedExecution(r, executor);
+            }
             handler.rejectedExecution(r, executor);
         }
     }
+
+    /**
+     * Task which is able to carry the time when it was submitted to the thread-pool,
+     * it's used to measure how long the task waits in the queue before it is executed.
+     */
+    public interface EnqueueTimeAware {
+
+        /**
+         * Value of an enqueue time that has not been stamped.
+         */
+        long NOT_STAMPED = Long.MIN_VALUE;
+
+        /**
+         * Get the time when the task was submitted.
+         *
+         * @return nano time when the task was submitted, {@link #NOT_STAMPED} if not stamped
+         */
+        long getEnqueueTime();
+
+        /**
+         * Set the time when the task was submitted.
+         *
+         * @param enqueueTime nano time when the task was submitted
+         */
+        void setEnqueueTime(long enqueueTime);
+    }
+
+    /**
+     * {@link FutureTask} created by {@link #newTaskFor}, carries the enqueue time in a primitive field,
+     * so that the tasks submitted by {@code submit} or {@code invokeAll} can be stamped without any extra object.
+     *
+     * @param <V> the result type
+     */
+    private static class EnqueueTimeAwareFutureTask<V> extends FutureTask<V> implements EnqueueTimeAware {
+
+        /**
+         * Enqueue time
+         */
+        @Getter
+        @Setter
+        private long enqueueTime = NOT_STAMPED;
+
+        EnqueueTimeAwareFutureTask(Callable<V> callable) {
+            super(callable);
+        }
+
+        EnqueueTimeAwareFutureTask(Runnable runnable, V result) {
+            super(runnable, result);
+        }
+    }
 }
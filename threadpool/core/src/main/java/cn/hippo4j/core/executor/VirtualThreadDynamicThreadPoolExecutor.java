@@ -0,0 +1,464 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.hippo4j.core.executor;
+
+import cn.hippo4j.common.executor.support.ResizableSemaphore;
+import cn.hippo4j.common.toolkit.VirtualThreadUtil;
+import cn.hippo4j.core.executor.plugin.ExecuteAwarePlugin;
+import cn.hippo4j.core.executor.plugin.RejectedAwarePlugin;
+import cn.hippo4j.core.executor.plugin.ShutdownAwarePlugin;
+import cn.hippo4j.core.executor.plugin.TaskAwarePlugin;
+import cn.hippo4j.core.executor.plugin.ThreadPoolPlugin;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * <p>Dynamic thread-pool which starts a thread for each task instead of keeping a fixed set of workers,
+ * it is intended for IO-heavy tasks running on the virtual threads of JDK 21 or later,
+ * see {@link VirtualThreadUtil#newThreadFactory}. The thread factory may also create platform threads,
+ * which is the fallback on the runtimes that do not support virtual threads.
+ *
+ * <p>The max concurrency is enforced by a {@link ResizableSemaphore} whose permits is the maximum pool size,
+ * tasks submitted when all permits are acquired wait in the work queue and are taken by the threads
+ * releasing their permits, and they are rejected when the work queue is full.
+ *
+ * <p>The executor is still a {@link DynamicThreadPoolExecutor}, so it is registered, monitored and refreshed like other dynamic thread-pools:
+ * <ul>
+ *     <li>{@link TaskAwarePlugin}, {@link ExecuteAwarePlugin} and {@link RejectedAwarePlugin} are called around each task;</li>
+ *     <li>the active count and pool size are the number of running threads, which never exceeds the permits;</li>
+ *     <li>{@link #getQueue()} holds the submitted tasks waiting for permits;</li>
+ *     <li>the core pool size is only kept for display, as no thread is kept alive without tasks.</li>
+ * </ul>
+ */
+@Slf4j
+public class VirtualThreadDynamicThreadPoolExecutor extends DynamicThreadPoolExecutor {
+
+    /**
+     * Keep alive time of the idle workers, only used for display
+     */
+    private static final long DEFAULT_KEEP_ALIVE_SECONDS = 0L;
+
+    /**
+     * Permits of running tasks
+     */
+    private final ResizableSemaphore permits;
+
+    /**
+     * Running threads
+     */
+    private final Set<Thread> workers = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Monitor of waiting for the running threads to exit
+     */
+    private final Object terminationMonitor = new Object();
+
+    /**
+     * Core pool size, only used for display
+     */
+    private volatile int corePoolSize;
+
+    /**
+     * Count of submitted tasks
+     */
+    private final LongAdder taskCount = new LongAdder();
+
+    /**
+     * Count of completed tasks
+     */
+    private final LongAdder completedTaskCount = new LongAdder();
+
+    /**
+     * Largest number of threads that have ever simultaneously been running
+     */
+    private final AtomicInteger largestPoolSize = new AtomicInteger();
+
+    /**
+     * Creates a new {@code VirtualThreadDynamicThreadPoolExecutor} with the given initial parameters.
+     *
+     * @param corePoolSize                     the core pool size, only used for display
+     * @param maximumPoolSize                  the max number of tasks running concurrently
+     * @param executeTimeOut                   execute time out
+     * @param waitForTasksToCompleteOnShutdown wait for tasks to complete on shutdown
+     * @param awaitTerminationMillis           await termination millis
+     * @param workQueue                        the queue of tasks waiting for permits
+     * @param threadPoolId                     thread-pool id
+     * @param threadFactory                    the factory of the thread started for each task, usually a factory of virtual threads
+     * @param rejectedExecutionHandler         the handler to use when the work queue is full or the pool is shutdown
+     * @throws IllegalArgumentException if {@code corePoolSize < 0} or {@code maximumPoolSize <= 0}
+     *                                  or {@code maximumPoolSize < corePoolSize}
+     */
+    public VirtualThreadDynamicThreadPoolExecutor(
+                                                  int corePoolSize, int maximumPoolSize,
+                                                  long executeTimeOut, boolean waitForTasksToCompleteOnShutdown, long awaitTerminationMillis,
+                                                  @NonNull BlockingQueue<Runnable> workQueue,
+                                                  @NonNull String threadPoolId,
+                                                  @NonNull ThreadFactory threadFactory,
+                                                  @NonNull RejectedExecutionHandler rejectedExecutionHandler) {
+        super(
+                corePoolSize, maximumPoolSize, DEFAULT_KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                executeTimeOut, waitForTasksToCompleteOnShutdown, awaitTerminationMillis,
+                workQueue, threadPoolId, threadFactory, rejectedExecutionHandler);
+        this.corePoolSize = corePoolSize;
+        this.permits = new ResizableSemaphore(maximumPoolSize);
+    }
+
+    /**
+     * <p>Create a {@code VirtualThreadDynamicThreadPoolExecutor} to replace the given dynamic thread-pool,
+     * such as a dynamic thread-pool bean whose virtual thread switch is turned on.
+     * The parameters, work queue, rejected handler and the plugins which are not registered by default
+     * are moved to the new executor, and the threads are named with the given prefix.
+     *
+     * <p>The given executor should not have been used, the new executor is destroyed when it is destroyed or shutdown,
+     * so the new executor is still released by the container which only knows the given executor.
+     *
+     * @param executor         the dynamic thread-pool to replace
+     * @param threadNamePrefix thread name prefix
+     * @return the executor which runs each task on a virtual thread, or a platform thread if virtual threads are not supported
+     */
+    @SuppressWarnings("deprecation")
+    public static VirtualThreadDynamicThreadPoolExecutor replace(@NonNull DynamicThreadPoolExecutor executor, @NonNull String threadNamePrefix) {
+        VirtualThreadDynamicThreadPoolExecutor virtualThreadExecutor = new VirtualThreadDynamicThreadPoolExecutor(
+                executor.getCorePoolSize(), executor.getMaximumPoolSize(),
+                executor.getExecuteTimeOut(), executor.isWaitForTasksToCompleteOnShutdown(), executor.getAwaitTerminationMillis(),
+                executor.getQueue(), executor.getThreadPoolId(),
+                VirtualThreadUtil.newThreadFactoryOrElse(threadNamePrefix + "_", executor.getThreadFactory()),
+                executor.getRejectedExecutionHandler());
+        virtualThreadExecutor.setTaskDecorator(executor.getTaskDecorator());
+        virtualThreadExecutor.setQueueTimeOut(executor.getQueueTimeOut());
+        for (ThreadPoolPlugin plugin : new ArrayList<>(executor.getAllPlugins())) {
+            if (!virtualThreadExecutor.isRegistered(plugin.getId())) {
+                executor.unregister(plugin.getId());
+                virtualThreadExecutor.register(plugin);
+            }
+        }
+        executor.register(new ReplacedExecutorDestroyPlugin(virtualThreadExecutor));
+        return virtualThreadExecutor;
+    }
+
+    /**
+     * Start a thread for the task if a permit is available, otherwise put the task into the work queue.
+     *
+     * @param runnable the task to execute
+     */
+    @Override
+    protected void doExecute(Runnable runnable) {
+        if (isShutdown()) {
+            rejectedExecution(runnable);
+            return;
+        }
+        taskCount.increment();
+        if (permits.tryAcquire()) {
+            startWorker(runnable);
+            return;
+        }
+        if (!getQueue().offer(runnable)) {
+            taskCount.decrement();
+            rejectedExecution(runnable);
+            return;
+        }
+        // the permits may be released before the task is queued
+        startWorkersForQueuedTasks();
+    }
+
+    /**
+     * Start threads for the queued tasks while permits are available.
+     */
+    private void startWorkersForQueuedTasks() {
+        while (!getQueue().isEmpty() && permits.tryAcquire()) {
+            startWorker(null);
+        }
+    }
+
+    /**
+     * Start a thread holding an acquired permit.
+     *
+     * @param firstTask the first task to run, or null to take a task from the work queue
+     */
+    private void startWorker(Runnable firstTask) {
+        Thread worker = null;
+        try {
+            worker = getThreadFactory().newThread(new Worker(firstTask));
+            if (worker != null) {
+                workers.add(worker);
+                largestPoolSize.accumulateAndGet(permits.getAcquiredPermits(), Math::max);
+                worker.start();
+                return;
+            }
+        } catch (Throwable ex) {
+            log.error("Failed to start thread of dynamic thread-pool [{}].", getThreadPoolId(), ex);
+            if (worker != null) {
+                workers.remove(worker);
+            }
+        }
+        permits.release();
+        if (firstTask != null) {
+            taskCount.decrement();
+            rejectedExecution(firstTask);
+        }
+    }
+
+    private void runTask(Thread thread, Runnable task) {
+        Throwable thrown = null;
+        try {
+            beforeExecute(thread, task);
+            task.run();
+        } catch (Throwable ex) {
+            thrown = ex;
+        } finally {
+            try {
+                afterExecute(task, thrown);
+            } finally {
+                completedTaskCount.increment();
+            }
+        }
+        if (thrown != null) {
+            thread.getUncaughtExceptionHandler().uncaughtException(thread, thrown);
+        }
+    }
+
+    private void onWorkerExit(Thread thread) {
+        workers.remove(thread);
+        if (!workers.isEmpty()) {
+            return;
+        }
+        synchronized (terminationMonitor) {
+            terminationMonitor.notifyAll();
+        }
+        tryTerminate();
+    }
+
+    /**
+     * Set the core pool size, which is only used for display.
+     *
+     * @param corePoolSize the new core size
+     * @throws IllegalArgumentException if {@code corePoolSize < 0}
+     *                                  or {@code corePoolSize} is greater than the maximum pool size
+     */
+    @Override
+    public void setCorePoolSize(int corePoolSize) {
+        if (corePoolSize < 0 || corePoolSize > permits.getPermits()) {
+            throw new IllegalArgumentException();
+        }
+        this.corePoolSize = corePoolSize;
+    }
+
+    @Override
+    public int getCorePoolSize() {
+        return corePoolSize;
+    }
+
+    /**
+     * Set the max number of tasks running concurrently, the running tasks are never interrupted when it is decreased.
+     *
+     * @param maximumPoolSize the new maximum
+     * @throws IllegalArgumentException if {@code maximumPoolSize <= 0}
+     *                                  or {@code maximumPoolSize} is less than the core pool size
+     */
+    @Override
+    public void setMaximumPoolSize(int maximumPoolSize) {
+        if (maximumPoolSize <= 0 || maximumPoolSize < corePoolSize) {
+            throw new IllegalArgumentException();
+        }
+        permits.setPermits(maximumPoolSize);
+        startWorkersForQueuedTasks();
+    }
+
+    @Override
+    public int getMaximumPoolSize() {
+        return permits.getPermits();
+    }
+
+    /**
+     * Threads are started for each task.
+     *
+     * @return false
+     */
+    @Override
+    public boolean prestartCoreThread() {
+        return false;
+    }
+
+    /**
+     * Threads are started for each task.
+     *
+     * @return 0
+     */
+    @Override
+    public int prestartAllCoreThreads() {
+        return 0;
+    }
+
+    @Override
+    public int getPoolSize() {
+        return workers.size();
+    }
+
+    @Override
+    public int getActiveCount() {
+        return permits.getAcquiredPermits();
+    }
+
+    @Override
+    public int getLargestPoolSize() {
+        return largestPoolSize.get();
+    }
+
+    @Override
+    public long getTaskCount() {
+        return taskCount.sum();
+    }
+
+    @Override
+    public long getCompletedTaskCount() {
+        return completedTaskCount.sum();
+    }
+
+    /**
+     * Get the number of permits that are not acquired.
+     *
+     * @return the number of available permits
+     */
+    public int getAvailablePermits() {
+        return Math.max(0, permits.availablePermits());
+    }
+
+    @Override
+    protected List<Runnable> doShutdownNow() {
+        List<Runnable> tasks = super.doShutdownNow();
+        workers.forEach(Thread::interrupt);
+        return tasks;
+    }
+
+    @Override
+    public boolean isTerminated() {
+        if (!workers.isEmpty()) {
+            return false;
+        }
+        tryTerminate();
+        return super.isTerminated();
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        synchronized (terminationMonitor) {
+            while (!workers.isEmpty()) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0L) {
+                    return false;
+                }
+                TimeUnit.NANOSECONDS.timedWait(terminationMonitor, remaining);
+            }
+        }
+        tryTerminate();
+        return super.awaitTermination(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * The superclass is terminated only when the queue is empty after shutdown,
+     * {@link #purge()} makes it recheck the queue after the running threads exit.
+     */
+    private void tryTerminate() {
+        if (isShutdown() && !super.isTerminated()) {
+            purge();
+        }
+    }
+
+    /**
+     * Destroy the executor which replaces the dynamic thread-pool when the dynamic thread-pool is shutdown.
+     */
+    private static final class ReplacedExecutorDestroyPlugin implements ShutdownAwarePlugin {
+
+        private static final String PLUGIN_NAME = ReplacedExecutorDestroyPlugin.class.getSimpleName();
+
+        private final VirtualThreadDynamicThreadPoolExecutor replacement;
+
+        ReplacedExecutorDestroyPlugin(VirtualThreadDynamicThreadPoolExecutor replacement) {
+            this.replacement = replacement;
+        }
+
+        @Override
+        public String getId() {
+            return PLUGIN_NAME;
+        }
+
+        @Override
+        public void beforeShutdown(ThreadPoolExecutor executor) {
+            if (replacement.isActive()) {
+                replacement.destroy();
+            }
+        }
+    }
+
+    /**
+     * Task of the started thread, runs the first task and then the queued tasks while holding the permit.
+     */
+    private final class Worker implements Runnable {
+
+        private Runnable firstTask;
+
+        Worker(Runnable firstTask) {
+            this.firstTask = firstTask;
+        }
+
+        @Override
+        public void run() {
+            Thread thread = Thread.currentThread();
+            Runnable task = firstTask;
+            firstTask = null;
+            boolean holdingPermit = true;
+            try {
+                for (;;) {
+                    if (task != null) {
+                        runTask(thread, task);
+                    }
+                    task = getQueue().poll();
+                    if (task != null) {
+                        continue;
+                    }
+                    permits.release();
+                    holdingPermit = false;
+                    // the tasks may be queued before the permit is released, acquire it again to run them
+                    if (getQueue().isEmpty() || !permits.tryAcquire()) {
+                        break;
+                    }
+                    holdingPermit = true;
+                }
+            } finally {
+                if (holdingPermit) {
+                    permits.release();
+                    startWorkersForQueuedTasks();
+                }
+                onWorkerExit(thread);
+            }
+        }
+    }
+}
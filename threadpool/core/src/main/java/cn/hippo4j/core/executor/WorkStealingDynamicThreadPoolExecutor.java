@@ -0,0 +1,1088 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.hippo4j.core.executor;
+
+import cn.hippo4j.common.executor.support.ResizableCapacityBlockingQueue;
+import cn.hippo4j.core.executor.plugin.ExecuteAwarePlugin;
+import cn.hippo4j.core.executor.plugin.RejectedAwarePlugin;
+import cn.hippo4j.core.executor.plugin.TaskAwarePlugin;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.reflect.Constructor;
+import java.util.AbstractQueue;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * <p>Dynamic thread-pool whose tasks are executed by a {@link ForkJoinPool} in async mode,
+ * each worker owns a deque and steals tasks from the others when its own deque is empty,
+ * so fine-grained tasks are not serialized on the single work queue of {@link java.util.concurrent.ThreadPoolExecutor}.
+ * Tasks submitted by the workers of the pool are pushed to the deque of the submitting worker.
+ *
+ * <p>The executor is still a {@link DynamicThreadPoolExecutor}, so it is registered, monitored and refreshed like other dynamic thread-pools:
+ * <ul>
+ *     <li>{@link TaskAwarePlugin}, {@link ExecuteAwarePlugin} and {@link RejectedAwarePlugin} are called around each task;</li>
+ *     <li>the core pool size is the parallelism of the pool, the maximum pool size is only used as the upper bound of it;</li>
+ *     <li>{@link #getQueue()} is a {@link WorkStealingQueue} holding the tasks submitted from outside the pool and not started yet,
+ *     its capacity bounds them, replacing the work queue only applies the capacity of the new queue to it.</li>
+ * </ul>
+ *
+ * <p>The parallelism and keep alive time of a {@link ForkJoinPool} cannot be changed after it is created,
+ * so changing them replaces the pool with a new one,
+ * and the previous pool is shutdown after the tasks already submitted to it are completed. <br />
+ * The keep alive time is applied to the idle workers on Java 9 and later, on Java 8 the idle workers are
+ * reclaimed by the built-in timeout of {@link ForkJoinPool}. {@link #allowCoreThreadTimeOut(boolean)} has no effect.
+ */
+@Slf4j
+public class WorkStealingDynamicThreadPoolExecutor extends DynamicThreadPoolExecutor {
+
+    /**
+     * The max parallelism of {@link ForkJoinPool}
+     */
+    private static final int MAX_PARALLELISM = 0x7fff;
+
+    /**
+     * Max count of the spare threads created by the pool to compensate the blocked workers, the same as the common pool
+     */
+    private static final int MAX_SPARES = 256;
+
+    /**
+     * Default keep alive time of the idle workers
+     */
+    private static final long DEFAULT_KEEP_ALIVE_SECONDS = 60L;
+
+    /**
+     * Constructor of {@link ForkJoinPool} which accepts the keep alive time, only present on Java 9 and later
+     */
+    private static final Constructor<ForkJoinPool> KEEP_ALIVE_CONSTRUCTOR = findKeepAliveConstructor();
+
+    /**
+     * Factory of the template thread, provides the name, daemon, priority and uncaught exception handler of workers
+     */
+    private final ThreadFactory threadFactory;
+
+    /**
+     * Queue of the tasks submitted from outside the pool
+     */
+    private final WorkStealingQueue workStealingQueue;
+
+    /**
+     * Current pool
+     */
+    private volatile ForkJoinPool forkJoinPool;
+
+    /**
+     * Pools replaced by the change of parallelism or keep alive time and not terminated yet
+     */
+    private final List<ForkJoinPool> retiredPools = new CopyOnWriteArrayList<>();
+
+    /**
+     * The upper bound of the parallelism
+     */
+    private volatile int maximumPoolSize;
+
+    /**
+     * Count of submitted tasks
+     */
+    private final LongAdder taskCount = new LongAdder();
+
+    /**
+     * Count of completed tasks
+     */
+    private final LongAdder completedTaskCount = new LongAdder();
+
+    /**
+     * Count of tasks which are submitted and neither completed nor removed
+     */
+    private final AtomicLong pendingTaskCount = new AtomicLong();
+
+    /**
+     * Largest number of workers that have ever simultaneously been in the pool
+     */
+    private final AtomicInteger largestPoolSize = new AtomicInteger();
+
+    /**
+     * Whether the superclass is terminated
+     */
+    private volatile boolean superclassTerminated;
+
+    /**
+     * Whether {@link #terminated()} of the superclass is called
+     */
+    private final AtomicBoolean terminatedCalled = new AtomicBoolean();
+
+    /**
+     * Creates a new {@code WorkStealingDynamicThreadPoolExecutor} with the given initial parameters
+     * and the default keep alive time.
+     *
+     * @param parallelism                      the parallelism level, also the core pool size
+     * @param maximumPoolSize                  the upper bound of the parallelism
+     * @param executeTimeOut                   execute time out
+     * @param waitForTasksToCompleteOnShutdown wait for tasks to complete on shutdown
+     * @param awaitTerminationMillis           await termination millis
+     * @param queueCapacity                    the max number of tasks submitted from outside the pool and not executed yet
+     * @param threadPoolId                     thread-pool id
+     * @param threadFactory                    the factory of the template thread, which provides the name, daemon,
+     *                                         priority and uncaught exception handler of each worker
+     * @param rejectedExecutionHandler         the handler to use when the queue capacity is reached or the pool is shutdown
+     * @throws IllegalArgumentException if {@code parallelism <= 0} or {@code maximumPoolSize < parallelism}
+     *                                  or {@code queueCapacity <= 0}
+     */
+    public WorkStealingDynamicThreadPoolExecutor(
+                                                 int parallelism, int maximumPoolSize,
+                                                 long executeTimeOut, boolean waitForTasksToCompleteOnShutdown, long awaitTerminationMillis,
+                                                 int queueCapacity,
+                                                 @NonNull String threadPoolId,
+                                                 @NonNull ThreadFactory threadFactory,
+                                                 @NonNull RejectedExecutionHandler rejectedExecutionHandler) {
+        this(parallelism, maximumPoolSize, DEFAULT_KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                executeTimeOut, waitForTasksToCompleteOnShutdown, awaitTerminationMillis,
+                queueCapacity, threadPoolId, threadFactory, rejectedExecutionHandler);
+    }
+
+    /**
+     * Creates a new {@code WorkStealingDynamicThreadPoolExecutor} with the given initial parameters.
+     *
+     * @param parallelism                      the parallelism level, also the core pool size
+     * @param maximumPoolSize                  the upper bound of the parallelism
+     * @param keepAliveTime                    the time that idle workers will wait for new tasks before terminating
+     * @param unit                             the time unit for the {@code keepAliveTime} argument
+     * @param executeTimeOut                   execute time out
+     * @param waitForTasksToCompleteOnShutdown wait for tasks to complete on shutdown
+     * @param awaitTerminationMillis           await termination millis
+     * @param queueCapacity                    the max number of tasks submitted from outside the pool and not executed yet
+     * @param threadPoolId                     thread-pool id
+     * @param threadFactory                    the factory of the template thread, which provides the name, daemon,
+     *                                         priority and uncaught exception handler of each worker
+     * @param rejectedExecutionHandler         the handler to use when the queue capacity is reached or the pool is shutdown
+     * @throws IllegalArgumentException if {@code parallelism <= 0} or {@code maximumPoolSize < parallelism}
+     *                                  or {@code keepAliveTime < 0} or {@code queueCapacity <= 0}
+     */
+    public WorkStealingDynamicThreadPoolExecutor(
+                                                 int parallelism, int maximumPoolSize,
+                                                 long keepAliveTime, @NonNull TimeUnit unit,
+                                                 long executeTimeOut, boolean waitForTasksToCompleteOnShutdown, long awaitTerminationMillis,
+                                                 int queueCapacity,
+                                                 @NonNull String threadPoolId,
+                                                 @NonNull ThreadFactory threadFactory,
+                                                 @NonNull RejectedExecutionHandler rejectedExecutionHandler) {
+        this(parallelism, maximumPoolSize, keepAliveTime, unit, executeTimeOut, waitForTasksToCompleteOnShutdown, awaitTerminationMillis,
+                new WorkStealingQueue(queueCapacity), threadPoolId, threadFactory, rejectedExecutionHandler);
+    }
+
+    private WorkStealingDynamicThreadPoolExecutor(
+                                                  int parallelism, int maximumPoolSize,
+                                                  long keepAliveTime, TimeUnit unit,
+                                                  long executeTimeOut, boolean waitForTasksToCompleteOnShutdown, long awaitTerminationMillis,
+                                                  WorkStealingQueue workStealingQueue,
+                                                  String threadPoolId,
+                                                  ThreadFactory threadFactory,
+                                                  RejectedExecutionHandler rejectedExecutionHandler) {
+        super(
+                parallelism, maximumPoolSize, keepAliveTime, unit,
+                executeTimeOut, waitForTasksToCompleteOnShutdown, awaitTerminationMillis,
+                workStealingQueue, threadPoolId, threadFactory, rejectedExecutionHandler);
+        if (parallelism <= 0 || maximumPoolSize > MAX_PARALLELISM) {
+            throw new IllegalArgumentException();
+        }
+        this.maximumPoolSize = maximumPoolSize;
+        this.threadFactory = threadFactory;
+        this.workStealingQueue = workStealingQueue;
+        workStealingQueue.executor = this;
+        this.forkJoinPool = newForkJoinPool(parallelism);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Constructor<ForkJoinPool> findKeepAliveConstructor() {
+        try {
+            return ForkJoinPool.class.getConstructor(
+                    int.class, ForkJoinPool.ForkJoinWorkerThreadFactory.class, Thread.UncaughtExceptionHandler.class, boolean.class,
+                    int.class, int.class, int.class, Predicate.class, long.class, TimeUnit.class);
+        } catch (NoSuchMethodException ex) {
+            return null;
+        }
+    }
+
+    private ForkJoinPool newForkJoinPool(int parallelism) {
+        if (KEEP_ALIVE_CONSTRUCTOR != null) {
+            try {
+                return KEEP_ALIVE_CONSTRUCTOR.newInstance(
+                        parallelism, (ForkJoinPool.ForkJoinWorkerThreadFactory) this::newWorkerThread, null, true,
+                        parallelism, Math.min(MAX_PARALLELISM, parallelism + MAX_SPARES), 1, null,
+                        Math.max(1L, getKeepAliveTime(TimeUnit.MILLISECONDS)), TimeUnit.MILLISECONDS);
+            } catch (ReflectiveOperationException ex) {
+                log.warn("Failed to create work-stealing pool with keep alive time, thread-pool id: {}", getThreadPoolId(), ex);
+            }
+        }
+        return new ForkJoinPool(parallelism, this::newWorkerThread, null, true);
+    }
+
+    private ForkJoinWorkerThread newWorkerThread(ForkJoinPool pool) {
+        ForkJoinWorkerThread worker = new WorkerThread(pool);
+        Thread template = threadFactory.newThread(() -> {
+        });
+        if (template != null) {
+            worker.setName(template.getName());
+            worker.setDaemon(template.isDaemon());
+            worker.setPriority(template.getPriority());
+            worker.setUncaughtExceptionHandler(template.getUncaughtExceptionHandler());
+        }
+        int poolSize = getPoolSize() + 1;
+        largestPoolSize.accumulateAndGet(poolSize, Math::max);
+        return worker;
+    }
+
+    /**
+     * Submit the task to the deque of the current worker if it is submitted by a worker of the pool,
+     * otherwise offer the task to {@link WorkStealingQueue}, which submits it to the pool unless the queue capacity is reached.
+     *
+     * @param runnable the task to execute
+     */
+    @Override
+    protected void doExecute(Runnable runnable) {
+        if (isShutdown()) {
+            rejectedExecution(runnable);
+            return;
+        }
+        Thread thread = Thread.currentThread();
+        if (thread instanceof WorkerThread && ((WorkerThread) thread).getPool() == forkJoinPool) {
+            taskCount.increment();
+            pendingTaskCount.incrementAndGet();
+            new PluginAwareTask(this, runnable, false).fork();
+            return;
+        }
+        if (!workStealingQueue.offer(runnable)) {
+            rejectedExecution(runnable);
+        }
+    }
+
+    private boolean submitToPool(PluginAwareTask task) {
+        taskCount.increment();
+        pendingTaskCount.incrementAndGet();
+        for (;;) {
+            ForkJoinPool pool = forkJoinPool;
+            try {
+                pool.execute(task);
+                return true;
+            } catch (RejectedExecutionException ex) {
+                // the pool is replaced concurrently, retry with the new one
+                if (pool == forkJoinPool || isShutdown()) {
+                    taskCount.decrement();
+                    return false;
+                }
+            }
+        }
+    }
+
+    /**
+     * Called once for each submitted task which is completed or removed.
+     */
+    private void finishTask() {
+        if (pendingTaskCount.decrementAndGet() == 0 && isShutdown()) {
+            tryTerminate();
+            callTerminatedIfCompleted();
+        }
+    }
+
+    /**
+     * Set the core pool size, which is the parallelism of the pool.
+     * If the parallelism is changed, the pool is replaced by a new one.
+     *
+     * @param corePoolSize the new core size
+     * @throws IllegalArgumentException if {@code corePoolSize <= 0}
+     *                                  or {@code corePoolSize} is greater than the maximum pool size
+     */
+    @Override
+    public synchronized void setCorePoolSize(int corePoolSize) {
+        if (corePoolSize <= 0 || corePoolSize > maximumPoolSize) {
+            throw new IllegalArgumentException();
+        }
+        if (forkJoinPool.getParallelism() != corePoolSize) {
+            replacePool(corePoolSize);
+        }
+    }
+
+    @Override
+    public int getCorePoolSize() {
+        return forkJoinPool.getParallelism();
+    }
+
+    /**
+     * Set the maximum pool size, which is the upper bound of the parallelism.
+     *
+     * @param maximumPoolSize the new maximum
+     * @throws IllegalArgumentException if {@code maximumPoolSize} is less than the core pool size
+     *                                  or greater than the max parallelism of {@link ForkJoinPool}
+     */
+    @Override
+    public synchronized void setMaximumPoolSize(int maximumPoolSize) {
+        if (maximumPoolSize < getCorePoolSize() || maximumPoolSize > MAX_PARALLELISM) {
+            throw new IllegalArgumentException();
+        }
+        this.maximumPoolSize = maximumPoolSize;
+    }
+
+    @Override
+    public int getMaximumPoolSize() {
+        return maximumPoolSize;
+    }
+
+    /**
+     * Set the keep alive time of the idle workers.
+     * On Java 9 and later, the pool is replaced by a new one if the keep alive time is changed.
+     *
+     * @param time the time to wait
+     * @param unit the time unit of the {@code time} argument
+     */
+    @Override
+    public synchronized void setKeepAliveTime(long time, TimeUnit unit) {
+        long previous = getKeepAliveTime(TimeUnit.NANOSECONDS);
+        super.setKeepAliveTime(time, unit);
+        if (KEEP_ALIVE_CONSTRUCTOR != null && previous != getKeepAliveTime(TimeUnit.NANOSECONDS)) {
+            replacePool(forkJoinPool.getParallelism());
+        }
+    }
+
+    /**
+     * The tasks are always offered to the {@link WorkStealingQueue} of the executor, so the queue is not replaced,
+     * only the capacity of the given queue is applied to it, and {@link #getQueue()} still returns the {@link WorkStealingQueue}.
+     *
+     * @param workQueue the queue whose capacity is applied
+     */
+    @Override
+    public void setWorkQueue(@NonNull BlockingQueue<Runnable> workQueue) {
+        if (workQueue == workStealingQueue) {
+            return;
+        }
+        int capacity = workQueue.size() + workQueue.remainingCapacity();
+        if (capacity <= 0) {
+            log.warn("The work queue of work-stealing thread-pool [{}] is not replaced by {} without capacity.",
+                    getThreadPoolId(), workQueue.getClass().getSimpleName());
+            return;
+        }
+        workStealingQueue.setCapacity(capacity);
+        log.info("The work queue of work-stealing thread-pool [{}] is not replaced by {}, only its capacity {} is applied.",
+                getThreadPoolId(), workQueue.getClass().getSimpleName(), capacity);
+    }
+
+    private void replacePool(int parallelism) {
+        ForkJoinPool previous = forkJoinPool;
+        if (isShutdown()) {
+            return;
+        }
+        forkJoinPool = newForkJoinPool(parallelism);
+        retiredPools.removeIf(ForkJoinPool::isTerminated);
+        retiredPools.add(previous);
+        previous.shutdown();
+        log.info("The work-stealing pool of thread-pool [{}] has been replaced, parallelism changed from {} to {}.",
+                getThreadPoolId(), previous.getParallelism(), parallelism);
+    }
+
+    /**
+     * Workers are started by the pool on demand.
+     *
+     * @return false
+     */
+    @Override
+    public boolean prestartCoreThread() {
+        return false;
+    }
+
+    /**
+     * Workers are started by the pool on demand.
+     *
+     * @return 0
+     */
+    @Override
+    public int prestartAllCoreThreads() {
+        return 0;
+    }
+
+    @Override
+    public int getPoolSize() {
+        int poolSize = forkJoinPool.getPoolSize();
+        for (ForkJoinPool each : retiredPools) {
+            poolSize += each.getPoolSize();
+        }
+        return poolSize;
+    }
+
+    @Override
+    public int getActiveCount() {
+        int activeCount = forkJoinPool.getActiveThreadCount();
+        for (ForkJoinPool each : retiredPools) {
+            activeCount += each.getActiveThreadCount();
+        }
+        return activeCount;
+    }
+
+    @Override
+    public int getLargestPoolSize() {
+        return largestPoolSize.get();
+    }
+
+    @Override
+    public long getTaskCount() {
+        return taskCount.sum();
+    }
+
+    @Override
+    public long getCompletedTaskCount() {
+        return completedTaskCount.sum();
+    }
+
+    /**
+     * Get the parallelism of the pool.
+     *
+     * @return the parallelism
+     */
+    public int getParallelism() {
+        return forkJoinPool.getParallelism();
+    }
+
+    /**
+     * Get the estimated count of tasks stolen from the deque of one worker by another.
+     *
+     * @return the steal count
+     */
+    public long getStealCount() {
+        return forkJoinPool.getStealCount();
+    }
+
+    /**
+     * Get the estimated count of tasks queued in the deques of workers, which are forked by the workers
+     * and not included in {@link #getQueue()}.
+     *
+     * @return the count of tasks forked by the workers and not started yet
+     */
+    public long getForkedTaskCount() {
+        long count = forkJoinPool.getQueuedTaskCount();
+        for (ForkJoinPool each : retiredPools) {
+            count += each.getQueuedTaskCount();
+        }
+        return count;
+    }
+
+    @Override
+    protected void doShutdown() {
+        super.doShutdown();
+        forEachPool(ForkJoinPool::shutdown);
+        workStealingQueue.signalAllWaiters();
+    }
+
+    @Override
+    protected List<Runnable> doShutdownNow() {
+        List<Runnable> tasks = super.doShutdownNow();
+        forEachPool(ForkJoinPool::shutdownNow);
+        workStealingQueue.signalAllWaiters();
+        return tasks;
+    }
+
+    @Override
+    public boolean isTerminated() {
+        if (!isForkJoinPoolsTerminated()) {
+            return false;
+        }
+        tryTerminate();
+        return super.isTerminated();
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        if (!forkJoinPool.awaitTermination(deadline - System.nanoTime(), TimeUnit.NANOSECONDS)) {
+            return false;
+        }
+        for (ForkJoinPool each : retiredPools) {
+            if (!each.awaitTermination(deadline - System.nanoTime(), TimeUnit.NANOSECONDS)) {
+                return false;
+            }
+        }
+        tryTerminate();
+        return super.awaitTermination(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * The superclass has no workers, so it is terminated once the queue is empty after shutdown,
+     * the hook is deferred until the tasks running in the pools are completed.
+     */
+    @Override
+    protected void terminated() {
+        superclassTerminated = true;
+        callTerminatedIfCompleted();
+    }
+
+    private void callTerminatedIfCompleted() {
+        if (superclassTerminated && pendingTaskCount.get() == 0 && terminatedCalled.compareAndSet(false, true)) {
+            super.terminated();
+        }
+    }
+
+    private boolean isForkJoinPoolsTerminated() {
+        if (!forkJoinPool.isTerminated()) {
+            return false;
+        }
+        for (ForkJoinPool each : retiredPools) {
+            if (!each.isTerminated()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void forEachPool(Consumer<ForkJoinPool> action) {
+        action.accept(forkJoinPool);
+        retiredPools.forEach(action);
+    }
+
+    /**
+     * The superclass is terminated only when the queue is empty after shutdown,
+     * {@link #purge()} makes it recheck the queue after the tasks of the pools are completed.
+     */
+    private void tryTerminate() {
+        if (isShutdown() && !super.isTerminated()) {
+            purge();
+        }
+    }
+
+    /**
+     * {@link ForkJoinTask} of a submitted task, calls the {@link ExecuteAwarePlugin} around the task.
+     * The task is taken exactly once, by a worker which executes it, or by {@link WorkStealingQueue} which removes it,
+     * or by the pool which cancels it on {@link ForkJoinPool#shutdownNow()}.
+     * The exception thrown by the task is passed to the uncaught exception handler of the worker
+     * instead of terminating the worker.
+     */
+    private static final class PluginAwareTask extends ForkJoinTask<Void> {
+
+        private static final long serialVersionUID = 1L;
+
+        private static final AtomicIntegerFieldUpdater<PluginAwareTask> TAKEN_UPDATER =
+                AtomicIntegerFieldUpdater.newUpdater(PluginAwareTask.class, "taken");
+
+        private final transient WorkStealingDynamicThreadPoolExecutor executor;
+
+        private final transient Runnable runnable;
+
+        /**
+         * Whether the task is submitted from outside the pool and held by {@link WorkStealingQueue}
+         */
+        private final boolean external;
+
+        private volatile int taken;
+
+        PluginAwareTask(WorkStealingDynamicThreadPoolExecutor executor, Runnable runnable, boolean external) {
+            this.executor = executor;
+            this.runnable = runnable;
+            this.external = external;
+        }
+
+        boolean tryTake() {
+            return TAKEN_UPDATER.compareAndSet(this, 0, 1);
+        }
+
+        boolean isTaken() {
+            return taken != 0;
+        }
+
+        @Override
+        public Void getRawResult() {
+            return null;
+        }
+
+        @Override
+        protected void setRawResult(Void value) {
+        }
+
+        @Override
+        protected boolean exec() {
+            if (!tryTake()) {
+                // removed from the queue
+                return true;
+            }
+            if (external) {
+                executor.workStealingQueue.onTaken();
+            }
+            Thread thread = Thread.currentThread();
+            Throwable thrown = null;
+            try {
+                executor.beforeExecute(thread, runnable);
+                runnable.run();
+            } catch (Throwable ex) {
+                thrown = ex;
+            } finally {
+                try {
+                    executor.afterExecute(runnable, thrown);
+                } finally {
+                    executor.completedTaskCount.increment();
+                    executor.finishTask();
+                }
+            }
+            if (thrown != null) {
+                thread.getUncaughtExceptionHandler().uncaughtException(thread, thrown);
+            }
+            return true;
+        }
+
+        /**
+         * Called by the pool for the tasks not started on {@link ForkJoinPool#shutdownNow()}.
+         *
+         * @param mayInterruptIfRunning ignored
+         * @return true if the task is cancelled
+         */
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            if (!executor.workStealingQueue.remove(this)) {
+                return false;
+            }
+            return super.cancel(mayInterruptIfRunning);
+        }
+    }
+
+    /**
+     * Worker of the pool.
+     */
+    private static final class WorkerThread extends ForkJoinWorkerThread {
+
+        WorkerThread(ForkJoinPool pool) {
+            super(pool);
+        }
+    }
+
+    /**
+     * <p>Queue of the tasks submitted to {@link WorkStealingDynamicThreadPoolExecutor} from outside the pool
+     * and not started yet, which is also the work queue of the superclass. <br />
+     * {@link #offer} submits the task to the pool if the capacity is not reached, and the removing operations
+     * take the task from the queue so that the pool skips it, so the rejected policies based on the work queue keep working.
+     *
+     * <p>The limits of the queue:
+     * <ul>
+     *     <li>the tasks forked by the workers stay in the deques of workers, they are neither bounded by the capacity
+     *     nor visible through the queue, see {@link WorkStealingDynamicThreadPoolExecutor#getForkedTaskCount()};</li>
+     *     <li>the order of execution is decided by the pool, so the head of the queue is the oldest task not started,
+     *     which is not necessarily the next one to be executed;</li>
+     *     <li>the iterator is weakly consistent and traverses a snapshot of the queue;</li>
+     *     <li>{@link #put} throws {@link RejectedExecutionException} if the executor is shutdown while waiting.</li>
+     * </ul>
+     */
+    public static final class WorkStealingQueue extends AbstractQueue<Runnable> implements ResizableCapacityBlockingQueue<Runnable> {
+
+        /**
+         * The capacity bound of tasks submitted from outside the pool
+         */
+        private volatile int capacity;
+
+        /**
+         * The executor
+         */
+        private WorkStealingDynamicThreadPoolExecutor executor;
+
+        /**
+         * Tasks submitted in order, the taken tasks are released when they reach the head
+         */
+        private final ConcurrentLinkedQueue<PluginAwareTask> submissions = new ConcurrentLinkedQueue<>();
+
+        /**
+         * Count of tasks which are submitted and not taken
+         */
+        private final AtomicInteger count = new AtomicInteger();
+
+        /**
+         * Lock held by waiting threads only
+         */
+        private final ReentrantLock lock = new ReentrantLock();
+
+        /**
+         * Wait queue for waiting takes
+         */
+        private final Condition notEmpty = lock.newCondition();
+
+        /**
+         * Wait queue for waiting puts
+         */
+        private final Condition notFull = lock.newCondition();
+
+        /**
+         * Count of threads waiting on {@link #notEmpty}, only changed while holding the lock
+         */
+        private volatile int takeWaiters;
+
+        /**
+         * Count of threads waiting on {@link #notFull}, only changed while holding the lock
+         */
+        private volatile int putWaiters;
+
+        WorkStealingQueue(int capacity) {
+            if (capacity <= 0) {
+                throw new IllegalArgumentException();
+            }
+            this.capacity = capacity;
+        }
+
+        @Override
+        public void setCapacity(int capacity) {
+            if (capacity <= 0) {
+                throw new IllegalArgumentException();
+            }
+            int oldCapacity = this.capacity;
+            this.capacity = capacity;
+            if (capacity > oldCapacity && putWaiters > 0) {
+                signalAll(notFull);
+            }
+        }
+
+        @Override
+        public int size() {
+            return count.get();
+        }
+
+        @Override
+        public int remainingCapacity() {
+            return Math.max(0, capacity - size());
+        }
+
+        /**
+         * Submit the task to the pool if the capacity is not reached.
+         *
+         * @param runnable the task
+         * @return false if the capacity is reached or the executor is shutdown
+         */
+        @Override
+        public boolean offer(@NonNull Runnable runnable) {
+            for (;;) {
+                int c = count.get();
+                if (c >= capacity) {
+                    return false;
+                }
+                if (count.compareAndSet(c, c + 1)) {
+                    break;
+                }
+            }
+            PluginAwareTask task = new PluginAwareTask(executor, runnable, true);
+            submissions.offer(task);
+            if (!executor.submitToPool(task)) {
+                if (task.tryTake()) {
+                    onTaken();
+                    executor.finishTask();
+                }
+                return false;
+            }
+            signalIfWaiting(takeWaiters, notEmpty);
+            return true;
+        }
+
+        @Override
+        public void put(@NonNull Runnable runnable) throws InterruptedException {
+            if (offer(runnable)) {
+                return;
+            }
+            lock.lockInterruptibly();
+            try {
+                putWaiters++;
+                try {
+                    while (!offer(runnable)) {
+                        if (executor.isShutdown()) {
+                            throw new RejectedExecutionException("Executor has been shutdown.");
+                        }
+                        notFull.await();
+                    }
+                } catch (InterruptedException ie) {
+                    // propagate to a non-interrupted thread
+                    notFull.signal();
+                    throw ie;
+                } finally {
+                    putWaiters--;
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        @Override
+        public boolean offer(@NonNull Runnable runnable, long timeout, TimeUnit unit) throws InterruptedException {
+            if (offer(runnable)) {
+                return true;
+            }
+            long nanos = unit.toNanos(timeout);
+            lock.lockInterruptibly();
+            try {
+                putWaiters++;
+                try {
+                    while (!offer(runnable)) {
+                        if (nanos <= 0 || executor.isShutdown()) {
+                            return false;
+                        }
+                        nanos = notFull.awaitNanos(nanos);
+                    }
+                    return true;
+                } catch (InterruptedException ie) {
+                    // propagate to a non-interrupted thread
+                    notFull.signal();
+                    throw ie;
+                } finally {
+                    putWaiters--;
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * Take the oldest task not started, the pool skips it afterwards.
+         *
+         * @return the task, or null if there is no task not started
+         */
+        @Override
+        public Runnable poll() {
+            for (PluginAwareTask task : submissions) {
+                if (remove(task)) {
+                    return task.runnable;
+                }
+            }
+            return null;
+        }
+
+        @Override
+        public Runnable take() throws InterruptedException {
+            Runnable task = poll();
+            if (task != null) {
+                return task;
+            }
+            lock.lockInterruptibly();
+            try {
+                takeWaiters++;
+                try {
+                    while ((task = poll()) == null) {
+                        notEmpty.await();
+                    }
+                    return task;
+                } catch (InterruptedException ie) {
+                    // propagate to a non-interrupted thread
+                    notEmpty.signal();
+                    throw ie;
+                } finally {
+                    takeWaiters--;
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        @Override
+        public Runnable poll(long timeout, TimeUnit unit) throws InterruptedException {
+            Runnable task = poll();
+            if (task != null) {
+                return task;
+            }
+            long nanos = unit.toNanos(timeout);
+            lock.lockInterruptibly();
+            try {
+                takeWaiters++;
+                try {
+                    while ((task = poll()) == null) {
+                        if (nanos <= 0) {
+                            return null;
+                        }
+                        nanos = notEmpty.awaitNanos(nanos);
+                    }
+                    return task;
+                } catch (InterruptedException ie) {
+                    // propagate to a non-interrupted thread
+                    notEmpty.signal();
+                    throw ie;
+                } finally {
+                    takeWaiters--;
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        @Override
+        public Runnable peek() {
+            for (PluginAwareTask task : submissions) {
+                if (!task.isTaken()) {
+                    return task.runnable;
+                }
+            }
+            return null;
+        }
+
+        @Override
+        public Iterator<Runnable> iterator() {
+            List<PluginAwareTask> tasks = new ArrayList<>();
+            for (PluginAwareTask task : submissions) {
+                if (!task.isTaken()) {
+                    tasks.add(task);
+                }
+            }
+            return new Itr(tasks);
+        }
+
+        @Override
+        public int drainTo(Collection<? super Runnable> c) {
+            return drainTo(c, Integer.MAX_VALUE);
+        }
+
+        @Override
+        public int drainTo(Collection<? super Runnable> c, int maxElements) {
+            if (c == null) {
+                throw new NullPointerException();
+            }
+            if (c == this) {
+                throw new IllegalArgumentException();
+            }
+            int n = 0;
+            for (Iterator<PluginAwareTask> it = submissions.iterator(); n < maxElements && it.hasNext();) {
+                PluginAwareTask task = it.next();
+                if (remove(task)) {
+                    c.add(task.runnable);
+                    n++;
+                }
+            }
+            return n;
+        }
+
+        /**
+         * Take the task so that it will not be executed.
+         *
+         * @param task task
+         * @return true if the task is taken by this call
+         */
+        private boolean remove(PluginAwareTask task) {
+            if (!task.tryTake()) {
+                return false;
+            }
+            if (task.external) {
+                onTaken();
+            }
+            executor.finishTask();
+            return true;
+        }
+
+        /**
+         * Called once for each task taken from the queue.
+         */
+        void onTaken() {
+            count.decrementAndGet();
+            PluginAwareTask head;
+            while ((head = submissions.peek()) != null && head.isTaken()) {
+                submissions.remove(head);
+            }
+            signalIfWaiting(putWaiters, notFull);
+        }
+
+        void signalAllWaiters() {
+            lock.lock();
+            try {
+                notFull.signalAll();
+                notEmpty.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * Signal a waiting thread, the volatile read of the waiters after changing the count
+         * pairs with the check of the queue after increasing the waiters, so no signal will be lost.
+         *
+         * @param waiters   count of waiters
+         * @param condition condition
+         */
+        private void signalIfWaiting(int waiters, Condition condition) {
+            if (waiters > 0) {
+                lock.lock();
+                try {
+                    condition.signal();
+                } finally {
+                    lock.unlock();
+                }
+            }
+        }
+
+        private void signalAll(Condition condition) {
+            lock.lock();
+            try {
+                condition.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * Iterator over a snapshot of the queue.
+         */
+        private class Itr implements Iterator<Runnable> {
+
+            private final List<PluginAwareTask> tasks;
+
+            private int cursor;
+
+            private PluginAwareTask lastRet;
+
+            Itr(List<PluginAwareTask> tasks) {
+                this.tasks = tasks;
+            }
+
+            @Override
+            public boolean hasNext() {
+                return cursor < tasks.size();
+            }
+
+            @Override
+            public Runnable next() {
+                if (cursor >= tasks.size()) {
+                    throw new NoSuchElementException();
+                }
+                lastRet = tasks.get(cursor++);
+                return lastRet.runnable;
+            }
+
+            @Override
+            public void remove() {
+                if (lastRet == null) {
+                    throw new IllegalStateException();
+                }
+                WorkStealingQueue.this.remove(lastRet);
+                lastRet = null;
+            }
+        }
+    }
+}
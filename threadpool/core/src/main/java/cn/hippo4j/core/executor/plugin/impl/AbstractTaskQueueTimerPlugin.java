@@ -0,0 +1,122 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.hippo4j.core.executor.plugin.impl;
+
+import cn.hippo4j.core.executor.ExtensibleThreadPoolExecutor;
+import cn.hippo4j.core.executor.ExtensibleThreadPoolExecutor.EnqueueTimeAware;
+import cn.hippo4j.core.executor.plugin.ExecuteAwarePlugin;
+import cn.hippo4j.core.executor.plugin.TaskAwarePlugin;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import lombok.Setter;
+
+/**
+ * <p>An abstract task queue time recording plugin,
+ * for thread-safe statistics the time of tasks waiting in the queue before being executed.
+ *
+ * <p>The task is stamped with {@link System#nanoTime} in {@link #beforeTaskExecute},
+ * and the queue time is calculated in {@link #beforeExecute} when a worker thread takes the task. <br />
+ * Tasks created by {@link ExtensibleThreadPoolExecutor#newTaskFor} already implement {@link EnqueueTimeAware}
+ * and are stamped in place, other tasks are wrapped once by a small stamped runnable.
+ * If several queue time plugins are registered, they share the same stamp.
+ *
+ * <p><b>NOTE:</b> The plugin should be registered after the plugins that decorate tasks in
+ * {@link TaskAwarePlugin#beforeTaskExecute}, such as {@link TaskDecoratorPlugin},
+ * otherwise the stamped task may be hidden by the decorator, and the queue time is not recorded.
+ *
+ * @see TaskQueueTimeHistogramPlugin
+ * @see TaskQueueTimeoutNotifyAlarmPlugin
+ */
+public abstract class AbstractTaskQueueTimerPlugin implements TaskAwarePlugin, ExecuteAwarePlugin {
+
+    /**
+     * Stamp the task with the current nano time.
+     *
+     * @param runnable runnable
+     * @return the stamped task
+     * @see ExtensibleThreadPoolExecutor#execute
+     */
+    @Override
+    public final Runnable beforeTaskExecute(@NonNull Runnable runnable) {
+        long now = System.nanoTime();
+        if (runnable instanceof EnqueueTimeAware) {
+            ((EnqueueTimeAware) runnable).setEnqueueTime(now);
+            return runnable;
+        }
+        EnqueueTimeAwareRunnable stamped = new EnqueueTimeAwareRunnable(runnable);
+        stamped.setEnqueueTime(now);
+        return stamped;
+    }
+
+    /**
+     * Calculate the time of the task waiting in the queue.
+     *
+     * @param thread   thread of executing task
+     * @param runnable task
+     * @see ExtensibleThreadPoolExecutor#beforeExecute
+     */
+    @Override
+    public final void beforeExecute(Thread thread, Runnable runnable) {
+        if (!(runnable instanceof EnqueueTimeAware)) {
+            return;
+        }
+        long enqueueTime = ((EnqueueTimeAware) runnable).getEnqueueTime();
+        if (enqueueTime == EnqueueTimeAware.NOT_STAMPED) {
+            return;
+        }
+        processQueueTime(Math.max(0L, System.nanoTime() - enqueueTime));
+    }
+
+    /**
+     * Processing the queue time of the task.
+     *
+     * @param taskQueueTime nano time of the task waiting in the queue
+     */
+    protected abstract void processQueueTime(long taskQueueTime);
+
+    /**
+     * Runnable wrapper which carries the enqueue time of a task
+     * that is not created by {@link ExtensibleThreadPoolExecutor#newTaskFor}.
+     */
+    @RequiredArgsConstructor
+    private static final class EnqueueTimeAwareRunnable implements Runnable, EnqueueTimeAware {
+
+        /**
+         * Original task
+         */
+        private final Runnable runnable;
+
+        /**
+         * Enqueue time
+         */
+        @Getter
+        @Setter
+        private long enqueueTime = NOT_STAMPED;
+
+        @Override
+        public void run() {
+            runnable.run();
+        }
+
+        @Override
+        public String toString() {
+            return runnable.toString();
+        }
+    }
+}
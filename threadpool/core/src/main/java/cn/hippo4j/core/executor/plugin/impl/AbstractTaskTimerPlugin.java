@@ -21,8 +21,6 @@ import cn.hippo4j.core.executor.ExtensibleThreadPoolExecutor;
 import cn.hippo4j.core.executor.plugin.ExecuteAwarePlugin;
 import cn.hippo4j.core.toolkit.SystemClock;
 
-import java.util.Optional;
-
 /**
  * <p>An abstract task execution time recording plugin
  * for thread-safe statistics the execution time of tasks.
@@ -30,6 +28,10 @@ import java.util.Optional;
  * <p>Must override {@link #processTaskTime} to define the processing logic for task execution time. <br />
  * Default time precision is milliseconds, may override {@link #currentTime} to redefine the time precision.
  *
+ * <p>The start time of the task is kept in a primitive slot bound to the worker thread,
+ * the slot is created once for each worker thread and reused for all subsequent tasks,
+ * so recording the time of a task does not allocate any object.
+ *
  * @see TaskTimeRecordPlugin
  * @see TaskTimeoutNotifyAlarmPlugin
  */
@@ -38,7 +40,7 @@ public abstract class AbstractTaskTimerPlugin implements ExecuteAwarePlugin {
     /**
      * Start times of executed tasks
      */
-    private final ThreadLocal<Long> startTimes = new ThreadLocal<>();
+    private final ThreadLocal<StartTime> startTimes = ThreadLocal.withInitial(StartTime::new);
 
     /**
      * Record the time when the worker thread starts executing the task.
@@ -49,7 +51,9 @@ public abstract class AbstractTaskTimerPlugin implements ExecuteAwarePlugin {
      */
     @Override
     public final void beforeExecute(Thread thread, Runnable runnable) {
-        startTimes.set(currentTime());
+        StartTime startTime = startTimes.get();
+        startTime.time = currentTime();
+        startTime.recorded = true;
     }
 
     /**
@@ -60,13 +64,12 @@ public abstract class AbstractTaskTimerPlugin implements ExecuteAwarePlugin {
      */
     @Override
     public final void afterExecute(Runnable runnable, Throwable throwable) {
-        try {
-            Optional.ofNullable(startTimes.get())
-                    .map(startTime -> currentTime() - startTime)
-                    .ifPresent(this::processTaskTime);
-        } finally {
-            startTimes.remove();
+        StartTime startTime = startTimes.get();
+        if (!startTime.recorded) {
+            return;
         }
+        startTime.recorded = false;
+        processTaskTime(currentTime() - startTime.time);
     }
 
     /**
@@ -84,4 +87,20 @@ public abstract class AbstractTaskTimerPlugin implements ExecuteAwarePlugin {
      * @param taskExecuteTime execute time of task
      */
     protected abstract void processTaskTime(long taskExecuteTime);
+
+    /**
+     * Start time of the task currently executed by the worker thread.
+     */
+    private static final class StartTime {
+
+        /**
+         * Start time
+         */
+        private long time;
+
+        /**
+         * Whether the start time has been recorded
+         */
+        private boolean recorded;
+    }
 }
@@ -0,0 +1,429 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.hippo4j.core.executor.plugin.impl;
+
+import cn.hippo4j.common.api.ThreadPoolConfigChange;
+import cn.hippo4j.common.executor.support.ResizableCapacityBlockingQueue;
+import cn.hippo4j.common.toolkit.ThreadPoolExecutorUtil;
+import cn.hippo4j.core.config.ApplicationContextHolder;
+import cn.hippo4j.core.executor.plugin.PluginRuntime;
+import cn.hippo4j.core.executor.plugin.RejectedAwarePlugin;
+import cn.hippo4j.core.executor.plugin.ShutdownAwarePlugin;
+import cn.hippo4j.core.executor.plugin.manager.ThreadPoolPluginSupport;
+import cn.hippo4j.core.executor.tuning.AdaptiveTuningProperties;
+import cn.hippo4j.core.executor.tuning.LittleLawTuningPolicy;
+import cn.hippo4j.core.executor.tuning.ThreadPoolTuningPolicy;
+import cn.hippo4j.core.executor.tuning.TuningResult;
+import cn.hippo4j.core.executor.tuning.TuningSample;
+import cn.hippo4j.threadpool.message.core.request.ChangeParameterNotifyRequest;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import static cn.hippo4j.common.constant.ChangeThreadPoolConstants.CHANGE_DELIMITER;
+
+/**
+ * <p>Closed-loop controller which resizes the thread-pool from the metrics of the thread-pool itself. <br />
+ * After the plugin is registered, the metrics are sampled every {@link AdaptiveTuningProperties#getSampleIntervalMillis()},
+ * then {@link ThreadPoolTuningPolicy} decides the new core pool size, maximum pool size and queue capacity
+ * within the bounds of {@link AdaptiveTuningProperties}. <br />
+ * The thread-pool is adjusted at most once every {@link AdaptiveTuningProperties#getMinAdjustIntervalMillis()},
+ * and each adjustment is sent as a parameter change notification through {@link ThreadPoolConfigChange}.
+ *
+ * <p>The queue capacity is only adjusted when the queue is a {@link ResizableCapacityBlockingQueue}.
+ * The sampling stops when the thread-pool is shut down, and restarts from scratch by {@link #reset}
+ * when the parameters are pushed by the config center, so that the pushed parameters are kept
+ * for at least {@link AdaptiveTuningProperties#getMinAdjustIntervalMillis()}.
+ *
+ * @see cn.hippo4j.core.executor.plugin.manager.AdaptiveTuningPluginRegistrar
+ */
+@Slf4j
+public class AdaptiveTuningPlugin extends AbstractTaskTimerPlugin implements RejectedAwarePlugin, ShutdownAwarePlugin {
+
+    public static final String PLUGIN_NAME = AdaptiveTuningPlugin.class.getSimpleName();
+
+    /**
+     * Adaptive tuning text
+     */
+    private static final String ADAPTIVE_TUNING_TEXT = "[{}] Adaptive tuning change parameter."
+            + "\n    corePoolSize: {}"
+            + "\n    maximumPoolSize: {}"
+            + "\n    capacity: {}";
+
+    /**
+     * Scheduler shared by all thread-pools
+     */
+    private static final ScheduledExecutorService TUNING_SCHEDULER = new ScheduledThreadPoolExecutor(1, runnable -> {
+        Thread thread = new Thread(runnable, "hippo4j.adaptive.tuning");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Thread-pool id
+     */
+    private final String threadPoolId;
+
+    /**
+     * Thread-pool executor
+     */
+    private final ThreadPoolExecutor threadPoolExecutor;
+
+    /**
+     * Tuning properties
+     */
+    @Getter
+    private final AdaptiveTuningProperties properties;
+
+    /**
+     * Tuning policy
+     */
+    @NonNull
+    private final ThreadPoolTuningPolicy tuningPolicy;
+
+    /**
+     * Thread pool config change, used to notify the adjustments
+     */
+    private final ThreadPoolConfigChange<ChangeParameterNotifyRequest> threadPoolConfigChange;
+
+    /**
+     * Total execution time of tasks completed in the current interval
+     */
+    private final LongAdder taskTimeNanos = new LongAdder();
+
+    /**
+     * Count of tasks completed in the current interval
+     */
+    private final LongAdder completedTaskCount = new LongAdder();
+
+    /**
+     * Count of tasks rejected in the current interval
+     */
+    private final LongAdder rejectedTaskCount = new LongAdder();
+
+    /**
+     * Count of adjustments
+     */
+    private final AtomicLong adjustCount = new AtomicLong();
+
+    /**
+     * Nano time of the last sampling
+     */
+    private long lastSampleTime = System.nanoTime();
+
+    /**
+     * Nano time of the last adjustment
+     */
+    private long lastAdjustTime = System.nanoTime();
+
+    /**
+     * Future of the scheduled tuning
+     */
+    private volatile ScheduledFuture<?> tuningFuture;
+
+    /**
+     * Create a {@link AdaptiveTuningPlugin}.
+     *
+     * @param threadPoolId           thread-pool id
+     * @param threadPoolExecutor     thread-pool executor
+     * @param properties             tuning properties
+     * @param tuningPolicy           tuning policy
+     * @param threadPoolConfigChange thread pool config change, the adjustments are not notified if null
+     */
+    public AdaptiveTuningPlugin(String threadPoolId, ThreadPoolExecutor threadPoolExecutor, AdaptiveTuningProperties properties,
+                                @NonNull ThreadPoolTuningPolicy tuningPolicy, ThreadPoolConfigChange<ChangeParameterNotifyRequest> threadPoolConfigChange) {
+        this.threadPoolId = threadPoolId;
+        this.threadPoolExecutor = threadPoolExecutor;
+        this.properties = properties;
+        this.tuningPolicy = tuningPolicy;
+        this.threadPoolConfigChange = threadPoolConfigChange;
+    }
+
+    /**
+     * Create a {@link AdaptiveTuningPlugin},
+     * the adjustments are notified by the {@link ThreadPoolConfigChange} in the spring context if present.
+     *
+     * @param threadPoolId       thread-pool id
+     * @param threadPoolExecutor thread-pool executor
+     * @param properties         tuning properties
+     * @param tuningPolicy       tuning policy
+     */
+    @SuppressWarnings("unchecked")
+    public AdaptiveTuningPlugin(String threadPoolId, ThreadPoolExecutor threadPoolExecutor, AdaptiveTuningProperties properties,
+                                @NonNull ThreadPoolTuningPolicy tuningPolicy) {
+        this(
+                threadPoolId, threadPoolExecutor, properties, tuningPolicy,
+                Optional.ofNullable(ApplicationContextHolder.getInstance())
+                        .flatMap(context -> context.getBeansOfType(ThreadPoolConfigChange.class).values().stream().findFirst())
+                        .orElse(null));
+    }
+
+    /**
+     * Create a {@link AdaptiveTuningPlugin} with {@link LittleLawTuningPolicy}.
+     *
+     * @param threadPoolId       thread-pool id
+     * @param threadPoolExecutor thread-pool executor
+     * @param properties         tuning properties
+     */
+    public AdaptiveTuningPlugin(String threadPoolId, ThreadPoolExecutor threadPoolExecutor, AdaptiveTuningProperties properties) {
+        this(threadPoolId, threadPoolExecutor, properties, new LittleLawTuningPolicy());
+    }
+
+    /**
+     * Start sampling when the plugin is registered.
+     */
+    @Override
+    public synchronized void start() {
+        if (Objects.nonNull(tuningFuture)) {
+            return;
+        }
+        long interval = properties.getSampleIntervalMillis();
+        lastSampleTime = System.nanoTime();
+        tuningFuture = TUNING_SCHEDULER.scheduleWithFixedDelay(this::safeTune, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stop sampling when the plugin is unregistered.
+     */
+    @Override
+    public synchronized void stop() {
+        if (Objects.nonNull(tuningFuture)) {
+            tuningFuture.cancel(false);
+            tuningFuture = null;
+        }
+    }
+
+    /**
+     * Stop sampling when the thread-pool is shut down.
+     *
+     * @param executor       executor
+     * @param remainingTasks remaining tasks
+     */
+    @Override
+    public void afterShutdown(ThreadPoolExecutor executor, List<Runnable> remainingTasks) {
+        stop();
+    }
+
+    /**
+     * Discard the metrics sampled so far and postpone the next adjustment by {@link AdaptiveTuningProperties#getMinAdjustIntervalMillis()},
+     * called when the parameters of thread-pool are pushed by the config center.
+     */
+    public synchronized void reset() {
+        long now = System.nanoTime();
+        completedTaskCount.reset();
+        taskTimeNanos.reset();
+        rejectedTaskCount.reset();
+        lastSampleTime = now;
+        lastAdjustTime = now;
+    }
+
+    /**
+     * Get plugin runtime info.
+     *
+     * @return plugin runtime info
+     */
+    @Override
+    public PluginRuntime getPluginRuntime() {
+        return new PluginRuntime(getId())
+                .addInfo("tuningPolicy", tuningPolicy.getClass().getSimpleName())
+                .addInfo("minPoolSize", properties.getMinPoolSize())
+                .addInfo("maxPoolSize", properties.getMaxPoolSize())
+                .addInfo("adjustCount", adjustCount.get());
+    }
+
+    /**
+     * Get the current time in nanoseconds.
+     *
+     * @return current time
+     */
+    @Override
+    protected long currentTime() {
+        return System.nanoTime();
+    }
+
+    /**
+     * Record the execution time of task.
+     *
+     * @param taskExecuteTime execute nano time of task
+     */
+    @Override
+    protected void processTaskTime(long taskExecuteTime) {
+        taskTimeNanos.add(taskExecuteTime);
+        completedTaskCount.increment();
+    }
+
+    /**
+     * Record the rejected task.
+     *
+     * @param runnable task
+     * @param executor executor
+     */
+    @Override
+    public void beforeRejectedExecution(Runnable runnable, ThreadPoolExecutor executor) {
+        rejectedTaskCount.increment();
+    }
+
+    /**
+     * Whether the metrics are being sampled.
+     *
+     * @return true if the tuning is scheduled
+     */
+    public boolean isSampling() {
+        return Objects.nonNull(tuningFuture);
+    }
+
+    /**
+     * Get count of adjustments.
+     *
+     * @return count of adjustments
+     */
+    public long getAdjustCount() {
+        return adjustCount.get();
+    }
+
+    private void safeTune() {
+        try {
+            tune();
+        } catch (Throwable ex) {
+            log.error("[{}] Failed to tune thread-pool adaptively.", threadPoolId, ex);
+        }
+    }
+
+    /**
+     * Sample the metrics of the last interval and adjust the thread-pool if necessary.
+     *
+     * @return true if the thread-pool is adjusted
+     */
+    public synchronized boolean tune() {
+        if (threadPoolExecutor.isShutdown()) {
+            stop();
+            return false;
+        }
+        TuningSample sample = sample();
+        TuningResult result = tuningPolicy.tune(sample, properties);
+        if (Objects.isNull(result) || isUnchanged(sample, result)) {
+            return false;
+        }
+        long now = System.nanoTime();
+        if (now - lastAdjustTime < TimeUnit.MILLISECONDS.toNanos(properties.getMinAdjustIntervalMillis())) {
+            return false;
+        }
+        lastAdjustTime = now;
+        apply(sample, result);
+        adjustCount.incrementAndGet();
+        return true;
+    }
+
+    private TuningSample sample() {
+        long now = System.nanoTime();
+        long intervalNanos = now - lastSampleTime;
+        lastSampleTime = now;
+        long completed = completedTaskCount.sumThenReset();
+        long totalTime = taskTimeNanos.sumThenReset();
+        BlockingQueue<Runnable> queue = threadPoolExecutor.getQueue();
+        int queueSize = queue.size();
+        return TuningSample.builder()
+                .intervalNanos(intervalNanos)
+                .corePoolSize(threadPoolExecutor.getCorePoolSize())
+                .maximumPoolSize(threadPoolExecutor.getMaximumPoolSize())
+                .poolSize(threadPoolExecutor.getPoolSize())
+                .activeCount(threadPoolExecutor.getActiveCount())
+                .queueSize(queueSize)
+                .queueCapacity((int) Math.min(Integer.MAX_VALUE, (long) queueSize + queue.remainingCapacity()))
+                .completedTaskCount(completed)
+                .rejectedTaskCount(rejectedTaskCount.sumThenReset())
+                .avgTaskTimeNanos(completed == 0 ? 0L : totalTime / completed)
+                .build();
+    }
+
+    private boolean isUnchanged(TuningSample sample, TuningResult result) {
+        return sample.getCorePoolSize() == result.getCorePoolSize()
+                && sample.getMaximumPoolSize() == result.getMaximumPoolSize()
+                && (sample.getQueueCapacity() == result.getQueueCapacity() || !isQueueResizable());
+    }
+
+    private boolean isQueueResizable() {
+        return threadPoolExecutor.getQueue() instanceof ResizableCapacityBlockingQueue;
+    }
+
+    private void apply(TuningSample sample, TuningResult result) {
+        ThreadPoolExecutorUtil.safeSetPoolSize(threadPoolExecutor, result.getCorePoolSize(), result.getMaximumPoolSize());
+        int nowQueueCapacity = sample.getQueueCapacity();
+        if (isQueueResizable() && result.getQueueCapacity() > 0) {
+            ((ResizableCapacityBlockingQueue<Runnable>) threadPoolExecutor.getQueue()).setCapacity(result.getQueueCapacity());
+            nowQueueCapacity = result.getQueueCapacity();
+        }
+        log.info(ADAPTIVE_TUNING_TEXT,
+                threadPoolId,
+                String.format(CHANGE_DELIMITER, sample.getCorePoolSize(), result.getCorePoolSize()),
+                String.format(CHANGE_DELIMITER, sample.getMaximumPoolSize(), result.getMaximumPoolSize()),
+                String.format(CHANGE_DELIMITER, sample.getQueueCapacity(), nowQueueCapacity));
+        if (Objects.isNull(threadPoolConfigChange)) {
+            return;
+        }
+        try {
+            threadPoolConfigChange.sendPoolConfigChange(buildChangeRequest(sample, result, nowQueueCapacity));
+        } catch (Throwable ex) {
+            log.error("[{}] Failed to send adaptive tuning notice. Message: {}", threadPoolId, ex.getMessage());
+        }
+    }
+
+    private ChangeParameterNotifyRequest buildChangeRequest(TuningSample sample, TuningResult result, int nowQueueCapacity) {
+        long keepAliveTime = threadPoolExecutor.getKeepAliveTime(TimeUnit.SECONDS);
+        boolean allowsCoreThreadTimeOut = threadPoolExecutor.allowsCoreThreadTimeOut();
+        String rejectedName = threadPoolExecutor.getRejectedExecutionHandler().getClass().getSimpleName();
+        Long executeTimeOut = threadPoolExecutor instanceof ThreadPoolPluginSupport
+                ? ((ThreadPoolPluginSupport) threadPoolExecutor)
+                        .getThreadPoolPluginManager()
+                        .getPluginOfType(TaskTimeoutNotifyAlarmPlugin.PLUGIN_NAME, TaskTimeoutNotifyAlarmPlugin.class)
+                        .map(TaskTimeoutNotifyAlarmPlugin::getExecuteTimeOut)
+                        .orElse(null)
+                : null;
+        ChangeParameterNotifyRequest changeParameterNotifyRequest = ChangeParameterNotifyRequest.builder()
+                .beforeCorePoolSize(sample.getCorePoolSize())
+                .beforeMaximumPoolSize(sample.getMaximumPoolSize())
+                .beforeAllowsCoreThreadTimeOut(allowsCoreThreadTimeOut)
+                .beforeKeepAliveTime(keepAliveTime)
+                .beforeQueueCapacity(sample.getQueueCapacity())
+                .beforeRejectedName(rejectedName)
+                .beforeExecuteTimeOut(executeTimeOut)
+                .blockingQueueName(threadPoolExecutor.getQueue().getClass().getSimpleName())
+                .nowCorePoolSize(result.getCorePoolSize())
+                .nowMaximumPoolSize(result.getMaximumPoolSize())
+                .nowAllowsCoreThreadTimeOut(allowsCoreThreadTimeOut)
+                .nowKeepAliveTime(keepAliveTime)
+                .nowQueueCapacity(nowQueueCapacity)
+                .nowRejectedName(rejectedName)
+                .nowExecuteTimeOut(executeTimeOut)
+                .build();
+        changeParameterNotifyRequest.setThreadPoolId(threadPoolId);
+        return changeParameterNotifyRequest;
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.hippo4j.core.executor.plugin.impl;
+
+import cn.hippo4j.common.support.IntervalLatencyHistogram;
+import cn.hippo4j.common.support.LatencyHistogram;
+import cn.hippo4j.core.executor.plugin.PluginRuntime;
+
+/**
+ * <p>Record the time of tasks waiting in the queue into a {@link LatencyHistogram} with nanosecond precision,
+ * which separates the queueing delay of tasks from their execution time recorded by {@link TaskTimeHistogramPlugin}. <br />
+ * The histogram is reset every time {@link #publishSnapshot} publishes a new snapshot,
+ * so that each collect interval yields its own percentiles.
+ *
+ * @see IntervalLatencyHistogram
+ */
+public class TaskQueueTimeHistogramPlugin extends AbstractTaskQueueTimerPlugin {
+
+    /**
+     * pluginName.
+     */
+    public static final String PLUGIN_NAME = TaskQueueTimeHistogramPlugin.class.getSimpleName();
+
+    /**
+     * Default min interval between two snapshots
+     */
+    private static final long DEFAULT_MIN_SNAPSHOT_INTERVAL_MILLIS = 1000L;
+
+    /**
+     * Default count of histogram stripes, limited to bound the memory of each thread-pool
+     */
+    private static final int DEFAULT_STRIPE_COUNT = Math.min(Runtime.getRuntime().availableProcessors(), 8);
+
+    /**
+     * Histogram of task queue time
+     */
+    private final IntervalLatencyHistogram histogram;
+
+    /**
+     * Create a {@link TaskQueueTimeHistogramPlugin}.
+     *
+     * @param stripeCount               count of histogram stripes
+     * @param minSnapshotIntervalMillis min interval between two snapshots
+     */
+    public TaskQueueTimeHistogramPlugin(int stripeCount, long minSnapshotIntervalMillis) {
+        this.histogram = new IntervalLatencyHistogram(stripeCount, minSnapshotIntervalMillis);
+    }
+
+    /**
+     * Create a {@link TaskQueueTimeHistogramPlugin}.
+     */
+    public TaskQueueTimeHistogramPlugin() {
+        this(DEFAULT_STRIPE_COUNT, DEFAULT_MIN_SNAPSHOT_INTERVAL_MILLIS);
+    }
+
+    /**
+     * Get plugin runtime info.
+     *
+     * @return plugin runtime info
+     */
+    @Override
+    public PluginRuntime getPluginRuntime() {
+        LatencyHistogram.Snapshot snapshot = histogram.getLastSnapshot();
+        return new PluginRuntime(getId())
+                .addInfo("taskCount", snapshot.getCount())
+                .addInfo("p50", snapshot.getP50() + "ns")
+                .addInfo("p99", snapshot.getP99() + "ns")
+                .addInfo("p999", snapshot.getP999() + "ns")
+                .addInfo("max", snapshot.getMax() + "ns");
+    }
+
+    /**
+     * Record the queue time of task.
+     *
+     * @param taskQueueTime nano time of the task waiting in the queue
+     */
+    @Override
+    protected void processQueueTime(long taskQueueTime) {
+        histogram.record(taskQueueTime);
+    }
+
+    /**
+     * Get the last published snapshot without resetting the histogram.
+     *
+     * @return snapshot of the last interval
+     * @see IntervalLatencyHistogram#getLastSnapshot
+     */
+    public LatencyHistogram.Snapshot getLastSnapshot() {
+        return histogram.getLastSnapshot();
+    }
+
+    /**
+     * Publish the snapshot of the interval since the last publication and reset the histogram.
+     *
+     * @return the last published snapshot
+     * @see IntervalLatencyHistogram#publishSnapshot
+     */
+    public LatencyHistogram.Snapshot publishSnapshot() {
+        return histogram.publishSnapshot();
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.hippo4j.core.executor.plugin.impl;
+
+import cn.hippo4j.core.config.ApplicationContextHolder;
+import cn.hippo4j.core.executor.plugin.PluginRuntime;
+import cn.hippo4j.threadpool.alarm.api.ThreadPoolCheckAlarm;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.Setter;
+
+import java.util.Optional;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Send alarm notification when the time of task waiting in the queue exceeds the threshold.
+ */
+@AllArgsConstructor
+public class TaskQueueTimeoutNotifyAlarmPlugin extends AbstractTaskQueueTimerPlugin {
+
+    public static final String PLUGIN_NAME = TaskQueueTimeoutNotifyAlarmPlugin.class.getSimpleName();
+
+    /**
+     * Thread-pool id
+     */
+    private final String threadPoolId;
+
+    /**
+     * Queue time-out
+     */
+    @Getter
+    @Setter
+    private Long queueTimeOut;
+
+    /**
+     * Thread-pool executor
+     */
+    private final ThreadPoolExecutor threadPoolExecutor;
+
+    /**
+     * Thread pool check alarm
+     */
+    @NonNull
+    private final ThreadPoolCheckAlarm threadPoolCheckAlarm;
+
+    /**
+     * Create a {@link TaskQueueTimeoutNotifyAlarmPlugin}.
+     *
+     * @param threadPoolId       thread pool id
+     * @param queueTimeOut       queue time out
+     * @param threadPoolExecutor thread pool executor
+     */
+    public TaskQueueTimeoutNotifyAlarmPlugin(String threadPoolId, Long queueTimeOut, ThreadPoolExecutor threadPoolExecutor) {
+        this(
+                threadPoolId, queueTimeOut, threadPoolExecutor,
+                Optional.ofNullable(ApplicationContextHolder.getInstance())
+                        .map(context -> context.getBean(ThreadPoolCheckAlarm.class))
+                        .orElseGet(ThreadPoolCheckAlarm::none));
+    }
+
+    /**
+     * Get plugin runtime info.
+     *
+     * @return plugin runtime info
+     */
+    @Override
+    public PluginRuntime getPluginRuntime() {
+        return new PluginRuntime(getId())
+                .addInfo("queueTimeOut", queueTimeOut + "ms");
+    }
+
+    /**
+     * Check whether the task queue time exceeds {@link #queueTimeOut},
+     * if it exceeds this time, send an alarm notification.
+     *
+     * @param taskQueueTime nano time of the task waiting in the queue
+     */
+    @Override
+    protected void processQueueTime(long taskQueueTime) {
+        if (queueTimeOut == null || queueTimeOut <= 0) {
+            return;
+        }
+        long queueTimeMillis = TimeUnit.NANOSECONDS.toMillis(taskQueueTime);
+        if (queueTimeMillis <= queueTimeOut) {
+            return;
+        }
+        threadPoolCheckAlarm.asyncSendQueueTimeOutAlarm(threadPoolId, queueTimeMillis, queueTimeOut, threadPoolExecutor);
+    }
+}
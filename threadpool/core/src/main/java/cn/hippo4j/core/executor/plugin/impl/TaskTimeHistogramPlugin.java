@@ -0,0 +1,134 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.hippo4j.core.executor.plugin.impl;
+
+import cn.hippo4j.common.support.IntervalLatencyHistogram;
+import cn.hippo4j.common.support.LatencyHistogram;
+import cn.hippo4j.core.executor.plugin.PluginRuntime;
+
+/**
+ * <p>Record the execution time of tasks into a {@link LatencyHistogram} with nanosecond precision. <br />
+ * The histogram is reset every time {@link #publishSnapshot} publishes a new snapshot,
+ * so that each collect interval yields its own percentiles.
+ *
+ * @see IntervalLatencyHistogram
+ */
+public class TaskTimeHistogramPlugin extends AbstractTaskTimerPlugin {
+
+    /**
+     * pluginName.
+     */
+    public static final String PLUGIN_NAME = TaskTimeHistogramPlugin.class.getSimpleName();
+
+    /**
+     * Default min interval between two snapshots
+     */
+    private static final long DEFAULT_MIN_SNAPSHOT_INTERVAL_MILLIS = 1000L;
+
+    /**
+     * Default count of histogram stripes, limited to bound the memory of each thread-pool
+     */
+    private static final int DEFAULT_STRIPE_COUNT = Math.min(Runtime.getRuntime().availableProcessors(), 8);
+
+    /**
+     * Histogram of task execution time
+     */
+    private final IntervalLatencyHistogram histogram;
+
+    /**
+     * Create a {@link TaskTimeHistogramPlugin}.
+     *
+     * @param stripeCount               count of histogram stripes
+     * @param minSnapshotIntervalMillis min interval between two snapshots
+     */
+    public TaskTimeHistogramPlugin(int stripeCount, long minSnapshotIntervalMillis) {
+        this.histogram = new IntervalLatencyHistogram(stripeCount, minSnapshotIntervalMillis);
+    }
+
+    /**
+     * Create a {@link TaskTimeHistogramPlugin}.
+     */
+    public TaskTimeHistogramPlugin() {
+        this(DEFAULT_STRIPE_COUNT, DEFAULT_MIN_SNAPSHOT_INTERVAL_MILLIS);
+    }
+
+    /**
+     * Get plugin runtime info.
+     *
+     * @return plugin runtime info
+     */
+    @Override
+    public PluginRuntime getPluginRuntime() {
+        LatencyHistogram.Snapshot snapshot = histogram.getLastSnapshot();
+        return new PluginRuntime(getId())
+                .addInfo("taskCount", snapshot.getCount())
+                .addInfo("p50", snapshot.getP50() + "ns")
+                .addInfo("p99", snapshot.getP99() + "ns")
+                .addInfo("p999", snapshot.getP999() + "ns")
+                .addInfo("max", snapshot.getMax() + "ns");
+    }
+
+    /**
+     * Get the current time in nanoseconds.
+     *
+     * @return current time
+     */
+    @Override
+    protected long currentTime() {
+        return System.nanoTime();
+    }
+
+    /**
+     * Record the execution time of task.
+     *
+     * @param taskExecuteTime execute nano time of task
+     */
+    @Override
+    protected void processTaskTime(long taskExecuteTime) {
+        histogram.record(taskExecuteTime);
+    }
+
+    /**
+     * Get the last published snapshot without resetting the histogram.
+     *
+     * @return snapshot of the last interval
+     * @see IntervalLatencyHistogram#getLastSnapshot
+     */
+    public LatencyHistogram.Snapshot getLastSnapshot() {
+        return histogram.getLastSnapshot();
+    }
+
+    /**
+     * Publish the snapshot of the interval since the last publication and reset the histogram.
+     *
+     * @return the last published snapshot
+     * @see IntervalLatencyHistogram#publishSnapshot
+     */
+    public LatencyHistogram.Snapshot publishSnapshot() {
+        return histogram.publishSnapshot();
+    }
+
+    /**
+     * Get min interval between two snapshots.
+     *
+     * @return min interval in milliseconds
+     */
+    public long getMinSnapshotIntervalMillis() {
+        return histogram.getMinSnapshotIntervalMillis();
+    }
+}
@@ -23,19 +23,20 @@ import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 
 import java.lang.reflect.Array;
-import java.util.Arrays;
 import java.util.HashMap;
-import java.util.List;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReadWriteLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
-import java.util.stream.Collectors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * <p>Record task execution time indicator. <br />
  * The initialization size of the timer container can be specified during construction,
  * It will route it to different timers in the container according to the {@link Thread#getId},
- * to reduce the lock competition strength for a single timer.
+ * to reduce the competition strength for a single timer.
+ *
+ * <p>The execution time of tasks is recorded with nanosecond precision,
+ * each timer is composed of striped {@link LongAdder} and {@link LongAccumulator} cells,
+ * so recording does not need any lock and does not allocate any object.
  */
 public class TaskTimeRecordPlugin extends AbstractTaskTimerPlugin {
 
@@ -113,10 +114,20 @@ public class TaskTimeRecordPlugin extends AbstractTaskTimerPlugin {
                 .addInfo("avgTaskTime", summary.getAvgTaskTimeMillis() + "ms");
     }
 
+    /**
+     * Get the current time in nanoseconds.
+     *
+     * @return current time
+     */
+    @Override
+    protected long currentTime() {
+        return System.nanoTime();
+    }
+
     /**
      * Refresh time indicators of the current instance.
      *
-     * @param taskExecuteTime execute time of task
+     * @param taskExecuteTime execute nano time of task
      */
     @Override
     protected void processTaskTime(long taskExecuteTime) {
@@ -130,29 +141,25 @@ public class TaskTimeRecordPlugin extends AbstractTaskTimerPlugin {
      * @return data snapshot
      */
     public Summary summarize() {
-        // ignore unused timers
-        List<Summary> summaries = Arrays.stream(timerTable)
-                .map(Timer::summarize)
-                .filter(s -> s.getTaskCount() > 0)
-                .collect(Collectors.toList());
-
-        // summarize data
-        long totalTaskTimeMillis = 0L;
-        long maxTaskTimeMillis = DEFAULT_TIME_MILLS;
-        long minTaskTimeMillis = DEFAULT_TIME_MILLS;
+        long totalTaskTimeNanos = 0L;
+        long maxTaskTimeNanos = Long.MIN_VALUE;
+        long minTaskTimeNanos = Long.MAX_VALUE;
         long taskCount = 0L;
-        for (Summary summary : summaries) {
-            if (taskCount > 0) {
-                maxTaskTimeMillis = Math.max(maxTaskTimeMillis, summary.getMaxTaskTimeMillis());
-                minTaskTimeMillis = Math.min(minTaskTimeMillis, summary.getMinTaskTimeMillis());
-            } else {
-                maxTaskTimeMillis = summary.getMaxTaskTimeMillis();
-                minTaskTimeMillis = summary.getMinTaskTimeMillis();
+        for (Timer timer : timerTable) {
+            // read the count first, the other cells have been updated for all the counted tasks
+            long count = timer.taskCount.sum();
+            // ignore unused timers
+            if (count <= 0L) {
+                continue;
             }
-            totalTaskTimeMillis += summary.getTotalTaskTimeMillis();
-            taskCount += summary.getTaskCount();
+            taskCount += count;
+            totalTaskTimeNanos += timer.totalTaskTimeNanos.sum();
+            maxTaskTimeNanos = Math.max(maxTaskTimeNanos, timer.maxTaskTimeNanos.get());
+            minTaskTimeNanos = Math.min(minTaskTimeNanos, timer.minTaskTimeNanos.get());
         }
-        return new Summary(totalTaskTimeMillis, maxTaskTimeMillis, minTaskTimeMillis, taskCount);
+        return taskCount > 0L
+                ? new Summary(totalTaskTimeNanos, maxTaskTimeNanos, minTaskTimeNanos, taskCount)
+                : new Summary(0L, DEFAULT_TIME_MILLS, DEFAULT_TIME_MILLS, 0L);
     }
 
     private Timer getTimerForCurrentThread() {
@@ -175,79 +182,42 @@ public class TaskTimeRecordPlugin extends AbstractTaskTimerPlugin {
 
     /**
      * <p>Independent unit for providing time recording function.<br />
-     * Support thread-safe operations when reading and writing in a concurrent environment.
+     * Support lock-free operations when reading and writing in a concurrent environment.
      */
     private static class Timer {
 
         /**
-         * Lock instance
-         */
-        private final ReadWriteLock lock = new ReentrantReadWriteLock();
-
-        /**
-         * Total execution milli time of all tasks
+         * Total execution nano time of all tasks
          */
-        private long totalTaskTimeMillis = 0L;
+        private final LongAdder totalTaskTimeNanos = new LongAdder();
 
         /**
-         * Maximum task milli execution time, default -1
+         * Maximum task nano execution time
          */
-        private long maxTaskTimeMillis = -1L;
+        private final LongAccumulator maxTaskTimeNanos = new LongAccumulator(Math::max, Long.MIN_VALUE);
 
         /**
-         * Minimal task milli execution time, default -1
+         * Minimal task nano execution time
          */
-        private long minTaskTimeMillis = -1L;
+        private final LongAccumulator minTaskTimeNanos = new LongAccumulator(Math::min, Long.MAX_VALUE);
 
         /**
          * Count of completed task
          */
-        private long taskCount = 0L;
+        private final LongAdder taskCount = new LongAdder();
 
         /**
          * Record task execute time.
+         * The count is updated last, so that a reader who sees it will also see the other cells of the task.
          *
-         * @param taskExecuteTime task execute time
+         * @param taskExecuteTime task execute nano time
          */
         public void recordTaskTime(long taskExecuteTime) {
-            Lock writeLock = lock.writeLock();
-            writeLock.lock();
-            try {
-                if (taskCount > 0) {
-                    maxTaskTimeMillis = Math.max(taskExecuteTime, maxTaskTimeMillis);
-                    minTaskTimeMillis = Math.min(taskExecuteTime, minTaskTimeMillis);
-                } else {
-                    maxTaskTimeMillis = taskExecuteTime;
-                    minTaskTimeMillis = taskExecuteTime;
-                }
-                taskCount = taskCount + 1;
-                totalTaskTimeMillis += taskExecuteTime;
-            } finally {
-                writeLock.unlock();
-            }
+            totalTaskTimeNanos.add(taskExecuteTime);
+            maxTaskTimeNanos.accumulate(taskExecuteTime);
+            minTaskTimeNanos.accumulate(taskExecuteTime);
+            taskCount.increment();
         }
-
-        /**
-         * Get the summary statistics of the instance at the current time.
-         *
-         * @return data snapshot
-         */
-        public Summary summarize() {
-            Lock readLock = lock.readLock();
-            Summary statistics;
-            readLock.lock();
-            try {
-                statistics = new Summary(
-                        this.totalTaskTimeMillis,
-                        this.maxTaskTimeMillis,
-                        this.minTaskTimeMillis,
-                        this.taskCount);
-            } finally {
-                readLock.unlock();
-            }
-            return statistics;
-        }
-
     }
 
     /**
@@ -260,31 +230,66 @@ public class TaskTimeRecordPlugin extends AbstractTaskTimerPlugin {
         /**
          * Total execution nano time of all tasks
          */
-        private final long totalTaskTimeMillis;
+        private final long totalTaskTimeNanos;
 
         /**
-         * Maximum task nano execution time
+         * Maximum task nano execution time, -1 if no task has been recorded
          */
-        private final long maxTaskTimeMillis;
+        private final long maxTaskTimeNanos;
 
         /**
-         * Minimal task nano execution time
+         * Minimal task nano execution time, -1 if no task has been recorded
          */
-        private final long minTaskTimeMillis;
+        private final long minTaskTimeNanos;
 
         /**
          * Count of completed task
          */
         private final long taskCount;
 
+        /**
+         * Get the total task time in milliseconds
+         *
+         * @return total task time
+         */
+        public long getTotalTaskTimeMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(totalTaskTimeNanos);
+        }
+
+        /**
+         * Get the max task time in milliseconds
+         *
+         * @return max task time
+         */
+        public long getMaxTaskTimeMillis() {
+            return taskCount > 0L ? TimeUnit.NANOSECONDS.toMillis(maxTaskTimeNanos) : DEFAULT_TIME_MILLS;
+        }
+
+        /**
+         * Get the min task time in milliseconds
+         *
+         * @return min task time
+         */
+        public long getMinTaskTimeMillis() {
+            return taskCount > 0L ? TimeUnit.NANOSECONDS.toMillis(minTaskTimeNanos) : DEFAULT_TIME_MILLS;
+        }
+
+        /**
+         * Get the avg task time in nanoseconds
+         *
+         * @return avg task time
+         */
+        public long getAvgTaskTimeNanos() {
+            return taskCount > 0L ? totalTaskTimeNanos / taskCount : NO_TASK_COUNT;
+        }
+
         /**
          * Get the avg task time in milliseconds
          *
          * @return avg task time
          */
         public long getAvgTaskTimeMillis() {
-            long totalTaskCount = getTaskCount();
-            return totalTaskCount > 0L ? getTotalTaskTimeMillis() / totalTaskCount : NO_TASK_COUNT;
+            return taskCount > 0L ? TimeUnit.NANOSECONDS.toMillis(getAvgTaskTimeNanos()) : NO_TASK_COUNT;
         }
     }
 
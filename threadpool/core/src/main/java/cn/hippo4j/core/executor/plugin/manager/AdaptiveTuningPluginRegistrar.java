@@ -0,0 +1,115 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.hippo4j.core.executor.plugin.manager;
+
+import cn.hippo4j.common.model.executor.ExecutorAdaptiveTuningProperties;
+import cn.hippo4j.core.executor.plugin.impl.AdaptiveTuningPlugin;
+import cn.hippo4j.core.executor.tuning.AdaptiveTuningProperties;
+import cn.hippo4j.core.executor.tuning.LittleLawTuningPolicy;
+import cn.hippo4j.core.executor.tuning.ThreadPoolTuningPolicy;
+import lombok.NonNull;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * <p>Register {@link AdaptiveTuningPlugin} for the thread-pools which opt in to adaptive tuning. <br />
+ * Only the thread-pool whose id has been configured by {@link AdaptiveTuningProperties#getThreadPoolId()}
+ * will be registered, other thread-pools are not affected.
+ *
+ * <p>In config mode, the tuning is bound to the {@code adaptive-tuning} of executor properties by {@link #configure},
+ * which is called on startup and on every config center push, so no registrar bean needs to be declared.
+ *
+ * @see AdaptiveTuningPlugin
+ */
+public class AdaptiveTuningPluginRegistrar implements ThreadPoolPluginRegistrar {
+
+    /**
+     * Tuning properties of thread-pools, key is thread-pool id
+     */
+    private final Map<String, AdaptiveTuningProperties> tuningProperties = new ConcurrentHashMap<>();
+
+    /**
+     * Supplier of tuning policy, each thread-pool has its own policy instance
+     */
+    private final Supplier<ThreadPoolTuningPolicy> tuningPolicySupplier;
+
+    /**
+     * Create a {@link AdaptiveTuningPluginRegistrar}.
+     *
+     * @param tuningProperties     tuning properties of thread-pools
+     * @param tuningPolicySupplier supplier of tuning policy
+     */
+    public AdaptiveTuningPluginRegistrar(@NonNull Collection<AdaptiveTuningProperties> tuningProperties,
+                                         @NonNull Supplier<ThreadPoolTuningPolicy> tuningPolicySupplier) {
+        tuningProperties.forEach(each -> this.tuningProperties.put(each.getThreadPoolId(), each));
+        this.tuningPolicySupplier = tuningPolicySupplier;
+    }
+
+    /**
+     * Create a {@link AdaptiveTuningPluginRegistrar} with {@link LittleLawTuningPolicy}.
+     *
+     * @param tuningProperties tuning properties of thread-pools
+     */
+    public AdaptiveTuningPluginRegistrar(@NonNull Collection<AdaptiveTuningProperties> tuningProperties) {
+        this(tuningProperties, LittleLawTuningPolicy::new);
+    }
+
+    /**
+     * Create and register {@link AdaptiveTuningPlugin} if the thread-pool opts in to adaptive tuning.
+     *
+     * @param support thread pool plugin manager delegate
+     */
+    @Override
+    public void doRegister(ThreadPoolPluginSupport support) {
+        AdaptiveTuningProperties properties = tuningProperties.get(support.getThreadPoolId());
+        if (Objects.isNull(properties)) {
+            return;
+        }
+        AdaptiveTuningPlugin plugin = new AdaptiveTuningPlugin(
+                support.getThreadPoolId(), support.getThreadPoolExecutor(), properties, tuningPolicySupplier.get());
+        support.tryRegister(plugin);
+    }
+
+    /**
+     * Apply the adaptive tuning of executor properties to the thread-pool, called on startup and on every config center push.
+     * The plugin is registered if the tuning is enabled, unregistered if disabled, replaced if its properties are changed,
+     * otherwise it is reset so that the pushed parameters are not overridden at once.
+     *
+     * @param support        thread pool plugin manager delegate
+     * @param adaptiveTuning adaptive tuning of executor properties, may be null
+     */
+    public static void configure(ThreadPoolPluginSupport support, ExecutorAdaptiveTuningProperties adaptiveTuning) {
+        Optional<AdaptiveTuningPlugin> registered = support.getPluginOfType(AdaptiveTuningPlugin.PLUGIN_NAME, AdaptiveTuningPlugin.class);
+        if (Objects.isNull(adaptiveTuning) || !Boolean.TRUE.equals(adaptiveTuning.getEnable())) {
+            registered.ifPresent(plugin -> support.unregister(plugin.getId()));
+            return;
+        }
+        AdaptiveTuningProperties properties = AdaptiveTuningProperties.of(support.getThreadPoolId(), adaptiveTuning);
+        if (registered.isPresent() && Objects.equals(registered.get().getProperties(), properties)) {
+            registered.get().reset();
+            return;
+        }
+        registered.ifPresent(plugin -> support.unregister(plugin.getId()));
+        support.register(new AdaptiveTuningPlugin(support.getThreadPoolId(), support.getThreadPoolExecutor(), properties));
+    }
+}
@@ -28,7 +28,9 @@ import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
+import java.lang.reflect.Array;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
@@ -38,7 +40,6 @@ import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
@@ -76,9 +77,13 @@ import java.util.stream.Collectors;
  * users can switch the status of plugins through {@link #enable} and {@link #disable} methods.
  *
  * <h3>Thread-safe operation support</h3>
- * <p>When the list of plugins is obtained through the {@code getXXX} method of manager, the list is not immutable.
- * This means that until actually start iterating over the list,
- * registering or unregistering plugins through the manager will affect the results of the iteration.
+ * <p>The enabled plugins of each aware-type are published as an immutable and pre-sorted snapshot.
+ * Registering, unregistering, enabling or disabling a plugin rebuilds the affected snapshots under the write lock,
+ * while {@link #getTaskAwarePluginList}, {@link #getExecuteAwarePluginList},
+ * {@link #getRejectedAwarePluginList} and {@link #getShutdownAwarePluginList}
+ * only need a single volatile read and never acquire any lock,
+ * so that they can be called on the hot path of each task.<br />
+ * This means that a list obtained from the manager will not reflect changes made after it was obtained.
  * Therefore, we should try to ensure that <b>get the latest plugin list from the manager before each use</b>.
  *
  * @see cn.hippo4j.core.executor.DynamicThreadPoolExecutor
@@ -242,7 +247,7 @@ public class DefaultThreadPoolPluginManager implements ThreadPoolPluginManager {
      */
     @Override
     public boolean enable(String pluginId) {
-        return mainLock.applyWithReadLock(() -> {
+        return mainLock.applyWithWriteLock(() -> {
             ThreadPoolPlugin plugin = registeredPlugins.get(pluginId);
             if (Objects.isNull(plugin) || !disabledPlugins.remove(pluginId)) {
                 return false;
@@ -260,7 +265,7 @@ public class DefaultThreadPoolPluginManager implements ThreadPoolPluginManager {
      */
     @Override
     public boolean disable(String pluginId) {
-        return mainLock.applyWithReadLock(() -> {
+        return mainLock.applyWithWriteLock(() -> {
             ThreadPoolPlugin plugin = registeredPlugins.get(pluginId);
             if (Objects.isNull(plugin) || !disabledPlugins.add(pluginId)) {
                 return false;
@@ -326,7 +331,7 @@ public class DefaultThreadPoolPluginManager implements ThreadPoolPluginManager {
      */
     @Override
     public Collection<ExecuteAwarePlugin> getExecuteAwarePluginList() {
-        return mainLock.applyWithReadLock(executeAwarePluginList::getPlugins);
+        return executeAwarePluginList.getPlugins();
     }
 
     /**
@@ -340,7 +345,7 @@ public class DefaultThreadPoolPluginManager implements ThreadPoolPluginManager {
      */
     @Override
     public Collection<RejectedAwarePlugin> getRejectedAwarePluginList() {
-        return mainLock.applyWithReadLock(rejectedAwarePluginList::getPlugins);
+        return rejectedAwarePluginList.getPlugins();
     }
 
     /**
@@ -354,7 +359,7 @@ public class DefaultThreadPoolPluginManager implements ThreadPoolPluginManager {
      */
     @Override
     public Collection<ShutdownAwarePlugin> getShutdownAwarePluginList() {
-        return mainLock.applyWithReadLock(shutdownAwarePluginList::getPlugins);
+        return shutdownAwarePluginList.getPlugins();
     }
 
     /**
@@ -368,7 +373,7 @@ public class DefaultThreadPoolPluginManager implements ThreadPoolPluginManager {
      */
     @Override
     public Collection<TaskAwarePlugin> getTaskAwarePluginList() {
-        return mainLock.applyWithReadLock(taskAwarePluginList::getPlugins);
+        return taskAwarePluginList.getPlugins();
     }
 
     /**
@@ -412,7 +417,8 @@ public class DefaultThreadPoolPluginManager implements ThreadPoolPluginManager {
     }
 
     /**
-     * Quick index of registered {@link ThreadPoolPlugin}
+     * Quick index of registered {@link ThreadPoolPlugin}.
+     * Any modification will replace the whole snapshot, and it should be done while holding the write lock.
      *
      * @param <T> plugin type
      */
@@ -425,10 +431,10 @@ public class DefaultThreadPoolPluginManager implements ThreadPoolPluginManager {
         private final Class<T> pluginType;
 
         /**
-         * Plugins
+         * Immutable snapshot of plugins
          */
         @Getter
-        private final List<T> plugins = new CopyOnWriteArrayList<>();
+        private volatile List<T> plugins = Collections.emptyList();
 
         /**
          * Add plugin if possible.
@@ -439,8 +445,11 @@ public class DefaultThreadPoolPluginManager implements ThreadPoolPluginManager {
             if (!pluginType.isInstance(plugin)) {
                 return;
             }
-            plugins.add(pluginType.cast(plugin));
-            sort();
+            List<T> current = plugins;
+            T[] snapshot = newArray(current.size() + 1);
+            current.toArray(snapshot);
+            snapshot[current.size()] = pluginType.cast(plugin);
+            publish(snapshot);
         }
 
         /**
@@ -452,24 +461,43 @@ public class DefaultThreadPoolPluginManager implements ThreadPoolPluginManager {
             if (!pluginType.isInstance(plugin)) {
                 return;
             }
-            plugins.remove(pluginType.cast(plugin));
-            sort();
+            T[] snapshot = plugins.stream()
+                    .filter(p -> !Objects.equals(p, plugin))
+                    .toArray(this::newArray);
+            publish(snapshot);
         }
 
         /**
          * Sort by {@link #pluginComparator}.
          */
         public void sort() {
-            if (isEnableSort()) {
-                plugins.sort(pluginComparator);
-            }
+            publish(plugins.toArray(newArray(0)));
         }
 
         /**
          * Clear all.
          */
         public void clear() {
-            plugins.clear();
+            plugins = Collections.emptyList();
+        }
+
+        /**
+         * Sort the plugins if necessary, then publish them as the new snapshot.
+         *
+         * @param snapshot plugins
+         */
+        private void publish(T[] snapshot) {
+            if (isEnableSort()) {
+                Arrays.sort(snapshot, pluginComparator);
+            }
+            plugins = snapshot.length == 0
+                    ? Collections.emptyList()
+                    : Collections.unmodifiableList(Arrays.asList(snapshot));
+        }
+
+        @SuppressWarnings("unchecked")
+        private T[] newArray(int length) {
+            return (T[]) Array.newInstance(pluginType, length);
         }
 
     }
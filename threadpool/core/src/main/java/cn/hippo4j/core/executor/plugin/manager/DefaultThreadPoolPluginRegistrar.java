@@ -19,8 +19,11 @@ package cn.hippo4j.core.executor.plugin.manager;
 
 import cn.hippo4j.core.executor.plugin.ThreadPoolPlugin;
 import cn.hippo4j.core.executor.plugin.impl.TaskDecoratorPlugin;
+import cn.hippo4j.core.executor.plugin.impl.TaskQueueTimeHistogramPlugin;
+import cn.hippo4j.core.executor.plugin.impl.TaskQueueTimeoutNotifyAlarmPlugin;
 import cn.hippo4j.core.executor.plugin.impl.TaskRejectCountRecordPlugin;
 import cn.hippo4j.core.executor.plugin.impl.TaskRejectNotifyAlarmPlugin;
+import cn.hippo4j.core.executor.plugin.impl.TaskTimeHistogramPlugin;
 import cn.hippo4j.core.executor.plugin.impl.TaskTimeoutNotifyAlarmPlugin;
 import cn.hippo4j.core.executor.plugin.impl.ThreadPoolExecutorShutdownPlugin;
 import lombok.AllArgsConstructor;
@@ -31,8 +34,11 @@ import lombok.NoArgsConstructor;
  *
  * @see TaskDecoratorPlugin
  * @see TaskTimeoutNotifyAlarmPlugin
+ * @see TaskQueueTimeoutNotifyAlarmPlugin
  * @see TaskRejectCountRecordPlugin
  * @see TaskRejectNotifyAlarmPlugin
+ * @see TaskTimeHistogramPlugin
+ * @see TaskQueueTimeHistogramPlugin
  * @see ThreadPoolExecutorShutdownPlugin
  */
 @NoArgsConstructor
@@ -49,6 +55,21 @@ public class DefaultThreadPoolPluginRegistrar implements ThreadPoolPluginRegistr
      */
     private long awaitTerminationMillis;
 
+    /**
+     * Queue time out, non-positive means the queue time is not alarmed
+     */
+    private long queueTimeOut;
+
+    /**
+     * Create a {@link DefaultThreadPoolPluginRegistrar} without queue time out alarm.
+     *
+     * @param executeTimeOut         execute time out
+     * @param awaitTerminationMillis await termination millis
+     */
+    public DefaultThreadPoolPluginRegistrar(long executeTimeOut, long awaitTerminationMillis) {
+        this(executeTimeOut, awaitTerminationMillis, -1L);
+    }
+
     /**
      * Create and register plugin for the specified thread-pool instance.
      *
@@ -58,8 +79,11 @@ public class DefaultThreadPoolPluginRegistrar implements ThreadPoolPluginRegistr
     public void doRegister(ThreadPoolPluginSupport support) {
         support.register(new TaskDecoratorPlugin());
         support.register(new TaskTimeoutNotifyAlarmPlugin(support.getThreadPoolId(), executeTimeOut, support.getThreadPoolExecutor()));
+        support.register(new TaskQueueTimeoutNotifyAlarmPlugin(support.getThreadPoolId(), queueTimeOut, support.getThreadPoolExecutor()));
         support.register(new TaskRejectCountRecordPlugin());
         support.register(new TaskRejectNotifyAlarmPlugin());
+        support.register(new TaskTimeHistogramPlugin());
+        support.register(new TaskQueueTimeHistogramPlugin());
         support.register(new ThreadPoolExecutorShutdownPlugin(awaitTerminationMillis));
     }
 }
@@ -102,6 +102,12 @@ public class ThreadPoolRunStateHandler extends AbstractThreadPoolRuntime {
         manyThreadPoolRunStateInfo.setQueueCapacity(poolRunStateInfo.getQueueCapacity());
         manyThreadPoolRunStateInfo.setRejectedName(poolRunStateInfo.getRejectedName());
         manyThreadPoolRunStateInfo.setKeepAliveTime(poolRunStateInfo.getKeepAliveTime());
+        manyThreadPoolRunStateInfo.setTaskTimeP50(poolRunStateInfo.getTaskTimeP50());
+        manyThreadPoolRunStateInfo.setTaskTimeP99(poolRunStateInfo.getTaskTimeP99());
+        manyThreadPoolRunStateInfo.setTaskTimeP999(poolRunStateInfo.getTaskTimeP999());
+        manyThreadPoolRunStateInfo.setQueueTimeP50(poolRunStateInfo.getQueueTimeP50());
+        manyThreadPoolRunStateInfo.setQueueTimeP99(poolRunStateInfo.getQueueTimeP99());
+        manyThreadPoolRunStateInfo.setQueueTimeP999(poolRunStateInfo.getQueueTimeP999());
         return manyThreadPoolRunStateInfo;
     }
 }
@@ -20,11 +20,14 @@ package cn.hippo4j.core.executor.support;
 import cn.hippo4j.common.executor.ThreadFactoryBuilder;
 import cn.hippo4j.common.toolkit.Assert;
 import cn.hippo4j.core.executor.DynamicThreadPoolExecutor;
+import cn.hippo4j.core.executor.VirtualThreadDynamicThreadPoolExecutor;
+import cn.hippo4j.core.executor.WorkStealingDynamicThreadPoolExecutor;
 import lombok.Data;
 import lombok.experimental.Accessors;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.core.task.TaskDecorator;
 
+import java.util.Optional;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.RejectedExecutionHandler;
 import java.util.concurrent.ThreadFactory;
@@ -106,10 +109,69 @@ public class AbstractBuildThreadPoolTemplate {
             throw new IllegalArgumentException(String.format("Error creating thread pool parameter. threadPool id: %s", initParam.getThreadPoolId()), ex);
         }
         dynamicThreadPoolExecutor.setTaskDecorator(initParam.getTaskDecorator());
+        Optional.ofNullable(initParam.getQueueTimeOut()).ifPresent(dynamicThreadPoolExecutor::setQueueTimeOut);
         dynamicThreadPoolExecutor.allowCoreThreadTimeOut(initParam.allowCoreThreadTimeOut);
         return dynamicThreadPoolExecutor;
     }
 
+    /**
+     * Build a dynamic work-stealing thread-pool.
+     *
+     * @param initParam init param
+     * @return dynamic work-stealing thread-pool
+     */
+    public static WorkStealingDynamicThreadPoolExecutor buildWorkStealingPool(ThreadPoolInitParam initParam) {
+        Assert.notNull(initParam);
+        WorkStealingDynamicThreadPoolExecutor workStealingThreadPoolExecutor;
+        try {
+            workStealingThreadPoolExecutor = new WorkStealingDynamicThreadPoolExecutor(
+                    initParam.getCorePoolNum(),
+                    initParam.getMaximumPoolSize(),
+                    initParam.getKeepAliveTime(),
+                    initParam.getTimeUnit(),
+                    initParam.getExecuteTimeOut(),
+                    initParam.getWaitForTasksToCompleteOnShutdown(),
+                    initParam.getAwaitTerminationMillis(),
+                    initParam.getCapacity(),
+                    initParam.getThreadPoolId(),
+                    initParam.getThreadFactory(),
+                    initParam.getRejectedExecutionHandler());
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException(String.format("Error creating thread pool parameter. threadPool id: %s", initParam.getThreadPoolId()), ex);
+        }
+        workStealingThreadPoolExecutor.setTaskDecorator(initParam.getTaskDecorator());
+        Optional.ofNullable(initParam.getQueueTimeOut()).ifPresent(workStealingThreadPoolExecutor::setQueueTimeOut);
+        return workStealingThreadPoolExecutor;
+    }
+
+    /**
+     * Build a dynamic thread-pool which starts a thread for each task, and limits the concurrency by the maximum pool size.
+     *
+     * @param initParam init param
+     * @return dynamic virtual thread-pool
+     */
+    public static VirtualThreadDynamicThreadPoolExecutor buildVirtualThreadPool(ThreadPoolInitParam initParam) {
+        Assert.notNull(initParam);
+        VirtualThreadDynamicThreadPoolExecutor virtualThreadPoolExecutor;
+        try {
+            virtualThreadPoolExecutor = new VirtualThreadDynamicThreadPoolExecutor(
+                    initParam.getCorePoolNum(),
+                    initParam.getMaximumPoolSize(),
+                    initParam.getExecuteTimeOut(),
+                    initParam.getWaitForTasksToCompleteOnShutdown(),
+                    initParam.getAwaitTerminationMillis(),
+                    initParam.getWorkQueue(),
+                    initParam.getThreadPoolId(),
+                    initParam.getThreadFactory(),
+                    initParam.getRejectedExecutionHandler());
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException(String.format("Error creating thread pool parameter. threadPool id: %s", initParam.getThreadPoolId()), ex);
+        }
+        virtualThreadPoolExecutor.setTaskDecorator(initParam.getTaskDecorator());
+        Optional.ofNullable(initParam.getQueueTimeOut()).ifPresent(virtualThreadPoolExecutor::setQueueTimeOut);
+        return virtualThreadPoolExecutor;
+    }
+
     /**
      * Thread-pool init param.
      */
@@ -127,6 +189,8 @@ public class AbstractBuildThreadPoolTemplate {
 
         private Long executeTimeOut;
 
+        private Long queueTimeOut;
+
         private Integer capacity;
 
         private BlockingQueue<Runnable> workQueue;
@@ -20,6 +20,7 @@ package cn.hippo4j.core.executor.support;
 import cn.hippo4j.common.extension.design.Builder;
 import cn.hippo4j.common.executor.support.BlockingQueueTypeEnum;
 import cn.hippo4j.common.toolkit.Assert;
+import cn.hippo4j.common.toolkit.VirtualThreadUtil;
 import org.springframework.core.task.TaskDecorator;
 
 import java.math.BigDecimal;
@@ -39,6 +40,10 @@ public class ThreadPoolBuilder implements Builder<ThreadPoolExecutor> {
 
     private boolean isDynamicPool;
 
+    private boolean isWorkStealingPool;
+
+    private boolean isVirtualThreadPool;
+
     private int corePoolSize = calculateCoreNum();
 
     private int maximumPoolSize = corePoolSize + (corePoolSize >> 1);
@@ -49,6 +54,8 @@ public class ThreadPoolBuilder implements Builder<ThreadPoolExecutor> {
 
     private long executeTimeOut = 10000L;
 
+    private long queueTimeOut = -1L;
+
     private int capacity = 512;
 
     private BlockingQueueTypeEnum blockingQueueType = BlockingQueueTypeEnum.LINKED_BLOCKING_QUEUE;
@@ -104,6 +111,29 @@ public class ThreadPoolBuilder implements Builder<ThreadPoolExecutor> {
         return this;
     }
 
+    /**
+     * Dynamic work-stealing pool, the core pool size is the parallelism of the pool.
+     *
+     * @return thread-pool builder
+     */
+    public ThreadPoolBuilder workStealingPool() {
+        this.isDynamicPool = true;
+        this.isWorkStealingPool = true;
+        return this;
+    }
+
+    /**
+     * Dynamic virtual thread pool, a thread is started for each task, and the maximum pool size limits the concurrency.
+     * Virtual threads are used on JDK 21 or later, otherwise platform threads are used.
+     *
+     * @return thread-pool builder
+     */
+    public ThreadPoolBuilder virtualThreadPool() {
+        this.isDynamicPool = true;
+        this.isVirtualThreadPool = true;
+        return this;
+    }
+
     /**
      * Thread factory.
      *
@@ -244,6 +274,18 @@ public class ThreadPoolBuilder implements Builder<ThreadPoolExecutor> {
         return this;
     }
 
+    /**
+     * Queue time-out, the time of tasks waiting in the queue which triggers an alarm,
+     * non-positive means the queue time is not alarmed.
+     *
+     * @param queueTimeOut queue time-out
+     * @return thread-pool builder
+     */
+    public ThreadPoolBuilder queueTimeOut(long queueTimeOut) {
+        this.queueTimeOut = queueTimeOut;
+        return this;
+    }
+
     /**
      * Keep alive time.
      *
@@ -421,6 +463,30 @@ public class ThreadPoolBuilder implements Builder<ThreadPoolExecutor> {
         return AbstractBuildThreadPoolTemplate.buildDynamicPool(buildInitParam(builder));
     }
 
+    /**
+     * Build a dynamic work-stealing thread-pool with {@code builder}.
+     *
+     * @param builder thread-pool builder
+     * @return dynamic work-stealing thread-pool executor
+     */
+    private static ThreadPoolExecutor buildWorkStealingPool(ThreadPoolBuilder builder) {
+        return AbstractBuildThreadPoolTemplate.buildWorkStealingPool(buildInitParam(builder));
+    }
+
+    /**
+     * Build a dynamic virtual thread-pool with {@code builder}.
+     *
+     * @param builder thread-pool builder
+     * @return dynamic virtual thread-pool executor
+     */
+    private static ThreadPoolExecutor buildVirtualThreadPool(ThreadPoolBuilder builder) {
+        AbstractBuildThreadPoolTemplate.ThreadPoolInitParam initParam = buildInitParam(builder);
+        if (builder.threadFactory == null) {
+            initParam.setThreadFactory(VirtualThreadUtil.newThreadFactoryOrElse(builder.threadNamePrefix + "_", initParam.getThreadFactory()));
+        }
+        return AbstractBuildThreadPoolTemplate.buildVirtualThreadPool(initParam);
+    }
+
     /**
      * Build thread-pool initialization parameters via {@code builder}.
      *
@@ -449,8 +515,9 @@ public class ThreadPoolBuilder implements Builder<ThreadPoolExecutor> {
             initParam.setThreadPoolId(threadPoolId);
             initParam.setWaitForTasksToCompleteOnShutdown(builder.waitForTasksToCompleteOnShutdown);
             initParam.setAwaitTerminationMillis(builder.awaitTerminationMillis);
+            initParam.setQueueTimeOut(builder.queueTimeOut);
         }
-        if (!builder.isFastPool) {
+        if (!builder.isFastPool && !builder.isWorkStealingPool) {
             if (builder.workQueue == null) {
                 if (builder.blockingQueueType == null) {
                     builder.blockingQueueType = BlockingQueueTypeEnum.LINKED_BLOCKING_QUEUE;
@@ -464,6 +531,12 @@ public class ThreadPoolBuilder implements Builder<ThreadPoolExecutor> {
 
     @Override
     public ThreadPoolExecutor build() {
+        if (isWorkStealingPool) {
+            return buildWorkStealingPool(this);
+        }
+        if (isVirtualThreadPool) {
+            return buildVirtualThreadPool(this);
+        }
         return isDynamicPool ? buildDynamicPool(this) : buildPool(this);
     }
 }
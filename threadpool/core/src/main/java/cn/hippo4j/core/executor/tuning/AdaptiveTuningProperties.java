@@ -0,0 +1,112 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.hippo4j.core.executor.tuning;
+
+import cn.hippo4j.common.model.executor.ExecutorAdaptiveTuningProperties;
+import lombok.Data;
+import lombok.experimental.Accessors;
+
+import java.util.Optional;
+
+/**
+ * Properties of adaptive thread-pool tuning, the tuning is only enabled for the configured thread-pool.
+ */
+@Data
+@Accessors(chain = true)
+public class AdaptiveTuningProperties {
+
+    /**
+     * Thread-pool id
+     */
+    private String threadPoolId;
+
+    /**
+     * Min core pool size
+     */
+    private int minPoolSize = 1;
+
+    /**
+     * Max core and maximum pool size
+     */
+    private int maxPoolSize = Runtime.getRuntime().availableProcessors() * 4;
+
+    /**
+     * Min queue capacity, the queue capacity is not tuned if it's not greater than zero
+     */
+    private int minQueueCapacity = 0;
+
+    /**
+     * Max queue capacity, the queue capacity is not tuned if it's not greater than zero
+     */
+    private int maxQueueCapacity = 0;
+
+    /**
+     * Interval of sampling the metrics of thread-pool, in milliseconds
+     */
+    private long sampleIntervalMillis = 5000L;
+
+    /**
+     * Min interval between two adjustments, in milliseconds
+     */
+    private long minAdjustIntervalMillis = 30000L;
+
+    /**
+     * Max count of threads added by a single adjustment
+     */
+    private int maxIncreaseStep = 4;
+
+    /**
+     * Ratio of idle threads kept on top of the concurrency estimated by the policy
+     */
+    private double headroom = 0.2D;
+
+    /**
+     * Factor applied to the core pool size by a single decrease
+     */
+    private double decreaseFactor = 0.75D;
+
+    /**
+     * Whether the queue capacity is tuned.
+     *
+     * @return true if both bounds of queue capacity are greater than zero
+     */
+    public boolean isQueueCapacityTunable() {
+        return minQueueCapacity > 0 && maxQueueCapacity >= minQueueCapacity;
+    }
+
+    /**
+     * Create the tuning properties of thread-pool from the executor properties, the unset properties keep their defaults.
+     *
+     * @param threadPoolId   thread-pool id
+     * @param adaptiveTuning adaptive tuning of executor properties
+     * @return tuning properties
+     */
+    public static AdaptiveTuningProperties of(String threadPoolId, ExecutorAdaptiveTuningProperties adaptiveTuning) {
+        AdaptiveTuningProperties properties = new AdaptiveTuningProperties().setThreadPoolId(threadPoolId);
+        Optional.ofNullable(adaptiveTuning.getMinPoolSize()).ifPresent(properties::setMinPoolSize);
+        Optional.ofNullable(adaptiveTuning.getMaxPoolSize()).ifPresent(properties::setMaxPoolSize);
+        Optional.ofNullable(adaptiveTuning.getMinQueueCapacity()).ifPresent(properties::setMinQueueCapacity);
+        Optional.ofNullable(adaptiveTuning.getMaxQueueCapacity()).ifPresent(properties::setMaxQueueCapacity);
+        Optional.ofNullable(adaptiveTuning.getSampleIntervalMillis()).ifPresent(properties::setSampleIntervalMillis);
+        Optional.ofNullable(adaptiveTuning.getMinAdjustIntervalMillis()).ifPresent(properties::setMinAdjustIntervalMillis);
+        Optional.ofNullable(adaptiveTuning.getMaxIncreaseStep()).ifPresent(properties::setMaxIncreaseStep);
+        Optional.ofNullable(adaptiveTuning.getHeadroom()).ifPresent(properties::setHeadroom);
+        Optional.ofNullable(adaptiveTuning.getDecreaseFactor()).ifPresent(properties::setDecreaseFactor);
+        return properties;
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.hippo4j.core.executor.tuning;
+
+/**
+ * <p>Tuning policy based on Little's law with additive-increase/multiplicative-decrease.
+ *
+ * <p>The required concurrency is estimated as {@code L = λ * W}, where {@code λ} is the arrival rate of tasks
+ * (completed and rejected tasks, plus the backlog in the queue to be drained in the next interval),
+ * and {@code W} is the average execution time of tasks, then {@link AdaptiveTuningProperties#getHeadroom()} is added. <br />
+ * If the estimation is greater than the core pool size, the core pool size is increased by
+ * at most {@link AdaptiveTuningProperties#getMaxIncreaseStep()} threads;
+ * if the estimation is less than half of the core pool size, the core pool size is multiplied by
+ * {@link AdaptiveTuningProperties#getDecreaseFactor()}, but not less than the estimation.
+ *
+ * <p>If tasks are rejected while the core pool size has reached its upper bound,
+ * the queue capacity is doubled; if the queue is less than a quarter full and no task is rejected,
+ * the queue capacity is multiplied by {@link AdaptiveTuningProperties#getDecreaseFactor()}.
+ */
+public class LittleLawTuningPolicy implements ThreadPoolTuningPolicy {
+
+    @Override
+    public TuningResult tune(TuningSample sample, AdaptiveTuningProperties properties) {
+        int corePoolSize = sample.getCorePoolSize();
+        int targetCorePoolSize = corePoolSize;
+        int requiredConcurrency = estimateConcurrency(sample, properties);
+        if (requiredConcurrency > corePoolSize) {
+            targetCorePoolSize = corePoolSize + Math.min(properties.getMaxIncreaseStep(), requiredConcurrency - corePoolSize);
+        } else if (requiredConcurrency * 2 < corePoolSize) {
+            targetCorePoolSize = Math.max(requiredConcurrency, (int) (corePoolSize * properties.getDecreaseFactor()));
+        }
+        targetCorePoolSize = clamp(targetCorePoolSize, properties.getMinPoolSize(), properties.getMaxPoolSize());
+        int targetMaximumPoolSize = Math.max(targetCorePoolSize, Math.min(sample.getMaximumPoolSize(), properties.getMaxPoolSize()));
+        return new TuningResult(targetCorePoolSize, targetMaximumPoolSize, tuneQueueCapacity(sample, properties, targetCorePoolSize));
+    }
+
+    /**
+     * Estimate the concurrency required by the tasks of the last interval.
+     *
+     * @param sample     metrics sampled in the last interval
+     * @param properties tuning properties
+     * @return required concurrency
+     */
+    private int estimateConcurrency(TuningSample sample, AdaptiveTuningProperties properties) {
+        if (sample.getIntervalNanos() <= 0) {
+            return sample.getCorePoolSize();
+        }
+        long arrivals = sample.getCompletedTaskCount() + sample.getRejectedTaskCount() + sample.getQueueSize();
+        double arrivalRate = (double) arrivals / sample.getIntervalNanos();
+        double concurrency = arrivalRate * sample.getAvgTaskTimeNanos() * (1D + properties.getHeadroom());
+        // the threads which are busy at the moment are required at least
+        return (int) Math.min(Integer.MAX_VALUE, Math.max(Math.ceil(concurrency), sample.getActiveCount()));
+    }
+
+    /**
+     * Tune the queue capacity.
+     *
+     * @param sample             metrics sampled in the last interval
+     * @param properties         tuning properties
+     * @param targetCorePoolSize target core pool size
+     * @return target queue capacity
+     */
+    private int tuneQueueCapacity(TuningSample sample, AdaptiveTuningProperties properties, int targetCorePoolSize) {
+        int queueCapacity = sample.getQueueCapacity();
+        if (!properties.isQueueCapacityTunable()) {
+            return queueCapacity;
+        }
+        if (sample.getRejectedTaskCount() > 0 && targetCorePoolSize >= properties.getMaxPoolSize()) {
+            queueCapacity = (int) Math.min(Integer.MAX_VALUE, queueCapacity * 2L);
+        } else if (sample.getRejectedTaskCount() == 0 && sample.getQueueSize() * 4L < queueCapacity) {
+            queueCapacity = (int) (queueCapacity * properties.getDecreaseFactor());
+        }
+        return clamp(queueCapacity, properties.getMinQueueCapacity(), properties.getMaxQueueCapacity());
+    }
+
+    private static int clamp(int value, int min, int max) {
+        return Math.max(min, Math.min(max, value));
+    }
+}
@@ -0,0 +1,41 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.hippo4j.core.executor.tuning;
+
+/**
+ * <p>Policy of adaptive thread-pool tuning,
+ * decides the new sizes of thread-pool from the metrics sampled in the last interval. <br />
+ * The returned sizes are only suggestions,
+ * they will be limited by the bounds of {@link AdaptiveTuningProperties} before being applied.
+ *
+ * <p>The policy is called by a single scheduler thread for each thread-pool,
+ * so that the implementation may keep state between two calls without synchronization.
+ *
+ * @see LittleLawTuningPolicy
+ */
+public interface ThreadPoolTuningPolicy {
+
+    /**
+     * Decide the new sizes of thread-pool.
+     *
+     * @param sample     metrics sampled in the last interval
+     * @param properties tuning properties of thread-pool
+     * @return new sizes of thread-pool, the current sizes are returned if nothing needs to change
+     */
+    TuningResult tune(TuningSample sample, AdaptiveTuningProperties properties);
+}
@@ -0,0 +1,83 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.hippo4j.core.executor.tuning;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Metrics of thread-pool sampled in the last tuning interval.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TuningSample {
+
+    /**
+     * Length of the interval, in nanoseconds
+     */
+    private long intervalNanos;
+
+    /**
+     * Core pool size
+     */
+    private int corePoolSize;
+
+    /**
+     * Maximum pool size
+     */
+    private int maximumPoolSize;
+
+    /**
+     * Pool size
+     */
+    private int poolSize;
+
+    /**
+     * Active count
+     */
+    private int activeCount;
+
+    /**
+     * Queue size
+     */
+    private int queueSize;
+
+    /**
+     * Queue capacity
+     */
+    private int queueCapacity;
+
+    /**
+     * Count of tasks completed in the interval
+     */
+    private long completedTaskCount;
+
+    /**
+     * Count of tasks rejected in the interval
+     */
+    private long rejectedTaskCount;
+
+    /**
+     * Average execution time of tasks completed in the interval, in nanoseconds
+     */
+    private long avgTaskTimeNanos;
+}
@@ -77,6 +77,20 @@ public class DynamicThreadPoolExecutorTest {
         Assert.assertEquals(500L, executor.getExecuteTimeOut().longValue());
     }
 
+    @Test
+    public void testQueueTimeOut() {
+        DynamicThreadPoolExecutor executor = new DynamicThreadPoolExecutor(
+                1, 1, 1000L, TimeUnit.MILLISECONDS,
+                1000L, true, 1000L,
+                new ArrayBlockingQueue<>(1), "test", Thread::new, new ThreadPoolExecutor.DiscardOldestPolicy());
+
+        // disabled by default, and independent of the execute time-out
+        Assert.assertEquals(-1L, executor.getQueueTimeOut().longValue());
+        executor.setQueueTimeOut(200L);
+        Assert.assertEquals(200L, executor.getQueueTimeOut().longValue());
+        Assert.assertEquals(1000L, executor.getExecuteTimeOut().longValue());
+    }
+
     @Test
     public void testDestroyWhenWaitForTask() {
         DynamicThreadPoolExecutor executor = new DynamicThreadPoolExecutor(
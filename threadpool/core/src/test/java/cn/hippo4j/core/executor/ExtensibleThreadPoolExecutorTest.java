@@ -17,6 +17,7 @@
 
 package cn.hippo4j.core.executor;
 
+import cn.hippo4j.common.executor.support.EagerGrowthBlockingQueue;
 import cn.hippo4j.common.toolkit.ThreadUtil;
 import cn.hippo4j.core.executor.plugin.ExecuteAwarePlugin;
 import cn.hippo4j.core.executor.plugin.RejectedAwarePlugin;
@@ -134,6 +135,55 @@ public class ExtensibleThreadPoolExecutorTest {
         Assert.assertEquals(3, plugin.getInvokeCount().get());
     }
 
+    @Test
+    public void testEagerGrowthBlockingQueue() {
+        EagerGrowthBlockingQueue<Runnable> queue = new EagerGrowthBlockingQueue<>(1);
+        ExtensibleThreadPoolExecutor eagerExecutor = new ExtensibleThreadPoolExecutor(
+                "test-eager", new DefaultThreadPoolPluginManager(),
+                1, 2, 1000L, TimeUnit.MILLISECONDS,
+                queue, Thread::new, originalHandler);
+        TestRejectedAwarePlugin plugin = new TestRejectedAwarePlugin();
+        eagerExecutor.register(plugin);
+        try {
+            // the pool grows to the maximum pool size before queueing tasks
+            eagerExecutor.execute(() -> ThreadUtil.sleep(500L));
+            eagerExecutor.execute(() -> ThreadUtil.sleep(500L));
+            Assert.assertEquals(2, eagerExecutor.getPoolSize());
+            Assert.assertEquals(0, queue.size());
+            // the rejected task is retried into the queue
+            eagerExecutor.rejectedExecution(() -> {
+            });
+            Assert.assertEquals(1, queue.size());
+            Assert.assertEquals(0, plugin.getInvokeCount().get());
+            // reject the task if the queue is full
+            eagerExecutor.execute(() -> {
+            });
+            Assert.assertEquals(1, plugin.getInvokeCount().get());
+        } finally {
+            eagerExecutor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testSetWorkQueue() {
+        EagerGrowthBlockingQueue<Runnable> queue = new EagerGrowthBlockingQueue<>(1);
+        ExtensibleThreadPoolExecutor eagerExecutor = new ExtensibleThreadPoolExecutor(
+                "test-set-work-queue", new DefaultThreadPoolPluginManager(),
+                1, 2, 1000L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(1), Thread::new, originalHandler);
+        eagerExecutor.setWorkQueue(queue);
+        try {
+            Assert.assertSame(queue, eagerExecutor.getQueue());
+            // the replaced queue is bound to the executor, so the pool grows before queueing tasks
+            eagerExecutor.execute(() -> ThreadUtil.sleep(500L));
+            eagerExecutor.execute(() -> ThreadUtil.sleep(500L));
+            Assert.assertEquals(2, eagerExecutor.getPoolSize());
+            Assert.assertEquals(0, queue.size());
+        } finally {
+            eagerExecutor.shutdownNow();
+        }
+    }
+
     @Test
     public void testInvokeTestShutdownAwarePluginWhenShutdown() throws InterruptedException {
         TestShutdownAwarePlugin plugin = new TestShutdownAwarePlugin();
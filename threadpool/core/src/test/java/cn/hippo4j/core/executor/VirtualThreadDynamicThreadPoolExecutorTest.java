@@ -0,0 +1,304 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.hippo4j.core.executor;
+
+import cn.hippo4j.common.toolkit.ThreadPoolExecutorUtil;
+import cn.hippo4j.common.toolkit.VirtualThreadUtil;
+import cn.hippo4j.core.executor.plugin.ExecuteAwarePlugin;
+import cn.hippo4j.core.executor.plugin.RejectedAwarePlugin;
+import cn.hippo4j.core.executor.plugin.impl.TaskRejectCountRecordPlugin;
+import cn.hippo4j.core.executor.support.ThreadPoolBuilder;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * test for {@link VirtualThreadDynamicThreadPoolExecutor}
+ */
+public class VirtualThreadDynamicThreadPoolExecutorTest {
+
+    private VirtualThreadDynamicThreadPoolExecutor newExecutor(int maximumPoolSize, int capacity) {
+        return new VirtualThreadDynamicThreadPoolExecutor(
+                1, maximumPoolSize, 1000L, true, 1000L, new ArrayBlockingQueue<>(capacity),
+                "test", r -> new Thread(r, "test-worker"), new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @Test
+    public void testConcurrencyLimitedByPermits() throws InterruptedException {
+        VirtualThreadDynamicThreadPoolExecutor executor = newExecutor(4, 1024);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        AtomicInteger beforeExecute = new AtomicInteger();
+        AtomicInteger afterExecute = new AtomicInteger();
+        executor.register(new TestExecuteAwarePlugin(beforeExecute, afterExecute));
+
+        CountDownLatch latch = new CountDownLatch(200);
+        for (int i = 0; i < 200; i++) {
+            executor.execute(() -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                try {
+                    Thread.sleep(1L);
+                } catch (InterruptedException ignored) {
+                    Thread.currentThread().interrupt();
+                }
+                running.decrementAndGet();
+                latch.countDown();
+            });
+        }
+        Assert.assertTrue(latch.await(10, TimeUnit.SECONDS));
+        executor.shutdown();
+        Assert.assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+        Assert.assertTrue(executor.isTerminated());
+        Assert.assertTrue(maxRunning.get() <= 4);
+        Assert.assertTrue(executor.getLargestPoolSize() <= 4);
+        Assert.assertEquals(200, beforeExecute.get());
+        Assert.assertEquals(200, afterExecute.get());
+        Assert.assertEquals(200L, executor.getTaskCount());
+        Assert.assertEquals(200L, executor.getCompletedTaskCount());
+        Assert.assertEquals(0, executor.getActiveCount());
+        Assert.assertEquals(0, executor.getPoolSize());
+    }
+
+    @Test
+    public void testQueuedAndRejectedWhenPermitsExhausted() throws InterruptedException {
+        VirtualThreadDynamicThreadPoolExecutor executor = newExecutor(1, 1);
+        AtomicInteger rejected = new AtomicInteger();
+        executor.register(new TestRejectedAwarePlugin(rejected));
+        CountDownLatch block = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        executor.execute(() -> {
+            started.countDown();
+            try {
+                block.await();
+            } catch (InterruptedException ignored) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        Assert.assertTrue(started.await(5, TimeUnit.SECONDS));
+        Assert.assertEquals(1, executor.getActiveCount());
+        Assert.assertEquals(0, executor.getAvailablePermits());
+
+        CountDownLatch queuedDone = new CountDownLatch(1);
+        executor.execute(queuedDone::countDown);
+        Assert.assertEquals(1, executor.getQueue().size());
+        Assert.assertThrows(RejectedExecutionException.class, () -> executor.execute(() -> {
+        }));
+        Assert.assertEquals(1, rejected.get());
+        Assert.assertEquals(Long.valueOf(1L), executor.getRejectCountNum());
+
+        block.countDown();
+        Assert.assertTrue(queuedDone.await(5, TimeUnit.SECONDS));
+        executor.shutdown();
+        Assert.assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+        Assert.assertThrows(RejectedExecutionException.class, () -> executor.execute(() -> {
+        }));
+    }
+
+    @Test
+    public void testIncreaseMaximumPoolSizeRunsQueuedTasks() throws InterruptedException {
+        VirtualThreadDynamicThreadPoolExecutor executor = newExecutor(1, 16);
+        CountDownLatch block = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(3);
+        executor.execute(() -> {
+            try {
+                block.await();
+            } catch (InterruptedException ignored) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        executor.execute(done::countDown);
+        executor.execute(done::countDown);
+        executor.execute(done::countDown);
+        Assert.assertEquals(3, executor.getQueue().size());
+
+        // the queued tasks are started by the new permits while the first task is still blocked
+        ThreadPoolExecutorUtil.safeSetPoolSize(executor, 2, 4);
+        Assert.assertEquals(2, executor.getCorePoolSize());
+        Assert.assertEquals(4, executor.getMaximumPoolSize());
+        Assert.assertTrue(done.await(5, TimeUnit.SECONDS));
+        Assert.assertThrows(IllegalArgumentException.class, () -> executor.setMaximumPoolSize(0));
+        Assert.assertThrows(IllegalArgumentException.class, () -> executor.setCorePoolSize(5));
+
+        block.countDown();
+        executor.shutdown();
+        Assert.assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testDecreaseMaximumPoolSize() throws InterruptedException {
+        VirtualThreadDynamicThreadPoolExecutor executor = newExecutor(2, 16);
+        CountDownLatch block = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(2);
+        for (int i = 0; i < 2; i++) {
+            executor.execute(() -> {
+                started.countDown();
+                try {
+                    block.await();
+                } catch (InterruptedException ignored) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+        Assert.assertTrue(started.await(5, TimeUnit.SECONDS));
+        // the running tasks are not interrupted, and no more task is started until the permits are released
+        executor.setMaximumPoolSize(1);
+        Assert.assertEquals(1, executor.getMaximumPoolSize());
+        Assert.assertEquals(2, executor.getActiveCount());
+        Assert.assertEquals(0, executor.getAvailablePermits());
+        CountDownLatch done = new CountDownLatch(1);
+        executor.execute(done::countDown);
+        Assert.assertEquals(1, executor.getQueue().size());
+
+        block.countDown();
+        Assert.assertTrue(done.await(5, TimeUnit.SECONDS));
+        executor.shutdown();
+        Assert.assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+        Assert.assertEquals(1, executor.getAvailablePermits());
+    }
+
+    @Test
+    public void testShutdownNow() throws InterruptedException {
+        VirtualThreadDynamicThreadPoolExecutor executor = newExecutor(1, 16);
+        CountDownLatch started = new CountDownLatch(1);
+        AtomicInteger interrupted = new AtomicInteger();
+        executor.execute(() -> {
+            started.countDown();
+            try {
+                Thread.sleep(10000L);
+            } catch (InterruptedException ignored) {
+                interrupted.incrementAndGet();
+            }
+        });
+        Assert.assertTrue(started.await(5, TimeUnit.SECONDS));
+        executor.execute(() -> {
+        });
+        executor.execute(() -> {
+        });
+        List<Runnable> remaining = executor.shutdownNow();
+        Assert.assertEquals(2, remaining.size());
+        Assert.assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+        Assert.assertEquals(1, interrupted.get());
+    }
+
+    @Test
+    public void testBuildByBuilder() throws InterruptedException {
+        ThreadPoolExecutor executor = ThreadPoolBuilder.builder()
+                .threadPoolId("virtual-thread")
+                .threadFactory("virtual-thread")
+                .corePoolSize(2)
+                .maximumPoolSize(64)
+                .workQueue(new LinkedBlockingQueue<>(128))
+                .virtualThreadPool()
+                .build();
+        Assert.assertTrue(executor instanceof VirtualThreadDynamicThreadPoolExecutor);
+        Assert.assertEquals(2, executor.getCorePoolSize());
+        Assert.assertEquals(64, executor.getMaximumPoolSize());
+        Assert.assertEquals(128, executor.getQueue().remainingCapacity());
+        Assert.assertTrue(((VirtualThreadDynamicThreadPoolExecutor) executor).getPluginOfType(
+                TaskRejectCountRecordPlugin.PLUGIN_NAME, TaskRejectCountRecordPlugin.class).isPresent());
+
+        AtomicInteger virtual = new AtomicInteger(-1);
+        CountDownLatch latch = new CountDownLatch(1);
+        executor.execute(() -> {
+            Assert.assertTrue(Thread.currentThread().getName().startsWith("virtual-thread_"));
+            virtual.set(VirtualThreadUtil.isVirtual(Thread.currentThread()) ? 1 : 0);
+            latch.countDown();
+        });
+        Assert.assertTrue(latch.await(5, TimeUnit.SECONDS));
+        Assert.assertEquals(VirtualThreadUtil.isSupported() ? 1 : 0, virtual.get());
+        executor.shutdown();
+        Assert.assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testReplace() throws InterruptedException {
+        DynamicThreadPoolExecutor executor = new DynamicThreadPoolExecutor(
+                2, 16, 1000L, TimeUnit.MILLISECONDS, 1000L, true, 1000L,
+                new LinkedBlockingQueue<>(64), "replaced", r -> new Thread(r, "replaced-worker"), new ThreadPoolExecutor.AbortPolicy());
+        AtomicInteger beforeExecute = new AtomicInteger();
+        AtomicInteger afterExecute = new AtomicInteger();
+        executor.register(new TestExecuteAwarePlugin(beforeExecute, afterExecute));
+        VirtualThreadDynamicThreadPoolExecutor replacement = VirtualThreadDynamicThreadPoolExecutor.replace(executor, "virtual-replaced");
+        Assert.assertEquals("replaced", replacement.getThreadPoolId());
+        Assert.assertEquals(2, replacement.getCorePoolSize());
+        Assert.assertEquals(16, replacement.getMaximumPoolSize());
+        Assert.assertSame(executor.getQueue(), replacement.getQueue());
+        Assert.assertEquals(Long.valueOf(1000L), replacement.getExecuteTimeOut());
+
+        // the custom plugins are moved to the replacement
+        Assert.assertFalse(executor.isRegistered(TestExecuteAwarePlugin.class.getSimpleName()));
+        CountDownLatch latch = new CountDownLatch(1);
+        replacement.execute(() -> {
+            if (VirtualThreadUtil.isSupported()) {
+                Assert.assertTrue(Thread.currentThread().getName().startsWith("virtual-replaced_"));
+            }
+            latch.countDown();
+        });
+        Assert.assertTrue(latch.await(5, TimeUnit.SECONDS));
+        Assert.assertEquals(1, beforeExecute.get());
+
+        // destroying the replaced executor destroys the replacement
+        executor.destroy();
+        Assert.assertFalse(replacement.isActive());
+        Assert.assertTrue(replacement.awaitTermination(5, TimeUnit.SECONDS));
+    }
+
+    private static class TestExecuteAwarePlugin implements ExecuteAwarePlugin {
+
+        private final AtomicInteger beforeCount;
+
+        private final AtomicInteger afterCount;
+
+        TestExecuteAwarePlugin(AtomicInteger beforeCount, AtomicInteger afterCount) {
+            this.beforeCount = beforeCount;
+            this.afterCount = afterCount;
+        }
+
+        @Override
+        public void beforeExecute(Thread thread, Runnable runnable) {
+            beforeCount.incrementAndGet();
+        }
+
+        @Override
+        public void afterExecute(Runnable runnable, Throwable throwable) {
+            afterCount.incrementAndGet();
+        }
+    }
+
+    private static class TestRejectedAwarePlugin implements RejectedAwarePlugin {
+
+        private final AtomicInteger count;
+
+        TestRejectedAwarePlugin(AtomicInteger count) {
+            this.count = count;
+        }
+
+        @Override
+        public void beforeRejectedExecution(Runnable runnable, ThreadPoolExecutor executor) {
+            count.incrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,407 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.hippo4j.core.executor;
+
+import cn.hippo4j.common.executor.support.ResizableCapacityBlockingQueue;
+import cn.hippo4j.common.toolkit.ThreadPoolExecutorUtil;
+import cn.hippo4j.core.executor.plugin.ExecuteAwarePlugin;
+import cn.hippo4j.core.executor.plugin.RejectedAwarePlugin;
+import cn.hippo4j.core.executor.plugin.TaskAwarePlugin;
+import cn.hippo4j.core.executor.plugin.impl.TaskRejectCountRecordPlugin;
+import cn.hippo4j.core.executor.support.ThreadPoolBuilder;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * test for {@link WorkStealingDynamicThreadPoolExecutor}
+ */
+public class WorkStealingDynamicThreadPoolExecutorTest {
+
+    private WorkStealingDynamicThreadPoolExecutor newExecutor(int parallelism, int capacity) {
+        return new WorkStealingDynamicThreadPoolExecutor(
+                parallelism, 8, 1000L, true, 1000L, capacity,
+                "test", r -> new Thread(r, "test-worker"), new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @Test
+    public void testExecuteWithPlugins() throws InterruptedException {
+        WorkStealingDynamicThreadPoolExecutor executor = newExecutor(2, 1024);
+        AtomicInteger taskAware = new AtomicInteger();
+        AtomicInteger beforeExecute = new AtomicInteger();
+        AtomicInteger afterExecute = new AtomicInteger();
+        executor.register(new TestTaskAwarePlugin(taskAware));
+        executor.register(new TestExecuteAwarePlugin(beforeExecute, afterExecute));
+
+        CountDownLatch latch = new CountDownLatch(100);
+        for (int i = 0; i < 100; i++) {
+            executor.execute(latch::countDown);
+        }
+        Assert.assertTrue(latch.await(5, TimeUnit.SECONDS));
+        executor.shutdown();
+        Assert.assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+        Assert.assertTrue(executor.isTerminated());
+        Assert.assertEquals(100, taskAware.get());
+        Assert.assertEquals(100, beforeExecute.get());
+        Assert.assertEquals(100, afterExecute.get());
+        Assert.assertEquals(100L, executor.getTaskCount());
+        Assert.assertEquals(100L, executor.getCompletedTaskCount());
+        Assert.assertTrue(executor.getLargestPoolSize() > 0);
+        Assert.assertEquals("test-worker", executor.getThreadFactory().newThread(() -> {
+        }).getName());
+    }
+
+    @Test
+    public void testSubmitFromWorker() throws ExecutionException, InterruptedException {
+        WorkStealingDynamicThreadPoolExecutor executor = newExecutor(4, 16);
+        AtomicInteger count = new AtomicInteger();
+        CountDownLatch latch = new CountDownLatch(1000);
+        Future<?> future = executor.submit(() -> {
+            // tasks submitted by workers are pushed to the local deque and not bounded by the capacity
+            for (int i = 0; i < 1000; i++) {
+                executor.execute(() -> {
+                    count.incrementAndGet();
+                    latch.countDown();
+                });
+            }
+        });
+        future.get();
+        Assert.assertTrue(latch.await(5, TimeUnit.SECONDS));
+        Assert.assertEquals(1000, count.get());
+        executor.shutdown();
+    }
+
+    @Test
+    public void testRejectedWhenCapacityReached() throws InterruptedException {
+        WorkStealingDynamicThreadPoolExecutor executor = newExecutor(1, 1);
+        AtomicInteger rejected = new AtomicInteger();
+        executor.register(new TestRejectedAwarePlugin(rejected));
+        CountDownLatch block = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        executor.execute(() -> {
+            started.countDown();
+            try {
+                block.await();
+            } catch (InterruptedException ignored) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        Assert.assertTrue(started.await(5, TimeUnit.SECONDS));
+        executor.execute(() -> {
+        });
+        Assert.assertEquals(1, executor.getQueue().size());
+        Assert.assertEquals(0, executor.getQueue().remainingCapacity());
+        Assert.assertThrows(RejectedExecutionException.class, () -> executor.execute(() -> {
+        }));
+        Assert.assertEquals(1, rejected.get());
+        Assert.assertEquals(Long.valueOf(1L), executor.getRejectCountNum());
+
+        ((ResizableCapacityBlockingQueue<Runnable>) executor.getQueue()).setCapacity(2);
+        executor.execute(() -> {
+        });
+        block.countDown();
+        executor.shutdown();
+        Assert.assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+        Assert.assertThrows(RejectedExecutionException.class, () -> executor.execute(() -> {
+        }));
+    }
+
+    @Test
+    public void testChangeParallelism() throws InterruptedException {
+        WorkStealingDynamicThreadPoolExecutor executor = newExecutor(2, 1024);
+        Assert.assertEquals(2, executor.getCorePoolSize());
+        Assert.assertEquals(8, executor.getMaximumPoolSize());
+        CountDownLatch block = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(2);
+        executor.execute(() -> {
+            try {
+                block.await();
+            } catch (InterruptedException ignored) {
+                Thread.currentThread().interrupt();
+            }
+            done.countDown();
+        });
+
+        ThreadPoolExecutorUtil.safeSetPoolSize(executor, 12, 16);
+        Assert.assertEquals(12, executor.getCorePoolSize());
+        Assert.assertEquals(12, executor.getParallelism());
+        Assert.assertEquals(16, executor.getMaximumPoolSize());
+        Assert.assertThrows(IllegalArgumentException.class, () -> executor.setCorePoolSize(17));
+
+        // the task of the previous pool is still executed
+        executor.execute(done::countDown);
+        block.countDown();
+        Assert.assertTrue(done.await(5, TimeUnit.SECONDS));
+        executor.shutdown();
+        Assert.assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testShutdownNow() throws InterruptedException {
+        WorkStealingDynamicThreadPoolExecutor executor = newExecutor(1, 1024);
+        CountDownLatch started = new CountDownLatch(1);
+        executor.execute(() -> {
+            started.countDown();
+            try {
+                Thread.sleep(10000L);
+            } catch (InterruptedException ignored) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        Assert.assertTrue(started.await(5, TimeUnit.SECONDS));
+        executor.execute(() -> {
+        });
+        executor.execute(() -> {
+        });
+        List<Runnable> remaining = executor.shutdownNow();
+        Assert.assertEquals(2, remaining.size());
+        Assert.assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testQueueOperations() throws InterruptedException {
+        WorkStealingDynamicThreadPoolExecutor executor = newExecutor(1, 8);
+        CountDownLatch block = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        executor.execute(() -> {
+            started.countDown();
+            try {
+                block.await();
+            } catch (InterruptedException ignored) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        Assert.assertTrue(started.await(5, TimeUnit.SECONDS));
+        AtomicInteger executed = new AtomicInteger();
+        for (int i = 0; i < 4; i++) {
+            executor.execute(executed::incrementAndGet);
+        }
+        // the queue holds the tasks processed by the plugins
+        BlockingQueue<Runnable> queue = executor.getQueue();
+        List<Runnable> tasks = new ArrayList<>(queue);
+        Assert.assertEquals(4, tasks.size());
+        Assert.assertEquals(4, queue.size());
+        Assert.assertFalse(queue.isEmpty());
+        Assert.assertSame(tasks.get(0), queue.peek());
+        Assert.assertTrue(queue.contains(tasks.get(3)));
+
+        Iterator<Runnable> iterator = queue.iterator();
+        Assert.assertSame(tasks.get(0), iterator.next());
+        iterator.remove();
+        Assert.assertEquals(3, queue.size());
+        Assert.assertTrue(executor.remove(tasks.get(1)));
+        Assert.assertFalse(queue.contains(tasks.get(1)));
+        Assert.assertSame(tasks.get(2), queue.poll());
+
+        List<Runnable> drained = new ArrayList<>();
+        Assert.assertEquals(1, queue.drainTo(drained, 1));
+        Assert.assertSame(tasks.get(3), drained.get(0));
+        Assert.assertTrue(queue.isEmpty());
+        Assert.assertNull(queue.peek());
+        Assert.assertNull(queue.poll(10, TimeUnit.MILLISECONDS));
+
+        // the removed tasks are skipped by the pool
+        block.countDown();
+        executor.shutdown();
+        Assert.assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+        Assert.assertEquals(0, executed.get());
+        Assert.assertEquals(1L, executor.getCompletedTaskCount());
+    }
+
+    @Test
+    public void testPutWaitsForCapacity() throws InterruptedException {
+        WorkStealingDynamicThreadPoolExecutor executor = newExecutor(1, 1);
+        CountDownLatch block = new CountDownLatch(1);
+        executor.execute(() -> {
+            try {
+                block.await();
+            } catch (InterruptedException ignored) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        CountDownLatch done = new CountDownLatch(2);
+        BlockingQueue<Runnable> queue = executor.getQueue();
+        // wait until the first task is started
+        while (!queue.isEmpty() || executor.getActiveCount() == 0) {
+            Thread.sleep(1L);
+        }
+        queue.put(done::countDown);
+        Assert.assertFalse(queue.offer(done::countDown, 10, TimeUnit.MILLISECONDS));
+        CountDownLatch putDone = new CountDownLatch(1);
+        Thread producer = new Thread(() -> {
+            try {
+                queue.put(done::countDown);
+                putDone.countDown();
+            } catch (InterruptedException ignored) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        producer.start();
+        Assert.assertFalse(putDone.await(100, TimeUnit.MILLISECONDS));
+        // the queued task is started, so the put is signalled
+        block.countDown();
+        Assert.assertTrue(putDone.await(5, TimeUnit.SECONDS));
+        Assert.assertTrue(done.await(5, TimeUnit.SECONDS));
+        executor.shutdown();
+        Assert.assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testCapacityIncludesRetiredPools() throws InterruptedException {
+        WorkStealingDynamicThreadPoolExecutor executor = newExecutor(1, 2);
+        CountDownLatch block = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        executor.execute(() -> {
+            started.countDown();
+            try {
+                block.await();
+            } catch (InterruptedException ignored) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        Assert.assertTrue(started.await(5, TimeUnit.SECONDS));
+        executor.execute(() -> {
+        });
+        executor.execute(() -> {
+        });
+        // the tasks queued in the retired pool still count
+        executor.setCorePoolSize(2);
+        Assert.assertEquals(2, executor.getQueue().size());
+        Assert.assertThrows(RejectedExecutionException.class, () -> executor.execute(() -> {
+        }));
+        block.countDown();
+        executor.shutdown();
+        Assert.assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+        Assert.assertEquals(0, executor.getQueue().size());
+    }
+
+    @Test
+    public void testKeepAliveTime() throws InterruptedException {
+        WorkStealingDynamicThreadPoolExecutor executor = new WorkStealingDynamicThreadPoolExecutor(
+                2, 8, 30L, TimeUnit.SECONDS, 1000L, true, 1000L, 16,
+                "test", r -> new Thread(r, "test-worker"), new ThreadPoolExecutor.AbortPolicy());
+        Assert.assertEquals(30L, executor.getKeepAliveTime(TimeUnit.SECONDS));
+        executor.setKeepAliveTime(10L, TimeUnit.SECONDS);
+        Assert.assertEquals(10L, executor.getKeepAliveTime(TimeUnit.SECONDS));
+        Assert.assertEquals(2, executor.getParallelism());
+        CountDownLatch done = new CountDownLatch(1);
+        executor.execute(done::countDown);
+        Assert.assertTrue(done.await(5, TimeUnit.SECONDS));
+        executor.shutdown();
+        Assert.assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testSetWorkQueue() throws InterruptedException {
+        WorkStealingDynamicThreadPoolExecutor executor = newExecutor(1, 1024);
+        BlockingQueue<Runnable> queue = executor.getQueue();
+        executor.setWorkQueue(new ArrayBlockingQueue<>(16));
+        // the tasks are still offered to the work-stealing queue, only the capacity is applied
+        Assert.assertSame(queue, executor.getQueue());
+        Assert.assertEquals(16, executor.getQueue().remainingCapacity());
+        executor.setWorkQueue(new SynchronousQueue<>());
+        Assert.assertEquals(16, executor.getQueue().remainingCapacity());
+        CountDownLatch done = new CountDownLatch(1);
+        executor.execute(done::countDown);
+        Assert.assertTrue(done.await(5, TimeUnit.SECONDS));
+        executor.shutdown();
+        Assert.assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testBuildByBuilder() {
+        ThreadPoolExecutor executor = ThreadPoolBuilder.builder()
+                .threadPoolId("work-stealing")
+                .threadFactory("work-stealing")
+                .corePoolSize(2)
+                .maximumPoolSize(4)
+                .capacity(128)
+                .workStealingPool()
+                .build();
+        Assert.assertTrue(executor instanceof WorkStealingDynamicThreadPoolExecutor);
+        Assert.assertEquals(2, executor.getCorePoolSize());
+        Assert.assertEquals(128, executor.getQueue().remainingCapacity());
+        Assert.assertTrue(((WorkStealingDynamicThreadPoolExecutor) executor).getPluginOfType(
+                TaskRejectCountRecordPlugin.PLUGIN_NAME, TaskRejectCountRecordPlugin.class).isPresent());
+        executor.shutdown();
+    }
+
+    private static class TestTaskAwarePlugin implements TaskAwarePlugin {
+
+        private final AtomicInteger count;
+
+        TestTaskAwarePlugin(AtomicInteger count) {
+            this.count = count;
+        }
+
+        @Override
+        public Runnable beforeTaskExecute(Runnable runnable) {
+            count.incrementAndGet();
+            return runnable;
+        }
+    }
+
+    private static class TestExecuteAwarePlugin implements ExecuteAwarePlugin {
+
+        private final AtomicInteger beforeCount;
+
+        private final AtomicInteger afterCount;
+
+        TestExecuteAwarePlugin(AtomicInteger beforeCount, AtomicInteger afterCount) {
+            this.beforeCount = beforeCount;
+            this.afterCount = afterCount;
+        }
+
+        @Override
+        public void beforeExecute(Thread thread, Runnable runnable) {
+            beforeCount.incrementAndGet();
+        }
+
+        @Override
+        public void afterExecute(Runnable runnable, Throwable throwable) {
+            afterCount.incrementAndGet();
+        }
+    }
+
+    private static class TestRejectedAwarePlugin implements RejectedAwarePlugin {
+
+        private final AtomicInteger count;
+
+        TestRejectedAwarePlugin(AtomicInteger count) {
+            this.count = count;
+        }
+
+        @Override
+        public void beforeRejectedExecution(Runnable runnable, ThreadPoolExecutor executor) {
+            count.incrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,156 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.hippo4j.core.executor.plugin.impl;
+
+import cn.hippo4j.common.api.ThreadPoolConfigChange;
+import cn.hippo4j.common.executor.support.ResizableCapacityLinkedBlockingQueue;
+import cn.hippo4j.core.executor.ExtensibleThreadPoolExecutor;
+import cn.hippo4j.core.executor.plugin.manager.DefaultThreadPoolPluginManager;
+import cn.hippo4j.core.executor.tuning.AdaptiveTuningProperties;
+import cn.hippo4j.core.executor.tuning.TuningResult;
+import cn.hippo4j.threadpool.message.core.request.ChangeParameterNotifyRequest;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * test for {@link AdaptiveTuningPlugin}
+ */
+public class AdaptiveTuningPluginTest {
+
+    private final ExtensibleThreadPoolExecutor executor = new ExtensibleThreadPoolExecutor(
+            "test", new DefaultThreadPoolPluginManager(),
+            2, 4, 1000L, TimeUnit.MILLISECONDS,
+            new ResizableCapacityLinkedBlockingQueue<>(10), Thread::new, new ThreadPoolExecutor.AbortPolicy());
+
+    private final List<ChangeParameterNotifyRequest> changes = new ArrayList<>();
+
+    private final ThreadPoolConfigChange<ChangeParameterNotifyRequest> configChange = changes::add;
+
+    @Test
+    public void testGetId() {
+        AdaptiveTuningPlugin plugin = new AdaptiveTuningPlugin(
+                executor.getThreadPoolId(), executor, new AdaptiveTuningProperties(), (sample, properties) -> null, configChange);
+        Assert.assertEquals(AdaptiveTuningPlugin.PLUGIN_NAME, plugin.getId());
+        Assert.assertNotNull(plugin.getPluginRuntime());
+    }
+
+    @Test
+    public void testTune() {
+        AdaptiveTuningProperties properties = new AdaptiveTuningProperties()
+                .setMinAdjustIntervalMillis(0L)
+                .setSampleIntervalMillis(60000L);
+        AdaptiveTuningPlugin plugin = new AdaptiveTuningPlugin(
+                executor.getThreadPoolId(), executor, properties, (sample, props) -> new TuningResult(6, 8, 20), configChange);
+        executor.register(plugin);
+
+        Assert.assertTrue(plugin.tune());
+        Assert.assertEquals(6, executor.getCorePoolSize());
+        Assert.assertEquals(8, executor.getMaximumPoolSize());
+        Assert.assertEquals(20, executor.getQueue().remainingCapacity());
+        Assert.assertEquals(1L, plugin.getAdjustCount());
+
+        // the adjustment is notified through the config change path
+        Assert.assertEquals(1, changes.size());
+        ChangeParameterNotifyRequest change = changes.get(0);
+        Assert.assertEquals(executor.getThreadPoolId(), change.getThreadPoolId());
+        Assert.assertEquals(2, change.getBeforeCorePoolSize().intValue());
+        Assert.assertEquals(6, change.getNowCorePoolSize().intValue());
+        Assert.assertEquals(10, change.getBeforeQueueCapacity().intValue());
+        Assert.assertEquals(20, change.getNowQueueCapacity().intValue());
+
+        // nothing changed
+        Assert.assertFalse(plugin.tune());
+        Assert.assertEquals(1, changes.size());
+        executor.shutdown();
+    }
+
+    @Test
+    public void testRateLimit() {
+        AdaptiveTuningProperties properties = new AdaptiveTuningProperties()
+                .setMinAdjustIntervalMillis(60000L)
+                .setSampleIntervalMillis(60000L);
+        AdaptiveTuningPlugin plugin = new AdaptiveTuningPlugin(
+                executor.getThreadPoolId(), executor, properties, (sample, props) -> new TuningResult(6, 8, 20), configChange);
+
+        Assert.assertFalse(plugin.tune());
+        Assert.assertEquals(2, executor.getCorePoolSize());
+        Assert.assertTrue(changes.isEmpty());
+        executor.shutdown();
+    }
+
+    @Test
+    public void testSample() {
+        AdaptiveTuningProperties properties = new AdaptiveTuningProperties()
+                .setMinAdjustIntervalMillis(0L)
+                .setSampleIntervalMillis(60000L);
+        List<Long> rejected = new ArrayList<>();
+        AdaptiveTuningPlugin plugin = new AdaptiveTuningPlugin(executor.getThreadPoolId(), executor, properties, (sample, props) -> {
+            rejected.add(sample.getRejectedTaskCount());
+            Assert.assertEquals(10, sample.getQueueCapacity());
+            return null;
+        }, configChange);
+        plugin.beforeRejectedExecution(() -> {
+        }, executor);
+        plugin.tune();
+        plugin.tune();
+        // the counters are reset after each sampling
+        Assert.assertEquals(1L, rejected.get(0).longValue());
+        Assert.assertEquals(0L, rejected.get(1).longValue());
+        executor.shutdown();
+    }
+
+    @Test
+    public void testStopAfterShutdown() {
+        AdaptiveTuningProperties properties = new AdaptiveTuningProperties().setSampleIntervalMillis(60000L);
+        AdaptiveTuningPlugin plugin = new AdaptiveTuningPlugin(
+                executor.getThreadPoolId(), executor, properties, (sample, props) -> new TuningResult(6, 8, 20), configChange);
+        executor.register(plugin);
+        Assert.assertTrue(plugin.isSampling());
+
+        executor.shutdown();
+        Assert.assertFalse(plugin.isSampling());
+        Assert.assertFalse(plugin.tune());
+        Assert.assertTrue(changes.isEmpty());
+    }
+
+    @Test
+    public void testReset() {
+        AdaptiveTuningProperties properties = new AdaptiveTuningProperties()
+                .setMinAdjustIntervalMillis(60000L)
+                .setSampleIntervalMillis(60000L);
+        List<Long> rejected = new ArrayList<>();
+        AdaptiveTuningPlugin plugin = new AdaptiveTuningPlugin(executor.getThreadPoolId(), executor, properties, (sample, props) -> {
+            rejected.add(sample.getRejectedTaskCount());
+            return new TuningResult(6, 8, 20);
+        }, configChange);
+        plugin.beforeRejectedExecution(() -> {
+        }, executor);
+        plugin.reset();
+
+        // the metrics sampled before the reset are discarded, and the adjustment is postponed
+        Assert.assertFalse(plugin.tune());
+        Assert.assertEquals(0L, rejected.get(0).longValue());
+        Assert.assertEquals(2, executor.getCorePoolSize());
+        executor.shutdown();
+    }
+}
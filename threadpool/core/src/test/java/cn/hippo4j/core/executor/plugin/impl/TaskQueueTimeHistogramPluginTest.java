@@ -0,0 +1,95 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.hippo4j.core.executor.plugin.impl;
+
+import cn.hippo4j.common.support.LatencyHistogram;
+import cn.hippo4j.common.toolkit.ThreadUtil;
+import cn.hippo4j.core.executor.ExtensibleThreadPoolExecutor;
+import cn.hippo4j.core.executor.ExtensibleThreadPoolExecutor.EnqueueTimeAware;
+import cn.hippo4j.core.executor.plugin.manager.DefaultThreadPoolPluginManager;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * test for {@link TaskQueueTimeHistogramPlugin}
+ */
+public class TaskQueueTimeHistogramPluginTest {
+
+    @Test
+    public void testGetId() {
+        Assert.assertEquals(TaskQueueTimeHistogramPlugin.PLUGIN_NAME, new TaskQueueTimeHistogramPlugin().getId());
+    }
+
+    @Test
+    public void testGetRuntime() {
+        Assert.assertNotNull(new TaskQueueTimeHistogramPlugin().getPluginRuntime());
+    }
+
+    @Test
+    public void testBeforeTaskExecute() {
+        TaskQueueTimeHistogramPlugin plugin = new TaskQueueTimeHistogramPlugin();
+        // task which is not aware of enqueue time is wrapped
+        Runnable task = () -> {
+        };
+        Runnable stamped = plugin.beforeTaskExecute(task);
+        Assert.assertNotSame(task, stamped);
+        Assert.assertTrue(stamped instanceof EnqueueTimeAware);
+        Assert.assertNotEquals(EnqueueTimeAware.NOT_STAMPED, ((EnqueueTimeAware) stamped).getEnqueueTime());
+        // task which is aware of enqueue time is stamped in place
+        Assert.assertSame(stamped, plugin.beforeTaskExecute(stamped));
+    }
+
+    @Test
+    public void testGetIntervalSnapshot() {
+        ExtensibleThreadPoolExecutor executor = new ExtensibleThreadPoolExecutor(
+                "test", new DefaultThreadPoolPluginManager(),
+                1, 1, 1000L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(4), Thread::new, new ThreadPoolExecutor.DiscardPolicy());
+        TaskQueueTimeHistogramPlugin plugin = new TaskQueueTimeHistogramPlugin(2, 0L);
+        executor.register(plugin);
+        executor.execute(() -> ThreadUtil.sleep(50L));
+        // the submitted task is stamped without being wrapped
+        Assert.assertTrue(executor.submit(() -> {
+        }) instanceof EnqueueTimeAware);
+        executor.execute(() -> {
+        });
+        executor.shutdown();
+        while (!executor.isTerminated()) {
+        }
+
+        LatencyHistogram.Snapshot snapshot = plugin.publishSnapshot();
+        Assert.assertEquals(3L, snapshot.getCount());
+        Assert.assertSame(snapshot, plugin.getLastSnapshot());
+        // the last two tasks wait for the first one
+        Assert.assertTrue(snapshot.getMax() >= TimeUnit.MILLISECONDS.toNanos(40L));
+        // the histogram has been reset by the last publication
+        Assert.assertEquals(0L, plugin.publishSnapshot().getCount());
+    }
+
+    @Test
+    public void testIgnoreTaskNotStamped() {
+        TaskQueueTimeHistogramPlugin plugin = new TaskQueueTimeHistogramPlugin(1, 0L);
+        plugin.beforeExecute(Thread.currentThread(), new FutureTask<>(() -> null));
+        Assert.assertEquals(0L, plugin.publishSnapshot().getCount());
+    }
+}
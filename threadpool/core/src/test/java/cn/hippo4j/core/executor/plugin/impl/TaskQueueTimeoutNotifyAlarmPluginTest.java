@@ -0,0 +1,112 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.hippo4j.core.executor.plugin.impl;
+
+import cn.hippo4j.common.toolkit.ThreadUtil;
+import cn.hippo4j.core.executor.ExtensibleThreadPoolExecutor;
+import cn.hippo4j.core.executor.plugin.manager.DefaultThreadPoolPluginManager;
+import cn.hippo4j.threadpool.alarm.api.ThreadPoolCheckAlarm;
+import lombok.Getter;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * test for {@link TaskQueueTimeoutNotifyAlarmPlugin}
+ */
+public class TaskQueueTimeoutNotifyAlarmPluginTest {
+
+    private final ExtensibleThreadPoolExecutor executor = new ExtensibleThreadPoolExecutor(
+            "test", new DefaultThreadPoolPluginManager(),
+            1, 1, 1000L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(2), Thread::new, new ThreadPoolExecutor.AbortPolicy());
+
+    private final TestAlarm testAlarm = new TestAlarm();
+
+    private final TaskQueueTimeoutNotifyAlarmPlugin plugin = new TaskQueueTimeoutNotifyAlarmPlugin(
+            executor.getThreadPoolId(), 50L, executor, testAlarm);
+
+    @Test
+    public void testGetId() {
+        Assert.assertEquals(TaskQueueTimeoutNotifyAlarmPlugin.PLUGIN_NAME, plugin.getId());
+    }
+
+    @Test
+    public void testGetRuntime() {
+        Assert.assertNotNull(plugin.getPluginRuntime());
+    }
+
+    @Test
+    public void testSetQueueTimeOut() {
+        plugin.setQueueTimeOut(2L);
+        Assert.assertEquals(2L, plugin.getQueueTimeOut().longValue());
+    }
+
+    @Test
+    public void testProcessQueueTime() {
+        executor.register(plugin);
+
+        // the first task does not wait, the others wait for it more than 50ms
+        executor.execute(() -> ThreadUtil.sleep(200L));
+        executor.submit(() -> {
+        });
+        executor.execute(() -> {
+        });
+
+        // waiting for shutdown
+        executor.shutdown();
+        while (!executor.isTerminated()) {
+        }
+        Assert.assertEquals(2, testAlarm.getNumberOfAlarms().get());
+    }
+
+    private static class TestAlarm implements ThreadPoolCheckAlarm {
+
+        @Getter
+        private final AtomicInteger numberOfAlarms = new AtomicInteger(0);
+
+        @Override
+        public void checkPoolCapacityAlarm(String threadPoolId, ThreadPoolExecutor threadPoolExecutor) {
+            // do noting
+        }
+
+        @Override
+        public void checkPoolActivityAlarm(String threadPoolId, ThreadPoolExecutor threadPoolExecutor) {
+            // do noting
+        }
+
+        @Override
+        public void asyncSendRejectedAlarm(String threadPoolId) {
+            // do noting
+        }
+
+        @Override
+        public void asyncSendExecuteTimeOutAlarm(String threadPoolId, long executeTime, long executeTimeOut, ThreadPoolExecutor threadPoolExecutor) {
+            // do noting
+        }
+
+        @Override
+        public void asyncSendQueueTimeOutAlarm(String threadPoolId, long queueTime, long queueTimeOut, ThreadPoolExecutor threadPoolExecutor) {
+            numberOfAlarms.incrementAndGet();
+        }
+    }
+}
@@ -89,6 +89,11 @@ public class TaskRejectNotifyAlarmPluginTest {
         public void asyncSendExecuteTimeOutAlarm(String threadPoolId, long executeTime, long executeTimeOut, ThreadPoolExecutor threadPoolExecutor) {
             // do noting
         }
+
+        @Override
+        public void asyncSendQueueTimeOutAlarm(String threadPoolId, long queueTime, long queueTimeOut, ThreadPoolExecutor threadPoolExecutor) {
+            // do noting
+        }
     }
 
 }
@@ -0,0 +1,82 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.hippo4j.core.executor.plugin.impl;
+
+import cn.hippo4j.common.support.LatencyHistogram;
+import cn.hippo4j.common.toolkit.ThreadUtil;
+import cn.hippo4j.core.executor.ExtensibleThreadPoolExecutor;
+import cn.hippo4j.core.executor.plugin.manager.DefaultThreadPoolPluginManager;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * test for {@link TaskTimeHistogramPlugin}
+ */
+public class TaskTimeHistogramPluginTest {
+
+    @Test
+    public void testGetId() {
+        Assert.assertEquals(TaskTimeHistogramPlugin.PLUGIN_NAME, new TaskTimeHistogramPlugin().getId());
+    }
+
+    @Test
+    public void testGetRuntime() {
+        Assert.assertNotNull(new TaskTimeHistogramPlugin().getPluginRuntime());
+    }
+
+    @Test
+    public void testPublishSnapshot() {
+        ExtensibleThreadPoolExecutor executor = new ExtensibleThreadPoolExecutor(
+                "test", new DefaultThreadPoolPluginManager(),
+                2, 2, 1000L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(4), Thread::new, new ThreadPoolExecutor.DiscardPolicy());
+        TaskTimeHistogramPlugin plugin = new TaskTimeHistogramPlugin(2, 0L);
+        executor.register(plugin);
+        executor.execute(() -> ThreadUtil.sleep(10L));
+        executor.execute(() -> ThreadUtil.sleep(50L));
+        executor.shutdown();
+        while (!executor.isTerminated()) {
+        }
+
+        LatencyHistogram.Snapshot snapshot = plugin.publishSnapshot();
+        Assert.assertEquals(2L, snapshot.getCount());
+        Assert.assertTrue(snapshot.getP50() >= TimeUnit.MILLISECONDS.toNanos(10L));
+        Assert.assertTrue(snapshot.getP99() >= TimeUnit.MILLISECONDS.toNanos(50L));
+        // reading the published snapshot doesn't reset the histogram
+        Assert.assertSame(snapshot, plugin.getLastSnapshot());
+        Assert.assertSame(snapshot, plugin.getLastSnapshot());
+        // the histogram has been reset by the last publication
+        Assert.assertEquals(0L, plugin.publishSnapshot().getCount());
+    }
+
+    @Test
+    public void testShareSnapshotInMinInterval() {
+        TaskTimeHistogramPlugin plugin = new TaskTimeHistogramPlugin(1, 60000L);
+        plugin.beforeExecute(Thread.currentThread(), () -> {
+        });
+        plugin.afterExecute(() -> {
+        }, null);
+        // the first interval is not elapsed, so that the initial empty snapshot is shared
+        Assert.assertSame(plugin.publishSnapshot(), plugin.publishSnapshot());
+        Assert.assertEquals(0L, plugin.getLastSnapshot().getCount());
+    }
+}
@@ -73,6 +73,36 @@ public class TaskTimeRecordPluginTest {
         // Assert.assertTrue(testInDeviation(summary.getTotalTaskTimeMillis(), 8000L, 300L));
     }
 
+    @Test
+    public void testSummarizeWithoutTask() {
+        TaskTimeRecordPlugin.Summary summary = new TaskTimeRecordPlugin().summarize();
+        Assert.assertEquals(0L, summary.getTaskCount());
+        Assert.assertEquals(0L, summary.getTotalTaskTimeMillis());
+        Assert.assertEquals(-1L, summary.getMinTaskTimeMillis());
+        Assert.assertEquals(-1L, summary.getMaxTaskTimeMillis());
+        Assert.assertEquals(-1L, summary.getAvgTaskTimeMillis());
+    }
+
+    @Test
+    public void testSummarizeNanos() {
+        TaskTimeRecordPlugin plugin = new TaskTimeRecordPlugin(2);
+        Thread thread = Thread.currentThread();
+        plugin.beforeExecute(thread, () -> {
+        });
+        ThreadUtil.sleep(10L);
+        plugin.afterExecute(() -> {
+        }, null);
+        // afterExecute without beforeExecute should be ignored
+        plugin.afterExecute(() -> {
+        }, null);
+
+        TaskTimeRecordPlugin.Summary summary = plugin.summarize();
+        Assert.assertEquals(1L, summary.getTaskCount());
+        Assert.assertTrue(summary.getMinTaskTimeNanos() >= TimeUnit.MILLISECONDS.toNanos(10L));
+        Assert.assertEquals(summary.getMinTaskTimeNanos(), summary.getMaxTaskTimeNanos());
+        Assert.assertEquals(summary.getTotalTaskTimeNanos(), summary.getAvgTaskTimeNanos());
+    }
+
     private boolean testInDeviation(long except, long actual, long offer) {
         long exceptLower = except - offer;
         long exceptUpper = except + offer;
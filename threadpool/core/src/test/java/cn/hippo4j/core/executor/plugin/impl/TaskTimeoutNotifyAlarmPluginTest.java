@@ -108,6 +108,11 @@ public class TaskTimeoutNotifyAlarmPluginTest {
         public void asyncSendExecuteTimeOutAlarm(String threadPoolId, long executeTime, long executeTimeOut, ThreadPoolExecutor threadPoolExecutor) {
             numberOfAlarms.incrementAndGet();
         }
+
+        @Override
+        public void asyncSendQueueTimeOutAlarm(String threadPoolId, long queueTime, long queueTimeOut, ThreadPoolExecutor threadPoolExecutor) {
+            // do noting
+        }
     }
 
 }
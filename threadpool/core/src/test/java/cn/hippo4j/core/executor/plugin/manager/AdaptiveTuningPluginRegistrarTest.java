@@ -0,0 +1,98 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.hippo4j.core.executor.plugin.manager;
+
+import cn.hippo4j.common.model.executor.ExecutorAdaptiveTuningProperties;
+import cn.hippo4j.core.executor.ExtensibleThreadPoolExecutor;
+import cn.hippo4j.core.executor.plugin.impl.AdaptiveTuningPlugin;
+import cn.hippo4j.core.executor.tuning.AdaptiveTuningProperties;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * test for {@link AdaptiveTuningPluginRegistrar}
+ */
+public class AdaptiveTuningPluginRegistrarTest {
+
+    @Test
+    public void testDoRegister() {
+        ThreadPoolPluginRegistrar registrar = new AdaptiveTuningPluginRegistrar(
+                Collections.singletonList(new AdaptiveTuningProperties().setThreadPoolId("tuned")));
+        ExtensibleThreadPoolExecutor tuned = newExecutor("tuned");
+        ExtensibleThreadPoolExecutor untuned = newExecutor("untuned");
+        registrar.doRegister(tuned);
+        registrar.doRegister(untuned);
+
+        Assert.assertTrue(tuned.isRegistered(AdaptiveTuningPlugin.PLUGIN_NAME));
+        Assert.assertFalse(untuned.isRegistered(AdaptiveTuningPlugin.PLUGIN_NAME));
+        tuned.shutdown();
+        untuned.shutdown();
+        // stop sampling
+        tuned.clear();
+    }
+
+    @Test
+    public void testConfigure() {
+        ExtensibleThreadPoolExecutor executor = newExecutor("configured");
+        ExecutorAdaptiveTuningProperties adaptiveTuning = new ExecutorAdaptiveTuningProperties();
+        adaptiveTuning.setEnable(true);
+        adaptiveTuning.setMaxPoolSize(8);
+        adaptiveTuning.setSampleIntervalMillis(60000L);
+
+        // register
+        AdaptiveTuningPluginRegistrar.configure(executor, adaptiveTuning);
+        AdaptiveTuningPlugin plugin = executor.getPluginOfType(AdaptiveTuningPlugin.PLUGIN_NAME, AdaptiveTuningPlugin.class).orElse(null);
+        Assert.assertNotNull(plugin);
+        Assert.assertEquals("configured", plugin.getProperties().getThreadPoolId());
+        Assert.assertEquals(8, plugin.getProperties().getMaxPoolSize());
+
+        // same properties are pushed again, the plugin is kept
+        AdaptiveTuningPluginRegistrar.configure(executor, adaptiveTuning);
+        Assert.assertSame(plugin, executor.getPluginOfType(AdaptiveTuningPlugin.PLUGIN_NAME, AdaptiveTuningPlugin.class).orElse(null));
+
+        // properties are changed, the plugin is replaced
+        adaptiveTuning.setMaxPoolSize(16);
+        AdaptiveTuningPluginRegistrar.configure(executor, adaptiveTuning);
+        AdaptiveTuningPlugin replaced = executor.getPluginOfType(AdaptiveTuningPlugin.PLUGIN_NAME, AdaptiveTuningPlugin.class).orElse(null);
+        Assert.assertNotNull(replaced);
+        Assert.assertNotSame(plugin, replaced);
+        Assert.assertFalse(plugin.isSampling());
+        Assert.assertEquals(16, replaced.getProperties().getMaxPoolSize());
+
+        // disabled, the plugin is unregistered
+        adaptiveTuning.setEnable(false);
+        AdaptiveTuningPluginRegistrar.configure(executor, adaptiveTuning);
+        Assert.assertFalse(executor.isRegistered(AdaptiveTuningPlugin.PLUGIN_NAME));
+        Assert.assertFalse(replaced.isSampling());
+        AdaptiveTuningPluginRegistrar.configure(executor, null);
+        Assert.assertFalse(executor.isRegistered(AdaptiveTuningPlugin.PLUGIN_NAME));
+        executor.shutdown();
+    }
+
+    private static ExtensibleThreadPoolExecutor newExecutor(String threadPoolId) {
+        return new ExtensibleThreadPoolExecutor(
+                threadPoolId, new DefaultThreadPoolPluginManager(),
+                1, 1, 1000L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(1), Thread::new, new ThreadPoolExecutor.AbortPolicy());
+    }
+}
@@ -30,6 +30,7 @@ import org.junit.Test;
 import org.springframework.core.annotation.AnnotationAwareOrderComparator;
 import org.springframework.core.annotation.Order;
 
+import java.util.Collection;
 import java.util.Iterator;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
@@ -128,6 +129,34 @@ public class DefaultThreadPoolPluginManagerTest {
         Assert.assertEquals(1, manager.getExecuteAwarePluginList().size());
     }
 
+    @Test
+    public void testPluginListSnapshot() {
+        ThreadPoolPlugin plugin = new TestExecuteAwarePlugin();
+        manager.register(plugin);
+        Collection<ExecuteAwarePlugin> snapshot = manager.getExecuteAwarePluginList();
+        Assert.assertSame(snapshot, manager.getExecuteAwarePluginList());
+        Assert.assertThrows(UnsupportedOperationException.class, () -> snapshot.remove(plugin));
+
+        manager.disable(plugin.getId());
+        Assert.assertEquals(1, snapshot.size());
+        Assert.assertTrue(manager.getExecuteAwarePluginList().isEmpty());
+        manager.enable(plugin.getId());
+        Assert.assertEquals(1, manager.getExecuteAwarePluginList().size());
+        manager.unregister(plugin.getId());
+        Assert.assertEquals(1, snapshot.size());
+        Assert.assertTrue(manager.getExecuteAwarePluginList().isEmpty());
+    }
+
+    @Test
+    public void testPluginListSortedAfterRegister() {
+        manager.setPluginComparator(AnnotationAwareOrderComparator.INSTANCE);
+        manager.register(new TestShutdownAwarePlugin());
+        manager.register(new TestShutdownAwarePlugin2());
+        Iterator<ShutdownAwarePlugin> iterator = manager.getShutdownAwarePluginList().iterator();
+        Assert.assertEquals(TestShutdownAwarePlugin2.class, iterator.next().getClass());
+        Assert.assertEquals(TestShutdownAwarePlugin.class, iterator.next().getClass());
+    }
+
     @Test
     public void testGetAllPluginsOfType() {
         manager.register(new TestExecuteAwarePlugin());
@@ -247,4 +276,11 @@ public class DefaultThreadPoolPluginManagerTest {
         private final String id = this.getClass().getSimpleName();
     }
 
+    @Order(-1)
+    @Getter
+    private final static class TestShutdownAwarePlugin2 implements ShutdownAwarePlugin {
+
+        private final String id = this.getClass().getSimpleName();
+    }
+
 }
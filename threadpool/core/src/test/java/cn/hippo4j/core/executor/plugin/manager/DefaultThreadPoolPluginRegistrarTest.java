@@ -19,6 +19,8 @@ package cn.hippo4j.core.executor.plugin.manager;
 
 import cn.hippo4j.core.executor.ExtensibleThreadPoolExecutor;
 import cn.hippo4j.core.executor.plugin.impl.TaskDecoratorPlugin;
+import cn.hippo4j.core.executor.plugin.impl.TaskQueueTimeHistogramPlugin;
+import cn.hippo4j.core.executor.plugin.impl.TaskQueueTimeoutNotifyAlarmPlugin;
 import cn.hippo4j.core.executor.plugin.impl.TaskRejectCountRecordPlugin;
 import cn.hippo4j.core.executor.plugin.impl.TaskRejectNotifyAlarmPlugin;
 import cn.hippo4j.core.executor.plugin.impl.TaskTimeoutNotifyAlarmPlugin;
@@ -59,7 +61,27 @@ public class DefaultThreadPoolPluginRegistrarTest {
         Assert.assertTrue(manager.getPlugin(TaskTimeoutNotifyAlarmPlugin.PLUGIN_NAME).isPresent());
         Assert.assertTrue(manager.getPlugin(TaskRejectCountRecordPlugin.PLUGIN_NAME).isPresent());
         Assert.assertTrue(manager.getPlugin(TaskRejectNotifyAlarmPlugin.PLUGIN_NAME).isPresent());
+        Assert.assertTrue(manager.getPlugin(TaskQueueTimeHistogramPlugin.PLUGIN_NAME).isPresent());
         Assert.assertTrue(manager.getPlugin(ThreadPoolExecutorShutdownPlugin.PLUGIN_NAME).isPresent());
+        // queue time-out is not alarmed unless it's configured
+        Assert.assertEquals(Long.valueOf(-1L), manager.getPluginOfType(TaskQueueTimeoutNotifyAlarmPlugin.PLUGIN_NAME, TaskQueueTimeoutNotifyAlarmPlugin.class)
+                .map(TaskQueueTimeoutNotifyAlarmPlugin::getQueueTimeOut)
+                .orElse(null));
+    }
+
+    @Test
+    public void testDoRegisterWithQueueTimeOut() {
+        ThreadPoolPluginRegistrar registrar = new DefaultThreadPoolPluginRegistrar(100L, 100L, 50L);
+        ThreadPoolPluginManager manager = new DefaultThreadPoolPluginManager();
+        ExtensibleThreadPoolExecutor executor = new ExtensibleThreadPoolExecutor(
+                "test", manager,
+                5, 5, 1000L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(1), Thread::new, new ThreadPoolExecutor.AbortPolicy());
+        registrar.doRegister(executor);
+
+        Assert.assertEquals(Long.valueOf(50L), manager.getPluginOfType(TaskQueueTimeoutNotifyAlarmPlugin.PLUGIN_NAME, TaskQueueTimeoutNotifyAlarmPlugin.class)
+                .map(TaskQueueTimeoutNotifyAlarmPlugin::getQueueTimeOut)
+                .orElse(null));
     }
 
 }
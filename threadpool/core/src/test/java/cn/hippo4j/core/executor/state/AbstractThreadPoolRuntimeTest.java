@@ -18,6 +18,7 @@
 package cn.hippo4j.core.executor.state;
 
 import cn.hippo4j.common.executor.ThreadPoolExecutorRegistry;
+import cn.hippo4j.common.model.PoolMetricsSnapshot;
 import cn.hippo4j.common.model.ThreadPoolRunStateInfo;
 import cn.hippo4j.common.support.AbstractThreadPoolRuntime;
 import cn.hippo4j.core.executor.DynamicThreadPoolExecutor;
@@ -30,6 +31,8 @@ import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 
+import static cn.hippo4j.common.constant.Constants.NO_REJECT_COUNT_NUM;
+
 @RunWith(MockitoJUnitRunner.class)
 public class AbstractThreadPoolRuntimeTest {
 
@@ -53,4 +56,44 @@ public class AbstractThreadPoolRuntimeTest {
         threadPoolRunStateInfo = threadPoolRuntime.getPoolRunState(threadPoolId, executor);
         Assertions.assertNotNull(threadPoolRunStateInfo);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testPoolMetricsSnapshot() {
+        AbstractThreadPoolRuntime threadPoolRuntime = new AbstractThreadPoolRuntime() {
+
+            @Override
+            public ThreadPoolRunStateInfo supplement(ThreadPoolRunStateInfo threadPoolRunStateInfo) {
+                return threadPoolRunStateInfo;
+            }
+        };
+        DynamicThreadPoolExecutor executor = new DynamicThreadPoolExecutor(
+                2, 4, 1000L, TimeUnit.MILLISECONDS,
+                1000L, true, 1000L,
+                new ArrayBlockingQueue<>(8), "test-snapshot", Thread::new, new ThreadPoolExecutor.DiscardOldestPolicy());
+        PoolMetricsSnapshot snapshot = new PoolMetricsSnapshot();
+        Assertions.assertSame(snapshot, threadPoolRuntime.getPoolMetricsSnapshot("test-snapshot", executor, snapshot));
+        Assertions.assertEquals("test-snapshot", snapshot.getTpId());
+        Assertions.assertEquals(2, snapshot.getCoreSize());
+        Assertions.assertEquals(4, snapshot.getMaximumSize());
+        Assertions.assertEquals("ArrayBlockingQueue", snapshot.getQueueType());
+        Assertions.assertEquals(8, snapshot.getQueueCapacity());
+        Assertions.assertEquals(8, snapshot.getQueueRemainingCapacity());
+        Assertions.assertEquals(0L, snapshot.getRejectCount());
+        Assertions.assertEquals(0, snapshot.getCurrentLoad());
+
+        // the snapshot is reused by another executor without the histograms of the previous one
+        snapshot.setTaskTimeRecorded(true);
+        ThreadPoolExecutor plainExecutor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(1));
+        threadPoolRuntime.getPoolMetricsSnapshot("test-plain", plainExecutor, snapshot);
+        Assertions.assertEquals("test-plain", snapshot.getTpId());
+        Assertions.assertEquals(NO_REJECT_COUNT_NUM, snapshot.getRejectCount());
+        Assertions.assertFalse(snapshot.isTaskTimeRecorded());
+
+        ThreadPoolRunStateInfo stateInfo = threadPoolRuntime.getPoolRunState("test-snapshot", executor);
+        Assertions.assertEquals("0", stateInfo.getCurrentLoad());
+        Assertions.assertEquals(Integer.valueOf(8), stateInfo.getQueueCapacity());
+        Assertions.assertEquals(Long.valueOf(0L), stateInfo.getRejectCount());
+        executor.shutdown();
+        plainExecutor.shutdown();
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.hippo4j.core.executor.state;
+
+import cn.hippo4j.common.executor.support.BlockingQueueTypeEnum;
+import cn.hippo4j.common.model.PoolMetricsSnapshot;
+import cn.hippo4j.common.model.ThreadPoolRunStateInfo;
+import cn.hippo4j.common.monitor.RuntimeMessage;
+import cn.hippo4j.common.support.AbstractThreadPoolRuntime;
+import cn.hippo4j.common.toolkit.BeanUtil;
+import cn.hippo4j.core.executor.DynamicThreadPoolExecutor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * benchmark test for {@link AbstractThreadPoolRuntime#getPoolMetricsSnapshot},
+ * compare one collect cycle of 1,000 thread-pools, filling a reused {@link PoolMetricsSnapshot},
+ * with building {@link ThreadPoolRunStateInfo} and mapping it to {@link RuntimeMessage} by {@link BeanUtil}.
+ * The gc profiler shows the allocation of each cycle.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+@Fork(1)
+public class PoolMetricsSnapshotBenchmarkTest {
+
+    private static final int POOL_COUNT = 1000;
+
+    private final AbstractThreadPoolRuntime threadPoolRuntime = new AbstractThreadPoolRuntime() {
+
+        @Override
+        public ThreadPoolRunStateInfo supplement(ThreadPoolRunStateInfo threadPoolRunStateInfo) {
+            return threadPoolRunStateInfo;
+        }
+    };
+
+    private final PoolMetricsSnapshot snapshot = new PoolMetricsSnapshot();
+
+    private String[] threadPoolIds;
+
+    private DynamicThreadPoolExecutor[] executors;
+
+    @Setup
+    public void setup() {
+        threadPoolIds = new String[POOL_COUNT];
+        executors = new DynamicThreadPoolExecutor[POOL_COUNT];
+        for (int i = 0; i < POOL_COUNT; i++) {
+            threadPoolIds[i] = "benchmark-pool-" + i;
+            executors[i] = new DynamicThreadPoolExecutor(
+                    1, 4, 1000L, TimeUnit.MILLISECONDS,
+                    1000L, true, 1000L,
+                    BlockingQueueTypeEnum.createBlockingQueue(BlockingQueueTypeEnum.RESIZABLE_LINKED_BLOCKING_QUEUE.getType(), 1024),
+                    threadPoolIds[i], Thread::new, new ThreadPoolExecutor.AbortPolicy());
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        for (DynamicThreadPoolExecutor each : executors) {
+            each.shutdownNow();
+        }
+    }
+
+    @Benchmark
+    public void runStateWithBeanUtil(Blackhole blackhole) {
+        for (int i = 0; i < POOL_COUNT; i++) {
+            ThreadPoolRunStateInfo stateInfo = threadPoolRuntime.getPoolRunState(threadPoolIds[i], executors[i]);
+            blackhole.consume(BeanUtil.convert(stateInfo, RuntimeMessage.class));
+        }
+    }
+
+    @Benchmark
+    public void reusedSnapshot(Blackhole blackhole) {
+        for (int i = 0; i < POOL_COUNT; i++) {
+            blackhole.consume(threadPoolRuntime.getPoolMetricsSnapshot(threadPoolIds[i], executors[i], snapshot).getCurrentLoad());
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options opts = new OptionsBuilder()
+                .include(PoolMetricsSnapshotBenchmarkTest.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(opts).run();
+    }
+}
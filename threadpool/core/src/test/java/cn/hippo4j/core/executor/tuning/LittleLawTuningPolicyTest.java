@@ -0,0 +1,107 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.hippo4j.core.executor.tuning;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * test for {@link LittleLawTuningPolicy}
+ */
+public class LittleLawTuningPolicyTest {
+
+    private final LittleLawTuningPolicy policy = new LittleLawTuningPolicy();
+
+    private final AdaptiveTuningProperties properties = new AdaptiveTuningProperties()
+            .setMinPoolSize(2)
+            .setMaxPoolSize(16)
+            .setMinQueueCapacity(100)
+            .setMaxQueueCapacity(1000)
+            .setMaxIncreaseStep(4);
+
+    @Test
+    public void testIncreaseAdditively() {
+        // 1000 tasks per second, 20ms per task, required about 20 threads
+        TuningSample sample = sample(4, 8, 1000L, 0L, TimeUnit.MILLISECONDS.toNanos(20L), 10, 100);
+        TuningResult result = policy.tune(sample, properties);
+        Assert.assertEquals(8, result.getCorePoolSize());
+        Assert.assertEquals(8, result.getMaximumPoolSize());
+    }
+
+    @Test
+    public void testIncreaseWithinBounds() {
+        TuningSample sample = sample(14, 14, 1000L, 0L, TimeUnit.MILLISECONDS.toNanos(20L), 10, 100);
+        TuningResult result = policy.tune(sample, properties);
+        Assert.assertEquals(16, result.getCorePoolSize());
+        Assert.assertEquals(16, result.getMaximumPoolSize());
+    }
+
+    @Test
+    public void testDecreaseMultiplicatively() {
+        // 10 tasks per second, 10ms per task, the pool is almost idle
+        TuningSample sample = sample(12, 16, 10L, 0L, TimeUnit.MILLISECONDS.toNanos(10L), 0, 500);
+        TuningResult result = policy.tune(sample, properties);
+        Assert.assertEquals(9, result.getCorePoolSize());
+        Assert.assertEquals(16, result.getMaximumPoolSize());
+        // the queue is almost empty
+        Assert.assertEquals(375, result.getQueueCapacity());
+    }
+
+    @Test
+    public void testKeepStable() {
+        // 200 tasks per second, 20ms per task, required about 5 threads
+        TuningSample sample = sample(6, 8, 200L, 0L, TimeUnit.MILLISECONDS.toNanos(20L), 40, 100);
+        TuningResult result = policy.tune(sample, properties);
+        Assert.assertEquals(6, result.getCorePoolSize());
+        Assert.assertEquals(8, result.getMaximumPoolSize());
+        Assert.assertEquals(100, result.getQueueCapacity());
+    }
+
+    @Test
+    public void testGrowQueueWhenRejectedAtMaxPoolSize() {
+        TuningSample sample = sample(16, 16, 1000L, 100L, TimeUnit.MILLISECONDS.toNanos(20L), 100, 100);
+        TuningResult result = policy.tune(sample, properties);
+        Assert.assertEquals(16, result.getCorePoolSize());
+        Assert.assertEquals(200, result.getQueueCapacity());
+    }
+
+    @Test
+    public void testQueueCapacityNotTunable() {
+        AdaptiveTuningProperties properties = new AdaptiveTuningProperties().setMaxPoolSize(16);
+        TuningSample sample = sample(16, 16, 1000L, 100L, TimeUnit.MILLISECONDS.toNanos(20L), 100, 100);
+        Assert.assertEquals(100, policy.tune(sample, properties).getQueueCapacity());
+    }
+
+    private static TuningSample sample(int corePoolSize, int maximumPoolSize, long completed, long rejected,
+                                       long avgTaskTimeNanos, int queueSize, int queueCapacity) {
+        return TuningSample.builder()
+                .intervalNanos(TimeUnit.SECONDS.toNanos(1L))
+                .corePoolSize(corePoolSize)
+                .maximumPoolSize(maximumPoolSize)
+                .poolSize(corePoolSize)
+                .activeCount(0)
+                .queueSize(queueSize)
+                .queueCapacity(queueCapacity)
+                .completedTaskCount(completed)
+                .rejectedTaskCount(rejected)
+                .avgTaskTimeNanos(avgTaskTimeNanos)
+                .build();
+    }
+}
@@ -17,7 +17,9 @@
 
 package cn.hippo4j.monitor.base;
 
+import cn.hippo4j.common.executor.ThreadPoolExecutorHolder;
 import cn.hippo4j.common.executor.ThreadPoolExecutorRegistry;
+import cn.hippo4j.common.executor.ThreadPoolTaskMetricsRegistry;
 import cn.hippo4j.common.model.ThreadPoolRunStateInfo;
 import cn.hippo4j.core.executor.state.ThreadPoolRunStateHandler;
 import cn.hippo4j.threadpool.monitor.api.DynamicThreadPoolMonitor;
@@ -46,6 +48,15 @@ public abstract class AbstractDynamicThreadPoolMonitor implements DynamicThreadP
     @Override
     public void collect() {
         List<String> listDynamicThreadPoolId = ThreadPoolExecutorRegistry.listThreadPoolExecutorId();
-        listDynamicThreadPoolId.forEach(each -> execute(threadPoolRunStateHandler.getPoolRunState(each)));
+        for (String each : listDynamicThreadPoolId) {
+            ThreadPoolExecutorHolder executorHolder = ThreadPoolExecutorRegistry.getHolder(each);
+            if (!executorHolder.isEmpty()) {
+                execute(threadPoolRunStateHandler.getPoolRunState(each, executorHolder.getExecutor()));
+            }
+        }
+        // Executors observed by the agent which are not dynamic thread-pools, such as the executors owned by libraries.
+        for (ThreadPoolExecutorHolder each : ThreadPoolTaskMetricsRegistry.listHolders()) {
+            execute(threadPoolRunStateHandler.getPoolRunState(each.getThreadPoolId(), each.getExecutor()));
+        }
     }
 }
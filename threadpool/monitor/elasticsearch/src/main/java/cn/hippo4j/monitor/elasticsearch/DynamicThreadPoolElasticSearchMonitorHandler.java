@@ -19,8 +19,6 @@ package cn.hippo4j.monitor.elasticsearch;
 
 import cn.hippo4j.core.config.ApplicationContextHolder;
 import cn.hippo4j.common.model.ThreadPoolRunStateInfo;
-import cn.hippo4j.common.toolkit.BeanUtil;
-import cn.hippo4j.common.toolkit.JSONUtil;
 import cn.hippo4j.core.executor.state.ThreadPoolRunStateHandler;
 import cn.hippo4j.core.toolkit.FileUtil;
 import cn.hippo4j.monitor.base.AbstractDynamicThreadPoolMonitor;
@@ -32,19 +30,16 @@ import lombok.extern.slf4j.Slf4j;
 import org.elasticsearch.action.admin.indices.alias.Alias;
 import org.elasticsearch.action.admin.indices.create.CreateIndexRequest;
 import org.elasticsearch.action.admin.indices.create.CreateIndexResponse;
-import org.elasticsearch.action.index.IndexRequest;
-import org.elasticsearch.action.index.IndexResponse;
 import org.elasticsearch.client.RequestOptions;
 import org.elasticsearch.client.RestHighLevelClient;
 import org.elasticsearch.client.indices.GetIndexRequest;
 import org.elasticsearch.common.settings.Settings;
 import org.elasticsearch.common.xcontent.XContentType;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.core.env.Environment;
 import org.springframework.util.StringUtils;
 
 import java.io.IOException;
-import java.nio.charset.StandardCharsets;
-import java.util.List;
 import java.util.Objects;
 import java.util.concurrent.atomic.AtomicBoolean;
 
@@ -52,49 +47,121 @@ import java.util.concurrent.atomic.AtomicBoolean;
  * Dynamic thread-pool elastic-search monitor handler.
  */
 @Slf4j
-public class DynamicThreadPoolElasticSearchMonitorHandler extends AbstractDynamicThreadPoolMonitor {
+public class DynamicThreadPoolElasticSearchMonitorHandler extends AbstractDynamicThreadPoolMonitor implements DisposableBean {
+
+    private static final int DEFAULT_BULK_ACTIONS = 1000;
+
+    private static final long DEFAULT_BULK_SIZE_BYTES = 5 * 1024 * 1024L;
+
+    private static final long DEFAULT_BULK_FLUSH_INTERVAL_MILLIS = 5000L;
+
+    private static final int DEFAULT_BULK_MAX_IN_FLIGHT_REQUESTS = 1;
+
+    private static final long DEFAULT_BULK_MAX_BUFFERED_BYTES = 4 * DEFAULT_BULK_SIZE_BYTES;
 
     private AtomicBoolean isIndexExist = null;
 
+    private volatile ElasticSearchBulkWriter bulkWriter;
+
+    private String indexName;
+
+    private String applicationName;
+
     public DynamicThreadPoolElasticSearchMonitorHandler(ThreadPoolRunStateHandler handler) {
         super(handler);
     }
 
     @Override
     protected void execute(ThreadPoolRunStateInfo poolRunStateInfo) {
-        ElasticSearchThreadPoolRunStateInfo esThreadPoolRunStateInfo = BeanUtil.convert(poolRunStateInfo, ElasticSearchThreadPoolRunStateInfo.class);
-        Environment environment = ApplicationContextHolder.getInstance().getEnvironment();
-        String indexName = environment.getProperty("es.thread-pool-state.index.name", "thread-pool-state");
-        String applicationName = environment.getProperty("spring.application.name", "application");
-        if (!this.isExists(indexName)) {
-            List<String> rawMapping = FileUtil.readLines(Thread.currentThread().getContextClassLoader().getResource("mapping.json").getPath(), StandardCharsets.UTF_8);
-            String mapping = String.join(" ", rawMapping);
-            // if index doesn't exsit, this function may try to create one, but recommend to create index manually.
-            this.createIndex(EsIndex.builder().index(indexName).type("_doc").mapping(mapping).build());
+        ElasticSearchBulkWriter writer = getBulkWriter();
+        if (writer == null) {
+            return;
         }
+        ElasticSearchThreadPoolRunStateInfo esThreadPoolRunStateInfo = convert(poolRunStateInfo);
         esThreadPoolRunStateInfo.setApplicationName(applicationName);
         esThreadPoolRunStateInfo.setId(indexName + "-" + System.currentTimeMillis());
-        this.log2Es(esThreadPoolRunStateInfo, indexName);
+        writer.add(esThreadPoolRunStateInfo);
     }
 
-    public void log2Es(ElasticSearchThreadPoolRunStateInfo esThreadPoolRunStateInfo, String indexName) {
-        RestHighLevelClient client = ElasticSearchClientHolder.getClient();
-        try {
-            IndexRequest request = new IndexRequest(indexName, "_doc");
-            request.id(esThreadPoolRunStateInfo.getId());
-            String stateJson = JSONUtil.toJSONString(esThreadPoolRunStateInfo);
-            request.source(stateJson, XContentType.JSON);
-            IndexResponse response = client.index(request, RequestOptions.DEFAULT);
-            log.info("write thread-pool state to es, id is :{}", response.getId());
-        } catch (Exception ex) {
-            log.error("es index error, the exception was thrown in create index. name:{},type:{},id:{}. {} ",
-                    indexName,
-                    "_doc",
-                    esThreadPoolRunStateInfo.getId(),
-                    ex);
+    /**
+     * Get the bulk writer, which is created once the index exists.
+     *
+     * @return bulk writer, or null if the client is unavailable
+     */
+    private ElasticSearchBulkWriter getBulkWriter() {
+        ElasticSearchBulkWriter writer = bulkWriter;
+        if (writer != null) {
+            return writer;
+        }
+        synchronized (this) {
+            if (bulkWriter == null) {
+                RestHighLevelClient client = ElasticSearchClientHolder.getClient();
+                if (client == null) {
+                    return null;
+                }
+                Environment environment = ApplicationContextHolder.getInstance().getEnvironment();
+                String index = environment.getProperty("es.thread-pool-state.index.name", "thread-pool-state");
+                if (!this.isExists(index)) {
+                    String mapping = FileUtil.readUtf8String("mapping.json");
+                    // if index doesn't exsit, this function may try to create one, but recommend to create index manually.
+                    this.createIndex(EsIndex.builder().index(index).type("_doc").mapping(mapping).build());
+                }
+                indexName = index;
+                applicationName = environment.getProperty("spring.application.name", "application");
+                bulkWriter = new ElasticSearchBulkWriter(
+                        client.getLowLevelClient(),
+                        index,
+                        environment.getProperty("es.thread-pool-state.bulk.actions", Integer.class, DEFAULT_BULK_ACTIONS),
+                        environment.getProperty("es.thread-pool-state.bulk.size", Long.class, DEFAULT_BULK_SIZE_BYTES),
+                        environment.getProperty("es.thread-pool-state.bulk.flush-interval", Long.class, DEFAULT_BULK_FLUSH_INTERVAL_MILLIS),
+                        environment.getProperty("es.thread-pool-state.bulk.max-in-flight", Integer.class, DEFAULT_BULK_MAX_IN_FLIGHT_REQUESTS),
+                        environment.getProperty("es.thread-pool-state.bulk.max-buffered-size", Long.class, DEFAULT_BULK_MAX_BUFFERED_BYTES));
+            }
+            return bulkWriter;
+        }
+    }
+
+    @Override
+    public void destroy() {
+        ElasticSearchBulkWriter writer = bulkWriter;
+        if (writer != null) {
+            writer.close();
         }
     }
 
+    private ElasticSearchThreadPoolRunStateInfo convert(ThreadPoolRunStateInfo poolRunStateInfo) {
+        ElasticSearchThreadPoolRunStateInfo esThreadPoolRunStateInfo = new ElasticSearchThreadPoolRunStateInfo();
+        esThreadPoolRunStateInfo.setCurrentLoad(poolRunStateInfo.getCurrentLoad());
+        esThreadPoolRunStateInfo.setPeakLoad(poolRunStateInfo.getPeakLoad());
+        esThreadPoolRunStateInfo.setTpId(poolRunStateInfo.getTpId());
+        esThreadPoolRunStateInfo.setActiveCount(poolRunStateInfo.getActiveCount());
+        esThreadPoolRunStateInfo.setPoolSize(poolRunStateInfo.getPoolSize());
+        esThreadPoolRunStateInfo.setActiveSize(poolRunStateInfo.getActiveSize());
+        esThreadPoolRunStateInfo.setLargestPoolSize(poolRunStateInfo.getLargestPoolSize());
+        esThreadPoolRunStateInfo.setQueueSize(poolRunStateInfo.getQueueSize());
+        esThreadPoolRunStateInfo.setQueueRemainingCapacity(poolRunStateInfo.getQueueRemainingCapacity());
+        esThreadPoolRunStateInfo.setCompletedTaskCount(poolRunStateInfo.getCompletedTaskCount());
+        esThreadPoolRunStateInfo.setRejectCount(poolRunStateInfo.getRejectCount());
+        esThreadPoolRunStateInfo.setHost(poolRunStateInfo.getHost());
+        esThreadPoolRunStateInfo.setMemoryProportion(poolRunStateInfo.getMemoryProportion());
+        esThreadPoolRunStateInfo.setFreeMemory(poolRunStateInfo.getFreeMemory());
+        esThreadPoolRunStateInfo.setClientLastRefreshTime(poolRunStateInfo.getClientLastRefreshTime());
+        esThreadPoolRunStateInfo.setTimestamp(poolRunStateInfo.getTimestamp());
+        esThreadPoolRunStateInfo.setCoreSize(poolRunStateInfo.getCoreSize());
+        esThreadPoolRunStateInfo.setMaximumSize(poolRunStateInfo.getMaximumSize());
+        esThreadPoolRunStateInfo.setQueueType(poolRunStateInfo.getQueueType());
+        esThreadPoolRunStateInfo.setQueueCapacity(poolRunStateInfo.getQueueCapacity());
+        esThreadPoolRunStateInfo.setRejectedName(poolRunStateInfo.getRejectedName());
+        esThreadPoolRunStateInfo.setKeepAliveTime(poolRunStateInfo.getKeepAliveTime());
+        esThreadPoolRunStateInfo.setTaskTimeP50(poolRunStateInfo.getTaskTimeP50());
+        esThreadPoolRunStateInfo.setTaskTimeP99(poolRunStateInfo.getTaskTimeP99());
+        esThreadPoolRunStateInfo.setTaskTimeP999(poolRunStateInfo.getTaskTimeP999());
+        esThreadPoolRunStateInfo.setQueueTimeP50(poolRunStateInfo.getQueueTimeP50());
+        esThreadPoolRunStateInfo.setQueueTimeP99(poolRunStateInfo.getQueueTimeP99());
+        esThreadPoolRunStateInfo.setQueueTimeP999(poolRunStateInfo.getQueueTimeP999());
+        return esThreadPoolRunStateInfo;
+    }
+
     public synchronized boolean isExists(String index) {
         // cache check result
         if (Objects.isNull(isIndexExist)) {
@@ -0,0 +1,274 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.hippo4j.monitor.elasticsearch;
+
+import cn.hippo4j.common.executor.ThreadFactoryBuilder;
+import cn.hippo4j.common.toolkit.JSONUtil;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.http.entity.ContentType;
+import org.apache.http.nio.entity.NByteArrayEntity;
+import org.apache.http.util.EntityUtils;
+import org.elasticsearch.client.Request;
+import org.elasticsearch.client.Response;
+import org.elasticsearch.client.ResponseListener;
+import org.elasticsearch.client.RestClient;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * <p>Buffered elastic-search writer, which accumulates documents into {@code _bulk} requests
+ * and sends them with the asynchronous {@link RestClient}. <br />
+ * A bulk request is sent when the buffered documents reach {@link #bulkActions} or {@link #bulkSizeBytes},
+ * or every {@code flushIntervalMillis} by a daemon flusher.
+ *
+ * <p>At most {@code maxInFlightRequests} bulk requests are in flight, each of them owns a buffer
+ * which is reset and reused once the request is completed, so the documents are serialized without extra copies.
+ * When all requests are in flight, the documents keep accumulating in the current buffer,
+ * and are dropped once the buffer reaches {@link #maxBufferedBytes}.
+ */
+@Slf4j
+public class ElasticSearchBulkWriter implements Closeable {
+
+    private static final String BULK_ENDPOINT = "/_bulk";
+
+    private static final ContentType NDJSON = ContentType.create("application/x-ndjson", StandardCharsets.UTF_8);
+
+    /**
+     * Only the fields to check the result are returned by elastic-search
+     */
+    private static final String RESPONSE_FILTER_PATH = "took,errors,items.*.error";
+
+    private static final String RESPONSE_ERRORS = "\"errors\":true";
+
+    private final RestClient client;
+
+    /**
+     * Bulk action line of each document
+     */
+    private final byte[] actionLine;
+
+    /**
+     * Max count of documents in a bulk request
+     */
+    private final int bulkActions;
+
+    /**
+     * Max bytes of a bulk request
+     */
+    private final long bulkSizeBytes;
+
+    /**
+     * Max bytes buffered when all requests are in flight
+     */
+    private final long maxBufferedBytes;
+
+    /**
+     * Permits of in flight requests
+     */
+    private final Semaphore inFlightRequests;
+
+    /**
+     * Buffers which are not in flight
+     */
+    private final BlockingQueue<BulkBuffer> freeBuffers;
+
+    private final ScheduledExecutorService flushScheduler;
+
+    private final AtomicLong droppedDocumentCount = new AtomicLong();
+
+    /**
+     * Buffer of the documents to be sent, guarded by this
+     */
+    private BulkBuffer current;
+
+    private volatile boolean closed;
+
+    /**
+     * Create a {@link ElasticSearchBulkWriter}.
+     *
+     * @param client              low level rest client
+     * @param indexName           index name
+     * @param bulkActions         max count of documents in a bulk request
+     * @param bulkSizeBytes       max bytes of a bulk request
+     * @param flushIntervalMillis interval to flush the buffered documents
+     * @param maxInFlightRequests max count of in flight requests
+     * @param maxBufferedBytes    max bytes buffered when all requests are in flight
+     */
+    public ElasticSearchBulkWriter(RestClient client, String indexName, int bulkActions, long bulkSizeBytes,
+                                   long flushIntervalMillis, int maxInFlightRequests, long maxBufferedBytes) {
+        this.client = client;
+        this.actionLine = ("{\"index\":{\"_index\":" + JSONUtil.toJSONString(indexName) + ",\"_type\":\"_doc\"}}\n")
+                .getBytes(StandardCharsets.UTF_8);
+        this.bulkActions = bulkActions;
+        this.bulkSizeBytes = bulkSizeBytes;
+        this.maxBufferedBytes = Math.max(maxBufferedBytes, bulkSizeBytes);
+        this.inFlightRequests = new Semaphore(maxInFlightRequests);
+        this.freeBuffers = new ArrayBlockingQueue<>(maxInFlightRequests);
+        for (int i = 0; i < maxInFlightRequests; i++) {
+            freeBuffers.add(new BulkBuffer());
+        }
+        this.current = new BulkBuffer();
+        this.flushScheduler = Executors.newSingleThreadScheduledExecutor(
+                ThreadFactoryBuilder.builder().daemon(true).prefix("es-bulk-flusher").build());
+        flushScheduler.scheduleWithFixedDelay(this::flush, flushIntervalMillis, flushIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Add a document, which is sent in a bulk request later.
+     *
+     * @param document document
+     */
+    public synchronized void add(Object document) {
+        if (closed) {
+            droppedDocumentCount.incrementAndGet();
+            return;
+        }
+        int mark = current.size();
+        try {
+            current.write(actionLine);
+            JSONUtil.writeJSON(document, current);
+            current.write('\n');
+            current.actions++;
+        } catch (Exception ex) {
+            current.truncate(mark);
+            droppedDocumentCount.incrementAndGet();
+            log.error("Serialize thread-pool state error.", ex);
+            return;
+        }
+        if (current.actions >= bulkActions || current.size() >= bulkSizeBytes) {
+            send();
+        }
+    }
+
+    /**
+     * Send the buffered documents.
+     */
+    public synchronized void flush() {
+        if (current.actions > 0) {
+            send();
+        }
+    }
+
+    /**
+     * Get the count of dropped documents.
+     *
+     * @return count of dropped documents
+     */
+    public long getDroppedDocumentCount() {
+        return droppedDocumentCount.get();
+    }
+
+    /**
+     * Flush the buffered documents and stop the flusher, the client is not closed.
+     */
+    @Override
+    public void close() {
+        flushScheduler.shutdown();
+        synchronized (this) {
+            closed = true;
+            flush();
+        }
+    }
+
+    private void send() {
+        if (!inFlightRequests.tryAcquire()) {
+            if (current.size() >= maxBufferedBytes) {
+                droppedDocumentCount.addAndGet(current.actions);
+                log.warn("Too many bulk requests in flight, drop {} thread-pool states.", current.actions);
+                current.reset();
+            }
+            return;
+        }
+        BulkBuffer buffer = current;
+        current = freeBuffers.poll();
+        Request request = new Request("POST", BULK_ENDPOINT);
+        request.addParameter("filter_path", RESPONSE_FILTER_PATH);
+        request.setEntity(new NByteArrayEntity(buffer.array(), 0, buffer.size(), NDJSON));
+        try {
+            client.performRequestAsync(request, new ResponseListener() {
+
+                @Override
+                public void onSuccess(Response response) {
+                    try {
+                        String result = EntityUtils.toString(response.getEntity());
+                        if (result != null && result.contains(RESPONSE_ERRORS)) {
+                            log.warn("Bulk write thread-pool states to es partially failed. {}", result);
+                        }
+                    } catch (Exception ex) {
+                        log.warn("Read es bulk response error.", ex);
+                    } finally {
+                        release(buffer);
+                    }
+                }
+
+                @Override
+                public void onFailure(Exception ex) {
+                    log.error("Bulk write {} thread-pool states to es error.", buffer.actions, ex);
+                    release(buffer);
+                }
+            });
+        } catch (Exception ex) {
+            log.error("Bulk write {} thread-pool states to es error.", buffer.actions, ex);
+            release(buffer);
+        }
+    }
+
+    private void release(BulkBuffer buffer) {
+        buffer.reset();
+        freeBuffers.offer(buffer);
+        inFlightRequests.release();
+    }
+
+    /**
+     * Reusable buffer of a bulk request.
+     */
+    private static final class BulkBuffer extends ByteArrayOutputStream {
+
+        /**
+         * Count of documents
+         */
+        private int actions;
+
+        BulkBuffer() {
+            super(8192);
+        }
+
+        byte[] array() {
+            return buf;
+        }
+
+        void truncate(int size) {
+            count = size;
+        }
+
+        @Override
+        public synchronized void reset() {
+            super.reset();
+            actions = 0;
+        }
+    }
+}
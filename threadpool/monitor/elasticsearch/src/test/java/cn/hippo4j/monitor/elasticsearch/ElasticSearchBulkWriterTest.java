@@ -0,0 +1,153 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.hippo4j.monitor.elasticsearch;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.apache.http.HttpHost;
+import org.elasticsearch.client.RestClient;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * test for {@link ElasticSearchBulkWriter}
+ */
+public class ElasticSearchBulkWriterTest {
+
+    private static final String INDEX_NAME = "thread-pool-state";
+
+    private final List<List<String>> bulkRequests = new CopyOnWriteArrayList<>();
+
+    private volatile CountDownLatch responseLatch = new CountDownLatch(0);
+
+    private HttpServer server;
+
+    private RestClient client;
+
+    @Before
+    public void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/_bulk", this::handleBulk);
+        server.start();
+        client = RestClient.builder(new HttpHost("127.0.0.1", server.getAddress().getPort(), "http")).build();
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        responseLatch.countDown();
+        client.close();
+        server.stop(0);
+    }
+
+    @Test
+    public void testBatchBySize() throws InterruptedException {
+        ElasticSearchBulkWriter writer = new ElasticSearchBulkWriter(client, INDEX_NAME, 10, Long.MAX_VALUE, 60000L, 4, Long.MAX_VALUE);
+        for (int i = 0; i < 25; i++) {
+            writer.add(new Document("tp-" + i));
+        }
+        awaitBulkRequests(2);
+        writer.flush();
+        awaitBulkRequests(3);
+        Assert.assertEquals(10, bulkRequests.get(0).size() / 2);
+        Assert.assertEquals(10, bulkRequests.get(1).size() / 2);
+        Assert.assertEquals(5, bulkRequests.get(2).size() / 2);
+        // the first two requests are in flight at the same time, and may arrive in any order
+        List<String> lines = bulkRequests.get(0).contains("{\"tpId\":\"tp-0\"}") ? bulkRequests.get(0) : bulkRequests.get(1);
+        Assert.assertEquals("{\"index\":{\"_index\":\"thread-pool-state\",\"_type\":\"_doc\"}}", lines.get(0));
+        Assert.assertEquals("{\"tpId\":\"tp-0\"}", lines.get(1));
+        Assert.assertEquals(0L, writer.getDroppedDocumentCount());
+        writer.close();
+    }
+
+    @Test
+    public void testBatchByTime() throws InterruptedException {
+        ElasticSearchBulkWriter writer = new ElasticSearchBulkWriter(client, INDEX_NAME, 1000, Long.MAX_VALUE, 100L, 1, Long.MAX_VALUE);
+        for (int i = 0; i < 3; i++) {
+            writer.add(new Document("tp-" + i));
+        }
+        awaitBulkRequests(1);
+        Assert.assertEquals(3, bulkRequests.get(0).size() / 2);
+        writer.close();
+    }
+
+    @Test
+    public void testDropWhenRequestsInFlight() throws InterruptedException {
+        responseLatch = new CountDownLatch(1);
+        ElasticSearchBulkWriter writer = new ElasticSearchBulkWriter(client, INDEX_NAME, 1, 1L, 60000L, 1, 1L);
+        writer.add(new Document("tp-0"));
+        awaitBulkRequests(1);
+        writer.add(new Document("tp-1"));
+        writer.add(new Document("tp-2"));
+        Assert.assertEquals(2L, writer.getDroppedDocumentCount());
+        responseLatch.countDown();
+        writer.close();
+    }
+
+    private void awaitBulkRequests(int count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(5);
+        while (bulkRequests.size() < count && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10L);
+        }
+        Assert.assertEquals(count, bulkRequests.size());
+    }
+
+    private void handleBulk(HttpExchange exchange) throws IOException {
+        List<String> lines = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(exchange.getRequestBody(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lines.add(line);
+            }
+        }
+        bulkRequests.add(lines);
+        try {
+            responseLatch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        byte[] response = "{\"took\":1,\"errors\":false}".getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, response.length);
+        try (OutputStream outputStream = exchange.getResponseBody()) {
+            outputStream.write(response);
+        }
+    }
+
+    @Getter
+    @AllArgsConstructor
+    private static class Document {
+
+        private String tpId;
+    }
+}
@@ -0,0 +1,255 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.hippo4j.monitor.micrometer;
+
+import cn.hippo4j.common.executor.ThreadPoolExecutorHolder;
+import cn.hippo4j.common.executor.ThreadPoolExecutorRegistry;
+import cn.hippo4j.common.executor.ThreadPoolExecutorRegistryListener;
+import cn.hippo4j.common.executor.ThreadPoolTaskMetricsRegistry;
+import cn.hippo4j.common.support.LatencyHistogram;
+import cn.hippo4j.common.support.PoolMetricsSupport;
+import cn.hippo4j.common.support.ThreadPoolTaskMetrics;
+import cn.hippo4j.common.toolkit.CalculateUtil;
+import cn.hippo4j.core.executor.plugin.ThreadPoolPlugin;
+import cn.hippo4j.core.executor.plugin.impl.AbstractTaskQueueTimerPlugin;
+import cn.hippo4j.core.executor.plugin.impl.AbstractTaskTimerPlugin;
+import cn.hippo4j.core.executor.plugin.manager.ThreadPoolPluginSupport;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * <p>Bind the meters of dynamic thread-pools to a {@link MeterRegistry} once when a thread-pool is registered
+ * in {@link ThreadPoolExecutorRegistry}, and remove them when the thread-pool is removed. <br />
+ * Gauges and function counters read live values from the executor when they are scraped,
+ * so nothing is collected between scrapes.
+ * The task execution time and queue time are recorded into {@link Timer}s by plugins registered on the executor.
+ * For the executors observed by the agent, they are published from the sampled histograms of {@link ThreadPoolTaskMetrics}.
+ */
+@RequiredArgsConstructor
+public class DynamicThreadPoolMeterBinder implements ThreadPoolExecutorRegistryListener {
+
+    private static final String METRIC_NAME_PREFIX = "dynamic.thread-pool.";
+
+    private static final String DYNAMIC_THREAD_POOL_ID_TAG = "dynamic.thread-pool.id";
+
+    private static final String APPLICATION_NAME_TAG = "application.name";
+
+    private static final double[] PERCENTILES = {0.5, 0.99, 0.999};
+
+    private final MeterRegistry registry;
+
+    private final String applicationName;
+
+    /**
+     * key: thread-pool id, val: thread-pool whose meters are registered
+     */
+    private final Map<String, BoundThreadPool> boundThreadPools = new ConcurrentHashMap<>();
+
+    @Override
+    public synchronized void onRegister(ThreadPoolExecutorHolder executorHolder) {
+        ThreadPoolExecutor executor = executorHolder.getExecutor();
+        if (executor == null) {
+            return;
+        }
+        String threadPoolId = executorHolder.getThreadPoolId();
+        BoundThreadPool boundThreadPool = boundThreadPools.get(threadPoolId);
+        if (boundThreadPool != null) {
+            if (boundThreadPool.executor == executor) {
+                return;
+            }
+            unbind(boundThreadPool);
+        }
+        boundThreadPools.put(threadPoolId, bind(threadPoolId, executor));
+    }
+
+    @Override
+    public synchronized void onRemove(ThreadPoolExecutorHolder executorHolder) {
+        BoundThreadPool boundThreadPool = boundThreadPools.get(executorHolder.getThreadPoolId());
+        if (boundThreadPool != null && boundThreadPool.executor == executorHolder.getExecutor()) {
+            boundThreadPools.remove(executorHolder.getThreadPoolId());
+            unbind(boundThreadPool);
+        }
+    }
+
+    private BoundThreadPool bind(String threadPoolId, ThreadPoolExecutor executor) {
+        Tags tags = Tags.of(DYNAMIC_THREAD_POOL_ID_TAG, threadPoolId, APPLICATION_NAME_TAG, applicationName);
+        BoundThreadPool boundThreadPool = new BoundThreadPool(executor);
+        List<Meter> meters = boundThreadPool.meters;
+        meters.add(gauge("current.load", tags, executor, each -> CalculateUtil.divide(each.getActiveCount(), each.getMaximumPoolSize())));
+        meters.add(gauge("peak.load", tags, executor, each -> CalculateUtil.divide(each.getLargestPoolSize(), each.getMaximumPoolSize())));
+        meters.add(gauge("core.size", tags, executor, ThreadPoolExecutor::getCorePoolSize));
+        meters.add(gauge("maximum.size", tags, executor, ThreadPoolExecutor::getMaximumPoolSize));
+        meters.add(gauge("current.size", tags, executor, ThreadPoolExecutor::getPoolSize));
+        meters.add(gauge("largest.size", tags, executor, ThreadPoolExecutor::getLargestPoolSize));
+        meters.add(gauge("active.size", tags, executor, ThreadPoolExecutor::getActiveCount));
+        meters.add(gauge("queue.size", tags, executor, each -> each.getQueue().size()));
+        meters.add(gauge("queue.capacity", tags, executor, each -> each.getQueue().size() + each.getQueue().remainingCapacity()));
+        meters.add(gauge("queue.remaining.capacity", tags, executor, each -> each.getQueue().remainingCapacity()));
+        meters.add(FunctionCounter.builder(METRIC_NAME_PREFIX + "completed.task.count", executor, ThreadPoolExecutor::getCompletedTaskCount)
+                .tags(tags)
+                .register(registry));
+        if (executor instanceof PoolMetricsSupport) {
+            meters.add(FunctionCounter.builder(METRIC_NAME_PREFIX + "reject.count", (PoolMetricsSupport) executor,
+                    each -> Math.max(0L, each.getRejectedTaskCount()))
+                    .tags(tags)
+                    .register(registry));
+        }
+        ThreadPoolTaskMetrics taskMetrics = ThreadPoolTaskMetricsRegistry.getMetrics(executor);
+        if (taskMetrics != null) {
+            bindTaskMetrics(meters, tags, taskMetrics);
+        }
+        if (executor instanceof ThreadPoolPluginSupport) {
+            Timer taskTimer = timer("task.time", tags);
+            Timer queueTimer = timer("queue.time", tags);
+            meters.add(taskTimer);
+            meters.add(queueTimer);
+            registerPlugin(boundThreadPool, new TaskTimeMeterPlugin(taskTimer));
+            registerPlugin(boundThreadPool, new TaskQueueTimeMeterPlugin(queueTimer));
+        }
+        return boundThreadPool;
+    }
+
+    /**
+     * Bind the task metrics recorded by the agent, the percentiles are published like the percentiles of {@link Timer}.
+     * The gauges read the snapshot published by the monitor tick, so that scraping never resets the histograms while the monitor runs.
+     */
+    private void bindTaskMetrics(List<Meter> meters, Tags tags, ThreadPoolTaskMetrics taskMetrics) {
+        meters.add(FunctionCounter.builder(METRIC_NAME_PREFIX + "reject.count", taskMetrics, ThreadPoolTaskMetrics::getRejectedTaskCount)
+                .tags(tags)
+                .register(registry));
+        meters.add(FunctionCounter.builder(METRIC_NAME_PREFIX + "failed.task.count", taskMetrics, ThreadPoolTaskMetrics::getFailedTaskCount)
+                .tags(tags)
+                .register(registry));
+        for (double each : PERCENTILES) {
+            meters.add(percentileGauge("task.time.percentile", tags, each, taskMetrics, ThreadPoolTaskMetrics::getTaskTimeHistogram));
+            meters.add(percentileGauge("queue.time.percentile", tags, each, taskMetrics, ThreadPoolTaskMetrics::getQueueTimeHistogram));
+        }
+    }
+
+    private Gauge percentileGauge(String name, Tags tags, double percentile, ThreadPoolTaskMetrics taskMetrics,
+                                  Function<ThreadPoolTaskMetrics, Optional<LatencyHistogram.Snapshot>> histogram) {
+        return Gauge.builder(METRIC_NAME_PREFIX + name, taskMetrics, each -> histogram.apply(each)
+                .map(snapshot -> (double) snapshot.getValueAtPercentile(percentile * 100D) / TimeUnit.SECONDS.toNanos(1L))
+                .orElse(0D))
+                .tags(tags)
+                .tag("phi", String.valueOf(percentile))
+                .baseUnit("seconds")
+                .register(registry);
+    }
+
+    private void unbind(BoundThreadPool boundThreadPool) {
+        boundThreadPool.meters.forEach(registry::remove);
+        if (boundThreadPool.executor instanceof ThreadPoolPluginSupport) {
+            ThreadPoolPluginSupport pluginSupport = (ThreadPoolPluginSupport) boundThreadPool.executor;
+            for (ThreadPoolPlugin each : boundThreadPool.plugins) {
+                pluginSupport.getPlugin(each.getId())
+                        .filter(plugin -> plugin == each)
+                        .ifPresent(plugin -> pluginSupport.unregister(plugin.getId()));
+            }
+        }
+    }
+
+    private void registerPlugin(BoundThreadPool boundThreadPool, ThreadPoolPlugin plugin) {
+        if (((ThreadPoolPluginSupport) boundThreadPool.executor).tryRegister(plugin)) {
+            boundThreadPool.plugins.add(plugin);
+        }
+    }
+
+    private Gauge gauge(String name, Tags tags, ThreadPoolExecutor executor, ToDoubleFunction<ThreadPoolExecutor> function) {
+        return Gauge.builder(METRIC_NAME_PREFIX + name, executor, function)
+                .tags(tags)
+                .register(registry);
+    }
+
+    private Timer timer(String name, Tags tags) {
+        return Timer.builder(METRIC_NAME_PREFIX + name)
+                .tags(tags)
+                .publishPercentiles(PERCENTILES)
+                .register(registry);
+    }
+
+    /**
+     * Thread-pool whose meters are registered.
+     */
+    @RequiredArgsConstructor
+    private static final class BoundThreadPool {
+
+        /**
+         * Executor
+         */
+        private final ThreadPoolExecutor executor;
+
+        /**
+         * Registered meters
+         */
+        private final List<Meter> meters = new ArrayList<>();
+
+        /**
+         * Plugins registered on the executor
+         */
+        private final List<ThreadPoolPlugin> plugins = new ArrayList<>(2);
+    }
+
+    /**
+     * Record the execution time of tasks into a {@link Timer}.
+     */
+    @RequiredArgsConstructor
+    private static final class TaskTimeMeterPlugin extends AbstractTaskTimerPlugin {
+
+        private final Timer timer;
+
+        @Override
+        protected long currentTime() {
+            return System.nanoTime();
+        }
+
+        @Override
+        protected void processTaskTime(long taskExecuteTime) {
+            timer.record(taskExecuteTime, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Record the time of tasks waiting in the queue into a {@link Timer}.
+     */
+    @RequiredArgsConstructor
+    private static final class TaskQueueTimeMeterPlugin extends AbstractTaskQueueTimerPlugin {
+
+        private final Timer timer;
+
+        @Override
+        protected void processQueueTime(long taskQueueTime) {
+            timer.record(taskQueueTime, TimeUnit.NANOSECONDS);
+        }
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.hippo4j.monitor.micrometer;
+
+import cn.hippo4j.common.executor.ThreadPoolExecutorRegistry;
+import cn.hippo4j.core.executor.DynamicThreadPoolExecutor;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * test for {@link DynamicThreadPoolMeterBinder}
+ */
+public class DynamicThreadPoolMeterBinderTest {
+
+    private static final String THREAD_POOL_ID = "meter-binder-test";
+
+    @Test
+    public void testBindAndUnbind() throws InterruptedException {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        DynamicThreadPoolMeterBinder binder = new DynamicThreadPoolMeterBinder(registry, "test-application");
+        DynamicThreadPoolExecutor executor = new DynamicThreadPoolExecutor(
+                1, 2, 1000L, TimeUnit.MILLISECONDS, 0L, true, 1000L,
+                new LinkedBlockingQueue<>(8), THREAD_POOL_ID, r -> new Thread(r, "meter-binder-test"), new ThreadPoolExecutor.AbortPolicy());
+        ThreadPoolExecutorRegistry.addListener(binder);
+        try {
+            // the meters are bound when the thread-pool is registered
+            Assert.assertNull(registry.find("dynamic.thread-pool.core.size").gauge());
+            ThreadPoolExecutorRegistry.putHolder(THREAD_POOL_ID, executor, null);
+            Gauge coreSize = registry.get("dynamic.thread-pool.core.size")
+                    .tag("dynamic.thread-pool.id", THREAD_POOL_ID)
+                    .tag("application.name", "test-application")
+                    .gauge();
+            Assert.assertEquals(1D, coreSize.value(), 0D);
+            // the gauges read the live state of the executor
+            executor.setMaximumPoolSize(4);
+            executor.setCorePoolSize(3);
+            Assert.assertEquals(3D, coreSize.value(), 0D);
+            Assert.assertEquals(4D, registry.get("dynamic.thread-pool.maximum.size").gauge().value(), 0D);
+            Assert.assertEquals(8D, registry.get("dynamic.thread-pool.queue.capacity").gauge().value(), 0D);
+
+            CountDownLatch block = new CountDownLatch(1);
+            CountDownLatch started = new CountDownLatch(3);
+            for (int i = 0; i < 4; i++) {
+                executor.execute(() -> {
+                    started.countDown();
+                    try {
+                        block.await();
+                    } catch (InterruptedException ignored) {
+                        Thread.currentThread().interrupt();
+                    }
+                });
+            }
+            Assert.assertTrue(started.await(5, TimeUnit.SECONDS));
+            Assert.assertEquals(3D, registry.get("dynamic.thread-pool.active.size").gauge().value(), 0D);
+            Assert.assertEquals(1D, registry.get("dynamic.thread-pool.queue.size").gauge().value(), 0D);
+            block.countDown();
+            executor.shutdown();
+            Assert.assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+
+            // the task time and queue time are recorded by the plugins
+            FunctionCounter completed = registry.get("dynamic.thread-pool.completed.task.count").functionCounter();
+            Assert.assertEquals(4D, completed.count(), 0D);
+            Timer taskTimer = registry.get("dynamic.thread-pool.task.time").timer();
+            Timer queueTimer = registry.get("dynamic.thread-pool.queue.time").timer();
+            Assert.assertEquals(4L, taskTimer.count());
+            Assert.assertEquals(4L, queueTimer.count());
+            Assert.assertTrue(taskTimer.totalTime(TimeUnit.NANOSECONDS) > 0D);
+
+            // the meters and plugins are removed when the thread-pool is destroyed
+            executor.destroy();
+            Assert.assertTrue(registry.find("dynamic.thread-pool.core.size").gauges().isEmpty());
+            Assert.assertTrue(registry.find("dynamic.thread-pool.task.time").timers().isEmpty());
+            Assert.assertTrue(registry.getMeters().isEmpty());
+        } finally {
+            ThreadPoolExecutorRegistry.removeListener(binder);
+            ThreadPoolExecutorRegistry.removeHolder(THREAD_POOL_ID, executor);
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testRebindReplacedExecutor() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        DynamicThreadPoolMeterBinder binder = new DynamicThreadPoolMeterBinder(registry, "test-application");
+        DynamicThreadPoolExecutor first = newExecutor(1);
+        DynamicThreadPoolExecutor second = newExecutor(2);
+        ThreadPoolExecutorRegistry.addListener(binder);
+        try {
+            ThreadPoolExecutorRegistry.putHolder(THREAD_POOL_ID, first, null);
+            ThreadPoolExecutorRegistry.putHolder(THREAD_POOL_ID, second, null);
+            Assert.assertEquals(1, registry.find("dynamic.thread-pool.core.size").gauges().size());
+            Assert.assertEquals(2D, registry.get("dynamic.thread-pool.core.size").gauge().value(), 0D);
+            // destroying the replaced executor keeps the meters of the current one
+            first.destroy();
+            Assert.assertEquals(2D, registry.get("dynamic.thread-pool.core.size").gauge().value(), 0D);
+            second.destroy();
+            Assert.assertTrue(registry.getMeters().isEmpty());
+        } finally {
+            ThreadPoolExecutorRegistry.removeListener(binder);
+            ThreadPoolExecutorRegistry.removeHolder(THREAD_POOL_ID, second);
+            first.shutdownNow();
+            second.shutdownNow();
+        }
+    }
+
+    private DynamicThreadPoolExecutor newExecutor(int corePoolSize) {
+        return new DynamicThreadPoolExecutor(
+                corePoolSize, 4, 1000L, TimeUnit.MILLISECONDS, 0L, false, 0L,
+                new LinkedBlockingQueue<>(8), THREAD_POOL_ID, r -> new Thread(r, "meter-binder-test"), new ThreadPoolExecutor.AbortPolicy());
+    }
+}
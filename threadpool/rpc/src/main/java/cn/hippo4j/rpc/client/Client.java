@@ -21,6 +21,7 @@ import cn.hippo4j.rpc.model.Request;
 import cn.hippo4j.rpc.model.Response;
 
 import java.io.Closeable;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * <h3>CLIENT</h3>
@@ -31,6 +32,7 @@ import java.io.Closeable;
  * <h3>METHOD</h3>
  * <ul>
  *     <li>{@link #connect(Request)}</li>
+ *     <li>{@link #connectAsync(Request)}</li>
  *     <li>{@link #close()}</li>
  * </ul>
  * You can usually use the client in this way:
@@ -56,4 +58,12 @@ public interface Client extends Closeable {
      */
     <R> R connect(Request request);
 
+    /**
+     * Send the request asynchronously, many requests can be in flight on the same client at the same time
+     *
+     * @param request Request information, Requested methods and parameters
+     * @return the future of response from server side
+     */
+    <R> CompletableFuture<R> connectAsync(Request request);
+
 }
@@ -27,6 +27,7 @@ import cn.hippo4j.rpc.handler.ClientTakeHandler;
 import cn.hippo4j.rpc.model.DefaultRequest;
 import cn.hippo4j.rpc.model.Request;
 import cn.hippo4j.rpc.support.AddressUtil;
+import cn.hippo4j.rpc.support.ResultHolder;
 import cn.hippo4j.rpc.server.ServerSupport;
 import io.netty.channel.ChannelHandler;
 import lombok.AccessLevel;
@@ -37,7 +38,7 @@ import java.lang.ref.WeakReference;
 import java.net.InetSocketAddress;
 import java.util.Map;
 import java.util.Optional;
-import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 
 /**
@@ -107,7 +108,7 @@ public final class ClientSupport {
     public static <R> R clientSend(String address, String handlerName, Object[] param) {
         InetSocketAddress socketAddress = AddressUtil.getInetAddress(address);
         Client client = getClient(socketAddress);
-        Request request = new DefaultRequest(UUID.randomUUID().toString(), handlerName, param);
+        Request request = new DefaultRequest(ResultHolder.nextRequestId(), handlerName, param);
         return client.connect(request);
     }
 
@@ -115,7 +116,7 @@ public final class ClientSupport {
         Object[] params = {param};
         InetSocketAddress socketAddress = AddressUtil.getInetAddress(address);
         Client client = getClient(socketAddress);
-        Request request = new DefaultRequest(UUID.randomUUID().toString(), handlerName, params);
+        Request request = new DefaultRequest(ResultHolder.nextRequestId(), handlerName, params);
         return client.connect(request);
     }
 
@@ -129,10 +130,25 @@ public final class ClientSupport {
     public static <R> R clientSend(String address, String handlerName) {
         InetSocketAddress socketAddress = AddressUtil.getInetAddress(address);
         Client client = getClient(socketAddress);
-        Request request = new DefaultRequest(UUID.randomUUID().toString(), handlerName);
+        Request request = new DefaultRequest(ResultHolder.nextRequestId(), handlerName);
         return client.connect(request);
     }
 
+    /**
+     * Find a suitable client and send a request to the server asynchronously
+     *
+     * @param address     address
+     * @param handlerName The handler that can handle this request
+     * @param param       parameter
+     * @return the future of result
+     */
+    public static <R> CompletableFuture<R> clientSendAsync(String address, String handlerName, Object... param) {
+        InetSocketAddress socketAddress = AddressUtil.getInetAddress(address);
+        Client client = getClient(socketAddress);
+        Request request = new DefaultRequest(ResultHolder.nextRequestId(), handlerName, param);
+        return client.connectAsync(request);
+    }
+
     /**
      * Close a client connected to a server address. The client may have been closed
      *
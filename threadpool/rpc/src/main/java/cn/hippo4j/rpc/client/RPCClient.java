@@ -21,6 +21,7 @@ import cn.hippo4j.rpc.connection.ClientConnection;
 import cn.hippo4j.rpc.model.Request;
 
 import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * The client, which provides a closing mechanism, maintains a persistent connection if not closed<br>
@@ -41,6 +42,11 @@ public class RPCClient implements Client {
         return clientConnection.connect(request);
     }
 
+    @Override
+    public <R> CompletableFuture<R> connectAsync(Request request) {
+        return clientConnection.connectAsync(request);
+    }
+
     /**
      * Close the client and release all connections.
      *
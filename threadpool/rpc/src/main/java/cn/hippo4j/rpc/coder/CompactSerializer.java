@@ -0,0 +1,487 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.hippo4j.rpc.coder;
+
+import cn.hippo4j.rpc.exception.CoderException;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+
+import java.lang.reflect.Array;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A compact binary {@link Serializer} without reflection and intermediate streams.<br>
+ * Each value starts with a one byte tag, the common JDK types are built in, and the other types
+ * must be registered explicitly with an integer id and a {@link TypeCodec}, the id is written as a varint.
+ * Only the built-in and registered types can be read, so that arbitrary classes are never instantiated
+ * from the network. The {@link RpcModelCodecs rpc model and hippo4j model classes} are registered by default.
+ * <ul>
+ *     <li>int and long are written as zigzag varints</li>
+ *     <li>String is written as the varint length of the UTF-8 bytes and the bytes</li>
+ *     <li>Object[], List and Map are written as the varint size and the elements,
+ *     the component type of an array is written before the size, so that e.g. String[] is read back as String[],
+ *     the component type must be Object, a built-in type, a registered type or an array of them</li>
+ * </ul>
+ * The client and the server must register the same types with the same ids.
+ *
+ * @since 2.0.0
+ */
+public class CompactSerializer implements Serializer {
+
+    static final byte NULL = 0;
+    static final byte TRUE = 1;
+    static final byte FALSE = 2;
+    static final byte BYTE = 3;
+    static final byte SHORT = 4;
+    static final byte INT = 5;
+    static final byte LONG = 6;
+    static final byte FLOAT = 7;
+    static final byte DOUBLE = 8;
+    static final byte CHAR = 9;
+    static final byte STRING = 10;
+    static final byte BYTES = 11;
+    static final byte ARRAY = 12;
+    static final byte LIST = 13;
+    static final byte MAP = 14;
+    static final byte REGISTERED = 15;
+
+    /**
+     * The max dimensions of an array supported by the JVM
+     */
+    static final int MAX_ARRAY_DIMENSIONS = 255;
+
+    /**
+     * The tags of the built-in component types of array
+     */
+    private static final Map<Class<?>, Byte> COMPONENT_TAGS = new HashMap<>();
+
+    /**
+     * The built-in component types of array, indexed by the tag
+     */
+    private static final Class<?>[] COMPONENT_TYPES = new Class<?>[REGISTERED];
+
+    static {
+        COMPONENT_TYPES[NULL] = Object.class;
+        COMPONENT_TYPES[TRUE] = Boolean.class;
+        COMPONENT_TYPES[BYTE] = Byte.class;
+        COMPONENT_TYPES[SHORT] = Short.class;
+        COMPONENT_TYPES[INT] = Integer.class;
+        COMPONENT_TYPES[LONG] = Long.class;
+        COMPONENT_TYPES[FLOAT] = Float.class;
+        COMPONENT_TYPES[DOUBLE] = Double.class;
+        COMPONENT_TYPES[CHAR] = Character.class;
+        COMPONENT_TYPES[STRING] = String.class;
+        COMPONENT_TYPES[BYTES] = byte[].class;
+        COMPONENT_TYPES[LIST] = List.class;
+        COMPONENT_TYPES[MAP] = Map.class;
+        for (byte tag = 0; tag < COMPONENT_TYPES.length; tag++) {
+            if (COMPONENT_TYPES[tag] != null) {
+                COMPONENT_TAGS.put(COMPONENT_TYPES[tag], tag);
+            }
+        }
+    }
+
+    private final Map<Class<?>, Registration<?>> typeRegistrations = new ConcurrentHashMap<>();
+
+    private final Map<Integer, Registration<?>> idRegistrations = new ConcurrentHashMap<>();
+
+    /**
+     * Create a serializer with the {@link RpcModelCodecs default types} registered
+     */
+    public CompactSerializer() {
+        RpcModelCodecs.registerTo(this);
+    }
+
+    /**
+     * Register a type, the id and the type can only be registered once
+     *
+     * @param id    the id of the type, must not be negative
+     * @param type  the type, the subclasses must be registered separately
+     * @param codec the codec
+     * @return this serializer
+     */
+    public synchronized <T> CompactSerializer register(int id, Class<T> type, TypeCodec<T> codec) {
+        if (id < 0) {
+            throw new CoderException("The type id must not be negative: " + id);
+        }
+        if (idRegistrations.containsKey(id) || typeRegistrations.containsKey(type)) {
+            throw new CoderException("The type id " + id + " or the type " + type.getName() + " has been registered");
+        }
+        Registration<T> registration = new Registration<>(id, type, codec);
+        typeRegistrations.put(type, registration);
+        idRegistrations.put(id, registration);
+        return this;
+    }
+
+    @Override
+    public void serialize(Object obj, ByteBuf out) {
+        writeObject(obj, out);
+    }
+
+    @Override
+    public Object deserialize(ByteBuf in) {
+        Object obj = readObject(in);
+        if (in.isReadable()) {
+            throw new CoderException("There are " + in.readableBytes() + " unread bytes in the frame");
+        }
+        return obj;
+    }
+
+    /**
+     * Write an object with its tag
+     *
+     * @param obj the object, may be null
+     * @param out the buffer
+     */
+    @SuppressWarnings("unchecked")
+    public void writeObject(Object obj, ByteBuf out) {
+        if (obj == null) {
+            out.writeByte(NULL);
+            return;
+        }
+        Class<?> type = obj.getClass();
+        if (type == String.class) {
+            out.writeByte(STRING);
+            writeString((String) obj, out);
+        } else if (type == Integer.class) {
+            out.writeByte(INT);
+            writeVarInt(out, zigZag((Integer) obj));
+        } else if (type == Long.class) {
+            out.writeByte(LONG);
+            writeVarLong(out, zigZag((Long) obj));
+        } else if (type == Boolean.class) {
+            out.writeByte((Boolean) obj ? TRUE : FALSE);
+        } else if (type == Byte.class) {
+            out.writeByte(BYTE).writeByte((Byte) obj);
+        } else if (type == Short.class) {
+            out.writeByte(SHORT).writeShort((Short) obj);
+        } else if (type == Float.class) {
+            out.writeByte(FLOAT).writeFloat((Float) obj);
+        } else if (type == Double.class) {
+            out.writeByte(DOUBLE).writeDouble((Double) obj);
+        } else if (type == Character.class) {
+            out.writeByte(CHAR).writeChar((Character) obj);
+        } else if (type == byte[].class) {
+            byte[] bytes = (byte[]) obj;
+            out.writeByte(BYTES);
+            writeVarInt(out, bytes.length);
+            out.writeBytes(bytes);
+        } else if (obj instanceof Object[]) {
+            Object[] array = (Object[]) obj;
+            out.writeByte(ARRAY);
+            writeComponentType(type.getComponentType(), out);
+            writeVarInt(out, array.length);
+            for (Object each : array) {
+                writeObject(each, out);
+            }
+        } else {
+            Registration<Object> registration = (Registration<Object>) typeRegistrations.get(type);
+            if (registration != null) {
+                out.writeByte(REGISTERED);
+                writeVarInt(out, registration.id);
+                registration.codec.encode(this, obj, out);
+            } else if (obj instanceof List) {
+                List<?> list = (List<?>) obj;
+                out.writeByte(LIST);
+                writeVarInt(out, list.size());
+                for (Object each : list) {
+                    writeObject(each, out);
+                }
+            } else if (obj instanceof Map) {
+                Map<?, ?> map = (Map<?, ?>) obj;
+                out.writeByte(MAP);
+                writeVarInt(out, map.size());
+                for (Map.Entry<?, ?> each : map.entrySet()) {
+                    writeObject(each.getKey(), out);
+                    writeObject(each.getValue(), out);
+                }
+            } else {
+                throw new CoderException("The type " + type.getName() + " is not registered");
+            }
+        }
+    }
+
+    /**
+     * Read an object written by {@link #writeObject}
+     *
+     * @param in the buffer
+     * @return the object, may be null
+     */
+    public Object readObject(ByteBuf in) {
+        byte tag = in.readByte();
+        switch (tag) {
+            case NULL:
+                return null;
+            case TRUE:
+                return Boolean.TRUE;
+            case FALSE:
+                return Boolean.FALSE;
+            case BYTE:
+                return in.readByte();
+            case SHORT:
+                return in.readShort();
+            case INT:
+                return unZigZag(readVarInt(in));
+            case LONG:
+                return unZigZag(readVarLong(in));
+            case FLOAT:
+                return in.readFloat();
+            case DOUBLE:
+                return in.readDouble();
+            case CHAR:
+                return in.readChar();
+            case STRING:
+                return readString(in);
+            case BYTES:
+                byte[] bytes = new byte[readLength(in)];
+                in.readBytes(bytes);
+                return bytes;
+            case ARRAY:
+                Class<?> componentType = readComponentType(in);
+                Object[] array = (Object[]) Array.newInstance(componentType, readLength(in));
+                try {
+                    for (int i = 0; i < array.length; i++) {
+                        array[i] = readObject(in);
+                    }
+                } catch (ArrayStoreException ex) {
+                    throw new CoderException("The element is not an instance of the component type " + componentType.getName(), ex);
+                }
+                return array;
+            case LIST:
+                int listSize = readLength(in);
+                List<Object> list = new ArrayList<>(listSize);
+                for (int i = 0; i < listSize; i++) {
+                    list.add(readObject(in));
+                }
+                return list;
+            case MAP:
+                int mapSize = readLength(in);
+                Map<Object, Object> map = new LinkedHashMap<>();
+                for (int i = 0; i < mapSize; i++) {
+                    map.put(readObject(in), readObject(in));
+                }
+                return map;
+            case REGISTERED:
+                int id = readVarInt(in);
+                Registration<?> registration = idRegistrations.get(id);
+                if (registration == null) {
+                    throw new CoderException("The type id " + id + " is not registered");
+                }
+                return registration.codec.decode(this, in);
+            default:
+                throw new CoderException("Unknown tag " + tag);
+        }
+    }
+
+    /**
+     * Write the component type of an array, which is the dimensions of the nested arrays
+     * followed by the tag of the element type, the registered type is written with its id
+     *
+     * @param componentType the component type
+     * @param out           the buffer
+     */
+    private void writeComponentType(Class<?> componentType, ByteBuf out) {
+        Class<?> elementType = componentType;
+        while (elementType.isArray() && !COMPONENT_TAGS.containsKey(elementType)) {
+            out.writeByte(ARRAY);
+            elementType = elementType.getComponentType();
+        }
+        Byte tag = COMPONENT_TAGS.get(elementType);
+        if (tag != null) {
+            out.writeByte(tag);
+            return;
+        }
+        Registration<?> registration = typeRegistrations.get(elementType);
+        if (registration == null) {
+            throw new CoderException("The component type " + componentType.getName() + " is not registered");
+        }
+        out.writeByte(REGISTERED);
+        writeVarInt(out, registration.id);
+    }
+
+    /**
+     * Read the component type written by {@link #writeComponentType}
+     *
+     * @param in the buffer
+     * @return the component type
+     */
+    private Class<?> readComponentType(ByteBuf in) {
+        int dimensions = 0;
+        byte tag;
+        while ((tag = in.readByte()) == ARRAY) {
+            if (++dimensions >= MAX_ARRAY_DIMENSIONS) {
+                throw new CoderException("The dimensions of array exceed " + MAX_ARRAY_DIMENSIONS);
+            }
+        }
+        Class<?> componentType;
+        if (tag == REGISTERED) {
+            int id = readVarInt(in);
+            Registration<?> registration = idRegistrations.get(id);
+            if (registration == null) {
+                throw new CoderException("The type id " + id + " is not registered");
+            }
+            componentType = registration.type;
+        } else if (tag >= 0 && tag < COMPONENT_TYPES.length && COMPONENT_TYPES[tag] != null) {
+            componentType = COMPONENT_TYPES[tag];
+        } else {
+            throw new CoderException("Unknown component tag " + tag);
+        }
+        for (int i = 0; i < dimensions; i++) {
+            componentType = Array.newInstance(componentType, 0).getClass();
+        }
+        return componentType;
+    }
+
+    /**
+     * Write a non-null string
+     *
+     * @param value the string
+     * @param out   the buffer
+     */
+    public static void writeString(String value, ByteBuf out) {
+        int length = ByteBufUtil.utf8Bytes(value);
+        writeVarInt(out, length);
+        ByteBufUtil.reserveAndWriteUtf8(out, value, length);
+    }
+
+    /**
+     * Read a string written by {@link #writeString}
+     *
+     * @param in the buffer
+     * @return the string
+     */
+    public static String readString(ByteBuf in) {
+        int length = readLength(in);
+        String value = in.toString(in.readerIndex(), length, StandardCharsets.UTF_8);
+        in.skipBytes(length);
+        return value;
+    }
+
+    /**
+     * Write an unsigned varint
+     *
+     * @param out   the buffer
+     * @param value the value
+     */
+    public static void writeVarInt(ByteBuf out, int value) {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    /**
+     * Read an unsigned varint
+     *
+     * @param in the buffer
+     * @return the value
+     */
+    public static int readVarInt(ByteBuf in) {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            byte b = in.readByte();
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new CoderException("Malformed varint");
+    }
+
+    /**
+     * Write an unsigned varlong
+     *
+     * @param out   the buffer
+     * @param value the value
+     */
+    public static void writeVarLong(ByteBuf out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    /**
+     * Read an unsigned varlong
+     *
+     * @param in the buffer
+     * @return the value
+     */
+    public static long readVarLong(ByteBuf in) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = in.readByte();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new CoderException("Malformed varlong");
+    }
+
+    private static int readLength(ByteBuf in) {
+        int length = readVarInt(in);
+        // each element takes at least one byte, a larger length must be malformed
+        if (length < 0 || length > in.readableBytes()) {
+            throw new CoderException("The length " + length + " exceeds the readable bytes " + in.readableBytes());
+        }
+        return length;
+    }
+
+    private static int zigZag(int value) {
+        return (value << 1) ^ (value >> 31);
+    }
+
+    private static long zigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static int unZigZag(int value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static long unZigZag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    /**
+     * The registration of a type
+     */
+    private static final class Registration<T> {
+
+        final int id;
+
+        final Class<T> type;
+
+        final TypeCodec<T> codec;
+
+        Registration(int id, Class<T> type, TypeCodec<T> codec) {
+            this.id = id;
+            this.type = type;
+            this.codec = codec;
+        }
+    }
+}
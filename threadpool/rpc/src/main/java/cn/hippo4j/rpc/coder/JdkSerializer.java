@@ -0,0 +1,54 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.hippo4j.rpc.coder;
+
+import cn.hippo4j.rpc.exception.CoderException;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufInputStream;
+import io.netty.buffer.ByteBufOutputStream;
+
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+
+/**
+ * The {@link Serializer} based on JDK serialization, which supports any {@link java.io.Serializable} object.<br>
+ * <b>Any class on the classpath can be instantiated by the peer, use it only between trusted clients and servers,
+ * otherwise register the types into {@link CompactSerializer}</b>
+ *
+ * @since 2.0.0
+ */
+public class JdkSerializer implements Serializer {
+
+    @Override
+    public void serialize(Object obj, ByteBuf out) {
+        try (ObjectOutputStream outputStream = new ObjectOutputStream(new ByteBufOutputStream(out))) {
+            outputStream.writeObject(obj);
+        } catch (Exception e) {
+            throw new CoderException("The encoding is abnormal, which may be caused by the transfer object being unable to be serialized", e);
+        }
+    }
+
+    @Override
+    public Object deserialize(ByteBuf in) {
+        try (ObjectInputStream inputStream = new ObjectInputStream(new ByteBufInputStream(in))) {
+            return inputStream.readObject();
+        } catch (Exception e) {
+            throw new CoderException("The decoding is abnormal", e);
+        }
+    }
+}
@@ -0,0 +1,220 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.hippo4j.rpc.coder;
+
+import cn.hippo4j.common.model.ThreadPoolParameterInfo;
+import cn.hippo4j.common.model.ThreadPoolRunStateInfo;
+import cn.hippo4j.rpc.exception.CoderException;
+import cn.hippo4j.rpc.model.DefaultRequest;
+import cn.hippo4j.rpc.model.DefaultResponse;
+import io.netty.buffer.ByteBuf;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+/**
+ * The codecs of the rpc model and the hippo4j model classes, which are registered into
+ * {@link CompactSerializer} by default. The fields are written in declaration order,
+ * so both sides must be upgraded together when a field is added.
+ *
+ * @since 2.0.0
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class RpcModelCodecs {
+
+    public static final int REQUEST_TYPE_ID = 1;
+    public static final int RESPONSE_TYPE_ID = 2;
+    public static final int THREAD_POOL_PARAMETER_INFO_TYPE_ID = 3;
+    public static final int THREAD_POOL_RUN_STATE_INFO_TYPE_ID = 4;
+
+    /**
+     * The first id that is not reserved by hippo4j, the custom types should be registered from this id
+     */
+    public static final int FIRST_CUSTOM_TYPE_ID = 64;
+
+    /**
+     * Register the codecs into the serializer
+     *
+     * @param serializer the serializer
+     */
+    static void registerTo(CompactSerializer serializer) {
+        serializer.register(REQUEST_TYPE_ID, DefaultRequest.class, new RequestCodec())
+                .register(RESPONSE_TYPE_ID, DefaultResponse.class, new ResponseCodec())
+                .register(THREAD_POOL_PARAMETER_INFO_TYPE_ID, ThreadPoolParameterInfo.class, new ThreadPoolParameterInfoCodec())
+                .register(THREAD_POOL_RUN_STATE_INFO_TYPE_ID, ThreadPoolRunStateInfo.class, new ThreadPoolRunStateInfoCodec());
+    }
+
+    private static <T> T read(CompactSerializer serializer, ByteBuf in, Class<T> type) {
+        Object value = serializer.readObject(in);
+        if (value != null && !type.isInstance(value)) {
+            throw new CoderException("Expect " + type.getName() + " but got " + value.getClass().getName());
+        }
+        return type.cast(value);
+    }
+
+    static final class RequestCodec implements TypeCodec<DefaultRequest> {
+
+        @Override
+        public void encode(CompactSerializer serializer, DefaultRequest value, ByteBuf out) {
+            serializer.writeObject(value.getRID(), out);
+            serializer.writeObject(value.getKey(), out);
+            serializer.writeObject(value.getParameters(), out);
+        }
+
+        @Override
+        public DefaultRequest decode(CompactSerializer serializer, ByteBuf in) {
+            String rid = read(serializer, in, String.class);
+            String key = read(serializer, in, String.class);
+            Object[] parameters = read(serializer, in, Object[].class);
+            return parameters == null ? new DefaultRequest(rid, key) : new DefaultRequest(rid, key, parameters);
+        }
+    }
+
+    static final class ResponseCodec implements TypeCodec<DefaultResponse> {
+
+        @Override
+        public void encode(CompactSerializer serializer, DefaultResponse value, ByteBuf out) {
+            serializer.writeObject(value.getRID(), out);
+            serializer.writeObject(value.getObj(), out);
+            serializer.writeObject(value.getErrMsg(), out);
+        }
+
+        @Override
+        public DefaultResponse decode(CompactSerializer serializer, ByteBuf in) {
+            String rid = read(serializer, in, String.class);
+            Object obj = serializer.readObject(in);
+            String errMsg = read(serializer, in, String.class);
+            return new DefaultResponse(rid, obj, errMsg);
+        }
+    }
+
+    static final class ThreadPoolParameterInfoCodec implements TypeCodec<ThreadPoolParameterInfo> {
+
+        @Override
+        public void encode(CompactSerializer serializer, ThreadPoolParameterInfo value, ByteBuf out) {
+            serializer.writeObject(value.getTenantId(), out);
+            serializer.writeObject(value.getItemId(), out);
+            serializer.writeObject(value.getTpId(), out);
+            serializer.writeObject(value.getContent(), out);
+            serializer.writeObject(value.getCoreSize(), out);
+            serializer.writeObject(value.getMaxSize(), out);
+            serializer.writeObject(value.getCorePoolSize(), out);
+            serializer.writeObject(value.getMaximumPoolSize(), out);
+            serializer.writeObject(value.getQueueType(), out);
+            serializer.writeObject(value.getCapacity(), out);
+            serializer.writeObject(value.getKeepAliveTime(), out);
+            serializer.writeObject(value.getExecuteTimeOut(), out);
+            serializer.writeObject(value.getRejectedType(), out);
+            serializer.writeObject(value.getIsAlarm(), out);
+            serializer.writeObject(value.getCapacityAlarm(), out);
+            serializer.writeObject(value.getLivenessAlarm(), out);
+            serializer.writeObject(value.getAllowCoreThreadTimeOut(), out);
+        }
+
+        @Override
+        public ThreadPoolParameterInfo decode(CompactSerializer serializer, ByteBuf in) {
+            ThreadPoolParameterInfo value = new ThreadPoolParameterInfo();
+            value.setTenantId(read(serializer, in, String.class));
+            value.setItemId(read(serializer, in, String.class));
+            value.setTpId(read(serializer, in, String.class));
+            value.setContent(read(serializer, in, String.class));
+            value.setCoreSize(read(serializer, in, Integer.class));
+            value.setMaxSize(read(serializer, in, Integer.class));
+            value.setCorePoolSize(read(serializer, in, Integer.class));
+            value.setMaximumPoolSize(read(serializer, in, Integer.class));
+            value.setQueueType(read(serializer, in, Integer.class));
+            value.setCapacity(read(serializer, in, Integer.class));
+            value.setKeepAliveTime(read(serializer, in, Long.class));
+            value.setExecuteTimeOut(read(serializer, in, Long.class));
+            value.setRejectedType(read(serializer, in, Integer.class));
+            value.setIsAlarm(read(serializer, in, Integer.class));
+            value.setCapacityAlarm(read(serializer, in, Integer.class));
+            value.setLivenessAlarm(read(serializer, in, Integer.class));
+            value.setAllowCoreThreadTimeOut(read(serializer, in, Integer.class));
+            return value;
+        }
+    }
+
+    static final class ThreadPoolRunStateInfoCodec implements TypeCodec<ThreadPoolRunStateInfo> {
+
+        @Override
+        public void encode(CompactSerializer serializer, ThreadPoolRunStateInfo value, ByteBuf out) {
+            serializer.writeObject(value.getCoreSize(), out);
+            serializer.writeObject(value.getMaximumSize(), out);
+            serializer.writeObject(value.getQueueType(), out);
+            serializer.writeObject(value.getQueueCapacity(), out);
+            serializer.writeObject(value.getRejectedName(), out);
+            serializer.writeObject(value.getKeepAliveTime(), out);
+            serializer.writeObject(value.getCurrentLoad(), out);
+            serializer.writeObject(value.getPeakLoad(), out);
+            serializer.writeObject(value.getTpId(), out);
+            serializer.writeObject(value.getActiveCount(), out);
+            serializer.writeObject(value.getPoolSize(), out);
+            serializer.writeObject(value.getActiveSize(), out);
+            serializer.writeObject(value.getLargestPoolSize(), out);
+            serializer.writeObject(value.getQueueSize(), out);
+            serializer.writeObject(value.getQueueRemainingCapacity(), out);
+            serializer.writeObject(value.getCompletedTaskCount(), out);
+            serializer.writeObject(value.getRejectCount(), out);
+            serializer.writeObject(value.getHost(), out);
+            serializer.writeObject(value.getMemoryProportion(), out);
+            serializer.writeObject(value.getFreeMemory(), out);
+            serializer.writeObject(value.getClientLastRefreshTime(), out);
+            serializer.writeObject(value.getTimestamp(), out);
+            serializer.writeObject(value.getTaskTimeP50(), out);
+            serializer.writeObject(value.getTaskTimeP99(), out);
+            serializer.writeObject(value.getTaskTimeP999(), out);
+            serializer.writeObject(value.getQueueTimeP50(), out);
+            serializer.writeObject(value.getQueueTimeP99(), out);
+            serializer.writeObject(value.getQueueTimeP999(), out);
+        }
+
+        @Override
+        public ThreadPoolRunStateInfo decode(CompactSerializer serializer, ByteBuf in) {
+            ThreadPoolRunStateInfo value = new ThreadPoolRunStateInfo();
+            value.setCoreSize(read(serializer, in, Integer.class));
+            value.setMaximumSize(read(serializer, in, Integer.class));
+            value.setQueueType(read(serializer, in, String.class));
+            value.setQueueCapacity(read(serializer, in, Integer.class));
+            value.setRejectedName(read(serializer, in, String.class));
+            value.setKeepAliveTime(read(serializer, in, Long.class));
+            value.setCurrentLoad(read(serializer, in, String.class));
+            value.setPeakLoad(read(serializer, in, String.class));
+            value.setTpId(read(serializer, in, String.class));
+            value.setActiveCount(read(serializer, in, Integer.class));
+            value.setPoolSize(read(serializer, in, Integer.class));
+            value.setActiveSize(read(serializer, in, Integer.class));
+            value.setLargestPoolSize(read(serializer, in, Integer.class));
+            value.setQueueSize(read(serializer, in, Integer.class));
+            value.setQueueRemainingCapacity(read(serializer, in, Integer.class));
+            value.setCompletedTaskCount(read(serializer, in, Long.class));
+            value.setRejectCount(read(serializer, in, Long.class));
+            value.setHost(read(serializer, in, String.class));
+            value.setMemoryProportion(read(serializer, in, String.class));
+            value.setFreeMemory(read(serializer, in, String.class));
+            value.setClientLastRefreshTime(read(serializer, in, String.class));
+            value.setTimestamp(read(serializer, in, Long.class));
+            value.setTaskTimeP50(read(serializer, in, Long.class));
+            value.setTaskTimeP99(read(serializer, in, Long.class));
+            value.setTaskTimeP999(read(serializer, in, Long.class));
+            value.setQueueTimeP50(read(serializer, in, Long.class));
+            value.setQueueTimeP99(read(serializer, in, Long.class));
+            value.setQueueTimeP999(read(serializer, in, Long.class));
+            return value;
+        }
+    }
+}
@@ -0,0 +1,48 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.hippo4j.rpc.coder;
+
+import io.netty.buffer.ByteBuf;
+
+/**
+ * The serialization of the messages transferred between the client and the server.<br>
+ * The implementation writes the message directly into the buffer of the channel,
+ * and reads it back from a complete frame, the framing is done by {@link SerializerEncoder} and {@link SerializerDecoder}.
+ *
+ * @see CompactSerializer
+ * @see JdkSerializer
+ * @since 2.0.0
+ */
+public interface Serializer {
+
+    /**
+     * Write the object into the buffer
+     *
+     * @param obj the object
+     * @param out the buffer
+     */
+    void serialize(Object obj, ByteBuf out);
+
+    /**
+     * Read an object from the frame
+     *
+     * @param in the frame
+     * @return the object
+     */
+    Object deserialize(ByteBuf in);
+}
@@ -0,0 +1,60 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.hippo4j.rpc.coder;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.LengthFieldBasedFrameDecoder;
+
+/**
+ * this is a decoder, which reads the frames written by {@link SerializerEncoder}
+ * and converts them into messages by the {@link Serializer}
+ *
+ * @since 2.0.0
+ */
+public class SerializerDecoder extends LengthFieldBasedFrameDecoder {
+
+    /**
+     * The default max length of a frame, 16MB
+     */
+    public static final int DEFAULT_MAX_FRAME_LENGTH = 16 * 1024 * 1024;
+
+    private final Serializer serializer;
+
+    public SerializerDecoder(Serializer serializer, int maxFrameLength) {
+        super(maxFrameLength, 0, SerializerEncoder.LENGTH_FIELD_LENGTH, 0, SerializerEncoder.LENGTH_FIELD_LENGTH);
+        this.serializer = serializer;
+    }
+
+    public SerializerDecoder(Serializer serializer) {
+        this(serializer, DEFAULT_MAX_FRAME_LENGTH);
+    }
+
+    @Override
+    protected Object decode(ChannelHandlerContext ctx, ByteBuf in) throws Exception {
+        ByteBuf frame = (ByteBuf) super.decode(ctx, in);
+        if (frame == null) {
+            return null;
+        }
+        try {
+            return serializer.deserialize(frame);
+        } finally {
+            frame.release();
+        }
+    }
+}
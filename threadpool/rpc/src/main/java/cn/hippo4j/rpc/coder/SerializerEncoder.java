@@ -0,0 +1,48 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.hippo4j.rpc.coder;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.MessageToByteEncoder;
+
+/**
+ * this is a encoder, which writes the message by the {@link Serializer} directly into the
+ * pooled buffer of the channel, the frame is prefixed by a 4 bytes length
+ *
+ * @see SerializerDecoder
+ * @since 2.0.0
+ */
+public class SerializerEncoder extends MessageToByteEncoder<Object> {
+
+    static final int LENGTH_FIELD_LENGTH = 4;
+
+    private final Serializer serializer;
+
+    public SerializerEncoder(Serializer serializer) {
+        this.serializer = serializer;
+    }
+
+    @Override
+    protected void encode(ChannelHandlerContext ctx, Object msg, ByteBuf out) {
+        int startIndex = out.writerIndex();
+        out.writeInt(0);
+        serializer.serialize(msg, out);
+        out.setInt(startIndex, out.writerIndex() - startIndex - LENGTH_FIELD_LENGTH);
+    }
+}
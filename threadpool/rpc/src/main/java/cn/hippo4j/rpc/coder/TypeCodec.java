@@ -0,0 +1,48 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.hippo4j.rpc.coder;
+
+import io.netty.buffer.ByteBuf;
+
+/**
+ * The codec of a type registered into {@link CompactSerializer},
+ * the nested objects can be written and read by the serializer.
+ *
+ * @param <T> the type
+ * @since 2.0.0
+ */
+public interface TypeCodec<T> {
+
+    /**
+     * Write the value into the buffer
+     *
+     * @param serializer the serializer, used to write the nested objects
+     * @param value      the value, never null
+     * @param out        the buffer
+     */
+    void encode(CompactSerializer serializer, T value, ByteBuf out);
+
+    /**
+     * Read a value from the buffer
+     *
+     * @param serializer the serializer, used to read the nested objects
+     * @param in         the buffer
+     * @return the value
+     */
+    T decode(CompactSerializer serializer, ByteBuf in);
+}
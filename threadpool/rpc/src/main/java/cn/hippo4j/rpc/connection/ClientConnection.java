@@ -17,9 +17,12 @@
 
 package cn.hippo4j.rpc.connection;
 
+import cn.hippo4j.rpc.exception.ConnectionException;
 import cn.hippo4j.rpc.model.Request;
 
 import java.io.Closeable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 /**
  * Applicable to client connections<br>
@@ -35,11 +38,26 @@ import java.io.Closeable;
 public interface ClientConnection extends Closeable {
 
     /**
-     * Establish a connection and process
+     * Establish a connection and process, wait until the response is received
      *
      * @param request Request information
      */
-    <R> R connect(Request request);
+    default <R> R connect(Request request) {
+        try {
+            return this.<R>connectAsync(request).join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            throw cause instanceof RuntimeException ? (RuntimeException) cause : new ConnectionException(cause);
+        }
+    }
+
+    /**
+     * Send the request without waiting for the response, the requests can be multiplexed on the same connection
+     *
+     * @param request Request information
+     * @return the future of result, which is completed exceptionally if the request fails or times out
+     */
+    <R> CompletableFuture<R> connectAsync(Request request);
 
     /**
      * Get timeout, ms
@@ -18,7 +18,6 @@
 package cn.hippo4j.rpc.connection;
 
 import cn.hippo4j.rpc.exception.ConnectionException;
-import cn.hippo4j.rpc.exception.TimeOutException;
 import cn.hippo4j.rpc.model.Request;
 import cn.hippo4j.rpc.model.Response;
 import cn.hippo4j.rpc.support.ResultHolder;
@@ -29,10 +28,14 @@ import io.netty.channel.pool.ChannelPoolHandler;
 import lombok.extern.slf4j.Slf4j;
 
 import java.net.InetSocketAddress;
-import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.CompletableFuture;
 
 /**
- * Client implemented using netty
+ * Client implemented using netty<br>
+ * All requests of the connection are multiplexed on a single channel acquired from the pool,
+ * which is kept until it becomes inactive or the connection is closed. The callers are not blocked
+ * while waiting for the response, the pending requests are held by {@link ResultHolder},
+ * and fail as soon as their channel becomes inactive.
  *
  * @since 2.0.0
  */
@@ -46,7 +49,10 @@ public class SimpleClientConnection implements ClientConnection {
     long timeout = 30000L;
     EventLoopGroup worker = new NioEventLoopGroup();
     SimpleConnectPool connectionPool;
-    static final String TIME_OUT_MSG = "Timeout waiting for server-side response";
+    /**
+     * The channel shared by all requests
+     */
+    volatile Channel channel;
 
     public SimpleClientConnection(InetSocketAddress address,
                                   ChannelPoolHandler handler) {
@@ -55,42 +61,56 @@ public class SimpleClientConnection implements ClientConnection {
     }
 
     @Override
-    public <R> R connect(Request request) {
-        Channel channel = connectionPool.acquire(timeout);
+    @SuppressWarnings("unchecked")
+    public <R> CompletableFuture<R> connectAsync(Request request) {
+        String requestId = request.getRID();
+        CompletableFuture<Response> future = ResultHolder.putFuture(requestId, timeout);
         try {
-            channel.writeAndFlush(request);
-            return wait(request.getRID());
-        } finally {
-            connectionPool.release(channel);
+            Channel ch = getChannel();
+            ResultHolder.bindChannel(requestId, ch);
+            ch.writeAndFlush(request).addListener(f -> {
+                if (!f.isSuccess()) {
+                    ResultHolder.completeExceptionally(requestId, new ConnectionException("Failed to send the request", f.cause()));
+                }
+            });
+        } catch (Exception e) {
+            ResultHolder.completeExceptionally(requestId, e);
         }
+        if (log.isDebugEnabled()) {
+            log.debug("Call successful, target address is {}:{}, request key is {}", address.getHostName(), address.getPort(), requestId);
+        }
+        return future.thenApply(response -> {
+            if (response.isErr()) {
+                throw new ConnectionException(response.getErrMsg());
+            }
+            if (log.isDebugEnabled()) {
+                log.debug("The response from {}:{} was received successfully with the response key {}.", address.getHostName(), address.getPort(), requestId);
+            }
+            return (R) response.getObj();
+        });
     }
 
     /**
-     * wait the Response
+     * Get the shared channel, acquire a new one from the pool if the channel is inactive
      *
-     * @param requestId RID
-     * @return Response
+     * @return the channel
      */
-    @SuppressWarnings("unchecked")
-    public <R> R wait(String requestId) {
-        Response response;
-        if (log.isDebugEnabled()) {
-            log.debug("Call successful, target address is {}:{}, request key is {}", address.getHostName(), address.getPort(), requestId);
+    private Channel getChannel() {
+        Channel ch = channel;
+        if (ch != null && ch.isActive()) {
+            return ch;
         }
-        // Wait for execution to complete
-        ResultHolder.putThread(requestId, Thread.currentThread());
-        LockSupport.parkNanos(timeout() * 1000000);
-        response = ResultHolder.get(requestId);
-        if (response == null) {
-            throw new TimeOutException(TIME_OUT_MSG);
+        synchronized (this) {
+            ch = channel;
+            if (ch != null && ch.isActive()) {
+                return ch;
+            }
+            channel = null;
+            connectionPool.release(ch);
+            ch = connectionPool.acquire(timeout);
+            channel = ch;
+            return ch;
         }
-        if (response.isErr()) {
-            throw new ConnectionException(response.getErrMsg());
-        }
-        if (log.isDebugEnabled()) {
-            log.debug("The response from {}:{} was received successfully with the response key {}.", address.getHostName(), address.getPort(), requestId);
-        }
-        return (R) response.getObj();
     }
 
     @Override
@@ -105,6 +125,10 @@ public class SimpleClientConnection implements ClientConnection {
 
     @Override
     public void close() {
+        synchronized (this) {
+            connectionPool.release(channel);
+            channel = null;
+        }
         worker.shutdownGracefully();
         connectionPool.close();
     }
@@ -17,10 +17,13 @@
 
 package cn.hippo4j.rpc.connection;
 
-import cn.hippo4j.rpc.coder.ObjectEncoder;
+import cn.hippo4j.common.executor.ThreadFactoryBuilder;
+import cn.hippo4j.rpc.coder.SerializerDecoder;
+import cn.hippo4j.rpc.coder.SerializerEncoder;
 import cn.hippo4j.rpc.discovery.ServerPort;
 import cn.hippo4j.rpc.exception.ConnectionException;
 import cn.hippo4j.rpc.handler.AbstractHandlerManager;
+import cn.hippo4j.rpc.handler.ServerHandler;
 import io.netty.bootstrap.ServerBootstrap;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelFuture;
@@ -33,13 +36,17 @@ import io.netty.channel.ServerChannel;
 import io.netty.channel.nio.NioEventLoopGroup;
 import io.netty.channel.socket.SocketChannel;
 import io.netty.channel.socket.nio.NioServerSocketChannel;
-import io.netty.handler.codec.serialization.ClassResolvers;
-import io.netty.handler.codec.serialization.ObjectDecoder;
+import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 /**
  * adapter to the netty server
@@ -56,6 +63,20 @@ public class SimpleServerConnection extends AbstractHandlerManager implements Se
     ChannelFuture future;
     Channel channel;
     private static final int MAX_PORT_NUM = 65535;
+    private static final int DEFAULT_HANDLER_THREADS = Math.max(4, Runtime.getRuntime().availableProcessors() * 2);
+    private static final int DEFAULT_HANDLER_QUEUE_CAPACITY = 1024;
+
+    /**
+     * The executor that processes the requests of the {@link ServerHandler}s which do not have their own,
+     * so that a slow handler does not block the IO threads. A default one is created when bound if it is not set
+     */
+    @Setter
+    Executor executor;
+
+    /**
+     * The default executor created by the connection, which is shut down when the connection is closed
+     */
+    ExecutorService defaultExecutor;
 
     public SimpleServerConnection(EventLoopGroup leader, EventLoopGroup worker, List<ChannelHandler> handlers) {
         super(handlers);
@@ -81,6 +102,15 @@ public class SimpleServerConnection extends AbstractHandlerManager implements Se
         if (serverPort < 0 || serverPort > MAX_PORT_NUM) {
             throw new ConnectionException("The port number " + serverPort + " is outside 0~65535, which is not a legal port number");
         }
+        if (executor == null) {
+            defaultExecutor = newDefaultExecutor();
+            executor = defaultExecutor;
+        }
+        handlerEntities.stream()
+                .filter(h -> h.getHandler() instanceof ServerHandler)
+                .map(h -> (ServerHandler) h.getHandler())
+                .filter(h -> h.getExecutor() == null)
+                .forEach(h -> h.setExecutor(executor));
         ServerBootstrap server = new ServerBootstrap();
         server.group(leader, worker)
                 .channel(socketChannelCls)
@@ -90,8 +120,8 @@ public class SimpleServerConnection extends AbstractHandlerManager implements Se
                     @Override
                     protected void initChannel(SocketChannel ch) {
                         ChannelPipeline pipeline = ch.pipeline();
-                        pipeline.addLast(new ObjectEncoder());
-                        pipeline.addLast(new ObjectDecoder(Integer.MAX_VALUE, ClassResolvers.cacheDisabled(null)));
+                        pipeline.addLast(new SerializerEncoder(serializer));
+                        pipeline.addLast(new SerializerDecoder(serializer));
                         handlerEntities.stream()
                                 .sorted()
                                 .forEach(h -> {
@@ -120,11 +150,22 @@ public class SimpleServerConnection extends AbstractHandlerManager implements Se
         this.worker.shutdownGracefully();
         this.channel.close();
         this.future.channel().close();
+        if (defaultExecutor != null) {
+            defaultExecutor.shutdown();
+        }
         if (log.isDebugEnabled()) {
             log.debug("The server is shut down and no more requests are received. The release port is {}", port.getPort());
         }
     }
 
+    private static ExecutorService newDefaultExecutor() {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(DEFAULT_HANDLER_THREADS, DEFAULT_HANDLER_THREADS, 60L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(DEFAULT_HANDLER_QUEUE_CAPACITY),
+                ThreadFactoryBuilder.builder().daemon(true).prefix("rpc.server.handler").build());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
     @Override
     public boolean isActive() {
         if (channel == null) {
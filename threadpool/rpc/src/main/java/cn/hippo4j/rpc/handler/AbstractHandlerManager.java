@@ -17,7 +17,11 @@
 
 package cn.hippo4j.rpc.handler;
 
+import cn.hippo4j.rpc.coder.CompactSerializer;
+import cn.hippo4j.rpc.coder.Serializer;
 import io.netty.channel.ChannelHandler;
+import lombok.Getter;
+import lombok.Setter;
 
 import java.util.Arrays;
 import java.util.Collections;
@@ -40,6 +44,13 @@ public abstract class AbstractHandlerManager implements HandlerManager<ChannelHa
 
     AtomicLong lastIndex = new AtomicLong(0);
 
+    /**
+     * The serializer of the messages, the client and the server must use the same serializer
+     */
+    @Getter
+    @Setter
+    protected Serializer serializer = new CompactSerializer();
+
     protected AbstractHandlerManager(List<ChannelHandler> handlerEntities) {
         this.handlerEntities = handlerEntities.stream()
                 .filter(Objects::nonNull)
@@ -55,14 +55,16 @@ abstract class AbstractTakeHandler extends ChannelInboundHandlerAdapter implemen
     }
 
     /**
-     * This is a generic process that puts in the result and wakes up the thread
+     * This is a generic process that completes the pending request with the same request id,
+     * the response of a request which has been timed out is discarded
      *
      * @param response response
      */
     @Override
     public void handler(Response response) {
-        ResultHolder.put(response.getRID(), response);
-        ResultHolder.wake(response.getRID());
+        if (!ResultHolder.complete(response.getRID(), response) && log.isDebugEnabled()) {
+            log.debug("Discard the response, the request may have been timed out. request key is {}", response.getRID());
+        }
     }
 
 }
@@ -17,15 +17,14 @@
 
 package cn.hippo4j.rpc.handler;
 
-import cn.hippo4j.rpc.coder.ObjectEncoder;
+import cn.hippo4j.rpc.coder.SerializerDecoder;
+import cn.hippo4j.rpc.coder.SerializerEncoder;
 import io.netty.buffer.Unpooled;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelHandler;
 import io.netty.channel.ChannelPipeline;
 import io.netty.channel.pool.ChannelPoolHandler;
 import io.netty.channel.socket.nio.NioSocketChannel;
-import io.netty.handler.codec.serialization.ClassResolvers;
-import io.netty.handler.codec.serialization.ObjectDecoder;
 import lombok.extern.slf4j.Slf4j;
 
 import java.util.List;
@@ -81,8 +80,8 @@ public class ClientPoolHandler extends AbstractHandlerManager implements Channel
         channel.config()
                 .setTcpNoDelay(false);
         ChannelPipeline pipeline = ch.pipeline();
-        pipeline.addLast(new ObjectEncoder());
-        pipeline.addLast(new ObjectDecoder(Integer.MAX_VALUE, ClassResolvers.cacheDisabled(null)));
+        pipeline.addLast(new SerializerEncoder(serializer));
+        pipeline.addLast(new SerializerDecoder(serializer));
         this.handlerEntities.stream()
                 .sorted()
                 .forEach(h -> {
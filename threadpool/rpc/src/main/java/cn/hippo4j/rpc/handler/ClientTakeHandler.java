@@ -19,6 +19,7 @@ package cn.hippo4j.rpc.handler;
 
 import cn.hippo4j.rpc.exception.ConnectionException;
 import cn.hippo4j.rpc.model.Response;
+import cn.hippo4j.rpc.support.ResultHolder;
 import io.netty.channel.ChannelHandler;
 import io.netty.channel.ChannelHandlerContext;
 
@@ -45,4 +46,16 @@ public class ClientTakeHandler extends AbstractTakeHandler implements ConnectHan
         }
     }
 
+    /**
+     * The responses of the pending requests sent on the channel will never be received,
+     * so they fail immediately instead of waiting for the timeout
+     *
+     * @param ctx the context
+     */
+    @Override
+    public void channelInactive(ChannelHandlerContext ctx) throws Exception {
+        ResultHolder.completeExceptionally(ctx.channel(), new ConnectionException("The channel is inactive before the response is received"));
+        super.channelInactive(ctx);
+    }
+
 }
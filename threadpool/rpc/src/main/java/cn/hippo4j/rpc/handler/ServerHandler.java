@@ -18,18 +18,32 @@
 package cn.hippo4j.rpc.handler;
 
 import cn.hippo4j.rpc.model.DefaultRequest;
+import cn.hippo4j.rpc.model.DefaultResponse;
 import cn.hippo4j.rpc.model.Request;
 import cn.hippo4j.rpc.model.Response;
 import io.netty.channel.ChannelHandlerContext;
+import lombok.Getter;
+import lombok.Setter;
 
 import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * The handler located on the server side provides unified operations for the server side
  *
  * @since 2.0.0
  */
-abstract class ServerHandler extends AbstractTakeHandler {
+public abstract class ServerHandler extends AbstractTakeHandler {
+
+    /**
+     * The executor that processes the requests, if it is null, the requests are processed in the IO thread.<br>
+     * Otherwise the responses of a connection may be written out of order, and they are matched by the request id on the client side.<br>
+     * If it is not set, the executor of the server connection is used when the server is bound
+     */
+    @Getter
+    @Setter
+    Executor executor;
 
     @Override
     public void channelRead(ChannelHandlerContext ctx, Object msg) {
@@ -42,8 +56,15 @@ abstract class ServerHandler extends AbstractTakeHandler {
             ctx.fireChannelRead(msg);
             return;
         }
-        Response response = sendHandler(request);
-        ctx.writeAndFlush(response);
+        if (executor == null) {
+            ctx.writeAndFlush(sendHandler(request));
+            return;
+        }
+        try {
+            executor.execute(() -> ctx.writeAndFlush(sendHandler(request)));
+        } catch (RejectedExecutionException e) {
+            ctx.writeAndFlush(new DefaultResponse(request.getRID(), "The request is rejected by the server"));
+        }
     }
 
     /**
@@ -17,20 +17,35 @@
 
 package cn.hippo4j.rpc.support;
 
+import cn.hippo4j.common.executor.ThreadFactoryBuilder;
+import cn.hippo4j.rpc.exception.OperationException;
+import cn.hippo4j.rpc.exception.TimeOutException;
+import cn.hippo4j.rpc.model.Response;
+import io.netty.channel.Channel;
+import io.netty.util.Attribute;
+import io.netty.util.AttributeKey;
+import io.netty.util.HashedWheelTimer;
+import io.netty.util.Timeout;
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
-import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.LockSupport;
 
 /**
  * The staging results<br>
  * The unique remote call can be determined by the key of request and
  * response, and the result of the call is stored in the secondary cache,
- * which is convenient for the client to use at any time.
+ * which is convenient for the client to use at any time.<br>
+ * The asynchronous calls are registered as pending futures, which are completed by the response
+ * with the same request id, or completed exceptionally by a shared timer wheel when timed out.
+ * Since the futures are matched by the request id, the responses can arrive in any order.
  *
  * @since 2.0.0
  */
@@ -39,7 +54,26 @@ import java.util.concurrent.locks.LockSupport;
 public class ResultHolder {
 
     private static final Map<String, Object> MAP = new ConcurrentHashMap<>();
-    private static final Map<String, Thread> THREAD_MAP = new HashMap<>();
+    private static final Map<String, Thread> THREAD_MAP = new ConcurrentHashMap<>();
+    private static final Map<String, CompletableFuture<Response>> FUTURE_MAP = new ConcurrentHashMap<>();
+
+    /**
+     * The keys of the pending requests which are sent on the channel
+     */
+    private static final AttributeKey<Set<String>> PENDING_KEYS = AttributeKey.valueOf("hippo4j.rpc.pending.keys");
+
+    /**
+     * Monotonically increasing request id, which is unique in the current process
+     */
+    private static final AtomicLong REQUEST_ID = new AtomicLong();
+
+    /**
+     * The timer shared by all pending requests, the precision of timeout is one tick
+     */
+    private static final HashedWheelTimer TIMEOUT_TIMER = new HashedWheelTimer(
+            ThreadFactoryBuilder.builder().daemon(true).prefix("rpc.request.timeout").build(), 100L, TimeUnit.MILLISECONDS, 512);
+
+    static final String TIME_OUT_MSG = "Timeout waiting for server-side response";
 
     /**
      * Writes when the client receives a response
@@ -72,7 +106,7 @@ public class ResultHolder {
      *
      * @param key Request and response keys
      */
-    public static synchronized void wake(String key) {
+    public static void wake(String key) {
         if (log.isDebugEnabled()) {
             log.debug("The future has been fetched, wake up the thread");
         }
@@ -96,4 +130,94 @@ public class ResultHolder {
         return (T) MAP.remove(key);
     }
 
+    /**
+     * Generate the id of a new request
+     *
+     * @return request id
+     */
+    public static String nextRequestId() {
+        return Long.toString(REQUEST_ID.incrementAndGet());
+    }
+
+    /**
+     * Register a pending request, the future is completed when the response is received,
+     * or completed exceptionally with {@link TimeOutException} when timed out
+     *
+     * @param key           Request and response keys
+     * @param timeoutMillis timeout, ms
+     * @return the future of response
+     */
+    public static CompletableFuture<Response> putFuture(String key, long timeoutMillis) {
+        CompletableFuture<Response> future = new CompletableFuture<>();
+        if (FUTURE_MAP.putIfAbsent(key, future) != null) {
+            throw new OperationException("Duplicate request key " + key);
+        }
+        Timeout timeout = TIMEOUT_TIMER.newTimeout(t -> completeExceptionally(key, new TimeOutException(TIME_OUT_MSG)),
+                timeoutMillis, TimeUnit.MILLISECONDS);
+        future.whenComplete((response, throwable) -> timeout.cancel());
+        return future;
+    }
+
+    /**
+     * Complete the pending request with the response
+     *
+     * @param key      Request and response keys
+     * @param response The response
+     * @return false if there is no such pending request, e.g. it has been timed out
+     */
+    public static boolean complete(String key, Response response) {
+        CompletableFuture<Response> future = FUTURE_MAP.remove(key);
+        return future != null && future.complete(response);
+    }
+
+    /**
+     * Complete the pending request exceptionally
+     *
+     * @param key Request and response keys
+     * @param ex  the exception
+     * @return false if there is no such pending request
+     */
+    public static boolean completeExceptionally(String key, Throwable ex) {
+        CompletableFuture<Response> future = FUTURE_MAP.remove(key);
+        return future != null && future.completeExceptionally(ex);
+    }
+
+    /**
+     * Bind the pending request to the channel it is sent on, so that it fails as soon as the channel is inactive,
+     * the request is unbound when it is completed
+     *
+     * @param key     Request and response keys
+     * @param channel the channel
+     */
+    public static void bindChannel(String key, Channel channel) {
+        CompletableFuture<Response> future = FUTURE_MAP.get(key);
+        if (future == null) {
+            return;
+        }
+        Attribute<Set<String>> attribute = channel.attr(PENDING_KEYS);
+        Set<String> keys = attribute.get();
+        if (keys == null) {
+            Set<String> newKeys = ConcurrentHashMap.newKeySet();
+            keys = attribute.setIfAbsent(newKeys);
+            if (keys == null) {
+                keys = newKeys;
+            }
+        }
+        Set<String> pendingKeys = keys;
+        pendingKeys.add(key);
+        future.whenComplete((response, throwable) -> pendingKeys.remove(key));
+    }
+
+    /**
+     * Complete all pending requests sent on the channel exceptionally, e.g. the channel is inactive
+     *
+     * @param channel the channel
+     * @param ex      the exception
+     */
+    public static void completeExceptionally(Channel channel, Throwable ex) {
+        Set<String> keys = channel.attr(PENDING_KEYS).get();
+        if (keys != null) {
+            keys.forEach(key -> completeExceptionally(key, ex));
+        }
+    }
 }
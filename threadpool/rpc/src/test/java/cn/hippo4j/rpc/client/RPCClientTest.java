@@ -0,0 +1,136 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.hippo4j.rpc.client;
+
+import cn.hippo4j.rpc.connection.ServerConnection;
+import cn.hippo4j.rpc.connection.SimpleClientConnection;
+import cn.hippo4j.rpc.connection.SimpleServerConnection;
+import cn.hippo4j.rpc.discovery.ServerPort;
+import cn.hippo4j.rpc.exception.TimeOutException;
+import cn.hippo4j.rpc.handler.ClientPoolHandler;
+import cn.hippo4j.rpc.handler.ClientTakeHandler;
+import cn.hippo4j.rpc.handler.ServerBareTakeHandler;
+import cn.hippo4j.rpc.handler.ServerTakeHandler;
+import cn.hippo4j.rpc.model.DefaultRequest;
+import cn.hippo4j.rpc.server.RPCServer;
+import cn.hippo4j.rpc.support.ResultHolder;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+public class RPCClientTest {
+
+    static ServerPort port = new TestServerPort();
+    static final String addressStr = "localhost";
+
+    static final String echo = "echo";
+    static final String block = "block";
+    static final String timeout = "timeout";
+    static final CountDownLatch blockLatch = new CountDownLatch(1);
+    static ExecutorService executor = Executors.newFixedThreadPool(4);
+    static RPCServer rpcServer;
+
+    @BeforeClass
+    public static void startServer() {
+        ServerTakeHandler<Integer, Integer> echoHandler = new ServerTakeHandler<>(echo, a -> a);
+        ServerTakeHandler<Integer, Integer> blockHandler = new ServerTakeHandler<>(block, a -> {
+            try {
+                blockLatch.await(10L, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return a;
+        });
+        ServerBareTakeHandler<Integer> timeoutHandler = new ServerBareTakeHandler<>(timeout, new CallManager()::callTestTimeout);
+        echoHandler.setExecutor(executor);
+        blockHandler.setExecutor(executor);
+        timeoutHandler.setExecutor(executor);
+        ServerConnection connection = new SimpleServerConnection(echoHandler, blockHandler, timeoutHandler);
+        rpcServer = new RPCServer(connection, port);
+        rpcServer.bind();
+        while (!rpcServer.isActive()) {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1L));
+        }
+    }
+
+    @AfterClass
+    public static void stopServer() throws IOException {
+        if (rpcServer.isActive()) {
+            rpcServer.close();
+        }
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void connectAsyncOutOfOrder() throws IOException {
+        InetSocketAddress address = new InetSocketAddress(addressStr, port.getPort());
+        try (Client client = new RPCClient(new SimpleClientConnection(address, new ClientPoolHandler(new ClientTakeHandler())))) {
+            CompletableFuture<Integer> blocked = client.connectAsync(new DefaultRequest(ResultHolder.nextRequestId(), block, new Object[]{-1}));
+            List<CompletableFuture<Integer>> futures = new ArrayList<>();
+            for (int i = 0; i < 100; i++) {
+                futures.add(client.connectAsync(new DefaultRequest(ResultHolder.nextRequestId(), echo, new Object[]{i})));
+            }
+            for (int i = 0; i < futures.size(); i++) {
+                Assert.assertEquals(Integer.valueOf(i), futures.get(i).join());
+            }
+            // the responses after the blocked request have been received out of order
+            Assert.assertFalse(blocked.isDone());
+            blockLatch.countDown();
+            Assert.assertEquals(Integer.valueOf(-1), blocked.join());
+        }
+    }
+
+    @Test
+    public void connectAsyncTimeout() throws IOException {
+        InetSocketAddress address = new InetSocketAddress(addressStr, port.getPort());
+        SimpleClientConnection connection = new SimpleClientConnection(address, new ClientPoolHandler(new ClientTakeHandler()));
+        connection.setTimeout(100L);
+        try (Client client = new RPCClient(connection)) {
+            CompletableFuture<Integer> future = client.connectAsync(new DefaultRequest(ResultHolder.nextRequestId(), timeout));
+            try {
+                future.join();
+                Assert.fail();
+            } catch (CompletionException e) {
+                Assert.assertTrue(e.getCause() instanceof TimeOutException);
+            }
+        }
+    }
+
+    static class TestServerPort implements ServerPort {
+
+        int port = RandomPort.getSafeRandomPort();
+
+        @Override
+        public int getPort() {
+            return port;
+        }
+    }
+}
@@ -0,0 +1,171 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.hippo4j.rpc.coder;
+
+import cn.hippo4j.common.model.ThreadPoolParameterInfo;
+import cn.hippo4j.common.model.ThreadPoolRunStateInfo;
+import cn.hippo4j.rpc.exception.CoderException;
+import cn.hippo4j.rpc.model.DefaultRequest;
+import cn.hippo4j.rpc.model.DefaultResponse;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class CompactSerializerTest {
+
+    CompactSerializer serializer = new CompactSerializer();
+
+    @Test
+    public void testBuiltinTypes() {
+        Map<Object, Object> map = new LinkedHashMap<>();
+        map.put("a", 1L);
+        map.put(2, null);
+        Object[] values = {null, true, false, (byte) 1, (short) -2, 0, -1, Integer.MIN_VALUE, Integer.MAX_VALUE,
+                Long.MIN_VALUE, Long.MAX_VALUE, 1.5F, 2.5D, 'c', "", "hippo4j 线程池", new byte[]{1, 2},
+                Arrays.asList(1, "2", null), map, new Object[]{1, new Object[]{"nested"}}};
+        for (Object value : values) {
+            Object result = roundTrip(value);
+            if (value instanceof byte[]) {
+                Assert.assertArrayEquals((byte[]) value, (byte[]) result);
+            } else if (value instanceof Object[]) {
+                Assert.assertArrayEquals((Object[]) value, (Object[]) result);
+            } else {
+                Assert.assertEquals(value, result);
+            }
+        }
+    }
+
+    @Test
+    public void testRequestAndResponse() {
+        ThreadPoolParameterInfo parameterInfo = new ThreadPoolParameterInfo()
+                .setTenantId("prescription").setItemId("dynamic-threadpool-example").setTpId("message-produce")
+                .setCorePoolSize(2).setMaximumPoolSize(8).setKeepAliveTime(60L).setIsAlarm(null);
+        DefaultRequest request = (DefaultRequest) roundTrip(new DefaultRequest("1", "key", new Object[]{parameterInfo, 1}));
+        Assert.assertEquals("1", request.getRID());
+        Assert.assertEquals("key", request.getKey());
+        Assert.assertEquals(parameterInfo, request.getParameters()[0]);
+        Assert.assertEquals(1, request.getParameters()[1]);
+        Assert.assertEquals(0, ((DefaultRequest) roundTrip(new DefaultRequest("2", "key"))).getParameters().length);
+
+        ThreadPoolRunStateInfo stateInfo = new ThreadPoolRunStateInfo();
+        stateInfo.setTpId("message-produce");
+        stateInfo.setPoolSize(4);
+        stateInfo.setCompletedTaskCount(1024L);
+        stateInfo.setQueueType("LinkedBlockingQueue");
+        DefaultResponse response = (DefaultResponse) roundTrip(new DefaultResponse("3", Collections.singletonList(stateInfo)));
+        ThreadPoolRunStateInfo result = (ThreadPoolRunStateInfo) ((java.util.List<?>) response.getObj()).get(0);
+        Assert.assertEquals("3", response.getRID());
+        Assert.assertFalse(response.isErr());
+        Assert.assertEquals("message-produce", result.getTpId());
+        Assert.assertEquals(Integer.valueOf(4), result.getPoolSize());
+        Assert.assertEquals(Long.valueOf(1024L), result.getCompletedTaskCount());
+        Assert.assertEquals("LinkedBlockingQueue", result.getQueueType());
+        Assert.assertNull(result.getRejectCount());
+        Assert.assertEquals("error", ((DefaultResponse) roundTrip(new DefaultResponse("4", "error"))).getErrMsg());
+    }
+
+    @Test
+    public void testRegister() {
+        serializer.register(RpcModelCodecs.FIRST_CUSTOM_TYPE_ID, StringBuilder.class, new TypeCodec<StringBuilder>() {
+
+            @Override
+            public void encode(CompactSerializer serializer, StringBuilder value, ByteBuf out) {
+                CompactSerializer.writeString(value.toString(), out);
+            }
+
+            @Override
+            public StringBuilder decode(CompactSerializer serializer, ByteBuf in) {
+                return new StringBuilder(CompactSerializer.readString(in));
+            }
+        });
+        Assert.assertEquals("hippo4j", roundTrip(new StringBuilder("hippo4j")).toString());
+        Assert.assertThrows(CoderException.class, () -> serializer.register(RpcModelCodecs.REQUEST_TYPE_ID, StringBuffer.class, null));
+        Assert.assertThrows(CoderException.class, () -> roundTrip(new StringBuffer()));
+        // the type which is not registered on the reading side can not be read
+        ByteBuf buf = Unpooled.buffer();
+        serializer.serialize(new StringBuilder("hippo4j"), buf);
+        Assert.assertThrows(CoderException.class, () -> new CompactSerializer().deserialize(buf));
+    }
+
+    @Test
+    public void testArrayComponentType() {
+        String[] strings = {"a", null, "b"};
+        Object result = roundTrip(strings);
+        Assert.assertEquals(String[].class, result.getClass());
+        Assert.assertArrayEquals(strings, (Object[]) result);
+        Integer[][] matrix = {{1, 2}, {3}};
+        result = roundTrip(matrix);
+        Assert.assertEquals(Integer[][].class, result.getClass());
+        Assert.assertArrayEquals(matrix, (Object[]) result);
+        ThreadPoolParameterInfo[] parameters = {new ThreadPoolParameterInfo().setTpId("message-produce")};
+        result = roundTrip(parameters);
+        Assert.assertEquals(ThreadPoolParameterInfo[].class, result.getClass());
+        Assert.assertEquals("message-produce", ((ThreadPoolParameterInfo[]) result)[0].getTpId());
+        Assert.assertEquals(byte[][].class, roundTrip(new byte[][]{{1}}).getClass());
+        // the component type which is not registered can not be written
+        Assert.assertThrows(CoderException.class, () -> roundTrip(new StringBuilder[0]));
+        // the element which is not an instance of the component type can not be read
+        ByteBuf buf = Unpooled.buffer();
+        buf.writeByte(CompactSerializer.ARRAY);
+        buf.writeByte(CompactSerializer.STRING);
+        CompactSerializer.writeVarInt(buf, 1);
+        serializer.writeObject(1, buf);
+        Assert.assertThrows(CoderException.class, () -> serializer.deserialize(buf));
+    }
+
+    @Test
+    public void testMalformedLength() {
+        ByteBuf buf = Unpooled.buffer();
+        buf.writeByte(CompactSerializer.ARRAY);
+        buf.writeByte(CompactSerializer.NULL);
+        CompactSerializer.writeVarInt(buf, Integer.MAX_VALUE);
+        Assert.assertThrows(CoderException.class, () -> serializer.deserialize(buf));
+    }
+
+    @Test
+    public void testEncoderAndDecoder() {
+        EmbeddedChannel channel = new EmbeddedChannel(new SerializerEncoder(serializer), new SerializerDecoder(serializer));
+        DefaultRequest request = new DefaultRequest("1", "key", new Object[]{"hippo4j"});
+        Assert.assertTrue(channel.writeOutbound(request));
+        ByteBuf frame = channel.readOutbound();
+        // split the frame to test the framing
+        Assert.assertFalse(channel.writeInbound(frame.readRetainedSlice(3)));
+        Assert.assertTrue(channel.writeInbound(frame));
+        DefaultRequest result = channel.readInbound();
+        Assert.assertEquals(request, result);
+        Assert.assertArrayEquals(request.getParameters(), result.getParameters());
+        Assert.assertFalse(channel.finish());
+    }
+
+    private Object roundTrip(Object value) {
+        ByteBuf buf = Unpooled.buffer();
+        try {
+            serializer.serialize(value, buf);
+            return serializer.deserialize(buf);
+        } finally {
+            buf.release();
+        }
+    }
+}
@@ -28,7 +28,8 @@ import java.io.Serializable;
 
 /**
  * this is a encoder, For custom gluing and unpacking<br>
- * {@link io.netty.handler.codec.serialization.ObjectEncoder}
+ * {@link io.netty.handler.codec.serialization.ObjectEncoder}<br>
+ * Only used as the JDK serialization baseline of {@link SerializerBenchmarkTest}
  *
  * @since 2.0.0
  */
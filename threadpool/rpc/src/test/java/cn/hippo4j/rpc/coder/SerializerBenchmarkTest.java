@@ -0,0 +1,167 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.hippo4j.rpc.coder;
+
+import cn.hippo4j.common.model.ThreadPoolParameterInfo;
+import cn.hippo4j.common.model.ThreadPoolRunStateInfo;
+import cn.hippo4j.rpc.model.DefaultRequest;
+import cn.hippo4j.rpc.model.DefaultResponse;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.serialization.ClassResolvers;
+import io.netty.handler.codec.serialization.ObjectDecoder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.Serializable;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * benchmark test for {@link CompactSerializer},
+ * compare the encoding and the round trip with the previous JDK serialization of {@link ObjectEncoder} and netty's ObjectDecoder,
+ * on a request carrying thread-pool parameters and a response carrying thread-pool run state.
+ * The encoded sizes are printed before running, the gc profiler shows the allocation of each message.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+@Fork(1)
+public class SerializerBenchmarkTest {
+
+    @Param({"request", "response"})
+    private String payload;
+
+    private Serializable message;
+
+    private EmbeddedChannel jdkChannel;
+
+    private EmbeddedChannel compactChannel;
+
+    @Setup
+    public void setup() {
+        message = "request".equals(payload) ? request() : response();
+        jdkChannel = new EmbeddedChannel(new ObjectEncoder(), new ObjectDecoder(Integer.MAX_VALUE, ClassResolvers.cacheDisabled(null)));
+        CompactSerializer serializer = new CompactSerializer();
+        compactChannel = new EmbeddedChannel(new SerializerEncoder(serializer), new SerializerDecoder(serializer));
+    }
+
+    @TearDown
+    public void tearDown() {
+        jdkChannel.finishAndReleaseAll();
+        compactChannel.finishAndReleaseAll();
+    }
+
+    @Benchmark
+    public int jdkEncode() {
+        return encode(jdkChannel, message);
+    }
+
+    @Benchmark
+    public int compactEncode() {
+        return encode(compactChannel, message);
+    }
+
+    @Benchmark
+    public Object jdkRoundTrip() {
+        return roundTrip(jdkChannel, message);
+    }
+
+    @Benchmark
+    public Object compactRoundTrip() {
+        return roundTrip(compactChannel, message);
+    }
+
+    private static int encode(EmbeddedChannel channel, Object message) {
+        channel.writeOutbound(message);
+        ByteBuf frame = channel.readOutbound();
+        int size = frame.readableBytes();
+        frame.release();
+        return size;
+    }
+
+    private static Object roundTrip(EmbeddedChannel channel, Object message) {
+        channel.writeOutbound(message);
+        channel.writeInbound((ByteBuf) channel.readOutbound());
+        return channel.readInbound();
+    }
+
+    private static DefaultRequest request() {
+        ThreadPoolParameterInfo parameterInfo = new ThreadPoolParameterInfo()
+                .setTenantId("prescription").setItemId("dynamic-threadpool-example").setTpId("message-produce")
+                .setCorePoolSize(4).setMaximumPoolSize(16).setQueueType(9).setCapacity(1024).setKeepAliveTime(60L)
+                .setExecuteTimeOut(1000L).setRejectedType(2).setIsAlarm(1).setCapacityAlarm(80).setLivenessAlarm(80)
+                .setAllowCoreThreadTimeOut(0);
+        return new DefaultRequest("1024", "refreshThreadPool", new Object[]{parameterInfo});
+    }
+
+    private static DefaultResponse response() {
+        ThreadPoolRunStateInfo stateInfo = new ThreadPoolRunStateInfo();
+        stateInfo.setTpId("message-produce");
+        stateInfo.setCurrentLoad("25");
+        stateInfo.setPeakLoad("75");
+        stateInfo.setActiveCount(3);
+        stateInfo.setPoolSize(4);
+        stateInfo.setActiveSize(3);
+        stateInfo.setLargestPoolSize(12);
+        stateInfo.setQueueSize(100);
+        stateInfo.setQueueRemainingCapacity(924);
+        stateInfo.setCompletedTaskCount(123456789L);
+        stateInfo.setRejectCount(12L);
+        stateInfo.setHost("192.168.1.10:8088");
+        stateInfo.setTimestamp(System.currentTimeMillis());
+        stateInfo.setCoreSize(4);
+        stateInfo.setMaximumSize(16);
+        stateInfo.setQueueType("ResizableCapacityLinkedBlockingQueue");
+        stateInfo.setQueueCapacity(1024);
+        stateInfo.setRejectedName("CallerRunsPolicy");
+        stateInfo.setKeepAliveTime(60L);
+        return new DefaultResponse("1024", stateInfo);
+    }
+
+    public static void main(String[] args) throws Exception {
+        SerializerBenchmarkTest benchmark = new SerializerBenchmarkTest();
+        for (String each : new String[]{"request", "response"}) {
+            benchmark.payload = each;
+            benchmark.setup();
+            System.out.printf("%s encoded size, jdk: %d bytes, compact: %d bytes%n",
+                    each, benchmark.jdkEncode(), benchmark.compactEncode());
+            benchmark.tearDown();
+        }
+        Options opts = new OptionsBuilder()
+                .include(SerializerBenchmarkTest.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(opts).run();
+    }
+}
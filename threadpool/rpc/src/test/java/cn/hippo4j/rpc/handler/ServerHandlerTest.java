@@ -52,11 +52,12 @@ public class ServerHandlerTest {
     static final String timeout = "timeoutServer";
     static final String error = "errorServer";
     static RPCServer rpcServer;
+    static ServerTakeHandler<Integer, Integer> takeHandler;
 
     @BeforeClass
     public static void startServer() {
         CallManager manager = new CallManager();
-        ServerTakeHandler<Integer, Integer> takeHandler = new ServerTakeHandler<>(take, manager::call);
+        takeHandler = new ServerTakeHandler<>(take, manager::call);
         ServerBiTakeHandler<Integer, Integer, Integer> biTakeHandler = new ServerBiTakeHandler<>(biTake, manager::call);
         ServerBareTakeHandler<Integer> bareTakeHandler = new ServerBareTakeHandler<>(bareTake, manager::call);
         ServerBareTakeHandler<Integer> timeoutHandler = new ServerBareTakeHandler<>(timeout, manager::callTestTimeout);
@@ -88,6 +89,12 @@ public class ServerHandlerTest {
         ClientSupport.closeClient(socketAddress);
     }
 
+    @Test
+    public void defaultExecutor() {
+        // the requests are processed in the default executor of the server connection, instead of the IO threads
+        Assert.assertNotNull(takeHandler.getExecutor());
+    }
+
     @Test(expected = ConnectionException.class)
     public void connectionError() {
         String s = host + ":" + port.getPort();
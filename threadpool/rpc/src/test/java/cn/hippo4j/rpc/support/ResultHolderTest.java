@@ -17,11 +17,18 @@
 
 package cn.hippo4j.rpc.support;
 
+import cn.hippo4j.rpc.exception.ConnectionException;
+import cn.hippo4j.rpc.exception.TimeOutException;
+import cn.hippo4j.rpc.handler.ClientTakeHandler;
+import cn.hippo4j.rpc.model.DefaultResponse;
+import cn.hippo4j.rpc.model.Response;
+import io.netty.channel.embedded.EmbeddedChannel;
 import org.junit.Assert;
 import org.junit.Test;
 
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.LockSupport;
@@ -64,4 +71,51 @@ public class ResultHolderTest {
         TimeUnit.SECONDS.sleep(1);
         Assert.assertEquals(1, a.get());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testFuture() {
+        String key = ResultHolder.nextRequestId();
+        Assert.assertNotEquals(key, ResultHolder.nextRequestId());
+        CompletableFuture<Response> future = ResultHolder.putFuture(key, 10000L);
+        Response response = new DefaultResponse(key, 1);
+        Assert.assertTrue(ResultHolder.complete(key, response));
+        Assert.assertSame(response, future.join());
+        Assert.assertFalse(ResultHolder.complete(key, response));
+    }
+
+    @Test
+    public void testFutureTimeout() {
+        String key = ResultHolder.nextRequestId();
+        CompletableFuture<Response> future = ResultHolder.putFuture(key, 1L);
+        try {
+            future.join();
+            Assert.fail();
+        } catch (CompletionException e) {
+            Assert.assertTrue(e.getCause() instanceof TimeOutException);
+        }
+        Assert.assertFalse(ResultHolder.complete(key, new DefaultResponse(key, 1)));
+    }
+
+    @Test
+    public void testChannelInactive() {
+        EmbeddedChannel channel = new EmbeddedChannel(new ClientTakeHandler());
+        String completedKey = ResultHolder.nextRequestId();
+        CompletableFuture<Response> completed = ResultHolder.putFuture(completedKey, 10000L);
+        ResultHolder.bindChannel(completedKey, channel);
+        String pendingKey = ResultHolder.nextRequestId();
+        CompletableFuture<Response> pending = ResultHolder.putFuture(pendingKey, 10000L);
+        ResultHolder.bindChannel(pendingKey, channel);
+        Response response = new DefaultResponse(completedKey, 1);
+        channel.writeInbound(response);
+        Assert.assertSame(response, completed.join());
+
+        channel.close();
+        try {
+            pending.join();
+            Assert.fail();
+        } catch (CompletionException e) {
+            Assert.assertTrue(e.getCause() instanceof ConnectionException);
+        }
+        Assert.assertFalse(ResultHolder.complete(pendingKey, new DefaultResponse(pendingKey, 1)));
+    }
+}
@@ -0,0 +1,328 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.hippo4j.config.cluster;
+
+import cn.hippo4j.common.executor.ThreadFactoryBuilder;
+import cn.hippo4j.common.model.InstanceInfo;
+import cn.hippo4j.common.toolkit.JSONUtil;
+import cn.hippo4j.common.toolkit.StringUtil;
+import cn.hippo4j.config.event.LocalDataChangeEvent;
+import cn.hippo4j.config.service.ConfigCacheService;
+import cn.hippo4j.config.service.ConfigChangePublisher;
+import cn.hippo4j.discovery.core.BaseInstanceRegistry;
+import cn.hippo4j.discovery.core.RegistryChange;
+import cn.hippo4j.discovery.core.RegistryChange.ChangeType;
+import cn.hippo4j.discovery.core.RegistryDelta;
+import cn.hippo4j.rpc.client.ClientSupport;
+import cn.hippo4j.rpc.connection.SimpleServerConnection;
+import cn.hippo4j.rpc.handler.ServerBiTakeHandler;
+import cn.hippo4j.rpc.handler.ServerTakeHandler;
+import cn.hippo4j.rpc.server.ServerSupport;
+import cn.hippo4j.rpc.support.AddressUtil;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Peer-to-peer replication of the server nodes over the rpc module, so that the server can be scaled out
+ * behind a load balancer without sticky sessions.
+ * <ul>
+ *     <li>The registrations, renewals and cancellations received from the clients are read from the change log of
+ *     {@link BaseInstanceRegistry}, and replicated to each peer asynchronously in batches, the renewals of the same
+ *     instance in a batch are coalesced. Each peer has its own cursor of the change log, which only advances after
+ *     the peer has applied the batch, so a batch is retried if the peer is unavailable.</li>
+ *     <li>The config changes are broadcast to the peers, which refresh the config snapshot and fire {@link LocalDataChangeEvent} locally,
+ *     so that the long polling clients connected to any node are notified.
+ *     If read-your-writes is enabled, the config change request waits until all peers have applied the change.</li>
+ * </ul>
+ * The changes applied from the peers are not replicated again, and the evictions are not replicated,
+ * since each node evicts the expired leases by itself. A peer which falls behind the change log or restarts
+ * is repaired by the clients, which register again once their renewal is rejected.
+ */
+@Slf4j
+public class ClusterReplicator {
+
+    /**
+     * Handler name of the registry replication
+     */
+    public static final String REGISTRY_HANDLER = "hippo4j.cluster.registry";
+
+    /**
+     * Handler name of the config change broadcast
+     */
+    public static final String CONFIG_HANDLER = "hippo4j.cluster.config";
+
+    private final BaseInstanceRegistry registry;
+
+    private final int port;
+
+    @Getter
+    private final List<Peer> peers;
+
+    private final long replicationPeriod;
+
+    private final long replicationTimeout;
+
+    private final boolean readYourWrites;
+
+    /**
+     * Fire the config change broadcast from the peers
+     */
+    private final Consumer<LocalDataChangeEvent> configChangeListener;
+
+    private final ScheduledExecutorService scheduledExecutorService;
+
+    private ServerSupport server;
+
+    public ClusterReplicator(BaseInstanceRegistry registry, int port, String peers,
+                             long replicationPeriod, long replicationTimeout, boolean readYourWrites) {
+        this(registry, port, peers, replicationPeriod, replicationTimeout, readYourWrites, ConfigChangePublisher::notifyConfigChange);
+    }
+
+    public ClusterReplicator(BaseInstanceRegistry registry, int port, String peers, long replicationPeriod,
+                             long replicationTimeout, boolean readYourWrites, Consumer<LocalDataChangeEvent> configChangeListener) {
+        this.registry = registry;
+        this.port = port;
+        this.replicationPeriod = replicationPeriod;
+        this.replicationTimeout = replicationTimeout;
+        this.readYourWrites = readYourWrites;
+        this.configChangeListener = configChangeListener;
+        this.peers = StringUtil.isBlank(peers) ? Collections.emptyList()
+                : Arrays.stream(peers.split(",")).map(String::trim).filter(StringUtil::isNotBlank).distinct().map(Peer::new).collect(Collectors.toList());
+        this.scheduledExecutorService = new ScheduledThreadPoolExecutor(1, new ThreadFactoryBuilder()
+                .prefix("cluster-replication")
+                .daemon(true)
+                .build());
+    }
+
+    /**
+     * Start the replication server and the replication task.
+     */
+    public void start() {
+        ServerTakeHandler<String, Integer> registryHandler = new ServerTakeHandler<>(REGISTRY_HANDLER, this::applyRegistryChanges);
+        ServerBiTakeHandler<String, String, Boolean> configHandler = new ServerBiTakeHandler<>(CONFIG_HANDLER, this::applyConfigChange);
+        server = new ServerSupport(() -> port, new SimpleServerConnection(registryHandler, configHandler));
+        server.bind();
+        long version = registry.getVersion();
+        peers.forEach(each -> each.version = version);
+        scheduledExecutorService.scheduleWithFixedDelay(this::replicateRegistry, replicationPeriod, replicationPeriod, TimeUnit.MILLISECONDS);
+        log.info("Cluster replication started. Port: {}, peers: {}", port, peers.stream().map(Peer::getAddress).collect(Collectors.toList()));
+    }
+
+    /**
+     * Stop the replication.
+     */
+    public void stop() {
+        scheduledExecutorService.shutdownNow();
+        peers.forEach(each -> ClientSupport.closeClient(AddressUtil.getInetAddress(each.address)));
+        if (server != null) {
+            try {
+                server.close();
+            } catch (IOException ex) {
+                log.warn("Failed to close the cluster replication server.", ex);
+            }
+        }
+    }
+
+    /**
+     * Whether the replication server is active.
+     *
+     * @return true if the replication server is active
+     */
+    public boolean isActive() {
+        return server != null && server.isActive();
+    }
+
+    /**
+     * Replicate the registry changes to each peer, skip the peers whose last batch is still in flight.
+     */
+    void replicateRegistry() {
+        for (Peer peer : peers) {
+            try {
+                peer.replicate();
+            } catch (Throwable ex) {
+                peer.inFlight.set(false);
+                log.warn("Failed to replicate the registry to peer: {}", peer.address, ex);
+            }
+        }
+    }
+
+    /**
+     * Broadcast the config change to the peers.
+     *
+     * @param event the local config change
+     */
+    public void replicateConfigChange(LocalDataChangeEvent event) {
+        List<CompletableFuture<Boolean>> futures = new ArrayList<>(peers.size());
+        for (Peer peer : peers) {
+            CompletableFuture<Boolean> future = send(peer.address, CONFIG_HANDLER, event.getIdentify(), event.getGroupKey());
+            futures.add(future.whenComplete((result, ex) -> {
+                if (ex != null) {
+                    log.warn("Failed to broadcast the config change to peer: {}, groupKey: {}", peer.address, event.getGroupKey(), ex);
+                }
+            }));
+        }
+        if (readYourWrites && !futures.isEmpty()) {
+            try {
+                CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get(replicationTimeout, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            } catch (Exception ex) {
+                log.warn("Not all peers have applied the config change in {} ms, groupKey: {}", replicationTimeout, event.getGroupKey());
+            }
+        }
+    }
+
+    /**
+     * Apply the registry changes replicated from a peer.
+     *
+     * @param events JSON array of {@link ReplicationEvent}
+     * @return count of the applied changes
+     */
+    Integer applyRegistryChanges(String events) {
+        List<ReplicationEvent> replicationEvents = JSONUtil.parseArray(events, ReplicationEvent.class);
+        for (ReplicationEvent each : replicationEvents) {
+            switch (each.getType()) {
+                case REGISTER:
+                    registry.register(each.getInstance(), true);
+                    break;
+                case RENEW:
+                    InstanceInfo.InstanceRenew instanceRenew = new InstanceInfo.InstanceRenew()
+                            .setAppName(each.getAppName())
+                            .setInstanceId(each.getInstanceId());
+                    registry.renew(instanceRenew, true);
+                    break;
+                case CANCEL:
+                    registry.remove(new InstanceInfo().setAppName(each.getAppName()).setInstanceId(each.getInstanceId()), true);
+                    break;
+                default:
+                    break;
+            }
+        }
+        return replicationEvents.size();
+    }
+
+    /**
+     * Apply the config change broadcast from a peer. The config snapshot is refreshed before acknowledging,
+     * so that the node serves the changed config once the broadcast returns.
+     *
+     * @param identify identify of the client
+     * @param groupKey group key of the config
+     * @return true
+     */
+    Boolean applyConfigChange(String identify, String groupKey) {
+        ConfigCacheService.refreshConfigSnapshot(groupKey);
+        configChangeListener.accept(new LocalDataChangeEvent(identify, groupKey, true));
+        return Boolean.TRUE;
+    }
+
+    /**
+     * Convert the local changes to the replication events, the renewals of the same instance are coalesced to the last one.
+     *
+     * @param changes the changes of the registry
+     * @return the replication events
+     */
+    static List<ReplicationEvent> toReplicationEvents(List<RegistryChange> changes) {
+        List<ReplicationEvent> events = new ArrayList<>();
+        Set<String> renewedInstances = new HashSet<>();
+        for (int i = changes.size() - 1; i >= 0; i--) {
+            RegistryChange change = changes.get(i);
+            if (change.isReplication() || change.getType() == ChangeType.EVICT) {
+                continue;
+            }
+            if (change.getType() == ChangeType.RENEW && !renewedInstances.add(change.getAppName() + "/" + change.getInstanceId())) {
+                continue;
+            }
+            events.add(new ReplicationEvent(change.getType(), change.getAppName(), change.getInstanceId(), change.getInstance()));
+        }
+        Collections.reverse(events);
+        return events;
+    }
+
+    private static <R> CompletableFuture<R> send(String address, String handlerName, Object... params) {
+        try {
+            return ClientSupport.clientSendAsync(address, handlerName, params);
+        } catch (Exception ex) {
+            CompletableFuture<R> future = new CompletableFuture<>();
+            future.completeExceptionally(ex);
+            return future;
+        }
+    }
+
+    /**
+     * Peer node of the cluster.
+     */
+    public class Peer {
+
+        @Getter
+        private final String address;
+
+        /**
+         * Version of the last change applied by the peer
+         */
+        @Getter
+        private volatile long version;
+
+        private final AtomicBoolean inFlight = new AtomicBoolean();
+
+        Peer(String address) {
+            this.address = address;
+        }
+
+        void replicate() {
+            if (!inFlight.compareAndSet(false, true)) {
+                return;
+            }
+            RegistryDelta delta = registry.getDelta(version);
+            if (delta.isFullSyncRequired()) {
+                log.warn("Peer {} falls behind the registry change log, skip to version {}, the clients will register again.", address, delta.getVersion());
+                version = delta.getVersion();
+                inFlight.set(false);
+                return;
+            }
+            List<ReplicationEvent> events = toReplicationEvents(delta.getChanges());
+            if (events.isEmpty()) {
+                version = delta.getVersion();
+                inFlight.set(false);
+                return;
+            }
+            ClusterReplicator.<Integer>send(address, REGISTRY_HANDLER, JSONUtil.toJSONString(events)).whenComplete((result, ex) -> {
+                if (ex == null) {
+                    version = delta.getVersion();
+                } else {
+                    log.warn("Failed to replicate {} registry changes to peer: {}, retry later.", events.size(), address, ex);
+                }
+                inFlight.set(false);
+            });
+        }
+    }
+}
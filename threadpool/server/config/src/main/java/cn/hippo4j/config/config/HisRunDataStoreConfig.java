@@ -0,0 +1,57 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.hippo4j.config.config;
+
+import cn.hippo4j.config.monitor.store.ColumnarHisRunDataStore;
+import cn.hippo4j.config.monitor.store.DatabaseHisRunDataStore;
+import cn.hippo4j.config.monitor.store.HisRunDataRollup;
+import cn.hippo4j.config.monitor.store.HisRunDataStore;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * His run data store config.
+ */
+@Configuration
+public class HisRunDataStoreConfig {
+
+    private static final String STORE_PROPERTY = "his-run-data-store";
+
+    @Bean
+    @ConditionalOnProperty(prefix = ServerBootstrapProperties.PREFIX, name = STORE_PROPERTY, havingValue = "database", matchIfMissing = true)
+    public HisRunDataStore databaseHisRunDataStore() {
+        return new DatabaseHisRunDataStore();
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = ServerBootstrapProperties.PREFIX, name = STORE_PROPERTY, havingValue = "columnar")
+    public HisRunDataStore columnarHisRunDataStore(ServerBootstrapProperties properties) throws IOException {
+        return new ColumnarHisRunDataStore(Paths.get(properties.getHisRunDataStorePath()),
+                TimeUnit.MINUTES.toMillis(properties.getHisRunDataSegmentPeriod()));
+    }
+
+    @Bean
+    public HisRunDataRollup hisRunDataRollup(HisRunDataStore hisRunDataStore) {
+        return new HisRunDataRollup(hisRunDataStore);
+    }
+}
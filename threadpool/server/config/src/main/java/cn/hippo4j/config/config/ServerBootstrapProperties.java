@@ -49,4 +49,51 @@ public class ServerBootstrapProperties {
      * Netty server port.
      */
     private String nettyServerPort = "8899";
+
+    /**
+     * Storage of thread pool history data, database or columnar.
+     */
+    private String hisRunDataStore = "database";
+
+    /**
+     * Directory of the columnar storage of thread pool history data.
+     */
+    private String hisRunDataStorePath = "data/his-run-data";
+
+    /**
+     * Time range of each segment file of the columnar storage. unit: minute.
+     */
+    private Integer hisRunDataSegmentPeriod = 5;
+
+    /**
+     * Max points of each thread pool monitor chart, longer windows are served by rollups or downsampled.
+     */
+    private Integer monitorMaxPoints = 720;
+
+    /**
+     * Addresses of the other server nodes of the cluster, such as 192.168.1.2:8898,192.168.1.3:8898.
+     * The registry and the config changes are replicated to them.
+     */
+    private String clusterPeers;
+
+    /**
+     * Port of the cluster replication server.
+     */
+    private Integer clusterPort = 8898;
+
+    /**
+     * Period of replicating the registry changes to the peer nodes in batches. unit: millisecond.
+     */
+    private Long clusterReplicationPeriod = 200L;
+
+    /**
+     * Whether the config change request waits until all peer nodes have applied the change,
+     * so that the console reads its own writes from any node.
+     */
+    private Boolean clusterReadYourWrites = Boolean.FALSE;
+
+    /**
+     * Timeout of waiting for the peer nodes. unit: millisecond.
+     */
+    private Long clusterReplicationTimeout = 3000L;
 }
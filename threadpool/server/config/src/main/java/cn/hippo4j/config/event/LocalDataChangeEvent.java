@@ -35,8 +35,18 @@ public class LocalDataChangeEvent extends AbstractEvent {
      */
     private final String identify;
 
+    /**
+     * Whether the change is broadcast from a peer node of the cluster
+     */
+    private final boolean replication;
+
     public LocalDataChangeEvent(String identify, String groupKey) {
+        this(identify, groupKey, false);
+    }
+
+    public LocalDataChangeEvent(String identify, String groupKey, boolean replication) {
         this.identify = identify;
         this.groupKey = groupKey;
+        this.replication = replication;
     }
 }
@@ -52,7 +52,7 @@ public class CacheItem {
 
     public CacheItem(String groupKey, ConfigAllInfo configAllInfo) {
         this.configAllInfo = configAllInfo;
-        this.md5 = Md5Util.getTpContentMd5(configAllInfo);
+        this.md5 = configAllInfo.getMd5() != null ? configAllInfo.getMd5() : Md5Util.getTpContentMd5(configAllInfo);
         this.groupKey = SingletonRepository.DataIdGroupIdCache.getSingleton(groupKey);
     }
 }
@@ -0,0 +1,118 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.hippo4j.config.model;
+
+import lombok.Getter;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * <p>Immutable snapshot of a thread-pool config version, which holds the base config
+ * and the latest instance config of each instance under the same group key. <br />
+ * The md5 of every config is computed once when the snapshot is loaded,
+ * so that comparing the md5 of clients does not need to recompute or query the database.
+ */
+public class ConfigSnapshot {
+
+    /**
+     * Base config, may be null
+     */
+    @Getter
+    private final ConfigAllInfo configAllInfo;
+
+    /**
+     * key: instance id
+     * val: the latest instance config
+     */
+    private final Map<String, ConfigAllInfo> instanceConfigs;
+
+    /**
+     * Expire time of the snapshot, only a missing snapshot expires
+     */
+    private final long expireTime;
+
+    public ConfigSnapshot(ConfigAllInfo configAllInfo, Map<String, ConfigAllInfo> instanceConfigs) {
+        this(configAllInfo, instanceConfigs, Long.MAX_VALUE);
+    }
+
+    private ConfigSnapshot(ConfigAllInfo configAllInfo, Map<String, ConfigAllInfo> instanceConfigs, long expireTime) {
+        this.configAllInfo = configAllInfo;
+        this.instanceConfigs = instanceConfigs == null ? Collections.emptyMap() : instanceConfigs;
+        this.expireTime = expireTime;
+    }
+
+    /**
+     * Create a snapshot of the config which is not defined, so that the unknown group key
+     * does not query the database on every read until the snapshot expires.
+     *
+     * @param expireTime expire time in milliseconds
+     * @return empty snapshot
+     */
+    public static ConfigSnapshot missing(long expireTime) {
+        return new ConfigSnapshot(null, null, expireTime);
+    }
+
+    /**
+     * Whether the snapshot is expired and should be loaded again.
+     *
+     * @param now current time in milliseconds
+     * @return true if the snapshot is expired
+     */
+    public boolean isExpired(long now) {
+        return now >= expireTime;
+    }
+
+    /**
+     * Whether the snapshot does not contain any config.
+     *
+     * @return true if there is neither base config nor instance config
+     */
+    public boolean isEmpty() {
+        return configAllInfo == null && instanceConfigs.isEmpty();
+    }
+
+    /**
+     * Get the recent config of the instance.
+     *
+     * @param instanceId instance id
+     * @return the recent config, or null if the config is not defined
+     */
+    public ConfigAllInfo getRecentInfo(String instanceId) {
+        ConfigAllInfo configInstance = instanceId == null ? null : instanceConfigs.get(instanceId);
+        return chooseRecent(configAllInfo, configInstance);
+    }
+
+    /**
+     * Choose the recent one between base config and instance config,
+     * the instance config wins if it is created after the base config is modified.
+     *
+     * @param configAllInfo  base config
+     * @param configInstance instance config
+     * @return the recent config, or null if both are null
+     */
+    public static ConfigAllInfo chooseRecent(ConfigAllInfo configAllInfo, ConfigAllInfo configInstance) {
+        if (configInstance == null) {
+            return configAllInfo;
+        }
+        if (configAllInfo == null) {
+            return configInstance;
+        }
+        return configAllInfo.getGmtModified().before(configInstance.getGmtCreate()) ? configInstance : configAllInfo;
+    }
+}
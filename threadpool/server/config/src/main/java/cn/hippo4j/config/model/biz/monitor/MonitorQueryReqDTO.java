@@ -54,4 +54,9 @@ public class MonitorQueryReqDTO {
      * End time
      */
     private Long endTime;
+
+    /**
+     * Max points, not exceeding the max points of server
+     */
+    private Integer maxPoints;
 }
@@ -0,0 +1,306 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.hippo4j.config.monitor.store;
+
+import cn.hippo4j.common.toolkit.GroupKey;
+import cn.hippo4j.config.mapper.HisRunDataMapper;
+import cn.hippo4j.config.model.HisRunDataInfo;
+import cn.hippo4j.config.model.biz.monitor.MonitorQueryReqDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * <p>Store the running data of thread pool in local columnar segment files, without a database. <br />
+ * Samples are appended to the columns of the active time partition in memory. When the partition window passes,
+ * the partition is sealed into an immutable {@link ColumnarSegment} file with compressed columns,
+ * and is read through a memory mapped buffer afterwards. <br />
+ * Retention drops whole segment files instead of deleting rows, and the segments left in the directory
+ * are loaded again when the server restarts.
+ */
+@Slf4j
+public class ColumnarHisRunDataStore implements HisRunDataStore, DisposableBean {
+
+    private static final int TASK_SUM_RANKING_LIMIT = 8;
+
+    private static final int MAX_RANKING_LIMIT = 4;
+
+    private static final int INITIAL_SERIES_CAPACITY = 64;
+
+    private final Path directory;
+
+    private final long partitionMillis;
+
+    /**
+     * Sequence in the name of segment files, starts from the current time to avoid the names used before restarts
+     */
+    private final AtomicLong segmentSequence = new AtomicLong(System.currentTimeMillis());
+
+    private final List<ColumnarSegment> segments = new CopyOnWriteArrayList<>();
+
+    /**
+     * Partitions swapped out and not yet loaded as segments, they are no longer modified
+     */
+    private final List<Partition> sealingPartitions = new CopyOnWriteArrayList<>();
+
+    private Partition activePartition;
+
+    public ColumnarHisRunDataStore(Path directory, long partitionMillis) throws IOException {
+        this.directory = directory;
+        this.partitionMillis = partitionMillis;
+        Files.createDirectories(directory);
+        loadSegments();
+        this.activePartition = new Partition(partitionStart(System.currentTimeMillis()));
+    }
+
+    @Override
+    public void save(List<HisRunDataInfo> hisRunDataInfos) {
+        rollIfNecessary(System.currentTimeMillis());
+        synchronized (this) {
+            for (HisRunDataInfo each : hisRunDataInfos) {
+                if (each.getTimestamp() != null) {
+                    activePartition.append(each);
+                }
+            }
+        }
+    }
+
+    @Override
+    public List<HisRunDataInfo> query(MonitorQueryReqDTO reqDTO, long startTime, long endTime) {
+        List<HisRunDataInfo> result = new ArrayList<>();
+        for (HisRunDataSeries each : readSeries(reqDTO, startTime, endTime)) {
+            long[] timestamps = each.column(HisRunDataSeries.TIMESTAMP);
+            for (int i = 0; i < each.getSize(); i++) {
+                if (timestamps[i] >= startTime && timestamps[i] <= endTime) {
+                    result.add(each.toInfo(i));
+                }
+            }
+        }
+        result.sort(Comparator.comparing(HisRunDataInfo::getTimestamp));
+        return result;
+    }
+
+    @Override
+    public HisRunDataInfo queryLast(MonitorQueryReqDTO reqDTO, long startTime, long endTime) {
+        HisRunDataSeries lastSeries = null;
+        int lastIndex = -1;
+        long lastTimestamp = Long.MIN_VALUE;
+        for (HisRunDataSeries each : readSeries(reqDTO, startTime, endTime)) {
+            long[] timestamps = each.column(HisRunDataSeries.TIMESTAMP);
+            for (int i = 0; i < each.getSize(); i++) {
+                if (timestamps[i] >= startTime && timestamps[i] <= endTime && timestamps[i] >= lastTimestamp) {
+                    lastSeries = each;
+                    lastIndex = i;
+                    lastTimestamp = timestamps[i];
+                }
+            }
+        }
+        return lastSeries == null ? null : lastSeries.toInfo(lastIndex);
+    }
+
+    @Override
+    public List<HisRunDataMapper.ThreadPoolTaskRanking> queryThreadPoolTaskSumRanking(long startTime, long endTime) {
+        return ranking(startTime, endTime, TASK_SUM_RANKING_LIMIT);
+    }
+
+    @Override
+    public List<HisRunDataMapper.ThreadPoolTaskRanking> queryThreadPoolMaxRanking(long startTime, long endTime) {
+        return ranking(startTime, endTime, MAX_RANKING_LIMIT);
+    }
+
+    @Override
+    public void cleanBefore(long timestamp) {
+        rollIfNecessary(System.currentTimeMillis());
+        for (ColumnarSegment each : segments) {
+            if (each.getMaxTimestamp() <= timestamp) {
+                segments.remove(each);
+                try {
+                    each.delete();
+                } catch (IOException ex) {
+                    log.warn("Failed to delete the segment file of history running data: {}", each.getPath(), ex);
+                }
+            }
+        }
+        // partitions failed to write are kept in memory until they expire
+        sealingPartitions.removeIf(each -> each.maxTimestamp() <= timestamp);
+    }
+
+    @Override
+    public void destroy() {
+        Partition partition;
+        synchronized (this) {
+            partition = activePartition;
+            activePartition = new Partition(partitionStart(System.currentTimeMillis()));
+            partition.prepareSeal();
+            sealingPartitions.add(partition);
+        }
+        seal(partition);
+    }
+
+    private void rollIfNecessary(long now) {
+        Partition sealed = null;
+        synchronized (this) {
+            if (now >= activePartition.start + partitionMillis) {
+                sealed = activePartition;
+                activePartition = new Partition(partitionStart(now));
+                sealed.prepareSeal();
+                sealingPartitions.add(sealed);
+            }
+        }
+        if (sealed != null) {
+            seal(sealed);
+        }
+    }
+
+    private void seal(Partition partition) {
+        if (partition.series.isEmpty()) {
+            sealingPartitions.remove(partition);
+            return;
+        }
+        Path path = directory.resolve(partition.start + "-" + segmentSequence.incrementAndGet() + ColumnarSegment.FILE_SUFFIX);
+        try {
+            segments.add(ColumnarSegment.write(path, partition.series.values()));
+            sealingPartitions.remove(partition);
+        } catch (IOException ex) {
+            log.error("Failed to write the segment file of history running data: {}", path, ex);
+        }
+    }
+
+    private void loadSegments() throws IOException {
+        try (Stream<Path> paths = Files.list(directory)) {
+            for (Path each : paths.sorted().collect(Collectors.toList())) {
+                String fileName = each.getFileName().toString();
+                if (!fileName.endsWith(ColumnarSegment.FILE_SUFFIX)) {
+                    // temporary files left by an interrupted write
+                    Files.deleteIfExists(each);
+                    continue;
+                }
+                try {
+                    segments.add(ColumnarSegment.open(each));
+                } catch (IOException ex) {
+                    log.warn("Skip the broken segment file of history running data: {}", each, ex);
+                }
+            }
+        }
+    }
+
+    private List<HisRunDataSeries> readSeries(MonitorQueryReqDTO reqDTO, long startTime, long endTime) {
+        List<HisRunDataSeries> result = new ArrayList<>();
+        String seriesKey = seriesKey(reqDTO.getTenantId(), reqDTO.getItemId(), reqDTO.getTpId(), reqDTO.getInstanceId());
+        for (ColumnarSegment each : segments) {
+            if (each.overlaps(startTime, endTime)) {
+                HisRunDataSeries series = each.read(reqDTO.getTenantId(), reqDTO.getItemId(), reqDTO.getTpId(), reqDTO.getInstanceId(), startTime, endTime);
+                if (series != null) {
+                    result.add(series);
+                }
+            }
+        }
+        for (Partition each : sealingPartitions) {
+            HisRunDataSeries series = each.series.get(seriesKey);
+            if (series != null) {
+                result.add(series);
+            }
+        }
+        synchronized (this) {
+            HisRunDataSeries series = activePartition.series.get(seriesKey);
+            if (series != null) {
+                result.add(series.copy());
+            }
+        }
+        return result;
+    }
+
+    private List<HisRunDataMapper.ThreadPoolTaskRanking> ranking(long startTime, long endTime, int limit) {
+        List<HisRunDataSeries> allSeries = new ArrayList<>();
+        for (ColumnarSegment each : segments) {
+            if (each.overlaps(startTime, endTime)) {
+                allSeries.addAll(each.readAll(startTime, endTime));
+            }
+        }
+        for (Partition each : sealingPartitions) {
+            allSeries.addAll(each.series.values());
+        }
+        synchronized (this) {
+            activePartition.series.values().forEach(each -> allSeries.add(each.copy()));
+        }
+        ThreadPoolTaskRankingCollector collector = new ThreadPoolTaskRankingCollector();
+        for (HisRunDataSeries each : allSeries) {
+            long[] timestamps = each.column(HisRunDataSeries.TIMESTAMP);
+            for (int i = 0; i < each.getSize(); i++) {
+                if (timestamps[i] >= startTime && timestamps[i] <= endTime) {
+                    collector.collect(each.getTenantId(), each.getItemId(), each.getTpId(),
+                            each.column(HisRunDataSeries.COMPLETED_TASK_COUNT)[i],
+                            each.column(HisRunDataSeries.QUEUE_SIZE)[i],
+                            each.column(HisRunDataSeries.REJECT_COUNT)[i]);
+                }
+            }
+        }
+        return collector.top(limit);
+    }
+
+    private long partitionStart(long timestamp) {
+        return timestamp - Math.floorMod(timestamp, partitionMillis);
+    }
+
+    private static String seriesKey(String tenantId, String itemId, String tpId, String instanceId) {
+        return GroupKey.getKey(tpId, itemId, tenantId, instanceId);
+    }
+
+    /**
+     * Time partition of the running data in memory, one series per thread pool instance.
+     */
+    private static final class Partition {
+
+        private final long start;
+
+        private final Map<String, HisRunDataSeries> series = new LinkedHashMap<>();
+
+        Partition(long start) {
+            this.start = start;
+        }
+
+        void append(HisRunDataInfo info) {
+            series.computeIfAbsent(seriesKey(info.getTenantId(), info.getItemId(), info.getTpId(), info.getInstanceId()),
+                    key -> new HisRunDataSeries(info.getTenantId(), info.getItemId(), info.getTpId(), info.getInstanceId(), INITIAL_SERIES_CAPACITY))
+                    .append(info);
+        }
+
+        /**
+         * Sort the series before the partition is published to the readers of sealing partitions.
+         */
+        void prepareSeal() {
+            series.values().forEach(HisRunDataSeries::sortByTimestamp);
+        }
+
+        long maxTimestamp() {
+            return series.values().stream().mapToLong(HisRunDataSeries::maxTimestamp).max().orElse(Long.MIN_VALUE);
+        }
+    }
+}
@@ -0,0 +1,303 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.hippo4j.config.monitor.store;
+
+import lombok.Getter;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * <p>An immutable segment file of the running data of a time partition, read through a memory mapped buffer.
+ * <pre>
+ * data   : for each series, the columns encoded by {@link LongColumnCodec}
+ * index  : series count, for each series
+ *          tenant id, item id, thread pool id, instance id, sample count,
+ *          min timestamp, max timestamp, offset of data, byte length of each column
+ * footer : offset of index (8 bytes), magic (4 bytes)
+ * </pre>
+ * The segment is written to a temporary file and moved to its name at last,
+ * so a segment file is either complete or absent.
+ */
+final class ColumnarSegment {
+
+    /**
+     * Suffix of segment file
+     */
+    static final String FILE_SUFFIX = ".seg";
+
+    private static final String TEMP_FILE_SUFFIX = ".tmp";
+
+    private static final int MAGIC = 0x48524453;
+
+    private static final int FOOTER_LENGTH = 12;
+
+    @Getter
+    private final Path path;
+
+    @Getter
+    private final long minTimestamp;
+
+    @Getter
+    private final long maxTimestamp;
+
+    private final List<Entry> entries;
+
+    private volatile MappedByteBuffer buffer;
+
+    private ColumnarSegment(Path path, MappedByteBuffer buffer, List<Entry> entries) {
+        this.path = path;
+        this.buffer = buffer;
+        this.entries = entries;
+        long min = Long.MAX_VALUE;
+        long max = Long.MIN_VALUE;
+        for (Entry each : entries) {
+            min = Math.min(min, each.minTimestamp);
+            max = Math.max(max, each.maxTimestamp);
+        }
+        this.minTimestamp = min;
+        this.maxTimestamp = max;
+    }
+
+    /**
+     * Write the series to a segment file and open it.
+     *
+     * @param path   path of segment file
+     * @param series series, sorted by timestamp
+     * @return segment
+     * @throws IOException io exception
+     */
+    static ColumnarSegment write(Path path, Collection<HisRunDataSeries> series) throws IOException {
+        Path tempPath = path.resolveSibling(path.getFileName() + TEMP_FILE_SUFFIX);
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempPath)))) {
+            List<int[]> columnLengths = new ArrayList<>(series.size());
+            List<Long> offsets = new ArrayList<>(series.size());
+            for (HisRunDataSeries each : series) {
+                offsets.add((long) out.size());
+                int[] lengths = new int[HisRunDataSeries.COLUMN_COUNT];
+                for (int i = 0; i < HisRunDataSeries.COLUMN_COUNT; i++) {
+                    byte[] encoded = LongColumnCodec.encode(each.column(i), each.getSize());
+                    lengths[i] = encoded.length;
+                    out.write(encoded);
+                }
+                columnLengths.add(lengths);
+            }
+            long indexOffset = out.size();
+            out.writeInt(series.size());
+            int index = 0;
+            for (HisRunDataSeries each : series) {
+                writeString(out, each.getTenantId());
+                writeString(out, each.getItemId());
+                writeString(out, each.getTpId());
+                writeString(out, each.getInstanceId());
+                out.writeInt(each.getSize());
+                out.writeLong(each.minTimestamp());
+                out.writeLong(each.maxTimestamp());
+                out.writeLong(offsets.get(index));
+                for (int length : columnLengths.get(index)) {
+                    out.writeInt(length);
+                }
+                index++;
+            }
+            out.writeLong(indexOffset);
+            out.writeInt(MAGIC);
+        }
+        Files.move(tempPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return open(path);
+    }
+
+    /**
+     * Open a segment file.
+     *
+     * @param path path of segment file
+     * @return segment
+     * @throws IOException io exception, or the file is not a complete segment
+     */
+    static ColumnarSegment open(Path path) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        int limit = buffer.limit();
+        if (limit < FOOTER_LENGTH || buffer.getInt(limit - 4) != MAGIC) {
+            throw new IOException("Not a segment file: " + path);
+        }
+        long indexOffset = buffer.getLong(limit - FOOTER_LENGTH);
+        if (indexOffset < 0 || indexOffset > limit - FOOTER_LENGTH) {
+            throw new IOException("Corrupted segment file: " + path);
+        }
+        ByteBuffer index = buffer.duplicate();
+        index.position((int) indexOffset);
+        int count = index.getInt();
+        List<Entry> entries = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Entry entry = new Entry();
+            entry.tenantId = readString(index);
+            entry.itemId = readString(index);
+            entry.tpId = readString(index);
+            entry.instanceId = readString(index);
+            entry.size = index.getInt();
+            entry.minTimestamp = index.getLong();
+            entry.maxTimestamp = index.getLong();
+            entry.offset = index.getLong();
+            entry.columnLengths = new int[HisRunDataSeries.COLUMN_COUNT];
+            for (int j = 0; j < HisRunDataSeries.COLUMN_COUNT; j++) {
+                entry.columnLengths[j] = index.getInt();
+            }
+            entries.add(entry);
+        }
+        return new ColumnarSegment(path, buffer, Collections.unmodifiableList(entries));
+    }
+
+    /**
+     * Whether the segment may contain samples between the time range.
+     *
+     * @param startTime start timestamp, inclusive
+     * @param endTime   end timestamp, inclusive
+     * @return true if overlaps
+     */
+    boolean overlaps(long startTime, long endTime) {
+        return !entries.isEmpty() && minTimestamp <= endTime && maxTimestamp >= startTime;
+    }
+
+    /**
+     * Read the series of a thread pool instance.
+     *
+     * @param tenantId   tenant id
+     * @param itemId     item id
+     * @param tpId       thread pool id
+     * @param instanceId instance id
+     * @param startTime  start timestamp, inclusive
+     * @param endTime    end timestamp, inclusive
+     * @return series, or null if absent or the segment is deleted
+     */
+    HisRunDataSeries read(String tenantId, String itemId, String tpId, String instanceId, long startTime, long endTime) {
+        for (Entry each : entries) {
+            if (each.matches(tenantId, itemId, tpId, instanceId) && each.overlaps(startTime, endTime)) {
+                return decode(each);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Read all series between the time range, empty if the segment is deleted.
+     *
+     * @param startTime start timestamp, inclusive
+     * @param endTime   end timestamp, inclusive
+     * @return series
+     */
+    List<HisRunDataSeries> readAll(long startTime, long endTime) {
+        List<HisRunDataSeries> result = new ArrayList<>();
+        for (Entry each : entries) {
+            if (!each.overlaps(startTime, endTime)) {
+                continue;
+            }
+            HisRunDataSeries series = decode(each);
+            if (series != null) {
+                result.add(series);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Release the mapped buffer and delete the segment file.
+     *
+     * @throws IOException io exception
+     */
+    void delete() throws IOException {
+        // the mapping is released when the buffer is garbage collected
+        buffer = null;
+        Files.deleteIfExists(path);
+    }
+
+    private HisRunDataSeries decode(Entry entry) {
+        MappedByteBuffer current = buffer;
+        if (current == null) {
+            return null;
+        }
+        ByteBuffer column = current.duplicate();
+        long[][] columns = new long[HisRunDataSeries.COLUMN_COUNT][];
+        long position = entry.offset;
+        for (int i = 0; i < HisRunDataSeries.COLUMN_COUNT; i++) {
+            column.position((int) position);
+            columns[i] = LongColumnCodec.decode(column, entry.size);
+            position += entry.columnLengths[i];
+        }
+        return new HisRunDataSeries(entry.tenantId, entry.itemId, entry.tpId, entry.instanceId, columns, entry.size);
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value == null ? new byte[0] : value.getBytes(StandardCharsets.UTF_8);
+        out.writeShort(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getShort() & 0xFFFF];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Index entry of a series.
+     */
+    private static final class Entry {
+
+        private String tenantId;
+
+        private String itemId;
+
+        private String tpId;
+
+        private String instanceId;
+
+        private int size;
+
+        private long minTimestamp;
+
+        private long maxTimestamp;
+
+        private long offset;
+
+        private int[] columnLengths;
+
+        boolean matches(String tenantId, String itemId, String tpId, String instanceId) {
+            return this.tpId.equals(tpId) && this.instanceId.equals(instanceId)
+                    && this.itemId.equals(itemId) && this.tenantId.equals(tenantId);
+        }
+
+        boolean overlaps(long startTime, long endTime) {
+            return size > 0 && minTimestamp <= endTime && maxTimestamp >= startTime;
+        }
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.hippo4j.config.monitor.store;
+
+import cn.hippo4j.config.mapper.HisRunDataMapper;
+import cn.hippo4j.config.model.HisRunDataInfo;
+import cn.hippo4j.config.model.biz.monitor.MonitorQueryReqDTO;
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.toolkit.Wrappers;
+import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+
+import java.util.List;
+
+/**
+ * Store the running data of thread pool in the table his_run_data, one row per sample.
+ */
+public class DatabaseHisRunDataStore extends ServiceImpl<HisRunDataMapper, HisRunDataInfo> implements HisRunDataStore {
+
+    @Override
+    public void save(List<HisRunDataInfo> hisRunDataInfos) {
+        this.saveBatch(hisRunDataInfos);
+    }
+
+    @Override
+    public List<HisRunDataInfo> query(MonitorQueryReqDTO reqDTO, long startTime, long endTime) {
+        return this.lambdaQuery()
+                .eq(HisRunDataInfo::getTenantId, reqDTO.getTenantId())
+                .eq(HisRunDataInfo::getItemId, reqDTO.getItemId())
+                .eq(HisRunDataInfo::getTpId, reqDTO.getTpId())
+                .eq(HisRunDataInfo::getInstanceId, reqDTO.getInstanceId())
+                .between(HisRunDataInfo::getTimestamp, startTime, endTime)
+                .orderByAsc(HisRunDataInfo::getTimestamp)
+                .list();
+    }
+
+    @Override
+    public HisRunDataInfo queryLast(MonitorQueryReqDTO reqDTO, long startTime, long endTime) {
+        return this.lambdaQuery()
+                .eq(HisRunDataInfo::getTenantId, reqDTO.getTenantId())
+                .eq(HisRunDataInfo::getItemId, reqDTO.getItemId())
+                .eq(HisRunDataInfo::getTpId, reqDTO.getTpId())
+                .eq(HisRunDataInfo::getInstanceId, reqDTO.getInstanceId())
+                .orderByDesc(HisRunDataInfo::getTimestamp)
+                .between(HisRunDataInfo::getTimestamp, startTime, endTime)
+                .last("LIMIT 1")
+                .one();
+    }
+
+    @Override
+    public List<HisRunDataMapper.ThreadPoolTaskRanking> queryThreadPoolTaskSumRanking(long startTime, long endTime) {
+        return baseMapper.queryThreadPoolTaskSumRanking(startTime, endTime);
+    }
+
+    @Override
+    public List<HisRunDataMapper.ThreadPoolTaskRanking> queryThreadPoolMaxRanking(long startTime, long endTime) {
+        return baseMapper.queryThreadPoolMaxRanking(startTime, endTime);
+    }
+
+    @Override
+    public void cleanBefore(long timestamp) {
+        LambdaQueryWrapper<HisRunDataInfo> queryWrapper = Wrappers.lambdaQuery(HisRunDataInfo.class)
+                .le(HisRunDataInfo::getTimestamp, timestamp);
+        this.remove(queryWrapper);
+    }
+}
@@ -0,0 +1,253 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.hippo4j.config.monitor.store;
+
+import cn.hippo4j.common.toolkit.DownsampleUtil;
+import cn.hippo4j.common.toolkit.GroupKey;
+import cn.hippo4j.config.mapper.HisRunDataMapper;
+import cn.hippo4j.config.model.HisRunDataInfo;
+import cn.hippo4j.config.model.biz.monitor.MonitorQueryReqDTO;
+import lombok.RequiredArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * <p>Maintain the {@link RollupTier} rollups of the running data incrementally as data arrives,
+ * and bound the points of history queries. <br />
+ * A query is served by the finest resolution whose count of points fits the max points:
+ * the raw samples of {@link HisRunDataStore} for short windows, otherwise the rollups in memory,
+ * which do not read the store at all. Points still exceeding the max points are downsampled by
+ * {@link DownsampleUtil#largestTriangleThreeBuckets}. <br />
+ * Dashboard rankings are served by the one minute rollups as well, at the granularity of their buckets. <br />
+ * Rollups only cover the data received since the server started,
+ * windows starting earlier fall back to the downsampled raw samples.
+ */
+@RequiredArgsConstructor
+public class HisRunDataRollup {
+
+    /**
+     * Default collect interval of clients, to estimate the count of raw samples
+     */
+    private static final long RAW_SAMPLE_INTERVAL = 5000L;
+
+    private static final int TASK_SUM_RANKING_LIMIT = 8;
+
+    private static final int MAX_RANKING_LIMIT = 4;
+
+    private static final List<ToDoubleFunction<HisRunDataInfo>> CHART_VALUES = Arrays.asList(
+            each -> valueOf(each.getPoolSize()),
+            each -> valueOf(each.getActiveSize()),
+            each -> valueOf(each.getQueueSize()),
+            each -> valueOf(each.getCompletedTaskCount()),
+            each -> valueOf(each.getRejectCount()));
+
+    private final HisRunDataStore hisRunDataStore;
+
+    private final long coverageStart = System.currentTimeMillis();
+
+    private final Map<String, SeriesRollup> rollups = new ConcurrentHashMap<>();
+
+    /**
+     * Add the running data to the rollups.
+     *
+     * @param hisRunDataInfos running data
+     */
+    public void accept(List<HisRunDataInfo> hisRunDataInfos) {
+        for (HisRunDataInfo each : hisRunDataInfos) {
+            if (each.getTimestamp() == null) {
+                continue;
+            }
+            // added inside compute, so that a series is never removed by cleanBefore concurrently
+            rollups.compute(GroupKey.getKey(each.getTpId(), each.getItemId(), each.getTenantId(), each.getInstanceId()), (key, rollup) -> {
+                SeriesRollup actual = rollup == null ? new SeriesRollup(each.getTenantId(), each.getItemId(), each.getTpId(), each.getInstanceId()) : rollup;
+                actual.add(each);
+                return actual;
+            });
+        }
+    }
+
+    /**
+     * Query the running data of a thread pool instance between the time range, ordered by timestamp asc.
+     *
+     * @param reqDTO    tenant, item, thread pool and instance id
+     * @param startTime start timestamp, inclusive
+     * @param endTime   end timestamp, inclusive
+     * @param maxPoints max count of points
+     * @return running data not exceeding the max points
+     */
+    public List<HisRunDataInfo> query(MonitorQueryReqDTO reqDTO, long startTime, long endTime, int maxPoints) {
+        RollupTier tier = chooseTier(startTime, endTime, maxPoints);
+        List<HisRunDataInfo> points;
+        if (tier == null) {
+            points = hisRunDataStore.query(reqDTO, startTime, endTime);
+        } else {
+            SeriesRollup rollup = rollups.get(GroupKey.getKey(reqDTO.getTpId(), reqDTO.getItemId(), reqDTO.getTenantId(), reqDTO.getInstanceId()));
+            points = rollup == null ? new ArrayList<>() : rollup.query(tier, startTime, endTime);
+        }
+        return DownsampleUtil.largestTriangleThreeBuckets(points, maxPoints, HisRunDataInfo::getTimestamp, CHART_VALUES);
+    }
+
+    /**
+     * Query the top 8 thread pools ordered by max completed task count.
+     *
+     * @param startTime start timestamp, inclusive
+     * @param endTime   end timestamp, inclusive
+     * @return ranking
+     * @see HisRunDataStore#queryThreadPoolTaskSumRanking
+     */
+    public List<HisRunDataMapper.ThreadPoolTaskRanking> queryThreadPoolTaskSumRanking(long startTime, long endTime) {
+        if (startTime < coverageStart) {
+            return hisRunDataStore.queryThreadPoolTaskSumRanking(startTime, endTime);
+        }
+        return ranking(startTime, endTime, TASK_SUM_RANKING_LIMIT);
+    }
+
+    /**
+     * Query the top 4 thread pools ordered by max completed task count, with max queue size and reject count.
+     *
+     * @param startTime start timestamp, inclusive
+     * @param endTime   end timestamp, inclusive
+     * @return ranking
+     * @see HisRunDataStore#queryThreadPoolMaxRanking
+     */
+    public List<HisRunDataMapper.ThreadPoolTaskRanking> queryThreadPoolMaxRanking(long startTime, long endTime) {
+        if (startTime < coverageStart) {
+            return hisRunDataStore.queryThreadPoolMaxRanking(startTime, endTime);
+        }
+        return ranking(startTime, endTime, MAX_RANKING_LIMIT);
+    }
+
+    /**
+     * Clean up the buckets ending not later than the timestamp.
+     *
+     * @param timestamp timestamp
+     */
+    public void cleanBefore(long timestamp) {
+        for (String each : rollups.keySet()) {
+            rollups.computeIfPresent(each, (key, rollup) -> rollup.cleanBefore(timestamp) ? null : rollup);
+        }
+    }
+
+    private RollupTier chooseTier(long startTime, long endTime, int maxPoints) {
+        long window = endTime - startTime;
+        if (maxPoints <= 0 || window / RAW_SAMPLE_INTERVAL <= maxPoints || startTime < coverageStart) {
+            return null;
+        }
+        for (RollupTier each : RollupTier.values()) {
+            if (window / each.getBucketMillis() <= maxPoints) {
+                return each;
+            }
+        }
+        return RollupTier.values()[RollupTier.values().length - 1];
+    }
+
+    private List<HisRunDataMapper.ThreadPoolTaskRanking> ranking(long startTime, long endTime, int limit) {
+        ThreadPoolTaskRankingCollector collector = new ThreadPoolTaskRankingCollector();
+        for (SeriesRollup each : rollups.values()) {
+            for (RollupBucket bucket : each.buckets(RollupTier.ONE_MINUTE, startTime, endTime)) {
+                collector.collect(each.tenantId, each.itemId, each.tpId,
+                        valueOrNull(bucket.get(HisRunDataSeries.COMPLETED_TASK_COUNT, RollupBucket.Aggregation.MAX)),
+                        valueOrNull(bucket.get(HisRunDataSeries.QUEUE_SIZE, RollupBucket.Aggregation.MAX)),
+                        valueOrNull(bucket.get(HisRunDataSeries.REJECT_COUNT, RollupBucket.Aggregation.MAX)));
+            }
+        }
+        return collector.top(limit);
+    }
+
+    private static long valueOrNull(Long value) {
+        return value == null ? HisRunDataSeries.NULL_VALUE : value;
+    }
+
+    private static double valueOf(Long value) {
+        return value == null ? 0D : value;
+    }
+
+    /**
+     * Rollups of a thread pool instance.
+     */
+    @RequiredArgsConstructor
+    private static final class SeriesRollup {
+
+        private final String tenantId;
+
+        private final String itemId;
+
+        private final String tpId;
+
+        private final String instanceId;
+
+        private final Map<RollupTier, NavigableMap<Long, RollupBucket>> tiers = new EnumMap<>(RollupTier.class);
+
+        synchronized void add(HisRunDataInfo info) {
+            for (RollupTier each : RollupTier.values()) {
+                long bucketStart = each.bucketStart(info.getTimestamp());
+                tiers.computeIfAbsent(each, key -> new TreeMap<>())
+                        .computeIfAbsent(bucketStart, RollupBucket::new)
+                        .add(info);
+            }
+        }
+
+        /**
+         * Get the buckets overlapping the time range.
+         */
+        synchronized List<RollupBucket> buckets(RollupTier tier, long startTime, long endTime) {
+            NavigableMap<Long, RollupBucket> buckets = tiers.get(tier);
+            if (buckets == null) {
+                return new ArrayList<>();
+            }
+            return new ArrayList<>(buckets.subMap(tier.bucketStart(startTime), true, endTime, true).values());
+        }
+
+        /**
+         * Get the buckets starting between the time range as points of chart.
+         */
+        List<HisRunDataInfo> query(RollupTier tier, long startTime, long endTime) {
+            List<HisRunDataInfo> points = new ArrayList<>();
+            for (RollupBucket each : buckets(tier, startTime, endTime)) {
+                if (each.getStart() < startTime) {
+                    continue;
+                }
+                HisRunDataInfo info = new HisRunDataInfo();
+                info.setTenantId(tenantId);
+                info.setItemId(itemId);
+                info.setTpId(tpId);
+                info.setInstanceId(instanceId);
+                points.add(each.fillChartPoint(info));
+            }
+            return points;
+        }
+
+        /**
+         * Clean up the buckets ending not later than the timestamp.
+         *
+         * @return true if all buckets are cleaned up
+         */
+        synchronized boolean cleanBefore(long timestamp) {
+            tiers.forEach((tier, buckets) -> buckets.headMap(timestamp - tier.getBucketMillis(), true).clear());
+            return tiers.values().stream().allMatch(Map::isEmpty);
+        }
+    }
+}
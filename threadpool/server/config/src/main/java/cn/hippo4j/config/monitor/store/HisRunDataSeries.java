@@ -0,0 +1,269 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.hippo4j.config.monitor.store;
+
+import cn.hippo4j.config.model.HisRunDataInfo;
+import lombok.Getter;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Columns of the running data of a thread pool instance, one long array per metric.
+ * A null metric is kept as {@link #NULL_VALUE}.
+ */
+final class HisRunDataSeries {
+
+    /**
+     * Sentinel of null metric
+     */
+    static final long NULL_VALUE = Long.MIN_VALUE;
+
+    /**
+     * Index of the timestamp column
+     */
+    static final int TIMESTAMP = 0;
+
+    /**
+     * Index of the current load column
+     */
+    static final int CURRENT_LOAD = 1;
+
+    /**
+     * Index of the peak load column
+     */
+    static final int PEAK_LOAD = 2;
+
+    /**
+     * Index of the pool size column
+     */
+    static final int POOL_SIZE = 3;
+
+    /**
+     * Index of the active size column
+     */
+    static final int ACTIVE_SIZE = 4;
+
+    /**
+     * Index of the queue capacity column
+     */
+    static final int QUEUE_CAPACITY = 5;
+
+    /**
+     * Index of the queue size column
+     */
+    static final int QUEUE_SIZE = 6;
+
+    /**
+     * Index of the queue remaining capacity column
+     */
+    static final int QUEUE_REMAINING_CAPACITY = 7;
+
+    /**
+     * Index of the completed task count column
+     */
+    static final int COMPLETED_TASK_COUNT = 8;
+
+    /**
+     * Index of the reject count column
+     */
+    static final int REJECT_COUNT = 9;
+
+    private static final List<Function<HisRunDataInfo, Long>> GETTERS = Arrays.asList(
+            HisRunDataInfo::getTimestamp,
+            HisRunDataInfo::getCurrentLoad,
+            HisRunDataInfo::getPeakLoad,
+            HisRunDataInfo::getPoolSize,
+            HisRunDataInfo::getActiveSize,
+            HisRunDataInfo::getQueueCapacity,
+            HisRunDataInfo::getQueueSize,
+            HisRunDataInfo::getQueueRemainingCapacity,
+            HisRunDataInfo::getCompletedTaskCount,
+            HisRunDataInfo::getRejectCount);
+
+    private static final List<BiConsumer<HisRunDataInfo, Long>> SETTERS = Arrays.asList(
+            HisRunDataInfo::setTimestamp,
+            HisRunDataInfo::setCurrentLoad,
+            HisRunDataInfo::setPeakLoad,
+            HisRunDataInfo::setPoolSize,
+            HisRunDataInfo::setActiveSize,
+            HisRunDataInfo::setQueueCapacity,
+            HisRunDataInfo::setQueueSize,
+            HisRunDataInfo::setQueueRemainingCapacity,
+            HisRunDataInfo::setCompletedTaskCount,
+            HisRunDataInfo::setRejectCount);
+
+    /**
+     * Count of columns
+     */
+    static final int COLUMN_COUNT = GETTERS.size();
+
+    /**
+     * Get the value of a column from the running data.
+     *
+     * @param info   running data
+     * @param column index of column
+     * @return value
+     */
+    static Long getValue(HisRunDataInfo info, int column) {
+        return GETTERS.get(column).apply(info);
+    }
+
+    /**
+     * Set the value of a column to the running data.
+     *
+     * @param info   running data
+     * @param column index of column
+     * @param value  value
+     */
+    static void setValue(HisRunDataInfo info, int column, Long value) {
+        SETTERS.get(column).accept(info, value);
+    }
+
+    @Getter
+    private final String tenantId;
+
+    @Getter
+    private final String itemId;
+
+    @Getter
+    private final String tpId;
+
+    @Getter
+    private final String instanceId;
+
+    private final long[][] columns;
+
+    @Getter
+    private int size;
+
+    private boolean sorted = true;
+
+    HisRunDataSeries(String tenantId, String itemId, String tpId, String instanceId, int initialCapacity) {
+        this(tenantId, itemId, tpId, instanceId, new long[COLUMN_COUNT][Math.max(1, initialCapacity)], 0);
+    }
+
+    HisRunDataSeries(String tenantId, String itemId, String tpId, String instanceId, long[][] columns, int size) {
+        this.tenantId = tenantId;
+        this.itemId = itemId;
+        this.tpId = tpId;
+        this.instanceId = instanceId;
+        this.columns = columns;
+        this.size = size;
+    }
+
+    /**
+     * Append a sample, the timestamp of sample must not be null.
+     *
+     * @param info sample
+     */
+    void append(HisRunDataInfo info) {
+        if (size == columns[TIMESTAMP].length) {
+            for (int i = 0; i < COLUMN_COUNT; i++) {
+                columns[i] = Arrays.copyOf(columns[i], size << 1);
+            }
+        }
+        for (int i = 0; i < COLUMN_COUNT; i++) {
+            Long value = GETTERS.get(i).apply(info);
+            columns[i][size] = value == null ? NULL_VALUE : value;
+        }
+        if (size > 0 && columns[TIMESTAMP][size] < columns[TIMESTAMP][size - 1]) {
+            sorted = false;
+        }
+        size++;
+    }
+
+    /**
+     * Sort the samples by timestamp, samples reported late by the clients are rare.
+     */
+    void sortByTimestamp() {
+        if (sorted) {
+            return;
+        }
+        long[] timestamps = columns[TIMESTAMP];
+        Integer[] order = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Long.compare(timestamps[a], timestamps[b]));
+        for (int c = 0; c < COLUMN_COUNT; c++) {
+            long[] sortedColumn = new long[columns[c].length];
+            for (int i = 0; i < size; i++) {
+                sortedColumn[i] = columns[c][order[i]];
+            }
+            columns[c] = sortedColumn;
+        }
+        sorted = true;
+    }
+
+    long[] column(int index) {
+        return columns[index];
+    }
+
+    long minTimestamp() {
+        long min = Long.MAX_VALUE;
+        for (int i = 0; i < size; i++) {
+            min = Math.min(min, columns[TIMESTAMP][i]);
+        }
+        return min;
+    }
+
+    long maxTimestamp() {
+        long max = Long.MIN_VALUE;
+        for (int i = 0; i < size; i++) {
+            max = Math.max(max, columns[TIMESTAMP][i]);
+        }
+        return max;
+    }
+
+    /**
+     * Copy the samples, the copy is not affected by the following appends.
+     *
+     * @return copy
+     */
+    HisRunDataSeries copy() {
+        long[][] copied = new long[COLUMN_COUNT][];
+        for (int i = 0; i < COLUMN_COUNT; i++) {
+            copied[i] = Arrays.copyOf(columns[i], size);
+        }
+        HisRunDataSeries series = new HisRunDataSeries(tenantId, itemId, tpId, instanceId, copied, size);
+        series.sorted = sorted;
+        return series;
+    }
+
+    /**
+     * Convert the sample at the index to {@link HisRunDataInfo}.
+     *
+     * @param index index of sample
+     * @return running data
+     */
+    HisRunDataInfo toInfo(int index) {
+        HisRunDataInfo info = new HisRunDataInfo();
+        info.setTenantId(tenantId);
+        info.setItemId(itemId);
+        info.setTpId(tpId);
+        info.setInstanceId(instanceId);
+        for (int i = 0; i < COLUMN_COUNT; i++) {
+            long value = columns[i][index];
+            SETTERS.get(i).accept(info, value == NULL_VALUE ? null : value);
+        }
+        return info;
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.hippo4j.config.monitor.store;
+
+import cn.hippo4j.config.mapper.HisRunDataMapper;
+import cn.hippo4j.config.model.HisRunDataInfo;
+import cn.hippo4j.config.model.biz.monitor.MonitorQueryReqDTO;
+
+import java.util.List;
+
+/**
+ * Storage of the historical running data of thread pool.
+ *
+ * @see DatabaseHisRunDataStore
+ * @see ColumnarHisRunDataStore
+ */
+public interface HisRunDataStore {
+
+    /**
+     * Save the running data.
+     *
+     * @param hisRunDataInfos running data
+     */
+    void save(List<HisRunDataInfo> hisRunDataInfos);
+
+    /**
+     * Query the running data of a thread pool instance between the time range, ordered by timestamp asc.
+     *
+     * @param reqDTO    tenant, item, thread pool and instance id
+     * @param startTime start timestamp, inclusive
+     * @param endTime   end timestamp, inclusive
+     * @return running data
+     */
+    List<HisRunDataInfo> query(MonitorQueryReqDTO reqDTO, long startTime, long endTime);
+
+    /**
+     * Query the latest running data of a thread pool instance between the time range.
+     *
+     * @param reqDTO    tenant, item, thread pool and instance id
+     * @param startTime start timestamp, inclusive
+     * @param endTime   end timestamp, inclusive
+     * @return the latest running data, or null if absent
+     */
+    HisRunDataInfo queryLast(MonitorQueryReqDTO reqDTO, long startTime, long endTime);
+
+    /**
+     * Query the top 8 thread pools ordered by max completed task count.
+     *
+     * @param startTime start timestamp, inclusive
+     * @param endTime   end timestamp, inclusive
+     * @return ranking
+     */
+    List<HisRunDataMapper.ThreadPoolTaskRanking> queryThreadPoolTaskSumRanking(long startTime, long endTime);
+
+    /**
+     * Query the top 4 thread pools ordered by max completed task count, with max queue size and reject count.
+     *
+     * @param startTime start timestamp, inclusive
+     * @param endTime   end timestamp, inclusive
+     * @return ranking
+     */
+    List<HisRunDataMapper.ThreadPoolTaskRanking> queryThreadPoolMaxRanking(long startTime, long endTime);
+
+    /**
+     * Clean up the running data not later than the timestamp.
+     *
+     * @param timestamp timestamp
+     */
+    void cleanBefore(long timestamp);
+}
@@ -0,0 +1,188 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.hippo4j.config.monitor.store;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * <p>Compress a column of long values with delta-of-delta encoding, as the timestamps of Gorilla. <br />
+ * The first value is written in 64 bits, each following value is written as the zigzag of
+ * the difference between its delta and the previous delta, in the smallest bucket of:
+ * <pre>
+ * '0'                      delta of delta is 0
+ * '10'    + 7 bits
+ * '110'   + 9 bits
+ * '1110'  + 12 bits
+ * '11110' + 32 bits
+ * '11111' + 64 bits
+ * </pre>
+ * Timestamps sampled at a fixed period and the slowly changing metrics of thread pool
+ * mostly take a single bit. All arithmetic wraps around, so any long value, including the null
+ * sentinel of {@link ColumnarSegment}, is restored exactly.
+ */
+final class LongColumnCodec {
+
+    private static final int[] BUCKET_BITS = {7, 9, 12, 32};
+
+    private LongColumnCodec() {
+    }
+
+    /**
+     * Encode the first count values.
+     *
+     * @param values values
+     * @param count  count of values to encode
+     * @return encoded bytes
+     */
+    static byte[] encode(long[] values, int count) {
+        BitWriter writer = new BitWriter(Math.max(16, count));
+        if (count == 0) {
+            return writer.toByteArray();
+        }
+        writer.writeBits(values[0], 64);
+        long previousDelta = 0L;
+        for (int i = 1; i < count; i++) {
+            long delta = values[i] - values[i - 1];
+            long zigzag = zigzag(delta - previousDelta);
+            previousDelta = delta;
+            if (zigzag == 0L) {
+                writer.writeBits(0L, 1);
+                continue;
+            }
+            int bucket = 0;
+            while (bucket < BUCKET_BITS.length && (zigzag >>> BUCKET_BITS[bucket]) != 0L) {
+                bucket++;
+            }
+            // control bits: bucket + 1 ones, followed by a zero except for the last bucket
+            if (bucket < BUCKET_BITS.length) {
+                writer.writeBits((1L << (bucket + 2)) - 2L, bucket + 2);
+                writer.writeBits(zigzag, BUCKET_BITS[bucket]);
+            } else {
+                writer.writeBits(0x1FL, 5);
+                writer.writeBits(zigzag, 64);
+            }
+        }
+        return writer.toByteArray();
+    }
+
+    /**
+     * Decode count values from the buffer, starting at its position.
+     *
+     * @param buffer buffer
+     * @param count  count of values
+     * @return decoded values
+     */
+    static long[] decode(ByteBuffer buffer, int count) {
+        long[] values = new long[count];
+        if (count == 0) {
+            return values;
+        }
+        BitReader reader = new BitReader(buffer);
+        values[0] = reader.readBits(64);
+        long previousDelta = 0L;
+        for (int i = 1; i < count; i++) {
+            int bucket = 0;
+            while (bucket <= BUCKET_BITS.length && reader.readBit()) {
+                bucket++;
+            }
+            long dod;
+            if (bucket == 0) {
+                dod = 0L;
+            } else if (bucket <= BUCKET_BITS.length) {
+                dod = unZigzag(reader.readBits(BUCKET_BITS[bucket - 1]));
+            } else {
+                dod = unZigzag(reader.readBits(64));
+            }
+            previousDelta += dod;
+            values[i] = values[i - 1] + previousDelta;
+        }
+        return values;
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unZigzag(long value) {
+        return (value >>> 1) ^ -(value & 1L);
+    }
+
+    /**
+     * Bit writer, most significant bit first.
+     */
+    private static final class BitWriter {
+
+        private byte[] bytes;
+
+        private int bitPosition;
+
+        BitWriter(int initialCapacity) {
+            this.bytes = new byte[initialCapacity];
+        }
+
+        void writeBits(long value, int bitCount) {
+            for (int i = bitCount - 1; i >= 0; i--) {
+                int byteIndex = bitPosition >>> 3;
+                if (byteIndex == bytes.length) {
+                    bytes = Arrays.copyOf(bytes, bytes.length << 1);
+                }
+                if (((value >>> i) & 1L) != 0L) {
+                    bytes[byteIndex] |= (byte) (0x80 >>> (bitPosition & 7));
+                }
+                bitPosition++;
+            }
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(bytes, (bitPosition + 7) >>> 3);
+        }
+    }
+
+    /**
+     * Bit reader, most significant bit first.
+     */
+    private static final class BitReader {
+
+        private final ByteBuffer buffer;
+
+        private final int start;
+
+        private long bitPosition;
+
+        BitReader(ByteBuffer buffer) {
+            this.buffer = buffer;
+            this.start = buffer.position();
+        }
+
+        boolean readBit() {
+            int current = buffer.get(start + (int) (bitPosition >>> 3));
+            boolean bit = (current & (0x80 >>> (bitPosition & 7))) != 0;
+            bitPosition++;
+            return bit;
+        }
+
+        long readBits(int bitCount) {
+            long value = 0L;
+            for (int i = 0; i < bitCount; i++) {
+                value = (value << 1) | (readBit() ? 1L : 0L);
+            }
+            return value;
+        }
+    }
+}
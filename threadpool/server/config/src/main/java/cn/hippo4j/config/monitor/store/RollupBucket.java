@@ -0,0 +1,135 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.hippo4j.config.monitor.store;
+
+import cn.hippo4j.config.model.HisRunDataInfo;
+import lombok.Getter;
+
+import java.util.Arrays;
+
+/**
+ * Min, max, avg and last of each metric of the running data in a time bucket.
+ */
+final class RollupBucket {
+
+    /**
+     * Aggregation of each column when the bucket is drawn as a point of chart. <br />
+     * Gauges keep their max to show the peaks, the remaining capacity of queue keeps its min,
+     * cumulative counters keep their last value so that the range counts between points are correct.
+     */
+    private static final Aggregation[] CHART_AGGREGATIONS = new Aggregation[HisRunDataSeries.COLUMN_COUNT];
+
+    static {
+        Arrays.fill(CHART_AGGREGATIONS, Aggregation.MAX);
+        CHART_AGGREGATIONS[HisRunDataSeries.QUEUE_CAPACITY] = Aggregation.LAST;
+        CHART_AGGREGATIONS[HisRunDataSeries.QUEUE_REMAINING_CAPACITY] = Aggregation.MIN;
+        CHART_AGGREGATIONS[HisRunDataSeries.COMPLETED_TASK_COUNT] = Aggregation.LAST;
+        CHART_AGGREGATIONS[HisRunDataSeries.REJECT_COUNT] = Aggregation.LAST;
+    }
+
+    @Getter
+    private final long start;
+
+    private final long[] min = new long[HisRunDataSeries.COLUMN_COUNT];
+
+    private final long[] max = new long[HisRunDataSeries.COLUMN_COUNT];
+
+    private final long[] sum = new long[HisRunDataSeries.COLUMN_COUNT];
+
+    private final long[] last = new long[HisRunDataSeries.COLUMN_COUNT];
+
+    private final long[] lastTimestamp = new long[HisRunDataSeries.COLUMN_COUNT];
+
+    private final int[] count = new int[HisRunDataSeries.COLUMN_COUNT];
+
+    RollupBucket(long start) {
+        this.start = start;
+    }
+
+    /**
+     * Add a sample, the timestamp of sample must not be null.
+     *
+     * @param info sample
+     */
+    void add(HisRunDataInfo info) {
+        long timestamp = info.getTimestamp();
+        for (int i = HisRunDataSeries.TIMESTAMP + 1; i < HisRunDataSeries.COLUMN_COUNT; i++) {
+            Long value = HisRunDataSeries.getValue(info, i);
+            if (value == null) {
+                continue;
+            }
+            if (count[i] == 0) {
+                min[i] = value;
+                max[i] = value;
+            } else {
+                min[i] = Math.min(min[i], value);
+                max[i] = Math.max(max[i], value);
+            }
+            if (count[i] == 0 || timestamp >= lastTimestamp[i]) {
+                last[i] = value;
+                lastTimestamp[i] = timestamp;
+            }
+            sum[i] += value;
+            count[i]++;
+        }
+    }
+
+    /**
+     * Get the aggregated value of a column.
+     *
+     * @param column      index of column
+     * @param aggregation aggregation
+     * @return aggregated value, or null if the column has no value
+     */
+    Long get(int column, Aggregation aggregation) {
+        if (count[column] == 0) {
+            return null;
+        }
+        switch (aggregation) {
+            case MIN:
+                return min[column];
+            case AVG:
+                return sum[column] / count[column];
+            case LAST:
+                return last[column];
+            default:
+                return max[column];
+        }
+    }
+
+    /**
+     * Fill the running data with the bucket as a point of chart at the start of bucket.
+     *
+     * @param info running data
+     * @return running data
+     */
+    HisRunDataInfo fillChartPoint(HisRunDataInfo info) {
+        info.setTimestamp(start);
+        for (int i = HisRunDataSeries.TIMESTAMP + 1; i < HisRunDataSeries.COLUMN_COUNT; i++) {
+            HisRunDataSeries.setValue(info, i, get(i, CHART_AGGREGATIONS[i]));
+        }
+        return info;
+    }
+
+    /**
+     * Aggregation of a column in the bucket.
+     */
+    enum Aggregation {
+        MIN, MAX, AVG, LAST
+    }
+}
@@ -0,0 +1,56 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.hippo4j.config.monitor.store;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rollup tier of the running data of thread pool.
+ */
+@Getter
+@AllArgsConstructor
+public enum RollupTier {
+
+    /**
+     * One minute
+     */
+    ONE_MINUTE(TimeUnit.MINUTES.toMillis(1)),
+
+    /**
+     * Ten minutes
+     */
+    TEN_MINUTES(TimeUnit.MINUTES.toMillis(10));
+
+    /**
+     * Time range of each bucket
+     */
+    private final long bucketMillis;
+
+    /**
+     * Get the start of the bucket containing the timestamp.
+     *
+     * @param timestamp timestamp
+     * @return start of bucket
+     */
+    public long bucketStart(long timestamp) {
+        return timestamp - Math.floorMod(timestamp, bucketMillis);
+    }
+}
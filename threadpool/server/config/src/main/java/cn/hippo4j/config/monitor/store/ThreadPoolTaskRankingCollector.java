@@ -0,0 +1,79 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.hippo4j.config.monitor.store;
+
+import cn.hippo4j.common.toolkit.GroupKey;
+import cn.hippo4j.config.mapper.HisRunDataMapper;
+
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Collect the max metrics of each thread pool, as the group by of {@link HisRunDataMapper#queryThreadPoolMaxRanking}.
+ */
+final class ThreadPoolTaskRankingCollector {
+
+    private final Map<String, HisRunDataMapper.ThreadPoolTaskRanking> rankings = new LinkedHashMap<>();
+
+    /**
+     * Collect the metrics of a thread pool instance, {@link HisRunDataSeries#NULL_VALUE} is ignored.
+     *
+     * @param tenantId           tenant id
+     * @param itemId             item id
+     * @param tpId               thread pool id
+     * @param completedTaskCount completed task count
+     * @param queueSize          queue size
+     * @param rejectCount        reject count
+     */
+    void collect(String tenantId, String itemId, String tpId, long completedTaskCount, long queueSize, long rejectCount) {
+        HisRunDataMapper.ThreadPoolTaskRanking ranking = rankings.computeIfAbsent(GroupKey.getKeyTenant(tpId, itemId, tenantId), key -> {
+            HisRunDataMapper.ThreadPoolTaskRanking created = new HisRunDataMapper.ThreadPoolTaskRanking();
+            created.setTenantId(tenantId);
+            created.setItemId(itemId);
+            created.setTpId(tpId);
+            return created;
+        });
+        ranking.setMaxCompletedTaskCount(max(ranking.getMaxCompletedTaskCount(), completedTaskCount));
+        ranking.setMaxQueueSize(max(ranking.getMaxQueueSize(), queueSize));
+        ranking.setMaxRejectCount(max(ranking.getMaxRejectCount(), rejectCount));
+    }
+
+    /**
+     * Get the top thread pools ordered by max completed task count.
+     *
+     * @param limit max count of thread pools
+     * @return ranking
+     */
+    List<HisRunDataMapper.ThreadPoolTaskRanking> top(int limit) {
+        return rankings.values().stream()
+                .sorted(Comparator.comparing(HisRunDataMapper.ThreadPoolTaskRanking::getMaxCompletedTaskCount,
+                        Comparator.nullsLast(Comparator.reverseOrder())))
+                .limit(limit)
+                .collect(Collectors.toList());
+    }
+
+    private static Long max(Long current, long value) {
+        if (value == HisRunDataSeries.NULL_VALUE) {
+            return current;
+        }
+        return current == null ? value : Math.max(current, value);
+    }
+}
@@ -17,18 +17,19 @@
 
 package cn.hippo4j.config.netty;
 
+import cn.hippo4j.common.monitor.RuntimeMessageCodec;
 import cn.hippo4j.config.config.ServerBootstrapProperties;
 import cn.hippo4j.config.service.biz.HisRunDataService;
 import io.netty.bootstrap.ServerBootstrap;
 import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelInitializer;
+import io.netty.channel.ChannelOption;
 import io.netty.channel.ChannelPipeline;
 import io.netty.channel.EventLoopGroup;
 import io.netty.channel.socket.SocketChannel;
 import io.netty.channel.socket.nio.NioServerSocketChannel;
-import io.netty.handler.codec.serialization.ClassResolvers;
-import io.netty.handler.codec.serialization.ObjectDecoder;
-import io.netty.handler.codec.serialization.ObjectEncoder;
+import io.netty.handler.codec.LengthFieldBasedFrameDecoder;
+import io.netty.handler.codec.LengthFieldPrepender;
 import io.netty.handler.logging.LogLevel;
 import io.netty.handler.logging.LoggingHandler;
 import lombok.AllArgsConstructor;
@@ -38,7 +39,9 @@ import javax.annotation.PostConstruct;
 import javax.annotation.PreDestroy;
 
 /**
- * Netty monitor netty server.
+ * Netty monitor netty server. <br />
+ * Clients keep a persistent connection and report length-prefixed frames of {@link RuntimeMessageCodec},
+ * each batch is acked so that clients can limit the batches in flight.
  */
 @Slf4j
 @AllArgsConstructor
@@ -60,6 +63,7 @@ public class MonitorNettyServer {
                 serverBootstrap.group(bossGroup, workGroup)
                         .channel(NioServerSocketChannel.class)
                         .handler(new LoggingHandler(LogLevel.INFO))
+                        .childOption(ChannelOption.SO_KEEPALIVE, true)
                         // BossGroup the Thread group is responsible for connection events.
                         // WorkGroup the thread group is responsible for read and write events.
                         .childHandler(new ChannelInitializer<SocketChannel>() {
@@ -67,9 +71,9 @@ public class MonitorNettyServer {
                             @Override
                             protected void initChannel(SocketChannel ch) throws Exception {
                                 ChannelPipeline pipeline = ch.pipeline();
-                                pipeline.addLast(new ObjectEncoder());
-                                pipeline.addLast(new ObjectDecoder(Integer.MAX_VALUE,
-                                        ClassResolvers.cacheDisabled(null)));
+                                pipeline.addLast(new LengthFieldBasedFrameDecoder(RuntimeMessageCodec.MAX_FRAME_LENGTH, 0, 4, 0, 4));
+                                pipeline.addLast(new LengthFieldPrepender(4));
+                                pipeline.addLast(new MonitorServerCodec());
                                 pipeline.addLast(new ServerHandler(hisRunDataService));
                             }
                         });
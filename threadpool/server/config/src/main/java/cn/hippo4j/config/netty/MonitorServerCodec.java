@@ -0,0 +1,46 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.hippo4j.config.netty;
+
+import cn.hippo4j.common.monitor.RuntimeMessageAck;
+import cn.hippo4j.common.monitor.RuntimeMessageCodec;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.MessageToMessageCodec;
+
+import java.util.List;
+
+/**
+ * Monitor server codec, decodes the batch frames reported by clients and encodes the acks.
+ *
+ * @see RuntimeMessageCodec
+ */
+public class MonitorServerCodec extends MessageToMessageCodec<ByteBuf, RuntimeMessageAck> {
+
+    @Override
+    protected void encode(ChannelHandlerContext ctx, RuntimeMessageAck ack, List<Object> out) {
+        out.add(Unpooled.wrappedBuffer(RuntimeMessageCodec.encodeAck(ack)));
+    }
+
+    @Override
+    protected void decode(ChannelHandlerContext ctx, ByteBuf frame, List<Object> out) {
+        out.add(RuntimeMessageCodec.decodeBatch(ByteBufUtil.getBytes(frame)));
+    }
+}
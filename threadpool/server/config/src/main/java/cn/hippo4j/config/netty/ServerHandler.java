@@ -17,24 +17,42 @@
 
 package cn.hippo4j.config.netty;
 
-import cn.hippo4j.common.monitor.MessageWrapper;
+import cn.hippo4j.common.model.Result;
+import cn.hippo4j.common.monitor.MessageTypeEnum;
+import cn.hippo4j.common.monitor.RuntimeMessage;
+import cn.hippo4j.common.monitor.RuntimeMessageAck;
+import cn.hippo4j.common.monitor.RuntimeMessageBatch;
 import cn.hippo4j.config.service.biz.HisRunDataService;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.SimpleChannelInboundHandler;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
+import java.util.ArrayList;
+
 /**
- * Server handler.
+ * Server handler, collects the reported batch and acks it,
+ * the ack is {@link RuntimeMessageAck#STATUS_BUSY} if the collect task overflows.
  */
 @Slf4j
 @AllArgsConstructor
-public class ServerHandler extends SimpleChannelInboundHandler<MessageWrapper> {
+public class ServerHandler extends SimpleChannelInboundHandler<RuntimeMessageBatch> {
 
     private HisRunDataService hisRunDataService;
 
     @Override
-    protected void channelRead0(ChannelHandlerContext ctx, MessageWrapper msg) throws Exception {
-        hisRunDataService.dataCollect(msg);
+    protected void channelRead0(ChannelHandlerContext ctx, RuntimeMessageBatch batch) throws Exception {
+        RuntimeMessage message = new RuntimeMessage();
+        message.setMessageType(MessageTypeEnum.RUNTIME);
+        message.setMessages(new ArrayList<>(batch.getMessages()));
+        Result<Void> result = hisRunDataService.dataCollect(message);
+        byte status = result.isSuccess() ? RuntimeMessageAck.STATUS_OK : RuntimeMessageAck.STATUS_BUSY;
+        ctx.writeAndFlush(new RuntimeMessageAck(batch.getSequence(), status));
+    }
+
+    @Override
+    public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) {
+        log.warn("Monitor channel {} is closed because of exception.", ctx.channel().remoteAddress(), cause);
+        ctx.close();
     }
 }
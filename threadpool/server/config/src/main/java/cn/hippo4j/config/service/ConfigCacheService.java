@@ -26,12 +26,10 @@ import cn.hippo4j.common.toolkit.CollectionUtil;
 import cn.hippo4j.common.toolkit.JSONUtil;
 import cn.hippo4j.common.toolkit.Joiner;
 import cn.hippo4j.common.toolkit.MapUtil;
-import cn.hippo4j.common.toolkit.Md5Util;
 import cn.hippo4j.common.toolkit.StringUtil;
-import cn.hippo4j.config.event.LocalDataChangeEvent;
 import cn.hippo4j.config.model.CacheItem;
 import cn.hippo4j.config.model.ConfigAllInfo;
-import cn.hippo4j.config.notify.NotifyCenter;
+import cn.hippo4j.config.model.ConfigSnapshot;
 import cn.hippo4j.config.service.biz.ConfigService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.util.StringUtils;
@@ -47,6 +45,9 @@ import java.util.concurrent.atomic.AtomicInteger;
 
 import static cn.hippo4j.common.constant.Constants.GROUP_KEY_DELIMITER;
 import static cn.hippo4j.common.constant.Constants.GROUP_KEY_DELIMITER_TRANSLATION;
+import static cn.hippo4j.common.constant.MagicNumberConstants.INDEX_0;
+import static cn.hippo4j.common.constant.MagicNumberConstants.INDEX_1;
+import static cn.hippo4j.common.constant.MagicNumberConstants.INDEX_2;
 import static cn.hippo4j.common.constant.MagicNumberConstants.INDEX_3;
 
 /**
@@ -55,6 +56,16 @@ import static cn.hippo4j.common.constant.MagicNumberConstants.INDEX_3;
 @Slf4j
 public class ConfigCacheService {
 
+    /**
+     * Expire time of the snapshot of the config which is not defined, in milliseconds
+     */
+    private static final long MISSING_SNAPSHOT_EXPIRE_TIME = 30000L;
+
+    /**
+     * Serialize the refreshes of config snapshot
+     */
+    private static final Object REFRESH_LOCK = new Object();
+
     private static ConfigService configService;
 
     static {
@@ -67,7 +78,13 @@ public class ConfigCacheService {
      * key: 192.168.20.227:8088_xxx
      * val:  {@link CacheItem}
      */
-    private static final ConcurrentHashMap<String, Map<String, CacheItem>> CLIENT_CONFIG_CACHE = new ConcurrentHashMap();
+    private static final ConcurrentHashMap<String, Map<String, CacheItem>> CLIENT_CONFIG_CACHE = new ConcurrentHashMap<>();
+
+    /**
+     * key: message-produce+dynamic-threadpool-example+prescription
+     * val: {@link ConfigSnapshot}
+     */
+    private static final ConcurrentHashMap<String, ConfigSnapshot> CONFIG_SNAPSHOT = new ConcurrentHashMap<>();
 
     public static boolean isUpdateData(String groupKey, String md5, String clientIdentify) {
         String contentMd5 = ConfigCacheService.getContentMd5IsNullPut(groupKey, clientIdentify);
@@ -100,76 +117,146 @@ public class ConfigCacheService {
      * @param clientIdentify
      * @return
      */
-    private static synchronized String getContentMd5IsNullPut(String groupKey, String clientIdentify) {
-        Map<String, CacheItem> cacheItemMap = Optional.ofNullable(CLIENT_CONFIG_CACHE.get(groupKey)).orElse(new HashMap<>());
-        CacheItem cacheItem = null;
-        if (CollectionUtil.isNotEmpty(cacheItemMap)) {
-            cacheItem = cacheItemMap.get(clientIdentify);
+    private static String getContentMd5IsNullPut(String groupKey, String clientIdentify) {
+        Map<String, CacheItem> cacheItemMap = CLIENT_CONFIG_CACHE.get(groupKey);
+        if (cacheItemMap != null) {
+            CacheItem cacheItem = cacheItemMap.get(clientIdentify);
             if (cacheItem != null) {
                 return cacheItem.getMd5();
             }
         }
-        if (configService == null) {
-            configService = ApplicationContextHolder.getBean(ConfigService.class);
+        ConfigAllInfo config = getRecentConfig(groupKey);
+        if (config == null || StringUtil.isBlank(config.getTpId())) {
+            return Constants.NULL;
         }
-        String[] params = groupKey.split(GROUP_KEY_DELIMITER_TRANSLATION);
-        ConfigAllInfo config = configService.findConfigRecentInfo(params);
-        if (config != null && StringUtil.isNotBlank(config.getTpId())) {
-            cacheItem = new CacheItem(groupKey, config);
-            cacheItemMap.put(clientIdentify, cacheItem);
-            CLIENT_CONFIG_CACHE.put(groupKey, cacheItemMap);
-        }
-        return (cacheItem != null) ? cacheItem.getMd5() : Constants.NULL;
+        CacheItem cacheItem = CLIENT_CONFIG_CACHE.computeIfAbsent(groupKey, key -> new ConcurrentHashMap<>())
+                .computeIfAbsent(clientIdentify, key -> new CacheItem(groupKey, config));
+        return cacheItem.getMd5();
     }
 
     public static String getContentMd5(String groupKey) {
-        if (configService == null) {
-            configService = ApplicationContextHolder.getBean(ConfigService.class);
-        }
-        String[] params = groupKey.split(GROUP_KEY_DELIMITER_TRANSLATION);
-        ConfigAllInfo config = configService.findConfigRecentInfo(params);
+        ConfigAllInfo config = getRecentConfig(groupKey);
         if (config == null || StringUtils.isEmpty(config.getTpId())) {
+            String[] params = groupKey.split(GROUP_KEY_DELIMITER_TRANSLATION);
             String errorMessage = String.format("config is null. tpId: %s, itemId: %s, tenantId: %s", params[0], params[1], params[2]);
             throw new RuntimeException(errorMessage);
         }
-        return Md5Util.getTpContentMd5(config);
+        return config.getMd5();
     }
 
     public static void updateMd5(String groupKey, String identify, String md5) {
         CacheItem cache = makeSure(groupKey, identify);
         if (cache.getMd5() == null || !cache.getMd5().equals(md5)) {
+            cache.setConfigAllInfo(getRecentConfig(groupKey));
             cache.setMd5(md5);
-            String[] params = groupKey.split(GROUP_KEY_DELIMITER_TRANSLATION);
-            ConfigAllInfo config = configService.findConfigRecentInfo(params);
-            cache.setConfigAllInfo(config);
             cache.setLastModifiedTs(System.currentTimeMillis());
-            NotifyCenter.publishEvent(new LocalDataChangeEvent(identify, groupKey));
         }
     }
 
-    public static synchronized CacheItem makeSure(String groupKey, String ip) {
-        Map<String, CacheItem> ipCacheItemMap = CLIENT_CONFIG_CACHE.get(groupKey);
-        if (ipCacheItemMap != null) {
-            CacheItem item = ipCacheItemMap.get(ip);
-            if (item != null) {
-                return item;
+    public static CacheItem makeSure(String groupKey, String ip) {
+        return CLIENT_CONFIG_CACHE.computeIfAbsent(groupKey, key -> new ConcurrentHashMap<>())
+                .computeIfAbsent(ip, key -> new CacheItem(groupKey));
+    }
+
+    /**
+     * Get the recent config of the client from the config snapshot,
+     * the snapshot is loaded from the database only if it is missing or expired.
+     *
+     * @param groupKey tpId + itemId + tenantId + identify
+     * @return the recent config, or null if the config is not defined
+     */
+    private static ConfigAllInfo getRecentConfig(String groupKey) {
+        String[] params = groupKey.split(GROUP_KEY_DELIMITER_TRANSLATION);
+        String snapshotKey = String.join(GROUP_KEY_DELIMITER, params[INDEX_0], params[INDEX_1], params[INDEX_2]);
+        ConfigSnapshot snapshot = CONFIG_SNAPSHOT.get(snapshotKey);
+        if (snapshot == null || snapshot.isExpired(System.currentTimeMillis())) {
+            snapshot = installConfigSnapshot(snapshotKey, snapshot, loadConfigSnapshot(params));
+        }
+        return snapshot.getRecentInfo(params.length > INDEX_3 ? params[INDEX_3] : null);
+    }
+
+    /**
+     * Install the snapshot loaded on read, which does not overwrite the snapshot installed concurrently,
+     * since it may be refreshed from a newer config.
+     *
+     * @param snapshotKey tpId + itemId + tenantId
+     * @param expected    the snapshot which is missing or expired
+     * @param loaded      the loaded snapshot, null if the config is not defined
+     * @return the installed snapshot
+     */
+    private static ConfigSnapshot installConfigSnapshot(String snapshotKey, ConfigSnapshot expected, ConfigSnapshot loaded) {
+        ConfigSnapshot snapshot = loaded == null ? ConfigSnapshot.missing(System.currentTimeMillis() + MISSING_SNAPSHOT_EXPIRE_TIME) : loaded;
+        if (expected == null) {
+            ConfigSnapshot existing = CONFIG_SNAPSHOT.putIfAbsent(snapshotKey, snapshot);
+            return existing == null ? snapshot : existing;
+        }
+        if (CONFIG_SNAPSHOT.replace(snapshotKey, expected, snapshot)) {
+            return snapshot;
+        }
+        ConfigSnapshot existing = CONFIG_SNAPSHOT.get(snapshotKey);
+        return existing == null ? snapshot : existing;
+    }
+
+    /**
+     * Warm up the config snapshots in bulk, the snapshots which have been loaded are retained.
+     *
+     * @param snapshots key: tpId + itemId + tenantId, val: config snapshot
+     */
+    public static void warmUp(Map<String, ConfigSnapshot> snapshots) {
+        snapshots.forEach(CONFIG_SNAPSHOT::putIfAbsent);
+    }
+
+    /**
+     * Reload the config snapshot after the config is changed,
+     * the snapshot is removed if it fails to reload, and will be loaded again when it is read. <br />
+     * The database is queried outside the lock of the snapshot map, the refreshes are serialized,
+     * so that the snapshot loaded from an older config never overwrites a newer one.
+     *
+     * @param groupKey tpId + itemId + tenantId
+     */
+    public static void refreshConfigSnapshot(String groupKey) {
+        String[] params = groupKey.split(GROUP_KEY_DELIMITER_TRANSLATION);
+        if (params.length <= INDEX_2) {
+            return;
+        }
+        String snapshotKey = String.join(GROUP_KEY_DELIMITER, params[INDEX_0], params[INDEX_1], params[INDEX_2]);
+        synchronized (REFRESH_LOCK) {
+            try {
+                ConfigSnapshot snapshot = loadConfigSnapshot(params);
+                CONFIG_SNAPSHOT.put(snapshotKey, snapshot == null ? ConfigSnapshot.missing(System.currentTimeMillis() + MISSING_SNAPSHOT_EXPIRE_TIME) : snapshot);
+            } catch (Exception ex) {
+                CONFIG_SNAPSHOT.remove(snapshotKey);
+                log.error("Refresh config snapshot error. Key: {}", snapshotKey, ex);
             }
         }
-        CacheItem tmp = new CacheItem(groupKey);
-        Map<String, CacheItem> cacheItemMap = new HashMap<>();
-        cacheItemMap.put(ip, tmp);
-        CLIENT_CONFIG_CACHE.putIfAbsent(groupKey, cacheItemMap);
-        return tmp;
+    }
+
+    /**
+     * Evict the config snapshot, which is loaded again when it is read,
+     * e.g. the config is added without notifying the clients while its missing snapshot is cached.
+     *
+     * @param groupKey tpId + itemId + tenantId
+     */
+    public static void evictConfigSnapshot(String groupKey) {
+        CONFIG_SNAPSHOT.remove(groupKey);
+    }
+
+    private static ConfigSnapshot loadConfigSnapshot(String[] params) {
+        if (configService == null) {
+            configService = ApplicationContextHolder.getBean(ConfigService.class);
+        }
+        ConfigSnapshot snapshot = configService.findConfigSnapshot(params[INDEX_0], params[INDEX_1], params[INDEX_2]);
+        return snapshot == null || snapshot.isEmpty() ? null : snapshot;
     }
 
     public static Map<String, CacheItem> getContent(String identification) {
         List<String> identificationList = MapUtil.parseMapForFilter(CLIENT_CONFIG_CACHE, identification);
         Map<String, CacheItem> returnStrCacheItemMap = new HashMap<>();
-        identificationList.forEach(each -> returnStrCacheItemMap.putAll(CLIENT_CONFIG_CACHE.get(each)));
+        identificationList.forEach(each -> Optional.ofNullable(CLIENT_CONFIG_CACHE.get(each)).ifPresent(returnStrCacheItemMap::putAll));
         return returnStrCacheItemMap;
     }
 
-    public static synchronized Integer getTotal() {
+    public static Integer getTotal() {
         AtomicInteger total = new AtomicInteger();
         CLIENT_CONFIG_CACHE.forEach((key, val) -> total.addAndGet(val.values().size()));
         return total.get();
@@ -200,7 +287,7 @@ public class ConfigCacheService {
         coarseRemove(groupKey);
     }
 
-    private static synchronized void coarseRemove(String coarse) {
+    private static void coarseRemove(String coarse) {
         // fuzzy search
         List<String> identificationList = MapUtil.parseMapForFilter(CLIENT_CONFIG_CACHE, coarse);
         for (String cacheMapKey : identificationList) {
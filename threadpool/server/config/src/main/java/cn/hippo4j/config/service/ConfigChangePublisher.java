@@ -17,8 +17,10 @@
 
 package cn.hippo4j.config.service;
 
+import cn.hippo4j.config.cluster.ClusterReplicator;
 import cn.hippo4j.config.notify.NotifyCenter;
 import cn.hippo4j.config.event.LocalDataChangeEvent;
+import cn.hippo4j.core.config.ApplicationContextHolder;
 
 /**
  * Config change publisher.
@@ -26,11 +28,15 @@ import cn.hippo4j.config.event.LocalDataChangeEvent;
 public class ConfigChangePublisher {
 
     /**
-     * Notify configChange.
+     * Notify configChange, the local change is also broadcast to the peer nodes if the server is clustered.
      *
      * @param event event
      */
     public static void notifyConfigChange(LocalDataChangeEvent event) {
         NotifyCenter.publishEvent(event);
+        if (!event.isReplication() && ApplicationContextHolder.getInstance() != null) {
+            ApplicationContextHolder.getBeansOfType(ClusterReplicator.class).values()
+                    .forEach(each -> each.replicateConfigChange(event));
+        }
     }
 }
@@ -0,0 +1,52 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.hippo4j.config.service;
+
+import cn.hippo4j.config.model.ConfigSnapshot;
+import cn.hippo4j.config.service.biz.ConfigService;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Load the config snapshots of all thread-pools into {@link ConfigCacheService} in bulk at startup,
+ * so that the first long polling of clients does not query the database one by one.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ConfigSnapshotWarmUp implements CommandLineRunner {
+
+    @NonNull
+    private final ConfigService configService;
+
+    @Override
+    public void run(String... args) throws Exception {
+        try {
+            Map<String, ConfigSnapshot> snapshots = configService.findAllConfigSnapshot();
+            ConfigCacheService.warmUp(snapshots);
+            log.info("Warm up config snapshots, size: {}", snapshots.size());
+        } catch (Exception ex) {
+            log.warn("Warm up config snapshots error, they will be loaded on first access.", ex);
+        }
+    }
+}
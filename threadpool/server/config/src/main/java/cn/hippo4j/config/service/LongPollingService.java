@@ -19,7 +19,6 @@ package cn.hippo4j.config.service;
 
 import cn.hippo4j.common.toolkit.CollectionUtil;
 import cn.hippo4j.common.toolkit.JSONUtil;
-import cn.hippo4j.common.toolkit.MapUtil;
 import cn.hippo4j.common.toolkit.Md5Util;
 import cn.hippo4j.common.toolkit.StringUtil;
 import cn.hippo4j.config.event.AbstractEvent;
@@ -30,6 +29,7 @@ import cn.hippo4j.config.toolkit.ConfigExecutor;
 import cn.hippo4j.config.toolkit.Md5ConfigUtil;
 import cn.hippo4j.config.toolkit.RequestUtil;
 import cn.hippo4j.server.common.base.Results;
+import io.netty.util.Timeout;
 import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.tuple.Pair;
@@ -39,13 +39,9 @@ import javax.servlet.AsyncContext;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import java.util.Collections;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-import java.util.Queue;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentLinkedQueue;
-import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 
 import static cn.hippo4j.common.constant.Constants.CLIENT_VERSION;
@@ -77,16 +73,25 @@ public class LongPollingService {
     private static final int DEFAULT_DELAY_TIME = 500;
 
     public LongPollingService() {
-        allSubs = new ConcurrentLinkedQueue<>();
+        allSubs = new SubscriptionIndex<>();
         ConfigExecutor.scheduleLongPolling(new StatTask(), 0L, SCHEDULE_PERIOD, TimeUnit.SECONDS);
         NotifyCenter.registerToPublisher(LocalDataChangeEvent.class, NotifyCenter.RING_BUFFER_SIZE);
         NotifyCenter.registerSubscriber(new AbstractSubscriber() {
 
             @Override
             public void onEvent(AbstractEvent event) {
-                if (!isFixedPolling() && event instanceof LocalDataChangeEvent) {
+                if (event instanceof LocalDataChangeEvent) {
                     LocalDataChangeEvent evt = (LocalDataChangeEvent) event;
-                    ConfigExecutor.executeLongPolling(new DataChangeTask(evt.getIdentify(), evt.getGroupKey()));
+                    if (evt.isReplication()) {
+                        // The snapshot has been refreshed before the replicated change is acknowledged.
+                        ConfigExecutor.executeLongPolling(new DataChangeTask(evt.getIdentify(), evt.getGroupKey()));
+                        return;
+                    }
+                    // Refresh the snapshot first, so that the md5 sent to clients is resolved from the changed config.
+                    ConfigExecutor.executeConfigRefresh(() -> {
+                        ConfigCacheService.refreshConfigSnapshot(evt.getGroupKey());
+                        ConfigExecutor.executeLongPolling(new DataChangeTask(evt.getIdentify(), evt.getGroupKey()));
+                    });
                 }
             }
 
@@ -108,7 +113,10 @@ public class LongPollingService {
         }
     }
 
-    final Queue<ClientLongPolling> allSubs;
+    /**
+     * Waiting clients, only accessed in the long polling executor
+     */
+    final SubscriptionIndex<ClientLongPolling> allSubs;
 
     /**
      * Data change task.
@@ -127,26 +135,30 @@ public class LongPollingService {
         @Override
         public void run() {
             try {
-                for (Iterator<ClientLongPolling> iterator = allSubs.iterator(); iterator.hasNext();) {
-                    ClientLongPolling clientSub = iterator.next();
+                if (isFixedPolling()) {
+                    return;
+                }
+                if (StringUtil.isBlank(identify)) {
+                    for (ClientLongPolling clientSub : allSubs.getByGroupKey(groupKey)) {
+                        notifyClient(clientSub, allSubs.getConfigKeys(clientSub, groupKey));
+                    }
+                } else {
                     String identity = groupKey + GROUP_KEY_DELIMITER + identify;
-                    List<String> parseMapForFilter = CollectionUtil.newArrayList(identity);
-                    if (StringUtil.isBlank(identify)) {
-                        parseMapForFilter = MapUtil.parseMapForFilter(clientSub.clientMd5Map, groupKey);
+                    for (ClientLongPolling clientSub : allSubs.getByConfigKey(identity)) {
+                        notifyClient(clientSub, Collections.singletonList(identity));
                     }
-                    parseMapForFilter.forEach(each -> {
-                        if (clientSub.clientMd5Map.containsKey(each)) {
-                            getRetainIps().put(clientSub.clientIdentify, System.currentTimeMillis());
-                            ConfigCacheService.updateMd5(each, clientSub.clientIdentify, ConfigCacheService.getContentMd5(each));
-                            iterator.remove();
-                            clientSub.sendResponse(Collections.singletonList(groupKey));
-                        }
-                    });
                 }
             } catch (Exception ex) {
                 log.error("Data change error: {}", ex.getMessage(), ex);
             }
         }
+
+        private void notifyClient(ClientLongPolling clientSub, List<String> changedKeys) {
+            getRetainIps().put(clientSub.clientIdentify, System.currentTimeMillis());
+            changedKeys.forEach(each -> ConfigCacheService.updateMd5(each, clientSub.clientIdentify, ConfigCacheService.getContentMd5(each)));
+            allSubs.remove(clientSub);
+            clientSub.sendResponse(Collections.singletonList(groupKey));
+        }
     }
 
     /**
@@ -208,7 +220,7 @@ public class LongPollingService {
 
         final long timeoutTime;
 
-        Future<?> asyncTimeoutFuture;
+        Timeout asyncTimeout;
 
         ClientLongPolling(AsyncContext asyncContext, Map<String, String> clientMd5Map, String clientIdentify,
                           int probeRequestSize, long timeout, Pair<String, String> appInfo) {
@@ -224,10 +236,13 @@ public class LongPollingService {
 
         @Override
         public void run() {
-            asyncTimeoutFuture = ConfigExecutor.scheduleLongPolling(() -> {
+            asyncTimeout = ConfigExecutor.scheduleLongPollingTimeout(() -> {
                 try {
+                    // already responded by a data change
+                    if (!allSubs.remove(ClientLongPolling.this)) {
+                        return;
+                    }
                     getRetainIps().put(ClientLongPolling.this.clientIdentify, System.currentTimeMillis());
-                    allSubs.remove(ClientLongPolling.this);
                     if (isFixedPolling()) {
                         List<String> changedGroups = Md5ConfigUtil.compareMd5((HttpServletRequest) asyncContext.getRequest(), clientMd5Map);
                         if (!changedGroups.isEmpty()) {
@@ -242,7 +257,7 @@ public class LongPollingService {
                     log.error("Long polling error: {}", ex.getMessage(), ex);
                 }
             }, timeoutTime, TimeUnit.MILLISECONDS);
-            allSubs.add(this);
+            allSubs.add(this, clientMd5Map.keySet());
         }
 
         /**
@@ -252,8 +267,8 @@ public class LongPollingService {
          */
         private void sendResponse(List<String> changedGroups) {
             // Cancel time out task.
-            if (null != asyncTimeoutFuture) {
-                asyncTimeoutFuture.cancel(false);
+            if (null != asyncTimeout) {
+                asyncTimeout.cancel();
             }
             generateResponse(changedGroups);
         }
@@ -0,0 +1,154 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.hippo4j.config.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static cn.hippo4j.common.constant.Constants.GROUP_KEY_DELIMITER;
+
+/**
+ * <p>Inverted index of the waiting long polling subscriptions, from the config keys to the subscriptions. <br />
+ * A config key is a group key (tpId+itemId+tenantId) followed by the client identify,
+ * subscriptions are indexed by both the config key and its group key,
+ * so that a config change only visits the affected subscriptions.
+ *
+ * <p><b>NOTE:</b> Not thread-safe, all operations must be confined to the long polling executor.
+ *
+ * @param <S> type of subscription, compared by identity
+ */
+final class SubscriptionIndex<S> {
+
+    private final Map<S, Collection<String>> subscriptions = new HashMap<>();
+
+    private final Map<String, Set<S>> byConfigKey = new HashMap<>();
+
+    private final Map<String, Set<S>> byGroupKey = new HashMap<>();
+
+    /**
+     * Add a subscription.
+     *
+     * @param subscription subscription
+     * @param configKeys   config keys subscribed
+     */
+    void add(S subscription, Collection<String> configKeys) {
+        if (subscriptions.putIfAbsent(subscription, configKeys) != null) {
+            return;
+        }
+        for (String each : configKeys) {
+            byConfigKey.computeIfAbsent(each, key -> new LinkedHashSet<>()).add(subscription);
+            byGroupKey.computeIfAbsent(groupKeyOf(each), key -> new LinkedHashSet<>()).add(subscription);
+        }
+    }
+
+    /**
+     * Remove a subscription, in the count of its config keys regardless of the count of subscriptions.
+     *
+     * @param subscription subscription
+     * @return true if the subscription was present
+     */
+    boolean remove(S subscription) {
+        Collection<String> configKeys = subscriptions.remove(subscription);
+        if (configKeys == null) {
+            return false;
+        }
+        for (String each : configKeys) {
+            unlink(byConfigKey, each, subscription);
+            unlink(byGroupKey, groupKeyOf(each), subscription);
+        }
+        return true;
+    }
+
+    /**
+     * Get the subscriptions of a config key.
+     *
+     * @param configKey config key
+     * @return subscriptions, a copy
+     */
+    List<S> getByConfigKey(String configKey) {
+        return copy(byConfigKey.get(configKey));
+    }
+
+    /**
+     * Get the subscriptions of any config key under a group key.
+     *
+     * @param groupKey group key
+     * @return subscriptions, a copy
+     */
+    List<S> getByGroupKey(String groupKey) {
+        return copy(byGroupKey.get(groupKey));
+    }
+
+    /**
+     * Get the config keys of a subscription under a group key.
+     *
+     * @param subscription subscription
+     * @param groupKey     group key
+     * @return config keys
+     */
+    List<String> getConfigKeys(S subscription, String groupKey) {
+        Collection<String> configKeys = subscriptions.get(subscription);
+        if (configKeys == null) {
+            return Collections.emptyList();
+        }
+        List<String> result = new ArrayList<>();
+        for (String each : configKeys) {
+            if (groupKeyOf(each).equals(groupKey)) {
+                result.add(each);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Get the count of subscriptions.
+     *
+     * @return count of subscriptions
+     */
+    int size() {
+        return subscriptions.size();
+    }
+
+    /**
+     * Get the group key of a config key, by removing the client identify after the last delimiter.
+     *
+     * @param configKey config key
+     * @return group key
+     */
+    static String groupKeyOf(String configKey) {
+        int index = configKey.lastIndexOf(GROUP_KEY_DELIMITER);
+        return index < 0 ? configKey : configKey.substring(0, index);
+    }
+
+    private void unlink(Map<String, Set<S>> index, String key, S subscription) {
+        Set<S> indexed = index.get(key);
+        if (indexed != null && indexed.remove(subscription) && indexed.isEmpty()) {
+            index.remove(key);
+        }
+    }
+
+    private List<S> copy(Set<S> indexed) {
+        return indexed == null ? Collections.emptyList() : new ArrayList<>(indexed);
+    }
+}
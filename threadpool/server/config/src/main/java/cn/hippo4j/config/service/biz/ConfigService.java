@@ -19,6 +19,9 @@ package cn.hippo4j.config.service.biz;
 
 import cn.hippo4j.common.model.register.DynamicThreadPoolRegisterWrapper;
 import cn.hippo4j.config.model.ConfigAllInfo;
+import cn.hippo4j.config.model.ConfigSnapshot;
+
+import java.util.Map;
 
 /**
  * Config service.
@@ -43,6 +46,23 @@ public interface ConfigService {
      */
     ConfigAllInfo findConfigRecentInfo(String... params);
 
+    /**
+     * Find config snapshot, which contains the base config and the latest config of each instance.
+     *
+     * @param tpId     tpId
+     * @param itemId   itemId
+     * @param tenantId tenantId
+     * @return config snapshot, empty if the config is not defined
+     */
+    ConfigSnapshot findConfigSnapshot(String tpId, String itemId, String tenantId);
+
+    /**
+     * Find the config snapshots of all thread-pools in bulk.
+     *
+     * @return key: tpId+itemId+tenantId, val: config snapshot
+     */
+    Map<String, ConfigSnapshot> findAllConfigSnapshot();
+
     /**
      * Insert or update.
      *
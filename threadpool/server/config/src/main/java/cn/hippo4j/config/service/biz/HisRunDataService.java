@@ -70,4 +70,12 @@ public interface HisRunDataService extends IService<HisRunDataInfo> {
      * @param messageWrapper
      */
     Result<Void> dataCollect(MessageWrapper messageWrapper);
+
+    /**
+     * Data collect without conversion, fails if the collect task overflows.
+     *
+     * @param message
+     * @return
+     */
+    Result<Void> dataCollect(Message message);
 }
@@ -37,6 +37,7 @@ import cn.hippo4j.config.mapper.ConfigInstanceMapper;
 import cn.hippo4j.config.model.ConfigAllInfo;
 import cn.hippo4j.config.model.ConfigInfoBase;
 import cn.hippo4j.config.model.ConfigInstanceInfo;
+import cn.hippo4j.config.model.ConfigSnapshot;
 import cn.hippo4j.config.model.LogRecordInfo;
 import cn.hippo4j.config.model.biz.notify.NotifyReqDTO;
 import cn.hippo4j.config.service.ConfigCacheService;
@@ -58,6 +59,7 @@ import org.springframework.stereotype.Service;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -67,15 +69,18 @@ import java.util.concurrent.SynchronousQueue;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
+import static cn.hippo4j.common.constant.Constants.GROUP_KEY_DELIMITER;
 import static cn.hippo4j.common.constant.MagicNumberConstants.INDEX_0;
 import static cn.hippo4j.common.constant.MagicNumberConstants.INDEX_1;
 import static cn.hippo4j.common.constant.MagicNumberConstants.INDEX_2;
 import static cn.hippo4j.common.constant.MagicNumberConstants.INDEX_3;
 import static cn.hippo4j.common.executor.support.BlockingQueueTypeEnum.ARRAY_BLOCKING_QUEUE;
+import static cn.hippo4j.common.executor.support.BlockingQueueTypeEnum.EAGER_GROWTH_BLOCKING_QUEUE;
 import static cn.hippo4j.common.executor.support.BlockingQueueTypeEnum.LINKED_BLOCKING_DEQUE;
 import static cn.hippo4j.common.executor.support.BlockingQueueTypeEnum.LINKED_BLOCKING_QUEUE;
 import static cn.hippo4j.common.executor.support.BlockingQueueTypeEnum.LINKED_TRANSFER_QUEUE;
 import static cn.hippo4j.common.executor.support.BlockingQueueTypeEnum.PRIORITY_BLOCKING_QUEUE;
+import static cn.hippo4j.common.executor.support.BlockingQueueTypeEnum.RESIZABLE_ARRAY_BLOCKING_QUEUE;
 import static cn.hippo4j.common.executor.support.BlockingQueueTypeEnum.RESIZABLE_LINKED_BLOCKING_QUEUE;
 import static cn.hippo4j.config.service.ConfigCacheService.getContent;
 
@@ -109,7 +114,6 @@ public class ConfigServiceImpl implements ConfigService {
 
     @Override
     public ConfigAllInfo findConfigRecentInfo(String... params) {
-        ConfigAllInfo resultConfig;
         ConfigAllInfo configInstance = null;
         String instanceId = params[INDEX_3];
         if (StringUtil.isNotBlank(instanceId)) {
@@ -122,30 +126,66 @@ public class ConfigServiceImpl implements ConfigService {
                     .last("LIMIT 1");
             ConfigInstanceInfo instanceInfo = configInstanceMapper.selectOne(instanceQueryWrapper);
             if (instanceInfo != null) {
-                String content = instanceInfo.getContent();
-                configInstance = JSONUtil.parseObject(content, ConfigAllInfo.class);
-                configInstance.setContent(content);
-                configInstance.setGmtCreate(instanceInfo.getGmtCreate());
-                configInstance.setMd5(Md5Util.getTpContentMd5(configInstance));
+                configInstance = parseConfigInstance(instanceInfo);
             }
         }
         ConfigAllInfo configAllInfo = findConfigAllInfo(params[0], params[1], params[2]);
-        if (configAllInfo == null && configInstance == null) {
+        ConfigAllInfo resultConfig = ConfigSnapshot.chooseRecent(configAllInfo, configInstance);
+        if (resultConfig == null) {
             throw new ServiceException("Thread pool configuration is not defined");
-        } else if (configAllInfo != null && configInstance == null) {
-            resultConfig = configAllInfo;
-        } else if (configAllInfo == null && configInstance != null) {
-            resultConfig = configInstance;
-        } else {
-            if (configAllInfo.getGmtModified().before(configInstance.getGmtCreate())) {
-                resultConfig = configInstance;
-            } else {
-                resultConfig = configAllInfo;
-            }
         }
         return resultConfig;
     }
 
+    @Override
+    public ConfigSnapshot findConfigSnapshot(String tpId, String itemId, String tenantId) {
+        ConfigAllInfo configAllInfo = findConfigAllInfo(tpId, itemId, tenantId);
+        LambdaQueryWrapper<ConfigInstanceInfo> instanceQueryWrapper = Wrappers.lambdaQuery(ConfigInstanceInfo.class)
+                .eq(ConfigInstanceInfo::getTpId, tpId)
+                .eq(ConfigInstanceInfo::getItemId, itemId)
+                .eq(ConfigInstanceInfo::getTenantId, tenantId)
+                .orderByAsc(ConfigInstanceInfo::getGmtCreate);
+        Map<String, ConfigAllInfo> instanceConfigs = new HashMap<>();
+        configInstanceMapper.selectList(instanceQueryWrapper)
+                .forEach(each -> instanceConfigs.put(each.getInstanceId(), parseConfigInstance(each)));
+        return buildConfigSnapshot(configAllInfo, instanceConfigs);
+    }
+
+    @Override
+    public Map<String, ConfigSnapshot> findAllConfigSnapshot() {
+        Map<String, ConfigAllInfo> configAllInfoMap = new HashMap<>();
+        configInfoMapper.selectList(Wrappers.lambdaQuery(ConfigAllInfo.class))
+                .forEach(each -> configAllInfoMap.put(String.join(GROUP_KEY_DELIMITER, each.getTpId(), each.getItemId(), each.getTenantId()), each));
+        Map<String, Map<String, ConfigAllInfo>> instanceConfigMap = new HashMap<>();
+        LambdaQueryWrapper<ConfigInstanceInfo> instanceQueryWrapper = Wrappers.lambdaQuery(ConfigInstanceInfo.class)
+                .orderByAsc(ConfigInstanceInfo::getGmtCreate);
+        // Rows are ordered by create time, so the latest config of each instance is kept.
+        configInstanceMapper.selectList(instanceQueryWrapper)
+                .forEach(each -> instanceConfigMap
+                        .computeIfAbsent(String.join(GROUP_KEY_DELIMITER, each.getTpId(), each.getItemId(), each.getTenantId()), key -> new HashMap<>())
+                        .put(each.getInstanceId(), parseConfigInstance(each)));
+        Map<String, ConfigSnapshot> result = new HashMap<>(configAllInfoMap.size());
+        configAllInfoMap.forEach((key, val) -> result.put(key, buildConfigSnapshot(val, instanceConfigMap.remove(key))));
+        instanceConfigMap.forEach((key, val) -> result.put(key, buildConfigSnapshot(null, val)));
+        return result;
+    }
+
+    private ConfigAllInfo parseConfigInstance(ConfigInstanceInfo instanceInfo) {
+        String content = instanceInfo.getContent();
+        ConfigAllInfo configInstance = JSONUtil.parseObject(content, ConfigAllInfo.class);
+        configInstance.setContent(content);
+        configInstance.setGmtCreate(instanceInfo.getGmtCreate());
+        configInstance.setMd5(Md5Util.getTpContentMd5(configInstance));
+        return configInstance;
+    }
+
+    private ConfigSnapshot buildConfigSnapshot(ConfigAllInfo configAllInfo, Map<String, ConfigAllInfo> instanceConfigs) {
+        if (configAllInfo != null) {
+            configAllInfo.setMd5(Md5Util.getTpContentMd5(configAllInfo));
+        }
+        return new ConfigSnapshot(configAllInfo, instanceConfigs);
+    }
+
     @Override
     public void insertOrUpdate(String identify, boolean isChangeNotice, ConfigAllInfo configInfo) {
         verification(identify);
@@ -239,6 +279,7 @@ public class ConfigServiceImpl implements ConfigService {
                 Assert.isNull(configAllInfo, "线程池配置已存在");
                 if (SqlHelper.retBool(configInfoMapper.insert(config))) {
                     configId = config.getId();
+                    ConfigCacheService.evictConfigSnapshot(ContentUtil.getGroupKey(config));
                 }
             }
         } catch (Exception ex) {
@@ -316,7 +357,9 @@ public class ConfigServiceImpl implements ConfigService {
                 LINKED_BLOCKING_QUEUE.getType(),
                 LINKED_BLOCKING_DEQUE.getType(),
                 PRIORITY_BLOCKING_QUEUE.getType(),
-                RESIZABLE_LINKED_BLOCKING_QUEUE.getType()).collect(Collectors.toList());
+                RESIZABLE_LINKED_BLOCKING_QUEUE.getType(),
+                RESIZABLE_ARRAY_BLOCKING_QUEUE.getType(),
+                EAGER_GROWTH_BLOCKING_QUEUE.getType()).collect(Collectors.toList());
         boolean setDefaultFlag = queueTypes.contains(config.getQueueType()) && (config.getCapacity() == null || Objects.equals(config.getCapacity(), 0));
         if (setDefaultFlag) {
             queueCapacity = DEFAULT_QUEUE_CAPACITY;
@@ -25,6 +25,7 @@ import cn.hippo4j.common.toolkit.BeanUtil;
 import cn.hippo4j.common.toolkit.DateUtil;
 import cn.hippo4j.common.toolkit.GroupKey;
 import cn.hippo4j.common.toolkit.MessageConvert;
+import cn.hippo4j.common.toolkit.StringUtil;
 import cn.hippo4j.config.config.ServerBootstrapProperties;
 import cn.hippo4j.config.mapper.HisRunDataMapper;
 import cn.hippo4j.config.model.HisRunDataInfo;
@@ -32,6 +33,8 @@ import cn.hippo4j.config.model.biz.monitor.MonitorActiveRespDTO;
 import cn.hippo4j.config.model.biz.monitor.MonitorQueryReqDTO;
 import cn.hippo4j.config.model.biz.monitor.MonitorRespDTO;
 import cn.hippo4j.config.monitor.QueryMonitorExecuteChoose;
+import cn.hippo4j.config.monitor.store.HisRunDataRollup;
+import cn.hippo4j.config.monitor.store.HisRunDataStore;
 import cn.hippo4j.config.service.ConfigCacheService;
 import cn.hippo4j.config.service.biz.HisRunDataService;
 import cn.hippo4j.server.common.base.Results;
@@ -65,19 +68,16 @@ public class HisRunDataServiceImpl extends ServiceImpl<HisRunDataMapper, HisRunD
 
     private final ThreadPoolTaskExecutor monitorThreadPoolTaskExecutor;
 
+    private final HisRunDataStore hisRunDataStore;
+
+    private final HisRunDataRollup hisRunDataRollup;
+
     @Override
     public List<MonitorRespDTO> query(MonitorQueryReqDTO reqDTO) {
         LocalDateTime currentDate = LocalDateTime.now();
         LocalDateTime dateTime = currentDate.plusMinutes(-properties.getCleanHistoryDataPeriod());
         long startTime = DateUtil.getTime(dateTime);
-        List<HisRunDataInfo> hisRunDataInfos = this.lambdaQuery()
-                .eq(HisRunDataInfo::getTenantId, reqDTO.getTenantId())
-                .eq(HisRunDataInfo::getItemId, reqDTO.getItemId())
-                .eq(HisRunDataInfo::getTpId, reqDTO.getTpId())
-                .eq(HisRunDataInfo::getInstanceId, reqDTO.getInstanceId())
-                .between(HisRunDataInfo::getTimestamp, startTime, DateUtil.getTime(currentDate))
-                .orderByAsc(HisRunDataInfo::getTimestamp)
-                .list();
+        List<HisRunDataInfo> hisRunDataInfos = hisRunDataRollup.query(reqDTO, startTime, DateUtil.getTime(currentDate), getMaxPoints(reqDTO));
         return BeanUtil.convert(hisRunDataInfos, MonitorRespDTO.class);
     }
 
@@ -91,14 +91,7 @@ public class HisRunDataServiceImpl extends ServiceImpl<HisRunDataMapper, HisRunD
             startTime = DateUtil.getTime(dateTime);
             endTime = DateUtil.getTime(currentDate);
         }
-        List<HisRunDataInfo> hisRunDataInfos = this.lambdaQuery()
-                .eq(HisRunDataInfo::getTenantId, reqDTO.getTenantId())
-                .eq(HisRunDataInfo::getItemId, reqDTO.getItemId())
-                .eq(HisRunDataInfo::getTpId, reqDTO.getTpId())
-                .eq(HisRunDataInfo::getInstanceId, reqDTO.getInstanceId())
-                .between(HisRunDataInfo::getTimestamp, startTime, endTime)
-                .orderByAsc(HisRunDataInfo::getTimestamp)
-                .list();
+        List<HisRunDataInfo> hisRunDataInfos = hisRunDataRollup.query(reqDTO, startTime, endTime, getMaxPoints(reqDTO));
         List<String> times = new ArrayList<>();
         List<Long> poolSizeList = new ArrayList<>();
         List<Long> activeSizeList = new ArrayList<>();
@@ -148,20 +141,20 @@ public class HisRunDataServiceImpl extends ServiceImpl<HisRunDataMapper, HisRunD
                 .build();
     }
 
+    private int getMaxPoints(MonitorQueryReqDTO reqDTO) {
+        int maxPoints = properties.getMonitorMaxPoints();
+        if (reqDTO.getMaxPoints() != null && reqDTO.getMaxPoints() > 0) {
+            maxPoints = Math.min(maxPoints, reqDTO.getMaxPoints());
+        }
+        return maxPoints;
+    }
+
     @Override
     public MonitorRespDTO queryThreadPoolLastTaskCount(MonitorQueryReqDTO reqDTO) {
         LocalDateTime currentDate = LocalDateTime.now();
         LocalDateTime dateTime = currentDate.plusMinutes(-properties.getCleanHistoryDataPeriod());
         long startTime = DateUtil.getTime(dateTime);
-        HisRunDataInfo hisRunDataInfo = this.lambdaQuery()
-                .eq(HisRunDataInfo::getTenantId, reqDTO.getTenantId())
-                .eq(HisRunDataInfo::getItemId, reqDTO.getItemId())
-                .eq(HisRunDataInfo::getTpId, reqDTO.getTpId())
-                .eq(HisRunDataInfo::getInstanceId, reqDTO.getInstanceId())
-                .orderByDesc(HisRunDataInfo::getTimestamp)
-                .between(HisRunDataInfo::getTimestamp, startTime, DateUtil.getTime(currentDate))
-                .last("LIMIT 1")
-                .one();
+        HisRunDataInfo hisRunDataInfo = hisRunDataStore.queryLast(reqDTO, startTime, DateUtil.getTime(currentDate));
         return BeanUtil.convert(hisRunDataInfo, MonitorRespDTO.class);
     }
 
@@ -171,7 +164,7 @@ public class HisRunDataServiceImpl extends ServiceImpl<HisRunDataMapper, HisRunD
         List<RuntimeMessage> runtimeMessages = message.getMessages();
         List<HisRunDataInfo> hisRunDataInfos = new ArrayList<>();
         runtimeMessages.forEach(each -> {
-            HisRunDataInfo hisRunDataInfo = BeanUtil.convert(each, HisRunDataInfo.class);
+            HisRunDataInfo hisRunDataInfo = convert(each);
             String[] parseKey = GroupKey.parseKey(each.getGroupKey());
             boolean checkFlag = ConfigCacheService.checkTpId(each.getGroupKey(), parseKey[INDEX_0], parseKey[INDEX_3]);
             if (checkFlag) {
@@ -182,7 +175,31 @@ public class HisRunDataServiceImpl extends ServiceImpl<HisRunDataMapper, HisRunD
                 hisRunDataInfos.add(hisRunDataInfo);
             }
         });
-        this.saveBatch(hisRunDataInfos);
+        hisRunDataStore.save(hisRunDataInfos);
+        hisRunDataRollup.accept(hisRunDataInfos);
+    }
+
+    private HisRunDataInfo convert(RuntimeMessage runtimeMessage) {
+        HisRunDataInfo hisRunDataInfo = new HisRunDataInfo();
+        hisRunDataInfo.setCurrentLoad(parseLong(runtimeMessage.getCurrentLoad()));
+        hisRunDataInfo.setPeakLoad(parseLong(runtimeMessage.getPeakLoad()));
+        hisRunDataInfo.setPoolSize(toLong(runtimeMessage.getPoolSize()));
+        hisRunDataInfo.setActiveSize(parseLong(runtimeMessage.getActiveSize()));
+        hisRunDataInfo.setQueueCapacity(toLong(runtimeMessage.getQueueCapacity()));
+        hisRunDataInfo.setQueueSize(toLong(runtimeMessage.getQueueSize()));
+        hisRunDataInfo.setQueueRemainingCapacity(parseLong(runtimeMessage.getQueueRemainingCapacity()));
+        hisRunDataInfo.setCompletedTaskCount(runtimeMessage.getCompletedTaskCount());
+        hisRunDataInfo.setRejectCount(toLong(runtimeMessage.getRejectCount()));
+        hisRunDataInfo.setTimestamp(runtimeMessage.getTimestamp());
+        return hisRunDataInfo;
+    }
+
+    private static Long toLong(Integer value) {
+        return value == null ? null : value.longValue();
+    }
+
+    private static Long parseLong(String value) {
+        return StringUtil.isBlank(value) ? null : Long.valueOf(value);
     }
 
     @Override
@@ -198,4 +215,15 @@ public class HisRunDataServiceImpl extends ServiceImpl<HisRunDataMapper, HisRunD
         }
         return Results.success();
     }
+
+    @Override
+    public Result<Void> dataCollect(Message message) {
+        try {
+            monitorThreadPoolTaskExecutor.execute(() -> queryMonitorExecuteChoose.chooseAndExecute(message));
+        } catch (Exception ex) {
+            log.error("Monitoring data insertion database task overflow.", ex);
+            return Results.failure(ex);
+        }
+        return Results.success();
+    }
 }
@@ -18,6 +18,9 @@
 package cn.hippo4j.config.toolkit;
 
 import cn.hippo4j.common.executor.ExecutorFactory;
+import cn.hippo4j.common.executor.ThreadFactoryBuilder;
+import io.netty.util.HashedWheelTimer;
+import io.netty.util.Timeout;
 
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
@@ -33,6 +36,15 @@ public class ConfigExecutor {
     private static final ScheduledExecutorService LONG_POLLING_EXECUTOR = ExecutorFactory.Managed
             .newSingleScheduledExecutorService(DEFAULT_GROUP, r -> new Thread(r, "server.long.polling"));
 
+    /**
+     * Single thread, so that the config snapshots are refreshed in the order of the changes
+     */
+    private static final ScheduledExecutorService CONFIG_REFRESH_EXECUTOR = ExecutorFactory.Managed
+            .newSingleScheduledExecutorService(DEFAULT_GROUP, r -> new Thread(r, "server.config.refresh"));
+
+    private static final HashedWheelTimer LONG_POLLING_TIMEOUT_TIMER = new HashedWheelTimer(
+            ThreadFactoryBuilder.builder().daemon(true).prefix("server.long.polling.timeout").build(), 100L, TimeUnit.MILLISECONDS, 512);
+
     public static void executeLongPolling(Runnable runnable) {
         LONG_POLLING_EXECUTOR.execute(runnable);
     }
@@ -44,4 +56,26 @@ public class ConfigExecutor {
     public static void scheduleLongPolling(Runnable runnable, long initialDelay, long period, TimeUnit unit) {
         LONG_POLLING_EXECUTOR.scheduleWithFixedDelay(runnable, initialDelay, period, unit);
     }
+
+    /**
+     * Execute the refresh of config snapshot, which queries the database and should not block the long polling executor.
+     *
+     * @param runnable runnable
+     */
+    public static void executeConfigRefresh(Runnable runnable) {
+        CONFIG_REFRESH_EXECUTOR.execute(runnable);
+    }
+
+    /**
+     * Schedule a long polling timeout in a hashed wheel timer, instead of one scheduled future per client.
+     * The runnable is executed in the long polling executor when the timeout expires.
+     *
+     * @param runnable runnable
+     * @param delay    delay
+     * @param unit     unit of delay
+     * @return timeout, cancelled in O(1)
+     */
+    public static Timeout scheduleLongPollingTimeout(Runnable runnable, long delay, TimeUnit unit) {
+        return LONG_POLLING_TIMEOUT_TIMER.newTimeout(timeout -> executeLongPolling(runnable), delay, unit);
+    }
 }
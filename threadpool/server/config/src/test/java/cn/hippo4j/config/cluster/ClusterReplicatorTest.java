@@ -0,0 +1,177 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.hippo4j.config.cluster;
+
+import cn.hippo4j.common.model.InstanceInfo;
+import cn.hippo4j.config.event.LocalDataChangeEvent;
+import cn.hippo4j.config.model.ConfigAllInfo;
+import cn.hippo4j.config.model.ConfigSnapshot;
+import cn.hippo4j.config.service.ConfigCacheService;
+import cn.hippo4j.config.service.biz.ConfigService;
+import cn.hippo4j.core.config.ApplicationContextHolder;
+import cn.hippo4j.discovery.core.BaseInstanceRegistry;
+import cn.hippo4j.discovery.core.RegistryChange;
+import cn.hippo4j.discovery.core.RegistryChange.ChangeType;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.context.support.StaticApplicationContext;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Multi-node in-JVM test of {@link ClusterReplicator}.
+ */
+public class ClusterReplicatorTest {
+
+    private static final int NODE_COUNT = 3;
+
+    private static final String APP_NAME = "dynamic-threadpool-example";
+
+    private static final String GROUP_KEY = "message-produce+dynamic-threadpool-example+prescription";
+
+    private static final ConfigService CONFIG_SERVICE = mock(ConfigService.class);
+
+    private final List<BaseInstanceRegistry> registries = new ArrayList<>();
+
+    private final List<List<LocalDataChangeEvent>> configChanges = new ArrayList<>();
+
+    private final List<ClusterReplicator> replicators = new ArrayList<>();
+
+    @Before
+    public void startNodes() throws IOException {
+        StaticApplicationContext context = new StaticApplicationContext();
+        context.getBeanFactory().registerSingleton("configService", CONFIG_SERVICE);
+        new ApplicationContextHolder().setApplicationContext(context);
+        when(CONFIG_SERVICE.findConfigSnapshot("message-produce", APP_NAME, "prescription")).thenReturn(snapshot("1"));
+        List<Integer> ports = new ArrayList<>();
+        for (int i = 0; i < NODE_COUNT; i++) {
+            try (ServerSocket socket = new ServerSocket(0)) {
+                ports.add(socket.getLocalPort());
+            }
+        }
+        for (int i = 0; i < NODE_COUNT; i++) {
+            int node = i;
+            String peers = IntStream.range(0, NODE_COUNT).filter(each -> each != node)
+                    .mapToObj(each -> "localhost:" + ports.get(each)).collect(Collectors.joining(","));
+            BaseInstanceRegistry registry = new BaseInstanceRegistry();
+            List<LocalDataChangeEvent> events = new CopyOnWriteArrayList<>();
+            ClusterReplicator replicator = new ClusterReplicator(registry, ports.get(i), peers, 20L, 3000L, true, events::add);
+            registries.add(registry);
+            configChanges.add(events);
+            replicators.add(replicator);
+            replicator.start();
+        }
+        await(() -> replicators.stream().allMatch(ClusterReplicator::isActive));
+    }
+
+    @After
+    public void stopNodes() {
+        replicators.forEach(ClusterReplicator::stop);
+    }
+
+    @Test
+    public void testRegistryReplication() {
+        registries.get(0).register(instance("1"));
+        registries.get(1).register(instance("2"));
+        await(() -> registries.stream().allMatch(each -> each.listInstance(APP_NAME).size() == 2));
+        Assert.assertEquals("127.0.0.1:8088_1", registries.get(2).listInstance(APP_NAME).stream()
+                .filter(each -> "1".equals(each.getHolder().getInstanceId())).findFirst().get().getHolder().getIdentify());
+
+        long version = registries.get(2).getVersion();
+        registries.get(1).renew(new InstanceInfo.InstanceRenew().setAppName(APP_NAME).setInstanceId("1"));
+        await(() -> registries.get(2).getDelta(version).getChanges().stream().anyMatch(each -> each.getType() == ChangeType.RENEW));
+
+        registries.get(2).remove(instance("1"));
+        await(() -> registries.stream().allMatch(each -> each.listInstance(APP_NAME).size() == 1));
+        // the replicated changes are not replicated again
+        await(() -> replicators.stream().allMatch(replicator -> replicator.getPeers().stream()
+                .allMatch(peer -> peer.getVersion() == registries.get(replicators.indexOf(replicator)).getVersion())));
+        long localChanges = 0L;
+        for (BaseInstanceRegistry each : registries) {
+            List<RegistryChange> changes = each.getDelta(0L).getChanges();
+            Assert.assertEquals(4, changes.size());
+            localChanges += changes.stream().filter(change -> !change.isReplication()).count();
+        }
+        Assert.assertEquals(4L, localChanges);
+    }
+
+    @Test
+    public void testConfigChangeBroadcast() {
+        Assert.assertEquals("1", ConfigCacheService.getContentMd5(GROUP_KEY));
+        when(CONFIG_SERVICE.findConfigSnapshot("message-produce", APP_NAME, "prescription")).thenReturn(snapshot("2"));
+        replicators.get(0).replicateConfigChange(new LocalDataChangeEvent("127.0.0.1:8088_1", GROUP_KEY));
+        // read-your-writes, the peers have fired the change when the broadcast returns
+        Assert.assertTrue(configChanges.get(0).isEmpty());
+        for (List<LocalDataChangeEvent> each : configChanges.subList(1, NODE_COUNT)) {
+            Assert.assertEquals(1, each.size());
+            Assert.assertTrue(each.get(0).isReplication());
+            Assert.assertEquals("127.0.0.1:8088_1", each.get(0).getIdentify());
+            Assert.assertEquals(GROUP_KEY, each.get(0).getGroupKey());
+        }
+        // the peers have refreshed the config snapshot before acknowledging the change
+        Assert.assertEquals("2", ConfigCacheService.getContentMd5(GROUP_KEY));
+    }
+
+    @Test
+    public void testCoalesceRenewals() {
+        List<RegistryChange> changes = Arrays.asList(
+                new RegistryChange(1L, ChangeType.REGISTER, APP_NAME, "1", instance("1"), 0L, false),
+                new RegistryChange(2L, ChangeType.RENEW, APP_NAME, "1", null, 0L, false),
+                new RegistryChange(3L, ChangeType.RENEW, APP_NAME, "2", null, 0L, true),
+                new RegistryChange(4L, ChangeType.RENEW, APP_NAME, "1", null, 0L, false),
+                new RegistryChange(5L, ChangeType.EVICT, APP_NAME, "3", null, 0L, false),
+                new RegistryChange(6L, ChangeType.CANCEL, APP_NAME, "1", null, 0L, false));
+        List<ReplicationEvent> events = ClusterReplicator.toReplicationEvents(changes);
+        Assert.assertEquals(Arrays.asList(ChangeType.REGISTER, ChangeType.RENEW, ChangeType.CANCEL),
+                events.stream().map(ReplicationEvent::getType).collect(Collectors.toList()));
+    }
+
+    private static InstanceInfo instance(String instanceId) {
+        return new InstanceInfo().setAppName(APP_NAME).setInstanceId(instanceId).setIdentify("127.0.0.1:8088_" + instanceId);
+    }
+
+    private static ConfigSnapshot snapshot(String md5) {
+        ConfigAllInfo config = new ConfigAllInfo();
+        config.setTpId("message-produce");
+        config.setMd5(md5);
+        return new ConfigSnapshot(config, null);
+    }
+
+    private static void await(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10L);
+        while (!condition.getAsBoolean()) {
+            Assert.assertTrue("Timeout", System.nanoTime() < deadline);
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(10L));
+        }
+    }
+}
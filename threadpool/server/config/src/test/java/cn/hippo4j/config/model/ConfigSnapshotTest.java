@@ -0,0 +1,60 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.hippo4j.config.model;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.Date;
+
+public class ConfigSnapshotTest {
+
+    @Test
+    public void getRecentInfoTest() {
+        ConfigAllInfo base = new ConfigAllInfo();
+        base.setGmtModified(new Date(1000L));
+        ConfigAllInfo newerInstance = new ConfigAllInfo();
+        newerInstance.setGmtCreate(new Date(2000L));
+        ConfigAllInfo olderInstance = new ConfigAllInfo();
+        olderInstance.setGmtCreate(new Date(500L));
+        Assert.assertSame(newerInstance, new ConfigSnapshot(base, Collections.singletonMap("a", newerInstance)).getRecentInfo("a"));
+        Assert.assertSame(base, new ConfigSnapshot(base, Collections.singletonMap("a", olderInstance)).getRecentInfo("a"));
+        Assert.assertSame(base, new ConfigSnapshot(base, Collections.singletonMap("a", newerInstance)).getRecentInfo("b"));
+        Assert.assertSame(base, new ConfigSnapshot(base, null).getRecentInfo(null));
+    }
+
+    @Test
+    public void emptySnapshotTest() {
+        ConfigSnapshot snapshot = new ConfigSnapshot(null, null);
+        Assert.assertTrue(snapshot.isEmpty());
+        Assert.assertNull(snapshot.getRecentInfo("a"));
+        ConfigAllInfo instance = new ConfigAllInfo();
+        Assert.assertSame(instance, new ConfigSnapshot(null, Collections.singletonMap("a", instance)).getRecentInfo("a"));
+    }
+
+    @Test
+    public void missingSnapshotTest() {
+        ConfigSnapshot snapshot = ConfigSnapshot.missing(1000L);
+        Assert.assertTrue(snapshot.isEmpty());
+        Assert.assertNull(snapshot.getRecentInfo("a"));
+        Assert.assertFalse(snapshot.isExpired(999L));
+        Assert.assertTrue(snapshot.isExpired(1000L));
+        Assert.assertFalse(new ConfigSnapshot(new ConfigAllInfo(), null).isExpired(Long.MAX_VALUE - 1));
+    }
+}
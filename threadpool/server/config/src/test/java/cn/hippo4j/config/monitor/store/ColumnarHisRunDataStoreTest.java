@@ -0,0 +1,133 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.hippo4j.config.monitor.store;
+
+import cn.hippo4j.config.mapper.HisRunDataMapper;
+import cn.hippo4j.config.model.HisRunDataInfo;
+import cn.hippo4j.config.model.biz.monitor.MonitorQueryReqDTO;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ColumnarHisRunDataStore Test
+ */
+public class ColumnarHisRunDataStoreTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testQueryActivePartition() throws Exception {
+        ColumnarHisRunDataStore store = new ColumnarHisRunDataStore(folder.getRoot().toPath(), TimeUnit.MINUTES.toMillis(5));
+        long now = System.currentTimeMillis();
+        store.save(Arrays.asList(sample("tp1", "instance1", now - 2000, 10L), sample("tp1", "instance1", now - 3000, 5L),
+                sample("tp1", "instance2", now - 1000, 7L)));
+        List<HisRunDataInfo> result = store.query(request("tp1", "instance1"), now - 10000, now);
+        Assert.assertEquals(2, result.size());
+        Assert.assertEquals(Long.valueOf(now - 3000), result.get(0).getTimestamp());
+        Assert.assertEquals(Long.valueOf(5L), result.get(0).getCompletedTaskCount());
+        Assert.assertEquals("tp1", result.get(0).getTpId());
+        Assert.assertNull(result.get(0).getPeakLoad());
+        Assert.assertEquals(Long.valueOf(10L), store.queryLast(request("tp1", "instance1"), now - 10000, now).getCompletedTaskCount());
+        Assert.assertNull(store.queryLast(request("tp2", "instance1"), now - 10000, now));
+    }
+
+    @Test
+    public void testSealAndReload() throws Exception {
+        ColumnarHisRunDataStore store = new ColumnarHisRunDataStore(folder.getRoot().toPath(), TimeUnit.MINUTES.toMillis(5));
+        long now = System.currentTimeMillis();
+        List<HisRunDataInfo> samples = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            samples.add(sample("tp1", "instance1", now - (100 - i) * 1000L, i));
+        }
+        store.save(samples);
+        store.destroy();
+        File[] files = folder.getRoot().listFiles((dir, name) -> name.endsWith(ColumnarSegment.FILE_SUFFIX));
+        Assert.assertEquals(1, files.length);
+
+        ColumnarHisRunDataStore reloaded = new ColumnarHisRunDataStore(folder.getRoot().toPath(), TimeUnit.MINUTES.toMillis(5));
+        List<HisRunDataInfo> result = reloaded.query(request("tp1", "instance1"), now - 50000, now);
+        Assert.assertEquals(50, result.size());
+        Assert.assertEquals(Long.valueOf(50L), result.get(0).getCompletedTaskCount());
+        Assert.assertEquals(Long.valueOf(99L), result.get(49).getCompletedTaskCount());
+        Assert.assertEquals(samples.get(99), reloaded.queryLast(request("tp1", "instance1"), now - 50000, now));
+
+        reloaded.cleanBefore(now - 50000);
+        Assert.assertEquals(50, reloaded.query(request("tp1", "instance1"), now - 50000, now).size());
+        reloaded.cleanBefore(now);
+        Assert.assertTrue(reloaded.query(request("tp1", "instance1"), 0, now).isEmpty());
+        Assert.assertEquals(0, folder.getRoot().listFiles().length);
+    }
+
+    @Test
+    public void testRanking() throws Exception {
+        ColumnarHisRunDataStore store = new ColumnarHisRunDataStore(folder.getRoot().toPath(), TimeUnit.MINUTES.toMillis(5));
+        long now = System.currentTimeMillis();
+        List<HisRunDataInfo> samples = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            samples.add(sample("tp" + i, "instance1", now - 1000, i * 10L));
+            samples.add(sample("tp" + i, "instance2", now - 1000, i * 10L + 1));
+        }
+        store.save(samples);
+        store.destroy();
+        store.save(Collections.singletonList(sample("tp0", "instance1", now, 1000L)));
+        List<HisRunDataMapper.ThreadPoolTaskRanking> rankings = store.queryThreadPoolTaskSumRanking(now - 10000, now);
+        Assert.assertEquals(8, rankings.size());
+        Assert.assertEquals("tp0", rankings.get(0).getTpId());
+        Assert.assertEquals(Long.valueOf(1000L), rankings.get(0).getMaxCompletedTaskCount());
+        Assert.assertEquals("tp9", rankings.get(1).getTpId());
+        Assert.assertEquals(Long.valueOf(91L), rankings.get(1).getMaxCompletedTaskCount());
+        Assert.assertEquals(4, store.queryThreadPoolMaxRanking(now - 10000, now).size());
+    }
+
+    private static MonitorQueryReqDTO request(String tpId, String instanceId) {
+        MonitorQueryReqDTO reqDTO = new MonitorQueryReqDTO();
+        reqDTO.setTenantId("tenant");
+        reqDTO.setItemId("item");
+        reqDTO.setTpId(tpId);
+        reqDTO.setInstanceId(instanceId);
+        return reqDTO;
+    }
+
+    private static HisRunDataInfo sample(String tpId, String instanceId, long timestamp, long completedTaskCount) {
+        HisRunDataInfo info = new HisRunDataInfo();
+        info.setTenantId("tenant");
+        info.setItemId("item");
+        info.setTpId(tpId);
+        info.setInstanceId(instanceId);
+        info.setTimestamp(timestamp);
+        info.setCurrentLoad(10L);
+        info.setPoolSize(4L);
+        info.setActiveSize(2L);
+        info.setQueueCapacity(1024L);
+        info.setQueueSize(completedTaskCount % 7);
+        info.setQueueRemainingCapacity(1024L - completedTaskCount % 7);
+        info.setCompletedTaskCount(completedTaskCount);
+        info.setRejectCount(0L);
+        return info;
+    }
+}
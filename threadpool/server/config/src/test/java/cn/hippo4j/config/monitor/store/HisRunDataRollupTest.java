@@ -0,0 +1,129 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.hippo4j.config.monitor.store;
+
+import cn.hippo4j.config.mapper.HisRunDataMapper;
+import cn.hippo4j.config.model.HisRunDataInfo;
+import cn.hippo4j.config.model.biz.monitor.MonitorQueryReqDTO;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * HisRunDataRollup Test
+ */
+public class HisRunDataRollupTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private ColumnarHisRunDataStore store;
+
+    private HisRunDataRollup rollup;
+
+    private long base;
+
+    @Before
+    public void setUp() throws Exception {
+        store = new ColumnarHisRunDataStore(folder.getRoot().toPath(), TimeUnit.MINUTES.toMillis(5));
+        rollup = new HisRunDataRollup(store);
+        // samples after the rollups are created, 24 hours of samples every 5 seconds
+        base = RollupTier.TEN_MINUTES.bucketStart(System.currentTimeMillis()) + TimeUnit.DAYS.toMillis(1);
+        List<HisRunDataInfo> samples = new ArrayList<>();
+        for (int i = 0; i < 17280; i++) {
+            samples.add(sample(base + i * 5000L, i % 12 == 5 ? 100L : i % 4, i));
+        }
+        store.save(samples);
+        rollup.accept(samples);
+    }
+
+    @Test
+    public void testShortWindowUsesRawSamples() {
+        List<HisRunDataInfo> result = rollup.query(request(), base, base + TimeUnit.MINUTES.toMillis(10), 720);
+        Assert.assertEquals(121, result.size());
+        Assert.assertEquals(Long.valueOf(base), result.get(0).getTimestamp());
+    }
+
+    @Test
+    public void testOneMinuteTier() {
+        List<HisRunDataInfo> result = rollup.query(request(), base, base + TimeUnit.HOURS.toMillis(6), 720);
+        Assert.assertEquals(361, result.size());
+        HisRunDataInfo first = result.get(0);
+        Assert.assertEquals(Long.valueOf(base), first.getTimestamp());
+        // max of gauges, last of counters
+        Assert.assertEquals(Long.valueOf(100L), first.getActiveSize());
+        Assert.assertEquals(Long.valueOf(11L), first.getCompletedTaskCount());
+        Assert.assertEquals(Long.valueOf(1024L - 3L), first.getQueueRemainingCapacity());
+        Assert.assertEquals(Long.valueOf(1024L), first.getQueueCapacity());
+    }
+
+    @Test
+    public void testTenMinutesTierAndDownsample() {
+        List<HisRunDataInfo> result = rollup.query(request(), base, base + TimeUnit.DAYS.toMillis(1), 720);
+        Assert.assertEquals(144, result.size());
+        Assert.assertEquals(Long.valueOf(119L), result.get(0).getCompletedTaskCount());
+        List<HisRunDataInfo> downsampled = rollup.query(request(), base, base + TimeUnit.DAYS.toMillis(1), 50);
+        Assert.assertEquals(50, downsampled.size());
+        Assert.assertEquals(result.get(0), downsampled.get(0));
+        Assert.assertEquals(result.get(143), downsampled.get(49));
+    }
+
+    @Test
+    public void testRankingAndClean() {
+        List<HisRunDataMapper.ThreadPoolTaskRanking> rankings = rollup.queryThreadPoolMaxRanking(base, base + TimeUnit.MINUTES.toMillis(10));
+        Assert.assertEquals(1, rankings.size());
+        // rankings are at the granularity of one minute buckets, the bucket starting at the end is included
+        Assert.assertEquals(Long.valueOf(131L), rankings.get(0).getMaxCompletedTaskCount());
+        Assert.assertEquals(Long.valueOf(3L), rankings.get(0).getMaxQueueSize());
+        rollup.cleanBefore(base + TimeUnit.DAYS.toMillis(2));
+        Assert.assertTrue(rollup.queryThreadPoolTaskSumRanking(base, base + TimeUnit.DAYS.toMillis(1)).isEmpty());
+        Assert.assertTrue(rollup.query(request(), base, base + TimeUnit.DAYS.toMillis(1), 720).isEmpty());
+    }
+
+    private static MonitorQueryReqDTO request() {
+        MonitorQueryReqDTO reqDTO = new MonitorQueryReqDTO();
+        reqDTO.setTenantId("tenant");
+        reqDTO.setItemId("item");
+        reqDTO.setTpId("tp");
+        reqDTO.setInstanceId("instance");
+        return reqDTO;
+    }
+
+    private static HisRunDataInfo sample(long timestamp, long activeSize, long completedTaskCount) {
+        HisRunDataInfo info = new HisRunDataInfo();
+        info.setTenantId("tenant");
+        info.setItemId("item");
+        info.setTpId("tp");
+        info.setInstanceId("instance");
+        info.setTimestamp(timestamp);
+        info.setPoolSize(4L);
+        info.setActiveSize(activeSize);
+        info.setQueueCapacity(1024L);
+        info.setQueueSize(completedTaskCount % 4);
+        info.setQueueRemainingCapacity(1024L - completedTaskCount % 4);
+        info.setCompletedTaskCount(completedTaskCount);
+        info.setRejectCount(0L);
+        return info;
+    }
+}
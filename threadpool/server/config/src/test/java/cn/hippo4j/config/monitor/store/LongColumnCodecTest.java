@@ -0,0 +1,71 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.hippo4j.config.monitor.store;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+/**
+ * LongColumnCodec Test
+ */
+public class LongColumnCodecTest {
+
+    @Test
+    public void testRegularTimestamps() {
+        long[] values = new long[1000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = 1700000000000L + i * 5000L;
+        }
+        byte[] encoded = LongColumnCodec.encode(values, values.length);
+        // the first value takes 8 bytes, each following value takes 1 bit, except for the first delta
+        Assert.assertTrue(encoded.length < 8 + 8 + values.length / 8);
+        Assert.assertArrayEquals(values, LongColumnCodec.decode(ByteBuffer.wrap(encoded), values.length));
+    }
+
+    @Test
+    public void testExtremeValues() {
+        long[] values = {0L, Long.MIN_VALUE, Long.MAX_VALUE, -1L, 1L, Long.MIN_VALUE, Long.MIN_VALUE, 100L, 63L, -64L, 1L << 40};
+        byte[] encoded = LongColumnCodec.encode(values, values.length);
+        Assert.assertArrayEquals(values, LongColumnCodec.decode(ByteBuffer.wrap(encoded), values.length));
+    }
+
+    @Test
+    public void testRandomValues() {
+        Random random = new Random(7);
+        long[] values = new long[500];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i % 3 == 0 ? random.nextLong() : random.nextInt(1 << (i % 20 + 1));
+        }
+        byte[] encoded = LongColumnCodec.encode(values, values.length);
+        Assert.assertArrayEquals(values, LongColumnCodec.decode(ByteBuffer.wrap(encoded), values.length));
+    }
+
+    @Test
+    public void testDecodeFromPosition() {
+        long[] values = {3L, 5L, 9L};
+        byte[] encoded = LongColumnCodec.encode(values, values.length);
+        ByteBuffer buffer = ByteBuffer.allocate(encoded.length + 4);
+        buffer.putInt(42).put(encoded);
+        buffer.position(4);
+        Assert.assertArrayEquals(values, LongColumnCodec.decode(buffer, values.length));
+        Assert.assertEquals(0, LongColumnCodec.decode(buffer, 0).length);
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.hippo4j.config.service;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+/**
+ * SubscriptionIndex Test
+ */
+public class SubscriptionIndexTest {
+
+    @Test
+    public void testIndexByConfigKeyAndGroupKey() {
+        SubscriptionIndex<Object> index = new SubscriptionIndex<>();
+        Object client1 = new Object();
+        Object client2 = new Object();
+        index.add(client1, Arrays.asList("tp1+item+tenant+127.0.0.1:8080_a", "tp2+item+tenant+127.0.0.1:8080_a"));
+        index.add(client2, Collections.singletonList("tp1+item+tenant+127.0.0.1:8081_b"));
+        Assert.assertEquals(2, index.size());
+        Assert.assertEquals(Collections.singletonList(client1), index.getByConfigKey("tp1+item+tenant+127.0.0.1:8080_a"));
+        Assert.assertEquals(Arrays.asList(client1, client2), index.getByGroupKey("tp1+item+tenant"));
+        Assert.assertEquals(Collections.singletonList(client1), index.getByGroupKey("tp2+item+tenant"));
+        Assert.assertTrue(index.getByGroupKey("tp3+item+tenant").isEmpty());
+        Assert.assertEquals(Collections.singletonList("tp2+item+tenant+127.0.0.1:8080_a"), index.getConfigKeys(client1, "tp2+item+tenant"));
+    }
+
+    @Test
+    public void testRemove() {
+        SubscriptionIndex<Object> index = new SubscriptionIndex<>();
+        Object client = new Object();
+        index.add(client, Collections.singletonList("tp1+item+tenant+identify"));
+        Assert.assertTrue(index.remove(client));
+        Assert.assertFalse(index.remove(client));
+        Assert.assertEquals(0, index.size());
+        Assert.assertTrue(index.getByGroupKey("tp1+item+tenant").isEmpty());
+        Assert.assertTrue(index.getByConfigKey("tp1+item+tenant+identify").isEmpty());
+        Assert.assertTrue(index.getConfigKeys(client, "tp1+item+tenant").isEmpty());
+    }
+
+    @Test
+    public void testGroupKeyOf() {
+        Assert.assertEquals("tp1+item+tenant", SubscriptionIndex.groupKeyOf("tp1+item+tenant+identify"));
+        Assert.assertEquals("key", SubscriptionIndex.groupKeyOf("key"));
+    }
+}
@@ -18,8 +18,12 @@
 package cn.hippo4j.config.toolkit;
 
 import lombok.extern.slf4j.Slf4j;
+import org.junit.Assert;
 import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * ConfigExecutor Test
@@ -41,4 +45,28 @@ public class ConfigExecutorTest {
     public void scheduleLongPollingInitialTest() {
         ConfigExecutor.scheduleLongPolling(() -> log.info(Thread.currentThread().getName()), 0, 5, TimeUnit.SECONDS);
     }
+
+    @Test
+    public void executeConfigRefreshTest() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(1);
+        AtomicReference<String> threadName = new AtomicReference<>();
+        ConfigExecutor.executeConfigRefresh(() -> {
+            threadName.set(Thread.currentThread().getName());
+            latch.countDown();
+        });
+        Assert.assertTrue(latch.await(5, TimeUnit.SECONDS));
+        Assert.assertEquals("server.config.refresh", threadName.get());
+    }
+
+    @Test
+    public void scheduleLongPollingTimeoutTest() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(1);
+        AtomicReference<String> threadName = new AtomicReference<>();
+        ConfigExecutor.scheduleLongPollingTimeout(() -> {
+            threadName.set(Thread.currentThread().getName());
+            latch.countDown();
+        }, 100, TimeUnit.MILLISECONDS);
+        Assert.assertTrue(latch.await(5, TimeUnit.SECONDS));
+        Assert.assertEquals("server.long.polling", threadName.get());
+    }
 }
@@ -31,6 +31,7 @@ import cn.hippo4j.config.model.ConfigAllInfo;
 import cn.hippo4j.config.model.ConfigInfoBase;
 import cn.hippo4j.config.model.ItemInfo;
 import cn.hippo4j.config.model.TenantInfo;
+import cn.hippo4j.config.monitor.store.HisRunDataRollup;
 import cn.hippo4j.config.service.ConfigCacheService;
 import cn.hippo4j.console.model.ChartInfo;
 import cn.hippo4j.console.model.LineChartInfo;
@@ -67,7 +68,7 @@ public class DashboardServiceImpl implements DashboardService {
 
     private final ConfigInfoMapper configInfoMapper;
 
-    private final HisRunDataMapper hisRunDataMapper;
+    private final HisRunDataRollup hisRunDataRollup;
 
     private final BaseInstanceRegistry baseInstanceRegistry;
 
@@ -90,7 +91,7 @@ public class DashboardServiceImpl implements DashboardService {
         LocalDateTime startDate = currentDate.plusMinutes(-10);
         long currentTime = DateUtil.getTime(currentDate);
         long startTime = DateUtil.getTime(startDate);
-        List<HisRunDataMapper.ThreadPoolTaskRanking> threadPoolTaskRankings = hisRunDataMapper.queryThreadPoolMaxRanking(startTime, currentTime);
+        List<HisRunDataMapper.ThreadPoolTaskRanking> threadPoolTaskRankings = hisRunDataRollup.queryThreadPoolMaxRanking(startTime, currentTime);
         List<Object> oneList = new ArrayList<>();
         List<Object> twoList = new ArrayList<>();
         List<Object> threeList = new ArrayList<>();
@@ -171,7 +172,7 @@ public class DashboardServiceImpl implements DashboardService {
         long currentTime = DateUtil.getTime(currentDate);
         long startTime = DateUtil.getTime(startDate);
         List<RankingChart.RankingChartInfo> resultList = new ArrayList<>();
-        List<HisRunDataMapper.ThreadPoolTaskRanking> threadPoolTaskRankings = hisRunDataMapper.queryThreadPoolTaskSumRanking(startTime, currentTime);
+        List<HisRunDataMapper.ThreadPoolTaskRanking> threadPoolTaskRankings = hisRunDataRollup.queryThreadPoolTaskSumRanking(startTime, currentTime);
         threadPoolTaskRankings.forEach(each -> {
             RankingChart.RankingChartInfo rankingChartInfo = new RankingChart.RankingChartInfo();
             rankingChartInfo.setMaxCompletedTaskCount(each.getMaxCompletedTaskCount());
@@ -21,6 +21,7 @@ import cn.hippo4j.common.model.InstanceInfo;
 import cn.hippo4j.common.model.Result;
 import cn.hippo4j.discovery.core.InstanceRegistry;
 import cn.hippo4j.discovery.core.Lease;
+import cn.hippo4j.discovery.core.RegistryDelta;
 import cn.hippo4j.server.common.base.Results;
 import cn.hippo4j.server.common.base.exception.ErrorCodeEnum;
 import lombok.AllArgsConstructor;
@@ -53,6 +54,11 @@ public class ApplicationController {
         return Results.success(resultInstanceList);
     }
 
+    @GetMapping("/delta/{version}")
+    public Result<RegistryDelta> delta(@PathVariable long version) {
+        return Results.success(instanceRegistry.getDelta(version));
+    }
+
     @PostMapping("/register")
     public Result<Void> addInstance(@RequestBody InstanceInfo instanceInfo) {
         instanceRegistry.register(instanceInfo);
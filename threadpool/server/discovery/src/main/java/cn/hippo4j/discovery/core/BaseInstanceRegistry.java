@@ -45,6 +45,12 @@ import static cn.hippo4j.common.constant.Constants.SCHEDULED_THREAD_CORE_NUM;
  * Base instance registry.
  *
  * <p> Reference from Eureka. Service registration, service offline, service renewal.
+ *
+ * <p> The leases are also indexed by their expiry time, so that {@link #evict} only visits the expired leases,
+ * and every register, renew and cancel is appended to a versioned change log, see {@link #getDelta}.
+ *
+ * <p> The changes applied with {@code isReplication} are received from the peer nodes of a cluster,
+ * they are marked in the change log so that they are not replicated again.
  */
 @Slf4j
 @Service
@@ -52,16 +58,53 @@ public class BaseInstanceRegistry implements InstanceRegistry<InstanceInfo> {
 
     private static final int CONTAINER_SIZE = 1024;
 
+    /**
+     * Count of the latest changes retained for {@link #getDelta}
+     */
+    private static final int CHANGE_LOG_CAPACITY = 1 << 16;
+
+    /**
+     * Max count of changes returned by one {@link #getDelta}
+     */
+    private static final int MAX_DELTA_CHANGES = 4096;
+
     private final ConcurrentHashMap<String, Map<String, Lease<InstanceInfo>>> registry = new ConcurrentHashMap<>(CONTAINER_SIZE);
 
+    /**
+     * key: appName
+     * val: unmodifiable copy of the leases, removed when the instances of the application change
+     */
+    private final ConcurrentHashMap<String, List<Lease<InstanceInfo>>> instanceListCache = new ConcurrentHashMap<>(CONTAINER_SIZE);
+
+    private final LeaseExpiryIndex<InstanceInfo> expiryIndex = new LeaseExpiryIndex<>();
+
+    private final RegistryChangeLog changeLog = new RegistryChangeLog(CHANGE_LOG_CAPACITY);
+
     @Override
     public List<Lease<InstanceInfo>> listInstance(String appName) {
         Map<String, Lease<InstanceInfo>> appNameLeaseMap = registry.get(appName);
-        return CollectionUtils.isEmpty(appNameLeaseMap) ? Collections.emptyList() : new ArrayList<>(appNameLeaseMap.values());
+        if (CollectionUtils.isEmpty(appNameLeaseMap)) {
+            return Collections.emptyList();
+        }
+        List<Lease<InstanceInfo>> instanceList = instanceListCache.get(appName);
+        if (instanceList == null) {
+            instanceList = instanceListCache.computeIfAbsent(appName, key -> Collections.unmodifiableList(new ArrayList<>(appNameLeaseMap.values())));
+        }
+        return instanceList;
     }
 
     @Override
     public void register(InstanceInfo registrant) {
+        register(registrant, false);
+    }
+
+    /**
+     * Register.
+     *
+     * @param registrant    the instance
+     * @param isReplication whether the registration is replicated from a peer node
+     */
+    public void register(InstanceInfo registrant, boolean isReplication) {
         Map<String, Lease<InstanceInfo>> registerMap = registry.get(registrant.getAppName());
         if (registerMap == null) {
             ConcurrentHashMap<String, Lease<InstanceInfo>> registerNewMap = new ConcurrentHashMap<>();
@@ -82,16 +125,33 @@ public class BaseInstanceRegistry implements InstanceRegistry<InstanceInfo> {
         if (existingLease != null) {
             lease.setServiceUpTimestamp(existingLease.getServiceUpTimestamp());
         }
-        registerMap.put(registrant.getInstanceId(), lease);
+        expiryIndex.index(lease);
+        existingLease = registerMap.put(registrant.getInstanceId(), lease);
+        if (existingLease != null) {
+            expiryIndex.remove(existingLease);
+        }
+        instanceListCache.remove(registrant.getAppName());
         if (InstanceStatus.UP.equals(registrant.getStatus())) {
             lease.serviceUp();
         }
         registrant.setActionType(InstanceInfo.ActionType.ADDED);
         registrant.setLastUpdatedTimestamp();
+        changeLog.append(RegistryChange.ChangeType.REGISTER, registrant.getAppName(), registrant.getInstanceId(), registrant, lease.getLastUpdateTimestamp(), isReplication);
     }
 
     @Override
     public boolean renew(InstanceInfo.InstanceRenew instanceRenew) {
+        return renew(instanceRenew, false);
+    }
+
+    /**
+     * Renew.
+     *
+     * @param instanceRenew the renewal
+     * @param isReplication whether the renewal is replicated from a peer node
+     * @return false if the instance is not registered
+     */
+    public boolean renew(InstanceInfo.InstanceRenew instanceRenew, boolean isReplication) {
         String appName = instanceRenew.getAppName();
         String instanceId = instanceRenew.getInstanceId();
         Map<String, Lease<InstanceInfo>> registryMap = registry.get(appName);
@@ -103,17 +163,30 @@ public class BaseInstanceRegistry implements InstanceRegistry<InstanceInfo> {
             return false;
         }
         leaseToRenew.renew();
+        expiryIndex.index(leaseToRenew);
+        changeLog.append(RegistryChange.ChangeType.RENEW, appName, instanceId, null, leaseToRenew.getLastUpdateTimestamp(), isReplication);
         return true;
     }
 
     @Override
     public void remove(InstanceInfo info) {
+        remove(info, false);
+    }
+
+    /**
+     * Remove.
+     *
+     * @param info          the instance
+     * @param isReplication whether the removal is replicated from a peer node
+     */
+    public void remove(InstanceInfo info, boolean isReplication) {
         String appName = info.getAppName();
         String instanceId = info.getInstanceId();
         Map<String, Lease<InstanceInfo>> leaseMap = registry.get(appName);
         if (CollectionUtil.isNotEmpty(leaseMap)) {
             Lease<InstanceInfo> remove = leaseMap.remove(instanceId);
             if (remove != null) {
+                onCancel(appName, instanceId, remove, RegistryChange.ChangeType.CANCEL, isReplication);
                 log.info("Remove unhealthy node, node ID: {}", instanceId);
             } else {
                 log.warn("Failed to remove unhealthy node, no instance found: {}", instanceId);
@@ -123,37 +196,67 @@ public class BaseInstanceRegistry implements InstanceRegistry<InstanceInfo> {
         }
     }
 
+    @Override
+    public RegistryDelta getDelta(long version) {
+        return changeLog.since(version, MAX_DELTA_CHANGES);
+    }
+
+    /**
+     * Get the version of the latest change.
+     *
+     * @return the version of the latest change
+     */
+    public long getVersion() {
+        return changeLog.currentVersion();
+    }
+
+    /**
+     * Evict the expired leases, only the leases polled from the expiry index are visited.
+     *
+     * @param additionalLeaseMs compensation time of the eviction task
+     */
     public void evict(long additionalLeaseMs) {
-        List<Lease<InstanceInfo>> expiredLeases = new ArrayList<>();
-        for (Map.Entry<String, Map<String, Lease<InstanceInfo>>> groupEntry : registry.entrySet()) {
-            Map<String, Lease<InstanceInfo>> leaseMap = groupEntry.getValue();
-            if (leaseMap != null) {
-                for (Map.Entry<String, Lease<InstanceInfo>> leaseEntry : leaseMap.entrySet()) {
-                    Lease<InstanceInfo> lease = leaseEntry.getValue();
-                    if (lease.isExpired(additionalLeaseMs) && lease.getHolder() != null) {
-                        expiredLeases.add(lease);
-                    }
-                }
-            }
-        }
+        List<Lease<InstanceInfo>> expiredLeases = expiryIndex.pollExpired(System.currentTimeMillis() - additionalLeaseMs);
         for (Lease<InstanceInfo> expiredLease : expiredLeases) {
+            if (expiredLease.getHolder() == null) {
+                continue;
+            }
             String appName = expiredLease.getHolder().getAppName();
             String id = expiredLease.getHolder().getInstanceId();
             String identify = expiredLease.getHolder().getIdentify();
-            internalCancel(appName, id, identify);
+            if (!expiredLease.isExpired(additionalLeaseMs)) {
+                // renewed after it was polled
+                expiryIndex.index(expiredLease);
+                continue;
+            }
+            internalCancel(appName, id, identify, expiredLease);
         }
     }
 
     protected boolean internalCancel(String appName, String id, String identify) {
+        return internalCancel(appName, id, identify, null);
+    }
+
+    private boolean internalCancel(String appName, String id, String identify, Lease<InstanceInfo> expectedLease) {
         Map<String, Lease<InstanceInfo>> registerMap = registry.get(appName);
         if (CollectionUtil.isNotEmpty(registerMap)) {
-            registerMap.remove(id);
+            Lease<InstanceInfo> removed = registerMap.get(id);
+            if (removed == null || (expectedLease != null && removed != expectedLease) || !registerMap.remove(id, removed)) {
+                return false;
+            }
+            onCancel(appName, id, removed, RegistryChange.ChangeType.EVICT, false);
             AbstractSubjectCenter.notify(AbstractSubjectCenter.SubjectType.CLEAR_CONFIG_CACHE, () -> identify);
             log.info("Clean up unhealthy nodes. Node id: {}", id);
         }
         return true;
     }
 
+    private void onCancel(String appName, String id, Lease<InstanceInfo> lease, RegistryChange.ChangeType type, boolean isReplication) {
+        expiryIndex.remove(lease);
+        instanceListCache.remove(appName);
+        changeLog.append(type, appName, id, null, 0L, isReplication);
+    }
+
     /**
      * EvictionTask
      */
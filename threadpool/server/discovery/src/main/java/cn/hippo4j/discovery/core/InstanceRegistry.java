@@ -55,4 +55,12 @@ public interface InstanceRegistry<T> {
      * @param info
      */
     void remove(T info);
+
+    /**
+     * Get the changes since the version.
+     *
+     * @param version the version of the last change the caller has seen, 0 for the first fetch
+     * @return the changes since the version
+     */
+    RegistryDelta getDelta(long version);
 }
@@ -42,6 +42,11 @@ public class Lease<T> {
 
     private long duration;
 
+    /**
+     * Key of the lease in {@link LeaseExpiryIndex}
+     */
+    volatile LeaseExpiryIndex.ExpiryKey expiryKey;
+
     public static final long DEFAULT_DURATION_IN_SECS = 90 * 1000L;
 
     public Lease(T r) {
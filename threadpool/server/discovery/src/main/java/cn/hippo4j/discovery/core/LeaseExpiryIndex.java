@@ -0,0 +1,124 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.hippo4j.discovery.core;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+
+/**
+ * Index of leases ordered by their expiry time, so that the eviction only visits the expired leases.<br>
+ * Each lease is indexed by one key, a renewal replaces the key of the lease, and the keys replaced concurrently
+ * are recognized as stale and dropped when they are polled.
+ *
+ * @param <T> the type of the lease holder
+ */
+class LeaseExpiryIndex<T> {
+
+    @SuppressWarnings("rawtypes")
+    private static final AtomicReferenceFieldUpdater<Lease, ExpiryKey> EXPIRY_KEY_UPDATER =
+            AtomicReferenceFieldUpdater.newUpdater(Lease.class, ExpiryKey.class, "expiryKey");
+
+    private final ConcurrentSkipListMap<ExpiryKey, Lease<T>> index = new ConcurrentSkipListMap<>();
+
+    /**
+     * Sequence to distinguish the leases with the same expiry time
+     */
+    private final AtomicLong sequence = new AtomicLong();
+
+    /**
+     * Index the lease by its current expiry time, replace the previous key of the lease if present.
+     *
+     * @param lease the lease
+     */
+    @SuppressWarnings("unchecked")
+    void index(Lease<T> lease) {
+        ExpiryKey key = new ExpiryKey(lease.getLastUpdateTimestamp(), sequence.incrementAndGet());
+        ExpiryKey previous = EXPIRY_KEY_UPDATER.getAndSet(lease, key);
+        index.put(key, lease);
+        if (previous != null) {
+            index.remove(previous, lease);
+        }
+    }
+
+    /**
+     * Remove the lease from the index.
+     *
+     * @param lease the lease
+     */
+    @SuppressWarnings("unchecked")
+    void remove(Lease<T> lease) {
+        ExpiryKey previous = EXPIRY_KEY_UPDATER.getAndSet(lease, null);
+        if (previous != null) {
+            index.remove(previous, lease);
+        }
+    }
+
+    /**
+     * Remove and return the leases whose expiry time is before the deadline.
+     *
+     * @param deadline the deadline in milliseconds
+     * @return the expired leases
+     */
+    @SuppressWarnings("unchecked")
+    List<Lease<T>> pollExpired(long deadline) {
+        List<Lease<T>> expiredLeases = new ArrayList<>();
+        Map<ExpiryKey, Lease<T>> expiredIndex = index.headMap(new ExpiryKey(deadline, Long.MIN_VALUE));
+        for (Map.Entry<ExpiryKey, Lease<T>> entry : expiredIndex.entrySet()) {
+            ExpiryKey key = entry.getKey();
+            Lease<T> lease = entry.getValue();
+            if (index.remove(key, lease) && EXPIRY_KEY_UPDATER.compareAndSet(lease, key, null)) {
+                expiredLeases.add(lease);
+            }
+        }
+        return expiredLeases;
+    }
+
+    /**
+     * Get the count of the index keys, including the stale keys which are not polled yet.
+     *
+     * @return the count of the index keys
+     */
+    int size() {
+        return index.size();
+    }
+
+    /**
+     * Key of the index, ordered by the expiry time and the sequence.
+     */
+    static final class ExpiryKey implements Comparable<ExpiryKey> {
+
+        private final long expiryTimestamp;
+
+        private final long sequence;
+
+        ExpiryKey(long expiryTimestamp, long sequence) {
+            this.expiryTimestamp = expiryTimestamp;
+            this.sequence = sequence;
+        }
+
+        @Override
+        public int compareTo(ExpiryKey other) {
+            int result = Long.compare(expiryTimestamp, other.expiryTimestamp);
+            return result != 0 ? result : Long.compare(sequence, other.sequence);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.hippo4j.discovery.core;
+
+import cn.hippo4j.common.model.InstanceInfo;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * A versioned change of the registry.
+ */
+@Getter
+@AllArgsConstructor
+public class RegistryChange {
+
+    /**
+     * Version of the change, increases monotonically
+     */
+    private final long version;
+
+    /**
+     * Change type
+     */
+    private final ChangeType type;
+
+    /**
+     * Application name
+     */
+    private final String appName;
+
+    /**
+     * Instance id
+     */
+    private final String instanceId;
+
+    /**
+     * The registered instance, only present for {@link ChangeType#REGISTER}
+     */
+    private final InstanceInfo instance;
+
+    /**
+     * Expiry timestamp of the lease after the change, 0 for {@link ChangeType#CANCEL} and {@link ChangeType#EVICT}
+     */
+    private final long expiryTimestamp;
+
+    /**
+     * Whether the change is replicated from a peer node
+     */
+    private final boolean replication;
+
+    /**
+     * Change type, {@link #EVICT} is the cancellation of an expired lease by the eviction task.
+     */
+    public enum ChangeType {
+
+        REGISTER, RENEW, CANCEL, EVICT
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.hippo4j.discovery.core;
+
+import cn.hippo4j.common.model.InstanceInfo;
+import cn.hippo4j.discovery.core.RegistryChange.ChangeType;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A bounded log of the registry changes, the changes are kept in a ring buffer indexed by their version,
+ * so that the console and the cluster peers can fetch the changes since a version instead of all instances.<br>
+ * The oldest changes are overwritten when the buffer is full,
+ * the callers which fall behind the buffer are asked to do a full sync.
+ */
+class RegistryChangeLog {
+
+    private final AtomicLong version = new AtomicLong();
+
+    private final AtomicReferenceArray<RegistryChange> changes;
+
+    private final int mask;
+
+    /**
+     * Create a {@link RegistryChangeLog}.
+     *
+     * @param capacity capacity of the buffer, rounded up to a power of 2
+     */
+    RegistryChangeLog(int capacity) {
+        int size = Integer.highestOneBit(Math.max(capacity, 2) - 1) << 1;
+        this.changes = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+    }
+
+    /**
+     * Append a change.
+     *
+     * @param type            change type
+     * @param appName         application name
+     * @param instanceId      instance id
+     * @param instance        the registered instance
+     * @param expiryTimestamp expiry timestamp of the lease
+     * @param replication     whether the change is replicated from a peer node
+     */
+    void append(ChangeType type, String appName, String instanceId, InstanceInfo instance, long expiryTimestamp, boolean replication) {
+        long changeVersion = version.incrementAndGet();
+        changes.set((int) (changeVersion & mask), new RegistryChange(changeVersion, type, appName, instanceId, instance, expiryTimestamp, replication));
+    }
+
+    /**
+     * Get the current version.
+     *
+     * @return the current version
+     */
+    long currentVersion() {
+        return version.get();
+    }
+
+    /**
+     * Get the changes since the version.
+     *
+     * @param sinceVersion the version of the last change the caller has seen
+     * @param maxChanges   max count of changes returned
+     * @return the changes since the version
+     */
+    RegistryDelta since(long sinceVersion, int maxChanges) {
+        long current = version.get();
+        if (sinceVersion > current || sinceVersion < current - changes.length()) {
+            return RegistryDelta.fullSync(current);
+        }
+        long last = Math.min(current, sinceVersion + maxChanges);
+        List<RegistryChange> result = new ArrayList<>((int) (last - sinceVersion));
+        for (long expected = sinceVersion + 1; expected <= last; expected++) {
+            RegistryChange change = changes.get((int) (expected & mask));
+            if (change == null || change.getVersion() < expected) {
+                // the version is reserved but the change is not written yet
+                return new RegistryDelta(expected - 1, false, result);
+            }
+            if (change.getVersion() > expected) {
+                // overwritten by the writers while reading
+                return RegistryDelta.fullSync(current);
+            }
+            result.add(change);
+        }
+        return new RegistryDelta(last, false, result);
+    }
+}
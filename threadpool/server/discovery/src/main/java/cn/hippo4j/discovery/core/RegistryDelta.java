@@ -0,0 +1,52 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.hippo4j.discovery.core;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Changes of the registry since a version.
+ */
+@Getter
+@AllArgsConstructor
+public class RegistryDelta {
+
+    /**
+     * Version of the last change included, the next delta should be fetched since this version
+     */
+    private final long version;
+
+    /**
+     * Whether the changes since the requested version are no longer retained,
+     * in which case the caller should reload all instances and fetch the next delta since {@link #version}
+     */
+    private final boolean fullSyncRequired;
+
+    /**
+     * Changes in the order of the version
+     */
+    private final List<RegistryChange> changes;
+
+    static RegistryDelta fullSync(long version) {
+        return new RegistryDelta(version, true, Collections.emptyList());
+    }
+}
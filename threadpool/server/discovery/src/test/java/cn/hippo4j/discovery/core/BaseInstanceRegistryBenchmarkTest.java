@@ -0,0 +1,112 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.hippo4j.discovery.core;
+
+import cn.hippo4j.common.model.InstanceInfo;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.results.format.ResultFormatType;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * benchmark test for {@link BaseInstanceRegistry} with 100k registered instances,
+ * the eviction task only visits the expired leases, the renewals re-index the leases concurrently,
+ * and the peers fetch the latest changes from the change log instead of all instances.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+@Fork(1)
+public class BaseInstanceRegistryBenchmarkTest {
+
+    private static final int APP_COUNT = 100;
+
+    @Param({"100000"})
+    private int instanceCount;
+
+    private BaseInstanceRegistry registry;
+
+    private InstanceInfo.InstanceRenew[] renews;
+
+    @Setup
+    public void setup() {
+        registry = new BaseInstanceRegistry();
+        renews = new InstanceInfo.InstanceRenew[instanceCount];
+        for (int i = 0; i < instanceCount; i++) {
+            String appName = "app-" + (i % APP_COUNT);
+            String instanceId = "127.0.0.1:" + i;
+            registry.register(new InstanceInfo().setAppName(appName).setInstanceId(instanceId).setIdentify(instanceId));
+            InstanceInfo.InstanceRenew renew = new InstanceInfo.InstanceRenew();
+            renew.setAppName(appName);
+            renew.setInstanceId(instanceId);
+            renews[i] = renew;
+        }
+    }
+
+    /**
+     * Scheduled eviction while no lease is expired, which walked all leases before.
+     */
+    @Benchmark
+    public void evictNothingExpired() {
+        registry.evict(0L);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public boolean renew() {
+        return registry.renew(renews[ThreadLocalRandom.current().nextInt(instanceCount)]);
+    }
+
+    @Benchmark
+    public void listInstance(Blackhole blackhole) {
+        blackhole.consume(registry.listInstance("app-" + ThreadLocalRandom.current().nextInt(APP_COUNT)));
+    }
+
+    @Benchmark
+    public RegistryDelta deltaOfLatestChanges() {
+        return registry.getDelta(registry.getVersion() - 100);
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options opts = new OptionsBuilder()
+                .include(BaseInstanceRegistryBenchmarkTest.class.getSimpleName())
+                .resultFormat(ResultFormatType.JSON)
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(opts).run();
+    }
+}
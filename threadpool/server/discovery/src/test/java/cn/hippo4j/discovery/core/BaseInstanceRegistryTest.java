@@ -0,0 +1,157 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package cn.hippo4j.discovery.core;
+
+import cn.hippo4j.common.model.InstanceInfo;
+import cn.hippo4j.discovery.core.RegistryChange.ChangeType;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+/**
+ * Base instance registry test
+ */
+public class BaseInstanceRegistryTest {
+
+    private static final String APP_NAME = "dynamic-threadpool-example";
+
+    private final BaseInstanceRegistry registry = new BaseInstanceRegistry();
+
+    @Test
+    public void testRegisterAndList() {
+        registry.register(instance("1"));
+        registry.register(instance("2"));
+        List<Lease<InstanceInfo>> instances = registry.listInstance(APP_NAME);
+        Assertions.assertEquals(2, instances.size());
+        Assertions.assertSame(instances, registry.listInstance(APP_NAME));
+        Assertions.assertThrows(UnsupportedOperationException.class, () -> instances.add(null));
+        registry.register(instance("3"));
+        Assertions.assertEquals(3, registry.listInstance(APP_NAME).size());
+        registry.remove(instance("3"));
+        Assertions.assertEquals(2, registry.listInstance(APP_NAME).size());
+        Assertions.assertTrue(registry.listInstance("unknown").isEmpty());
+    }
+
+    @Test
+    public void testEvict() {
+        registry.register(instance("1"));
+        registry.register(instance("2"));
+        // nothing is expired
+        registry.evict(0L);
+        Assertions.assertEquals(2, registry.listInstance(APP_NAME).size());
+        long version = registry.getVersion();
+        // all leases are expired when the additional lease time is negative enough
+        registry.evict(-Lease.DEFAULT_DURATION_IN_SECS * 2);
+        Assertions.assertTrue(registry.listInstance(APP_NAME).isEmpty());
+        Assertions.assertFalse(registry.renew(renew("1")));
+        RegistryDelta delta = registry.getDelta(version);
+        Assertions.assertEquals(2, delta.getChanges().size());
+        Assertions.assertTrue(delta.getChanges().stream().allMatch(each -> each.getType() == ChangeType.EVICT));
+    }
+
+    @Test
+    public void testReplication() {
+        long version = registry.getVersion();
+        registry.register(instance("1"), true);
+        registry.renew(renew("1"), true);
+        registry.register(instance("2"));
+        registry.remove(instance("1"), true);
+        List<RegistryChange> changes = registry.getDelta(version).getChanges();
+        Assertions.assertEquals(4, changes.size());
+        Assertions.assertTrue(changes.get(0).isReplication());
+        Assertions.assertTrue(changes.get(1).isReplication());
+        Assertions.assertFalse(changes.get(2).isReplication());
+        Assertions.assertTrue(changes.get(3).isReplication());
+        Assertions.assertEquals(1, registry.listInstance(APP_NAME).size());
+    }
+
+    @Test
+    public void testRenewAndReRegister() {
+        InstanceInfo instance = instance("1");
+        registry.register(instance);
+        registry.register(instance);
+        Assertions.assertTrue(registry.renew(renew("1")));
+        Assertions.assertEquals(1, registry.listInstance(APP_NAME).size());
+        registry.evict(-Lease.DEFAULT_DURATION_IN_SECS * 2);
+        Assertions.assertTrue(registry.listInstance(APP_NAME).isEmpty());
+    }
+
+    @Test
+    public void testDelta() {
+        long version = registry.getVersion();
+        registry.register(instance("1"));
+        registry.renew(renew("1"));
+        registry.remove(instance("1"));
+        RegistryDelta delta = registry.getDelta(version);
+        Assertions.assertFalse(delta.isFullSyncRequired());
+        Assertions.assertEquals(version + 3, delta.getVersion());
+        Assertions.assertEquals(3, delta.getChanges().size());
+        Assertions.assertEquals(ChangeType.REGISTER, delta.getChanges().get(0).getType());
+        Assertions.assertEquals("1", delta.getChanges().get(0).getInstance().getInstanceId());
+        Assertions.assertEquals(ChangeType.RENEW, delta.getChanges().get(1).getType());
+        Assertions.assertEquals(ChangeType.CANCEL, delta.getChanges().get(2).getType());
+        Assertions.assertTrue(registry.getDelta(delta.getVersion()).getChanges().isEmpty());
+        // a version from the future can not be served incrementally
+        Assertions.assertTrue(registry.getDelta(delta.getVersion() + 1).isFullSyncRequired());
+    }
+
+    @Test
+    public void testChangeLogOverwritten() {
+        RegistryChangeLog changeLog = new RegistryChangeLog(4);
+        for (int i = 0; i < 6; i++) {
+            changeLog.append(ChangeType.RENEW, APP_NAME, String.valueOf(i), null, i, false);
+        }
+        Assertions.assertTrue(changeLog.since(1, 10).isFullSyncRequired());
+        RegistryDelta delta = changeLog.since(2, 10);
+        Assertions.assertFalse(delta.isFullSyncRequired());
+        Assertions.assertEquals(6, delta.getVersion());
+        Assertions.assertEquals(4, delta.getChanges().size());
+        Assertions.assertEquals(3, delta.getChanges().get(0).getVersion());
+        delta = changeLog.since(2, 1);
+        Assertions.assertEquals(3, delta.getVersion());
+        Assertions.assertEquals(1, delta.getChanges().size());
+    }
+
+    @Test
+    public void testExpiryIndex() {
+        LeaseExpiryIndex<String> index = new LeaseExpiryIndex<>();
+        Lease<String> lease = new Lease<>("1");
+        index.index(lease);
+        lease.renew();
+        index.index(lease);
+        Assertions.assertEquals(1, index.size());
+        Assertions.assertTrue(index.pollExpired(lease.getLastUpdateTimestamp()).isEmpty());
+        Assertions.assertEquals(1, index.pollExpired(lease.getLastUpdateTimestamp() + 1).size());
+        Assertions.assertEquals(0, index.size());
+        index.index(lease);
+        index.remove(lease);
+        Assertions.assertTrue(index.pollExpired(Long.MAX_VALUE).isEmpty());
+    }
+
+    private static InstanceInfo instance(String instanceId) {
+        return new InstanceInfo().setAppName(APP_NAME).setInstanceId(instanceId).setIdentify("127.0.0.1:8088_" + instanceId);
+    }
+
+    private static InstanceInfo.InstanceRenew renew(String instanceId) {
+        InstanceInfo.InstanceRenew renew = new InstanceInfo.InstanceRenew();
+        renew.setAppName(APP_NAME);
+        renew.setInstanceId(instanceId);
+        return renew;
+    }
+}